@@ -0,0 +1,138 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.liveramp.hank.client;
+
+import java.io.IOException;
+
+import org.apache.thrift.TByteArrayOutputStream;
+import org.apache.thrift.transport.TFramedTransport;
+import org.apache.thrift.transport.TMemoryInputTransport;
+import org.apache.thrift.transport.TTransport;
+import org.apache.thrift.transport.TTransportException;
+import org.xerial.snappy.Snappy;
+
+import com.liveramp.hank.partition_server.ResponseCompression;
+
+/**
+ * Framed transport used once response compression has been negotiated with a
+ * partition server. Request frames are prefixed with a response compression
+ * header, and response frames are decompressed when needed (see ResponseCompression).
+ */
+public class CompressedResponseFramedTransport extends TTransport {
+
+  private static final int FRAME_SIZE_NUM_BYTES = 4;
+
+  private final TTransport transport;
+  private final TByteArrayOutputStream writeBuffer = new TByteArrayOutputStream(1024);
+  private final TMemoryInputTransport readBuffer = new TMemoryInputTransport(new byte[0]);
+  private final byte[] frameHeader = new byte[FRAME_SIZE_NUM_BYTES + ResponseCompression.REQUEST_HEADER_NUM_BYTES];
+  private final byte[] frameSizeBuffer = new byte[FRAME_SIZE_NUM_BYTES];
+
+  public CompressedResponseFramedTransport(TTransport transport, int minCompressedResponseSize) {
+    this.transport = transport;
+    ResponseCompression.encodeRequestHeader(minCompressedResponseSize, frameHeader, FRAME_SIZE_NUM_BYTES);
+  }
+
+  @Override
+  public boolean isOpen() {
+    return transport.isOpen();
+  }
+
+  @Override
+  public void open() throws TTransportException {
+    transport.open();
+  }
+
+  @Override
+  public void close() {
+    transport.close();
+  }
+
+  @Override
+  public int read(byte[] buf, int off, int len) throws TTransportException {
+    int got = readBuffer.read(buf, off, len);
+    if (got > 0) {
+      return got;
+    }
+    readFrame();
+    return readBuffer.read(buf, off, len);
+  }
+
+  @Override
+  public byte[] getBuffer() {
+    return readBuffer.getBuffer();
+  }
+
+  @Override
+  public int getBufferPosition() {
+    return readBuffer.getBufferPosition();
+  }
+
+  @Override
+  public int getBytesRemainingInBuffer() {
+    return readBuffer.getBytesRemainingInBuffer();
+  }
+
+  @Override
+  public void consumeBuffer(int len) {
+    readBuffer.consumeBuffer(len);
+  }
+
+  @Override
+  public void write(byte[] buf, int off, int len) throws TTransportException {
+    writeBuffer.write(buf, off, len);
+  }
+
+  @Override
+  public void flush() throws TTransportException {
+    int len = writeBuffer.len();
+    TFramedTransport.encodeFrameSize(ResponseCompression.REQUEST_HEADER_NUM_BYTES + len, frameSizeBuffer);
+    System.arraycopy(frameSizeBuffer, 0, frameHeader, 0, FRAME_SIZE_NUM_BYTES);
+    transport.write(frameHeader, 0, frameHeader.length);
+    transport.write(writeBuffer.get(), 0, len);
+    writeBuffer.reset();
+    transport.flush();
+  }
+
+  private void readFrame() throws TTransportException {
+    transport.readAll(frameSizeBuffer, 0, FRAME_SIZE_NUM_BYTES);
+    int size = TFramedTransport.decodeFrameSize(frameSizeBuffer);
+    if (size < ResponseCompression.RESPONSE_HEADER_NUM_BYTES) {
+      throw new TTransportException("Read an invalid frame size (" + size + ")!");
+    }
+    byte[] frame = new byte[size];
+    transport.readAll(frame, 0, size);
+    int dataStart = ResponseCompression.RESPONSE_HEADER_NUM_BYTES;
+    int dataLength = size - ResponseCompression.RESPONSE_HEADER_NUM_BYTES;
+    switch (frame[0]) {
+      case ResponseCompression.RESPONSE_RAW:
+        readBuffer.reset(frame, dataStart, dataLength);
+        break;
+      case ResponseCompression.RESPONSE_SNAPPY:
+        try {
+          byte[] uncompressed = new byte[Snappy.uncompressedLength(frame, dataStart, dataLength)];
+          Snappy.uncompress(frame, dataStart, dataLength, uncompressed, 0);
+          readBuffer.reset(uncompressed);
+        } catch (IOException e) {
+          throw new TTransportException("Failed to decompress response", e);
+        }
+        break;
+      default:
+        throw new TTransportException("Unknown response compression header: " + frame[0]);
+    }
+  }
+}
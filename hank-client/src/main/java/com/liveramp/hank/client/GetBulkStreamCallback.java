@@ -0,0 +1,28 @@
+/*
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.client;
+
+import com.liveramp.hank.generated.HankResponse;
+
+public interface GetBulkStreamCallback {
+
+  // Called for each key as soon as its response is available. Responses are delivered in any order,
+  // possibly from different threads, but calls are never concurrent.
+  public void onResponse(int keyIndex, HankResponse response);
+
+  // Called once all responses have been delivered
+  public void onComplete();
+}
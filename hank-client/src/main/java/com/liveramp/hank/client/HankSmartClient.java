@@ -18,9 +18,15 @@ package com.liveramp.hank.client;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadFactory;
@@ -31,17 +37,22 @@ import org.slf4j.Logger; import org.slf4j.LoggerFactory;
 import org.apache.thrift.TException;
 
 import com.liveramp.commons.util.BytesUtils;
+import com.liveramp.hank.config.BaseReaderConfigurator;
+import com.liveramp.hank.config.DataDirectoriesConfigurator;
 import com.liveramp.hank.config.HankSmartClientConfigurator;
+import com.liveramp.hank.config.ReaderConfigurator;
 import com.liveramp.hank.coordinator.Coordinator;
 import com.liveramp.hank.coordinator.Domain;
 import com.liveramp.hank.coordinator.Host;
 import com.liveramp.hank.coordinator.HostAddress;
 import com.liveramp.hank.coordinator.HostDomain;
 import com.liveramp.hank.coordinator.HostDomainPartition;
+import com.liveramp.hank.coordinator.Hosts;
 import com.liveramp.hank.coordinator.PartitionServerAddress;
 import com.liveramp.hank.coordinator.Ring;
 import com.liveramp.hank.coordinator.RingGroup;
 import com.liveramp.hank.coordinator.RingGroupDataLocationChangeListener;
+import com.liveramp.hank.generated.DomainKey;
 import com.liveramp.hank.generated.HankBulkResponse;
 import com.liveramp.hank.generated.HankException;
 import com.liveramp.hank.generated.HankResponse;
@@ -49,11 +60,10 @@ import com.liveramp.hank.util.AtomicLongCollection;
 import com.liveramp.hank.util.FormatUtils;
 import com.liveramp.hank.util.HankResponseMemoryUsageEstimator;
 import com.liveramp.hank.util.HankTimer;
+import com.liveramp.hank.util.LocalHostUtils;
 import com.liveramp.hank.util.SynchronizedMemoryBoundCacheExpiring;
 import com.liveramp.hank.util.UpdateStatisticsRunnable;
 
-import static com.liveramp.hank.client.HostConnectionPool.getHostListShuffleSeed;
-
 public class HankSmartClient implements HankSmartClientIface, RingGroupDataLocationChangeListener {
 
   private static final long CACHE_UPDATER_MINIMUM_WAIT_MS = 5 * 1000;
@@ -68,6 +78,8 @@ public class HankSmartClient implements HankSmartClientIface, RingGroupDataLocat
   private static final TimeUnit GET_TASK_EXECUTOR_AWAIT_TERMINATION_UNIT = TimeUnit.SECONDS;
   private static final int GET_TASK_EXECUTOR_QUEUE_SIZE = 1024;
 
+  private static final int LOCAL_READER_BUFFER_REUSE_MAX_SIZE = 1 << 20;
+
   private static final int UPDATE_RUNTIME_STATISTICS_THREAD_SLEEP_TIME_MS_DEFAULT = 30000;
   private static final int UPDATE_RUNTIME_STATISTICS_NUM_MEASUREMENTS = 3;
   private static final long UPDATE_RUNTIME_STATISTICS_MEASUREMENT_SLEEP_TIME_MS = 1000;
@@ -83,11 +95,35 @@ public class HankSmartClient implements HankSmartClientIface, RingGroupDataLocat
   private final int queryTimeoutMs;
   private final int bulkQueryTimeoutMs;
 
+  // Adaptive concurrency limiting of requests sent to each host
+  private final boolean concurrencyLimitEnabled;
+  private final int initialConcurrencyLimit;
+  private final int maxConcurrencyLimit;
+  private final int concurrencyLimitLatencyThresholdMs;
+  // Shared by all connection pools. Null when retries are not limited.
+  private final RetryBudget retryBudget;
+  // Minimum size of responses compressed by hosts. Negative when response compression is disabled.
+  private final int minCompressedResponseSize;
+  private final boolean requestDeadlinesEnabled;
+
+  // Local reads from the data directories of a co-located partition server. Null when disabled.
+  private final ReaderConfigurator localReaderConfigurator;
+  private final String localHostName;
+
   private final SynchronizedMemoryBoundCacheExpiring<DomainAndKey, HankResponse> responseCache;
   // 0: num queries
   // 1: num cache hits
+  // 2: num coalesced queries
+  // 3: num local queries
   private final AtomicLongCollection requestsCounters;
 
+  // Requests currently being performed against partition servers, used to coalesce identical concurrent requests
+  private final boolean requestCoalescingEnabled;
+  private final ConcurrentMap<DomainAndKey, InFlightGet> inFlightGets;
+
+  // Send the partition computed by the client to the partition servers
+  private final boolean sendPartitionToServerEnabled;
+
   private final ThreadPoolExecutor getTaskExecutor;
 
   private final UpdateRuntimeStatisticsRunnable updateRuntimeStatisticsRunnable;
@@ -95,10 +131,8 @@ public class HankSmartClient implements HankSmartClientIface, RingGroupDataLocat
 
   // Connection Cache
 
-  private Map<HostAddress, HostConnectionPool> partitionServerAddressToConnectionPool
-      = new HashMap<HostAddress, HostConnectionPool>();
-  private Map<Integer, Map<Integer, HostConnectionPool>> domainToPartitionToConnectionPool
-      = new HashMap<Integer, Map<Integer, HostConnectionPool>>();
+  // Readers use the current routing table without locking. Updates build a new table and publish it.
+  private volatile RoutingTable routingTable = RoutingTable.EMPTY;
 
   private final Object connectionCacheLock = new Object();
   private final ConnectionCacheUpdaterRunnable connectionCacheUpdaterRunnable = new ConnectionCacheUpdaterRunnable();
@@ -155,6 +189,33 @@ public class HankSmartClient implements HankSmartClientIface, RingGroupDataLocat
     this.establishConnectionTimeoutMs = options.getEstablishConnectionTimeoutMs();
     this.queryTimeoutMs = options.getQueryTimeoutMs();
     this.bulkQueryTimeoutMs = options.getBulkQueryTimeoutMs();
+    this.concurrencyLimitEnabled = options.getConcurrencyLimitEnabled();
+    this.initialConcurrencyLimit = options.getInitialConcurrencyLimit();
+    this.maxConcurrencyLimit = options.getMaxConcurrencyLimit();
+    this.concurrencyLimitLatencyThresholdMs = options.getConcurrencyLimitLatencyThresholdMs();
+    if (options.getRetryBudgetEnabled()) {
+      this.retryBudget = new RetryBudget(options.getRetryBudgetRatio(), options.getRetryBudgetMaxRetries());
+    } else {
+      this.retryBudget = null;
+    }
+    this.minCompressedResponseSize = options.getResponseCompressionEnabled()
+        ? Math.max(0, options.getMinCompressedResponseSize()) : -1;
+    this.requestDeadlinesEnabled = options.getRequestDeadlinesEnabled();
+    if (options.getLocalDataDirectories() != null && !options.getLocalDataDirectories().isEmpty()) {
+      final Set<String> localDataDirectories = options.getLocalDataDirectories();
+      this.localReaderConfigurator = new BaseReaderConfigurator(new DataDirectoriesConfigurator() {
+        @Override
+        public Set<String> getDataDirectories() {
+          return localDataDirectories;
+        }
+      }, 0, 0, LOCAL_READER_BUFFER_REUSE_MAX_SIZE, 1);
+      this.localHostName = LocalHostUtils.getHostName();
+      LOG.info(getLogPrefix() + "Local reads are enabled for partition servers on host " + localHostName
+          + " with data directories " + localDataDirectories);
+    } else {
+      this.localReaderConfigurator = null;
+      this.localHostName = null;
+    }
     this.responseCache = new SynchronizedMemoryBoundCacheExpiring<DomainAndKey, HankResponse>(
         options.getResponseCacheEnabled(),
         options.getResponseCacheNumBytesCapacity(),
@@ -162,7 +223,10 @@ public class HankSmartClient implements HankSmartClientIface, RingGroupDataLocat
         options.getResponseCacheExpirationSeconds(),
         new DomainAndKey.DomainAndKeyMemoryUsageEstimator(),
         new HankResponseMemoryUsageEstimator());
-    this.requestsCounters = new AtomicLongCollection(2, new long[]{0, 0});
+    this.requestsCounters = new AtomicLongCollection(4, new long[]{0, 0, 0, 0});
+    this.requestCoalescingEnabled = options.getRequestCoalescingEnabled();
+    this.inFlightGets = new ConcurrentHashMap<DomainAndKey, InFlightGet>();
+    this.sendPartitionToServerEnabled = options.getSendPartitionToServerEnabled();
 
     // This creates a thread pool executor with a specific maximum number of threads.
     // We allow core threads to timeout after the keep alive time. We use a custom bounded
@@ -193,34 +257,31 @@ public class HankSmartClient implements HankSmartClientIface, RingGroupDataLocat
   private void updateConnectionCache() throws IOException, TException {
     LOG.info(getLogPrefix() + "Loading Hank's smart client metadata cache and connections.");
 
-    // Create new empty cache
-    final Map<HostAddress, HostConnectionPool> newPartitionServerAddressToConnectionPool
-        = new HashMap<HostAddress, HostConnectionPool>();
-    final Map<Integer, Map<Integer, HostConnectionPool>> newDomainToPartitionToConnectionPool
-        = new HashMap<Integer, Map<Integer, HostConnectionPool>>();
-
-    // Build new cache
-    buildNewConnectionCache(
-        newPartitionServerAddressToConnectionPool,
-        newDomainToPartitionToConnectionPool);
-
-    // Switch old cache for new cache
-    final Map<HostAddress, HostConnectionPool> oldPartitionServerAddressToConnectionPool
-        = partitionServerAddressToConnectionPool;
     synchronized (connectionCacheLock) {
-      partitionServerAddressToConnectionPool = newPartitionServerAddressToConnectionPool;
-      domainToPartitionToConnectionPool = newDomainToPartitionToConnectionPool;
-    }
-
-    // Clean up old cache when new cache is in place
-    for (Map.Entry<HostAddress, HostConnectionPool> entry
-        : oldPartitionServerAddressToConnectionPool.entrySet()) {
-      HostAddress address = entry.getKey();
-      HostConnectionPool connections = entry.getValue();
-      // Only close connections that have not been reused
-      if (!partitionServerAddressToConnectionPool.containsKey(address)) {
-        for (HostConnection connection : connections.getConnections()) {
-          connection.disconnect();
+      final RoutingTable oldRoutingTable = routingTable;
+
+      // Build new cache
+      final RoutingTable newRoutingTable = buildNewRoutingTable(oldRoutingTable);
+
+      // Switch old cache for new cache
+      routingTable = newRoutingTable;
+
+      // Clean up old cache when new cache is in place
+      for (Map.Entry<HostAddress, HostConnectionPool> entry
+          : oldRoutingTable.getPartitionServerAddressToConnectionPool().entrySet()) {
+        HostAddress address = entry.getKey();
+        HostConnectionPool connections = entry.getValue();
+        // Only close connections that have not been reused
+        if (!newRoutingTable.getPartitionServerAddressToConnectionPool().containsKey(address)) {
+          for (HostConnection connection : connections.getConnections()) {
+            connection.disconnect();
+          }
+        }
+      }
+      // Only close local partition readers that have not been reused
+      for (LocalPartitionReader localPartitionReader : oldRoutingTable.getLocalPartitionReaders()) {
+        if (!newRoutingTable.getLocalPartitionReaders().contains(localPartitionReader)) {
+          localPartitionReader.close();
         }
       }
     }
@@ -269,13 +330,14 @@ public class HankSmartClient implements HankSmartClientIface, RingGroupDataLocat
     }
   }
 
-  private void buildNewConnectionCache(
-      final Map<HostAddress, HostConnectionPool> newPartitionServerAddressToConnectionPool,
-      final Map<Integer, Map<Integer, HostConnectionPool>> newDomainToPartitionToConnectionPool)
-      throws IOException, TException {
+  private RoutingTable buildNewRoutingTable(RoutingTable currentRoutingTable) throws IOException, TException {
 
+    final Map<HostAddress, HostConnectionPool> newPartitionServerAddressToConnectionPool
+        = new HashMap<HostAddress, HostConnectionPool>();
     final Map<Integer, Map<Integer, List<HostAddress>>> newDomainToPartitionToPartitionServerAddressList
         = new HashMap<Integer, Map<Integer, List<HostAddress>>>();
+    final Map<Integer, Map<Integer, LocalPartitionReader>> newDomainToPartitionToLocalPartitionReader
+        = new HashMap<Integer, Map<Integer, LocalPartitionReader>>();
 
     for (Ring ring : ringGroup.getRings()) {
       for (Host host : ring.getHosts()) {
@@ -283,6 +345,8 @@ public class HankSmartClient implements HankSmartClientIface, RingGroupDataLocat
         LOG.info(getLogPrefix() + "Loading partition metadata for Host: " + host.getAddress());
 
         HostAddress hostAddress = new HostAddress(ring, host.getAddress());
+        // Partition servers that update while serving replace files under open readers, read them through Thrift
+        boolean isLocalServingHost = isLocalHost(host) && Hosts.isServing(host) && !Hosts.isUpdateWhileServing(host);
 
         // Build new domainToPartitionToPartitionServerAddresses
         for (HostDomain hostDomain : host.getAssignedDomains()) {
@@ -307,13 +371,19 @@ public class HankSmartClient implements HankSmartClientIface, RingGroupDataLocat
                 partitionToAdresses.put(partition.getPartitionNumber(), partitionsList);
               }
               partitionsList.add(hostAddress);
+              // Open (or reuse) a local partition reader if the partition is served by a co-located partition server
+              if (isLocalServingHost) {
+                addLocalPartitionReader(currentRoutingTable, newDomainToPartitionToLocalPartitionReader,
+                    host, domain, partition);
+              }
             }
           }
         }
 
         // Build new partitionServerAddressToConnectionPool
         // Reuse current connection pool to that host if one exists
-        HostConnectionPool hostConnectionPool = partitionServerAddressToConnectionPool.get(hostAddress);
+        HostConnectionPool hostConnectionPool =
+            currentRoutingTable.getPartitionServerAddressToConnectionPool().get(hostAddress);
         if (hostConnectionPool == null) {
           // Establish new connections to host
           LOG.info(getLogPrefix() + "Establishing " + numConnectionsPerHost + " connections to " + host
@@ -321,37 +391,82 @@ public class HankSmartClient implements HankSmartClientIface, RingGroupDataLocat
               + ", connection establishment timeout = " + establishConnectionTimeoutMs + "ms"
               + ", query timeout = " + queryTimeoutMs + "ms"
               + ", bulk query timeout = " + bulkQueryTimeoutMs + "ms");
+          // All connections to a host share the same concurrency limiter
+          HostConcurrencyLimiter concurrencyLimiter = null;
+          if (concurrencyLimitEnabled) {
+            concurrencyLimiter = new HostConcurrencyLimiter(initialConcurrencyLimit,
+                maxConcurrencyLimit,
+                concurrencyLimitLatencyThresholdMs);
+          }
           List<HostConnection> hostConnections = new ArrayList<HostConnection>(numConnectionsPerHost);
           for (int i = 0; i < numConnectionsPerHost; i++) {
             hostConnections.add(new HostConnection(host,
                 tryLockConnectionTimeoutMs,
                 establishConnectionTimeoutMs,
                 queryTimeoutMs,
-                bulkQueryTimeoutMs));
+                bulkQueryTimeoutMs,
+                concurrencyLimiter,
+                minCompressedResponseSize,
+                requestDeadlinesEnabled));
           }
-          hostConnectionPool = HostConnectionPool.createFromList(hostConnections, null);
+          hostConnectionPool = HostConnectionPool.createFromList(hostConnections, null, retryBudget);
         }
         newPartitionServerAddressToConnectionPool.put(hostAddress, hostConnectionPool);
       }
     }
 
-    // Build new domainToPartitionToConnectionPool
-    for (Map.Entry<Integer, Map<Integer, List<HostAddress>>> domainToPartitionToAddressesEntry :
-        newDomainToPartitionToPartitionServerAddressList.entrySet()) {
-      Integer domainId = domainToPartitionToAddressesEntry.getKey();
-      Map<Integer, HostConnectionPool> partitionToConnectionPool = new HashMap<Integer, HostConnectionPool>();
-      for (Map.Entry<Integer, List<HostAddress>> partitionToAddressesEntry :
-          domainToPartitionToAddressesEntry.getValue().entrySet()) {
-        List<HostConnection> connections = new ArrayList<HostConnection>();
-        for (HostAddress address : partitionToAddressesEntry.getValue()) {
-          connections.addAll(newPartitionServerAddressToConnectionPool.get(address).getConnections());
-        }
-        Integer partitionId = partitionToAddressesEntry.getKey();
-        partitionToConnectionPool.put(partitionId,
-            HostConnectionPool.createFromList(connections, getHostListShuffleSeed(domainId, partitionId)));
-      }
-      newDomainToPartitionToConnectionPool.put(domainId, partitionToConnectionPool);
+    // Build new domain to partition to connection pool table
+    return RoutingTable.create(newPartitionServerAddressToConnectionPool,
+        newDomainToPartitionToPartitionServerAddressList,
+        newDomainToPartitionToLocalPartitionReader,
+        retryBudget);
+  }
+
+  private boolean isLocalHost(Host host) {
+    return localReaderConfigurator != null && localHostName.equals(host.getAddress().getHostName());
+  }
+
+  private void addLocalPartitionReader(RoutingTable currentRoutingTable,
+                                       Map<Integer, Map<Integer, LocalPartitionReader>> domainToPartitionToLocalPartitionReader,
+                                       Host host,
+                                       Domain domain,
+                                       HostDomainPartition partition) throws IOException {
+    Integer versionNumber = partition.getCurrentDomainVersion();
+    if (versionNumber == null) {
+      return;
+    }
+    Map<Integer, LocalPartitionReader> partitionToLocalPartitionReader = domainToPartitionToLocalPartitionReader.get(domain.getId());
+    if (partitionToLocalPartitionReader == null) {
+      partitionToLocalPartitionReader = new HashMap<Integer, LocalPartitionReader>();
+      domainToPartitionToLocalPartitionReader.put(domain.getId(), partitionToLocalPartitionReader);
+    }
+    if (partitionToLocalPartitionReader.containsKey(partition.getPartitionNumber())) {
+      return;
+    }
+    // Reuse current local partition reader if it is still open and reading the same version
+    LocalPartitionReader localPartitionReader =
+        currentRoutingTable.getLocalPartitionReader(domain.getId(), partition.getPartitionNumber());
+    if (localPartitionReader == null
+        || !localPartitionReader.getHost().equals(host)
+        || localPartitionReader.getVersionNumber() != versionNumber
+        || !localPartitionReader.isOpen()) {
+      localPartitionReader = LocalPartitionReader.open(host, domain, partition.getPartitionNumber(), versionNumber,
+          localReaderConfigurator);
     }
+    if (localPartitionReader != null) {
+      partitionToLocalPartitionReader.put(partition.getPartitionNumber(), localPartitionReader);
+    }
+  }
+
+  /**
+   * Resolve a Domain by name. The result can be kept by callers and passed to the Domain based
+   * query methods so that the name lookup is not performed on every request.
+   *
+   * @param domainName
+   * @return the Domain, or null if there is no such Domain
+   */
+  public Domain getDomain(String domainName) {
+    return coordinator.getDomain(domainName);
   }
 
   // Synchronous get
@@ -366,6 +481,15 @@ public class HankSmartClient implements HankSmartClientIface, RingGroupDataLocat
     return _get(domain, key);
   }
 
+  // Synchronous get with a pre-resolved Domain
+  public HankResponse get(Domain domain, ByteBuffer key) {
+    if (domain == null) {
+      LOG.error(getLogPrefix() + "No such Domain: null");
+      return NO_SUCH_DOMAIN;
+    }
+    return _get(domain, key);
+  }
+
   // Synchronous getBulk
   @Override
   public HankBulkResponse getBulk(String domainName, List<ByteBuffer> keys) {
@@ -375,6 +499,19 @@ public class HankSmartClient implements HankSmartClientIface, RingGroupDataLocat
       LOG.error(getLogPrefix() + "No such Domain: " + domainName);
       return NO_SUCH_DOMAIN_BULK;
     }
+    return _getBulk(domain, keys);
+  }
+
+  // Synchronous getBulk with a pre-resolved Domain
+  public HankBulkResponse getBulk(Domain domain, List<ByteBuffer> keys) {
+    if (domain == null) {
+      LOG.error(getLogPrefix() + "No such Domain: null");
+      return NO_SUCH_DOMAIN_BULK;
+    }
+    return _getBulk(domain, keys);
+  }
+
+  private HankBulkResponse _getBulk(Domain domain, List<ByteBuffer> keys) {
     // Execute futures
     List<FutureGet> futureGets = new ArrayList<FutureGet>(keys.size());
     for (ByteBuffer key : keys) {
@@ -388,6 +525,186 @@ public class HankSmartClient implements HankSmartClientIface, RingGroupDataLocat
     return HankBulkResponse.responses(allResponses);
   }
 
+  // Synchronous multi get of keys from any domains. Responses are returned in order.
+  @Override
+  public HankBulkResponse getMulti(List<String> domainNames, List<ByteBuffer> keys) {
+    if (domainNames.size() != keys.size()) {
+      String errMsg = "Number of domains (" + domainNames.size() + ") and number of keys (" + keys.size() + ") differ";
+      LOG.error(getLogPrefix() + errMsg);
+      return HankBulkResponse.xception(HankException.internal_error(errMsg));
+    }
+    // Get Domains
+    List<Domain> domains = new ArrayList<Domain>(domainNames.size());
+    for (String domainName : domainNames) {
+      Domain domain = coordinator.getDomain(domainName);
+      if (domain == null) {
+        LOG.error(getLogPrefix() + "No such Domain: " + domainName);
+      }
+      domains.add(domain);
+    }
+    return _getMulti(domains, keys);
+  }
+
+  // Keys are grouped by host so that all keys served by a given host are requested in a single call.
+  // Keys that cannot be grouped (not served by any serving host, or served locally) and keys for which
+  // the grouped call fails are performed as regular gets.
+  private HankBulkResponse _getMulti(List<Domain> domains, List<ByteBuffer> keys) {
+    RoutingTable currentRoutingTable = routingTable;
+    HankResponse[] responses = new HankResponse[keys.size()];
+    Map<Host, List<Integer>> hostToKeyIndexes = new HashMap<Host, List<Integer>>();
+    List<Integer> remainingKeyIndexes = new ArrayList<Integer>();
+    groupKeysByHost(currentRoutingTable, domains, keys, responses, hostToKeyIndexes, remainingKeyIndexes);
+    // Execute grouped requests
+    List<GetMultiTask> getMultiTasks = new ArrayList<GetMultiTask>(hostToKeyIndexes.size());
+    for (Map.Entry<Host, List<Integer>> entry : hostToKeyIndexes.entrySet()) {
+      GetMultiTask getMultiTask = new GetMultiTask(new GetMultiTaskRunnable(
+          currentRoutingTable.getHostConnectionPool(entry.getKey()), domains, keys, entry.getValue()));
+      getTaskExecutor.execute(getMultiTask);
+      getMultiTasks.add(getMultiTask);
+    }
+    for (GetMultiTask getMultiTask : getMultiTasks) {
+      getMultiTask.getResponses(responses, remainingKeyIndexes);
+    }
+    // Execute remaining requests individually
+    List<FutureGet> futureGets = new ArrayList<FutureGet>(remainingKeyIndexes.size());
+    for (Integer keyIndex : remainingKeyIndexes) {
+      futureGets.add(_concurrentGet(domains.get(keyIndex), keys.get(keyIndex)));
+    }
+    for (int i = 0; i < futureGets.size(); ++i) {
+      responses[remainingKeyIndexes.get(i)] = futureGets.get(i).getResponse();
+    }
+    List<HankResponse> allResponses = new ArrayList<HankResponse>(responses.length);
+    Collections.addAll(allResponses, responses);
+    return HankBulkResponse.responses(allResponses);
+  }
+
+  // Streamed getBulk: responses are passed to the callback as soon as they are available, in any order.
+  // Returns once all responses have been delivered and the callback has been completed.
+  @Override
+  public void getBulkStream(String domainName, List<ByteBuffer> keys, GetBulkStreamCallback callback) {
+    // Get Domain
+    Domain domain = coordinator.getDomain(domainName);
+    if (domain == null) {
+      LOG.error(getLogPrefix() + "No such Domain: " + domainName);
+    }
+    getBulkStream(domain, keys, callback);
+  }
+
+  // Streamed getBulk with a pre-resolved Domain
+  public void getBulkStream(Domain domain, List<ByteBuffer> keys, GetBulkStreamCallback callback) {
+    SynchronizedGetBulkStreamCallback synchronizedCallback = new SynchronizedGetBulkStreamCallback(callback);
+    if (domain == null) {
+      for (int i = 0; i < keys.size(); ++i) {
+        synchronizedCallback.onResponse(i, NO_SUCH_DOMAIN);
+      }
+      synchronizedCallback.onComplete();
+      return;
+    }
+    _getBulkStream(domain, keys, synchronizedCallback);
+  }
+
+  // Keys are grouped by host, and the responses of each host are streamed back. Keys that cannot be grouped,
+  // and keys for which the stream fails, are performed as regular gets.
+  private void _getBulkStream(Domain domain, List<ByteBuffer> keys, SynchronizedGetBulkStreamCallback callback) {
+    RoutingTable currentRoutingTable = routingTable;
+    List<Domain> domains = Collections.nCopies(keys.size(), domain);
+    HankResponse[] responses = new HankResponse[keys.size()];
+    Map<Host, List<Integer>> hostToKeyIndexes = new HashMap<Host, List<Integer>>();
+    List<Integer> remainingKeyIndexes = new ArrayList<Integer>();
+    groupKeysByHost(currentRoutingTable, domains, keys, responses, hostToKeyIndexes, remainingKeyIndexes);
+    // Deliver responses that are already available
+    for (int i = 0; i < responses.length; ++i) {
+      if (responses[i] != null) {
+        callback.onResponse(i, responses[i]);
+      }
+    }
+    // Execute streamed requests
+    List<GetBulkStreamTask> getBulkStreamTasks = new ArrayList<GetBulkStreamTask>(hostToKeyIndexes.size());
+    for (Map.Entry<Host, List<Integer>> entry : hostToKeyIndexes.entrySet()) {
+      GetBulkStreamTask getBulkStreamTask = new GetBulkStreamTask(new GetBulkStreamTaskRunnable(
+          currentRoutingTable.getHostConnectionPool(entry.getKey()), domain, keys, entry.getValue(), callback));
+      getTaskExecutor.execute(getBulkStreamTask);
+      getBulkStreamTasks.add(getBulkStreamTask);
+    }
+    for (GetBulkStreamTask getBulkStreamTask : getBulkStreamTasks) {
+      getBulkStreamTask.getRemainingKeyIndexes(remainingKeyIndexes);
+    }
+    // Execute remaining requests individually
+    List<FutureGet> futureGets = new ArrayList<FutureGet>(remainingKeyIndexes.size());
+    for (Integer keyIndex : remainingKeyIndexes) {
+      futureGets.add(_concurrentGet(domain, keys.get(keyIndex)));
+    }
+    for (int i = 0; i < futureGets.size(); ++i) {
+      callback.onResponse(remainingKeyIndexes.get(i), futureGets.get(i).getResponse());
+    }
+    callback.onComplete();
+  }
+
+  // Set the responses of keys that are in the cache (or that cannot be performed), and group the other keys by the
+  // host to request them from. Keys that cannot be grouped are added to the list of remaining keys.
+  private void groupKeysByHost(RoutingTable currentRoutingTable,
+                               List<Domain> domains,
+                               List<ByteBuffer> keys,
+                               HankResponse[] responses,
+                               Map<Host, List<Integer>> hostToKeyIndexes,
+                               List<Integer> remainingKeyIndexes) {
+    for (int i = 0; i < keys.size(); ++i) {
+      Domain domain = domains.get(i);
+      ByteBuffer key = keys.get(i);
+      if (domain == null) {
+        responses[i] = NO_SUCH_DOMAIN;
+        continue;
+      }
+      // Check for null keys
+      if (key == null) {
+        throw new NullKeyException();
+      }
+      // Check for empty keys
+      if (key.remaining() == 0) {
+        throw new EmptyKeyException();
+      }
+      // Attempt to load from cache
+      HankResponse cachedResponse = responseCache.get(new DomainAndKey(domain, key));
+      if (cachedResponse != null) {
+        // One request, in cache
+        requestsCounters.increment(1, 1, 0, 0);
+        responses[i] = cachedResponse;
+        continue;
+      }
+      int partition = domain.getPartitioner().partition(key, domain.getNumParts());
+      HostConnectionPool hostConnectionPool = currentRoutingTable.getConnectionPool(domain.getId(), partition);
+      Host host = null;
+      if (hostConnectionPool != null && currentRoutingTable.getLocalPartitionReader(domain.getId(), partition) == null) {
+        host = getHostToUse(hostConnectionPool.getServingHosts(), hostToKeyIndexes);
+      }
+      if (host == null) {
+        remainingKeyIndexes.add(i);
+      } else {
+        List<Integer> keyIndexes = hostToKeyIndexes.get(host);
+        if (keyIndexes == null) {
+          keyIndexes = new ArrayList<Integer>();
+          hostToKeyIndexes.put(host, keyIndexes);
+        }
+        keyIndexes.add(i);
+      }
+    }
+  }
+
+  // Prefer the serving host that was already selected for the largest number of keys, otherwise use the first one
+  private static Host getHostToUse(List<Host> servingHosts, Map<Host, List<Integer>> hostToKeyIndexes) {
+    Host result = null;
+    int resultNumKeys = -1;
+    for (Host host : servingHosts) {
+      List<Integer> keyIndexes = hostToKeyIndexes.get(host);
+      int numKeys = keyIndexes == null ? 0 : keyIndexes.size();
+      if (numKeys > resultNumKeys) {
+        result = host;
+        resultNumKeys = numKeys;
+      }
+    }
+    return result;
+  }
+
   // Asynchronous get
   @Override
   public FutureGet concurrentGet(String domainName, ByteBuffer key) {
@@ -395,6 +712,13 @@ public class HankSmartClient implements HankSmartClientIface, RingGroupDataLocat
     Domain domain = this.coordinator.getDomain(domainName);
     if (domain == null) {
       LOG.error(getLogPrefix() + "No such Domain: " + domainName);
+    }
+    return concurrentGet(domain, key);
+  }
+
+  // Asynchronous get with a pre-resolved Domain
+  public FutureGet concurrentGet(Domain domain, ByteBuffer key) {
+    if (domain == null) {
       FutureGet noSuchDomainFutureGet = new FutureGet(new StaticGetTaskRunnable(NO_SUCH_DOMAIN));
       noSuchDomainFutureGet.run();
       return noSuchDomainFutureGet;
@@ -405,11 +729,18 @@ public class HankSmartClient implements HankSmartClientIface, RingGroupDataLocat
   // Asynchronous get
   @Override
   public List<FutureGet> concurrentGet(String domainName, List<ByteBuffer> keys) {
-    List<FutureGet> result = new ArrayList<FutureGet>(keys.size());
     // Get Domain
     Domain domain = this.coordinator.getDomain(domainName);
     if (domain == null) {
       LOG.error(getLogPrefix() + "No such Domain: " + domainName);
+    }
+    return concurrentGet(domain, keys);
+  }
+
+  // Asynchronous get with a pre-resolved Domain
+  public List<FutureGet> concurrentGet(Domain domain, List<ByteBuffer> keys) {
+    List<FutureGet> result = new ArrayList<FutureGet>(keys.size());
+    if (domain == null) {
       FutureGet noSuchDomainFutureGet = new FutureGet(new StaticGetTaskRunnable(NO_SUCH_DOMAIN));
       noSuchDomainFutureGet.run();
       for (ByteBuffer key : keys) {
@@ -443,48 +774,114 @@ public class HankSmartClient implements HankSmartClientIface, RingGroupDataLocat
     HankResponse cachedResponse = responseCache.get(new DomainAndKey(domain, key));
     if (cachedResponse != null) {
       // One request, in cache
-      requestsCounters.increment(1, 1);
+      requestsCounters.increment(1, 1, 0, 0);
       return cachedResponse;
+    } else if (requestCoalescingEnabled) {
+      return coalescedGet(domain, key);
     } else {
-      try {
-        // Determine HostConnectionPool to use
-        int partition = domain.getPartitioner().partition(key, domain.getNumParts());
-        int keyHash = domain.getPartitioner().partition(key, Integer.MAX_VALUE);
+      return getFromServer(domain, key);
+    }
+  }
 
-        Map<Integer, HostConnectionPool> partitionToConnectionPool;
-        synchronized (connectionCacheLock) {
-          partitionToConnectionPool = domainToPartitionToConnectionPool.get(domain.getId());
-        }
-        if (partitionToConnectionPool == null) {
-          LOG.error(getLogPrefix() + String.format("Could not find domain to partition map for domain %s (id: %d)", domain.getName(), domain.getId()));
-          return NO_REPLICA;
+  // Perform a get, sharing the server call with any identical request that is already in flight
+  private HankResponse coalescedGet(Domain domain, ByteBuffer key) {
+    // Attempt to join an identical request in flight
+    InFlightGet inFlightGet = inFlightGets.get(new DomainAndKey(domain, key));
+    if (inFlightGet == null) {
+      // Register a new request in flight. Use a copy of the key since the caller owns the buffer.
+      DomainAndKey inFlightDomainAndKey = new DomainAndKey(domain, BytesUtils.byteBufferDeepCopy(key));
+      InFlightGet newInFlightGet = new InFlightGet();
+      inFlightGet = inFlightGets.putIfAbsent(inFlightDomainAndKey, newInFlightGet);
+      if (inFlightGet == null) {
+        // This request is the one performing the server call
+        HankResponse response = null;
+        try {
+          response = getFromServer(domain, key);
+          return response;
+        } finally {
+          // Stop accepting new waiters before releasing the current ones
+          inFlightGets.remove(inFlightDomainAndKey, newInFlightGet);
+          if (response == null) {
+            response = HankResponse.xception(HankException.internal_error("Coalesced GET failed to complete"));
+          }
+          newInFlightGet.complete(response);
         }
+      }
+    }
+    // One request, coalesced with a request in flight
+    requestsCounters.increment(1, 0, 1, 0);
+    return inFlightGet.getResponse();
+  }
 
-        HostConnectionPool hostConnectionPool = partitionToConnectionPool.get(partition);
-        if (hostConnectionPool == null) {
-          // this is a problem, since the cache must not have been loaded correctly
-          LOG.error(getLogPrefix() + String.format("Could not find list of hosts for domain %s (id: %d) when looking for partition %d", domain.getName(), domain.getId(), partition));
-          return NO_REPLICA;
-        }
-        if (LOG.isTraceEnabled()) {
-          LOG.trace("Looking in domain " + domain.getName() + ", in partition " + partition + ", for key: " + BytesUtils.bytesToHexString(key));
-        }
-        // Perform get
-        HankResponse response = hostConnectionPool.get(domain, key, queryMaxNumTries, keyHash);
-        // Cache response if necessary, do not cache exceptions
-        if (responseCache.isEnabled() && response.is_set_not_found() || response.is_set_value()) {
-          responseCache.put(
-              new DomainAndKey(domain, BytesUtils.byteBufferDeepCopy(key)),
-              response.deepCopy());
-        }
-        if (response.is_set_xception()) {
-          LOG.error(getLogPrefix() + "Failed to perform get: domain " + domain.getName() + ", partition " + partition + ", key: " + BytesUtils.bytesToHexString(key) + ", partitioner: " + domain.getPartitioner() + ", response: " + response);
+  // Return the response, or null if the local partition reader could not be used
+  private HankResponse getFromLocalPartitionReader(LocalPartitionReader localPartitionReader,
+                                                   Domain domain,
+                                                   int partition,
+                                                   ByteBuffer key) {
+    try {
+      return localPartitionReader.get(key);
+    } catch (IOException e) {
+      LOG.error(getLogPrefix() + "Failed to perform local get: domain " + domain.getName() + ", partition " + partition
+          + ", key: " + BytesUtils.bytesToHexString(key) + ". Using remote partition server.", e);
+      return null;
+    }
+  }
+
+  private HankResponse getFromServer(Domain domain, ByteBuffer key) {
+    boolean isLocal = false;
+    try {
+      // Determine HostConnectionPool to use
+      int partition = domain.getPartitioner().partition(key, domain.getNumParts());
+      int keyHash = domain.getPartitioner().partition(key, Integer.MAX_VALUE);
+
+      // Attempt to read locally if the partition is served by a co-located partition server
+      LocalPartitionReader localPartitionReader = routingTable.getLocalPartitionReader(domain.getId(), partition);
+      if (localPartitionReader != null) {
+        HankResponse localResponse = getFromLocalPartitionReader(localPartitionReader, domain, partition, key);
+        if (localResponse != null) {
+          isLocal = true;
+          return localResponse;
         }
-        return response;
-      } finally {
-        // One request, not in cache
-        requestsCounters.increment(1, 0);
       }
+
+      HostConnectionPool[] partitionToConnectionPool = routingTable.getPartitionToConnectionPool(domain.getId());
+      if (partitionToConnectionPool == null) {
+        LOG.error(getLogPrefix() + String.format("Could not find domain to partition map for domain %s (id: %d)", domain.getName(), domain.getId()));
+        return NO_REPLICA;
+      }
+
+      HostConnectionPool hostConnectionPool = null;
+      if (partition < partitionToConnectionPool.length) {
+        hostConnectionPool = partitionToConnectionPool[partition];
+      }
+      if (hostConnectionPool == null) {
+        // this is a problem, since the cache must not have been loaded correctly
+        LOG.error(getLogPrefix() + String.format("Could not find list of hosts for domain %s (id: %d) when looking for partition %d", domain.getName(), domain.getId(), partition));
+        return NO_REPLICA;
+      }
+      if (LOG.isTraceEnabled()) {
+        LOG.trace("Looking in domain " + domain.getName() + ", in partition " + partition + ", for key: " + BytesUtils.bytesToHexString(key));
+      }
+      // Perform get
+      HankResponse response = hostConnectionPool.get(domain, key, queryMaxNumTries, keyHash,
+          sendPartitionToServerEnabled ? partition : null);
+      cacheResponse(domain, key, response);
+      if (response.is_set_xception()) {
+        LOG.error(getLogPrefix() + "Failed to perform get: domain " + domain.getName() + ", partition " + partition + ", key: " + BytesUtils.bytesToHexString(key) + ", partitioner: " + domain.getPartitioner() + ", response: " + response);
+      }
+      return response;
+    } finally {
+      // One request, not in cache, possibly performed locally
+      requestsCounters.increment(1, 0, 0, isLocal ? 1 : 0);
+    }
+  }
+
+  // Cache response if necessary, do not cache exceptions
+  private void cacheResponse(Domain domain, ByteBuffer key, HankResponse response) {
+    if (responseCache.isEnabled() && (response.is_set_not_found() || response.is_set_value())) {
+      responseCache.put(
+          new DomainAndKey(domain, BytesUtils.byteBufferDeepCopy(key)),
+          response.deepCopy());
     }
   }
 
@@ -519,11 +916,14 @@ public class HankSmartClient implements HankSmartClientIface, RingGroupDataLocat
 
   private void disconnect() {
     synchronized (connectionCacheLock) {
-      for (HostConnectionPool hostConnectionPool : partitionServerAddressToConnectionPool.values()) {
+      for (HostConnectionPool hostConnectionPool : routingTable.getPartitionServerAddressToConnectionPool().values()) {
         for (HostConnection connection : hostConnectionPool.getConnections()) {
           connection.disconnect();
         }
       }
+      for (LocalPartitionReader localPartitionReader : routingTable.getLocalPartitionReaders()) {
+        localPartitionReader.close();
+      }
     }
   }
 
@@ -556,6 +956,28 @@ public class HankSmartClient implements HankSmartClientIface, RingGroupDataLocat
     }
   }
 
+  // A GET being performed against a partition server, which identical concurrent GETs can wait on
+  private static class InFlightGet {
+
+    private final CountDownLatch latch = new CountDownLatch(1);
+    private volatile HankResponse response;
+
+    private void complete(HankResponse response) {
+      this.response = response;
+      latch.countDown();
+    }
+
+    private HankResponse getResponse() {
+      try {
+        latch.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return HankResponse.xception(HankException.internal_error("Interrupted while waiting for coalesced GET"));
+      }
+      return response;
+    }
+  }
+
   private class GetTaskRunnable implements GetTaskRunnableIface {
 
     private final Domain domain;
@@ -578,6 +1000,185 @@ public class HankSmartClient implements HankSmartClientIface, RingGroupDataLocat
     }
   }
 
+  // Performs a GET MULTI request for a subset of keys, all served by the same host
+  private class GetMultiTaskRunnable implements Runnable {
+
+    private final HostConnectionPool hostConnectionPool;
+    private final List<Domain> domains;
+    private final List<ByteBuffer> keys;
+    private final List<Integer> keyIndexes;
+    private HankBulkResponse bulkResponse = null;
+
+    private GetMultiTaskRunnable(HostConnectionPool hostConnectionPool,
+                                 List<Domain> domains,
+                                 List<ByteBuffer> keys,
+                                 List<Integer> keyIndexes) {
+      this.hostConnectionPool = hostConnectionPool;
+      this.domains = domains;
+      this.keys = keys;
+      this.keyIndexes = keyIndexes;
+    }
+
+    @Override
+    public void run() {
+      List<DomainKey> domainKeys = new ArrayList<DomainKey>(keyIndexes.size());
+      for (Integer keyIndex : keyIndexes) {
+        domainKeys.add(new DomainKey(domains.get(keyIndex).getId(), keys.get(keyIndex)));
+      }
+      bulkResponse = hostConnectionPool.getMulti(domainKeys, queryMaxNumTries);
+    }
+
+    // Store successful responses and add the indexes of failed keys to the list of keys left to perform
+    private void getResponses(HankResponse[] responses, List<Integer> remainingKeyIndexes) {
+      if (bulkResponse == null
+          || !bulkResponse.is_set_responses()
+          || bulkResponse.get_responses().size() != keyIndexes.size()) {
+        LOG.error(getLogPrefix() + "Failed to perform get multi of " + keyIndexes.size() + " keys"
+            + ", response: " + bulkResponse + ". Performing them individually.");
+        remainingKeyIndexes.addAll(keyIndexes);
+        return;
+      }
+      for (int i = 0; i < keyIndexes.size(); ++i) {
+        int keyIndex = keyIndexes.get(i);
+        HankResponse response = bulkResponse.get_responses().get(i);
+        if (response.is_set_xception()) {
+          // The regular get path will try other hosts
+          remainingKeyIndexes.add(keyIndex);
+        } else {
+          cacheResponse(domains.get(keyIndex), keys.get(keyIndex), response);
+          // One request, not in cache
+          requestsCounters.increment(1, 0, 0, 0);
+          responses[keyIndex] = response;
+        }
+      }
+    }
+  }
+
+  private static class GetMultiTask extends FutureTask<Object> {
+
+    private final GetMultiTaskRunnable runnable;
+
+    private GetMultiTask(GetMultiTaskRunnable runnable) {
+      super(runnable, null);
+      this.runnable = runnable;
+    }
+
+    // Wait for termination and store responses
+    private void getResponses(HankResponse[] responses, List<Integer> remainingKeyIndexes) {
+      try {
+        this.get();
+      } catch (Throwable t) {
+        LOG.error("Throwable while executing get multi task", t);
+      }
+      runnable.getResponses(responses, remainingKeyIndexes);
+    }
+  }
+
+  // Performs a streamed GET BULK request for a subset of keys, all served by the same host
+  private class GetBulkStreamTaskRunnable implements Runnable {
+
+    private final HostConnectionPool hostConnectionPool;
+    private final Domain domain;
+    private final List<ByteBuffer> keys;
+    private final List<Integer> keyIndexes;
+    private final GetBulkStreamCallback callback;
+    // Keys whose response was not delivered (errors are delivered by the regular get path)
+    private final boolean[] delivered;
+
+    private GetBulkStreamTaskRunnable(HostConnectionPool hostConnectionPool,
+                                      Domain domain,
+                                      List<ByteBuffer> keys,
+                                      List<Integer> keyIndexes,
+                                      GetBulkStreamCallback callback) {
+      this.hostConnectionPool = hostConnectionPool;
+      this.domain = domain;
+      this.keys = keys;
+      this.keyIndexes = keyIndexes;
+      this.callback = callback;
+      this.delivered = new boolean[keyIndexes.size()];
+    }
+
+    @Override
+    public void run() {
+      List<ByteBuffer> hostKeys = new ArrayList<ByteBuffer>(keyIndexes.size());
+      for (Integer keyIndex : keyIndexes) {
+        hostKeys.add(keys.get(keyIndex));
+      }
+      boolean success = hostConnectionPool.getBulkStream(domain.getId(), hostKeys, queryMaxNumTries,
+          new GetBulkStreamCallback() {
+            @Override
+            public void onResponse(int hostKeyIndex, HankResponse response) {
+              // The regular get path will try other hosts
+              if (response.is_set_xception() || hostKeyIndex < 0 || hostKeyIndex >= delivered.length) {
+                return;
+              }
+              int keyIndex = keyIndexes.get(hostKeyIndex);
+              cacheResponse(domain, keys.get(keyIndex), response);
+              // One request, not in cache
+              requestsCounters.increment(1, 0, 0, 0);
+              delivered[hostKeyIndex] = true;
+              callback.onResponse(keyIndex, response);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+          });
+      if (!success) {
+        LOG.error(getLogPrefix() + "Failed to perform streamed get bulk of " + keyIndexes.size()
+            + " keys. Performing remaining keys individually.");
+      }
+    }
+
+    private void getRemainingKeyIndexes(List<Integer> remainingKeyIndexes) {
+      for (int i = 0; i < keyIndexes.size(); ++i) {
+        if (!delivered[i]) {
+          remainingKeyIndexes.add(keyIndexes.get(i));
+        }
+      }
+    }
+  }
+
+  private static class GetBulkStreamTask extends FutureTask<Object> {
+
+    private final GetBulkStreamTaskRunnable runnable;
+
+    private GetBulkStreamTask(GetBulkStreamTaskRunnable runnable) {
+      super(runnable, null);
+      this.runnable = runnable;
+    }
+
+    // Wait for termination and add the indexes of keys whose response was not delivered
+    private void getRemainingKeyIndexes(List<Integer> remainingKeyIndexes) {
+      try {
+        this.get();
+      } catch (Throwable t) {
+        LOG.error("Throwable while executing get bulk stream task", t);
+      }
+      runnable.getRemainingKeyIndexes(remainingKeyIndexes);
+    }
+  }
+
+  // Serializes calls to the user supplied callback
+  private static class SynchronizedGetBulkStreamCallback implements GetBulkStreamCallback {
+
+    private final GetBulkStreamCallback callback;
+
+    private SynchronizedGetBulkStreamCallback(GetBulkStreamCallback callback) {
+      this.callback = callback;
+    }
+
+    @Override
+    public synchronized void onResponse(int keyIndex, HankResponse response) {
+      callback.onResponse(keyIndex, response);
+    }
+
+    @Override
+    public synchronized void onComplete() {
+      callback.onComplete();
+    }
+  }
+
   private static class GetTaskThreadFactory implements ThreadFactory {
 
     @Override
@@ -603,7 +1204,7 @@ public class HankSmartClient implements HankSmartClientIface, RingGroupDataLocat
       partitionServerToConnectionLoad.clear();
       for (int i = 0; i < UPDATE_RUNTIME_STATISTICS_NUM_MEASUREMENTS; ++i) {
         for (Map.Entry<HostAddress, HostConnectionPool> entry
-            : partitionServerAddressToConnectionPool.entrySet()) {
+            : routingTable.getPartitionServerAddressToConnectionPool().entrySet()) {
           PartitionServerAddress serverAddress = entry.getKey().getPartitionServerAddress();
           ConnectionLoad currentConnectionLoad = entry.getValue().getConnectionLoad();
           ConnectionLoad totalConnectionLoad = partitionServerToConnectionLoad.get(serverAddress);
@@ -635,15 +1236,21 @@ public class HankSmartClient implements HankSmartClientIface, RingGroupDataLocat
       long timerDurationMs = timer.getDurationMs();
       timer.restart();
       // Log requests counters
-      long[] requestsCounterValues = requestsCounters.getAsArrayAndSet(0, 0);
+      long[] requestsCounterValues = requestsCounters.getAsArrayAndSet(0, 0, 0, 0);
       long numRequests = requestsCounterValues[0];
       long numCacheHits = requestsCounterValues[1];
+      long numCoalescedRequests = requestsCounterValues[2];
+      long numLocalRequests = requestsCounterValues[3];
       if (timerDurationMs != 0 && numRequests != 0) {
         double throughput = (double)numRequests / ((double)timerDurationMs / 1000d);
         double cacheHitRate = (double)numCacheHits / (double)numRequests;
+        double coalescedRate = (double)numCoalescedRequests / (double)numRequests;
+        double localRate = (double)numLocalRequests / (double)numRequests;
         LOG.info(getLogPrefix()
             + "Throughput: " + FormatUtils.formatDouble(throughput) + " queries/s"
             + ", client-side cache hit rate: " + FormatUtils.formatDouble(cacheHitRate * 100) + "%"
+            + ", coalesced queries rate: " + FormatUtils.formatDouble(coalescedRate * 100) + "%"
+            + ", local queries rate: " + FormatUtils.formatDouble(localRate * 100) + "%"
             + ", cache: " + responseCache.size() + " items totaling " + FormatUtils.formatNumBytes(responseCache.getNumManagedBytes()));
       }
     }
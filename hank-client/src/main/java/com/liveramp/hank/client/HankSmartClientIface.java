@@ -18,5 +18,7 @@ public interface HankSmartClientIface extends HankClientIface, SmartClient.Iface
 
   public List<FutureGet> concurrentGet(String domainName, List<ByteBuffer> key);
 
+  public void getBulkStream(String domainName, List<ByteBuffer> keys, GetBulkStreamCallback callback);
+
   public abstract void stop();
 }
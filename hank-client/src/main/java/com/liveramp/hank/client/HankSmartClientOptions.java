@@ -16,6 +16,8 @@
 
 package com.liveramp.hank.client;
 
+import java.util.Set;
+
 public class HankSmartClientOptions {
 
   private int numConnectionsPerHost = 1;
@@ -29,6 +31,19 @@ public class HankSmartClientOptions {
   private long responseCacheNumBytesCapacity = 0;
   private int responseCacheNumItemsCapacity = 0;
   private long responseCacheExpirationSeconds = 0;
+  private boolean requestCoalescingEnabled = false;
+  private boolean sendPartitionToServerEnabled = false;
+  private boolean concurrencyLimitEnabled = false;
+  private int initialConcurrencyLimit = 32;
+  private int maxConcurrencyLimit = 1024;
+  private int concurrencyLimitLatencyThresholdMs = 100;
+  private boolean retryBudgetEnabled = false;
+  private double retryBudgetRatio = 0.1;
+  private int retryBudgetMaxRetries = 100;
+  private boolean responseCompressionEnabled = false;
+  private int minCompressedResponseSize = 4096;
+  private boolean requestDeadlinesEnabled = false;
+  private Set<String> localDataDirectories = null;
 
   public int getNumConnectionsPerHost() {
     return numConnectionsPerHost;
@@ -128,4 +143,136 @@ public class HankSmartClientOptions {
     this.responseCacheExpirationSeconds = responseCacheExpirationSeconds;
     return this;
   }
+
+  public boolean getRequestCoalescingEnabled() {
+    return requestCoalescingEnabled;
+  }
+
+  // When enabled, concurrent identical requests (same domain and key) share a single server call
+  public HankSmartClientOptions setRequestCoalescingEnabled(boolean requestCoalescingEnabled) {
+    this.requestCoalescingEnabled = requestCoalescingEnabled;
+    return this;
+  }
+
+  public boolean getSendPartitionToServerEnabled() {
+    return sendPartitionToServerEnabled;
+  }
+
+  // When enabled, the partition computed by the client is sent along with each GET so that partition servers do
+  // not compute it again. It is only sent to servers that confirmed they partition the domain the same way.
+  public HankSmartClientOptions setSendPartitionToServerEnabled(boolean sendPartitionToServerEnabled) {
+    this.sendPartitionToServerEnabled = sendPartitionToServerEnabled;
+    return this;
+  }
+
+  public boolean getConcurrencyLimitEnabled() {
+    return concurrencyLimitEnabled;
+  }
+
+  // When enabled, the number of requests in flight to each host is limited, and the limit adapts to the
+  // observed latency. Requests that cannot be sent to any host fail fast with concurrency_limit_exceeded.
+  public HankSmartClientOptions setConcurrencyLimitEnabled(boolean concurrencyLimitEnabled) {
+    this.concurrencyLimitEnabled = concurrencyLimitEnabled;
+    return this;
+  }
+
+  public int getInitialConcurrencyLimit() {
+    return initialConcurrencyLimit;
+  }
+
+  public HankSmartClientOptions setInitialConcurrencyLimit(int initialConcurrencyLimit) {
+    this.initialConcurrencyLimit = initialConcurrencyLimit;
+    return this;
+  }
+
+  public int getMaxConcurrencyLimit() {
+    return maxConcurrencyLimit;
+  }
+
+  public HankSmartClientOptions setMaxConcurrencyLimit(int maxConcurrencyLimit) {
+    this.maxConcurrencyLimit = maxConcurrencyLimit;
+    return this;
+  }
+
+  public int getConcurrencyLimitLatencyThresholdMs() {
+    return concurrencyLimitLatencyThresholdMs;
+  }
+
+  // Requests slower than this threshold reduce the concurrency limit of the host
+  public HankSmartClientOptions setConcurrencyLimitLatencyThresholdMs(int concurrencyLimitLatencyThresholdMs) {
+    this.concurrencyLimitLatencyThresholdMs = concurrencyLimitLatencyThresholdMs;
+    return this;
+  }
+
+  public boolean getRetryBudgetEnabled() {
+    return retryBudgetEnabled;
+  }
+
+  // When enabled, retries are capped to a fraction of the number of requests
+  public HankSmartClientOptions setRetryBudgetEnabled(boolean retryBudgetEnabled) {
+    this.retryBudgetEnabled = retryBudgetEnabled;
+    return this;
+  }
+
+  public double getRetryBudgetRatio() {
+    return retryBudgetRatio;
+  }
+
+  public HankSmartClientOptions setRetryBudgetRatio(double retryBudgetRatio) {
+    this.retryBudgetRatio = retryBudgetRatio;
+    return this;
+  }
+
+  public int getRetryBudgetMaxRetries() {
+    return retryBudgetMaxRetries;
+  }
+
+  // Maximum number of retries that can be accumulated in the budget
+  public HankSmartClientOptions setRetryBudgetMaxRetries(int retryBudgetMaxRetries) {
+    this.retryBudgetMaxRetries = retryBudgetMaxRetries;
+    return this;
+  }
+
+  public boolean getResponseCompressionEnabled() {
+    return responseCompressionEnabled;
+  }
+
+  // When enabled, response compression is negotiated with each partition server when connecting
+  public HankSmartClientOptions setResponseCompressionEnabled(boolean responseCompressionEnabled) {
+    this.responseCompressionEnabled = responseCompressionEnabled;
+    return this;
+  }
+
+  public int getMinCompressedResponseSize() {
+    return minCompressedResponseSize;
+  }
+
+  // Responses smaller than this size (in bytes) are sent raw
+  public HankSmartClientOptions setMinCompressedResponseSize(int minCompressedResponseSize) {
+    this.minCompressedResponseSize = minCompressedResponseSize;
+    return this;
+  }
+
+  public boolean getRequestDeadlinesEnabled() {
+    return requestDeadlinesEnabled;
+  }
+
+  // When enabled, the bulk query timeout is sent with GET BULK requests, and partition servers drop work
+  // that is still pending once it has expired. All partition servers must support it.
+  public HankSmartClientOptions setRequestDeadlinesEnabled(boolean requestDeadlinesEnabled) {
+    this.requestDeadlinesEnabled = requestDeadlinesEnabled;
+    return this;
+  }
+
+  public Set<String> getLocalDataDirectories() {
+    return localDataDirectories;
+  }
+
+  // Data directories of a partition server running on the same host. When set, partitions served by that
+  // partition server are read directly from disk instead of being queried through Thrift. Partition servers
+  // configured to update while serving are always queried through Thrift.
+  public HankSmartClientOptions setLocalDataDirectories(Set<String> localDataDirectories) {
+    this.localDataDirectories = localDataDirectories;
+    return this;
+  }
 }
@@ -0,0 +1,29 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.liveramp.hank.client;
+
+import java.io.IOException;
+
+import com.liveramp.hank.coordinator.Host;
+
+// Thrown when a request is not sent to a Host because too many requests are already in flight to it
+class HostConcurrencyLimitExceededException extends IOException {
+
+  HostConcurrencyLimitExceededException(Host host, int limit) {
+    super("Exceeded concurrency limit of " + limit + " requests in flight to host " + host.getAddress());
+  }
+}
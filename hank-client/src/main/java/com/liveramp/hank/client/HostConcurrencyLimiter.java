@@ -0,0 +1,83 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.liveramp.hank.client;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HostConcurrencyLimiter bounds the number of requests in flight to a given
+ * Host. The limit adapts to the observed latency using an AIMD scheme: it is
+ * increased additively (by about one every time a full limit's worth of
+ * requests completes in time) and decreased multiplicatively when a request is
+ * slower than the latency threshold or fails. Decreases happen at most once per
+ * latency threshold period so that a single burst of slow responses does not
+ * collapse the limit.
+ * <p/>
+ * All connections to a Host share the same HostConcurrencyLimiter.
+ */
+class HostConcurrencyLimiter {
+
+  private static final double MIN_LIMIT = 1;
+  private static final double BACKOFF_RATIO = 0.9;
+
+  private final double maxLimit;
+  private final long latencyThresholdNanos;
+  private double limit;
+  private int numInFlight = 0;
+  private long lastDecreaseNanos;
+
+  HostConcurrencyLimiter(int initialLimit, int maxLimit, int latencyThresholdMs) {
+    if (initialLimit < MIN_LIMIT || maxLimit < initialLimit) {
+      throw new IllegalArgumentException("Invalid concurrency limits. Initial limit: " + initialLimit + ", max limit: " + maxLimit);
+    }
+    this.limit = initialLimit;
+    this.maxLimit = maxLimit;
+    this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs);
+    this.lastDecreaseNanos = System.nanoTime() - latencyThresholdNanos;
+  }
+
+  // Return true if the request can be performed, in which case release() must be called when it completes
+  synchronized boolean tryAcquire() {
+    if (numInFlight >= (int)limit) {
+      return false;
+    }
+    ++numInFlight;
+    return true;
+  }
+
+  synchronized void release(long latencyNanos, boolean failed) {
+    --numInFlight;
+    if (failed || latencyNanos > latencyThresholdNanos) {
+      long nowNanos = System.nanoTime();
+      if (nowNanos - lastDecreaseNanos >= latencyThresholdNanos) {
+        limit = Math.max(MIN_LIMIT, limit * BACKOFF_RATIO);
+        lastDecreaseNanos = nowNanos;
+      }
+    } else if ((numInFlight + 1) * 2 >= limit) {
+      // Only grow the limit when it is actually being used
+      limit = Math.min(maxLimit, limit + 1 / limit);
+    }
+  }
+
+  synchronized int getLimit() {
+    return (int)limit;
+  }
+
+  synchronized int getNumInFlight() {
+    return numInFlight;
+  }
+}
@@ -16,13 +16,18 @@
 
 package com.liveramp.hank.client;
 
+import com.liveramp.hank.coordinator.Domain;
 import com.liveramp.hank.coordinator.Host;
 import com.liveramp.hank.coordinator.HostState;
+import com.liveramp.hank.generated.DomainKey;
+import com.liveramp.hank.generated.HankBulkChunk;
 import com.liveramp.hank.generated.HankBulkResponse;
 import com.liveramp.hank.generated.HankResponse;
 import com.liveramp.hank.generated.PartitionServer;
+import com.liveramp.hank.partition_server.ResponseCompression;
 import com.liveramp.hank.zookeeper.WatchedNodeListener;
 import org.slf4j.Logger; import org.slf4j.LoggerFactory;
+import org.apache.thrift.TApplicationException;
 import org.apache.thrift.TException;
 import org.apache.thrift.protocol.TCompactProtocol;
 import org.apache.thrift.protocol.TProtocol;
@@ -33,7 +38,10 @@ import org.apache.thrift.transport.TTransportException;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -41,6 +49,11 @@ public class HostConnection implements WatchedNodeListener<HostState> {
 
   private static final Logger LOG = LoggerFactory.getLogger(HostConnection.class);
 
+  // The host does not wait for responses when asked for the next chunk of a stream. When it returns an empty
+  // chunk, wait before asking again, doubling the delay every time up to the maximum.
+  private static final long GET_BULK_STREAM_MIN_POLL_DELAY_MS = 1;
+  private static final long GET_BULK_STREAM_MAX_POLL_DELAY_MS = 100;
+
   private final int tryLockTimeoutMs;
   private final int establishConnectionTimeoutMs;
   private final int queryTimeoutMs;
@@ -49,6 +62,11 @@ public class HostConnection implements WatchedNodeListener<HostState> {
   private TTransport transport;
   private PartitionServer.Client client;
   private final Host host;
+  private final HostConcurrencyLimiter concurrencyLimiter;
+  private final int minCompressedResponseSize;
+  private final boolean sendRequestDeadlines;
+  // Whether the host partitions each domain the same way, by domain id. Reset when connecting.
+  private final Map<Integer, Boolean> domainIdToPartitionerMatches = new HashMap<Integer, Boolean>();
   protected final ReentrantLock lock = new ReentrantLock(true); // Use a fair ReentrantLock
 
   // A timeout of 0 means no timeout
@@ -57,11 +75,39 @@ public class HostConnection implements WatchedNodeListener<HostState> {
                         int establishConnectionTimeoutMs,
                         int queryTimeoutMs,
                         int bulkQueryTimeoutMs) throws TException, IOException {
+    this(host, tryLockTimeoutMs, establishConnectionTimeoutMs, queryTimeoutMs, bulkQueryTimeoutMs, null);
+  }
+
+  // The concurrency limiter is shared by all connections to the host. When null, concurrency is not limited.
+  HostConnection(Host host,
+                 int tryLockTimeoutMs,
+                 int establishConnectionTimeoutMs,
+                 int queryTimeoutMs,
+                 int bulkQueryTimeoutMs,
+                 HostConcurrencyLimiter concurrencyLimiter) throws TException, IOException {
+    this(host, tryLockTimeoutMs, establishConnectionTimeoutMs, queryTimeoutMs, bulkQueryTimeoutMs, concurrencyLimiter, -1, false);
+  }
+
+  // When the minimum compressed response size is not negative, response compression is negotiated with the
+  // host when connecting, and responses at least that large are then compressed by the host.
+  // When sending request deadlines, the time left of the bulk query timeout is sent with GET BULK requests
+  // so that the host can drop them once the client has given up.
+  HostConnection(Host host,
+                 int tryLockTimeoutMs,
+                 int establishConnectionTimeoutMs,
+                 int queryTimeoutMs,
+                 int bulkQueryTimeoutMs,
+                 HostConcurrencyLimiter concurrencyLimiter,
+                 int minCompressedResponseSize,
+                 boolean sendRequestDeadlines) throws TException, IOException {
     this.host = host;
     this.tryLockTimeoutMs = tryLockTimeoutMs;
     this.establishConnectionTimeoutMs = establishConnectionTimeoutMs;
     this.queryTimeoutMs = queryTimeoutMs;
     this.bulkQueryTimeoutMs = bulkQueryTimeoutMs;
+    this.concurrencyLimiter = concurrencyLimiter;
+    this.minCompressedResponseSize = minCompressedResponseSize;
+    this.sendRequestDeadlines = sendRequestDeadlines;
     host.setStateChangeListener(this);
     onWatchedNodeChange(host.getState());
   }
@@ -122,6 +168,84 @@ public class HostConnection implements WatchedNodeListener<HostState> {
   }
 
   public HankResponse get(int domainId, ByteBuffer key) throws IOException {
+    return get(domainId, key, null, null);
+  }
+
+  // When partition is not null, it is passed to the server so that it does not need to be computed again,
+  // provided that the server partitions the domain the same way
+  public HankResponse get(Domain domain, ByteBuffer key, Integer partition) throws IOException {
+    return get(domain.getId(), key, domain, partition);
+  }
+
+  private HankResponse get(int domainId, ByteBuffer key, Domain domain, Integer partition) throws IOException {
+    long startNanos = acquireConcurrencyLimit();
+    boolean failed = true;
+    try {
+      HankResponse result = _get(domainId, key, domain, partition);
+      failed = false;
+      return result;
+    } finally {
+      releaseConcurrencyLimit(System.nanoTime() - startNanos, failed);
+    }
+  }
+
+  public HankBulkResponse getBulk(int domainId, List<ByteBuffer> keys) throws IOException {
+    long startNanos = acquireConcurrencyLimit();
+    boolean failed = true;
+    try {
+      HankBulkResponse result = _getBulk(domainId, keys, startNanos);
+      failed = false;
+      return result;
+    } finally {
+      // The latency of bulk requests depends on their size, so only failures reduce the limit
+      releaseConcurrencyLimit(0, failed);
+    }
+  }
+
+  public HankBulkResponse getMulti(List<DomainKey> domainKeys) throws IOException {
+    acquireConcurrencyLimit();
+    boolean failed = true;
+    try {
+      HankBulkResponse result = _getMulti(domainKeys);
+      failed = false;
+      return result;
+    } finally {
+      releaseConcurrencyLimit(0, failed);
+    }
+  }
+
+  // Perform a streamed GET BULK. Responses are passed to the callback as chunks are received.
+  public void getBulkStream(int domainId, List<ByteBuffer> keys, GetBulkStreamCallback callback) throws IOException {
+    acquireConcurrencyLimit();
+    boolean failed = true;
+    try {
+      _getBulkStream(domainId, keys, callback);
+      failed = false;
+    } finally {
+      releaseConcurrencyLimit(0, failed);
+    }
+  }
+
+  // Fail fast when too many requests are already in flight to this host. Otherwise, return the start
+  // time of the request. releaseConcurrencyLimit() must be called when the request completes.
+  private long acquireConcurrencyLimit() throws HostConcurrencyLimitExceededException {
+    if (concurrencyLimiter != null && !concurrencyLimiter.tryAcquire()) {
+      // The connection might have been locked by the connection pool
+      if (lock.isHeldByCurrentThread()) {
+        unlock();
+      }
+      throw new HostConcurrencyLimitExceededException(host, concurrencyLimiter.getLimit());
+    }
+    return System.nanoTime();
+  }
+
+  private void releaseConcurrencyLimit(long latencyNanos, boolean failed) {
+    if (concurrencyLimiter != null) {
+      concurrencyLimiter.release(latencyNanos, failed);
+    }
+  }
+
+  private HankResponse _get(int domainId, ByteBuffer key, Domain domain, Integer partition) throws IOException {
     // Lock the connection only if needed
     if (!lock.isHeldByCurrentThread()) {
       // Try to lock within a given timeframe
@@ -140,7 +264,12 @@ public class HostConnection implements WatchedNodeListener<HostState> {
       }
       // Query timeout is by default always set to regular mode
       // Perform query
-      HankResponse result = client.get(domainId, key);
+      HankResponse result;
+      if (partition != null && partitionerMatches(domain)) {
+        result = client.getWithPartition(domainId, key, partition);
+      } else {
+        result = client.get(domainId, key);
+      }
       if (result.is_set_xception()) {
         throw new IOException("Server failed to execute GET: " + result.get_xception());
       } else {
@@ -155,7 +284,8 @@ public class HostConnection implements WatchedNodeListener<HostState> {
     }
   }
 
-  public HankBulkResponse getBulk(int domainId, List<ByteBuffer> keys) throws IOException {
+  // The bulk query timeout is counted from the given start time
+  private HankBulkResponse _getBulk(int domainId, List<ByteBuffer> keys, long startNanos) throws IOException {
     // Lock the connection only if needed
     if (!lock.isHeldByCurrentThread()) {
       // Try to lock within a given timeframe
@@ -176,7 +306,19 @@ public class HostConnection implements WatchedNodeListener<HostState> {
         // Set socket timeout to bulk mode
         setSocketTimeout(bulkQueryTimeoutMs);
         // Perform query
-        HankBulkResponse result = client.getBulk(domainId, keys);
+        HankBulkResponse result;
+        if (sendRequestDeadlines && bulkQueryTimeoutMs > 0) {
+          // Only send the time that is left, since waiting for the connection used part of the timeout
+          int remainingTimeoutMs = bulkQueryTimeoutMs
+              - (int)TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+          if (remainingTimeoutMs <= 0) {
+            throw new IOException("Exceeded GET BULK timeout before sending the request.");
+          }
+          setSocketTimeout(remainingTimeoutMs);
+          result = client.getBulkWithTimeout(domainId, keys, remainingTimeoutMs);
+        } else {
+          result = client.getBulk(domainId, keys);
+        }
         if (result.is_set_xception()) {
           throw new IOException("Server failed to execute GET BULK: " + result.get_xception());
         } else {
@@ -195,6 +337,105 @@ public class HostConnection implements WatchedNodeListener<HostState> {
     }
   }
 
+  private HankBulkResponse _getMulti(List<DomainKey> domainKeys) throws IOException {
+    // Lock the connection only if needed
+    if (!lock.isHeldByCurrentThread()) {
+      // Try to lock within a given timeframe
+      if (!tryLockWithTimeout()) {
+        throw new IOException("Exceeded timeout while trying to lock the host connection.");
+      }
+    }
+    try {
+      // Check availability
+      if (!isServing() && !isOffline()) {
+        throw new IOException("Connection to host is not available (host is not serving).");
+      }
+      // Connect if necessary
+      if (isDisconnected()) {
+        connect();
+      }
+      try {
+        // Set socket timeout to bulk mode
+        setSocketTimeout(bulkQueryTimeoutMs);
+        // Perform query
+        HankBulkResponse result = client.getMulti(domainKeys);
+        if (result.is_set_xception()) {
+          throw new IOException("Server failed to execute GET MULTI: " + result.get_xception());
+        } else {
+          return result;
+        }
+      } finally {
+        // Set socket timeout back to regular mode
+        setSocketTimeout(queryTimeoutMs);
+      }
+    } catch (TException e) {
+      // Disconnect and give up
+      disconnect();
+      throw new IOException("Failed to execute GET MULTI", e);
+    } finally {
+      unlock();
+    }
+  }
+
+  private void _getBulkStream(int domainId, List<ByteBuffer> keys, GetBulkStreamCallback callback) throws IOException {
+    // Lock the connection only if needed
+    if (!lock.isHeldByCurrentThread()) {
+      // Try to lock within a given timeframe
+      if (!tryLockWithTimeout()) {
+        throw new IOException("Exceeded timeout while trying to lock the host connection.");
+      }
+    }
+    try {
+      // Check availability
+      if (!isServing() && !isOffline()) {
+        throw new IOException("Connection to host is not available (host is not serving).");
+      }
+      // Connect if necessary
+      if (isDisconnected()) {
+        connect();
+      }
+      try {
+        // Set socket timeout to bulk mode
+        setSocketTimeout(bulkQueryTimeoutMs);
+        // Perform query, keeping the connection until the last chunk has been received
+        HankBulkChunk chunk = client.getBulkStream(domainId, keys);
+        long pollDelayMs = GET_BULK_STREAM_MIN_POLL_DELAY_MS;
+        while (true) {
+          if (chunk.is_set_xception()) {
+            throw new IOException("Server failed to execute GET BULK STREAM: " + chunk.get_xception());
+          }
+          for (int i = 0; i < chunk.get_key_indexes().size(); ++i) {
+            callback.onResponse(chunk.get_key_indexes().get(i), chunk.get_responses().get(i));
+          }
+          if (chunk.is_last()) {
+            return;
+          }
+          if (chunk.get_key_indexes().isEmpty()) {
+            try {
+              Thread.sleep(pollDelayMs);
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+              throw new IOException("Interrupted while waiting for GET BULK STREAM chunk", e);
+            }
+            pollDelayMs = Math.min(GET_BULK_STREAM_MAX_POLL_DELAY_MS, pollDelayMs * 2);
+          } else {
+            pollDelayMs = GET_BULK_STREAM_MIN_POLL_DELAY_MS;
+          }
+          chunk = client.getBulkStreamNext(chunk.get_stream_id());
+        }
+      } finally {
+        // Set socket timeout back to regular mode
+        setSocketTimeout(queryTimeoutMs);
+      }
+    } catch (TException e) {
+      // Disconnect and give up
+      disconnect();
+      throw new IOException("Failed to execute GET BULK STREAM", e);
+    } finally {
+      unlock();
+    }
+  }
+
   public void disconnect() {
     if (transport != null) {
       transport.close();
@@ -224,11 +465,54 @@ public class HostConnection implements WatchedNodeListener<HostState> {
     }
     TProtocol proto = new TCompactProtocol(transport);
     client = new PartitionServer.Client(proto);
+    domainIdToPartitionerMatches.clear();
+    if (minCompressedResponseSize >= 0) {
+      negotiateResponseCompression();
+    }
     if (LOG.isTraceEnabled()) {
       LOG.trace("Connection to " + host.getAddress() + " opened.");
     }
   }
 
+  private void negotiateResponseCompression() throws IOException {
+    try {
+      String codec = client.negotiateResponseCompression(Collections.singletonList(ResponseCompression.SNAPPY));
+      if (ResponseCompression.SNAPPY.equals(codec)) {
+        transport = new CompressedResponseFramedTransport(socket, minCompressedResponseSize);
+        client = new PartitionServer.Client(new TCompactProtocol(transport));
+      }
+    } catch (TApplicationException e) {
+      // Hosts that do not support response compression do not know the method. The connection is still usable.
+      LOG.info("Host " + host.getAddress() + " does not support response compression. Responses will not be compressed.");
+    } catch (TException e) {
+      LOG.error("Failed to negotiate response compression with host " + host.getAddress(), e);
+      disconnect();
+      throw new IOException("Failed to negotiate response compression with host " + host.getAddress(), e);
+    }
+  }
+
+  // The host does not verify the partitions it is sent, so check once per connection and domain that it uses
+  // the same partitioner and number of partitions
+  private boolean partitionerMatches(Domain domain) throws TException {
+    Boolean partitionerMatches = domainIdToPartitionerMatches.get(domain.getId());
+    if (partitionerMatches == null) {
+      try {
+        partitionerMatches = client.checkPartitioner(domain.getId(),
+            domain.getPartitioner().getClass().getName(), domain.getNumParts());
+        if (!partitionerMatches) {
+          LOG.warn("Host " + host.getAddress() + " does not partition domain " + domain.getName()
+              + " the same way. Partitions will not be sent to it.");
+        }
+      } catch (TApplicationException e) {
+        // Hosts that do not support sending partitions do not know the method. The connection is still usable.
+        LOG.info("Host " + host.getAddress() + " does not support checking partitioners. Partitions will not be sent to it.");
+        partitionerMatches = false;
+      }
+      domainIdToPartitionerMatches.put(domain.getId(), partitionerMatches);
+    }
+    return partitionerMatches;
+  }
+
   private void setSocketTimeout(int timeout) {
     if (socket != null) {
       socket.setTimeout(timeout);
@@ -19,6 +19,7 @@ package com.liveramp.hank.client;
 import com.liveramp.commons.util.BytesUtils;
 import com.liveramp.hank.coordinator.Domain;
 import com.liveramp.hank.coordinator.Host;
+import com.liveramp.hank.generated.DomainKey;
 import com.liveramp.hank.generated.HankBulkResponse;
 import com.liveramp.hank.generated.HankException;
 import com.liveramp.hank.generated.HankResponse;
@@ -75,6 +76,13 @@ public class HostConnectionPool {
       = HankResponse.xception(HankException.no_connection_available(true));
   private static final HankBulkResponse NO_CONNECTION_AVAILABLE_BULK_RESPONSE
       = HankBulkResponse.xception(HankException.no_connection_available(true));
+  private static final HankResponse CONCURRENCY_LIMIT_EXCEEDED_RESPONSE
+      = HankResponse.xception(HankException.concurrency_limit_exceeded(true));
+  private static final HankBulkResponse CONCURRENCY_LIMIT_EXCEEDED_BULK_RESPONSE
+      = HankBulkResponse.xception(HankException.concurrency_limit_exceeded(true));
+
+  // When null, retries are not limited by a budget
+  private final RetryBudget retryBudget;
 
   static class HostConnectionAndHostIndex implements Comparable<HostConnectionAndHostIndex> {
 
@@ -94,6 +102,13 @@ public class HostConnectionPool {
   }
 
   HostConnectionPool(Map<Host, List<HostConnection>> hostToConnectionsMap, Integer hostShuffleSeed) {
+    this(hostToConnectionsMap, hostShuffleSeed, null);
+  }
+
+  HostConnectionPool(Map<Host, List<HostConnection>> hostToConnectionsMap,
+                     Integer hostShuffleSeed,
+                     RetryBudget retryBudget) {
+    this.retryBudget = retryBudget;
     if (hostToConnectionsMap.size() == 0) {
       throw new RuntimeException("HostConnectionPool must be initialized with a non empty collection of connections.");
     }
@@ -128,6 +143,12 @@ public class HostConnectionPool {
   }
 
   static HostConnectionPool createFromList(Collection<HostConnection> connections, Integer hostShuffleSeed) {
+    return createFromList(connections, hostShuffleSeed, null);
+  }
+
+  static HostConnectionPool createFromList(Collection<HostConnection> connections,
+                                           Integer hostShuffleSeed,
+                                           RetryBudget retryBudget) {
     Map<Host, List<HostConnection>> hostToConnectionsMap = new HashMap<Host, List<HostConnection>>();
     for (HostConnection connection : connections) {
       List<HostConnection> connectionList = hostToConnectionsMap.get(connection.getHost());
@@ -137,7 +158,7 @@ public class HostConnectionPool {
       }
       connectionList.add(connection);
     }
-    return new HostConnectionPool(hostToConnectionsMap, hostShuffleSeed);
+    return new HostConnectionPool(hostToConnectionsMap, hostShuffleSeed, retryBudget);
   }
 
   Collection<HostConnection> getConnections() {
@@ -150,6 +171,18 @@ public class HostConnectionPool {
     return connections;
   }
 
+  // Return the hosts that are currently serving, in the order this pool tries them
+  List<Host> getServingHosts() {
+    List<Host> hosts = new ArrayList<Host>(hostToConnections.size());
+    for (List<HostConnectionAndHostIndex> hostConnectionAndHostIndexList : hostToConnections) {
+      HostConnection hostConnection = hostConnectionAndHostIndexList.get(0).hostConnection;
+      if (hostConnection.isServing()) {
+        hosts.add(hostConnection.getHost());
+      }
+    }
+    return hosts;
+  }
+
   // Return a connection to a host, initially skipping the previously used host
   private synchronized HostConnectionAndHostIndex getConnectionToUse() {
     HostConnectionAndHostIndex result = getNextConnectionToUse(globalPreviouslyUsedHostIndex);
@@ -234,10 +267,167 @@ public class HostConnectionPool {
     }
   }
 
+  // A request that can be performed using a connection to any Host of this pool
+  private static abstract class Request<T> {
+
+    abstract T perform(HostConnection hostConnection) throws IOException;
+
+    abstract T getNoConnectionAvailableResponse();
+
+    abstract T getConcurrencyLimitExceededResponse();
+
+    abstract T getFailedRetriesResponse(int numTries);
+
+    // Return false if the request must not be retried after a failure
+    boolean isRetriable() {
+      return true;
+    }
+
+    // Describe the request in logs
+    abstract String getDescription();
+  }
+
   public HankResponse get(Domain domain, ByteBuffer key, int maxNumTries, Integer keyHash) {
-    int domainId = domain.getId();
+    return get(domain, key, maxNumTries, keyHash, null);
+  }
+
+  // When partition is not null, it is passed to the servers that partition the domain the same way
+  public HankResponse get(final Domain domain, final ByteBuffer key, int maxNumTries, Integer keyHash, final Integer partition) {
+    return perform(new Request<HankResponse>() {
+      @Override
+      HankResponse perform(HostConnection hostConnection) throws IOException {
+        return hostConnection.get(domain, key, partition);
+      }
+
+      @Override
+      HankResponse getNoConnectionAvailableResponse() {
+        return NO_CONNECTION_AVAILABLE_RESPONSE;
+      }
+
+      @Override
+      HankResponse getConcurrencyLimitExceededResponse() {
+        return CONCURRENCY_LIMIT_EXCEEDED_RESPONSE;
+      }
+
+      @Override
+      HankResponse getFailedRetriesResponse(int numTries) {
+        return HankResponse.xception(HankException.failed_retries(numTries));
+      }
+
+      @Override
+      String getDescription() {
+        return "Domain = " + domain.getName() + ", Key = " + BytesUtils.bytesToHexString(key);
+      }
+    }, maxNumTries, keyHash);
+  }
+
+  public HankBulkResponse getBulk(final int domainId, final List<ByteBuffer> keys, int maxNumTries) {
+    return perform(new BulkRequest(keys.size()) {
+      @Override
+      HankBulkResponse perform(HostConnection hostConnection) throws IOException {
+        return hostConnection.getBulk(domainId, keys);
+      }
+    }, maxNumTries, null);
+  }
+
+  public HankBulkResponse getMulti(final List<DomainKey> domainKeys, int maxNumTries) {
+    return perform(new BulkRequest(domainKeys.size()) {
+      @Override
+      HankBulkResponse perform(HostConnection hostConnection) throws IOException {
+        return hostConnection.getMulti(domainKeys);
+      }
+    }, maxNumTries, null);
+  }
+
+  private static abstract class BulkRequest extends Request<HankBulkResponse> {
+
+    private final int numKeys;
+
+    private BulkRequest(int numKeys) {
+      this.numKeys = numKeys;
+    }
+
+    @Override
+    HankBulkResponse getNoConnectionAvailableResponse() {
+      return NO_CONNECTION_AVAILABLE_BULK_RESPONSE;
+    }
+
+    @Override
+    HankBulkResponse getConcurrencyLimitExceededResponse() {
+      return CONCURRENCY_LIMIT_EXCEEDED_BULK_RESPONSE;
+    }
+
+    @Override
+    HankBulkResponse getFailedRetriesResponse(int numTries) {
+      return HankBulkResponse.xception(HankException.failed_retries(numTries));
+    }
+
+    @Override
+    String getDescription() {
+      return "Num keys = " + numKeys;
+    }
+  }
+
+  // Perform a streamed GET BULK. Return false if it failed, in which case only some responses (possibly none)
+  // were passed to the callback. Once responses have been delivered, the request is not retried.
+  public boolean getBulkStream(final int domainId, final List<ByteBuffer> keys, int maxNumTries, GetBulkStreamCallback callback) {
+    final GetBulkStreamCallback wrappedCallback = callback;
+    final int[] numDeliveredResponses = new int[]{0};
+    final GetBulkStreamCallback countingCallback = new GetBulkStreamCallback() {
+      @Override
+      public void onResponse(int keyIndex, HankResponse response) {
+        ++numDeliveredResponses[0];
+        wrappedCallback.onResponse(keyIndex, response);
+      }
+
+      @Override
+      public void onComplete() {
+        wrappedCallback.onComplete();
+      }
+    };
+    return perform(new Request<Boolean>() {
+      @Override
+      Boolean perform(HostConnection hostConnection) throws IOException {
+        hostConnection.getBulkStream(domainId, keys, countingCallback);
+        return true;
+      }
+
+      @Override
+      Boolean getNoConnectionAvailableResponse() {
+        return false;
+      }
+
+      @Override
+      Boolean getConcurrencyLimitExceededResponse() {
+        return false;
+      }
+
+      @Override
+      Boolean getFailedRetriesResponse(int numTries) {
+        return false;
+      }
+
+      @Override
+      boolean isRetriable() {
+        return numDeliveredResponses[0] == 0;
+      }
+
+      @Override
+      String getDescription() {
+        return "Num keys = " + keys.size() + ", Num delivered responses = " + numDeliveredResponses[0];
+      }
+    }, maxNumTries, null);
+  }
+
+  // Perform the given request, trying other hosts when it fails. Hosts that are saturated (too many requests in
+  // flight) are skipped, and the request fails fast when they all are. Retries are limited by the retry budget.
+  private <T> T perform(Request<T> request, int maxNumTries, Integer keyHash) {
     HostConnectionAndHostIndex connectionAndHostIndex = null;
     int numTries = 0;
+    int numSaturatedHosts = 0;
+    if (retryBudget != null) {
+      retryBudget.onRequest();
+    }
     while (true) {
       // Either get a connection to an arbitrary host, or get a connection skipping the
       // previous host used (since it failed)
@@ -252,69 +442,41 @@ public class HostConnectionPool {
       }
       // If we couldn't find any available connection, return corresponding error response
       if (connectionAndHostIndex == null) {
-        LOG.error("No connection is available. Giving up. Domain = " + domain.getName() + ", Key=" + BytesUtils.bytesToHexString(key));
-        return NO_CONNECTION_AVAILABLE_RESPONSE;
+        LOG.error("No connection is available. Giving up. " + request.getDescription());
+        return request.getNoConnectionAvailableResponse();
       } else {
         // Perform query
         try {
-          return connectionAndHostIndex.hostConnection.get(domainId, key);
+          return request.perform(connectionAndHostIndex.hostConnection);
+        } catch (HostConcurrencyLimitExceededException e) {
+          // Host is saturated. Try the next one, but fail fast if they all are. This is not a failed try.
+          ++numSaturatedHosts;
+          if (numSaturatedHosts >= hostToConnections.size()) {
+            return request.getConcurrencyLimitExceededResponse();
+          }
         } catch (IOException e) {
           // In case of error, keep count of the number of times we retry
           ++numTries;
-          if (numTries < maxNumTries) {
+          if (numTries < maxNumTries && request.isRetriable() && retryBudget != null && !retryBudget.tryRetry()) {
+            // Retrying is not allowed by the budget
+            LOG.error("Failed to perform query with host: "
+                + connectionAndHostIndex.hostConnection.getHost().getAddress()
+                + ". Giving up because retry budget is exhausted. Try " + numTries + "/" + maxNumTries
+                + ", " + request.getDescription(), e);
+            return request.getFailedRetriesResponse(numTries);
+          } else if (numTries < maxNumTries && request.isRetriable()) {
             // Simply log the error and retry
             LOG.error("Failed to perform query with host: "
                 + connectionAndHostIndex.hostConnection.getHost().getAddress()
                 + ". Retrying. Try " + numTries + "/" + maxNumTries
-                + ", Domain = " + domain.getName()
-                + ", Key = " + BytesUtils.bytesToHexString(key), e);
+                + ", " + request.getDescription(), e);
           } else {
-            // If we have exhausted tries, return an exception response
+            // If we have exhausted tries, or if the request cannot be retried, return an exception response
             LOG.error("Failed to perform query with host: "
                 + connectionAndHostIndex.hostConnection.getHost().getAddress()
                 + ". Giving up. Try " + numTries + "/" + maxNumTries
-                + ", Domain = " + domain.getName()
-                + ", Key = " + BytesUtils.bytesToHexString(key), e);
-            return HankResponse.xception(HankException.failed_retries(maxNumTries));
-          }
-        }
-      }
-    }
-  }
-
-  public HankBulkResponse getBulk(int domainId, List<ByteBuffer> keys, int maxNumTries) {
-    HostConnectionAndHostIndex connectionAndHostIndex = null;
-    int numTries = 0;
-    while (true) {
-      // Either get a connection to an arbitrary host, or get a connection skipping the
-      // previous host used (since it failed)
-      if (connectionAndHostIndex == null) {
-        connectionAndHostIndex = getConnectionToUse();
-      } else {
-        connectionAndHostIndex = getNextConnectionToUse(connectionAndHostIndex.hostIndex);
-      }
-      // If we couldn't find any available connection, return corresponding error response
-      if (connectionAndHostIndex == null) {
-        LOG.error("No connection is available. Giving up. Num keys = " + keys.size());
-        return NO_CONNECTION_AVAILABLE_BULK_RESPONSE;
-      } else {
-        // Perform query
-        try {
-          return connectionAndHostIndex.hostConnection.getBulk(domainId, keys);
-        } catch (IOException e) {
-          // In case of error, keep count of the number of times we retry
-          ++numTries;
-          if (numTries < maxNumTries) {
-            // Simply log the error and retry
-            LOG.error("Failed to perform query with host #" + connectionAndHostIndex.hostIndex
-                + ". Retrying. Try " + numTries + "/" + maxNumTries
-                + ", Num keys = " + keys.size(), e);
-          } else {
-            // If we have exhausted tries, return an exception response
-            LOG.error("Failed to perform query with host #" + connectionAndHostIndex.hostIndex
-                + ". Giving up. Try " + numTries + "/" + maxNumTries
-                + ", Num keys = " + keys.size(), e);
-            return HankBulkResponse.xception(HankException.failed_retries(maxNumTries));
+                + ", " + request.getDescription(), e);
+            return request.getFailedRetriesResponse(numTries);
           }
         }
       }
@@ -0,0 +1,196 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.liveramp.hank.client;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.liveramp.commons.util.BytesUtils;
+import com.liveramp.hank.config.ReaderConfigurator;
+import com.liveramp.hank.coordinator.Domain;
+import com.liveramp.hank.coordinator.Host;
+import com.liveramp.hank.coordinator.HostState;
+import com.liveramp.hank.generated.HankResponse;
+import com.liveramp.hank.storage.Reader;
+import com.liveramp.hank.storage.ReaderResult;
+import com.liveramp.hank.zookeeper.WatchedNodeListener;
+
+/**
+ * LocalPartitionReader serves a partition directly from the local data
+ * directories of a co-located partition server, bypassing Thrift entirely.
+ * <p/>
+ * The files read are managed by the partition server, so the local Reader is
+ * only used while that server is SERVING and is closed as soon as it stops
+ * serving (for example to update its partitions). A new LocalPartitionReader is
+ * opened when the server comes back with a new version of the partition.
+ */
+class LocalPartitionReader implements WatchedNodeListener<HostState> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(LocalPartitionReader.class);
+
+  private static final HankResponse NOT_FOUND = HankResponse.not_found(true);
+  private static final ReaderResultThreadLocal readerResultThreadLocal = new ReaderResultThreadLocal();
+
+  private final Host host;
+  private final Domain domain;
+  private final int partitionNumber;
+  private final int versionNumber;
+  private final int bufferReuseMaxSize;
+  private Reader reader;
+  // Host state as last notified, so that gets do not query the coordinator
+  private volatile boolean isServing = false;
+  // Gets hold the read lock, closing holds the write lock so that in-flight gets complete first
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private LocalPartitionReader(Host host,
+                               Domain domain,
+                               int partitionNumber,
+                               int versionNumber,
+                               int bufferReuseMaxSize,
+                               Reader reader) {
+    this.host = host;
+    this.domain = domain;
+    this.partitionNumber = partitionNumber;
+    this.versionNumber = versionNumber;
+    this.bufferReuseMaxSize = bufferReuseMaxSize;
+    this.reader = reader;
+  }
+
+  // Open a local Reader for the given partition version. Return null if it cannot be opened.
+  static LocalPartitionReader open(Host host,
+                                   Domain domain,
+                                   int partitionNumber,
+                                   int versionNumber,
+                                   ReaderConfigurator readerConfigurator) throws IOException {
+    Reader reader;
+    try {
+      reader = domain.getStorageEngine().getReader(readerConfigurator, partitionNumber);
+    } catch (IOException e) {
+      LOG.warn(String.format("Could not open local Reader for partition #%d of domain %s. Using remote partition server.",
+          partitionNumber, domain.getName()), e);
+      return null;
+    }
+    // Check that Reader's version number and current version number match
+    if (reader.getVersionNumber() != null && reader.getVersionNumber() != versionNumber) {
+      LOG.warn(String.format("Could not use local Reader for partition #%d of domain %s because version numbers reported by the Reader (%d) and by metadata (%d) differ. Using remote partition server.",
+          partitionNumber, domain.getName(), reader.getVersionNumber(), versionNumber));
+      reader.close();
+      return null;
+    }
+    LocalPartitionReader result = new LocalPartitionReader(host, domain, partitionNumber, versionNumber,
+        readerConfigurator.getBufferReuseMaxSize(), reader);
+    host.setStateChangeListener(result);
+    // Read the state once the listener is registered so that no change is missed
+    try {
+      result.isServing = HostState.SERVING.equals(host.getState());
+    } catch (IOException e) {
+      result.close();
+      throw e;
+    }
+    LOG.info(String.format("Opened local Reader for domain %s, partition #%d, version #%d",
+        domain.getName(), partitionNumber, versionNumber));
+    return result;
+  }
+
+  Host getHost() {
+    return host;
+  }
+
+  int getVersionNumber() {
+    return versionNumber;
+  }
+
+  boolean isOpen() {
+    lock.readLock().lock();
+    try {
+      return reader != null;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  // Return the response, or null if the local Reader cannot be used and the query should go to the server
+  HankResponse get(ByteBuffer key) throws IOException {
+    lock.readLock().lock();
+    try {
+      if (reader == null || !isServing) {
+        return null;
+      }
+      ReaderResult result = readerResultThreadLocal.get();
+      // If buffer exceeds limit, reset it
+      if (result.getBuffer() != null && result.getBuffer().capacity() > bufferReuseMaxSize) {
+        readerResultThreadLocal.remove();
+        result = readerResultThreadLocal.get();
+      }
+      result.clear();
+      reader.get(key, result);
+      if (result.isFound()) {
+        // The result buffer is reused, copy the value
+        return HankResponse.value(BytesUtils.byteBufferDeepCopy(result.getBuffer()));
+      } else {
+        return NOT_FOUND;
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  void close() {
+    host.cancelStateChangeListener(this);
+    closeReader();
+  }
+
+  private void closeReader() {
+    lock.writeLock().lock();
+    try {
+      if (reader != null) {
+        LOG.info(String.format("Closing local Reader for domain %s, partition #%d, version #%d",
+            domain.getName(), partitionNumber, versionNumber));
+        try {
+          reader.close();
+        } catch (IOException e) {
+          LOG.error("Exception while closing local Reader", e);
+        }
+        reader = null;
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void onWatchedNodeChange(HostState hostState) {
+    // Files can be modified as soon as the partition server stops serving.
+    // Note: the listener itself is cancelled when this LocalPartitionReader is discarded.
+    isServing = hostState == HostState.SERVING;
+    if (!isServing) {
+      closeReader();
+    }
+  }
+
+  private static class ReaderResultThreadLocal extends ThreadLocal<ReaderResult> {
+
+    @Override
+    protected ReaderResult initialValue() {
+      return new ReaderResult();
+    }
+  }
+}
@@ -41,6 +41,15 @@ public class MockHankSmartClient implements HankSmartClientIface {
     return HankBulkResponse.responses(responses);
   }
 
+  @Override
+  public HankBulkResponse getMulti(List<String> domainNames, List<ByteBuffer> keys) {
+    List<HankResponse> responses = new ArrayList<HankResponse>(keys.size());
+    for (int i = 0; i < keys.size(); ++i) {
+      responses.add(get(domainNames.get(i), keys.get(i)));
+    }
+    return HankBulkResponse.responses(responses);
+  }
+
   private class GetTaskRunnable implements GetTaskRunnableIface {
 
     private final String domain;
@@ -81,6 +90,14 @@ public class MockHankSmartClient implements HankSmartClientIface {
     return result;
   }
 
+  @Override
+  public void getBulkStream(String domainName, List<ByteBuffer> keys, GetBulkStreamCallback callback) {
+    for (int i = 0; i < keys.size(); ++i) {
+      callback.onResponse(i, get(domainName, keys.get(i)));
+    }
+    callback.onComplete();
+  }
+
   @Override
   public void stop() {
     // No-op
@@ -0,0 +1,56 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.liveramp.hank.client;
+
+/**
+ * RetryBudget caps retries to a fraction of the traffic. Every request
+ * deposits a fraction of a retry into the budget and every retry withdraws a
+ * full one, so that when hosts fail, retries cannot multiply the load sent to
+ * the remaining hosts. A small reserve lets low traffic clients retry
+ * occasional failures.
+ */
+class RetryBudget {
+
+  private static final double MIN_MAX_BALANCE = 10;
+
+  private final double retryRatio;
+  private final double maxBalance;
+  private double balance;
+
+  RetryBudget(double retryRatio, int maxBalance) {
+    if (retryRatio < 0) {
+      throw new IllegalArgumentException("Retry ratio must be positive: " + retryRatio);
+    }
+    this.retryRatio = retryRatio;
+    this.maxBalance = Math.max(MIN_MAX_BALANCE, maxBalance);
+    this.balance = MIN_MAX_BALANCE;
+  }
+
+  synchronized void onRequest() {
+    balance = Math.min(maxBalance, balance + retryRatio);
+  }
+
+  // Return true if a retry can be performed
+  synchronized boolean tryRetry() {
+    if (balance >= 1) {
+      balance -= 1;
+      return true;
+    } else {
+      return false;
+    }
+  }
+}
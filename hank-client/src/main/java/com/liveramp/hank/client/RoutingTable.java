@@ -0,0 +1,176 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.liveramp.hank.client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.liveramp.hank.coordinator.Host;
+import com.liveramp.hank.coordinator.HostAddress;
+
+import static com.liveramp.hank.client.HostConnectionPool.getHostListShuffleSeed;
+
+/**
+ * Immutable snapshot of the smart client's routing state. Connection pools (and
+ * local partition readers, if any) are indexed by domain id and then by partition
+ * number so that the query path does not need any locking, boxing or hashing to
+ * find the pool to use. A new RoutingTable is built every time the connection
+ * cache is updated, and is then published as a whole.
+ */
+class RoutingTable {
+
+  static final RoutingTable EMPTY = new RoutingTable(
+      new HashMap<HostAddress, HostConnectionPool>(),
+      new HostConnectionPool[0][],
+      new LocalPartitionReader[0][],
+      new ArrayList<LocalPartitionReader>());
+
+  private final Map<HostAddress, HostConnectionPool> partitionServerAddressToConnectionPool;
+  private final Map<Host, HostConnectionPool> hostToConnectionPool;
+  private final HostConnectionPool[][] domainToPartitionToConnectionPool;
+  private final LocalPartitionReader[][] domainToPartitionToLocalPartitionReader;
+  private final List<LocalPartitionReader> localPartitionReaders;
+
+  private RoutingTable(Map<HostAddress, HostConnectionPool> partitionServerAddressToConnectionPool,
+                       HostConnectionPool[][] domainToPartitionToConnectionPool,
+                       LocalPartitionReader[][] domainToPartitionToLocalPartitionReader,
+                       List<LocalPartitionReader> localPartitionReaders) {
+    this.partitionServerAddressToConnectionPool = Collections.unmodifiableMap(partitionServerAddressToConnectionPool);
+    this.hostToConnectionPool = new HashMap<Host, HostConnectionPool>();
+    for (HostConnectionPool hostConnectionPool : partitionServerAddressToConnectionPool.values()) {
+      for (HostConnection hostConnection : hostConnectionPool.getConnections()) {
+        hostToConnectionPool.put(hostConnection.getHost(), hostConnectionPool);
+      }
+    }
+    this.domainToPartitionToConnectionPool = domainToPartitionToConnectionPool;
+    this.domainToPartitionToLocalPartitionReader = domainToPartitionToLocalPartitionReader;
+    this.localPartitionReaders = Collections.unmodifiableList(localPartitionReaders);
+  }
+
+  // Build a routing table from the list of host addresses serving each partition of each domain,
+  // and from the local partition readers that are available for each partition of each domain.
+  // The retry budget (which can be null) is shared by all connection pools.
+  static RoutingTable create(Map<HostAddress, HostConnectionPool> partitionServerAddressToConnectionPool,
+                             Map<Integer, Map<Integer, List<HostAddress>>> domainToPartitionToPartitionServerAddressList,
+                             Map<Integer, Map<Integer, LocalPartitionReader>> domainToPartitionToLocalPartitionReaderMap,
+                             RetryBudget retryBudget) {
+    // Determine the max domain id so we can bound the array
+    int maxDomainId = -1;
+    for (Integer domainId : domainToPartitionToPartitionServerAddressList.keySet()) {
+      if (domainId > maxDomainId) {
+        maxDomainId = domainId;
+      }
+    }
+    HostConnectionPool[][] domainToPartitionToConnectionPool = new HostConnectionPool[maxDomainId + 1][];
+    for (Map.Entry<Integer, Map<Integer, List<HostAddress>>> domainToPartitionToAddressesEntry :
+        domainToPartitionToPartitionServerAddressList.entrySet()) {
+      int domainId = domainToPartitionToAddressesEntry.getKey();
+      Map<Integer, List<HostAddress>> partitionToAddresses = domainToPartitionToAddressesEntry.getValue();
+      // Determine the max partition number so we can bound the array
+      int maxPartitionId = -1;
+      for (Integer partitionId : partitionToAddresses.keySet()) {
+        if (partitionId > maxPartitionId) {
+          maxPartitionId = partitionId;
+        }
+      }
+      HostConnectionPool[] partitionToConnectionPool = new HostConnectionPool[maxPartitionId + 1];
+      for (Map.Entry<Integer, List<HostAddress>> partitionToAddressesEntry : partitionToAddresses.entrySet()) {
+        int partitionId = partitionToAddressesEntry.getKey();
+        List<HostConnection> connections = new ArrayList<HostConnection>();
+        for (HostAddress address : partitionToAddressesEntry.getValue()) {
+          connections.addAll(partitionServerAddressToConnectionPool.get(address).getConnections());
+        }
+        partitionToConnectionPool[partitionId] =
+            HostConnectionPool.createFromList(connections, getHostListShuffleSeed(domainId, partitionId), retryBudget);
+      }
+      domainToPartitionToConnectionPool[domainId] = partitionToConnectionPool;
+    }
+    // Build local partition readers table
+    int maxLocalDomainId = -1;
+    for (Integer domainId : domainToPartitionToLocalPartitionReaderMap.keySet()) {
+      if (domainId > maxLocalDomainId) {
+        maxLocalDomainId = domainId;
+      }
+    }
+    List<LocalPartitionReader> localPartitionReaders = new ArrayList<LocalPartitionReader>();
+    LocalPartitionReader[][] domainToPartitionToLocalPartitionReader = new LocalPartitionReader[maxLocalDomainId + 1][];
+    for (Map.Entry<Integer, Map<Integer, LocalPartitionReader>> entry : domainToPartitionToLocalPartitionReaderMap.entrySet()) {
+      int maxPartitionId = -1;
+      for (Integer partitionId : entry.getValue().keySet()) {
+        if (partitionId > maxPartitionId) {
+          maxPartitionId = partitionId;
+        }
+      }
+      LocalPartitionReader[] partitionToLocalPartitionReader = new LocalPartitionReader[maxPartitionId + 1];
+      for (Map.Entry<Integer, LocalPartitionReader> partitionEntry : entry.getValue().entrySet()) {
+        partitionToLocalPartitionReader[partitionEntry.getKey()] = partitionEntry.getValue();
+        localPartitionReaders.add(partitionEntry.getValue());
+      }
+      domainToPartitionToLocalPartitionReader[entry.getKey()] = partitionToLocalPartitionReader;
+    }
+    return new RoutingTable(partitionServerAddressToConnectionPool,
+        domainToPartitionToConnectionPool,
+        domainToPartitionToLocalPartitionReader,
+        localPartitionReaders);
+  }
+
+  Map<HostAddress, HostConnectionPool> getPartitionServerAddressToConnectionPool() {
+    return partitionServerAddressToConnectionPool;
+  }
+
+  // Return the connection pool holding all connections to a given host, or null if there is none
+  HostConnectionPool getHostConnectionPool(Host host) {
+    return hostToConnectionPool.get(host);
+  }
+
+  // Return the connection pools of a domain, indexed by partition number, or null if the domain is not served
+  HostConnectionPool[] getPartitionToConnectionPool(int domainId) {
+    if (domainId >= 0 && domainId < domainToPartitionToConnectionPool.length) {
+      return domainToPartitionToConnectionPool[domainId];
+    } else {
+      return null;
+    }
+  }
+
+  // Return the connection pool for a given partition of a domain, or null if it is not served
+  HostConnectionPool getConnectionPool(int domainId, int partition) {
+    HostConnectionPool[] partitionToConnectionPool = getPartitionToConnectionPool(domainId);
+    if (partitionToConnectionPool == null || partition < 0 || partition >= partitionToConnectionPool.length) {
+      return null;
+    }
+    return partitionToConnectionPool[partition];
+  }
+
+  // Return the local partition reader for a given partition of a domain, or null if there is none
+  LocalPartitionReader getLocalPartitionReader(int domainId, int partition) {
+    if (domainId < 0 || domainId >= domainToPartitionToLocalPartitionReader.length) {
+      return null;
+    }
+    LocalPartitionReader[] partitionToLocalPartitionReader = domainToPartitionToLocalPartitionReader[domainId];
+    if (partitionToLocalPartitionReader == null || partition < 0 || partition >= partitionToLocalPartitionReader.length) {
+      return null;
+    }
+    return partitionToLocalPartitionReader[partition];
+  }
+
+  List<LocalPartitionReader> getLocalPartitionReaders() {
+    return localPartitionReaders;
+  }
+}
@@ -0,0 +1,93 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.liveramp.hank.client;
+
+import java.util.Arrays;
+
+import org.apache.thrift.transport.TFramedTransport;
+import org.apache.thrift.transport.TMemoryBuffer;
+import org.apache.thrift.transport.TTransportException;
+import org.junit.Test;
+import org.xerial.snappy.Snappy;
+
+import com.liveramp.hank.partition_server.ResponseCompression;
+import com.liveramp.hank.test.BaseTestCase;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class TestCompressedResponseFramedTransport extends BaseTestCase {
+
+  private static final byte[] PAYLOAD = new byte[10000];
+
+  static {
+    for (int i = 0; i < PAYLOAD.length; ++i) {
+      PAYLOAD[i] = (byte)(i % 7);
+    }
+  }
+
+  @Test
+  public void testRequestHeader() throws Exception {
+    TMemoryBuffer buffer = new TMemoryBuffer(1024);
+    CompressedResponseFramedTransport transport = new CompressedResponseFramedTransport(buffer, 4096);
+    transport.write(PAYLOAD, 0, 10);
+    transport.write(PAYLOAD, 10, PAYLOAD.length - 10);
+    transport.flush();
+
+    byte[] frame = Arrays.copyOf(buffer.getArray(), buffer.length());
+    assertEquals(frame.length - 4, TFramedTransport.decodeFrameSize(frame));
+    // Requests start with the response compression header
+    assertEquals(4096, ResponseCompression.decodeRequestHeader(frame, 4, frame.length - 4));
+    assertArrayEquals(PAYLOAD, Arrays.copyOfRange(frame, 4 + ResponseCompression.REQUEST_HEADER_NUM_BYTES, frame.length));
+  }
+
+  @Test
+  public void testReadResponses() throws Exception {
+    TMemoryBuffer buffer = new TMemoryBuffer(1024);
+    CompressedResponseFramedTransport transport = new CompressedResponseFramedTransport(buffer, 4096);
+
+    // Raw response
+    writeResponseFrame(buffer, ResponseCompression.RESPONSE_RAW, PAYLOAD);
+    byte[] read = new byte[PAYLOAD.length];
+    transport.readAll(read, 0, read.length);
+    assertArrayEquals(PAYLOAD, read);
+
+    // Compressed response
+    writeResponseFrame(buffer, ResponseCompression.RESPONSE_SNAPPY, Snappy.compress(PAYLOAD));
+    read = new byte[PAYLOAD.length];
+    transport.readAll(read, 0, read.length);
+    assertArrayEquals(PAYLOAD, read);
+
+    // Unknown compression
+    writeResponseFrame(buffer, (byte)42, PAYLOAD);
+    try {
+      transport.readAll(read, 0, read.length);
+      fail("Should fail");
+    } catch (TTransportException e) {
+      // Expected
+    }
+  }
+
+  private static void writeResponseFrame(TMemoryBuffer buffer, byte header, byte[] payload) throws Exception {
+    byte[] frameSize = new byte[4];
+    TFramedTransport.encodeFrameSize(ResponseCompression.RESPONSE_HEADER_NUM_BYTES + payload.length, frameSize);
+    buffer.write(frameSize);
+    buffer.write(new byte[]{header});
+    buffer.write(payload);
+  }
+}
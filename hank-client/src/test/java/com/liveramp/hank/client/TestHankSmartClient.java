@@ -28,6 +28,8 @@ import com.liveramp.hank.coordinator.RingGroup;
 import com.liveramp.hank.coordinator.mock.MockCoordinator;
 import com.liveramp.hank.coordinator.mock.MockDomain;
 import com.liveramp.hank.coordinator.mock.MockDomainGroup;
+import com.liveramp.hank.generated.DomainKey;
+import com.liveramp.hank.generated.HankBulkChunk;
 import com.liveramp.hank.generated.HankBulkResponse;
 import com.liveramp.hank.generated.HankException;
 import com.liveramp.hank.generated.HankResponse;
@@ -62,6 +64,7 @@ import java.util.List;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -87,9 +90,15 @@ public class TestHankSmartClient extends BaseTestCase {
     private final HankBulkResponse bulkResponse;
     private Mode mode = Mode.NORMAL;
     private int numRequests = 0;
+    private int numMultiRequests = 0;
+    private int numStreamRequests = 0;
+    private int streamDomainId;
+    private List<ByteBuffer> streamKeys;
+    private Integer lastPartition = null;
 
     private static enum Mode {
       NORMAL,
+      SLOW,
       HANGING,
       FAILING,
       THROWING_ERROR
@@ -120,10 +129,71 @@ public class TestHankSmartClient extends BaseTestCase {
       return bulkResponse;
     }
 
+    @Override
+    public HankResponse getWithPartition(int domainId, ByteBuffer key, int partition) throws TException {
+      lastPartition = partition;
+      return get(domainId, key);
+    }
+
+    @Override
+    public HankBulkResponse getMulti(List<DomainKey> domainKeys) throws TException {
+      applyMode();
+      ++numMultiRequests;
+      List<HankResponse> responses = new ArrayList<HankResponse>(domainKeys.size());
+      for (DomainKey domainKey : domainKeys) {
+        responses.add(get(domainKey.get_domain_id(), domainKey.buffer_for_key()));
+      }
+      return HankBulkResponse.responses(responses);
+    }
+
+    // Stream responses one key per chunk
+    @Override
+    public HankBulkChunk getBulkStream(int domainId, List<ByteBuffer> keys) throws TException {
+      ++numStreamRequests;
+      streamDomainId = domainId;
+      streamKeys = keys;
+      return getBulkStreamNext(0);
+    }
+
+    @Override
+    public HankBulkChunk getBulkStreamNext(long streamId) throws TException {
+      int keyIndex = (int)streamId;
+      HankResponse response = get(streamDomainId, streamKeys.get(keyIndex));
+      return new HankBulkChunk(streamId + 1, Collections.singletonList(keyIndex),
+          Collections.singletonList(response), keyIndex == streamKeys.size() - 1, null);
+    }
+
+    @Override
+    public String negotiateResponseCompression(List<String> codecs) throws TException {
+      return "";
+    }
+
+    @Override
+    public boolean checkPartitioner(int domainId, String partitioner, int numPartitions) throws TException {
+      return true;
+    }
+
+    @Override
+    public HankBulkResponse getBulkWithTimeout(int domainId, List<ByteBuffer> keys, int timeoutMs) throws TException {
+      return getBulk(domainId, keys);
+    }
+
     public int getNumRequests() {
       return numRequests;
     }
 
+    public int getNumMultiRequests() {
+      return numMultiRequests;
+    }
+
+    public int getNumStreamRequests() {
+      return numStreamRequests;
+    }
+
+    public Integer getLastPartition() {
+      return lastPartition;
+    }
+
     public void clearNumRequests() {
       numRequests = 0;
     }
@@ -134,6 +204,13 @@ public class TestHankSmartClient extends BaseTestCase {
 
     private void applyMode() {
       switch (mode) {
+        case SLOW:
+          try {
+            Thread.sleep(500);
+          } catch (InterruptedException e) {
+
+          }
+          break;
         case HANGING:
           // Simulating hanging
           try {
@@ -258,6 +335,12 @@ public class TestHankSmartClient extends BaseTestCase {
               .setResponseCacheNumItemsCapacity(1)
               .setResponseCacheNumBytesCapacity(-1)
               .setResponseCacheExpirationSeconds(1));
+      final HankSmartClient coalescingClient = new HankSmartClient(mockCoord, "myRingGroup",
+          new HankSmartClientOptions()
+              .setRequestCoalescingEnabled(true));
+      final HankSmartClient partitionSendingClient = new HankSmartClient(mockCoord, "myRingGroup",
+          new HankSmartClientOptions()
+              .setSendPartitionToServerEnabled(true));
 
       // Test invalid get
       assertEquals(HankResponse.xception(HankException.no_such_domain(true)), client.get("nonexistent_domain", null));
@@ -266,6 +349,13 @@ public class TestHankSmartClient extends BaseTestCase {
       assertEquals(HankResponse.value(VALUE_1), client.get("existent_domain", KEY_1));
       assertEquals(HankResponse.value(VALUE_2), client.get("existent_domain", KEY_2));
 
+      // Test get with a pre-resolved domain
+      Domain resolvedDomain = client.getDomain("existent_domain");
+      assertEquals(existentDomain, resolvedDomain);
+      assertEquals(HankResponse.value(VALUE_1), client.get(resolvedDomain, KEY_1));
+      assertEquals(HankResponse.value(VALUE_2), client.get(resolvedDomain, KEY_2));
+      assertEquals(HankResponse.xception(HankException.no_such_domain(true)), client.get((Domain)null, KEY_1));
+
       // Test invalid getBulk
       assertEquals(HankBulkResponse.xception(HankException.no_such_domain(true)), client.getBulk("nonexistent_domain", null));
 
@@ -278,6 +368,39 @@ public class TestHankSmartClient extends BaseTestCase {
       bulkRequest1.add(KEY_2);
       assertEquals(bulkResponse1, client.getBulk("existent_domain", bulkRequest1));
 
+      // Test getMulti, keys are grouped by host
+      HankBulkResponse multiResponse1 = HankBulkResponse.responses(new ArrayList<HankResponse>());
+      multiResponse1.get_responses().add(HankResponse.value(VALUE_1));
+      multiResponse1.get_responses().add(HankResponse.xception(HankException.no_such_domain(true)));
+      multiResponse1.get_responses().add(HankResponse.value(VALUE_2));
+      multiResponse1.get_responses().add(HankResponse.not_found(true));
+      assertEquals(multiResponse1, client.getMulti(
+          Arrays.asList("existent_domain", "nonexistent_domain", "existent_domain", "existent_domain"),
+          Arrays.asList(KEY_1, KEY_1, KEY_2, KEY_NOT_FOUND)));
+      assertEquals(1, iface1.getNumMultiRequests());
+      assertEquals(1, iface2.getNumMultiRequests());
+
+      // Test getBulkStream
+      final HankResponse[] streamedResponses = new HankResponse[3];
+      final boolean[] streamCompleted = new boolean[]{false};
+      client.getBulkStream("existent_domain", Arrays.asList(KEY_1, KEY_2, KEY_NOT_FOUND), new GetBulkStreamCallback() {
+        @Override
+        public void onResponse(int keyIndex, HankResponse response) {
+          streamedResponses[keyIndex] = response;
+        }
+
+        @Override
+        public void onComplete() {
+          streamCompleted[0] = true;
+        }
+      });
+      assertTrue(streamCompleted[0]);
+      assertEquals(HankResponse.value(VALUE_1), streamedResponses[0]);
+      assertEquals(HankResponse.value(VALUE_2), streamedResponses[1]);
+      assertEquals(HankResponse.not_found(true), streamedResponses[2]);
+      assertEquals(1, iface1.getNumStreamRequests());
+      assertEquals(1, iface2.getNumStreamRequests());
+
       // Test get with null key
       try {
         client.get("existent_domain", null);
@@ -381,6 +504,28 @@ public class TestHankSmartClient extends BaseTestCase {
       assertEquals(HankResponse.not_found(true), cachingClient.get("existent_domain", KEY_NOT_FOUND));
       assertEquals(2, iface1.getNumRequests());
 
+      // Test request coalescing
+      iface1.setMode(MockPartitionServerHandler.Mode.SLOW);
+      iface1.clearNumRequests();
+
+      // Identical concurrent requests should share one server call
+      List<FutureGet> futureGets = coalescingClient.concurrentGet("existent_domain",
+          Arrays.asList(KEY_1, KEY_1, KEY_1, KEY_1));
+      for (FutureGet futureGet : futureGets) {
+        assertEquals(HankResponse.value(VALUE_1), futureGet.getResponse());
+      }
+      assertEquals(1, iface1.getNumRequests());
+
+      // Subsequent request should not be coalesced
+      assertEquals(HankResponse.value(VALUE_1), coalescingClient.get("existent_domain", KEY_1));
+      assertEquals(2, iface1.getNumRequests());
+
+      // Test sending partition to server
+      iface1.setMode(MockPartitionServerHandler.Mode.NORMAL);
+      assertNull(iface1.getLastPartition());
+      assertEquals(HankResponse.value(VALUE_1), partitionSendingClient.get("existent_domain", KEY_1));
+      assertEquals(Integer.valueOf(0), iface1.getLastPartition());
+
     } finally {
       server1.stop();
       server2.stop();
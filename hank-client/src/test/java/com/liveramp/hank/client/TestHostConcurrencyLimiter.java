@@ -0,0 +1,57 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.liveramp.hank.client;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.liveramp.hank.test.BaseTestCase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestHostConcurrencyLimiter extends BaseTestCase {
+
+  @Test
+  public void testLimiter() {
+    HostConcurrencyLimiter limiter = new HostConcurrencyLimiter(2, 4, 100);
+    assertTrue(limiter.tryAcquire());
+    assertTrue(limiter.tryAcquire());
+    // Limit is reached
+    assertFalse(limiter.tryAcquire());
+    assertEquals(2, limiter.getNumInFlight());
+
+    // Fast responses grow the limit
+    for (int i = 0; i < 10; ++i) {
+      limiter.release(0, false);
+      assertTrue(limiter.tryAcquire());
+    }
+    assertTrue(limiter.getLimit() > 2);
+
+    // Slow responses shrink it
+    int limit = limiter.getLimit();
+    limiter.release(TimeUnit.MILLISECONDS.toNanos(200), false);
+    assertTrue(limiter.getLimit() < limit);
+    // But only once per latency threshold period
+    limit = limiter.getLimit();
+    limiter.release(0, true);
+    assertEquals(limit, limiter.getLimit());
+    assertEquals(0, limiter.getNumInFlight());
+  }
+}
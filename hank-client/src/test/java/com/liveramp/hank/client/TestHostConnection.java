@@ -21,6 +21,8 @@ import java.net.SocketTimeoutException;
 import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger; import org.slf4j.LoggerFactory;
 import org.apache.thrift.TException;
@@ -36,9 +38,13 @@ import org.junit.Test;
 import com.liveramp.hank.coordinator.Host;
 import com.liveramp.hank.coordinator.HostState;
 import com.liveramp.hank.coordinator.PartitionServerAddress;
+import com.liveramp.hank.coordinator.mock.MockDomain;
+import com.liveramp.hank.generated.DomainKey;
+import com.liveramp.hank.generated.HankBulkChunk;
 import com.liveramp.hank.generated.HankBulkResponse;
 import com.liveramp.hank.generated.HankResponse;
 import com.liveramp.hank.partition_server.IfaceWithShutdown;
+import com.liveramp.hank.partitioner.Murmur64Partitioner;
 import com.liveramp.hank.test.BaseTestCase;
 import com.liveramp.hank.test.coordinator.MockHost;
 import com.liveramp.hank.util.Condition;
@@ -60,6 +66,7 @@ public class TestHostConnection extends BaseTestCase {
   private static final ByteBuffer KEY_1 = ByteBuffer.wrap("1".getBytes());
 
   private static final HankResponse RESPONSE_1 = HankResponse.value(KEY_1);
+  private static final HankResponse RESPONSE_WITH_PARTITION = HankResponse.value(ByteBuffer.wrap("p".getBytes()));
   private static final HankBulkResponse RESPONSE_BULK_1 = HankBulkResponse.responses(Collections.singletonList(HankResponse.value(KEY_1)));
   private static final IfaceWithShutdown mockIface = new IfaceWithShutdown() {
     @Override
@@ -75,6 +82,41 @@ public class TestHostConnection extends BaseTestCase {
     public HankBulkResponse getBulk(int domain_id, List<ByteBuffer> keys) throws TException {
       return RESPONSE_BULK_1;
     }
+
+    @Override
+    public HankResponse getWithPartition(int domain_id, ByteBuffer key, int partition) throws TException {
+      return RESPONSE_WITH_PARTITION;
+    }
+
+    @Override
+    public HankBulkResponse getMulti(List<DomainKey> domainKeys) throws TException {
+      return null;
+    }
+
+    @Override
+    public HankBulkChunk getBulkStream(int domain_id, List<ByteBuffer> keys) throws TException {
+      return null;
+    }
+
+    @Override
+    public HankBulkChunk getBulkStreamNext(long stream_id) throws TException {
+      return null;
+    }
+
+    @Override
+    public String negotiateResponseCompression(List<String> codecs) throws TException {
+      return "";
+    }
+
+    @Override
+    public boolean checkPartitioner(int domainId, String partitioner, int numPartitions) throws TException {
+      return Murmur64Partitioner.class.getName().equals(partitioner) && numPartitions == 1;
+    }
+
+    @Override
+    public HankBulkResponse getBulkWithTimeout(int domain_id, List<ByteBuffer> keys, int timeout_ms) throws TException {
+      return null;
+    }
   };
 
   private Thread mockPartitionServerThread;
@@ -130,6 +172,11 @@ public class TestHostConnection extends BaseTestCase {
     mockHost.setState(HostState.SERVING);
     startMockPartitionServerThread(mockIface, 1);
     assertEquals(RESPONSE_1, connection.get(0, KEY_1));
+    // Partitions are only sent when the host partitions the domain the same way
+    assertEquals(RESPONSE_WITH_PARTITION,
+        connection.get(new MockDomain("domain", 0, 1, new Murmur64Partitioner(), null, null, null), KEY_1, 0));
+    assertEquals(RESPONSE_1,
+        connection.get(new MockDomain("other_domain", 1, 2, new Murmur64Partitioner(), null, null, null), KEY_1, 0));
     assertEquals(RESPONSE_BULK_1, connection.getBulk(0, Collections.singletonList(KEY_1)));
 
     // Should try to query an "offline" host only if that is the only option
@@ -167,6 +214,41 @@ public class TestHostConnection extends BaseTestCase {
         }
         return null;
       }
+
+      @Override
+      public HankResponse getWithPartition(int domain_id, ByteBuffer key, int partition) throws TException {
+        return get(domain_id, key);
+      }
+
+      @Override
+      public HankBulkResponse getMulti(List<DomainKey> domainKeys) throws TException {
+        return null;
+      }
+
+      @Override
+      public HankBulkChunk getBulkStream(int domain_id, List<ByteBuffer> keys) throws TException {
+        return null;
+      }
+
+      @Override
+      public HankBulkChunk getBulkStreamNext(long stream_id) throws TException {
+        return null;
+      }
+
+      @Override
+      public String negotiateResponseCompression(List<String> codecs) throws TException {
+        return "";
+      }
+
+      @Override
+      public boolean checkPartitioner(int domainId, String partitioner, int numPartitions) throws TException {
+        return true;
+      }
+
+      @Override
+      public HankBulkResponse getBulkWithTimeout(int domain_id, List<ByteBuffer> keys, int timeout_ms) throws TException {
+        return null;
+      }
     };
 
     // Start server
@@ -253,6 +335,92 @@ public class TestHostConnection extends BaseTestCase {
     }
   }
 
+  @Test
+  public void testSendRemainingBulkTimeout() throws Exception {
+    final AtomicInteger receivedTimeoutMs = new AtomicInteger(-1);
+    IfaceWithShutdown timeoutRecordingIface = new IfaceWithShutdown() {
+      @Override
+      public void shutDown() throws InterruptedException {
+      }
+
+      @Override
+      public HankResponse get(int domain_id, ByteBuffer key) throws TException {
+        return RESPONSE_1;
+      }
+
+      @Override
+      public HankBulkResponse getBulk(int domain_id, List<ByteBuffer> keys) throws TException {
+        return RESPONSE_BULK_1;
+      }
+
+      @Override
+      public HankResponse getWithPartition(int domain_id, ByteBuffer key, int partition) throws TException {
+        return RESPONSE_1;
+      }
+
+      @Override
+      public HankBulkResponse getMulti(List<DomainKey> domainKeys) throws TException {
+        return null;
+      }
+
+      @Override
+      public HankBulkChunk getBulkStream(int domain_id, List<ByteBuffer> keys) throws TException {
+        return null;
+      }
+
+      @Override
+      public HankBulkChunk getBulkStreamNext(long stream_id) throws TException {
+        return null;
+      }
+
+      @Override
+      public String negotiateResponseCompression(List<String> codecs) throws TException {
+        return "";
+      }
+
+      @Override
+      public boolean checkPartitioner(int domainId, String partitioner, int numPartitions) throws TException {
+        return true;
+      }
+
+      @Override
+      public HankBulkResponse getBulkWithTimeout(int domain_id, List<ByteBuffer> keys, int timeout_ms) throws TException {
+        receivedTimeoutMs.set(timeout_ms);
+        return RESPONSE_BULK_1;
+      }
+    };
+
+    // Start server
+    startMockPartitionServerThread(timeoutRecordingIface, 1);
+
+    final HostConnection connection = new HostConnection(mockHost, 5000, 1000, 1000, 1000, null, -1, true);
+
+    // Hold the connection for a while
+    final CountDownLatch locked = new CountDownLatch(1);
+    Thread lockingThread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        connection.lock.lock();
+        locked.countDown();
+        try {
+          Thread.sleep(300);
+        } catch (InterruptedException e) {
+          throw new RuntimeException(e);
+        } finally {
+          connection.lock.unlock();
+        }
+      }
+    });
+    lockingThread.start();
+    locked.await();
+
+    // Time spent waiting for the connection is not sent to the host
+    assertEquals(RESPONSE_BULK_1, connection.getBulk(0, Collections.singletonList(KEY_1)));
+    lockingThread.join();
+    assertTrue(receivedTimeoutMs.get() > 0);
+    assertTrue(receivedTimeoutMs.get() <= 700);
+  }
+
   public static class MockPartitionServer implements Runnable {
 
     private final IfaceWithShutdown handler;
@@ -21,6 +21,8 @@ import com.liveramp.hank.coordinator.Host;
 import com.liveramp.hank.coordinator.HostState;
 import com.liveramp.hank.coordinator.PartitionServerAddress;
 import com.liveramp.hank.coordinator.mock.MockDomain;
+import com.liveramp.hank.generated.DomainKey;
+import com.liveramp.hank.generated.HankBulkChunk;
 import com.liveramp.hank.generated.HankBulkResponse;
 import com.liveramp.hank.generated.HankException;
 import com.liveramp.hank.generated.HankResponse;
@@ -44,6 +46,7 @@ import java.util.Map;
 import java.util.concurrent.Semaphore;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
 
@@ -96,6 +99,41 @@ public class TestHostConnectionPool extends BaseTestCase {
     public HankBulkResponse getBulk(int domain_id, List<ByteBuffer> keys) throws TException {
       return null;
     }
+
+    @Override
+    public HankResponse getWithPartition(int domain_id, ByteBuffer key, int partition) throws TException {
+      return get(domain_id, key);
+    }
+
+    @Override
+    public HankBulkResponse getMulti(List<DomainKey> domainKeys) throws TException {
+      return null;
+    }
+
+    @Override
+    public HankBulkChunk getBulkStream(int domain_id, List<ByteBuffer> keys) throws TException {
+      return null;
+    }
+
+    @Override
+    public HankBulkChunk getBulkStreamNext(long stream_id) throws TException {
+      return null;
+    }
+
+    @Override
+    public String negotiateResponseCompression(List<String> codecs) throws TException {
+      return "";
+    }
+
+    @Override
+    public boolean checkPartitioner(int domainId, String partitioner, int numPartitions) throws TException {
+      return true;
+    }
+
+    @Override
+    public HankBulkResponse getBulkWithTimeout(int domain_id, List<ByteBuffer> keys, int timeout_ms) throws TException {
+      return getBulk(domain_id, keys);
+    }
   }
 
   private static class Response1Iface extends MockIface {
@@ -437,6 +475,57 @@ public class TestHostConnectionPool extends BaseTestCase {
     }
   }
 
+  @Test
+  public void testFailFastWhenAllHostsAreSaturated() throws IOException, TException, InterruptedException {
+
+    MockIface iface1 = new Response1Iface();
+    MockIface iface2 = new Response1Iface();
+
+    startMockPartitionServerThread1(iface1, 1);
+    startMockPartitionServerThread2(iface2, 1);
+
+    HostConcurrencyLimiter limiter1 = new HostConcurrencyLimiter(1, 1, 1000);
+    HostConcurrencyLimiter limiter2 = new HostConcurrencyLimiter(1, 1, 1000);
+
+    Map<Host, List<HostConnection>> hostToConnectionsMap = new HashMap<Host, List<HostConnection>>();
+    hostToConnectionsMap.put(mockHost1, Collections.singletonList(new HostConnection(mockHost1, 0, 0, 0, 0, limiter1)));
+    hostToConnectionsMap.put(mockHost2, Collections.singletonList(new HostConnection(mockHost2, 0, 0, 0, 0, limiter2)));
+
+    // Failures on saturated hosts should not consume the retry budget
+    RetryBudget retryBudget = new RetryBudget(0, 1);
+    HostConnectionPool hostConnectionPool = new HostConnectionPool(hostToConnectionsMap, null, retryBudget);
+
+    mockHost1.setState(HostState.SERVING);
+    mockHost2.setState(HostState.SERVING);
+
+    // Saturate both hosts
+    assertTrue(limiter1.tryAcquire());
+    assertTrue(limiter2.tryAcquire());
+
+    // All request types should fail fast without reaching the hosts
+    HankResponse response = hostConnectionPool.get(mockDomain, KEY_1, 2, null);
+    assertTrue(response.is_set_xception() && response.get_xception().is_set_concurrency_limit_exceeded());
+    HankBulkResponse bulkResponse = hostConnectionPool.getBulk(0, Collections.singletonList(KEY_1), 2);
+    assertTrue(bulkResponse.is_set_xception() && bulkResponse.get_xception().is_set_concurrency_limit_exceeded());
+    bulkResponse = hostConnectionPool.getMulti(Collections.singletonList(new DomainKey(0, KEY_1)), 2);
+    assertTrue(bulkResponse.is_set_xception() && bulkResponse.get_xception().is_set_concurrency_limit_exceeded());
+    assertFalse(hostConnectionPool.getBulkStream(0, Collections.singletonList(KEY_1), 2, null));
+    assertEquals(0, iface1.numGets);
+    assertEquals(0, iface2.numGets);
+    assertEquals(1, limiter1.getNumInFlight());
+    assertEquals(1, limiter2.getNumInFlight());
+
+    // Once a host is not saturated anymore, requests should be sent to it
+    limiter1.release(0, false);
+    for (int i = 0; i < 4; ++i) {
+      assertEquals(RESPONSE_1, hostConnectionPool.get(mockDomain, KEY_1, 1, null));
+    }
+    assertEquals(4, iface1.numGets);
+    assertEquals(0, iface2.numGets);
+    assertEquals(0, limiter1.getNumInFlight());
+    assertTrue(retryBudget.tryRetry());
+  }
+
   private static void stopPartitionServer(TestHostConnection.MockPartitionServer mockPartitionServer, Thread mockPartitionServerThread) throws InterruptedException {
     if (mockPartitionServer != null) {
       LOG.info("Stopping partition server...");
@@ -0,0 +1,103 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.client;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.liveramp.hank.config.BaseReaderConfigurator;
+import com.liveramp.hank.config.DataDirectoriesConfigurator;
+import com.liveramp.hank.config.ReaderConfigurator;
+import com.liveramp.hank.coordinator.Domain;
+import com.liveramp.hank.coordinator.HostState;
+import com.liveramp.hank.coordinator.PartitionServerAddress;
+import com.liveramp.hank.coordinator.mock.MockDomain;
+import com.liveramp.hank.generated.HankResponse;
+import com.liveramp.hank.storage.echo.Echo;
+import com.liveramp.hank.test.BaseTestCase;
+import com.liveramp.hank.test.coordinator.MockHost;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestLocalPartitionReader extends BaseTestCase {
+
+  private static final ByteBuffer KEY = ByteBuffer.wrap(new byte[]{1, 2, 3});
+
+  private MockHost host;
+  private Domain domain;
+  private ReaderConfigurator readerConfigurator;
+
+  @Before
+  public void setUp() throws Exception {
+    host = new MockHost(new PartitionServerAddress("localhost", 12345));
+    domain = new MockDomain("domain", 0, 1, null, new Echo(), null, null);
+    readerConfigurator = new BaseReaderConfigurator(new DataDirectoriesConfigurator() {
+      @Override
+      public Set<String> getDataDirectories() {
+        return Collections.singleton(localTmpDir);
+      }
+    }, 0, 0, 1024, 1);
+  }
+
+  @Test
+  public void testServeLocally() throws Exception {
+    host.setState(HostState.SERVING);
+    LocalPartitionReader reader = LocalPartitionReader.open(host, domain, 0, 1, readerConfigurator);
+    assertNotNull(reader);
+    assertTrue(reader.isOpen());
+
+    HankResponse response = reader.get(KEY);
+    assertNotNull(response);
+    assertTrue(response.is_set_value());
+    reader.close();
+  }
+
+  @Test
+  public void testFallBackWhenHostIsNotServing() throws Exception {
+    host.setState(HostState.IDLE);
+    LocalPartitionReader reader = LocalPartitionReader.open(host, domain, 0, 1, readerConfigurator);
+    assertNotNull(reader);
+
+    // The query should go to the partition server
+    assertNull(reader.get(KEY));
+    reader.close();
+  }
+
+  @Test
+  public void testCloseOnStateChange() throws Exception {
+    host.setState(HostState.SERVING);
+    LocalPartitionReader reader = LocalPartitionReader.open(host, domain, 0, 1, readerConfigurator);
+    assertNotNull(reader.get(KEY));
+
+    // Files may be modified as soon as the host stops serving
+    host.setState(HostState.UPDATING);
+    assertFalse(reader.isOpen());
+    assertNull(reader.get(KEY));
+
+    // A closed reader is not reopened when the host serves again
+    host.setState(HostState.SERVING);
+    assertFalse(reader.isOpen());
+    assertNull(reader.get(KEY));
+    reader.close();
+  }
+}
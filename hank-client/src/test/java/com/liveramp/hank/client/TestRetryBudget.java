@@ -0,0 +1,43 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.liveramp.hank.client;
+
+import org.junit.Test;
+
+import com.liveramp.hank.test.BaseTestCase;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestRetryBudget extends BaseTestCase {
+
+  @Test
+  public void testRetryBudget() {
+    RetryBudget retryBudget = new RetryBudget(0.5, 10);
+    // Initial reserve
+    for (int i = 0; i < 10; ++i) {
+      assertTrue(retryBudget.tryRetry());
+    }
+    assertFalse(retryBudget.tryRetry());
+    // Two requests earn one retry
+    retryBudget.onRequest();
+    assertFalse(retryBudget.tryRetry());
+    retryBudget.onRequest();
+    assertTrue(retryBudget.tryRetry());
+    assertFalse(retryBudget.tryRetry());
+  }
+}
@@ -4,6 +4,7 @@ import com.liveramp.hank.generated.PartitionMetadata;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Map;
 
 public interface DomainVersion extends Comparable<DomainVersion> {
 
@@ -19,6 +20,11 @@ public interface DomainVersion extends Comparable<DomainVersion> {
 
   public void addPartitionProperties(int partNum, long numBytes, long numRecords) throws IOException;
 
+  public void addPartitionProperties(int partNum, long numBytes, long numRecords, Map<String, Long> fileChecksums) throws IOException;
+
+  // Checksums of the given partition's files by file name, null when they were not recorded
+  public Map<String, Long> getPartitionFileChecksums(int partNum) throws IOException;
+
   public boolean isDefunct() throws IOException;
 
   public void setDefunct(boolean isDefunct) throws IOException;
@@ -19,6 +19,7 @@ import com.liveramp.hank.zookeeper.WatchedNodeListener;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 
@@ -71,4 +72,12 @@ public interface Host extends Comparable<Host> {
   public String getStatistic(String key) throws IOException;
 
   public void deleteStatistic(String key) throws IOException;
+
+  // Bandwidth limits (in bytes per second) of the updates, peer transfers and local compactions of this host, keyed by budget name
+  public Map<String, Long> getBandwidthLimits() throws IOException;
+
+  public void setBandwidthLimits(Map<String, Long> bandwidthLimits) throws IOException;
+
+  // Notified with the new bandwidth limits whenever they change
+  public void setBandwidthLimitsChangeListener(WatchedNodeListener<Map<String, Long>> listener) throws IOException;
 }
@@ -37,6 +37,10 @@ public final class Hosts {
   public static final String ALL_FLAGS_EXPRESSION = "*";
 
   private static final String UPDATE_ETA_STATISTIC_KEY = "update_eta";
+  private static final String UPDATE_WHILE_SERVING_STATISTIC_KEY = "update_while_serving";
+  private static final String UPDATING_WHILE_SERVING_STATISTIC_KEY = "updating_while_serving";
+  private static final String READER_LOADING_PROGRESS_STATISTIC_KEY = "reader_loading_progress";
+  private static final String PEER_TRANSFER_PORT_STATISTIC_KEY = "peer_transfer_port";
   private static final String FILESYSTEM_STATISTICS_KEY = "filesystem_statistics";
   private static final String RUNTIME_STATISTICS_KEY = "runtime_statistics";
 
@@ -238,6 +242,69 @@ public final class Hosts {
     host.setEphemeralStatistic(Hosts.UPDATE_ETA_STATISTIC_KEY, Long.toString(updateETA));
   }
 
+  // Advertise that the host keeps serving its current versions while it executes updates
+  public static void setUpdateWhileServing(Host host, boolean updateWhileServing) throws IOException {
+    host.setEphemeralStatistic(UPDATE_WHILE_SERVING_STATISTIC_KEY, Boolean.toString(updateWhileServing));
+  }
+
+  public static boolean isUpdateWhileServing(Host host) throws IOException {
+    return Boolean.parseBoolean(host.getStatistic(UPDATE_WHILE_SERVING_STATISTIC_KEY));
+  }
+
+  // Record that the host is executing an update while serving. Its data is then not fully served.
+  public static void setUpdatingWhileServing(Host host, boolean updatingWhileServing) throws IOException {
+    host.setEphemeralStatistic(UPDATING_WHILE_SERVING_STATISTIC_KEY, Boolean.toString(updatingWhileServing));
+  }
+
+  public static boolean isUpdatingWhileServing(Host host) throws IOException {
+    return Boolean.parseBoolean(host.getStatistic(UPDATING_WHILE_SERVING_STATISTIC_KEY));
+  }
+
+  // Advertise the port on which the host serves its partitions to peers
+  public static void setPeerTransferPort(Host host, int peerTransferPort) throws IOException {
+    host.setEphemeralStatistic(PEER_TRANSFER_PORT_STATISTIC_KEY, Integer.toString(peerTransferPort));
+  }
+
+  public static void deletePeerTransferPort(Host host) throws IOException {
+    host.deleteStatistic(PEER_TRANSFER_PORT_STATISTIC_KEY);
+  }
+
+  // Null if the host does not serve its partitions to peers
+  public static Integer getPeerTransferPort(Host host) throws IOException {
+    String peerTransferPort = host.getStatistic(PEER_TRANSFER_PORT_STATISTIC_KEY);
+    return peerTransferPort == null ? null : Integer.valueOf(peerTransferPort);
+  }
+
+  public static void setReaderLoadingProgress(Host host, int numLoadedReaders, int numReaders) throws IOException {
+    host.setEphemeralStatistic(READER_LOADING_PROGRESS_STATISTIC_KEY, numLoadedReaders + "/" + numReaders);
+  }
+
+  public static void deleteReaderLoadingProgress(Host host) throws IOException {
+    host.deleteStatistic(READER_LOADING_PROGRESS_STATISTIC_KEY);
+  }
+
+  /**
+   * @return fraction of Readers loaded by the host, a negative number if it is not loading Readers
+   */
+  public static double computeReaderLoadingProgress(Host host) {
+    try {
+      String progressString = host.getStatistic(READER_LOADING_PROGRESS_STATISTIC_KEY);
+      if (progressString == null) {
+        return -1;
+      }
+      String[] tokens = progressString.split("/");
+      int numReaders = Integer.parseInt(tokens[1]);
+      if (numReaders == 0) {
+        return -1;
+      }
+      return (double)Integer.parseInt(tokens[0]) / numReaders;
+    } catch (IOException e) {
+      return -1;
+    } catch (RuntimeException e) {
+      return -1;
+    }
+  }
+
   public static long computeUpdateETA(Host host) {
     try {
       if (host.getState() != HostState.UPDATING) {
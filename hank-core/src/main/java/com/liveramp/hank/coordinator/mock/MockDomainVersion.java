@@ -22,6 +22,8 @@ import com.liveramp.hank.generated.PartitionMetadata;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 public class MockDomainVersion extends AbstractDomainVersion {
 
@@ -29,6 +31,7 @@ public class MockDomainVersion extends AbstractDomainVersion {
   private final Long closedAt;
   private boolean isDefunct = false;
   private DomainVersionProperties properties;
+  private final Map<Integer, Map<String, Long>> partitionFileChecksums = new HashMap<Integer, Map<String, Long>>();
 
   public MockDomainVersion(int versionNumber, Long closedAt, DomainVersionProperties domainVersionProperties) {
     this.versionNumber = versionNumber;
@@ -51,6 +54,16 @@ public class MockDomainVersion extends AbstractDomainVersion {
   public void addPartitionProperties(int partNum, long numBytes, long numRecords) {
   }
 
+  @Override
+  public void addPartitionProperties(int partNum, long numBytes, long numRecords, Map<String, Long> fileChecksums) {
+    partitionFileChecksums.put(partNum, fileChecksums);
+  }
+
+  @Override
+  public Map<String, Long> getPartitionFileChecksums(int partNum) {
+    return partitionFileChecksums.get(partNum);
+  }
+
   public void cancel() {
   }
 
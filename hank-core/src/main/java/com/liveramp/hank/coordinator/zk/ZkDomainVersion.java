@@ -128,6 +128,14 @@ public class ZkDomainVersion extends AbstractDomainVersion implements DomainVers
   public void addPartitionProperties(final int partNum,
                                      final long numBytes,
                                      final long numRecords) throws IOException {
+    addPartitionProperties(partNum, numBytes, numRecords, null);
+  }
+
+  @Override
+  public void addPartitionProperties(final int partNum,
+                                     final long numBytes,
+                                     final long numRecords,
+                                     final Map<String, Long> fileChecksums) throws IOException {
     try {
       metadata.update(metadata.new Updater() {
         @Override
@@ -136,7 +144,11 @@ public class ZkDomainVersion extends AbstractDomainVersion implements DomainVers
           if (partitionsMetadata == null) {
             currentCopy.set_partitions(new HashMap<Integer, PartitionMetadata>());
           }
-          currentCopy.get_partitions().put(partNum, new PartitionMetadata(numBytes, numRecords));
+          PartitionMetadata partitionMetadata = new PartitionMetadata(numBytes, numRecords);
+          if (fileChecksums != null) {
+            partitionMetadata.set_file_checksums(new HashMap<String, Long>(fileChecksums));
+          }
+          currentCopy.get_partitions().put(partNum, partitionMetadata);
         }
       });
     } catch (InterruptedException e) {
@@ -146,6 +158,19 @@ public class ZkDomainVersion extends AbstractDomainVersion implements DomainVers
     }
   }
 
+  @Override
+  public Map<String, Long> getPartitionFileChecksums(int partNum) throws IOException {
+    Map<Integer, PartitionMetadata> partitionsMetadata = metadata.get().get_partitions();
+    if (partitionsMetadata == null) {
+      return null;
+    }
+    PartitionMetadata partitionMetadata = partitionsMetadata.get(partNum);
+    if (partitionMetadata == null) {
+      return null;
+    }
+    return partitionMetadata.get_file_checksums();
+  }
+
   @Override
   public boolean isDefunct() throws IOException {
     return metadata.get().is_defunct();
@@ -21,6 +21,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -41,6 +42,7 @@ import com.liveramp.hank.coordinator.HostDomainPartition;
 import com.liveramp.hank.coordinator.HostState;
 import com.liveramp.hank.coordinator.Hosts;
 import com.liveramp.hank.coordinator.PartitionServerAddress;
+import com.liveramp.hank.generated.BandwidthLimitsMetadata;
 import com.liveramp.hank.generated.HostAssignmentsMetadata;
 import com.liveramp.hank.generated.HostDomainMetadata;
 import com.liveramp.hank.generated.HostDomainPartitionMetadata;
@@ -59,6 +61,7 @@ public class ZkHost extends AbstractHost {
   private static final String STATE_PATH = "s";
   private static final String ASSIGNMENTS_PATH = "a";
   private static final String STATISTICS_PATH = "i";
+  private static final String BANDWIDTH_LIMITS_PATH = "b";
   private static final String CURRENT_COMMAND_PATH = "c";
   private static final String COMMAND_QUEUE_PATH = "q";
 
@@ -70,6 +73,7 @@ public class ZkHost extends AbstractHost {
   private final WatchedThriftNode<HostMetadata> metadata;
   private final WatchedThriftNode<HostAssignmentsMetadata> assignments;
   private final WatchedThriftNode<StatisticsMetadata> statistics;
+  private final WatchedThriftNode<BandwidthLimitsMetadata> bandwidthLimits;
   private final WatchedEnum<HostState> state;
   private final WatchedEnum<HostCommand> currentCommand;
 
@@ -122,6 +126,8 @@ public class ZkHost extends AbstractHost {
     this.state.addListener(new HostStateDataLocationChangeNotifier());
     this.statistics = new WatchedThriftNode<StatisticsMetadata>(zk, ZkPath.append(path, STATISTICS_PATH),
         false, null, null, new StatisticsMetadata());
+    this.bandwidthLimits = new WatchedThriftNode<BandwidthLimitsMetadata>(zk, ZkPath.append(path, BANDWIDTH_LIMITS_PATH),
+        false, null, null, new BandwidthLimitsMetadata());
     commandQueueWatcher = new CommandQueueWatcher();
     currentCommand = new WatchedEnum<HostCommand>(HostCommand.class, zk,
         ZkPath.append(path, CURRENT_COMMAND_PATH), true);
@@ -451,6 +457,46 @@ public class ZkHost extends AbstractHost {
     }
   }
 
+  @Override
+  public Map<String, Long> getBandwidthLimits() throws IOException {
+    return getBandwidthLimits(bandwidthLimits.get());
+  }
+
+  private static Map<String, Long> getBandwidthLimits(BandwidthLimitsMetadata limits) {
+    if (limits == null || limits.get_limits() == null) {
+      return new HashMap<String, Long>();
+    } else {
+      return new HashMap<String, Long>(limits.get_limits());
+    }
+  }
+
+  @Override
+  public void setBandwidthLimits(final Map<String, Long> limits) throws IOException {
+    try {
+      bandwidthLimits.ensureCreated(CreateMode.PERSISTENT);
+      bandwidthLimits.update(bandwidthLimits.new Updater() {
+        @Override
+        public void updateCopy(BandwidthLimitsMetadata currentCopy) {
+          currentCopy.set_limits(new HashMap<String, Long>(limits));
+        }
+      });
+    } catch (InterruptedException e) {
+      throw new IOException(e);
+    } catch (KeeperException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  public void setBandwidthLimitsChangeListener(final WatchedNodeListener<Map<String, Long>> listener) {
+    bandwidthLimits.addListener(new WatchedNodeListener<BandwidthLimitsMetadata>() {
+      @Override
+      public void onWatchedNodeChange(BandwidthLimitsMetadata limits) {
+        listener.onWatchedNodeChange(getBandwidthLimits(limits));
+      }
+    });
+  }
+
   public void delete() throws IOException {
     try {
       zk.deleteNodeRecursively(path);
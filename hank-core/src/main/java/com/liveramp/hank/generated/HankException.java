@@ -19,6 +19,9 @@ public class HankException extends org.apache.thrift.TUnion<HankException, HankE
   private static final org.apache.thrift.protocol.TField NO_CONNECTION_AVAILABLE_FIELD_DESC = new org.apache.thrift.protocol.TField("no_connection_available", org.apache.thrift.protocol.TType.BOOL, (short)4);
   private static final org.apache.thrift.protocol.TField FAILED_RETRIES_FIELD_DESC = new org.apache.thrift.protocol.TField("failed_retries", org.apache.thrift.protocol.TType.I32, (short)5);
   private static final org.apache.thrift.protocol.TField INTERNAL_ERROR_FIELD_DESC = new org.apache.thrift.protocol.TField("internal_error", org.apache.thrift.protocol.TType.STRING, (short)6);
+  private static final org.apache.thrift.protocol.TField CONCURRENCY_LIMIT_EXCEEDED_FIELD_DESC = new org.apache.thrift.protocol.TField("concurrency_limit_exceeded", org.apache.thrift.protocol.TType.BOOL, (short)7);
+  private static final org.apache.thrift.protocol.TField OVERLOADED_FIELD_DESC = new org.apache.thrift.protocol.TField("overloaded", org.apache.thrift.protocol.TType.BOOL, (short)8);
+  private static final org.apache.thrift.protocol.TField DEADLINE_EXCEEDED_FIELD_DESC = new org.apache.thrift.protocol.TField("deadline_exceeded", org.apache.thrift.protocol.TType.BOOL, (short)9);
 
   /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
   public enum _Fields implements org.apache.thrift.TFieldIdEnum {
@@ -45,7 +48,19 @@ public class HankException extends org.apache.thrift.TUnion<HankException, HankE
     /**
      * There was some internal error in the server. This is pretty bad.
      */
-    INTERNAL_ERROR((short)6, "internal_error");
+    INTERNAL_ERROR((short)6, "internal_error"),
+    /**
+     * The client is already sending as many concurrent requests to the hosts as allowed
+     */
+    CONCURRENCY_LIMIT_EXCEEDED((short)7, "concurrency_limit_exceeded"),
+    /**
+     * The host is overloaded and shed the request without executing it
+     */
+    OVERLOADED((short)8, "overloaded"),
+    /**
+     * The request was not executed before its deadline
+     */
+    DEADLINE_EXCEEDED((short)9, "deadline_exceeded");
 
     private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -72,6 +87,12 @@ public class HankException extends org.apache.thrift.TUnion<HankException, HankE
           return FAILED_RETRIES;
         case 6: // INTERNAL_ERROR
           return INTERNAL_ERROR;
+        case 7: // CONCURRENCY_LIMIT_EXCEEDED
+          return CONCURRENCY_LIMIT_EXCEEDED;
+        case 8: // OVERLOADED
+          return OVERLOADED;
+        case 9: // DEADLINE_EXCEEDED
+          return DEADLINE_EXCEEDED;
         default:
           return null;
       }
@@ -126,6 +147,12 @@ public class HankException extends org.apache.thrift.TUnion<HankException, HankE
         new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
     tmpMap.put(_Fields.INTERNAL_ERROR, new org.apache.thrift.meta_data.FieldMetaData("internal_error", org.apache.thrift.TFieldRequirementType.DEFAULT,
         new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
+    tmpMap.put(_Fields.CONCURRENCY_LIMIT_EXCEEDED, new org.apache.thrift.meta_data.FieldMetaData("concurrency_limit_exceeded", org.apache.thrift.TFieldRequirementType.DEFAULT,
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.BOOL)));
+    tmpMap.put(_Fields.OVERLOADED, new org.apache.thrift.meta_data.FieldMetaData("overloaded", org.apache.thrift.TFieldRequirementType.DEFAULT,
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.BOOL)));
+    tmpMap.put(_Fields.DEADLINE_EXCEEDED, new org.apache.thrift.meta_data.FieldMetaData("deadline_exceeded", org.apache.thrift.TFieldRequirementType.DEFAULT,
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.BOOL)));
     metaDataMap = Collections.unmodifiableMap(tmpMap);
     org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(HankException.class, metaDataMap);
   }
@@ -181,6 +208,24 @@ public class HankException extends org.apache.thrift.TUnion<HankException, HankE
     return x;
   }
 
+  public static HankException concurrency_limit_exceeded(boolean value) {
+    HankException x = new HankException();
+    x.set_concurrency_limit_exceeded(value);
+    return x;
+  }
+
+  public static HankException overloaded(boolean value) {
+    HankException x = new HankException();
+    x.set_overloaded(value);
+    return x;
+  }
+
+  public static HankException deadline_exceeded(boolean value) {
+    HankException x = new HankException();
+    x.set_deadline_exceeded(value);
+    return x;
+  }
+
 
   @Override
   protected void checkType(_Fields setField, Object value) throws ClassCastException {
@@ -215,6 +260,21 @@ public class HankException extends org.apache.thrift.TUnion<HankException, HankE
           break;
         }
         throw new ClassCastException("Was expecting value of type String for field 'internal_error', but got " + value.getClass().getSimpleName());
+      case CONCURRENCY_LIMIT_EXCEEDED:
+        if (value instanceof Boolean) {
+          break;
+        }
+        throw new ClassCastException("Was expecting value of type Boolean for field 'concurrency_limit_exceeded', but got " + value.getClass().getSimpleName());
+      case OVERLOADED:
+        if (value instanceof Boolean) {
+          break;
+        }
+        throw new ClassCastException("Was expecting value of type Boolean for field 'overloaded', but got " + value.getClass().getSimpleName());
+      case DEADLINE_EXCEEDED:
+        if (value instanceof Boolean) {
+          break;
+        }
+        throw new ClassCastException("Was expecting value of type Boolean for field 'deadline_exceeded', but got " + value.getClass().getSimpleName());
       default:
         throw new IllegalArgumentException("Unknown field id " + setField);
     }
@@ -279,6 +339,33 @@ public class HankException extends org.apache.thrift.TUnion<HankException, HankE
             org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
             return null;
           }
+        case CONCURRENCY_LIMIT_EXCEEDED:
+          if (field.type == CONCURRENCY_LIMIT_EXCEEDED_FIELD_DESC.type) {
+            Boolean concurrency_limit_exceeded;
+            concurrency_limit_exceeded = iprot.readBool();
+            return concurrency_limit_exceeded;
+          } else {
+            org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            return null;
+          }
+        case OVERLOADED:
+          if (field.type == OVERLOADED_FIELD_DESC.type) {
+            Boolean overloaded;
+            overloaded = iprot.readBool();
+            return overloaded;
+          } else {
+            org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            return null;
+          }
+        case DEADLINE_EXCEEDED:
+          if (field.type == DEADLINE_EXCEEDED_FIELD_DESC.type) {
+            Boolean deadline_exceeded;
+            deadline_exceeded = iprot.readBool();
+            return deadline_exceeded;
+          } else {
+            org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            return null;
+          }
         default:
           throw new IllegalStateException("setField wasn't null, but didn't match any of the case statements!");
       }
@@ -314,6 +401,18 @@ public class HankException extends org.apache.thrift.TUnion<HankException, HankE
         String internal_error = (String)value_;
         oprot.writeString(internal_error);
         return;
+      case CONCURRENCY_LIMIT_EXCEEDED:
+        Boolean concurrency_limit_exceeded = (Boolean)value_;
+        oprot.writeBool(concurrency_limit_exceeded);
+        return;
+      case OVERLOADED:
+        Boolean overloaded = (Boolean)value_;
+        oprot.writeBool(overloaded);
+        return;
+      case DEADLINE_EXCEEDED:
+        Boolean deadline_exceeded = (Boolean)value_;
+        oprot.writeBool(deadline_exceeded);
+        return;
       default:
         throw new IllegalStateException("Cannot write union with unknown field " + setField_);
     }
@@ -348,6 +447,18 @@ public class HankException extends org.apache.thrift.TUnion<HankException, HankE
           String internal_error;
           internal_error = iprot.readString();
           return internal_error;
+        case CONCURRENCY_LIMIT_EXCEEDED:
+          Boolean concurrency_limit_exceeded;
+          concurrency_limit_exceeded = iprot.readBool();
+          return concurrency_limit_exceeded;
+        case OVERLOADED:
+          Boolean overloaded;
+          overloaded = iprot.readBool();
+          return overloaded;
+        case DEADLINE_EXCEEDED:
+          Boolean deadline_exceeded;
+          deadline_exceeded = iprot.readBool();
+          return deadline_exceeded;
         default:
           throw new IllegalStateException("setField wasn't null, but didn't match any of the case statements!");
       }
@@ -383,6 +494,18 @@ public class HankException extends org.apache.thrift.TUnion<HankException, HankE
         String internal_error = (String)value_;
         oprot.writeString(internal_error);
         return;
+      case CONCURRENCY_LIMIT_EXCEEDED:
+        Boolean concurrency_limit_exceeded = (Boolean)value_;
+        oprot.writeBool(concurrency_limit_exceeded);
+        return;
+      case OVERLOADED:
+        Boolean overloaded = (Boolean)value_;
+        oprot.writeBool(overloaded);
+        return;
+      case DEADLINE_EXCEEDED:
+        Boolean deadline_exceeded = (Boolean)value_;
+        oprot.writeBool(deadline_exceeded);
+        return;
       default:
         throw new IllegalStateException("Cannot write union with unknown field " + setField_);
     }
@@ -403,6 +526,12 @@ public class HankException extends org.apache.thrift.TUnion<HankException, HankE
         return FAILED_RETRIES_FIELD_DESC;
       case INTERNAL_ERROR:
         return INTERNAL_ERROR_FIELD_DESC;
+      case CONCURRENCY_LIMIT_EXCEEDED:
+        return CONCURRENCY_LIMIT_EXCEEDED_FIELD_DESC;
+      case OVERLOADED:
+        return OVERLOADED_FIELD_DESC;
+      case DEADLINE_EXCEEDED:
+        return DEADLINE_EXCEEDED_FIELD_DESC;
       default:
         throw new IllegalArgumentException("Unknown field id " + setField);
     }
@@ -538,6 +667,63 @@ public class HankException extends org.apache.thrift.TUnion<HankException, HankE
     value_ = value;
   }
 
+  /**
+   * The client is already sending as many concurrent requests to the hosts as allowed
+   */
+  public boolean get_concurrency_limit_exceeded() {
+    if (getSetField() == _Fields.CONCURRENCY_LIMIT_EXCEEDED) {
+      return (Boolean)getFieldValue();
+    } else {
+      throw new RuntimeException("Cannot get field 'concurrency_limit_exceeded' because union is currently set to " + getFieldDesc(getSetField()).name);
+    }
+  }
+
+  /**
+   * The client is already sending as many concurrent requests to the hosts as allowed
+   */
+  public void set_concurrency_limit_exceeded(boolean value) {
+    setField_ = _Fields.CONCURRENCY_LIMIT_EXCEEDED;
+    value_ = value;
+  }
+
+  /**
+   * The host is overloaded and shed the request without executing it
+   */
+  public boolean get_overloaded() {
+    if (getSetField() == _Fields.OVERLOADED) {
+      return (Boolean)getFieldValue();
+    } else {
+      throw new RuntimeException("Cannot get field 'overloaded' because union is currently set to " + getFieldDesc(getSetField()).name);
+    }
+  }
+
+  /**
+   * The host is overloaded and shed the request without executing it
+   */
+  public void set_overloaded(boolean value) {
+    setField_ = _Fields.OVERLOADED;
+    value_ = value;
+  }
+
+  /**
+   * The request was not executed before its deadline
+   */
+  public boolean get_deadline_exceeded() {
+    if (getSetField() == _Fields.DEADLINE_EXCEEDED) {
+      return (Boolean)getFieldValue();
+    } else {
+      throw new RuntimeException("Cannot get field 'deadline_exceeded' because union is currently set to " + getFieldDesc(getSetField()).name);
+    }
+  }
+
+  /**
+   * The request was not executed before its deadline
+   */
+  public void set_deadline_exceeded(boolean value) {
+    setField_ = _Fields.DEADLINE_EXCEEDED;
+    value_ = value;
+  }
+
   public boolean is_set_wrong_host() {
     return setField_ == _Fields.WRONG_HOST;
   }
@@ -568,6 +754,21 @@ public class HankException extends org.apache.thrift.TUnion<HankException, HankE
   }
 
 
+  public boolean is_set_concurrency_limit_exceeded() {
+    return setField_ == _Fields.CONCURRENCY_LIMIT_EXCEEDED;
+  }
+
+
+  public boolean is_set_overloaded() {
+    return setField_ == _Fields.OVERLOADED;
+  }
+
+
+  public boolean is_set_deadline_exceeded() {
+    return setField_ == _Fields.DEADLINE_EXCEEDED;
+  }
+
+
   public boolean equals(Object other) {
     if (other instanceof HankException) {
       return equals((HankException)other);
@@ -36,6 +36,7 @@ public class PartitionMetadata implements org.apache.thrift.TBase<PartitionMetad
 
   private static final org.apache.thrift.protocol.TField NUM_BYTES_FIELD_DESC = new org.apache.thrift.protocol.TField("num_bytes", org.apache.thrift.protocol.TType.I64, (short)1);
   private static final org.apache.thrift.protocol.TField NUM_RECORDS_FIELD_DESC = new org.apache.thrift.protocol.TField("num_records", org.apache.thrift.protocol.TType.I64, (short)2);
+  private static final org.apache.thrift.protocol.TField FILE_CHECKSUMS_FIELD_DESC = new org.apache.thrift.protocol.TField("file_checksums", org.apache.thrift.protocol.TType.MAP, (short)3);
 
   private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
   static {
@@ -45,11 +46,13 @@ public class PartitionMetadata implements org.apache.thrift.TBase<PartitionMetad
 
   public long num_bytes; // required
   public long num_records; // required
+  public Map<String,Long> file_checksums; // optional
 
   /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
   public enum _Fields implements org.apache.thrift.TFieldIdEnum {
     NUM_BYTES((short)1, "num_bytes"),
-    NUM_RECORDS((short)2, "num_records");
+    NUM_RECORDS((short)2, "num_records"),
+    FILE_CHECKSUMS((short)3, "file_checksums");
 
     private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -68,6 +71,8 @@ public class PartitionMetadata implements org.apache.thrift.TBase<PartitionMetad
           return NUM_BYTES;
         case 2: // NUM_RECORDS
           return NUM_RECORDS;
+        case 3: // FILE_CHECKSUMS
+          return FILE_CHECKSUMS;
         default:
           return null;
       }
@@ -111,6 +116,7 @@ public class PartitionMetadata implements org.apache.thrift.TBase<PartitionMetad
   private static final int __NUM_BYTES_ISSET_ID = 0;
   private static final int __NUM_RECORDS_ISSET_ID = 1;
   private byte __isset_bitfield = 0;
+  private _Fields optionals[] = {_Fields.FILE_CHECKSUMS};
   public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
   static {
     Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
@@ -118,6 +124,10 @@ public class PartitionMetadata implements org.apache.thrift.TBase<PartitionMetad
         new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64)));
     tmpMap.put(_Fields.NUM_RECORDS, new org.apache.thrift.meta_data.FieldMetaData("num_records", org.apache.thrift.TFieldRequirementType.REQUIRED, 
         new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64)));
+    tmpMap.put(_Fields.FILE_CHECKSUMS, new org.apache.thrift.meta_data.FieldMetaData("file_checksums", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
+        new org.apache.thrift.meta_data.MapMetaData(org.apache.thrift.protocol.TType.MAP, 
+            new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING), 
+            new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64))));
     metaDataMap = Collections.unmodifiableMap(tmpMap);
     org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(PartitionMetadata.class, metaDataMap);
   }
@@ -143,6 +153,21 @@ public class PartitionMetadata implements org.apache.thrift.TBase<PartitionMetad
     __isset_bitfield = other.__isset_bitfield;
     this.num_bytes = other.num_bytes;
     this.num_records = other.num_records;
+    if (other.is_set_file_checksums()) {
+      Map<String,Long> __this__file_checksums = new HashMap<String,Long>();
+      for (Map.Entry<String, Long> other_element : other.file_checksums.entrySet()) {
+
+        String other_element_key = other_element.getKey();
+        Long other_element_value = other_element.getValue();
+
+        String __this__file_checksums_copy_key = other_element_key;
+
+        Long __this__file_checksums_copy_value = other_element_value;
+
+        __this__file_checksums.put(__this__file_checksums_copy_key, __this__file_checksums_copy_value);
+      }
+      this.file_checksums = __this__file_checksums;
+    }
   }
 
   public PartitionMetadata deepCopy() {
@@ -155,6 +180,7 @@ public class PartitionMetadata implements org.apache.thrift.TBase<PartitionMetad
     this.num_bytes = 0;
     set_num_records_isSet(false);
     this.num_records = 0;
+    this.file_checksums = null;
   }
 
   public long get_num_bytes() {
@@ -203,6 +229,41 @@ public class PartitionMetadata implements org.apache.thrift.TBase<PartitionMetad
     __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __NUM_RECORDS_ISSET_ID, value);
   }
 
+  public int get_file_checksums_size() {
+    return (this.file_checksums == null) ? 0 : this.file_checksums.size();
+  }
+
+  public void put_to_file_checksums(String key, long val) {
+    if (this.file_checksums == null) {
+      this.file_checksums = new HashMap<String,Long>();
+    }
+    this.file_checksums.put(key, val);
+  }
+
+  public Map<String,Long> get_file_checksums() {
+    return this.file_checksums;
+  }
+
+  public PartitionMetadata set_file_checksums(Map<String,Long> file_checksums) {
+    this.file_checksums = file_checksums;
+    return this;
+  }
+
+  public void unset_file_checksums() {
+    this.file_checksums = null;
+  }
+
+  /** Returns true if field file_checksums is set (has been assigned a value) and false otherwise */
+  public boolean is_set_file_checksums() {
+    return this.file_checksums != null;
+  }
+
+  public void set_file_checksums_isSet(boolean value) {
+    if (!value) {
+      this.file_checksums = null;
+    }
+  }
+
   public void setFieldValue(_Fields field, Object value) {
     switch (field) {
     case NUM_BYTES:
@@ -221,6 +282,14 @@ public class PartitionMetadata implements org.apache.thrift.TBase<PartitionMetad
       }
       break;
 
+    case FILE_CHECKSUMS:
+      if (value == null) {
+        unset_file_checksums();
+      } else {
+        set_file_checksums((Map<String,Long>)value);
+      }
+      break;
+
     }
   }
 
@@ -232,6 +301,9 @@ public class PartitionMetadata implements org.apache.thrift.TBase<PartitionMetad
     case NUM_RECORDS:
       return Long.valueOf(get_num_records());
 
+    case FILE_CHECKSUMS:
+      return get_file_checksums();
+
     }
     throw new IllegalStateException();
   }
@@ -247,6 +319,8 @@ public class PartitionMetadata implements org.apache.thrift.TBase<PartitionMetad
       return is_set_num_bytes();
     case NUM_RECORDS:
       return is_set_num_records();
+    case FILE_CHECKSUMS:
+      return is_set_file_checksums();
     }
     throw new IllegalStateException();
   }
@@ -282,6 +356,15 @@ public class PartitionMetadata implements org.apache.thrift.TBase<PartitionMetad
         return false;
     }
 
+    boolean this_present_file_checksums = true && this.is_set_file_checksums();
+    boolean that_present_file_checksums = true && that.is_set_file_checksums();
+    if (this_present_file_checksums || that_present_file_checksums) {
+      if (!(this_present_file_checksums && that_present_file_checksums))
+        return false;
+      if (!this.file_checksums.equals(that.file_checksums))
+        return false;
+    }
+
     return true;
   }
 
@@ -299,6 +382,11 @@ public class PartitionMetadata implements org.apache.thrift.TBase<PartitionMetad
     if (present_num_records)
       builder.append(num_records);
 
+    boolean present_file_checksums = true && (is_set_file_checksums());
+    builder.append(present_file_checksums);
+    if (present_file_checksums)
+      builder.append(file_checksums);
+
     return builder.toHashCode();
   }
 
@@ -330,6 +418,16 @@ public class PartitionMetadata implements org.apache.thrift.TBase<PartitionMetad
         return lastComparison;
       }
     }
+    lastComparison = Boolean.valueOf(is_set_file_checksums()).compareTo(typedOther.is_set_file_checksums());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (is_set_file_checksums()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.file_checksums, typedOther.file_checksums);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
     return 0;
   }
 
@@ -357,6 +455,16 @@ public class PartitionMetadata implements org.apache.thrift.TBase<PartitionMetad
     sb.append("num_records:");
     sb.append(this.num_records);
     first = false;
+    if (is_set_file_checksums()) {
+      if (!first) sb.append(", ");
+      sb.append("file_checksums:");
+      if (this.file_checksums == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.file_checksums);
+      }
+      first = false;
+    }
     sb.append(")");
     return sb.toString();
   }
@@ -420,6 +528,26 @@ public class PartitionMetadata implements org.apache.thrift.TBase<PartitionMetad
               org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
             }
             break;
+          case 3: // FILE_CHECKSUMS
+            if (schemeField.type == org.apache.thrift.protocol.TType.MAP) {
+              {
+                org.apache.thrift.protocol.TMap _map0 = iprot.readMapBegin();
+                struct.file_checksums = new HashMap<String,Long>(2*_map0.size);
+                for (int _i1 = 0; _i1 < _map0.size; ++_i1)
+                {
+                  String _key2; // required
+                  long _val3; // required
+                  _key2 = iprot.readString();
+                  _val3 = iprot.readI64();
+                  struct.file_checksums.put(_key2, _val3);
+                }
+                iprot.readMapEnd();
+              }
+              struct.set_file_checksums_isSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
           default:
             org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
         }
@@ -447,6 +575,21 @@ public class PartitionMetadata implements org.apache.thrift.TBase<PartitionMetad
       oprot.writeFieldBegin(NUM_RECORDS_FIELD_DESC);
       oprot.writeI64(struct.num_records);
       oprot.writeFieldEnd();
+      if (struct.file_checksums != null) {
+        if (struct.is_set_file_checksums()) {
+          oprot.writeFieldBegin(FILE_CHECKSUMS_FIELD_DESC);
+          {
+            oprot.writeMapBegin(new org.apache.thrift.protocol.TMap(org.apache.thrift.protocol.TType.STRING, org.apache.thrift.protocol.TType.I64, struct.file_checksums.size()));
+            for (Map.Entry<String, Long> _iter4 : struct.file_checksums.entrySet())
+            {
+              oprot.writeString(_iter4.getKey());
+              oprot.writeI64(_iter4.getValue());
+            }
+            oprot.writeMapEnd();
+          }
+          oprot.writeFieldEnd();
+        }
+      }
       oprot.writeFieldStop();
       oprot.writeStructEnd();
     }
@@ -466,6 +609,21 @@ public class PartitionMetadata implements org.apache.thrift.TBase<PartitionMetad
       TTupleProtocol oprot = (TTupleProtocol) prot;
       oprot.writeI64(struct.num_bytes);
       oprot.writeI64(struct.num_records);
+      BitSet optionals = new BitSet();
+      if (struct.is_set_file_checksums()) {
+        optionals.set(0);
+      }
+      oprot.writeBitSet(optionals, 1);
+      if (struct.is_set_file_checksums()) {
+        {
+          oprot.writeI32(struct.file_checksums.size());
+          for (Map.Entry<String, Long> _iter5 : struct.file_checksums.entrySet())
+          {
+            oprot.writeString(_iter5.getKey());
+            oprot.writeI64(_iter5.getValue());
+          }
+        }
+      }
     }
 
     @Override
@@ -475,6 +633,22 @@ public class PartitionMetadata implements org.apache.thrift.TBase<PartitionMetad
       struct.set_num_bytes_isSet(true);
       struct.num_records = iprot.readI64();
       struct.set_num_records_isSet(true);
+      BitSet incoming = iprot.readBitSet(1);
+      if (incoming.get(0)) {
+        {
+          org.apache.thrift.protocol.TMap _map6 = new org.apache.thrift.protocol.TMap(org.apache.thrift.protocol.TType.STRING, org.apache.thrift.protocol.TType.I64, iprot.readI32());
+          struct.file_checksums = new HashMap<String,Long>(2*_map6.size);
+          for (int _i7 = 0; _i7 < _map6.size; ++_i7)
+          {
+            String _key8; // required
+            long _val9; // required
+            _key8 = iprot.readString();
+            _val9 = iprot.readI64();
+            struct.file_checksums.put(_key8, _val9);
+          }
+        }
+        struct.set_file_checksums_isSet(true);
+      }
     }
   }
 
@@ -39,6 +39,20 @@ public class PartitionServer {
 
     public HankBulkResponse getBulk(int domain_id, List<ByteBuffer> keys) throws org.apache.thrift.TException;
 
+    public HankResponse getWithPartition(int domain_id, ByteBuffer key, int partition) throws org.apache.thrift.TException;
+
+    public HankBulkResponse getMulti(List<DomainKey> domain_keys) throws org.apache.thrift.TException;
+
+    public HankBulkChunk getBulkStream(int domain_id, List<ByteBuffer> keys) throws org.apache.thrift.TException;
+
+    public HankBulkChunk getBulkStreamNext(long stream_id) throws org.apache.thrift.TException;
+
+    public String negotiateResponseCompression(List<String> codecs) throws org.apache.thrift.TException;
+
+    public HankBulkResponse getBulkWithTimeout(int domain_id, List<ByteBuffer> keys, int timeout_ms) throws org.apache.thrift.TException;
+
+    public boolean checkPartitioner(int domain_id, String partitioner, int num_partitions) throws org.apache.thrift.TException;
+
   }
 
   public interface AsyncIface {
@@ -47,6 +61,20 @@ public class PartitionServer {
 
     public void getBulk(int domain_id, List<ByteBuffer> keys, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.getBulk_call> resultHandler) throws org.apache.thrift.TException;
 
+    public void getWithPartition(int domain_id, ByteBuffer key, int partition, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.getWithPartition_call> resultHandler) throws org.apache.thrift.TException;
+
+    public void getMulti(List<DomainKey> domain_keys, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.getMulti_call> resultHandler) throws org.apache.thrift.TException;
+
+    public void getBulkStream(int domain_id, List<ByteBuffer> keys, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.getBulkStream_call> resultHandler) throws org.apache.thrift.TException;
+
+    public void getBulkStreamNext(long stream_id, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.getBulkStreamNext_call> resultHandler) throws org.apache.thrift.TException;
+
+    public void negotiateResponseCompression(List<String> codecs, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.negotiateResponseCompression_call> resultHandler) throws org.apache.thrift.TException;
+
+    public void getBulkWithTimeout(int domain_id, List<ByteBuffer> keys, int timeout_ms, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.getBulkWithTimeout_call> resultHandler) throws org.apache.thrift.TException;
+
+    public void checkPartitioner(int domain_id, String partitioner, int num_partitions, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.checkPartitioner_call> resultHandler) throws org.apache.thrift.TException;
+
   }
 
   public static class Client extends org.apache.thrift.TServiceClient implements Iface {
@@ -117,6 +145,174 @@ public class PartitionServer {
       throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "getBulk failed: unknown result");
     }
 
+    public HankResponse getWithPartition(int domain_id, ByteBuffer key, int partition) throws org.apache.thrift.TException
+    {
+      send_getWithPartition(domain_id, key, partition);
+      return recv_getWithPartition();
+    }
+
+    public void send_getWithPartition(int domain_id, ByteBuffer key, int partition) throws org.apache.thrift.TException
+    {
+      getWithPartition_args args = new getWithPartition_args();
+      args.set_domain_id(domain_id);
+      args.set_key(key);
+      args.set_partition(partition);
+      sendBase("getWithPartition", args);
+    }
+
+    public HankResponse recv_getWithPartition() throws org.apache.thrift.TException
+    {
+      getWithPartition_result result = new getWithPartition_result();
+      receiveBase(result, "getWithPartition");
+      if (result.is_set_success()) {
+        return result.success;
+      }
+      throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "getWithPartition failed: unknown result");
+    }
+
+    public HankBulkResponse getMulti(List<DomainKey> domain_keys) throws org.apache.thrift.TException
+    {
+      send_getMulti(domain_keys);
+      return recv_getMulti();
+    }
+
+    public void send_getMulti(List<DomainKey> domain_keys) throws org.apache.thrift.TException
+    {
+      getMulti_args args = new getMulti_args();
+      args.set_domain_keys(domain_keys);
+      sendBase("getMulti", args);
+    }
+
+    public HankBulkResponse recv_getMulti() throws org.apache.thrift.TException
+    {
+      getMulti_result result = new getMulti_result();
+      receiveBase(result, "getMulti");
+      if (result.is_set_success()) {
+        return result.success;
+      }
+      throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "getMulti failed: unknown result");
+    }
+
+    public HankBulkChunk getBulkStream(int domain_id, List<ByteBuffer> keys) throws org.apache.thrift.TException
+    {
+      send_getBulkStream(domain_id, keys);
+      return recv_getBulkStream();
+    }
+
+    public void send_getBulkStream(int domain_id, List<ByteBuffer> keys) throws org.apache.thrift.TException
+    {
+      getBulkStream_args args = new getBulkStream_args();
+      args.set_domain_id(domain_id);
+      args.set_keys(keys);
+      sendBase("getBulkStream", args);
+    }
+
+    public HankBulkChunk recv_getBulkStream() throws org.apache.thrift.TException
+    {
+      getBulkStream_result result = new getBulkStream_result();
+      receiveBase(result, "getBulkStream");
+      if (result.is_set_success()) {
+        return result.success;
+      }
+      throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "getBulkStream failed: unknown result");
+    }
+
+    public HankBulkChunk getBulkStreamNext(long stream_id) throws org.apache.thrift.TException
+    {
+      send_getBulkStreamNext(stream_id);
+      return recv_getBulkStreamNext();
+    }
+
+    public void send_getBulkStreamNext(long stream_id) throws org.apache.thrift.TException
+    {
+      getBulkStreamNext_args args = new getBulkStreamNext_args();
+      args.set_stream_id(stream_id);
+      sendBase("getBulkStreamNext", args);
+    }
+
+    public HankBulkChunk recv_getBulkStreamNext() throws org.apache.thrift.TException
+    {
+      getBulkStreamNext_result result = new getBulkStreamNext_result();
+      receiveBase(result, "getBulkStreamNext");
+      if (result.is_set_success()) {
+        return result.success;
+      }
+      throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "getBulkStreamNext failed: unknown result");
+    }
+
+    public String negotiateResponseCompression(List<String> codecs) throws org.apache.thrift.TException
+    {
+      send_negotiateResponseCompression(codecs);
+      return recv_negotiateResponseCompression();
+    }
+
+    public void send_negotiateResponseCompression(List<String> codecs) throws org.apache.thrift.TException
+    {
+      negotiateResponseCompression_args args = new negotiateResponseCompression_args();
+      args.set_codecs(codecs);
+      sendBase("negotiateResponseCompression", args);
+    }
+
+    public String recv_negotiateResponseCompression() throws org.apache.thrift.TException
+    {
+      negotiateResponseCompression_result result = new negotiateResponseCompression_result();
+      receiveBase(result, "negotiateResponseCompression");
+      if (result.is_set_success()) {
+        return result.success;
+      }
+      throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "negotiateResponseCompression failed: unknown result");
+    }
+
+    public HankBulkResponse getBulkWithTimeout(int domain_id, List<ByteBuffer> keys, int timeout_ms) throws org.apache.thrift.TException
+    {
+      send_getBulkWithTimeout(domain_id, keys, timeout_ms);
+      return recv_getBulkWithTimeout();
+    }
+
+    public void send_getBulkWithTimeout(int domain_id, List<ByteBuffer> keys, int timeout_ms) throws org.apache.thrift.TException
+    {
+      getBulkWithTimeout_args args = new getBulkWithTimeout_args();
+      args.set_domain_id(domain_id);
+      args.set_keys(keys);
+      args.set_timeout_ms(timeout_ms);
+      sendBase("getBulkWithTimeout", args);
+    }
+
+    public HankBulkResponse recv_getBulkWithTimeout() throws org.apache.thrift.TException
+    {
+      getBulkWithTimeout_result result = new getBulkWithTimeout_result();
+      receiveBase(result, "getBulkWithTimeout");
+      if (result.is_set_success()) {
+        return result.success;
+      }
+      throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "getBulkWithTimeout failed: unknown result");
+    }
+
+    public boolean checkPartitioner(int domain_id, String partitioner, int num_partitions) throws org.apache.thrift.TException
+    {
+      send_checkPartitioner(domain_id, partitioner, num_partitions);
+      return recv_checkPartitioner();
+    }
+
+    public void send_checkPartitioner(int domain_id, String partitioner, int num_partitions) throws org.apache.thrift.TException
+    {
+      checkPartitioner_args args = new checkPartitioner_args();
+      args.set_domain_id(domain_id);
+      args.set_partitioner(partitioner);
+      args.set_num_partitions(num_partitions);
+      sendBase("checkPartitioner", args);
+    }
+
+    public boolean recv_checkPartitioner() throws org.apache.thrift.TException
+    {
+      checkPartitioner_result result = new checkPartitioner_result();
+      receiveBase(result, "checkPartitioner");
+      if (result.is_set_success()) {
+        return result.success;
+      }
+      throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "checkPartitioner failed: unknown result");
+    }
+
   }
   public static class AsyncClient extends org.apache.thrift.async.TAsyncClient implements AsyncIface {
     public static class Factory implements org.apache.thrift.async.TAsyncClientFactory<AsyncClient> {
@@ -205,85 +401,6292 @@ public class PartitionServer {
       }
     }
 
-  }
+    public void getWithPartition(int domain_id, ByteBuffer key, int partition, org.apache.thrift.async.AsyncMethodCallback<getWithPartition_call> resultHandler) throws org.apache.thrift.TException {
+      checkReady();
+      getWithPartition_call method_call = new getWithPartition_call(domain_id, key, partition, resultHandler, this, ___protocolFactory, ___transport);
+      this.___currentMethod = method_call;
+      ___manager.call(method_call);
+    }
 
-  public static class Processor<I extends Iface> extends org.apache.thrift.TBaseProcessor<I> implements org.apache.thrift.TProcessor {
-    private static final Logger LOGGER = LoggerFactory.getLogger(Processor.class.getName());
-    public Processor(I iface) {
-      super(iface, getProcessMap(new HashMap<String, org.apache.thrift.ProcessFunction<I, ? extends org.apache.thrift.TBase>>()));
+    public static class getWithPartition_call extends org.apache.thrift.async.TAsyncMethodCall {
+      private int domain_id;
+      private ByteBuffer key;
+      private int partition;
+      public getWithPartition_call(int domain_id, ByteBuffer key, int partition, org.apache.thrift.async.AsyncMethodCallback<getWithPartition_call> resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+        super(client, protocolFactory, transport, resultHandler, false);
+        this.domain_id = domain_id;
+        this.key = key;
+        this.partition = partition;
+      }
+
+      public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
+        prot.writeMessageBegin(new org.apache.thrift.protocol.TMessage("getWithPartition", org.apache.thrift.protocol.TMessageType.CALL, 0));
+        getWithPartition_args args = new getWithPartition_args();
+        args.set_domain_id(domain_id);
+        args.set_key(key);
+        args.set_partition(partition);
+        args.write(prot);
+        prot.writeMessageEnd();
+      }
+
+      public HankResponse getResult() throws org.apache.thrift.TException {
+        if (getState() != org.apache.thrift.async.TAsyncMethodCall.State.RESPONSE_READ) {
+          throw new IllegalStateException("Method call not finished!");
+        }
+        org.apache.thrift.transport.TMemoryInputTransport memoryTransport = new org.apache.thrift.transport.TMemoryInputTransport(getFrameBuffer().array());
+        org.apache.thrift.protocol.TProtocol prot = client.getProtocolFactory().getProtocol(memoryTransport);
+        return (new Client(prot)).recv_getWithPartition();
+      }
     }
 
-    protected Processor(I iface, Map<String,  org.apache.thrift.ProcessFunction<I, ? extends  org.apache.thrift.TBase>> processMap) {
-      super(iface, getProcessMap(processMap));
+    public void getMulti(List<DomainKey> domain_keys, org.apache.thrift.async.AsyncMethodCallback<getMulti_call> resultHandler) throws org.apache.thrift.TException {
+      checkReady();
+      getMulti_call method_call = new getMulti_call(domain_keys, resultHandler, this, ___protocolFactory, ___transport);
+      this.___currentMethod = method_call;
+      ___manager.call(method_call);
     }
 
-    private static <I extends Iface> Map<String,  org.apache.thrift.ProcessFunction<I, ? extends  org.apache.thrift.TBase>> getProcessMap(Map<String,  org.apache.thrift.ProcessFunction<I, ? extends  org.apache.thrift.TBase>> processMap) {
-      processMap.put("get", new get());
-      processMap.put("getBulk", new getBulk());
-      return processMap;
+    public static class getMulti_call extends org.apache.thrift.async.TAsyncMethodCall {
+      private List<DomainKey> domain_keys;
+      public getMulti_call(List<DomainKey> domain_keys, org.apache.thrift.async.AsyncMethodCallback<getMulti_call> resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+        super(client, protocolFactory, transport, resultHandler, false);
+        this.domain_keys = domain_keys;
+      }
+
+      public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
+        prot.writeMessageBegin(new org.apache.thrift.protocol.TMessage("getMulti", org.apache.thrift.protocol.TMessageType.CALL, 0));
+        getMulti_args args = new getMulti_args();
+        args.set_domain_keys(domain_keys);
+        args.write(prot);
+        prot.writeMessageEnd();
+      }
+
+      public HankBulkResponse getResult() throws org.apache.thrift.TException {
+        if (getState() != org.apache.thrift.async.TAsyncMethodCall.State.RESPONSE_READ) {
+          throw new IllegalStateException("Method call not finished!");
+        }
+        org.apache.thrift.transport.TMemoryInputTransport memoryTransport = new org.apache.thrift.transport.TMemoryInputTransport(getFrameBuffer().array());
+        org.apache.thrift.protocol.TProtocol prot = client.getProtocolFactory().getProtocol(memoryTransport);
+        return (new Client(prot)).recv_getMulti();
+      }
     }
 
-    public static class get<I extends Iface> extends org.apache.thrift.ProcessFunction<I, get_args> {
-      public get() {
-        super("get");
+    public void getBulkStream(int domain_id, List<ByteBuffer> keys, org.apache.thrift.async.AsyncMethodCallback<getBulkStream_call> resultHandler) throws org.apache.thrift.TException {
+      checkReady();
+      getBulkStream_call method_call = new getBulkStream_call(domain_id, keys, resultHandler, this, ___protocolFactory, ___transport);
+      this.___currentMethod = method_call;
+      ___manager.call(method_call);
+    }
+
+    public static class getBulkStream_call extends org.apache.thrift.async.TAsyncMethodCall {
+      private int domain_id;
+      private List<ByteBuffer> keys;
+      public getBulkStream_call(int domain_id, List<ByteBuffer> keys, org.apache.thrift.async.AsyncMethodCallback<getBulkStream_call> resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+        super(client, protocolFactory, transport, resultHandler, false);
+        this.domain_id = domain_id;
+        this.keys = keys;
       }
 
-      public get_args getEmptyArgsInstance() {
-        return new get_args();
+      public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
+        prot.writeMessageBegin(new org.apache.thrift.protocol.TMessage("getBulkStream", org.apache.thrift.protocol.TMessageType.CALL, 0));
+        getBulkStream_args args = new getBulkStream_args();
+        args.set_domain_id(domain_id);
+        args.set_keys(keys);
+        args.write(prot);
+        prot.writeMessageEnd();
       }
 
-      protected boolean isOneway() {
-        return false;
+      public HankBulkChunk getResult() throws org.apache.thrift.TException {
+        if (getState() != org.apache.thrift.async.TAsyncMethodCall.State.RESPONSE_READ) {
+          throw new IllegalStateException("Method call not finished!");
+        }
+        org.apache.thrift.transport.TMemoryInputTransport memoryTransport = new org.apache.thrift.transport.TMemoryInputTransport(getFrameBuffer().array());
+        org.apache.thrift.protocol.TProtocol prot = client.getProtocolFactory().getProtocol(memoryTransport);
+        return (new Client(prot)).recv_getBulkStream();
       }
+    }
 
-      public get_result getResult(I iface, get_args args) throws org.apache.thrift.TException {
-        get_result result = new get_result();
-        result.success = iface.get(args.domain_id, args.key);
-        return result;
+    public void getBulkStreamNext(long stream_id, org.apache.thrift.async.AsyncMethodCallback<getBulkStreamNext_call> resultHandler) throws org.apache.thrift.TException {
+      checkReady();
+      getBulkStreamNext_call method_call = new getBulkStreamNext_call(stream_id, resultHandler, this, ___protocolFactory, ___transport);
+      this.___currentMethod = method_call;
+      ___manager.call(method_call);
+    }
+
+    public static class getBulkStreamNext_call extends org.apache.thrift.async.TAsyncMethodCall {
+      private long stream_id;
+      public getBulkStreamNext_call(long stream_id, org.apache.thrift.async.AsyncMethodCallback<getBulkStreamNext_call> resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+        super(client, protocolFactory, transport, resultHandler, false);
+        this.stream_id = stream_id;
+      }
+
+      public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
+        prot.writeMessageBegin(new org.apache.thrift.protocol.TMessage("getBulkStreamNext", org.apache.thrift.protocol.TMessageType.CALL, 0));
+        getBulkStreamNext_args args = new getBulkStreamNext_args();
+        args.set_stream_id(stream_id);
+        args.write(prot);
+        prot.writeMessageEnd();
+      }
+
+      public HankBulkChunk getResult() throws org.apache.thrift.TException {
+        if (getState() != org.apache.thrift.async.TAsyncMethodCall.State.RESPONSE_READ) {
+          throw new IllegalStateException("Method call not finished!");
+        }
+        org.apache.thrift.transport.TMemoryInputTransport memoryTransport = new org.apache.thrift.transport.TMemoryInputTransport(getFrameBuffer().array());
+        org.apache.thrift.protocol.TProtocol prot = client.getProtocolFactory().getProtocol(memoryTransport);
+        return (new Client(prot)).recv_getBulkStreamNext();
       }
     }
 
-    public static class getBulk<I extends Iface> extends org.apache.thrift.ProcessFunction<I, getBulk_args> {
-      public getBulk() {
-        super("getBulk");
+    public void negotiateResponseCompression(List<String> codecs, org.apache.thrift.async.AsyncMethodCallback<negotiateResponseCompression_call> resultHandler) throws org.apache.thrift.TException {
+      checkReady();
+      negotiateResponseCompression_call method_call = new negotiateResponseCompression_call(codecs, resultHandler, this, ___protocolFactory, ___transport);
+      this.___currentMethod = method_call;
+      ___manager.call(method_call);
+    }
+
+    public static class negotiateResponseCompression_call extends org.apache.thrift.async.TAsyncMethodCall {
+      private List<String> codecs;
+      public negotiateResponseCompression_call(List<String> codecs, org.apache.thrift.async.AsyncMethodCallback<negotiateResponseCompression_call> resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+        super(client, protocolFactory, transport, resultHandler, false);
+        this.codecs = codecs;
       }
 
-      public getBulk_args getEmptyArgsInstance() {
-        return new getBulk_args();
+      public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
+        prot.writeMessageBegin(new org.apache.thrift.protocol.TMessage("negotiateResponseCompression", org.apache.thrift.protocol.TMessageType.CALL, 0));
+        negotiateResponseCompression_args args = new negotiateResponseCompression_args();
+        args.set_codecs(codecs);
+        args.write(prot);
+        prot.writeMessageEnd();
       }
 
-      protected boolean isOneway() {
-        return false;
+      public String getResult() throws org.apache.thrift.TException {
+        if (getState() != org.apache.thrift.async.TAsyncMethodCall.State.RESPONSE_READ) {
+          throw new IllegalStateException("Method call not finished!");
+        }
+        org.apache.thrift.transport.TMemoryInputTransport memoryTransport = new org.apache.thrift.transport.TMemoryInputTransport(getFrameBuffer().array());
+        org.apache.thrift.protocol.TProtocol prot = client.getProtocolFactory().getProtocol(memoryTransport);
+        return (new Client(prot)).recv_negotiateResponseCompression();
       }
+    }
 
-      public getBulk_result getResult(I iface, getBulk_args args) throws org.apache.thrift.TException {
-        getBulk_result result = new getBulk_result();
-        result.success = iface.getBulk(args.domain_id, args.keys);
-        return result;
+    public void getBulkWithTimeout(int domain_id, List<ByteBuffer> keys, int timeout_ms, org.apache.thrift.async.AsyncMethodCallback<getBulkWithTimeout_call> resultHandler) throws org.apache.thrift.TException {
+      checkReady();
+      getBulkWithTimeout_call method_call = new getBulkWithTimeout_call(domain_id, keys, timeout_ms, resultHandler, this, ___protocolFactory, ___transport);
+      this.___currentMethod = method_call;
+      ___manager.call(method_call);
+    }
+
+    public static class getBulkWithTimeout_call extends org.apache.thrift.async.TAsyncMethodCall {
+      private int domain_id;
+      private List<ByteBuffer> keys;
+      private int timeout_ms;
+      public getBulkWithTimeout_call(int domain_id, List<ByteBuffer> keys, int timeout_ms, org.apache.thrift.async.AsyncMethodCallback<getBulkWithTimeout_call> resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+        super(client, protocolFactory, transport, resultHandler, false);
+        this.domain_id = domain_id;
+        this.keys = keys;
+        this.timeout_ms = timeout_ms;
+      }
+
+      public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
+        prot.writeMessageBegin(new org.apache.thrift.protocol.TMessage("getBulkWithTimeout", org.apache.thrift.protocol.TMessageType.CALL, 0));
+        getBulkWithTimeout_args args = new getBulkWithTimeout_args();
+        args.set_domain_id(domain_id);
+        args.set_keys(keys);
+        args.set_timeout_ms(timeout_ms);
+        args.write(prot);
+        prot.writeMessageEnd();
+      }
+
+      public HankBulkResponse getResult() throws org.apache.thrift.TException {
+        if (getState() != org.apache.thrift.async.TAsyncMethodCall.State.RESPONSE_READ) {
+          throw new IllegalStateException("Method call not finished!");
+        }
+        org.apache.thrift.transport.TMemoryInputTransport memoryTransport = new org.apache.thrift.transport.TMemoryInputTransport(getFrameBuffer().array());
+        org.apache.thrift.protocol.TProtocol prot = client.getProtocolFactory().getProtocol(memoryTransport);
+        return (new Client(prot)).recv_getBulkWithTimeout();
+      }
+    }
+
+    public void checkPartitioner(int domain_id, String partitioner, int num_partitions, org.apache.thrift.async.AsyncMethodCallback<checkPartitioner_call> resultHandler) throws org.apache.thrift.TException {
+      checkReady();
+      checkPartitioner_call method_call = new checkPartitioner_call(domain_id, partitioner, num_partitions, resultHandler, this, ___protocolFactory, ___transport);
+      this.___currentMethod = method_call;
+      ___manager.call(method_call);
+    }
+
+    public static class checkPartitioner_call extends org.apache.thrift.async.TAsyncMethodCall {
+      private int domain_id;
+      private String partitioner;
+      private int num_partitions;
+      public checkPartitioner_call(int domain_id, String partitioner, int num_partitions, org.apache.thrift.async.AsyncMethodCallback<checkPartitioner_call> resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+        super(client, protocolFactory, transport, resultHandler, false);
+        this.domain_id = domain_id;
+        this.partitioner = partitioner;
+        this.num_partitions = num_partitions;
+      }
+
+      public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
+        prot.writeMessageBegin(new org.apache.thrift.protocol.TMessage("checkPartitioner", org.apache.thrift.protocol.TMessageType.CALL, 0));
+        checkPartitioner_args args = new checkPartitioner_args();
+        args.set_domain_id(domain_id);
+        args.set_partitioner(partitioner);
+        args.set_num_partitions(num_partitions);
+        args.write(prot);
+        prot.writeMessageEnd();
+      }
+
+      public boolean getResult() throws org.apache.thrift.TException {
+        if (getState() != org.apache.thrift.async.TAsyncMethodCall.State.RESPONSE_READ) {
+          throw new IllegalStateException("Method call not finished!");
+        }
+        org.apache.thrift.transport.TMemoryInputTransport memoryTransport = new org.apache.thrift.transport.TMemoryInputTransport(getFrameBuffer().array());
+        org.apache.thrift.protocol.TProtocol prot = client.getProtocolFactory().getProtocol(memoryTransport);
+        return (new Client(prot)).recv_checkPartitioner();
+      }
+    }
+
+  }
+
+  public static class Processor<I extends Iface> extends org.apache.thrift.TBaseProcessor<I> implements org.apache.thrift.TProcessor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Processor.class.getName());
+    public Processor(I iface) {
+      super(iface, getProcessMap(new HashMap<String, org.apache.thrift.ProcessFunction<I, ? extends org.apache.thrift.TBase>>()));
+    }
+
+    protected Processor(I iface, Map<String,  org.apache.thrift.ProcessFunction<I, ? extends  org.apache.thrift.TBase>> processMap) {
+      super(iface, getProcessMap(processMap));
+    }
+
+    private static <I extends Iface> Map<String,  org.apache.thrift.ProcessFunction<I, ? extends  org.apache.thrift.TBase>> getProcessMap(Map<String,  org.apache.thrift.ProcessFunction<I, ? extends  org.apache.thrift.TBase>> processMap) {
+      processMap.put("get", new get());
+      processMap.put("getBulk", new getBulk());
+      processMap.put("getWithPartition", new getWithPartition());
+      processMap.put("getMulti", new getMulti());
+      processMap.put("getBulkStream", new getBulkStream());
+      processMap.put("getBulkStreamNext", new getBulkStreamNext());
+      processMap.put("negotiateResponseCompression", new negotiateResponseCompression());
+      processMap.put("getBulkWithTimeout", new getBulkWithTimeout());
+      processMap.put("checkPartitioner", new checkPartitioner());
+      return processMap;
+    }
+
+    public static class get<I extends Iface> extends org.apache.thrift.ProcessFunction<I, get_args> {
+      public get() {
+        super("get");
+      }
+
+      public get_args getEmptyArgsInstance() {
+        return new get_args();
+      }
+
+      protected boolean isOneway() {
+        return false;
+      }
+
+      public get_result getResult(I iface, get_args args) throws org.apache.thrift.TException {
+        get_result result = new get_result();
+        result.success = iface.get(args.domain_id, args.key);
+        return result;
+      }
+    }
+
+    public static class getBulk<I extends Iface> extends org.apache.thrift.ProcessFunction<I, getBulk_args> {
+      public getBulk() {
+        super("getBulk");
+      }
+
+      public getBulk_args getEmptyArgsInstance() {
+        return new getBulk_args();
+      }
+
+      protected boolean isOneway() {
+        return false;
+      }
+
+      public getBulk_result getResult(I iface, getBulk_args args) throws org.apache.thrift.TException {
+        getBulk_result result = new getBulk_result();
+        result.success = iface.getBulk(args.domain_id, args.keys);
+        return result;
+      }
+    }
+
+    public static class getWithPartition<I extends Iface> extends org.apache.thrift.ProcessFunction<I, getWithPartition_args> {
+      public getWithPartition() {
+        super("getWithPartition");
+      }
+
+      public getWithPartition_args getEmptyArgsInstance() {
+        return new getWithPartition_args();
+      }
+
+      protected boolean isOneway() {
+        return false;
+      }
+
+      public getWithPartition_result getResult(I iface, getWithPartition_args args) throws org.apache.thrift.TException {
+        getWithPartition_result result = new getWithPartition_result();
+        result.success = iface.getWithPartition(args.domain_id, args.key, args.partition);
+        return result;
+      }
+    }
+
+    public static class getMulti<I extends Iface> extends org.apache.thrift.ProcessFunction<I, getMulti_args> {
+      public getMulti() {
+        super("getMulti");
+      }
+
+      public getMulti_args getEmptyArgsInstance() {
+        return new getMulti_args();
+      }
+
+      protected boolean isOneway() {
+        return false;
+      }
+
+      public getMulti_result getResult(I iface, getMulti_args args) throws org.apache.thrift.TException {
+        getMulti_result result = new getMulti_result();
+        result.success = iface.getMulti(args.domain_keys);
+        return result;
+      }
+    }
+
+    public static class getBulkStream<I extends Iface> extends org.apache.thrift.ProcessFunction<I, getBulkStream_args> {
+      public getBulkStream() {
+        super("getBulkStream");
+      }
+
+      public getBulkStream_args getEmptyArgsInstance() {
+        return new getBulkStream_args();
+      }
+
+      protected boolean isOneway() {
+        return false;
+      }
+
+      public getBulkStream_result getResult(I iface, getBulkStream_args args) throws org.apache.thrift.TException {
+        getBulkStream_result result = new getBulkStream_result();
+        result.success = iface.getBulkStream(args.domain_id, args.keys);
+        return result;
+      }
+    }
+
+    public static class getBulkStreamNext<I extends Iface> extends org.apache.thrift.ProcessFunction<I, getBulkStreamNext_args> {
+      public getBulkStreamNext() {
+        super("getBulkStreamNext");
+      }
+
+      public getBulkStreamNext_args getEmptyArgsInstance() {
+        return new getBulkStreamNext_args();
+      }
+
+      protected boolean isOneway() {
+        return false;
+      }
+
+      public getBulkStreamNext_result getResult(I iface, getBulkStreamNext_args args) throws org.apache.thrift.TException {
+        getBulkStreamNext_result result = new getBulkStreamNext_result();
+        result.success = iface.getBulkStreamNext(args.stream_id);
+        return result;
+      }
+    }
+
+    public static class negotiateResponseCompression<I extends Iface> extends org.apache.thrift.ProcessFunction<I, negotiateResponseCompression_args> {
+      public negotiateResponseCompression() {
+        super("negotiateResponseCompression");
+      }
+
+      public negotiateResponseCompression_args getEmptyArgsInstance() {
+        return new negotiateResponseCompression_args();
+      }
+
+      protected boolean isOneway() {
+        return false;
+      }
+
+      public negotiateResponseCompression_result getResult(I iface, negotiateResponseCompression_args args) throws org.apache.thrift.TException {
+        negotiateResponseCompression_result result = new negotiateResponseCompression_result();
+        result.success = iface.negotiateResponseCompression(args.codecs);
+        return result;
+      }
+    }
+
+    public static class getBulkWithTimeout<I extends Iface> extends org.apache.thrift.ProcessFunction<I, getBulkWithTimeout_args> {
+      public getBulkWithTimeout() {
+        super("getBulkWithTimeout");
+      }
+
+      public getBulkWithTimeout_args getEmptyArgsInstance() {
+        return new getBulkWithTimeout_args();
+      }
+
+      protected boolean isOneway() {
+        return false;
+      }
+
+      public getBulkWithTimeout_result getResult(I iface, getBulkWithTimeout_args args) throws org.apache.thrift.TException {
+        getBulkWithTimeout_result result = new getBulkWithTimeout_result();
+        result.success = iface.getBulkWithTimeout(args.domain_id, args.keys, args.timeout_ms);
+        return result;
+      }
+    }
+
+    public static class checkPartitioner<I extends Iface> extends org.apache.thrift.ProcessFunction<I, checkPartitioner_args> {
+      public checkPartitioner() {
+        super("checkPartitioner");
+      }
+
+      public checkPartitioner_args getEmptyArgsInstance() {
+        return new checkPartitioner_args();
+      }
+
+      protected boolean isOneway() {
+        return false;
+      }
+
+      public checkPartitioner_result getResult(I iface, checkPartitioner_args args) throws org.apache.thrift.TException {
+        checkPartitioner_result result = new checkPartitioner_result();
+        result.success = iface.checkPartitioner(args.domain_id, args.partitioner, args.num_partitions);
+        result.set_success_isSet(true);
+        return result;
+      }
+    }
+
+  }
+
+  public static class get_args implements org.apache.thrift.TBase<get_args, get_args._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("get_args");
+
+    private static final org.apache.thrift.protocol.TField DOMAIN_ID_FIELD_DESC = new org.apache.thrift.protocol.TField("domain_id", org.apache.thrift.protocol.TType.I32, (short)1);
+    private static final org.apache.thrift.protocol.TField KEY_FIELD_DESC = new org.apache.thrift.protocol.TField("key", org.apache.thrift.protocol.TType.STRING, (short)2);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new get_argsStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new get_argsTupleSchemeFactory());
+    }
+
+    public int domain_id; // required
+    public ByteBuffer key; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      DOMAIN_ID((short)1, "domain_id"),
+      KEY((short)2, "key");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 1: // DOMAIN_ID
+            return DOMAIN_ID;
+          case 2: // KEY
+            return KEY;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    private static final int __DOMAIN_ID_ISSET_ID = 0;
+    private byte __isset_bitfield = 0;
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.DOMAIN_ID, new org.apache.thrift.meta_data.FieldMetaData("domain_id", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
+      tmpMap.put(_Fields.KEY, new org.apache.thrift.meta_data.FieldMetaData("key", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING          , true)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(get_args.class, metaDataMap);
+    }
+
+    public get_args() {
+    }
+
+    public get_args(
+      int domain_id,
+      ByteBuffer key)
+    {
+      this();
+      this.domain_id = domain_id;
+      set_domain_id_isSet(true);
+      this.key = key;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public get_args(get_args other) {
+      __isset_bitfield = other.__isset_bitfield;
+      this.domain_id = other.domain_id;
+      if (other.is_set_key()) {
+        this.key = org.apache.thrift.TBaseHelper.copyBinary(other.key);
+;
+      }
+    }
+
+    public get_args deepCopy() {
+      return new get_args(this);
+    }
+
+    @Override
+    public void clear() {
+      set_domain_id_isSet(false);
+      this.domain_id = 0;
+      this.key = null;
+    }
+
+    public int get_domain_id() {
+      return this.domain_id;
+    }
+
+    public get_args set_domain_id(int domain_id) {
+      this.domain_id = domain_id;
+      set_domain_id_isSet(true);
+      return this;
+    }
+
+    public void unset_domain_id() {
+      __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __DOMAIN_ID_ISSET_ID);
+    }
+
+    /** Returns true if field domain_id is set (has been assigned a value) and false otherwise */
+    public boolean is_set_domain_id() {
+      return EncodingUtils.testBit(__isset_bitfield, __DOMAIN_ID_ISSET_ID);
+    }
+
+    public void set_domain_id_isSet(boolean value) {
+      __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __DOMAIN_ID_ISSET_ID, value);
+    }
+
+    public byte[] get_key() {
+      set_key(org.apache.thrift.TBaseHelper.rightSize(key));
+      return key == null ? null : key.array();
+    }
+
+    public ByteBuffer buffer_for_key() {
+      return key;
+    }
+
+    public get_args set_key(byte[] key) {
+      set_key(key == null ? (ByteBuffer)null : ByteBuffer.wrap(key));
+      return this;
+    }
+
+    public get_args set_key(ByteBuffer key) {
+      this.key = key;
+      return this;
+    }
+
+    public void unset_key() {
+      this.key = null;
+    }
+
+    /** Returns true if field key is set (has been assigned a value) and false otherwise */
+    public boolean is_set_key() {
+      return this.key != null;
+    }
+
+    public void set_key_isSet(boolean value) {
+      if (!value) {
+        this.key = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case DOMAIN_ID:
+        if (value == null) {
+          unset_domain_id();
+        } else {
+          set_domain_id((Integer)value);
+        }
+        break;
+
+      case KEY:
+        if (value == null) {
+          unset_key();
+        } else {
+          set_key((ByteBuffer)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case DOMAIN_ID:
+        return Integer.valueOf(get_domain_id());
+
+      case KEY:
+        return get_key();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case DOMAIN_ID:
+        return is_set_domain_id();
+      case KEY:
+        return is_set_key();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof get_args)
+        return this.equals((get_args)that);
+      return false;
+    }
+
+    public boolean equals(get_args that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_domain_id = true;
+      boolean that_present_domain_id = true;
+      if (this_present_domain_id || that_present_domain_id) {
+        if (!(this_present_domain_id && that_present_domain_id))
+          return false;
+        if (this.domain_id != that.domain_id)
+          return false;
+      }
+
+      boolean this_present_key = true && this.is_set_key();
+      boolean that_present_key = true && that.is_set_key();
+      if (this_present_key || that_present_key) {
+        if (!(this_present_key && that_present_key))
+          return false;
+        if (!this.key.equals(that.key))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      HashCodeBuilder builder = new HashCodeBuilder();
+
+      boolean present_domain_id = true;
+      builder.append(present_domain_id);
+      if (present_domain_id)
+        builder.append(domain_id);
+
+      boolean present_key = true && (is_set_key());
+      builder.append(present_key);
+      if (present_key)
+        builder.append(key);
+
+      return builder.toHashCode();
+    }
+
+    public int compareTo(get_args other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      get_args typedOther = (get_args)other;
+
+      lastComparison = Boolean.valueOf(is_set_domain_id()).compareTo(typedOther.is_set_domain_id());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (is_set_domain_id()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.domain_id, typedOther.domain_id);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(is_set_key()).compareTo(typedOther.is_set_key());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (is_set_key()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.key, typedOther.key);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("get_args(");
+      boolean first = true;
+
+      sb.append("domain_id:");
+      sb.append(this.domain_id);
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("key:");
+      if (this.key == null) {
+        sb.append("null");
+      } else {
+        org.apache.thrift.TBaseHelper.toString(this.key, sb);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        // it doesn't seem like you should have to do this, but java serialization is wacky, and doesn't call the default constructor.
+        __isset_bitfield = 0;
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class get_argsStandardSchemeFactory implements SchemeFactory {
+      public get_argsStandardScheme getScheme() {
+        return new get_argsStandardScheme();
+      }
+    }
+
+    private static class get_argsStandardScheme extends StandardScheme<get_args> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, get_args struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 1: // DOMAIN_ID
+              if (schemeField.type == org.apache.thrift.protocol.TType.I32) {
+                struct.domain_id = iprot.readI32();
+                struct.set_domain_id_isSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            case 2: // KEY
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
+                struct.key = iprot.readBinary();
+                struct.set_key_isSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, get_args struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        oprot.writeFieldBegin(DOMAIN_ID_FIELD_DESC);
+        oprot.writeI32(struct.domain_id);
+        oprot.writeFieldEnd();
+        if (struct.key != null) {
+          oprot.writeFieldBegin(KEY_FIELD_DESC);
+          oprot.writeBinary(struct.key);
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class get_argsTupleSchemeFactory implements SchemeFactory {
+      public get_argsTupleScheme getScheme() {
+        return new get_argsTupleScheme();
+      }
+    }
+
+    private static class get_argsTupleScheme extends TupleScheme<get_args> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, get_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.is_set_domain_id()) {
+          optionals.set(0);
+        }
+        if (struct.is_set_key()) {
+          optionals.set(1);
+        }
+        oprot.writeBitSet(optionals, 2);
+        if (struct.is_set_domain_id()) {
+          oprot.writeI32(struct.domain_id);
+        }
+        if (struct.is_set_key()) {
+          oprot.writeBinary(struct.key);
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, get_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(2);
+        if (incoming.get(0)) {
+          struct.domain_id = iprot.readI32();
+          struct.set_domain_id_isSet(true);
+        }
+        if (incoming.get(1)) {
+          struct.key = iprot.readBinary();
+          struct.set_key_isSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class get_result implements org.apache.thrift.TBase<get_result, get_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("get_result");
+
+    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.STRUCT, (short)0);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new get_resultStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new get_resultTupleSchemeFactory());
+    }
+
+    public HankResponse success; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      SUCCESS((short)0, "success");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 0: // SUCCESS
+            return SUCCESS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, HankResponse.class)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(get_result.class, metaDataMap);
+    }
+
+    public get_result() {
+    }
+
+    public get_result(
+      HankResponse success)
+    {
+      this();
+      this.success = success;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public get_result(get_result other) {
+      if (other.is_set_success()) {
+        this.success = new HankResponse(other.success);
+      }
+    }
+
+    public get_result deepCopy() {
+      return new get_result(this);
+    }
+
+    @Override
+    public void clear() {
+      this.success = null;
+    }
+
+    public HankResponse get_success() {
+      return this.success;
+    }
+
+    public get_result set_success(HankResponse success) {
+      this.success = success;
+      return this;
+    }
+
+    public void unset_success() {
+      this.success = null;
+    }
+
+    /** Returns true if field success is set (has been assigned a value) and false otherwise */
+    public boolean is_set_success() {
+      return this.success != null;
+    }
+
+    public void set_success_isSet(boolean value) {
+      if (!value) {
+        this.success = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case SUCCESS:
+        if (value == null) {
+          unset_success();
+        } else {
+          set_success((HankResponse)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case SUCCESS:
+        return get_success();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case SUCCESS:
+        return is_set_success();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof get_result)
+        return this.equals((get_result)that);
+      return false;
+    }
+
+    public boolean equals(get_result that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_success = true && this.is_set_success();
+      boolean that_present_success = true && that.is_set_success();
+      if (this_present_success || that_present_success) {
+        if (!(this_present_success && that_present_success))
+          return false;
+        if (!this.success.equals(that.success))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      HashCodeBuilder builder = new HashCodeBuilder();
+
+      boolean present_success = true && (is_set_success());
+      builder.append(present_success);
+      if (present_success)
+        builder.append(success);
+
+      return builder.toHashCode();
+    }
+
+    public int compareTo(get_result other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      get_result typedOther = (get_result)other;
+
+      lastComparison = Boolean.valueOf(is_set_success()).compareTo(typedOther.is_set_success());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (is_set_success()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.success, typedOther.success);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+      }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("get_result(");
+      boolean first = true;
+
+      sb.append("success:");
+      if (this.success == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.success);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class get_resultStandardSchemeFactory implements SchemeFactory {
+      public get_resultStandardScheme getScheme() {
+        return new get_resultStandardScheme();
+      }
+    }
+
+    private static class get_resultStandardScheme extends StandardScheme<get_result> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, get_result struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 0: // SUCCESS
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRUCT) {
+                struct.success = new HankResponse();
+                struct.success.read(iprot);
+                struct.set_success_isSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, get_result struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.success != null) {
+          oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
+          struct.success.write(oprot);
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class get_resultTupleSchemeFactory implements SchemeFactory {
+      public get_resultTupleScheme getScheme() {
+        return new get_resultTupleScheme();
+      }
+    }
+
+    private static class get_resultTupleScheme extends TupleScheme<get_result> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, get_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.is_set_success()) {
+          optionals.set(0);
+        }
+        oprot.writeBitSet(optionals, 1);
+        if (struct.is_set_success()) {
+          struct.success.write(oprot);
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, get_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(1);
+        if (incoming.get(0)) {
+          struct.success = new HankResponse();
+          struct.success.read(iprot);
+          struct.set_success_isSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class getBulk_args implements org.apache.thrift.TBase<getBulk_args, getBulk_args._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getBulk_args");
+
+    private static final org.apache.thrift.protocol.TField DOMAIN_ID_FIELD_DESC = new org.apache.thrift.protocol.TField("domain_id", org.apache.thrift.protocol.TType.I32, (short)1);
+    private static final org.apache.thrift.protocol.TField KEYS_FIELD_DESC = new org.apache.thrift.protocol.TField("keys", org.apache.thrift.protocol.TType.LIST, (short)2);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new getBulk_argsStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getBulk_argsTupleSchemeFactory());
+    }
+
+    public int domain_id; // required
+    public List<ByteBuffer> keys; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      DOMAIN_ID((short)1, "domain_id"),
+      KEYS((short)2, "keys");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 1: // DOMAIN_ID
+            return DOMAIN_ID;
+          case 2: // KEYS
+            return KEYS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    private static final int __DOMAIN_ID_ISSET_ID = 0;
+    private byte __isset_bitfield = 0;
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.DOMAIN_ID, new org.apache.thrift.meta_data.FieldMetaData("domain_id", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
+      tmpMap.put(_Fields.KEYS, new org.apache.thrift.meta_data.FieldMetaData("keys", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
+              new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING              , true))));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getBulk_args.class, metaDataMap);
+    }
+
+    public getBulk_args() {
+    }
+
+    public getBulk_args(
+      int domain_id,
+      List<ByteBuffer> keys)
+    {
+      this();
+      this.domain_id = domain_id;
+      set_domain_id_isSet(true);
+      this.keys = keys;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public getBulk_args(getBulk_args other) {
+      __isset_bitfield = other.__isset_bitfield;
+      this.domain_id = other.domain_id;
+      if (other.is_set_keys()) {
+        List<ByteBuffer> __this__keys = new ArrayList<ByteBuffer>();
+        for (ByteBuffer other_element : other.keys) {
+          ByteBuffer temp_binary_element = org.apache.thrift.TBaseHelper.copyBinary(other_element);
+;
+          __this__keys.add(temp_binary_element);
+        }
+        this.keys = __this__keys;
+      }
+    }
+
+    public getBulk_args deepCopy() {
+      return new getBulk_args(this);
+    }
+
+    @Override
+    public void clear() {
+      set_domain_id_isSet(false);
+      this.domain_id = 0;
+      this.keys = null;
+    }
+
+    public int get_domain_id() {
+      return this.domain_id;
+    }
+
+    public getBulk_args set_domain_id(int domain_id) {
+      this.domain_id = domain_id;
+      set_domain_id_isSet(true);
+      return this;
+    }
+
+    public void unset_domain_id() {
+      __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __DOMAIN_ID_ISSET_ID);
+    }
+
+    /** Returns true if field domain_id is set (has been assigned a value) and false otherwise */
+    public boolean is_set_domain_id() {
+      return EncodingUtils.testBit(__isset_bitfield, __DOMAIN_ID_ISSET_ID);
+    }
+
+    public void set_domain_id_isSet(boolean value) {
+      __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __DOMAIN_ID_ISSET_ID, value);
+    }
+
+    public int get_keys_size() {
+      return (this.keys == null) ? 0 : this.keys.size();
+    }
+
+    public java.util.Iterator<ByteBuffer> get_keys_iterator() {
+      return (this.keys == null) ? null : this.keys.iterator();
+    }
+
+    public void add_to_keys(ByteBuffer elem) {
+      if (this.keys == null) {
+        this.keys = new ArrayList<ByteBuffer>();
+      }
+      this.keys.add(elem);
+    }
+
+    public List<ByteBuffer> get_keys() {
+      return this.keys;
+    }
+
+    public getBulk_args set_keys(List<ByteBuffer> keys) {
+      this.keys = keys;
+      return this;
+    }
+
+    public void unset_keys() {
+      this.keys = null;
+    }
+
+    /** Returns true if field keys is set (has been assigned a value) and false otherwise */
+    public boolean is_set_keys() {
+      return this.keys != null;
+    }
+
+    public void set_keys_isSet(boolean value) {
+      if (!value) {
+        this.keys = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case DOMAIN_ID:
+        if (value == null) {
+          unset_domain_id();
+        } else {
+          set_domain_id((Integer)value);
+        }
+        break;
+
+      case KEYS:
+        if (value == null) {
+          unset_keys();
+        } else {
+          set_keys((List<ByteBuffer>)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case DOMAIN_ID:
+        return Integer.valueOf(get_domain_id());
+
+      case KEYS:
+        return get_keys();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case DOMAIN_ID:
+        return is_set_domain_id();
+      case KEYS:
+        return is_set_keys();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof getBulk_args)
+        return this.equals((getBulk_args)that);
+      return false;
+    }
+
+    public boolean equals(getBulk_args that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_domain_id = true;
+      boolean that_present_domain_id = true;
+      if (this_present_domain_id || that_present_domain_id) {
+        if (!(this_present_domain_id && that_present_domain_id))
+          return false;
+        if (this.domain_id != that.domain_id)
+          return false;
+      }
+
+      boolean this_present_keys = true && this.is_set_keys();
+      boolean that_present_keys = true && that.is_set_keys();
+      if (this_present_keys || that_present_keys) {
+        if (!(this_present_keys && that_present_keys))
+          return false;
+        if (!this.keys.equals(that.keys))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      HashCodeBuilder builder = new HashCodeBuilder();
+
+      boolean present_domain_id = true;
+      builder.append(present_domain_id);
+      if (present_domain_id)
+        builder.append(domain_id);
+
+      boolean present_keys = true && (is_set_keys());
+      builder.append(present_keys);
+      if (present_keys)
+        builder.append(keys);
+
+      return builder.toHashCode();
+    }
+
+    public int compareTo(getBulk_args other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      getBulk_args typedOther = (getBulk_args)other;
+
+      lastComparison = Boolean.valueOf(is_set_domain_id()).compareTo(typedOther.is_set_domain_id());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (is_set_domain_id()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.domain_id, typedOther.domain_id);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(is_set_keys()).compareTo(typedOther.is_set_keys());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (is_set_keys()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.keys, typedOther.keys);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("getBulk_args(");
+      boolean first = true;
+
+      sb.append("domain_id:");
+      sb.append(this.domain_id);
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("keys:");
+      if (this.keys == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.keys);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        // it doesn't seem like you should have to do this, but java serialization is wacky, and doesn't call the default constructor.
+        __isset_bitfield = 0;
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class getBulk_argsStandardSchemeFactory implements SchemeFactory {
+      public getBulk_argsStandardScheme getScheme() {
+        return new getBulk_argsStandardScheme();
+      }
+    }
+
+    private static class getBulk_argsStandardScheme extends StandardScheme<getBulk_args> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getBulk_args struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 1: // DOMAIN_ID
+              if (schemeField.type == org.apache.thrift.protocol.TType.I32) {
+                struct.domain_id = iprot.readI32();
+                struct.set_domain_id_isSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            case 2: // KEYS
+              if (schemeField.type == org.apache.thrift.protocol.TType.LIST) {
+                {
+                  org.apache.thrift.protocol.TList _list58 = iprot.readListBegin();
+                  struct.keys = new ArrayList<ByteBuffer>(_list58.size);
+                  for (int _i59 = 0; _i59 < _list58.size; ++_i59)
+                  {
+                    ByteBuffer _elem60; // optional
+                    _elem60 = iprot.readBinary();
+                    struct.keys.add(_elem60);
+                  }
+                  iprot.readListEnd();
+                }
+                struct.set_keys_isSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getBulk_args struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        oprot.writeFieldBegin(DOMAIN_ID_FIELD_DESC);
+        oprot.writeI32(struct.domain_id);
+        oprot.writeFieldEnd();
+        if (struct.keys != null) {
+          oprot.writeFieldBegin(KEYS_FIELD_DESC);
+          {
+            oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRING, struct.keys.size()));
+            for (ByteBuffer _iter61 : struct.keys)
+            {
+              oprot.writeBinary(_iter61);
+            }
+            oprot.writeListEnd();
+          }
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class getBulk_argsTupleSchemeFactory implements SchemeFactory {
+      public getBulk_argsTupleScheme getScheme() {
+        return new getBulk_argsTupleScheme();
+      }
+    }
+
+    private static class getBulk_argsTupleScheme extends TupleScheme<getBulk_args> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, getBulk_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.is_set_domain_id()) {
+          optionals.set(0);
+        }
+        if (struct.is_set_keys()) {
+          optionals.set(1);
+        }
+        oprot.writeBitSet(optionals, 2);
+        if (struct.is_set_domain_id()) {
+          oprot.writeI32(struct.domain_id);
+        }
+        if (struct.is_set_keys()) {
+          {
+            oprot.writeI32(struct.keys.size());
+            for (ByteBuffer _iter62 : struct.keys)
+            {
+              oprot.writeBinary(_iter62);
+            }
+          }
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, getBulk_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(2);
+        if (incoming.get(0)) {
+          struct.domain_id = iprot.readI32();
+          struct.set_domain_id_isSet(true);
+        }
+        if (incoming.get(1)) {
+          {
+            org.apache.thrift.protocol.TList _list63 = new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRING, iprot.readI32());
+            struct.keys = new ArrayList<ByteBuffer>(_list63.size);
+            for (int _i64 = 0; _i64 < _list63.size; ++_i64)
+            {
+              ByteBuffer _elem65; // optional
+              _elem65 = iprot.readBinary();
+              struct.keys.add(_elem65);
+            }
+          }
+          struct.set_keys_isSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class getBulk_result implements org.apache.thrift.TBase<getBulk_result, getBulk_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getBulk_result");
+
+    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.STRUCT, (short)0);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new getBulk_resultStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getBulk_resultTupleSchemeFactory());
+    }
+
+    public HankBulkResponse success; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      SUCCESS((short)0, "success");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 0: // SUCCESS
+            return SUCCESS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, HankBulkResponse.class)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getBulk_result.class, metaDataMap);
+    }
+
+    public getBulk_result() {
+    }
+
+    public getBulk_result(
+      HankBulkResponse success)
+    {
+      this();
+      this.success = success;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public getBulk_result(getBulk_result other) {
+      if (other.is_set_success()) {
+        this.success = new HankBulkResponse(other.success);
+      }
+    }
+
+    public getBulk_result deepCopy() {
+      return new getBulk_result(this);
+    }
+
+    @Override
+    public void clear() {
+      this.success = null;
+    }
+
+    public HankBulkResponse get_success() {
+      return this.success;
+    }
+
+    public getBulk_result set_success(HankBulkResponse success) {
+      this.success = success;
+      return this;
+    }
+
+    public void unset_success() {
+      this.success = null;
+    }
+
+    /** Returns true if field success is set (has been assigned a value) and false otherwise */
+    public boolean is_set_success() {
+      return this.success != null;
+    }
+
+    public void set_success_isSet(boolean value) {
+      if (!value) {
+        this.success = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case SUCCESS:
+        if (value == null) {
+          unset_success();
+        } else {
+          set_success((HankBulkResponse)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case SUCCESS:
+        return get_success();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case SUCCESS:
+        return is_set_success();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof getBulk_result)
+        return this.equals((getBulk_result)that);
+      return false;
+    }
+
+    public boolean equals(getBulk_result that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_success = true && this.is_set_success();
+      boolean that_present_success = true && that.is_set_success();
+      if (this_present_success || that_present_success) {
+        if (!(this_present_success && that_present_success))
+          return false;
+        if (!this.success.equals(that.success))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      HashCodeBuilder builder = new HashCodeBuilder();
+
+      boolean present_success = true && (is_set_success());
+      builder.append(present_success);
+      if (present_success)
+        builder.append(success);
+
+      return builder.toHashCode();
+    }
+
+    public int compareTo(getBulk_result other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      getBulk_result typedOther = (getBulk_result)other;
+
+      lastComparison = Boolean.valueOf(is_set_success()).compareTo(typedOther.is_set_success());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (is_set_success()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.success, typedOther.success);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+      }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("getBulk_result(");
+      boolean first = true;
+
+      sb.append("success:");
+      if (this.success == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.success);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class getBulk_resultStandardSchemeFactory implements SchemeFactory {
+      public getBulk_resultStandardScheme getScheme() {
+        return new getBulk_resultStandardScheme();
+      }
+    }
+
+    private static class getBulk_resultStandardScheme extends StandardScheme<getBulk_result> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getBulk_result struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 0: // SUCCESS
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRUCT) {
+                struct.success = new HankBulkResponse();
+                struct.success.read(iprot);
+                struct.set_success_isSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getBulk_result struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.success != null) {
+          oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
+          struct.success.write(oprot);
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class getBulk_resultTupleSchemeFactory implements SchemeFactory {
+      public getBulk_resultTupleScheme getScheme() {
+        return new getBulk_resultTupleScheme();
+      }
+    }
+
+    private static class getBulk_resultTupleScheme extends TupleScheme<getBulk_result> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, getBulk_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.is_set_success()) {
+          optionals.set(0);
+        }
+        oprot.writeBitSet(optionals, 1);
+        if (struct.is_set_success()) {
+          struct.success.write(oprot);
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, getBulk_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(1);
+        if (incoming.get(0)) {
+          struct.success = new HankBulkResponse();
+          struct.success.read(iprot);
+          struct.set_success_isSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class getWithPartition_args implements org.apache.thrift.TBase<getWithPartition_args, getWithPartition_args._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getWithPartition_args");
+
+    private static final org.apache.thrift.protocol.TField DOMAIN_ID_FIELD_DESC = new org.apache.thrift.protocol.TField("domain_id", org.apache.thrift.protocol.TType.I32, (short)1);
+    private static final org.apache.thrift.protocol.TField KEY_FIELD_DESC = new org.apache.thrift.protocol.TField("key", org.apache.thrift.protocol.TType.STRING, (short)2);
+    private static final org.apache.thrift.protocol.TField PARTITION_FIELD_DESC = new org.apache.thrift.protocol.TField("partition", org.apache.thrift.protocol.TType.I32, (short)3);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new getWithPartition_argsStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getWithPartition_argsTupleSchemeFactory());
+    }
+
+    public int domain_id; // required
+    public ByteBuffer key; // required
+    public int partition; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      DOMAIN_ID((short)1, "domain_id"),
+      KEY((short)2, "key"),
+      PARTITION((short)3, "partition");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 1: // DOMAIN_ID
+            return DOMAIN_ID;
+          case 2: // KEY
+            return KEY;
+          case 3: // PARTITION
+            return PARTITION;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    private static final int __DOMAIN_ID_ISSET_ID = 0;
+    private static final int __PARTITION_ISSET_ID = 1;
+    private byte __isset_bitfield = 0;
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.DOMAIN_ID, new org.apache.thrift.meta_data.FieldMetaData("domain_id", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
+      tmpMap.put(_Fields.KEY, new org.apache.thrift.meta_data.FieldMetaData("key", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING          , true)));
+      tmpMap.put(_Fields.PARTITION, new org.apache.thrift.meta_data.FieldMetaData("partition", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getWithPartition_args.class, metaDataMap);
+    }
+
+    public getWithPartition_args() {
+    }
+
+    public getWithPartition_args(
+      int domain_id,
+      ByteBuffer key,
+      int partition)
+    {
+      this();
+      this.domain_id = domain_id;
+      set_domain_id_isSet(true);
+      this.key = key;
+      this.partition = partition;
+      set_partition_isSet(true);
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public getWithPartition_args(getWithPartition_args other) {
+      __isset_bitfield = other.__isset_bitfield;
+      this.domain_id = other.domain_id;
+      if (other.is_set_key()) {
+        this.key = org.apache.thrift.TBaseHelper.copyBinary(other.key);
+;
+      }
+      this.partition = other.partition;
+    }
+
+    public getWithPartition_args deepCopy() {
+      return new getWithPartition_args(this);
+    }
+
+    @Override
+    public void clear() {
+      set_domain_id_isSet(false);
+      this.domain_id = 0;
+      this.key = null;
+      set_partition_isSet(false);
+      this.partition = 0;
+    }
+
+    public int get_domain_id() {
+      return this.domain_id;
+    }
+
+    public getWithPartition_args set_domain_id(int domain_id) {
+      this.domain_id = domain_id;
+      set_domain_id_isSet(true);
+      return this;
+    }
+
+    public void unset_domain_id() {
+      __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __DOMAIN_ID_ISSET_ID);
+    }
+
+    /** Returns true if field domain_id is set (has been assigned a value) and false otherwise */
+    public boolean is_set_domain_id() {
+      return EncodingUtils.testBit(__isset_bitfield, __DOMAIN_ID_ISSET_ID);
+    }
+
+    public void set_domain_id_isSet(boolean value) {
+      __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __DOMAIN_ID_ISSET_ID, value);
+    }
+
+    public byte[] get_key() {
+      set_key(org.apache.thrift.TBaseHelper.rightSize(key));
+      return key == null ? null : key.array();
+    }
+
+    public ByteBuffer buffer_for_key() {
+      return key;
+    }
+
+    public getWithPartition_args set_key(byte[] key) {
+      set_key(key == null ? (ByteBuffer)null : ByteBuffer.wrap(key));
+      return this;
+    }
+
+    public getWithPartition_args set_key(ByteBuffer key) {
+      this.key = key;
+      return this;
+    }
+
+    public void unset_key() {
+      this.key = null;
+    }
+
+    /** Returns true if field key is set (has been assigned a value) and false otherwise */
+    public boolean is_set_key() {
+      return this.key != null;
+    }
+
+    public void set_key_isSet(boolean value) {
+      if (!value) {
+        this.key = null;
+      }
+    }
+
+    public int get_partition() {
+      return this.partition;
+    }
+
+    public getWithPartition_args set_partition(int partition) {
+      this.partition = partition;
+      set_partition_isSet(true);
+      return this;
+    }
+
+    public void unset_partition() {
+      __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __PARTITION_ISSET_ID);
+    }
+
+    /** Returns true if field partition is set (has been assigned a value) and false otherwise */
+    public boolean is_set_partition() {
+      return EncodingUtils.testBit(__isset_bitfield, __PARTITION_ISSET_ID);
+    }
+
+    public void set_partition_isSet(boolean value) {
+      __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __PARTITION_ISSET_ID, value);
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case DOMAIN_ID:
+        if (value == null) {
+          unset_domain_id();
+        } else {
+          set_domain_id((Integer)value);
+        }
+        break;
+
+      case KEY:
+        if (value == null) {
+          unset_key();
+        } else {
+          set_key((ByteBuffer)value);
+        }
+        break;
+
+      case PARTITION:
+        if (value == null) {
+          unset_partition();
+        } else {
+          set_partition((Integer)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case DOMAIN_ID:
+        return Integer.valueOf(get_domain_id());
+
+      case KEY:
+        return get_key();
+
+      case PARTITION:
+        return Integer.valueOf(get_partition());
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case DOMAIN_ID:
+        return is_set_domain_id();
+      case KEY:
+        return is_set_key();
+      case PARTITION:
+        return is_set_partition();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof getWithPartition_args)
+        return this.equals((getWithPartition_args)that);
+      return false;
+    }
+
+    public boolean equals(getWithPartition_args that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_domain_id = true;
+      boolean that_present_domain_id = true;
+      if (this_present_domain_id || that_present_domain_id) {
+        if (!(this_present_domain_id && that_present_domain_id))
+          return false;
+        if (this.domain_id != that.domain_id)
+          return false;
+      }
+
+      boolean this_present_key = true && this.is_set_key();
+      boolean that_present_key = true && that.is_set_key();
+      if (this_present_key || that_present_key) {
+        if (!(this_present_key && that_present_key))
+          return false;
+        if (!this.key.equals(that.key))
+          return false;
+      }
+
+      boolean this_present_partition = true;
+      boolean that_present_partition = true;
+      if (this_present_partition || that_present_partition) {
+        if (!(this_present_partition && that_present_partition))
+          return false;
+        if (this.partition != that.partition)
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      HashCodeBuilder builder = new HashCodeBuilder();
+
+      boolean present_domain_id = true;
+      builder.append(present_domain_id);
+      if (present_domain_id)
+        builder.append(domain_id);
+
+      boolean present_key = true && (is_set_key());
+      builder.append(present_key);
+      if (present_key)
+        builder.append(key);
+
+      boolean present_partition = true;
+      builder.append(present_partition);
+      if (present_partition)
+        builder.append(partition);
+
+      return builder.toHashCode();
+    }
+
+    public int compareTo(getWithPartition_args other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      getWithPartition_args typedOther = (getWithPartition_args)other;
+
+      lastComparison = Boolean.valueOf(is_set_domain_id()).compareTo(typedOther.is_set_domain_id());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (is_set_domain_id()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.domain_id, typedOther.domain_id);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(is_set_key()).compareTo(typedOther.is_set_key());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (is_set_key()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.key, typedOther.key);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(is_set_partition()).compareTo(typedOther.is_set_partition());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (is_set_partition()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.partition, typedOther.partition);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("getWithPartition_args(");
+      boolean first = true;
+
+      sb.append("domain_id:");
+      sb.append(this.domain_id);
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("key:");
+      if (this.key == null) {
+        sb.append("null");
+      } else {
+        org.apache.thrift.TBaseHelper.toString(this.key, sb);
+      }
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("partition:");
+      sb.append(this.partition);
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        // it doesn't seem like you should have to do this, but java serialization is wacky, and doesn't call the default constructor.
+        __isset_bitfield = 0;
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class getWithPartition_argsStandardSchemeFactory implements SchemeFactory {
+      public getWithPartition_argsStandardScheme getScheme() {
+        return new getWithPartition_argsStandardScheme();
+      }
+    }
+
+    private static class getWithPartition_argsStandardScheme extends StandardScheme<getWithPartition_args> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getWithPartition_args struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 1: // DOMAIN_ID
+              if (schemeField.type == org.apache.thrift.protocol.TType.I32) {
+                struct.domain_id = iprot.readI32();
+                struct.set_domain_id_isSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            case 2: // KEY
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
+                struct.key = iprot.readBinary();
+                struct.set_key_isSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            case 3: // PARTITION
+              if (schemeField.type == org.apache.thrift.protocol.TType.I32) {
+                struct.partition = iprot.readI32();
+                struct.set_partition_isSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getWithPartition_args struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        oprot.writeFieldBegin(DOMAIN_ID_FIELD_DESC);
+        oprot.writeI32(struct.domain_id);
+        oprot.writeFieldEnd();
+        if (struct.key != null) {
+          oprot.writeFieldBegin(KEY_FIELD_DESC);
+          oprot.writeBinary(struct.key);
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldBegin(PARTITION_FIELD_DESC);
+        oprot.writeI32(struct.partition);
+        oprot.writeFieldEnd();
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class getWithPartition_argsTupleSchemeFactory implements SchemeFactory {
+      public getWithPartition_argsTupleScheme getScheme() {
+        return new getWithPartition_argsTupleScheme();
+      }
+    }
+
+    private static class getWithPartition_argsTupleScheme extends TupleScheme<getWithPartition_args> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, getWithPartition_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.is_set_domain_id()) {
+          optionals.set(0);
+        }
+        if (struct.is_set_key()) {
+          optionals.set(1);
+        }
+        if (struct.is_set_partition()) {
+          optionals.set(2);
+        }
+        oprot.writeBitSet(optionals, 3);
+        if (struct.is_set_domain_id()) {
+          oprot.writeI32(struct.domain_id);
+        }
+        if (struct.is_set_key()) {
+          oprot.writeBinary(struct.key);
+        }
+        if (struct.is_set_partition()) {
+          oprot.writeI32(struct.partition);
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, getWithPartition_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(3);
+        if (incoming.get(0)) {
+          struct.domain_id = iprot.readI32();
+          struct.set_domain_id_isSet(true);
+        }
+        if (incoming.get(1)) {
+          struct.key = iprot.readBinary();
+          struct.set_key_isSet(true);
+        }
+        if (incoming.get(2)) {
+          struct.partition = iprot.readI32();
+          struct.set_partition_isSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class getWithPartition_result implements org.apache.thrift.TBase<getWithPartition_result, getWithPartition_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getWithPartition_result");
+
+    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.STRUCT, (short)0);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new getWithPartition_resultStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getWithPartition_resultTupleSchemeFactory());
+    }
+
+    public HankResponse success; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      SUCCESS((short)0, "success");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 0: // SUCCESS
+            return SUCCESS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, HankResponse.class)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getWithPartition_result.class, metaDataMap);
+    }
+
+    public getWithPartition_result() {
+    }
+
+    public getWithPartition_result(
+      HankResponse success)
+    {
+      this();
+      this.success = success;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public getWithPartition_result(getWithPartition_result other) {
+      if (other.is_set_success()) {
+        this.success = new HankResponse(other.success);
+      }
+    }
+
+    public getWithPartition_result deepCopy() {
+      return new getWithPartition_result(this);
+    }
+
+    @Override
+    public void clear() {
+      this.success = null;
+    }
+
+    public HankResponse get_success() {
+      return this.success;
+    }
+
+    public getWithPartition_result set_success(HankResponse success) {
+      this.success = success;
+      return this;
+    }
+
+    public void unset_success() {
+      this.success = null;
+    }
+
+    /** Returns true if field success is set (has been assigned a value) and false otherwise */
+    public boolean is_set_success() {
+      return this.success != null;
+    }
+
+    public void set_success_isSet(boolean value) {
+      if (!value) {
+        this.success = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case SUCCESS:
+        if (value == null) {
+          unset_success();
+        } else {
+          set_success((HankResponse)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case SUCCESS:
+        return get_success();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case SUCCESS:
+        return is_set_success();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof getWithPartition_result)
+        return this.equals((getWithPartition_result)that);
+      return false;
+    }
+
+    public boolean equals(getWithPartition_result that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_success = true && this.is_set_success();
+      boolean that_present_success = true && that.is_set_success();
+      if (this_present_success || that_present_success) {
+        if (!(this_present_success && that_present_success))
+          return false;
+        if (!this.success.equals(that.success))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      HashCodeBuilder builder = new HashCodeBuilder();
+
+      boolean present_success = true && (is_set_success());
+      builder.append(present_success);
+      if (present_success)
+        builder.append(success);
+
+      return builder.toHashCode();
+    }
+
+    public int compareTo(getWithPartition_result other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      getWithPartition_result typedOther = (getWithPartition_result)other;
+
+      lastComparison = Boolean.valueOf(is_set_success()).compareTo(typedOther.is_set_success());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (is_set_success()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.success, typedOther.success);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+      }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("getWithPartition_result(");
+      boolean first = true;
+
+      sb.append("success:");
+      if (this.success == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.success);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class getWithPartition_resultStandardSchemeFactory implements SchemeFactory {
+      public getWithPartition_resultStandardScheme getScheme() {
+        return new getWithPartition_resultStandardScheme();
+      }
+    }
+
+    private static class getWithPartition_resultStandardScheme extends StandardScheme<getWithPartition_result> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getWithPartition_result struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 0: // SUCCESS
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRUCT) {
+                struct.success = new HankResponse();
+                struct.success.read(iprot);
+                struct.set_success_isSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getWithPartition_result struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.success != null) {
+          oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
+          struct.success.write(oprot);
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class getWithPartition_resultTupleSchemeFactory implements SchemeFactory {
+      public getWithPartition_resultTupleScheme getScheme() {
+        return new getWithPartition_resultTupleScheme();
+      }
+    }
+
+    private static class getWithPartition_resultTupleScheme extends TupleScheme<getWithPartition_result> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, getWithPartition_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.is_set_success()) {
+          optionals.set(0);
+        }
+        oprot.writeBitSet(optionals, 1);
+        if (struct.is_set_success()) {
+          struct.success.write(oprot);
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, getWithPartition_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(1);
+        if (incoming.get(0)) {
+          struct.success = new HankResponse();
+          struct.success.read(iprot);
+          struct.set_success_isSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class getMulti_args implements org.apache.thrift.TBase<getMulti_args, getMulti_args._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getMulti_args");
+
+    private static final org.apache.thrift.protocol.TField DOMAIN_KEYS_FIELD_DESC = new org.apache.thrift.protocol.TField("domain_keys", org.apache.thrift.protocol.TType.LIST, (short)1);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new getMulti_argsStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getMulti_argsTupleSchemeFactory());
+    }
+
+    public List<DomainKey> domain_keys; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      DOMAIN_KEYS((short)1, "domain_keys");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 1: // DOMAIN_KEYS
+            return DOMAIN_KEYS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.DOMAIN_KEYS, new org.apache.thrift.meta_data.FieldMetaData("domain_keys", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
+              new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, DomainKey.class))));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getMulti_args.class, metaDataMap);
+    }
+
+    public getMulti_args() {
+    }
+
+    public getMulti_args(
+      List<DomainKey> domain_keys)
+    {
+      this();
+      this.domain_keys = domain_keys;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public getMulti_args(getMulti_args other) {
+      if (other.is_set_domain_keys()) {
+        List<DomainKey> __this__domain_keys = new ArrayList<DomainKey>();
+        for (DomainKey other_element : other.domain_keys) {
+          __this__domain_keys.add(new DomainKey(other_element));
+        }
+        this.domain_keys = __this__domain_keys;
+      }
+    }
+
+    public getMulti_args deepCopy() {
+      return new getMulti_args(this);
+    }
+
+    @Override
+    public void clear() {
+      this.domain_keys = null;
+    }
+
+    public int get_domain_keys_size() {
+      return (this.domain_keys == null) ? 0 : this.domain_keys.size();
+    }
+
+    public java.util.Iterator<DomainKey> get_domain_keys_iterator() {
+      return (this.domain_keys == null) ? null : this.domain_keys.iterator();
+    }
+
+    public void add_to_domain_keys(DomainKey elem) {
+      if (this.domain_keys == null) {
+        this.domain_keys = new ArrayList<DomainKey>();
+      }
+      this.domain_keys.add(elem);
+    }
+
+    public List<DomainKey> get_domain_keys() {
+      return this.domain_keys;
+    }
+
+    public getMulti_args set_domain_keys(List<DomainKey> domain_keys) {
+      this.domain_keys = domain_keys;
+      return this;
+    }
+
+    public void unset_domain_keys() {
+      this.domain_keys = null;
+    }
+
+    /** Returns true if field domain_keys is set (has been assigned a value) and false otherwise */
+    public boolean is_set_domain_keys() {
+      return this.domain_keys != null;
+    }
+
+    public void set_domain_keys_isSet(boolean value) {
+      if (!value) {
+        this.domain_keys = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case DOMAIN_KEYS:
+        if (value == null) {
+          unset_domain_keys();
+        } else {
+          set_domain_keys((List<DomainKey>)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case DOMAIN_KEYS:
+        return get_domain_keys();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case DOMAIN_KEYS:
+        return is_set_domain_keys();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof getMulti_args)
+        return this.equals((getMulti_args)that);
+      return false;
+    }
+
+    public boolean equals(getMulti_args that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_domain_keys = true && this.is_set_domain_keys();
+      boolean that_present_domain_keys = true && that.is_set_domain_keys();
+      if (this_present_domain_keys || that_present_domain_keys) {
+        if (!(this_present_domain_keys && that_present_domain_keys))
+          return false;
+        if (!this.domain_keys.equals(that.domain_keys))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      HashCodeBuilder builder = new HashCodeBuilder();
+
+      boolean present_domain_keys = true && (is_set_domain_keys());
+      builder.append(present_domain_keys);
+      if (present_domain_keys)
+        builder.append(domain_keys);
+
+      return builder.toHashCode();
+    }
+
+    public int compareTo(getMulti_args other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      getMulti_args typedOther = (getMulti_args)other;
+
+      lastComparison = Boolean.valueOf(is_set_domain_keys()).compareTo(typedOther.is_set_domain_keys());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (is_set_domain_keys()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.domain_keys, typedOther.domain_keys);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("getMulti_args(");
+      boolean first = true;
+
+      sb.append("domain_keys:");
+      if (this.domain_keys == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.domain_keys);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class getMulti_argsStandardSchemeFactory implements SchemeFactory {
+      public getMulti_argsStandardScheme getScheme() {
+        return new getMulti_argsStandardScheme();
+      }
+    }
+
+    private static class getMulti_argsStandardScheme extends StandardScheme<getMulti_args> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getMulti_args struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 1: // DOMAIN_KEYS
+              if (schemeField.type == org.apache.thrift.protocol.TType.LIST) {
+                {
+                  org.apache.thrift.protocol.TList _list200 = iprot.readListBegin();
+                  struct.domain_keys = new ArrayList<DomainKey>(_list200.size);
+                  for (int _i201 = 0; _i201 < _list200.size; ++_i201)
+                  {
+                    DomainKey _elem202; // optional
+                    _elem202 = new DomainKey();
+                    _elem202.read(iprot);
+                    struct.domain_keys.add(_elem202);
+                  }
+                  iprot.readListEnd();
+                }
+                struct.set_domain_keys_isSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getMulti_args struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.domain_keys != null) {
+          oprot.writeFieldBegin(DOMAIN_KEYS_FIELD_DESC);
+          {
+            oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, struct.domain_keys.size()));
+            for (DomainKey _iter203 : struct.domain_keys)
+            {
+              _iter203.write(oprot);
+            }
+            oprot.writeListEnd();
+          }
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class getMulti_argsTupleSchemeFactory implements SchemeFactory {
+      public getMulti_argsTupleScheme getScheme() {
+        return new getMulti_argsTupleScheme();
+      }
+    }
+
+    private static class getMulti_argsTupleScheme extends TupleScheme<getMulti_args> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, getMulti_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.is_set_domain_keys()) {
+          optionals.set(0);
+        }
+        oprot.writeBitSet(optionals, 1);
+        if (struct.is_set_domain_keys()) {
+          {
+            oprot.writeI32(struct.domain_keys.size());
+            for (DomainKey _iter204 : struct.domain_keys)
+            {
+              _iter204.write(oprot);
+            }
+          }
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, getMulti_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(1);
+        if (incoming.get(0)) {
+          {
+            org.apache.thrift.protocol.TList _list205 = new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, iprot.readI32());
+            struct.domain_keys = new ArrayList<DomainKey>(_list205.size);
+            for (int _i206 = 0; _i206 < _list205.size; ++_i206)
+            {
+              DomainKey _elem207; // optional
+              _elem207 = new DomainKey();
+              _elem207.read(iprot);
+              struct.domain_keys.add(_elem207);
+            }
+          }
+          struct.set_domain_keys_isSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class getMulti_result implements org.apache.thrift.TBase<getMulti_result, getMulti_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getMulti_result");
+
+    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.STRUCT, (short)0);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new getMulti_resultStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getMulti_resultTupleSchemeFactory());
+    }
+
+    public HankBulkResponse success; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      SUCCESS((short)0, "success");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 0: // SUCCESS
+            return SUCCESS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, HankBulkResponse.class)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getMulti_result.class, metaDataMap);
+    }
+
+    public getMulti_result() {
+    }
+
+    public getMulti_result(
+      HankBulkResponse success)
+    {
+      this();
+      this.success = success;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public getMulti_result(getMulti_result other) {
+      if (other.is_set_success()) {
+        this.success = new HankBulkResponse(other.success);
+      }
+    }
+
+    public getMulti_result deepCopy() {
+      return new getMulti_result(this);
+    }
+
+    @Override
+    public void clear() {
+      this.success = null;
+    }
+
+    public HankBulkResponse get_success() {
+      return this.success;
+    }
+
+    public getMulti_result set_success(HankBulkResponse success) {
+      this.success = success;
+      return this;
+    }
+
+    public void unset_success() {
+      this.success = null;
+    }
+
+    /** Returns true if field success is set (has been assigned a value) and false otherwise */
+    public boolean is_set_success() {
+      return this.success != null;
+    }
+
+    public void set_success_isSet(boolean value) {
+      if (!value) {
+        this.success = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case SUCCESS:
+        if (value == null) {
+          unset_success();
+        } else {
+          set_success((HankBulkResponse)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case SUCCESS:
+        return get_success();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case SUCCESS:
+        return is_set_success();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof getMulti_result)
+        return this.equals((getMulti_result)that);
+      return false;
+    }
+
+    public boolean equals(getMulti_result that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_success = true && this.is_set_success();
+      boolean that_present_success = true && that.is_set_success();
+      if (this_present_success || that_present_success) {
+        if (!(this_present_success && that_present_success))
+          return false;
+        if (!this.success.equals(that.success))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      HashCodeBuilder builder = new HashCodeBuilder();
+
+      boolean present_success = true && (is_set_success());
+      builder.append(present_success);
+      if (present_success)
+        builder.append(success);
+
+      return builder.toHashCode();
+    }
+
+    public int compareTo(getMulti_result other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      getMulti_result typedOther = (getMulti_result)other;
+
+      lastComparison = Boolean.valueOf(is_set_success()).compareTo(typedOther.is_set_success());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (is_set_success()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.success, typedOther.success);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+      }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("getMulti_result(");
+      boolean first = true;
+
+      sb.append("success:");
+      if (this.success == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.success);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class getMulti_resultStandardSchemeFactory implements SchemeFactory {
+      public getMulti_resultStandardScheme getScheme() {
+        return new getMulti_resultStandardScheme();
+      }
+    }
+
+    private static class getMulti_resultStandardScheme extends StandardScheme<getMulti_result> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getMulti_result struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 0: // SUCCESS
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRUCT) {
+                struct.success = new HankBulkResponse();
+                struct.success.read(iprot);
+                struct.set_success_isSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getMulti_result struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.success != null) {
+          oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
+          struct.success.write(oprot);
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class getMulti_resultTupleSchemeFactory implements SchemeFactory {
+      public getMulti_resultTupleScheme getScheme() {
+        return new getMulti_resultTupleScheme();
+      }
+    }
+
+    private static class getMulti_resultTupleScheme extends TupleScheme<getMulti_result> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, getMulti_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.is_set_success()) {
+          optionals.set(0);
+        }
+        oprot.writeBitSet(optionals, 1);
+        if (struct.is_set_success()) {
+          struct.success.write(oprot);
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, getMulti_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(1);
+        if (incoming.get(0)) {
+          struct.success = new HankBulkResponse();
+          struct.success.read(iprot);
+          struct.set_success_isSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class getBulkStream_args implements org.apache.thrift.TBase<getBulkStream_args, getBulkStream_args._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getBulkStream_args");
+
+    private static final org.apache.thrift.protocol.TField DOMAIN_ID_FIELD_DESC = new org.apache.thrift.protocol.TField("domain_id", org.apache.thrift.protocol.TType.I32, (short)1);
+    private static final org.apache.thrift.protocol.TField KEYS_FIELD_DESC = new org.apache.thrift.protocol.TField("keys", org.apache.thrift.protocol.TType.LIST, (short)2);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new getBulkStream_argsStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getBulkStream_argsTupleSchemeFactory());
+    }
+
+    public int domain_id; // required
+    public List<ByteBuffer> keys; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      DOMAIN_ID((short)1, "domain_id"),
+      KEYS((short)2, "keys");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 1: // DOMAIN_ID
+            return DOMAIN_ID;
+          case 2: // KEYS
+            return KEYS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    private static final int __DOMAIN_ID_ISSET_ID = 0;
+    private byte __isset_bitfield = 0;
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.DOMAIN_ID, new org.apache.thrift.meta_data.FieldMetaData("domain_id", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
+      tmpMap.put(_Fields.KEYS, new org.apache.thrift.meta_data.FieldMetaData("keys", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
+              new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING              , true))));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getBulkStream_args.class, metaDataMap);
+    }
+
+    public getBulkStream_args() {
+    }
+
+    public getBulkStream_args(
+      int domain_id,
+      List<ByteBuffer> keys)
+    {
+      this();
+      this.domain_id = domain_id;
+      set_domain_id_isSet(true);
+      this.keys = keys;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public getBulkStream_args(getBulkStream_args other) {
+      __isset_bitfield = other.__isset_bitfield;
+      this.domain_id = other.domain_id;
+      if (other.is_set_keys()) {
+        List<ByteBuffer> __this__keys = new ArrayList<ByteBuffer>();
+        for (ByteBuffer other_element : other.keys) {
+          ByteBuffer temp_binary_element = org.apache.thrift.TBaseHelper.copyBinary(other_element);
+;
+          __this__keys.add(temp_binary_element);
+        }
+        this.keys = __this__keys;
+      }
+    }
+
+    public getBulkStream_args deepCopy() {
+      return new getBulkStream_args(this);
+    }
+
+    @Override
+    public void clear() {
+      set_domain_id_isSet(false);
+      this.domain_id = 0;
+      this.keys = null;
+    }
+
+    public int get_domain_id() {
+      return this.domain_id;
+    }
+
+    public getBulkStream_args set_domain_id(int domain_id) {
+      this.domain_id = domain_id;
+      set_domain_id_isSet(true);
+      return this;
+    }
+
+    public void unset_domain_id() {
+      __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __DOMAIN_ID_ISSET_ID);
+    }
+
+    /** Returns true if field domain_id is set (has been assigned a value) and false otherwise */
+    public boolean is_set_domain_id() {
+      return EncodingUtils.testBit(__isset_bitfield, __DOMAIN_ID_ISSET_ID);
+    }
+
+    public void set_domain_id_isSet(boolean value) {
+      __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __DOMAIN_ID_ISSET_ID, value);
+    }
+
+    public int get_keys_size() {
+      return (this.keys == null) ? 0 : this.keys.size();
+    }
+
+    public java.util.Iterator<ByteBuffer> get_keys_iterator() {
+      return (this.keys == null) ? null : this.keys.iterator();
+    }
+
+    public void add_to_keys(ByteBuffer elem) {
+      if (this.keys == null) {
+        this.keys = new ArrayList<ByteBuffer>();
+      }
+      this.keys.add(elem);
+    }
+
+    public List<ByteBuffer> get_keys() {
+      return this.keys;
+    }
+
+    public getBulkStream_args set_keys(List<ByteBuffer> keys) {
+      this.keys = keys;
+      return this;
+    }
+
+    public void unset_keys() {
+      this.keys = null;
+    }
+
+    /** Returns true if field keys is set (has been assigned a value) and false otherwise */
+    public boolean is_set_keys() {
+      return this.keys != null;
+    }
+
+    public void set_keys_isSet(boolean value) {
+      if (!value) {
+        this.keys = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case DOMAIN_ID:
+        if (value == null) {
+          unset_domain_id();
+        } else {
+          set_domain_id((Integer)value);
+        }
+        break;
+
+      case KEYS:
+        if (value == null) {
+          unset_keys();
+        } else {
+          set_keys((List<ByteBuffer>)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case DOMAIN_ID:
+        return Integer.valueOf(get_domain_id());
+
+      case KEYS:
+        return get_keys();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case DOMAIN_ID:
+        return is_set_domain_id();
+      case KEYS:
+        return is_set_keys();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof getBulkStream_args)
+        return this.equals((getBulkStream_args)that);
+      return false;
+    }
+
+    public boolean equals(getBulkStream_args that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_domain_id = true;
+      boolean that_present_domain_id = true;
+      if (this_present_domain_id || that_present_domain_id) {
+        if (!(this_present_domain_id && that_present_domain_id))
+          return false;
+        if (this.domain_id != that.domain_id)
+          return false;
+      }
+
+      boolean this_present_keys = true && this.is_set_keys();
+      boolean that_present_keys = true && that.is_set_keys();
+      if (this_present_keys || that_present_keys) {
+        if (!(this_present_keys && that_present_keys))
+          return false;
+        if (!this.keys.equals(that.keys))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      HashCodeBuilder builder = new HashCodeBuilder();
+
+      boolean present_domain_id = true;
+      builder.append(present_domain_id);
+      if (present_domain_id)
+        builder.append(domain_id);
+
+      boolean present_keys = true && (is_set_keys());
+      builder.append(present_keys);
+      if (present_keys)
+        builder.append(keys);
+
+      return builder.toHashCode();
+    }
+
+    public int compareTo(getBulkStream_args other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      getBulkStream_args typedOther = (getBulkStream_args)other;
+
+      lastComparison = Boolean.valueOf(is_set_domain_id()).compareTo(typedOther.is_set_domain_id());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (is_set_domain_id()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.domain_id, typedOther.domain_id);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(is_set_keys()).compareTo(typedOther.is_set_keys());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (is_set_keys()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.keys, typedOther.keys);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("getBulkStream_args(");
+      boolean first = true;
+
+      sb.append("domain_id:");
+      sb.append(this.domain_id);
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("keys:");
+      if (this.keys == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.keys);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        // it doesn't seem like you should have to do this, but java serialization is wacky, and doesn't call the default constructor.
+        __isset_bitfield = 0;
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class getBulkStream_argsStandardSchemeFactory implements SchemeFactory {
+      public getBulkStream_argsStandardScheme getScheme() {
+        return new getBulkStream_argsStandardScheme();
+      }
+    }
+
+    private static class getBulkStream_argsStandardScheme extends StandardScheme<getBulkStream_args> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getBulkStream_args struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 1: // DOMAIN_ID
+              if (schemeField.type == org.apache.thrift.protocol.TType.I32) {
+                struct.domain_id = iprot.readI32();
+                struct.set_domain_id_isSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            case 2: // KEYS
+              if (schemeField.type == org.apache.thrift.protocol.TType.LIST) {
+                {
+                  org.apache.thrift.protocol.TList _list200 = iprot.readListBegin();
+                  struct.keys = new ArrayList<ByteBuffer>(_list200.size);
+                  for (int _i201 = 0; _i201 < _list200.size; ++_i201)
+                  {
+                    ByteBuffer _elem202; // optional
+                    _elem202 = iprot.readBinary();
+                    struct.keys.add(_elem202);
+                  }
+                  iprot.readListEnd();
+                }
+                struct.set_keys_isSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getBulkStream_args struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        oprot.writeFieldBegin(DOMAIN_ID_FIELD_DESC);
+        oprot.writeI32(struct.domain_id);
+        oprot.writeFieldEnd();
+        if (struct.keys != null) {
+          oprot.writeFieldBegin(KEYS_FIELD_DESC);
+          {
+            oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRING, struct.keys.size()));
+            for (ByteBuffer _iter203 : struct.keys)
+            {
+              oprot.writeBinary(_iter203);
+            }
+            oprot.writeListEnd();
+          }
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class getBulkStream_argsTupleSchemeFactory implements SchemeFactory {
+      public getBulkStream_argsTupleScheme getScheme() {
+        return new getBulkStream_argsTupleScheme();
+      }
+    }
+
+    private static class getBulkStream_argsTupleScheme extends TupleScheme<getBulkStream_args> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, getBulkStream_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.is_set_domain_id()) {
+          optionals.set(0);
+        }
+        if (struct.is_set_keys()) {
+          optionals.set(1);
+        }
+        oprot.writeBitSet(optionals, 2);
+        if (struct.is_set_domain_id()) {
+          oprot.writeI32(struct.domain_id);
+        }
+        if (struct.is_set_keys()) {
+          {
+            oprot.writeI32(struct.keys.size());
+            for (ByteBuffer _iter204 : struct.keys)
+            {
+              oprot.writeBinary(_iter204);
+            }
+          }
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, getBulkStream_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(2);
+        if (incoming.get(0)) {
+          struct.domain_id = iprot.readI32();
+          struct.set_domain_id_isSet(true);
+        }
+        if (incoming.get(1)) {
+          {
+            org.apache.thrift.protocol.TList _list205 = new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRING, iprot.readI32());
+            struct.keys = new ArrayList<ByteBuffer>(_list205.size);
+            for (int _i206 = 0; _i206 < _list205.size; ++_i206)
+            {
+              ByteBuffer _elem207; // optional
+              _elem207 = iprot.readBinary();
+              struct.keys.add(_elem207);
+            }
+          }
+          struct.set_keys_isSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class getBulkStream_result implements org.apache.thrift.TBase<getBulkStream_result, getBulkStream_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getBulkStream_result");
+
+    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.STRUCT, (short)0);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new getBulkStream_resultStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getBulkStream_resultTupleSchemeFactory());
+    }
+
+    public HankBulkChunk success; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      SUCCESS((short)0, "success");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 0: // SUCCESS
+            return SUCCESS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, HankBulkChunk.class)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getBulkStream_result.class, metaDataMap);
+    }
+
+    public getBulkStream_result() {
+    }
+
+    public getBulkStream_result(
+      HankBulkChunk success)
+    {
+      this();
+      this.success = success;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public getBulkStream_result(getBulkStream_result other) {
+      if (other.is_set_success()) {
+        this.success = new HankBulkChunk(other.success);
+      }
+    }
+
+    public getBulkStream_result deepCopy() {
+      return new getBulkStream_result(this);
+    }
+
+    @Override
+    public void clear() {
+      this.success = null;
+    }
+
+    public HankBulkChunk get_success() {
+      return this.success;
+    }
+
+    public getBulkStream_result set_success(HankBulkChunk success) {
+      this.success = success;
+      return this;
+    }
+
+    public void unset_success() {
+      this.success = null;
+    }
+
+    /** Returns true if field success is set (has been assigned a value) and false otherwise */
+    public boolean is_set_success() {
+      return this.success != null;
+    }
+
+    public void set_success_isSet(boolean value) {
+      if (!value) {
+        this.success = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case SUCCESS:
+        if (value == null) {
+          unset_success();
+        } else {
+          set_success((HankBulkChunk)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case SUCCESS:
+        return get_success();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case SUCCESS:
+        return is_set_success();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof getBulkStream_result)
+        return this.equals((getBulkStream_result)that);
+      return false;
+    }
+
+    public boolean equals(getBulkStream_result that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_success = true && this.is_set_success();
+      boolean that_present_success = true && that.is_set_success();
+      if (this_present_success || that_present_success) {
+        if (!(this_present_success && that_present_success))
+          return false;
+        if (!this.success.equals(that.success))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      HashCodeBuilder builder = new HashCodeBuilder();
+
+      boolean present_success = true && (is_set_success());
+      builder.append(present_success);
+      if (present_success)
+        builder.append(success);
+
+      return builder.toHashCode();
+    }
+
+    public int compareTo(getBulkStream_result other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      getBulkStream_result typedOther = (getBulkStream_result)other;
+
+      lastComparison = Boolean.valueOf(is_set_success()).compareTo(typedOther.is_set_success());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (is_set_success()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.success, typedOther.success);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+      }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("getBulkStream_result(");
+      boolean first = true;
+
+      sb.append("success:");
+      if (this.success == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.success);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class getBulkStream_resultStandardSchemeFactory implements SchemeFactory {
+      public getBulkStream_resultStandardScheme getScheme() {
+        return new getBulkStream_resultStandardScheme();
+      }
+    }
+
+    private static class getBulkStream_resultStandardScheme extends StandardScheme<getBulkStream_result> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getBulkStream_result struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 0: // SUCCESS
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRUCT) {
+                struct.success = new HankBulkChunk();
+                struct.success.read(iprot);
+                struct.set_success_isSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getBulkStream_result struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.success != null) {
+          oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
+          struct.success.write(oprot);
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class getBulkStream_resultTupleSchemeFactory implements SchemeFactory {
+      public getBulkStream_resultTupleScheme getScheme() {
+        return new getBulkStream_resultTupleScheme();
+      }
+    }
+
+    private static class getBulkStream_resultTupleScheme extends TupleScheme<getBulkStream_result> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, getBulkStream_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.is_set_success()) {
+          optionals.set(0);
+        }
+        oprot.writeBitSet(optionals, 1);
+        if (struct.is_set_success()) {
+          struct.success.write(oprot);
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, getBulkStream_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(1);
+        if (incoming.get(0)) {
+          struct.success = new HankBulkChunk();
+          struct.success.read(iprot);
+          struct.set_success_isSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class getBulkStreamNext_args implements org.apache.thrift.TBase<getBulkStreamNext_args, getBulkStreamNext_args._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getBulkStreamNext_args");
+
+    private static final org.apache.thrift.protocol.TField STREAM_ID_FIELD_DESC = new org.apache.thrift.protocol.TField("stream_id", org.apache.thrift.protocol.TType.I64, (short)1);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new getBulkStreamNext_argsStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getBulkStreamNext_argsTupleSchemeFactory());
+    }
+
+    public long stream_id; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      STREAM_ID((short)1, "stream_id");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 1: // STREAM_ID
+            return STREAM_ID;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    private static final int __STREAM_ID_ISSET_ID = 0;
+    private byte __isset_bitfield = 0;
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.STREAM_ID, new org.apache.thrift.meta_data.FieldMetaData("stream_id", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getBulkStreamNext_args.class, metaDataMap);
+    }
+
+    public getBulkStreamNext_args() {
+    }
+
+    public getBulkStreamNext_args(
+      long stream_id)
+    {
+      this();
+      this.stream_id = stream_id;
+      set_stream_id_isSet(true);
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public getBulkStreamNext_args(getBulkStreamNext_args other) {
+      __isset_bitfield = other.__isset_bitfield;
+      this.stream_id = other.stream_id;
+    }
+
+    public getBulkStreamNext_args deepCopy() {
+      return new getBulkStreamNext_args(this);
+    }
+
+    @Override
+    public void clear() {
+      set_stream_id_isSet(false);
+      this.stream_id = 0;
+    }
+
+    public long get_stream_id() {
+      return this.stream_id;
+    }
+
+    public getBulkStreamNext_args set_stream_id(long stream_id) {
+      this.stream_id = stream_id;
+      set_stream_id_isSet(true);
+      return this;
+    }
+
+    public void unset_stream_id() {
+      __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __STREAM_ID_ISSET_ID);
+    }
+
+    /** Returns true if field stream_id is set (has been assigned a value) and false otherwise */
+    public boolean is_set_stream_id() {
+      return EncodingUtils.testBit(__isset_bitfield, __STREAM_ID_ISSET_ID);
+    }
+
+    public void set_stream_id_isSet(boolean value) {
+      __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __STREAM_ID_ISSET_ID, value);
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case STREAM_ID:
+        if (value == null) {
+          unset_stream_id();
+        } else {
+          set_stream_id((Long)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case STREAM_ID:
+        return Long.valueOf(get_stream_id());
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case STREAM_ID:
+        return is_set_stream_id();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof getBulkStreamNext_args)
+        return this.equals((getBulkStreamNext_args)that);
+      return false;
+    }
+
+    public boolean equals(getBulkStreamNext_args that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_stream_id = true;
+      boolean that_present_stream_id = true;
+      if (this_present_stream_id || that_present_stream_id) {
+        if (!(this_present_stream_id && that_present_stream_id))
+          return false;
+        if (this.stream_id != that.stream_id)
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      HashCodeBuilder builder = new HashCodeBuilder();
+
+      boolean present_stream_id = true;
+      builder.append(present_stream_id);
+      if (present_stream_id)
+        builder.append(stream_id);
+
+      return builder.toHashCode();
+    }
+
+    public int compareTo(getBulkStreamNext_args other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      getBulkStreamNext_args typedOther = (getBulkStreamNext_args)other;
+
+      lastComparison = Boolean.valueOf(is_set_stream_id()).compareTo(typedOther.is_set_stream_id());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (is_set_stream_id()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.stream_id, typedOther.stream_id);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("getBulkStreamNext_args(");
+      boolean first = true;
+
+      sb.append("stream_id:");
+      sb.append(this.stream_id);
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        // it doesn't seem like you should have to do this, but java serialization is wacky, and doesn't call the default constructor.
+        __isset_bitfield = 0;
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class getBulkStreamNext_argsStandardSchemeFactory implements SchemeFactory {
+      public getBulkStreamNext_argsStandardScheme getScheme() {
+        return new getBulkStreamNext_argsStandardScheme();
+      }
+    }
+
+    private static class getBulkStreamNext_argsStandardScheme extends StandardScheme<getBulkStreamNext_args> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getBulkStreamNext_args struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 1: // STREAM_ID
+              if (schemeField.type == org.apache.thrift.protocol.TType.I64) {
+                struct.stream_id = iprot.readI64();
+                struct.set_stream_id_isSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getBulkStreamNext_args struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        oprot.writeFieldBegin(STREAM_ID_FIELD_DESC);
+        oprot.writeI64(struct.stream_id);
+        oprot.writeFieldEnd();
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class getBulkStreamNext_argsTupleSchemeFactory implements SchemeFactory {
+      public getBulkStreamNext_argsTupleScheme getScheme() {
+        return new getBulkStreamNext_argsTupleScheme();
+      }
+    }
+
+    private static class getBulkStreamNext_argsTupleScheme extends TupleScheme<getBulkStreamNext_args> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, getBulkStreamNext_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.is_set_stream_id()) {
+          optionals.set(0);
+        }
+        oprot.writeBitSet(optionals, 1);
+        if (struct.is_set_stream_id()) {
+          oprot.writeI64(struct.stream_id);
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, getBulkStreamNext_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(1);
+        if (incoming.get(0)) {
+          struct.stream_id = iprot.readI64();
+          struct.set_stream_id_isSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class getBulkStreamNext_result implements org.apache.thrift.TBase<getBulkStreamNext_result, getBulkStreamNext_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getBulkStreamNext_result");
+
+    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.STRUCT, (short)0);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new getBulkStreamNext_resultStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getBulkStreamNext_resultTupleSchemeFactory());
+    }
+
+    public HankBulkChunk success; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      SUCCESS((short)0, "success");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 0: // SUCCESS
+            return SUCCESS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, HankBulkChunk.class)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getBulkStreamNext_result.class, metaDataMap);
+    }
+
+    public getBulkStreamNext_result() {
+    }
+
+    public getBulkStreamNext_result(
+      HankBulkChunk success)
+    {
+      this();
+      this.success = success;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public getBulkStreamNext_result(getBulkStreamNext_result other) {
+      if (other.is_set_success()) {
+        this.success = new HankBulkChunk(other.success);
+      }
+    }
+
+    public getBulkStreamNext_result deepCopy() {
+      return new getBulkStreamNext_result(this);
+    }
+
+    @Override
+    public void clear() {
+      this.success = null;
+    }
+
+    public HankBulkChunk get_success() {
+      return this.success;
+    }
+
+    public getBulkStreamNext_result set_success(HankBulkChunk success) {
+      this.success = success;
+      return this;
+    }
+
+    public void unset_success() {
+      this.success = null;
+    }
+
+    /** Returns true if field success is set (has been assigned a value) and false otherwise */
+    public boolean is_set_success() {
+      return this.success != null;
+    }
+
+    public void set_success_isSet(boolean value) {
+      if (!value) {
+        this.success = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case SUCCESS:
+        if (value == null) {
+          unset_success();
+        } else {
+          set_success((HankBulkChunk)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case SUCCESS:
+        return get_success();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case SUCCESS:
+        return is_set_success();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof getBulkStreamNext_result)
+        return this.equals((getBulkStreamNext_result)that);
+      return false;
+    }
+
+    public boolean equals(getBulkStreamNext_result that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_success = true && this.is_set_success();
+      boolean that_present_success = true && that.is_set_success();
+      if (this_present_success || that_present_success) {
+        if (!(this_present_success && that_present_success))
+          return false;
+        if (!this.success.equals(that.success))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      HashCodeBuilder builder = new HashCodeBuilder();
+
+      boolean present_success = true && (is_set_success());
+      builder.append(present_success);
+      if (present_success)
+        builder.append(success);
+
+      return builder.toHashCode();
+    }
+
+    public int compareTo(getBulkStreamNext_result other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      getBulkStreamNext_result typedOther = (getBulkStreamNext_result)other;
+
+      lastComparison = Boolean.valueOf(is_set_success()).compareTo(typedOther.is_set_success());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (is_set_success()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.success, typedOther.success);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+      }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("getBulkStreamNext_result(");
+      boolean first = true;
+
+      sb.append("success:");
+      if (this.success == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.success);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class getBulkStreamNext_resultStandardSchemeFactory implements SchemeFactory {
+      public getBulkStreamNext_resultStandardScheme getScheme() {
+        return new getBulkStreamNext_resultStandardScheme();
+      }
+    }
+
+    private static class getBulkStreamNext_resultStandardScheme extends StandardScheme<getBulkStreamNext_result> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getBulkStreamNext_result struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 0: // SUCCESS
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRUCT) {
+                struct.success = new HankBulkChunk();
+                struct.success.read(iprot);
+                struct.set_success_isSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getBulkStreamNext_result struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.success != null) {
+          oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
+          struct.success.write(oprot);
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class getBulkStreamNext_resultTupleSchemeFactory implements SchemeFactory {
+      public getBulkStreamNext_resultTupleScheme getScheme() {
+        return new getBulkStreamNext_resultTupleScheme();
+      }
+    }
+
+    private static class getBulkStreamNext_resultTupleScheme extends TupleScheme<getBulkStreamNext_result> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, getBulkStreamNext_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.is_set_success()) {
+          optionals.set(0);
+        }
+        oprot.writeBitSet(optionals, 1);
+        if (struct.is_set_success()) {
+          struct.success.write(oprot);
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, getBulkStreamNext_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(1);
+        if (incoming.get(0)) {
+          struct.success = new HankBulkChunk();
+          struct.success.read(iprot);
+          struct.set_success_isSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class negotiateResponseCompression_args implements org.apache.thrift.TBase<negotiateResponseCompression_args, negotiateResponseCompression_args._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("negotiateResponseCompression_args");
+
+    private static final org.apache.thrift.protocol.TField CODECS_FIELD_DESC = new org.apache.thrift.protocol.TField("codecs", org.apache.thrift.protocol.TType.LIST, (short)1);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new negotiateResponseCompression_argsStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new negotiateResponseCompression_argsTupleSchemeFactory());
+    }
+
+    public List<String> codecs; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      CODECS((short)1, "codecs");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 1: // CODECS
+            return CODECS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.CODECS, new org.apache.thrift.meta_data.FieldMetaData("codecs", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
+              new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING))));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(negotiateResponseCompression_args.class, metaDataMap);
+    }
+
+    public negotiateResponseCompression_args() {
+    }
+
+    public negotiateResponseCompression_args(
+      List<String> codecs)
+    {
+      this();
+      this.codecs = codecs;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public negotiateResponseCompression_args(negotiateResponseCompression_args other) {
+      if (other.is_set_codecs()) {
+        List<String> __this__codecs = new ArrayList<String>();
+        for (String other_element : other.codecs) {
+          __this__codecs.add(other_element);
+        }
+        this.codecs = __this__codecs;
+      }
+    }
+
+    public negotiateResponseCompression_args deepCopy() {
+      return new negotiateResponseCompression_args(this);
+    }
+
+    @Override
+    public void clear() {
+      this.codecs = null;
+    }
+
+    public int get_codecs_size() {
+      return (this.codecs == null) ? 0 : this.codecs.size();
+    }
+
+    public java.util.Iterator<String> get_codecs_iterator() {
+      return (this.codecs == null) ? null : this.codecs.iterator();
+    }
+
+    public void add_to_codecs(String elem) {
+      if (this.codecs == null) {
+        this.codecs = new ArrayList<String>();
+      }
+      this.codecs.add(elem);
+    }
+
+    public List<String> get_codecs() {
+      return this.codecs;
+    }
+
+    public negotiateResponseCompression_args set_codecs(List<String> codecs) {
+      this.codecs = codecs;
+      return this;
+    }
+
+    public void unset_codecs() {
+      this.codecs = null;
+    }
+
+    /** Returns true if field codecs is set (has been assigned a value) and false otherwise */
+    public boolean is_set_codecs() {
+      return this.codecs != null;
+    }
+
+    public void set_codecs_isSet(boolean value) {
+      if (!value) {
+        this.codecs = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case CODECS:
+        if (value == null) {
+          unset_codecs();
+        } else {
+          set_codecs((List<String>)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case CODECS:
+        return get_codecs();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case CODECS:
+        return is_set_codecs();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof negotiateResponseCompression_args)
+        return this.equals((negotiateResponseCompression_args)that);
+      return false;
+    }
+
+    public boolean equals(negotiateResponseCompression_args that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_codecs = true && this.is_set_codecs();
+      boolean that_present_codecs = true && that.is_set_codecs();
+      if (this_present_codecs || that_present_codecs) {
+        if (!(this_present_codecs && that_present_codecs))
+          return false;
+        if (!this.codecs.equals(that.codecs))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      HashCodeBuilder builder = new HashCodeBuilder();
+
+      boolean present_codecs = true && (is_set_codecs());
+      builder.append(present_codecs);
+      if (present_codecs)
+        builder.append(codecs);
+
+      return builder.toHashCode();
+    }
+
+    public int compareTo(negotiateResponseCompression_args other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      negotiateResponseCompression_args typedOther = (negotiateResponseCompression_args)other;
+
+      lastComparison = Boolean.valueOf(is_set_codecs()).compareTo(typedOther.is_set_codecs());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (is_set_codecs()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.codecs, typedOther.codecs);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("negotiateResponseCompression_args(");
+      boolean first = true;
+
+      sb.append("codecs:");
+      if (this.codecs == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.codecs);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class negotiateResponseCompression_argsStandardSchemeFactory implements SchemeFactory {
+      public negotiateResponseCompression_argsStandardScheme getScheme() {
+        return new negotiateResponseCompression_argsStandardScheme();
+      }
+    }
+
+    private static class negotiateResponseCompression_argsStandardScheme extends StandardScheme<negotiateResponseCompression_args> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, negotiateResponseCompression_args struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 1: // CODECS
+              if (schemeField.type == org.apache.thrift.protocol.TType.LIST) {
+                {
+                  org.apache.thrift.protocol.TList _list200 = iprot.readListBegin();
+                  struct.codecs = new ArrayList<String>(_list200.size);
+                  for (int _i201 = 0; _i201 < _list200.size; ++_i201)
+                  {
+                    String _elem202; // optional
+                    _elem202 = iprot.readString();
+                    struct.codecs.add(_elem202);
+                  }
+                  iprot.readListEnd();
+                }
+                struct.set_codecs_isSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, negotiateResponseCompression_args struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.codecs != null) {
+          oprot.writeFieldBegin(CODECS_FIELD_DESC);
+          {
+            oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRING, struct.codecs.size()));
+            for (String _iter203 : struct.codecs)
+            {
+              oprot.writeString(_iter203);
+            }
+            oprot.writeListEnd();
+          }
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class negotiateResponseCompression_argsTupleSchemeFactory implements SchemeFactory {
+      public negotiateResponseCompression_argsTupleScheme getScheme() {
+        return new negotiateResponseCompression_argsTupleScheme();
+      }
+    }
+
+    private static class negotiateResponseCompression_argsTupleScheme extends TupleScheme<negotiateResponseCompression_args> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, negotiateResponseCompression_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.is_set_codecs()) {
+          optionals.set(0);
+        }
+        oprot.writeBitSet(optionals, 1);
+        if (struct.is_set_codecs()) {
+          {
+            oprot.writeI32(struct.codecs.size());
+            for (String _iter204 : struct.codecs)
+            {
+              oprot.writeString(_iter204);
+            }
+          }
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, negotiateResponseCompression_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(1);
+        if (incoming.get(0)) {
+          {
+            org.apache.thrift.protocol.TList _list205 = new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRING, iprot.readI32());
+            struct.codecs = new ArrayList<String>(_list205.size);
+            for (int _i206 = 0; _i206 < _list205.size; ++_i206)
+            {
+              String _elem207; // optional
+              _elem207 = iprot.readString();
+              struct.codecs.add(_elem207);
+            }
+          }
+          struct.set_codecs_isSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class negotiateResponseCompression_result implements org.apache.thrift.TBase<negotiateResponseCompression_result, negotiateResponseCompression_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("negotiateResponseCompression_result");
+
+    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.STRING, (short)0);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new negotiateResponseCompression_resultStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new negotiateResponseCompression_resultTupleSchemeFactory());
+    }
+
+    public String success; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      SUCCESS((short)0, "success");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 0: // SUCCESS
+            return SUCCESS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(negotiateResponseCompression_result.class, metaDataMap);
+    }
+
+    public negotiateResponseCompression_result() {
+    }
+
+    public negotiateResponseCompression_result(
+      String success)
+    {
+      this();
+      this.success = success;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public negotiateResponseCompression_result(negotiateResponseCompression_result other) {
+      if (other.is_set_success()) {
+        this.success = other.success;
+      }
+    }
+
+    public negotiateResponseCompression_result deepCopy() {
+      return new negotiateResponseCompression_result(this);
+    }
+
+    @Override
+    public void clear() {
+      this.success = null;
+    }
+
+    public String get_success() {
+      return this.success;
+    }
+
+    public negotiateResponseCompression_result set_success(String success) {
+      this.success = success;
+      return this;
+    }
+
+    public void unset_success() {
+      this.success = null;
+    }
+
+    /** Returns true if field success is set (has been assigned a value) and false otherwise */
+    public boolean is_set_success() {
+      return this.success != null;
+    }
+
+    public void set_success_isSet(boolean value) {
+      if (!value) {
+        this.success = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case SUCCESS:
+        if (value == null) {
+          unset_success();
+        } else {
+          set_success((String)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case SUCCESS:
+        return get_success();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case SUCCESS:
+        return is_set_success();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof negotiateResponseCompression_result)
+        return this.equals((negotiateResponseCompression_result)that);
+      return false;
+    }
+
+    public boolean equals(negotiateResponseCompression_result that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_success = true && this.is_set_success();
+      boolean that_present_success = true && that.is_set_success();
+      if (this_present_success || that_present_success) {
+        if (!(this_present_success && that_present_success))
+          return false;
+        if (!this.success.equals(that.success))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      HashCodeBuilder builder = new HashCodeBuilder();
+
+      boolean present_success = true && (is_set_success());
+      builder.append(present_success);
+      if (present_success)
+        builder.append(success);
+
+      return builder.toHashCode();
+    }
+
+    public int compareTo(negotiateResponseCompression_result other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      negotiateResponseCompression_result typedOther = (negotiateResponseCompression_result)other;
+
+      lastComparison = Boolean.valueOf(is_set_success()).compareTo(typedOther.is_set_success());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (is_set_success()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.success, typedOther.success);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+      }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("negotiateResponseCompression_result(");
+      boolean first = true;
+
+      sb.append("success:");
+      if (this.success == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.success);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class negotiateResponseCompression_resultStandardSchemeFactory implements SchemeFactory {
+      public negotiateResponseCompression_resultStandardScheme getScheme() {
+        return new negotiateResponseCompression_resultStandardScheme();
+      }
+    }
+
+    private static class negotiateResponseCompression_resultStandardScheme extends StandardScheme<negotiateResponseCompression_result> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, negotiateResponseCompression_result struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 0: // SUCCESS
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
+                struct.success = iprot.readString();
+                struct.set_success_isSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, negotiateResponseCompression_result struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.success != null) {
+          oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
+          oprot.writeString(struct.success);
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class negotiateResponseCompression_resultTupleSchemeFactory implements SchemeFactory {
+      public negotiateResponseCompression_resultTupleScheme getScheme() {
+        return new negotiateResponseCompression_resultTupleScheme();
+      }
+    }
+
+    private static class negotiateResponseCompression_resultTupleScheme extends TupleScheme<negotiateResponseCompression_result> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, negotiateResponseCompression_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.is_set_success()) {
+          optionals.set(0);
+        }
+        oprot.writeBitSet(optionals, 1);
+        if (struct.is_set_success()) {
+          oprot.writeString(struct.success);
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, negotiateResponseCompression_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(1);
+        if (incoming.get(0)) {
+          struct.success = iprot.readString();
+          struct.set_success_isSet(true);
+        }
       }
     }
 
   }
 
-  public static class get_args implements org.apache.thrift.TBase<get_args, get_args._Fields>, java.io.Serializable, Cloneable   {
-    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("get_args");
+  public static class getBulkWithTimeout_args implements org.apache.thrift.TBase<getBulkWithTimeout_args, getBulkWithTimeout_args._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getBulkWithTimeout_args");
 
     private static final org.apache.thrift.protocol.TField DOMAIN_ID_FIELD_DESC = new org.apache.thrift.protocol.TField("domain_id", org.apache.thrift.protocol.TType.I32, (short)1);
-    private static final org.apache.thrift.protocol.TField KEY_FIELD_DESC = new org.apache.thrift.protocol.TField("key", org.apache.thrift.protocol.TType.STRING, (short)2);
+    private static final org.apache.thrift.protocol.TField KEYS_FIELD_DESC = new org.apache.thrift.protocol.TField("keys", org.apache.thrift.protocol.TType.LIST, (short)2);
+    private static final org.apache.thrift.protocol.TField TIMEOUT_MS_FIELD_DESC = new org.apache.thrift.protocol.TField("timeout_ms", org.apache.thrift.protocol.TType.I32, (short)3);
 
     private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
     static {
-      schemes.put(StandardScheme.class, new get_argsStandardSchemeFactory());
-      schemes.put(TupleScheme.class, new get_argsTupleSchemeFactory());
+      schemes.put(StandardScheme.class, new getBulkWithTimeout_argsStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getBulkWithTimeout_argsTupleSchemeFactory());
     }
 
     public int domain_id; // required
-    public ByteBuffer key; // required
+    public List<ByteBuffer> keys; // required
+    public int timeout_ms; // required
 
     /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
     public enum _Fields implements org.apache.thrift.TFieldIdEnum {
       DOMAIN_ID((short)1, "domain_id"),
-      KEY((short)2, "key");
+      KEYS((short)2, "keys"),
+      TIMEOUT_MS((short)3, "timeout_ms");
 
       private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -300,8 +6703,10 @@ public class PartitionServer {
         switch(fieldId) {
           case 1: // DOMAIN_ID
             return DOMAIN_ID;
-          case 2: // KEY
-            return KEY;
+          case 2: // KEYS
+            return KEYS;
+          case 3: // TIMEOUT_MS
+            return TIMEOUT_MS;
           default:
             return null;
         }
@@ -343,59 +6748,74 @@ public class PartitionServer {
 
     // isset id assignments
     private static final int __DOMAIN_ID_ISSET_ID = 0;
+    private static final int __TIMEOUT_MS_ISSET_ID = 1;
     private byte __isset_bitfield = 0;
     public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
     static {
       Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
       tmpMap.put(_Fields.DOMAIN_ID, new org.apache.thrift.meta_data.FieldMetaData("domain_id", org.apache.thrift.TFieldRequirementType.DEFAULT, 
           new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
-      tmpMap.put(_Fields.KEY, new org.apache.thrift.meta_data.FieldMetaData("key", org.apache.thrift.TFieldRequirementType.DEFAULT, 
-          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING          , true)));
+      tmpMap.put(_Fields.KEYS, new org.apache.thrift.meta_data.FieldMetaData("keys", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
+              new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING              , true))));
+      tmpMap.put(_Fields.TIMEOUT_MS, new org.apache.thrift.meta_data.FieldMetaData("timeout_ms", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
-      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(get_args.class, metaDataMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getBulkWithTimeout_args.class, metaDataMap);
     }
 
-    public get_args() {
+    public getBulkWithTimeout_args() {
     }
 
-    public get_args(
+    public getBulkWithTimeout_args(
       int domain_id,
-      ByteBuffer key)
+      List<ByteBuffer> keys,
+      int timeout_ms)
     {
       this();
       this.domain_id = domain_id;
       set_domain_id_isSet(true);
-      this.key = key;
+      this.keys = keys;
+      this.timeout_ms = timeout_ms;
+      set_timeout_ms_isSet(true);
     }
 
     /**
      * Performs a deep copy on <i>other</i>.
      */
-    public get_args(get_args other) {
+    public getBulkWithTimeout_args(getBulkWithTimeout_args other) {
       __isset_bitfield = other.__isset_bitfield;
       this.domain_id = other.domain_id;
-      if (other.is_set_key()) {
-        this.key = org.apache.thrift.TBaseHelper.copyBinary(other.key);
+      if (other.is_set_keys()) {
+        List<ByteBuffer> __this__keys = new ArrayList<ByteBuffer>();
+        for (ByteBuffer other_element : other.keys) {
+          ByteBuffer temp_binary_element = org.apache.thrift.TBaseHelper.copyBinary(other_element);
 ;
+          __this__keys.add(temp_binary_element);
+        }
+        this.keys = __this__keys;
       }
+      this.timeout_ms = other.timeout_ms;
     }
 
-    public get_args deepCopy() {
-      return new get_args(this);
+    public getBulkWithTimeout_args deepCopy() {
+      return new getBulkWithTimeout_args(this);
     }
 
     @Override
     public void clear() {
       set_domain_id_isSet(false);
       this.domain_id = 0;
-      this.key = null;
+      this.keys = null;
+      set_timeout_ms_isSet(false);
+      this.timeout_ms = 0;
     }
 
     public int get_domain_id() {
       return this.domain_id;
     }
 
-    public get_args set_domain_id(int domain_id) {
+    public getBulkWithTimeout_args set_domain_id(int domain_id) {
       this.domain_id = domain_id;
       set_domain_id_isSet(true);
       return this;
@@ -414,40 +6834,68 @@ public class PartitionServer {
       __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __DOMAIN_ID_ISSET_ID, value);
     }
 
-    public byte[] get_key() {
-      set_key(org.apache.thrift.TBaseHelper.rightSize(key));
-      return key == null ? null : key.array();
+    public int get_keys_size() {
+      return (this.keys == null) ? 0 : this.keys.size();
     }
 
-    public ByteBuffer buffer_for_key() {
-      return key;
+    public java.util.Iterator<ByteBuffer> get_keys_iterator() {
+      return (this.keys == null) ? null : this.keys.iterator();
     }
 
-    public get_args set_key(byte[] key) {
-      set_key(key == null ? (ByteBuffer)null : ByteBuffer.wrap(key));
-      return this;
+    public void add_to_keys(ByteBuffer elem) {
+      if (this.keys == null) {
+        this.keys = new ArrayList<ByteBuffer>();
+      }
+      this.keys.add(elem);
     }
 
-    public get_args set_key(ByteBuffer key) {
-      this.key = key;
+    public List<ByteBuffer> get_keys() {
+      return this.keys;
+    }
+
+    public getBulkWithTimeout_args set_keys(List<ByteBuffer> keys) {
+      this.keys = keys;
       return this;
     }
 
-    public void unset_key() {
-      this.key = null;
+    public void unset_keys() {
+      this.keys = null;
     }
 
-    /** Returns true if field key is set (has been assigned a value) and false otherwise */
-    public boolean is_set_key() {
-      return this.key != null;
+    /** Returns true if field keys is set (has been assigned a value) and false otherwise */
+    public boolean is_set_keys() {
+      return this.keys != null;
     }
 
-    public void set_key_isSet(boolean value) {
+    public void set_keys_isSet(boolean value) {
       if (!value) {
-        this.key = null;
+        this.keys = null;
       }
     }
 
+    public int get_timeout_ms() {
+      return this.timeout_ms;
+    }
+
+    public getBulkWithTimeout_args set_timeout_ms(int timeout_ms) {
+      this.timeout_ms = timeout_ms;
+      set_timeout_ms_isSet(true);
+      return this;
+    }
+
+    public void unset_timeout_ms() {
+      __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __TIMEOUT_MS_ISSET_ID);
+    }
+
+    /** Returns true if field timeout_ms is set (has been assigned a value) and false otherwise */
+    public boolean is_set_timeout_ms() {
+      return EncodingUtils.testBit(__isset_bitfield, __TIMEOUT_MS_ISSET_ID);
+    }
+
+    public void set_timeout_ms_isSet(boolean value) {
+      __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __TIMEOUT_MS_ISSET_ID, value);
+    }
+
     public void setFieldValue(_Fields field, Object value) {
       switch (field) {
       case DOMAIN_ID:
@@ -458,11 +6906,19 @@ public class PartitionServer {
         }
         break;
 
-      case KEY:
+      case KEYS:
         if (value == null) {
-          unset_key();
+          unset_keys();
         } else {
-          set_key((ByteBuffer)value);
+          set_keys((List<ByteBuffer>)value);
+        }
+        break;
+
+      case TIMEOUT_MS:
+        if (value == null) {
+          unset_timeout_ms();
+        } else {
+          set_timeout_ms((Integer)value);
         }
         break;
 
@@ -474,8 +6930,11 @@ public class PartitionServer {
       case DOMAIN_ID:
         return Integer.valueOf(get_domain_id());
 
-      case KEY:
-        return get_key();
+      case KEYS:
+        return get_keys();
+
+      case TIMEOUT_MS:
+        return Integer.valueOf(get_timeout_ms());
 
       }
       throw new IllegalStateException();
@@ -490,8 +6949,10 @@ public class PartitionServer {
       switch (field) {
       case DOMAIN_ID:
         return is_set_domain_id();
-      case KEY:
-        return is_set_key();
+      case KEYS:
+        return is_set_keys();
+      case TIMEOUT_MS:
+        return is_set_timeout_ms();
       }
       throw new IllegalStateException();
     }
@@ -500,12 +6961,12 @@ public class PartitionServer {
     public boolean equals(Object that) {
       if (that == null)
         return false;
-      if (that instanceof get_args)
-        return this.equals((get_args)that);
+      if (that instanceof getBulkWithTimeout_args)
+        return this.equals((getBulkWithTimeout_args)that);
       return false;
     }
 
-    public boolean equals(get_args that) {
+    public boolean equals(getBulkWithTimeout_args that) {
       if (that == null)
         return false;
 
@@ -518,12 +6979,21 @@ public class PartitionServer {
           return false;
       }
 
-      boolean this_present_key = true && this.is_set_key();
-      boolean that_present_key = true && that.is_set_key();
-      if (this_present_key || that_present_key) {
-        if (!(this_present_key && that_present_key))
+      boolean this_present_keys = true && this.is_set_keys();
+      boolean that_present_keys = true && that.is_set_keys();
+      if (this_present_keys || that_present_keys) {
+        if (!(this_present_keys && that_present_keys))
           return false;
-        if (!this.key.equals(that.key))
+        if (!this.keys.equals(that.keys))
+          return false;
+      }
+
+      boolean this_present_timeout_ms = true;
+      boolean that_present_timeout_ms = true;
+      if (this_present_timeout_ms || that_present_timeout_ms) {
+        if (!(this_present_timeout_ms && that_present_timeout_ms))
+          return false;
+        if (this.timeout_ms != that.timeout_ms)
           return false;
       }
 
@@ -539,21 +7009,26 @@ public class PartitionServer {
       if (present_domain_id)
         builder.append(domain_id);
 
-      boolean present_key = true && (is_set_key());
-      builder.append(present_key);
-      if (present_key)
-        builder.append(key);
+      boolean present_keys = true && (is_set_keys());
+      builder.append(present_keys);
+      if (present_keys)
+        builder.append(keys);
+
+      boolean present_timeout_ms = true;
+      builder.append(present_timeout_ms);
+      if (present_timeout_ms)
+        builder.append(timeout_ms);
 
       return builder.toHashCode();
     }
 
-    public int compareTo(get_args other) {
+    public int compareTo(getBulkWithTimeout_args other) {
       if (!getClass().equals(other.getClass())) {
         return getClass().getName().compareTo(other.getClass().getName());
       }
 
       int lastComparison = 0;
-      get_args typedOther = (get_args)other;
+      getBulkWithTimeout_args typedOther = (getBulkWithTimeout_args)other;
 
       lastComparison = Boolean.valueOf(is_set_domain_id()).compareTo(typedOther.is_set_domain_id());
       if (lastComparison != 0) {
@@ -565,12 +7040,22 @@ public class PartitionServer {
           return lastComparison;
         }
       }
-      lastComparison = Boolean.valueOf(is_set_key()).compareTo(typedOther.is_set_key());
+      lastComparison = Boolean.valueOf(is_set_keys()).compareTo(typedOther.is_set_keys());
       if (lastComparison != 0) {
         return lastComparison;
       }
-      if (is_set_key()) {
-        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.key, typedOther.key);
+      if (is_set_keys()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.keys, typedOther.keys);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(is_set_timeout_ms()).compareTo(typedOther.is_set_timeout_ms());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (is_set_timeout_ms()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.timeout_ms, typedOther.timeout_ms);
         if (lastComparison != 0) {
           return lastComparison;
         }
@@ -592,20 +7077,24 @@ public class PartitionServer {
 
     @Override
     public String toString() {
-      StringBuilder sb = new StringBuilder("get_args(");
+      StringBuilder sb = new StringBuilder("getBulkWithTimeout_args(");
       boolean first = true;
 
       sb.append("domain_id:");
       sb.append(this.domain_id);
       first = false;
       if (!first) sb.append(", ");
-      sb.append("key:");
-      if (this.key == null) {
+      sb.append("keys:");
+      if (this.keys == null) {
         sb.append("null");
       } else {
-        org.apache.thrift.TBaseHelper.toString(this.key, sb);
+        sb.append(this.keys);
       }
       first = false;
+      if (!first) sb.append(", ");
+      sb.append("timeout_ms:");
+      sb.append(this.timeout_ms);
+      first = false;
       sb.append(")");
       return sb.toString();
     }
@@ -633,15 +7122,15 @@ public class PartitionServer {
       }
     }
 
-    private static class get_argsStandardSchemeFactory implements SchemeFactory {
-      public get_argsStandardScheme getScheme() {
-        return new get_argsStandardScheme();
+    private static class getBulkWithTimeout_argsStandardSchemeFactory implements SchemeFactory {
+      public getBulkWithTimeout_argsStandardScheme getScheme() {
+        return new getBulkWithTimeout_argsStandardScheme();
       }
     }
 
-    private static class get_argsStandardScheme extends StandardScheme<get_args> {
+    private static class getBulkWithTimeout_argsStandardScheme extends StandardScheme<getBulkWithTimeout_args> {
 
-      public void read(org.apache.thrift.protocol.TProtocol iprot, get_args struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getBulkWithTimeout_args struct) throws org.apache.thrift.TException {
         org.apache.thrift.protocol.TField schemeField;
         iprot.readStructBegin();
         while (true)
@@ -659,10 +7148,28 @@ public class PartitionServer {
                 org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
               }
               break;
-            case 2: // KEY
-              if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
-                struct.key = iprot.readBinary();
-                struct.set_key_isSet(true);
+            case 2: // KEYS
+              if (schemeField.type == org.apache.thrift.protocol.TType.LIST) {
+                {
+                  org.apache.thrift.protocol.TList _list200 = iprot.readListBegin();
+                  struct.keys = new ArrayList<ByteBuffer>(_list200.size);
+                  for (int _i201 = 0; _i201 < _list200.size; ++_i201)
+                  {
+                    ByteBuffer _elem202; // optional
+                    _elem202 = iprot.readBinary();
+                    struct.keys.add(_elem202);
+                  }
+                  iprot.readListEnd();
+                }
+                struct.set_keys_isSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            case 3: // TIMEOUT_MS
+              if (schemeField.type == org.apache.thrift.protocol.TType.I32) {
+                struct.timeout_ms = iprot.readI32();
+                struct.set_timeout_ms_isSet(true);
               } else { 
                 org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
               }
@@ -678,80 +7185,115 @@ public class PartitionServer {
         struct.validate();
       }
 
-      public void write(org.apache.thrift.protocol.TProtocol oprot, get_args struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getBulkWithTimeout_args struct) throws org.apache.thrift.TException {
         struct.validate();
 
         oprot.writeStructBegin(STRUCT_DESC);
         oprot.writeFieldBegin(DOMAIN_ID_FIELD_DESC);
         oprot.writeI32(struct.domain_id);
         oprot.writeFieldEnd();
-        if (struct.key != null) {
-          oprot.writeFieldBegin(KEY_FIELD_DESC);
-          oprot.writeBinary(struct.key);
+        if (struct.keys != null) {
+          oprot.writeFieldBegin(KEYS_FIELD_DESC);
+          {
+            oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRING, struct.keys.size()));
+            for (ByteBuffer _iter203 : struct.keys)
+            {
+              oprot.writeBinary(_iter203);
+            }
+            oprot.writeListEnd();
+          }
           oprot.writeFieldEnd();
         }
+        oprot.writeFieldBegin(TIMEOUT_MS_FIELD_DESC);
+        oprot.writeI32(struct.timeout_ms);
+        oprot.writeFieldEnd();
         oprot.writeFieldStop();
         oprot.writeStructEnd();
       }
 
     }
 
-    private static class get_argsTupleSchemeFactory implements SchemeFactory {
-      public get_argsTupleScheme getScheme() {
-        return new get_argsTupleScheme();
+    private static class getBulkWithTimeout_argsTupleSchemeFactory implements SchemeFactory {
+      public getBulkWithTimeout_argsTupleScheme getScheme() {
+        return new getBulkWithTimeout_argsTupleScheme();
       }
     }
 
-    private static class get_argsTupleScheme extends TupleScheme<get_args> {
+    private static class getBulkWithTimeout_argsTupleScheme extends TupleScheme<getBulkWithTimeout_args> {
 
       @Override
-      public void write(org.apache.thrift.protocol.TProtocol prot, get_args struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol prot, getBulkWithTimeout_args struct) throws org.apache.thrift.TException {
         TTupleProtocol oprot = (TTupleProtocol) prot;
         BitSet optionals = new BitSet();
         if (struct.is_set_domain_id()) {
           optionals.set(0);
         }
-        if (struct.is_set_key()) {
+        if (struct.is_set_keys()) {
           optionals.set(1);
         }
-        oprot.writeBitSet(optionals, 2);
+        if (struct.is_set_timeout_ms()) {
+          optionals.set(2);
+        }
+        oprot.writeBitSet(optionals, 3);
         if (struct.is_set_domain_id()) {
           oprot.writeI32(struct.domain_id);
         }
-        if (struct.is_set_key()) {
-          oprot.writeBinary(struct.key);
+        if (struct.is_set_keys()) {
+          {
+            oprot.writeI32(struct.keys.size());
+            for (ByteBuffer _iter204 : struct.keys)
+            {
+              oprot.writeBinary(_iter204);
+            }
+          }
+        }
+        if (struct.is_set_timeout_ms()) {
+          oprot.writeI32(struct.timeout_ms);
         }
       }
 
       @Override
-      public void read(org.apache.thrift.protocol.TProtocol prot, get_args struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol prot, getBulkWithTimeout_args struct) throws org.apache.thrift.TException {
         TTupleProtocol iprot = (TTupleProtocol) prot;
-        BitSet incoming = iprot.readBitSet(2);
+        BitSet incoming = iprot.readBitSet(3);
         if (incoming.get(0)) {
           struct.domain_id = iprot.readI32();
           struct.set_domain_id_isSet(true);
         }
         if (incoming.get(1)) {
-          struct.key = iprot.readBinary();
-          struct.set_key_isSet(true);
+          {
+            org.apache.thrift.protocol.TList _list205 = new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRING, iprot.readI32());
+            struct.keys = new ArrayList<ByteBuffer>(_list205.size);
+            for (int _i206 = 0; _i206 < _list205.size; ++_i206)
+            {
+              ByteBuffer _elem207; // optional
+              _elem207 = iprot.readBinary();
+              struct.keys.add(_elem207);
+            }
+          }
+          struct.set_keys_isSet(true);
+        }
+        if (incoming.get(2)) {
+          struct.timeout_ms = iprot.readI32();
+          struct.set_timeout_ms_isSet(true);
         }
       }
     }
 
   }
 
-  public static class get_result implements org.apache.thrift.TBase<get_result, get_result._Fields>, java.io.Serializable, Cloneable   {
-    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("get_result");
+  public static class getBulkWithTimeout_result implements org.apache.thrift.TBase<getBulkWithTimeout_result, getBulkWithTimeout_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getBulkWithTimeout_result");
 
     private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.STRUCT, (short)0);
 
     private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
     static {
-      schemes.put(StandardScheme.class, new get_resultStandardSchemeFactory());
-      schemes.put(TupleScheme.class, new get_resultTupleSchemeFactory());
+      schemes.put(StandardScheme.class, new getBulkWithTimeout_resultStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getBulkWithTimeout_resultTupleSchemeFactory());
     }
 
-    public HankResponse success; // required
+    public HankBulkResponse success; // required
 
     /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
     public enum _Fields implements org.apache.thrift.TFieldIdEnum {
@@ -816,16 +7358,16 @@ public class PartitionServer {
     static {
       Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
       tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
-          new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, HankResponse.class)));
+          new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, HankBulkResponse.class)));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
-      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(get_result.class, metaDataMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getBulkWithTimeout_result.class, metaDataMap);
     }
 
-    public get_result() {
+    public getBulkWithTimeout_result() {
     }
 
-    public get_result(
-      HankResponse success)
+    public getBulkWithTimeout_result(
+      HankBulkResponse success)
     {
       this();
       this.success = success;
@@ -834,14 +7376,14 @@ public class PartitionServer {
     /**
      * Performs a deep copy on <i>other</i>.
      */
-    public get_result(get_result other) {
+    public getBulkWithTimeout_result(getBulkWithTimeout_result other) {
       if (other.is_set_success()) {
-        this.success = new HankResponse(other.success);
+        this.success = new HankBulkResponse(other.success);
       }
     }
 
-    public get_result deepCopy() {
-      return new get_result(this);
+    public getBulkWithTimeout_result deepCopy() {
+      return new getBulkWithTimeout_result(this);
     }
 
     @Override
@@ -849,11 +7391,11 @@ public class PartitionServer {
       this.success = null;
     }
 
-    public HankResponse get_success() {
+    public HankBulkResponse get_success() {
       return this.success;
     }
 
-    public get_result set_success(HankResponse success) {
+    public getBulkWithTimeout_result set_success(HankBulkResponse success) {
       this.success = success;
       return this;
     }
@@ -879,7 +7421,7 @@ public class PartitionServer {
         if (value == null) {
           unset_success();
         } else {
-          set_success((HankResponse)value);
+          set_success((HankBulkResponse)value);
         }
         break;
 
@@ -912,12 +7454,12 @@ public class PartitionServer {
     public boolean equals(Object that) {
       if (that == null)
         return false;
-      if (that instanceof get_result)
-        return this.equals((get_result)that);
+      if (that instanceof getBulkWithTimeout_result)
+        return this.equals((getBulkWithTimeout_result)that);
       return false;
     }
 
-    public boolean equals(get_result that) {
+    public boolean equals(getBulkWithTimeout_result that) {
       if (that == null)
         return false;
 
@@ -945,13 +7487,13 @@ public class PartitionServer {
       return builder.toHashCode();
     }
 
-    public int compareTo(get_result other) {
+    public int compareTo(getBulkWithTimeout_result other) {
       if (!getClass().equals(other.getClass())) {
         return getClass().getName().compareTo(other.getClass().getName());
       }
 
       int lastComparison = 0;
-      get_result typedOther = (get_result)other;
+      getBulkWithTimeout_result typedOther = (getBulkWithTimeout_result)other;
 
       lastComparison = Boolean.valueOf(is_set_success()).compareTo(typedOther.is_set_success());
       if (lastComparison != 0) {
@@ -980,7 +7522,7 @@ public class PartitionServer {
 
     @Override
     public String toString() {
-      StringBuilder sb = new StringBuilder("get_result(");
+      StringBuilder sb = new StringBuilder("getBulkWithTimeout_result(");
       boolean first = true;
 
       sb.append("success:");
@@ -1013,17 +7555,17 @@ public class PartitionServer {
       } catch (org.apache.thrift.TException te) {
         throw new java.io.IOException(te);
       }
-    }
-
-    private static class get_resultStandardSchemeFactory implements SchemeFactory {
-      public get_resultStandardScheme getScheme() {
-        return new get_resultStandardScheme();
+    }
+
+    private static class getBulkWithTimeout_resultStandardSchemeFactory implements SchemeFactory {
+      public getBulkWithTimeout_resultStandardScheme getScheme() {
+        return new getBulkWithTimeout_resultStandardScheme();
       }
     }
 
-    private static class get_resultStandardScheme extends StandardScheme<get_result> {
+    private static class getBulkWithTimeout_resultStandardScheme extends StandardScheme<getBulkWithTimeout_result> {
 
-      public void read(org.apache.thrift.protocol.TProtocol iprot, get_result struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getBulkWithTimeout_result struct) throws org.apache.thrift.TException {
         org.apache.thrift.protocol.TField schemeField;
         iprot.readStructBegin();
         while (true)
@@ -1035,7 +7577,7 @@ public class PartitionServer {
           switch (schemeField.id) {
             case 0: // SUCCESS
               if (schemeField.type == org.apache.thrift.protocol.TType.STRUCT) {
-                struct.success = new HankResponse();
+                struct.success = new HankBulkResponse();
                 struct.success.read(iprot);
                 struct.set_success_isSet(true);
               } else { 
@@ -1053,7 +7595,7 @@ public class PartitionServer {
         struct.validate();
       }
 
-      public void write(org.apache.thrift.protocol.TProtocol oprot, get_result struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getBulkWithTimeout_result struct) throws org.apache.thrift.TException {
         struct.validate();
 
         oprot.writeStructBegin(STRUCT_DESC);
@@ -1068,16 +7610,16 @@ public class PartitionServer {
 
     }
 
-    private static class get_resultTupleSchemeFactory implements SchemeFactory {
-      public get_resultTupleScheme getScheme() {
-        return new get_resultTupleScheme();
+    private static class getBulkWithTimeout_resultTupleSchemeFactory implements SchemeFactory {
+      public getBulkWithTimeout_resultTupleScheme getScheme() {
+        return new getBulkWithTimeout_resultTupleScheme();
       }
     }
 
-    private static class get_resultTupleScheme extends TupleScheme<get_result> {
+    private static class getBulkWithTimeout_resultTupleScheme extends TupleScheme<getBulkWithTimeout_result> {
 
       @Override
-      public void write(org.apache.thrift.protocol.TProtocol prot, get_result struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol prot, getBulkWithTimeout_result struct) throws org.apache.thrift.TException {
         TTupleProtocol oprot = (TTupleProtocol) prot;
         BitSet optionals = new BitSet();
         if (struct.is_set_success()) {
@@ -1090,11 +7632,11 @@ public class PartitionServer {
       }
 
       @Override
-      public void read(org.apache.thrift.protocol.TProtocol prot, get_result struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol prot, getBulkWithTimeout_result struct) throws org.apache.thrift.TException {
         TTupleProtocol iprot = (TTupleProtocol) prot;
         BitSet incoming = iprot.readBitSet(1);
         if (incoming.get(0)) {
-          struct.success = new HankResponse();
+          struct.success = new HankBulkResponse();
           struct.success.read(iprot);
           struct.set_success_isSet(true);
         }
@@ -1103,25 +7645,28 @@ public class PartitionServer {
 
   }
 
-  public static class getBulk_args implements org.apache.thrift.TBase<getBulk_args, getBulk_args._Fields>, java.io.Serializable, Cloneable   {
-    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getBulk_args");
+  public static class checkPartitioner_args implements org.apache.thrift.TBase<checkPartitioner_args, checkPartitioner_args._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("checkPartitioner_args");
 
     private static final org.apache.thrift.protocol.TField DOMAIN_ID_FIELD_DESC = new org.apache.thrift.protocol.TField("domain_id", org.apache.thrift.protocol.TType.I32, (short)1);
-    private static final org.apache.thrift.protocol.TField KEYS_FIELD_DESC = new org.apache.thrift.protocol.TField("keys", org.apache.thrift.protocol.TType.LIST, (short)2);
+    private static final org.apache.thrift.protocol.TField PARTITIONER_FIELD_DESC = new org.apache.thrift.protocol.TField("partitioner", org.apache.thrift.protocol.TType.STRING, (short)2);
+    private static final org.apache.thrift.protocol.TField NUM_PARTITIONS_FIELD_DESC = new org.apache.thrift.protocol.TField("num_partitions", org.apache.thrift.protocol.TType.I32, (short)3);
 
     private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
     static {
-      schemes.put(StandardScheme.class, new getBulk_argsStandardSchemeFactory());
-      schemes.put(TupleScheme.class, new getBulk_argsTupleSchemeFactory());
+      schemes.put(StandardScheme.class, new checkPartitioner_argsStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new checkPartitioner_argsTupleSchemeFactory());
     }
 
     public int domain_id; // required
-    public List<ByteBuffer> keys; // required
+    public String partitioner; // required
+    public int num_partitions; // required
 
     /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
     public enum _Fields implements org.apache.thrift.TFieldIdEnum {
       DOMAIN_ID((short)1, "domain_id"),
-      KEYS((short)2, "keys");
+      PARTITIONER((short)2, "partitioner"),
+      NUM_PARTITIONS((short)3, "num_partitions");
 
       private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -1138,8 +7683,10 @@ public class PartitionServer {
         switch(fieldId) {
           case 1: // DOMAIN_ID
             return DOMAIN_ID;
-          case 2: // KEYS
-            return KEYS;
+          case 2: // PARTITIONER
+            return PARTITIONER;
+          case 3: // NUM_PARTITIONS
+            return NUM_PARTITIONS;
           default:
             return null;
         }
@@ -1181,65 +7728,67 @@ public class PartitionServer {
 
     // isset id assignments
     private static final int __DOMAIN_ID_ISSET_ID = 0;
+    private static final int __NUM_PARTITIONS_ISSET_ID = 1;
     private byte __isset_bitfield = 0;
     public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
     static {
       Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
       tmpMap.put(_Fields.DOMAIN_ID, new org.apache.thrift.meta_data.FieldMetaData("domain_id", org.apache.thrift.TFieldRequirementType.DEFAULT, 
           new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
-      tmpMap.put(_Fields.KEYS, new org.apache.thrift.meta_data.FieldMetaData("keys", org.apache.thrift.TFieldRequirementType.DEFAULT, 
-          new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
-              new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING              , true))));
+      tmpMap.put(_Fields.PARTITIONER, new org.apache.thrift.meta_data.FieldMetaData("partitioner", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
+      tmpMap.put(_Fields.NUM_PARTITIONS, new org.apache.thrift.meta_data.FieldMetaData("num_partitions", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
-      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getBulk_args.class, metaDataMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(checkPartitioner_args.class, metaDataMap);
     }
 
-    public getBulk_args() {
+    public checkPartitioner_args() {
     }
 
-    public getBulk_args(
+    public checkPartitioner_args(
       int domain_id,
-      List<ByteBuffer> keys)
+      String partitioner,
+      int num_partitions)
     {
       this();
       this.domain_id = domain_id;
       set_domain_id_isSet(true);
-      this.keys = keys;
+      this.partitioner = partitioner;
+      this.num_partitions = num_partitions;
+      set_num_partitions_isSet(true);
     }
 
     /**
      * Performs a deep copy on <i>other</i>.
      */
-    public getBulk_args(getBulk_args other) {
+    public checkPartitioner_args(checkPartitioner_args other) {
       __isset_bitfield = other.__isset_bitfield;
       this.domain_id = other.domain_id;
-      if (other.is_set_keys()) {
-        List<ByteBuffer> __this__keys = new ArrayList<ByteBuffer>();
-        for (ByteBuffer other_element : other.keys) {
-          ByteBuffer temp_binary_element = org.apache.thrift.TBaseHelper.copyBinary(other_element);
-;
-          __this__keys.add(temp_binary_element);
-        }
-        this.keys = __this__keys;
+      if (other.is_set_partitioner()) {
+        this.partitioner = other.partitioner;
       }
+      this.num_partitions = other.num_partitions;
     }
 
-    public getBulk_args deepCopy() {
-      return new getBulk_args(this);
+    public checkPartitioner_args deepCopy() {
+      return new checkPartitioner_args(this);
     }
 
     @Override
     public void clear() {
       set_domain_id_isSet(false);
       this.domain_id = 0;
-      this.keys = null;
+      this.partitioner = null;
+      set_num_partitions_isSet(false);
+      this.num_partitions = 0;
     }
 
     public int get_domain_id() {
       return this.domain_id;
     }
 
-    public getBulk_args set_domain_id(int domain_id) {
+    public checkPartitioner_args set_domain_id(int domain_id) {
       this.domain_id = domain_id;
       set_domain_id_isSet(true);
       return this;
@@ -1258,43 +7807,51 @@ public class PartitionServer {
       __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __DOMAIN_ID_ISSET_ID, value);
     }
 
-    public int get_keys_size() {
-      return (this.keys == null) ? 0 : this.keys.size();
+    public String get_partitioner() {
+      return this.partitioner;
     }
 
-    public java.util.Iterator<ByteBuffer> get_keys_iterator() {
-      return (this.keys == null) ? null : this.keys.iterator();
+    public checkPartitioner_args set_partitioner(String partitioner) {
+      this.partitioner = partitioner;
+      return this;
     }
 
-    public void add_to_keys(ByteBuffer elem) {
-      if (this.keys == null) {
-        this.keys = new ArrayList<ByteBuffer>();
+    public void unset_partitioner() {
+      this.partitioner = null;
+    }
+
+    /** Returns true if field partitioner is set (has been assigned a value) and false otherwise */
+    public boolean is_set_partitioner() {
+      return this.partitioner != null;
+    }
+
+    public void set_partitioner_isSet(boolean value) {
+      if (!value) {
+        this.partitioner = null;
       }
-      this.keys.add(elem);
     }
 
-    public List<ByteBuffer> get_keys() {
-      return this.keys;
+    public int get_num_partitions() {
+      return this.num_partitions;
     }
 
-    public getBulk_args set_keys(List<ByteBuffer> keys) {
-      this.keys = keys;
+    public checkPartitioner_args set_num_partitions(int num_partitions) {
+      this.num_partitions = num_partitions;
+      set_num_partitions_isSet(true);
       return this;
     }
 
-    public void unset_keys() {
-      this.keys = null;
+    public void unset_num_partitions() {
+      __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __NUM_PARTITIONS_ISSET_ID);
     }
 
-    /** Returns true if field keys is set (has been assigned a value) and false otherwise */
-    public boolean is_set_keys() {
-      return this.keys != null;
+    /** Returns true if field num_partitions is set (has been assigned a value) and false otherwise */
+    public boolean is_set_num_partitions() {
+      return EncodingUtils.testBit(__isset_bitfield, __NUM_PARTITIONS_ISSET_ID);
     }
 
-    public void set_keys_isSet(boolean value) {
-      if (!value) {
-        this.keys = null;
-      }
+    public void set_num_partitions_isSet(boolean value) {
+      __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __NUM_PARTITIONS_ISSET_ID, value);
     }
 
     public void setFieldValue(_Fields field, Object value) {
@@ -1307,11 +7864,19 @@ public class PartitionServer {
         }
         break;
 
-      case KEYS:
+      case PARTITIONER:
         if (value == null) {
-          unset_keys();
+          unset_partitioner();
         } else {
-          set_keys((List<ByteBuffer>)value);
+          set_partitioner((String)value);
+        }
+        break;
+
+      case NUM_PARTITIONS:
+        if (value == null) {
+          unset_num_partitions();
+        } else {
+          set_num_partitions((Integer)value);
         }
         break;
 
@@ -1323,8 +7888,11 @@ public class PartitionServer {
       case DOMAIN_ID:
         return Integer.valueOf(get_domain_id());
 
-      case KEYS:
-        return get_keys();
+      case PARTITIONER:
+        return get_partitioner();
+
+      case NUM_PARTITIONS:
+        return Integer.valueOf(get_num_partitions());
 
       }
       throw new IllegalStateException();
@@ -1339,8 +7907,10 @@ public class PartitionServer {
       switch (field) {
       case DOMAIN_ID:
         return is_set_domain_id();
-      case KEYS:
-        return is_set_keys();
+      case PARTITIONER:
+        return is_set_partitioner();
+      case NUM_PARTITIONS:
+        return is_set_num_partitions();
       }
       throw new IllegalStateException();
     }
@@ -1349,12 +7919,12 @@ public class PartitionServer {
     public boolean equals(Object that) {
       if (that == null)
         return false;
-      if (that instanceof getBulk_args)
-        return this.equals((getBulk_args)that);
+      if (that instanceof checkPartitioner_args)
+        return this.equals((checkPartitioner_args)that);
       return false;
     }
 
-    public boolean equals(getBulk_args that) {
+    public boolean equals(checkPartitioner_args that) {
       if (that == null)
         return false;
 
@@ -1367,12 +7937,21 @@ public class PartitionServer {
           return false;
       }
 
-      boolean this_present_keys = true && this.is_set_keys();
-      boolean that_present_keys = true && that.is_set_keys();
-      if (this_present_keys || that_present_keys) {
-        if (!(this_present_keys && that_present_keys))
+      boolean this_present_partitioner = true && this.is_set_partitioner();
+      boolean that_present_partitioner = true && that.is_set_partitioner();
+      if (this_present_partitioner || that_present_partitioner) {
+        if (!(this_present_partitioner && that_present_partitioner))
           return false;
-        if (!this.keys.equals(that.keys))
+        if (!this.partitioner.equals(that.partitioner))
+          return false;
+      }
+
+      boolean this_present_num_partitions = true;
+      boolean that_present_num_partitions = true;
+      if (this_present_num_partitions || that_present_num_partitions) {
+        if (!(this_present_num_partitions && that_present_num_partitions))
+          return false;
+        if (this.num_partitions != that.num_partitions)
           return false;
       }
 
@@ -1388,21 +7967,26 @@ public class PartitionServer {
       if (present_domain_id)
         builder.append(domain_id);
 
-      boolean present_keys = true && (is_set_keys());
-      builder.append(present_keys);
-      if (present_keys)
-        builder.append(keys);
+      boolean present_partitioner = true && (is_set_partitioner());
+      builder.append(present_partitioner);
+      if (present_partitioner)
+        builder.append(partitioner);
+
+      boolean present_num_partitions = true;
+      builder.append(present_num_partitions);
+      if (present_num_partitions)
+        builder.append(num_partitions);
 
       return builder.toHashCode();
     }
 
-    public int compareTo(getBulk_args other) {
+    public int compareTo(checkPartitioner_args other) {
       if (!getClass().equals(other.getClass())) {
         return getClass().getName().compareTo(other.getClass().getName());
       }
 
       int lastComparison = 0;
-      getBulk_args typedOther = (getBulk_args)other;
+      checkPartitioner_args typedOther = (checkPartitioner_args)other;
 
       lastComparison = Boolean.valueOf(is_set_domain_id()).compareTo(typedOther.is_set_domain_id());
       if (lastComparison != 0) {
@@ -1414,12 +7998,22 @@ public class PartitionServer {
           return lastComparison;
         }
       }
-      lastComparison = Boolean.valueOf(is_set_keys()).compareTo(typedOther.is_set_keys());
+      lastComparison = Boolean.valueOf(is_set_partitioner()).compareTo(typedOther.is_set_partitioner());
       if (lastComparison != 0) {
         return lastComparison;
       }
-      if (is_set_keys()) {
-        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.keys, typedOther.keys);
+      if (is_set_partitioner()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.partitioner, typedOther.partitioner);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(is_set_num_partitions()).compareTo(typedOther.is_set_num_partitions());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (is_set_num_partitions()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.num_partitions, typedOther.num_partitions);
         if (lastComparison != 0) {
           return lastComparison;
         }
@@ -1441,20 +8035,24 @@ public class PartitionServer {
 
     @Override
     public String toString() {
-      StringBuilder sb = new StringBuilder("getBulk_args(");
+      StringBuilder sb = new StringBuilder("checkPartitioner_args(");
       boolean first = true;
 
       sb.append("domain_id:");
       sb.append(this.domain_id);
       first = false;
       if (!first) sb.append(", ");
-      sb.append("keys:");
-      if (this.keys == null) {
+      sb.append("partitioner:");
+      if (this.partitioner == null) {
         sb.append("null");
       } else {
-        sb.append(this.keys);
+        sb.append(this.partitioner);
       }
       first = false;
+      if (!first) sb.append(", ");
+      sb.append("num_partitions:");
+      sb.append(this.num_partitions);
+      first = false;
       sb.append(")");
       return sb.toString();
     }
@@ -1482,15 +8080,15 @@ public class PartitionServer {
       }
     }
 
-    private static class getBulk_argsStandardSchemeFactory implements SchemeFactory {
-      public getBulk_argsStandardScheme getScheme() {
-        return new getBulk_argsStandardScheme();
+    private static class checkPartitioner_argsStandardSchemeFactory implements SchemeFactory {
+      public checkPartitioner_argsStandardScheme getScheme() {
+        return new checkPartitioner_argsStandardScheme();
       }
     }
 
-    private static class getBulk_argsStandardScheme extends StandardScheme<getBulk_args> {
+    private static class checkPartitioner_argsStandardScheme extends StandardScheme<checkPartitioner_args> {
 
-      public void read(org.apache.thrift.protocol.TProtocol iprot, getBulk_args struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol iprot, checkPartitioner_args struct) throws org.apache.thrift.TException {
         org.apache.thrift.protocol.TField schemeField;
         iprot.readStructBegin();
         while (true)
@@ -1508,20 +8106,18 @@ public class PartitionServer {
                 org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
               }
               break;
-            case 2: // KEYS
-              if (schemeField.type == org.apache.thrift.protocol.TType.LIST) {
-                {
-                  org.apache.thrift.protocol.TList _list58 = iprot.readListBegin();
-                  struct.keys = new ArrayList<ByteBuffer>(_list58.size);
-                  for (int _i59 = 0; _i59 < _list58.size; ++_i59)
-                  {
-                    ByteBuffer _elem60; // optional
-                    _elem60 = iprot.readBinary();
-                    struct.keys.add(_elem60);
-                  }
-                  iprot.readListEnd();
-                }
-                struct.set_keys_isSet(true);
+            case 2: // PARTITIONER
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
+                struct.partitioner = iprot.readString();
+                struct.set_partitioner_isSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            case 3: // NUM_PARTITIONS
+              if (schemeField.type == org.apache.thrift.protocol.TType.I32) {
+                struct.num_partitions = iprot.readI32();
+                struct.set_num_partitions_isSet(true);
               } else { 
                 org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
               }
@@ -1537,102 +8133,93 @@ public class PartitionServer {
         struct.validate();
       }
 
-      public void write(org.apache.thrift.protocol.TProtocol oprot, getBulk_args struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol oprot, checkPartitioner_args struct) throws org.apache.thrift.TException {
         struct.validate();
 
         oprot.writeStructBegin(STRUCT_DESC);
         oprot.writeFieldBegin(DOMAIN_ID_FIELD_DESC);
         oprot.writeI32(struct.domain_id);
         oprot.writeFieldEnd();
-        if (struct.keys != null) {
-          oprot.writeFieldBegin(KEYS_FIELD_DESC);
-          {
-            oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRING, struct.keys.size()));
-            for (ByteBuffer _iter61 : struct.keys)
-            {
-              oprot.writeBinary(_iter61);
-            }
-            oprot.writeListEnd();
-          }
+        if (struct.partitioner != null) {
+          oprot.writeFieldBegin(PARTITIONER_FIELD_DESC);
+          oprot.writeString(struct.partitioner);
           oprot.writeFieldEnd();
         }
+        oprot.writeFieldBegin(NUM_PARTITIONS_FIELD_DESC);
+        oprot.writeI32(struct.num_partitions);
+        oprot.writeFieldEnd();
         oprot.writeFieldStop();
         oprot.writeStructEnd();
       }
 
     }
 
-    private static class getBulk_argsTupleSchemeFactory implements SchemeFactory {
-      public getBulk_argsTupleScheme getScheme() {
-        return new getBulk_argsTupleScheme();
+    private static class checkPartitioner_argsTupleSchemeFactory implements SchemeFactory {
+      public checkPartitioner_argsTupleScheme getScheme() {
+        return new checkPartitioner_argsTupleScheme();
       }
     }
 
-    private static class getBulk_argsTupleScheme extends TupleScheme<getBulk_args> {
+    private static class checkPartitioner_argsTupleScheme extends TupleScheme<checkPartitioner_args> {
 
       @Override
-      public void write(org.apache.thrift.protocol.TProtocol prot, getBulk_args struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol prot, checkPartitioner_args struct) throws org.apache.thrift.TException {
         TTupleProtocol oprot = (TTupleProtocol) prot;
         BitSet optionals = new BitSet();
         if (struct.is_set_domain_id()) {
           optionals.set(0);
         }
-        if (struct.is_set_keys()) {
+        if (struct.is_set_partitioner()) {
           optionals.set(1);
         }
-        oprot.writeBitSet(optionals, 2);
+        if (struct.is_set_num_partitions()) {
+          optionals.set(2);
+        }
+        oprot.writeBitSet(optionals, 3);
         if (struct.is_set_domain_id()) {
           oprot.writeI32(struct.domain_id);
         }
-        if (struct.is_set_keys()) {
-          {
-            oprot.writeI32(struct.keys.size());
-            for (ByteBuffer _iter62 : struct.keys)
-            {
-              oprot.writeBinary(_iter62);
-            }
-          }
+        if (struct.is_set_partitioner()) {
+          oprot.writeString(struct.partitioner);
+        }
+        if (struct.is_set_num_partitions()) {
+          oprot.writeI32(struct.num_partitions);
         }
       }
 
       @Override
-      public void read(org.apache.thrift.protocol.TProtocol prot, getBulk_args struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol prot, checkPartitioner_args struct) throws org.apache.thrift.TException {
         TTupleProtocol iprot = (TTupleProtocol) prot;
-        BitSet incoming = iprot.readBitSet(2);
+        BitSet incoming = iprot.readBitSet(3);
         if (incoming.get(0)) {
           struct.domain_id = iprot.readI32();
           struct.set_domain_id_isSet(true);
         }
         if (incoming.get(1)) {
-          {
-            org.apache.thrift.protocol.TList _list63 = new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRING, iprot.readI32());
-            struct.keys = new ArrayList<ByteBuffer>(_list63.size);
-            for (int _i64 = 0; _i64 < _list63.size; ++_i64)
-            {
-              ByteBuffer _elem65; // optional
-              _elem65 = iprot.readBinary();
-              struct.keys.add(_elem65);
-            }
-          }
-          struct.set_keys_isSet(true);
+          struct.partitioner = iprot.readString();
+          struct.set_partitioner_isSet(true);
+        }
+        if (incoming.get(2)) {
+          struct.num_partitions = iprot.readI32();
+          struct.set_num_partitions_isSet(true);
         }
       }
     }
 
   }
 
-  public static class getBulk_result implements org.apache.thrift.TBase<getBulk_result, getBulk_result._Fields>, java.io.Serializable, Cloneable   {
-    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getBulk_result");
+  public static class checkPartitioner_result implements org.apache.thrift.TBase<checkPartitioner_result, checkPartitioner_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("checkPartitioner_result");
 
-    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.STRUCT, (short)0);
+    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.BOOL, (short)0);
 
     private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
     static {
-      schemes.put(StandardScheme.class, new getBulk_resultStandardSchemeFactory());
-      schemes.put(TupleScheme.class, new getBulk_resultTupleSchemeFactory());
+      schemes.put(StandardScheme.class, new checkPartitioner_resultStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new checkPartitioner_resultTupleSchemeFactory());
     }
 
-    public HankBulkResponse success; // required
+    public boolean success; // required
 
     /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
     public enum _Fields implements org.apache.thrift.TFieldIdEnum {
@@ -1693,65 +8280,67 @@ public class PartitionServer {
     }
 
     // isset id assignments
+    private static final int __SUCCESS_ISSET_ID = 0;
+    private byte __isset_bitfield = 0;
     public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
     static {
       Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
       tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
-          new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, HankBulkResponse.class)));
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.BOOL)));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
-      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getBulk_result.class, metaDataMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(checkPartitioner_result.class, metaDataMap);
     }
 
-    public getBulk_result() {
+    public checkPartitioner_result() {
     }
 
-    public getBulk_result(
-      HankBulkResponse success)
+    public checkPartitioner_result(
+      boolean success)
     {
       this();
       this.success = success;
+      set_success_isSet(true);
     }
 
     /**
      * Performs a deep copy on <i>other</i>.
      */
-    public getBulk_result(getBulk_result other) {
-      if (other.is_set_success()) {
-        this.success = new HankBulkResponse(other.success);
-      }
+    public checkPartitioner_result(checkPartitioner_result other) {
+      __isset_bitfield = other.__isset_bitfield;
+      this.success = other.success;
     }
 
-    public getBulk_result deepCopy() {
-      return new getBulk_result(this);
+    public checkPartitioner_result deepCopy() {
+      return new checkPartitioner_result(this);
     }
 
     @Override
     public void clear() {
-      this.success = null;
+      set_success_isSet(false);
+      this.success = false;
     }
 
-    public HankBulkResponse get_success() {
+    public boolean is_success() {
       return this.success;
     }
 
-    public getBulk_result set_success(HankBulkResponse success) {
+    public checkPartitioner_result set_success(boolean success) {
       this.success = success;
+      set_success_isSet(true);
       return this;
     }
 
     public void unset_success() {
-      this.success = null;
+      __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __SUCCESS_ISSET_ID);
     }
 
     /** Returns true if field success is set (has been assigned a value) and false otherwise */
     public boolean is_set_success() {
-      return this.success != null;
+      return EncodingUtils.testBit(__isset_bitfield, __SUCCESS_ISSET_ID);
     }
 
     public void set_success_isSet(boolean value) {
-      if (!value) {
-        this.success = null;
-      }
+      __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __SUCCESS_ISSET_ID, value);
     }
 
     public void setFieldValue(_Fields field, Object value) {
@@ -1760,7 +8349,7 @@ public class PartitionServer {
         if (value == null) {
           unset_success();
         } else {
-          set_success((HankBulkResponse)value);
+          set_success((Boolean)value);
         }
         break;
 
@@ -1770,7 +8359,7 @@ public class PartitionServer {
     public Object getFieldValue(_Fields field) {
       switch (field) {
       case SUCCESS:
-        return get_success();
+        return Boolean.valueOf(is_success());
 
       }
       throw new IllegalStateException();
@@ -1793,21 +8382,21 @@ public class PartitionServer {
     public boolean equals(Object that) {
       if (that == null)
         return false;
-      if (that instanceof getBulk_result)
-        return this.equals((getBulk_result)that);
+      if (that instanceof checkPartitioner_result)
+        return this.equals((checkPartitioner_result)that);
       return false;
     }
 
-    public boolean equals(getBulk_result that) {
+    public boolean equals(checkPartitioner_result that) {
       if (that == null)
         return false;
 
-      boolean this_present_success = true && this.is_set_success();
-      boolean that_present_success = true && that.is_set_success();
+      boolean this_present_success = true;
+      boolean that_present_success = true;
       if (this_present_success || that_present_success) {
         if (!(this_present_success && that_present_success))
           return false;
-        if (!this.success.equals(that.success))
+        if (this.success != that.success)
           return false;
       }
 
@@ -1818,7 +8407,7 @@ public class PartitionServer {
     public int hashCode() {
       HashCodeBuilder builder = new HashCodeBuilder();
 
-      boolean present_success = true && (is_set_success());
+      boolean present_success = true;
       builder.append(present_success);
       if (present_success)
         builder.append(success);
@@ -1826,13 +8415,13 @@ public class PartitionServer {
       return builder.toHashCode();
     }
 
-    public int compareTo(getBulk_result other) {
+    public int compareTo(checkPartitioner_result other) {
       if (!getClass().equals(other.getClass())) {
         return getClass().getName().compareTo(other.getClass().getName());
       }
 
       int lastComparison = 0;
-      getBulk_result typedOther = (getBulk_result)other;
+      checkPartitioner_result typedOther = (checkPartitioner_result)other;
 
       lastComparison = Boolean.valueOf(is_set_success()).compareTo(typedOther.is_set_success());
       if (lastComparison != 0) {
@@ -1861,15 +8450,11 @@ public class PartitionServer {
 
     @Override
     public String toString() {
-      StringBuilder sb = new StringBuilder("getBulk_result(");
+      StringBuilder sb = new StringBuilder("checkPartitioner_result(");
       boolean first = true;
 
       sb.append("success:");
-      if (this.success == null) {
-        sb.append("null");
-      } else {
-        sb.append(this.success);
-      }
+      sb.append(this.success);
       first = false;
       sb.append(")");
       return sb.toString();
@@ -1890,21 +8475,23 @@ public class PartitionServer {
 
     private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
       try {
+        // it doesn't seem like you should have to do this, but java serialization is wacky, and doesn't call the default constructor.
+        __isset_bitfield = 0;
         read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
       } catch (org.apache.thrift.TException te) {
         throw new java.io.IOException(te);
       }
     }
 
-    private static class getBulk_resultStandardSchemeFactory implements SchemeFactory {
-      public getBulk_resultStandardScheme getScheme() {
-        return new getBulk_resultStandardScheme();
+    private static class checkPartitioner_resultStandardSchemeFactory implements SchemeFactory {
+      public checkPartitioner_resultStandardScheme getScheme() {
+        return new checkPartitioner_resultStandardScheme();
       }
     }
 
-    private static class getBulk_resultStandardScheme extends StandardScheme<getBulk_result> {
+    private static class checkPartitioner_resultStandardScheme extends StandardScheme<checkPartitioner_result> {
 
-      public void read(org.apache.thrift.protocol.TProtocol iprot, getBulk_result struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol iprot, checkPartitioner_result struct) throws org.apache.thrift.TException {
         org.apache.thrift.protocol.TField schemeField;
         iprot.readStructBegin();
         while (true)
@@ -1915,9 +8502,8 @@ public class PartitionServer {
           }
           switch (schemeField.id) {
             case 0: // SUCCESS
-              if (schemeField.type == org.apache.thrift.protocol.TType.STRUCT) {
-                struct.success = new HankBulkResponse();
-                struct.success.read(iprot);
+              if (schemeField.type == org.apache.thrift.protocol.TType.BOOL) {
+                struct.success = iprot.readBool();
                 struct.set_success_isSet(true);
               } else { 
                 org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
@@ -1934,13 +8520,13 @@ public class PartitionServer {
         struct.validate();
       }
 
-      public void write(org.apache.thrift.protocol.TProtocol oprot, getBulk_result struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol oprot, checkPartitioner_result struct) throws org.apache.thrift.TException {
         struct.validate();
 
         oprot.writeStructBegin(STRUCT_DESC);
-        if (struct.success != null) {
+        if (struct.is_set_success()) {
           oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
-          struct.success.write(oprot);
+          oprot.writeBool(struct.success);
           oprot.writeFieldEnd();
         }
         oprot.writeFieldStop();
@@ -1949,16 +8535,16 @@ public class PartitionServer {
 
     }
 
-    private static class getBulk_resultTupleSchemeFactory implements SchemeFactory {
-      public getBulk_resultTupleScheme getScheme() {
-        return new getBulk_resultTupleScheme();
+    private static class checkPartitioner_resultTupleSchemeFactory implements SchemeFactory {
+      public checkPartitioner_resultTupleScheme getScheme() {
+        return new checkPartitioner_resultTupleScheme();
       }
     }
 
-    private static class getBulk_resultTupleScheme extends TupleScheme<getBulk_result> {
+    private static class checkPartitioner_resultTupleScheme extends TupleScheme<checkPartitioner_result> {
 
       @Override
-      public void write(org.apache.thrift.protocol.TProtocol prot, getBulk_result struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol prot, checkPartitioner_result struct) throws org.apache.thrift.TException {
         TTupleProtocol oprot = (TTupleProtocol) prot;
         BitSet optionals = new BitSet();
         if (struct.is_set_success()) {
@@ -1966,17 +8552,16 @@ public class PartitionServer {
         }
         oprot.writeBitSet(optionals, 1);
         if (struct.is_set_success()) {
-          struct.success.write(oprot);
+          oprot.writeBool(struct.success);
         }
       }
 
       @Override
-      public void read(org.apache.thrift.protocol.TProtocol prot, getBulk_result struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol prot, checkPartitioner_result struct) throws org.apache.thrift.TException {
         TTupleProtocol iprot = (TTupleProtocol) prot;
         BitSet incoming = iprot.readBitSet(1);
         if (incoming.get(0)) {
-          struct.success = new HankBulkResponse();
-          struct.success.read(iprot);
+          struct.success = iprot.readBool();
           struct.set_success_isSet(true);
         }
       }
@@ -39,6 +39,8 @@ public class SmartClient {
 
     public HankBulkResponse getBulk(String domain_name, List<ByteBuffer> keys) throws org.apache.thrift.TException;
 
+    public HankBulkResponse getMulti(List<String> domain_names, List<ByteBuffer> keys) throws org.apache.thrift.TException;
+
   }
 
   public interface AsyncIface {
@@ -47,6 +49,8 @@ public class SmartClient {
 
     public void getBulk(String domain_name, List<ByteBuffer> keys, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.getBulk_call> resultHandler) throws org.apache.thrift.TException;
 
+    public void getMulti(List<String> domain_names, List<ByteBuffer> keys, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.getMulti_call> resultHandler) throws org.apache.thrift.TException;
+
   }
 
   public static class Client extends org.apache.thrift.TServiceClient implements Iface {
@@ -117,6 +121,30 @@ public class SmartClient {
       throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "getBulk failed: unknown result");
     }
 
+    public HankBulkResponse getMulti(List<String> domain_names, List<ByteBuffer> keys) throws org.apache.thrift.TException
+    {
+      send_getMulti(domain_names, keys);
+      return recv_getMulti();
+    }
+
+    public void send_getMulti(List<String> domain_names, List<ByteBuffer> keys) throws org.apache.thrift.TException
+    {
+      getMulti_args args = new getMulti_args();
+      args.set_domain_names(domain_names);
+      args.set_keys(keys);
+      sendBase("getMulti", args);
+    }
+
+    public HankBulkResponse recv_getMulti() throws org.apache.thrift.TException
+    {
+      getMulti_result result = new getMulti_result();
+      receiveBase(result, "getMulti");
+      if (result.is_set_success()) {
+        return result.success;
+      }
+      throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "getMulti failed: unknown result");
+    }
+
   }
   public static class AsyncClient extends org.apache.thrift.async.TAsyncClient implements AsyncIface {
     public static class Factory implements org.apache.thrift.async.TAsyncClientFactory<AsyncClient> {
@@ -205,6 +233,41 @@ public class SmartClient {
       }
     }
 
+    public void getMulti(List<String> domain_names, List<ByteBuffer> keys, org.apache.thrift.async.AsyncMethodCallback<getMulti_call> resultHandler) throws org.apache.thrift.TException {
+      checkReady();
+      getMulti_call method_call = new getMulti_call(domain_names, keys, resultHandler, this, ___protocolFactory, ___transport);
+      this.___currentMethod = method_call;
+      ___manager.call(method_call);
+    }
+
+    public static class getMulti_call extends org.apache.thrift.async.TAsyncMethodCall {
+      private List<String> domain_names;
+      private List<ByteBuffer> keys;
+      public getMulti_call(List<String> domain_names, List<ByteBuffer> keys, org.apache.thrift.async.AsyncMethodCallback<getMulti_call> resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+        super(client, protocolFactory, transport, resultHandler, false);
+        this.domain_names = domain_names;
+        this.keys = keys;
+      }
+
+      public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
+        prot.writeMessageBegin(new org.apache.thrift.protocol.TMessage("getMulti", org.apache.thrift.protocol.TMessageType.CALL, 0));
+        getMulti_args args = new getMulti_args();
+        args.set_domain_names(domain_names);
+        args.set_keys(keys);
+        args.write(prot);
+        prot.writeMessageEnd();
+      }
+
+      public HankBulkResponse getResult() throws org.apache.thrift.TException {
+        if (getState() != org.apache.thrift.async.TAsyncMethodCall.State.RESPONSE_READ) {
+          throw new IllegalStateException("Method call not finished!");
+        }
+        org.apache.thrift.transport.TMemoryInputTransport memoryTransport = new org.apache.thrift.transport.TMemoryInputTransport(getFrameBuffer().array());
+        org.apache.thrift.protocol.TProtocol prot = client.getProtocolFactory().getProtocol(memoryTransport);
+        return (new Client(prot)).recv_getMulti();
+      }
+    }
+
   }
 
   public static class Processor<I extends Iface> extends org.apache.thrift.TBaseProcessor<I> implements org.apache.thrift.TProcessor {
@@ -220,6 +283,7 @@ public class SmartClient {
     private static <I extends Iface> Map<String,  org.apache.thrift.ProcessFunction<I, ? extends  org.apache.thrift.TBase>> getProcessMap(Map<String,  org.apache.thrift.ProcessFunction<I, ? extends  org.apache.thrift.TBase>> processMap) {
       processMap.put("get", new get());
       processMap.put("getBulk", new getBulk());
+      processMap.put("getMulti", new getMulti());
       return processMap;
     }
 
@@ -263,6 +327,26 @@ public class SmartClient {
       }
     }
 
+    public static class getMulti<I extends Iface> extends org.apache.thrift.ProcessFunction<I, getMulti_args> {
+      public getMulti() {
+        super("getMulti");
+      }
+
+      public getMulti_args getEmptyArgsInstance() {
+        return new getMulti_args();
+      }
+
+      protected boolean isOneway() {
+        return false;
+      }
+
+      public getMulti_result getResult(I iface, getMulti_args args) throws org.apache.thrift.TException {
+        getMulti_result result = new getMulti_result();
+        result.success = iface.getMulti(args.domain_names, args.keys);
+        return result;
+      }
+    }
+
   }
 
   public static class get_args implements org.apache.thrift.TBase<get_args, get_args._Fields>, java.io.Serializable, Cloneable   {
@@ -1988,4 +2072,939 @@ public class SmartClient {
 
   }
 
+  public static class getMulti_args implements org.apache.thrift.TBase<getMulti_args, getMulti_args._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getMulti_args");
+
+    private static final org.apache.thrift.protocol.TField DOMAIN_NAMES_FIELD_DESC = new org.apache.thrift.protocol.TField("domain_names", org.apache.thrift.protocol.TType.LIST, (short)1);
+    private static final org.apache.thrift.protocol.TField KEYS_FIELD_DESC = new org.apache.thrift.protocol.TField("keys", org.apache.thrift.protocol.TType.LIST, (short)2);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new getMulti_argsStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getMulti_argsTupleSchemeFactory());
+    }
+
+    public List<String> domain_names; // required
+    public List<ByteBuffer> keys; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      DOMAIN_NAMES((short)1, "domain_names"),
+      KEYS((short)2, "keys");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 1: // DOMAIN_NAMES
+            return DOMAIN_NAMES;
+          case 2: // KEYS
+            return KEYS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.DOMAIN_NAMES, new org.apache.thrift.meta_data.FieldMetaData("domain_names", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
+              new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING))));
+      tmpMap.put(_Fields.KEYS, new org.apache.thrift.meta_data.FieldMetaData("keys", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
+              new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING              , true))));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getMulti_args.class, metaDataMap);
+    }
+
+    public getMulti_args() {
+    }
+
+    public getMulti_args(
+      List<String> domain_names,
+      List<ByteBuffer> keys)
+    {
+      this();
+      this.domain_names = domain_names;
+      this.keys = keys;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public getMulti_args(getMulti_args other) {
+      if (other.is_set_domain_names()) {
+        List<String> __this__domain_names = new ArrayList<String>();
+        for (String other_element : other.domain_names) {
+          __this__domain_names.add(other_element);
+        }
+        this.domain_names = __this__domain_names;
+      }
+      if (other.is_set_keys()) {
+        List<ByteBuffer> __this__keys = new ArrayList<ByteBuffer>();
+        for (ByteBuffer other_element : other.keys) {
+          ByteBuffer temp_binary_element = org.apache.thrift.TBaseHelper.copyBinary(other_element);
+;
+          __this__keys.add(temp_binary_element);
+        }
+        this.keys = __this__keys;
+      }
+    }
+
+    public getMulti_args deepCopy() {
+      return new getMulti_args(this);
+    }
+
+    @Override
+    public void clear() {
+      this.domain_names = null;
+      this.keys = null;
+    }
+
+    public int get_domain_names_size() {
+      return (this.domain_names == null) ? 0 : this.domain_names.size();
+    }
+
+    public java.util.Iterator<String> get_domain_names_iterator() {
+      return (this.domain_names == null) ? null : this.domain_names.iterator();
+    }
+
+    public void add_to_domain_names(String elem) {
+      if (this.domain_names == null) {
+        this.domain_names = new ArrayList<String>();
+      }
+      this.domain_names.add(elem);
+    }
+
+    public List<String> get_domain_names() {
+      return this.domain_names;
+    }
+
+    public getMulti_args set_domain_names(List<String> domain_names) {
+      this.domain_names = domain_names;
+      return this;
+    }
+
+    public void unset_domain_names() {
+      this.domain_names = null;
+    }
+
+    /** Returns true if field domain_names is set (has been assigned a value) and false otherwise */
+    public boolean is_set_domain_names() {
+      return this.domain_names != null;
+    }
+
+    public void set_domain_names_isSet(boolean value) {
+      if (!value) {
+        this.domain_names = null;
+      }
+    }
+
+    public int get_keys_size() {
+      return (this.keys == null) ? 0 : this.keys.size();
+    }
+
+    public java.util.Iterator<ByteBuffer> get_keys_iterator() {
+      return (this.keys == null) ? null : this.keys.iterator();
+    }
+
+    public void add_to_keys(ByteBuffer elem) {
+      if (this.keys == null) {
+        this.keys = new ArrayList<ByteBuffer>();
+      }
+      this.keys.add(elem);
+    }
+
+    public List<ByteBuffer> get_keys() {
+      return this.keys;
+    }
+
+    public getMulti_args set_keys(List<ByteBuffer> keys) {
+      this.keys = keys;
+      return this;
+    }
+
+    public void unset_keys() {
+      this.keys = null;
+    }
+
+    /** Returns true if field keys is set (has been assigned a value) and false otherwise */
+    public boolean is_set_keys() {
+      return this.keys != null;
+    }
+
+    public void set_keys_isSet(boolean value) {
+      if (!value) {
+        this.keys = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case DOMAIN_NAMES:
+        if (value == null) {
+          unset_domain_names();
+        } else {
+          set_domain_names((List<String>)value);
+        }
+        break;
+
+      case KEYS:
+        if (value == null) {
+          unset_keys();
+        } else {
+          set_keys((List<ByteBuffer>)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case DOMAIN_NAMES:
+        return get_domain_names();
+
+      case KEYS:
+        return get_keys();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case DOMAIN_NAMES:
+        return is_set_domain_names();
+      case KEYS:
+        return is_set_keys();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof getMulti_args)
+        return this.equals((getMulti_args)that);
+      return false;
+    }
+
+    public boolean equals(getMulti_args that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_domain_names = true && this.is_set_domain_names();
+      boolean that_present_domain_names = true && that.is_set_domain_names();
+      if (this_present_domain_names || that_present_domain_names) {
+        if (!(this_present_domain_names && that_present_domain_names))
+          return false;
+        if (!this.domain_names.equals(that.domain_names))
+          return false;
+      }
+
+      boolean this_present_keys = true && this.is_set_keys();
+      boolean that_present_keys = true && that.is_set_keys();
+      if (this_present_keys || that_present_keys) {
+        if (!(this_present_keys && that_present_keys))
+          return false;
+        if (!this.keys.equals(that.keys))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      HashCodeBuilder builder = new HashCodeBuilder();
+
+      boolean present_domain_names = true && (is_set_domain_names());
+      builder.append(present_domain_names);
+      if (present_domain_names)
+        builder.append(domain_names);
+
+      boolean present_keys = true && (is_set_keys());
+      builder.append(present_keys);
+      if (present_keys)
+        builder.append(keys);
+
+      return builder.toHashCode();
+    }
+
+    public int compareTo(getMulti_args other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      getMulti_args typedOther = (getMulti_args)other;
+
+      lastComparison = Boolean.valueOf(is_set_domain_names()).compareTo(typedOther.is_set_domain_names());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (is_set_domain_names()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.domain_names, typedOther.domain_names);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(is_set_keys()).compareTo(typedOther.is_set_keys());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (is_set_keys()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.keys, typedOther.keys);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("getMulti_args(");
+      boolean first = true;
+
+      sb.append("domain_names:");
+      if (this.domain_names == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.domain_names);
+      }
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("keys:");
+      if (this.keys == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.keys);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class getMulti_argsStandardSchemeFactory implements SchemeFactory {
+      public getMulti_argsStandardScheme getScheme() {
+        return new getMulti_argsStandardScheme();
+      }
+    }
+
+    private static class getMulti_argsStandardScheme extends StandardScheme<getMulti_args> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getMulti_args struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 1: // DOMAIN_NAMES
+              if (schemeField.type == org.apache.thrift.protocol.TType.LIST) {
+                {
+                  org.apache.thrift.protocol.TList _list208 = iprot.readListBegin();
+                  struct.domain_names = new ArrayList<String>(_list208.size);
+                  for (int _i209 = 0; _i209 < _list208.size; ++_i209)
+                  {
+                    String _elem210; // optional
+                    _elem210 = iprot.readString();
+                    struct.domain_names.add(_elem210);
+                  }
+                  iprot.readListEnd();
+                }
+                struct.set_domain_names_isSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            case 2: // KEYS
+              if (schemeField.type == org.apache.thrift.protocol.TType.LIST) {
+                {
+                  org.apache.thrift.protocol.TList _list211 = iprot.readListBegin();
+                  struct.keys = new ArrayList<ByteBuffer>(_list211.size);
+                  for (int _i212 = 0; _i212 < _list211.size; ++_i212)
+                  {
+                    ByteBuffer _elem213; // optional
+                    _elem213 = iprot.readBinary();
+                    struct.keys.add(_elem213);
+                  }
+                  iprot.readListEnd();
+                }
+                struct.set_keys_isSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getMulti_args struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.domain_names != null) {
+          oprot.writeFieldBegin(DOMAIN_NAMES_FIELD_DESC);
+          {
+            oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRING, struct.domain_names.size()));
+            for (String _iter214 : struct.domain_names)
+            {
+              oprot.writeString(_iter214);
+            }
+            oprot.writeListEnd();
+          }
+          oprot.writeFieldEnd();
+        }
+        if (struct.keys != null) {
+          oprot.writeFieldBegin(KEYS_FIELD_DESC);
+          {
+            oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRING, struct.keys.size()));
+            for (ByteBuffer _iter215 : struct.keys)
+            {
+              oprot.writeBinary(_iter215);
+            }
+            oprot.writeListEnd();
+          }
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class getMulti_argsTupleSchemeFactory implements SchemeFactory {
+      public getMulti_argsTupleScheme getScheme() {
+        return new getMulti_argsTupleScheme();
+      }
+    }
+
+    private static class getMulti_argsTupleScheme extends TupleScheme<getMulti_args> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, getMulti_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.is_set_domain_names()) {
+          optionals.set(0);
+        }
+        if (struct.is_set_keys()) {
+          optionals.set(1);
+        }
+        oprot.writeBitSet(optionals, 2);
+        if (struct.is_set_domain_names()) {
+          {
+            oprot.writeI32(struct.domain_names.size());
+            for (String _iter216 : struct.domain_names)
+            {
+              oprot.writeString(_iter216);
+            }
+          }
+        }
+        if (struct.is_set_keys()) {
+          {
+            oprot.writeI32(struct.keys.size());
+            for (ByteBuffer _iter217 : struct.keys)
+            {
+              oprot.writeBinary(_iter217);
+            }
+          }
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, getMulti_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(2);
+        if (incoming.get(0)) {
+          {
+            org.apache.thrift.protocol.TList _list218 = new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRING, iprot.readI32());
+            struct.domain_names = new ArrayList<String>(_list218.size);
+            for (int _i219 = 0; _i219 < _list218.size; ++_i219)
+            {
+              String _elem220; // optional
+              _elem220 = iprot.readString();
+              struct.domain_names.add(_elem220);
+            }
+          }
+          struct.set_domain_names_isSet(true);
+        }
+        if (incoming.get(1)) {
+          {
+            org.apache.thrift.protocol.TList _list221 = new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRING, iprot.readI32());
+            struct.keys = new ArrayList<ByteBuffer>(_list221.size);
+            for (int _i222 = 0; _i222 < _list221.size; ++_i222)
+            {
+              ByteBuffer _elem223; // optional
+              _elem223 = iprot.readBinary();
+              struct.keys.add(_elem223);
+            }
+          }
+          struct.set_keys_isSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class getMulti_result implements org.apache.thrift.TBase<getMulti_result, getMulti_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getMulti_result");
+
+    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.STRUCT, (short)0);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new getMulti_resultStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new getMulti_resultTupleSchemeFactory());
+    }
+
+    public HankBulkResponse success; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      SUCCESS((short)0, "success");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 0: // SUCCESS
+            return SUCCESS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, HankBulkResponse.class)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getMulti_result.class, metaDataMap);
+    }
+
+    public getMulti_result() {
+    }
+
+    public getMulti_result(
+      HankBulkResponse success)
+    {
+      this();
+      this.success = success;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public getMulti_result(getMulti_result other) {
+      if (other.is_set_success()) {
+        this.success = new HankBulkResponse(other.success);
+      }
+    }
+
+    public getMulti_result deepCopy() {
+      return new getMulti_result(this);
+    }
+
+    @Override
+    public void clear() {
+      this.success = null;
+    }
+
+    public HankBulkResponse get_success() {
+      return this.success;
+    }
+
+    public getMulti_result set_success(HankBulkResponse success) {
+      this.success = success;
+      return this;
+    }
+
+    public void unset_success() {
+      this.success = null;
+    }
+
+    /** Returns true if field success is set (has been assigned a value) and false otherwise */
+    public boolean is_set_success() {
+      return this.success != null;
+    }
+
+    public void set_success_isSet(boolean value) {
+      if (!value) {
+        this.success = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case SUCCESS:
+        if (value == null) {
+          unset_success();
+        } else {
+          set_success((HankBulkResponse)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case SUCCESS:
+        return get_success();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case SUCCESS:
+        return is_set_success();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof getMulti_result)
+        return this.equals((getMulti_result)that);
+      return false;
+    }
+
+    public boolean equals(getMulti_result that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_success = true && this.is_set_success();
+      boolean that_present_success = true && that.is_set_success();
+      if (this_present_success || that_present_success) {
+        if (!(this_present_success && that_present_success))
+          return false;
+        if (!this.success.equals(that.success))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      HashCodeBuilder builder = new HashCodeBuilder();
+
+      boolean present_success = true && (is_set_success());
+      builder.append(present_success);
+      if (present_success)
+        builder.append(success);
+
+      return builder.toHashCode();
+    }
+
+    public int compareTo(getMulti_result other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      getMulti_result typedOther = (getMulti_result)other;
+
+      lastComparison = Boolean.valueOf(is_set_success()).compareTo(typedOther.is_set_success());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (is_set_success()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.success, typedOther.success);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+      }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("getMulti_result(");
+      boolean first = true;
+
+      sb.append("success:");
+      if (this.success == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.success);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class getMulti_resultStandardSchemeFactory implements SchemeFactory {
+      public getMulti_resultStandardScheme getScheme() {
+        return new getMulti_resultStandardScheme();
+      }
+    }
+
+    private static class getMulti_resultStandardScheme extends StandardScheme<getMulti_result> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, getMulti_result struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 0: // SUCCESS
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRUCT) {
+                struct.success = new HankBulkResponse();
+                struct.success.read(iprot);
+                struct.set_success_isSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, getMulti_result struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.success != null) {
+          oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
+          struct.success.write(oprot);
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class getMulti_resultTupleSchemeFactory implements SchemeFactory {
+      public getMulti_resultTupleScheme getScheme() {
+        return new getMulti_resultTupleScheme();
+      }
+    }
+
+    private static class getMulti_resultTupleScheme extends TupleScheme<getMulti_result> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, getMulti_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.is_set_success()) {
+          optionals.set(0);
+        }
+        oprot.writeBitSet(optionals, 1);
+        if (struct.is_set_success()) {
+          struct.success.write(oprot);
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, getMulti_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(1);
+        if (incoming.get(0)) {
+          struct.success = new HankBulkResponse();
+          struct.success.read(iprot);
+          struct.set_success_isSet(true);
+        }
+      }
+    }
+
+  }
+
 }
@@ -18,11 +18,14 @@ package com.liveramp.hank.partition_server;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class PartitionUpdateTaskStatistics {
 
   private long startTimeMs;
   private long endTimeMs;
+  private final AtomicLong numBytesFetched = new AtomicLong(0);
+  private final AtomicLong numBytesWritten = new AtomicLong(0);
   private final Map<String, Long> durationsMs;
 
   public PartitionUpdateTaskStatistics() {
@@ -45,6 +48,29 @@ public class PartitionUpdateTaskStatistics {
     this.endTimeMs = endTimeMs;
   }
 
+  // Bytes fetched from remote storage or from peers by the update
+  public long getNumBytesFetched() {
+    return numBytesFetched.get();
+  }
+
+  public void addNumBytesFetched(long numBytes) {
+    numBytesFetched.addAndGet(numBytes);
+  }
+
+  // Bytes written to local disk by the update itself, not counting fetched files
+  public long getNumBytesWritten() {
+    return numBytesWritten.get();
+  }
+
+  public void addNumBytesWritten(long numBytes) {
+    numBytesWritten.addAndGet(numBytes);
+  }
+
+  // Bytes fetched and written by the update, or 0 when the partition was not updated
+  public long getNumBytes() {
+    return getNumBytesFetched() + getNumBytesWritten();
+  }
+
   public Map<String, Long> getDurationsMs() {
     return durationsMs;
   }
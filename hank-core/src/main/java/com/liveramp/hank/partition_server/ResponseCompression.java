@@ -0,0 +1,62 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.partition_server;
+
+/**
+ * Framing of compressed partition server responses.
+ * <p/>
+ * Clients first negotiate a codec with the server (see PartitionServer.negotiateResponseCompression).
+ * Once negotiated, the payload of every request frame sent on the connection starts with a header
+ * made of REQUEST_ACCEPT_SNAPPY followed by the minimum size (a 4 bytes big endian integer) of
+ * responses the server should compress. The payload of every response frame then starts with
+ * RESPONSE_RAW or RESPONSE_SNAPPY, indicating whether the rest of the payload is compressed.
+ * Responses smaller than the minimum size are always sent raw.
+ */
+public final class ResponseCompression {
+
+  public static final String SNAPPY = "snappy";
+
+  // Thrift compact protocol messages never start with this byte
+  public static final byte REQUEST_ACCEPT_SNAPPY = 0x01;
+  public static final int REQUEST_HEADER_NUM_BYTES = 5;
+
+  public static final byte RESPONSE_RAW = 0x00;
+  public static final byte RESPONSE_SNAPPY = 0x01;
+  public static final int RESPONSE_HEADER_NUM_BYTES = 1;
+
+  private ResponseCompression() {
+  }
+
+  public static void encodeRequestHeader(int minCompressedResponseSize, byte[] buf, int off) {
+    buf[off] = REQUEST_ACCEPT_SNAPPY;
+    buf[off + 1] = (byte)(0xff & (minCompressedResponseSize >> 24));
+    buf[off + 2] = (byte)(0xff & (minCompressedResponseSize >> 16));
+    buf[off + 3] = (byte)(0xff & (minCompressedResponseSize >> 8));
+    buf[off + 4] = (byte)(0xff & (minCompressedResponseSize));
+  }
+
+  // Return the minimum size of responses to compress, or -1 if the given frame payload has no request header
+  public static int decodeRequestHeader(byte[] buf, int off, int len) {
+    if (len < REQUEST_HEADER_NUM_BYTES || buf[off] != REQUEST_ACCEPT_SNAPPY) {
+      return -1;
+    }
+    int minCompressedResponseSize = ((buf[off + 1] & 0xff) << 24)
+        | ((buf[off + 2] & 0xff) << 16)
+        | ((buf[off + 3] & 0xff) << 8)
+        | ((buf[off + 4] & 0xff));
+    return Math.max(0, minCompressedResponseSize);
+  }
+}
@@ -0,0 +1,126 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.storage;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+
+import com.liveramp.hank.util.TokenBucket;
+
+/**
+ * Host wide bandwidth limits of the I/O performed by updates, peer transfers
+ * and local compactions: data fetched from and sent to the network, and local
+ * partition files streamed from and written to disk. Each budget is a token
+ * bucket (of bytes) shared by all of them. Budgets are unlimited by default,
+ * and follow the host's limits in the coordinator as soon as they change.
+ */
+public final class BandwidthGovernor {
+
+  public static enum Budget {
+    NETWORK_READ,
+    NETWORK_WRITE,
+    DISK_READ,
+    DISK_WRITE;
+
+    // Name used for this budget in the bandwidth limits of a Host
+    public String getName() {
+      return name().toLowerCase();
+    }
+  }
+
+  private static final TokenBucket[] tokenBuckets = new TokenBucket[Budget.values().length];
+
+  static {
+    for (Budget budget : Budget.values()) {
+      tokenBuckets[budget.ordinal()] = new TokenBucket(0);
+    }
+  }
+
+  private BandwidthGovernor() {
+  }
+
+  // Limits are in bytes per second, keyed by budget name. Missing or non positive limits mean no limit.
+  public static void setLimits(Map<String, Long> bandwidthLimits) {
+    for (Budget budget : Budget.values()) {
+      Long limit = bandwidthLimits == null ? null : bandwidthLimits.get(budget.getName());
+      setLimit(budget, limit == null ? 0 : limit);
+    }
+  }
+
+  public static void setLimit(Budget budget, long bytesPerSecond) {
+    TokenBucket tokenBucket = tokenBuckets[budget.ordinal()];
+    if (tokenBucket.getRate() != bytesPerSecond) {
+      tokenBucket.setRate(bytesPerSecond);
+    }
+  }
+
+  public static long getLimit(Budget budget) {
+    return tokenBuckets[budget.ordinal()].getRate();
+  }
+
+  // Block until the given number of bytes fits in the budget
+  public static void consume(Budget budget, long numBytes) throws IOException {
+    try {
+      tokenBuckets[budget.ordinal()].acquire(numBytes);
+    } catch (InterruptedException e) {
+      throw new IOException("Interrupted while waiting for " + budget.getName() + " bandwidth", e);
+    }
+  }
+
+  public static InputStream throttle(InputStream inputStream, final Budget budget) {
+    return new FilterInputStream(inputStream) {
+
+      @Override
+      public int read() throws IOException {
+        int result = super.read();
+        if (result >= 0) {
+          consume(budget, 1);
+        }
+        return result;
+      }
+
+      @Override
+      public int read(byte[] buffer, int off, int len) throws IOException {
+        int result = super.read(buffer, off, len);
+        if (result > 0) {
+          consume(budget, result);
+        }
+        return result;
+      }
+    };
+  }
+
+  public static OutputStream throttle(OutputStream outputStream, final Budget budget) {
+    return new FilterOutputStream(outputStream) {
+
+      @Override
+      public void write(int b) throws IOException {
+        consume(budget, 1);
+        out.write(b);
+      }
+
+      @Override
+      public void write(byte[] buffer, int off, int len) throws IOException {
+        consume(budget, len);
+        out.write(buffer, off, len);
+      }
+    };
+  }
+}
@@ -0,0 +1,136 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.storage;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Remote file operations that record a checksum of every file written
+ * through them, by file name. Checksums are computed on the data as it is
+ * written, before any compression done by the underlying file operations, so
+ * that they match the files once they are fetched to a local partition root.
+ */
+public class ChecksummingPartitionRemoteFileOps implements PartitionRemoteFileOps {
+
+  private final PartitionRemoteFileOps partitionRemoteFileOps;
+  private final Map<String, Long> checksums = new HashMap<String, Long>();
+
+  public ChecksummingPartitionRemoteFileOps(PartitionRemoteFileOps partitionRemoteFileOps) {
+    this.partitionRemoteFileOps = partitionRemoteFileOps;
+  }
+
+  // Checksums of the files that were written and closed so far
+  public synchronized Map<String, Long> getChecksums() {
+    return new HashMap<String, Long>(checksums);
+  }
+
+  private synchronized void setChecksum(String remoteRelativePath, long checksum) {
+    checksums.put(remoteRelativePath, checksum);
+  }
+
+  // The first 8 bytes of the MD5 digest of the data
+  private static long getChecksum(MessageDigest digest) {
+    byte[] bytes = digest.digest();
+    long checksum = 0;
+    for (int i = 0; i < 8; ++i) {
+      checksum = (checksum << 8) | (bytes[i] & 0xff);
+    }
+    return checksum;
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("MD5");
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private class ChecksummingOutputStream extends FilterOutputStream {
+
+    private final String remoteRelativePath;
+    private final MessageDigest digest = newDigest();
+    private boolean closed = false;
+
+    public ChecksummingOutputStream(OutputStream outputStream, String remoteRelativePath) {
+      super(outputStream);
+      this.remoteRelativePath = remoteRelativePath;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      digest.update((byte)b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      digest.update(b, off, len);
+    }
+
+    @Override
+    public void close() throws IOException {
+      super.close();
+      if (!closed) {
+        closed = true;
+        setChecksum(remoteRelativePath, getChecksum(digest));
+      }
+    }
+  }
+
+  @Override
+  public InputStream getInputStream(String remoteRelativePath) throws IOException {
+    return partitionRemoteFileOps.getInputStream(remoteRelativePath);
+  }
+
+  @Override
+  public OutputStream getOutputStream(String remoteRelativePath) throws IOException {
+    return new ChecksummingOutputStream(partitionRemoteFileOps.getOutputStream(remoteRelativePath), remoteRelativePath);
+  }
+
+  @Override
+  public boolean exists(String remoteRelativePath) throws IOException {
+    return partitionRemoteFileOps.exists(remoteRelativePath);
+  }
+
+  @Override
+  public void copyToLocalRoot(String remoteSourceRelativePath, String localDestinationRoot) throws IOException {
+    partitionRemoteFileOps.copyToLocalRoot(remoteSourceRelativePath, localDestinationRoot);
+  }
+
+  @Override
+  public boolean attemptDelete(String remoteRelativePath) throws IOException {
+    return partitionRemoteFileOps.attemptDelete(remoteRelativePath);
+  }
+
+  @Override
+  public String getRemoteAbsolutePath(String remoteRelativePath) {
+    return partitionRemoteFileOps.getRemoteAbsolutePath(remoteRelativePath);
+  }
+
+  @Override
+  public String toString() {
+    return partitionRemoteFileOps.toString();
+  }
+}
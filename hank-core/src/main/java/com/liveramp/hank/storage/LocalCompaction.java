@@ -0,0 +1,45 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.liveramp.hank.storage;
+
+import java.io.IOException;
+
+import com.liveramp.hank.config.DataDirectoriesConfigurator;
+import com.liveramp.hank.config.UpdaterConfigurator;
+import com.liveramp.hank.coordinator.DomainVersion;
+
+/**
+ * Storage engines that can compact the local files of a partition on the
+ * partition server itself, without fetching anything.
+ */
+public interface LocalCompaction {
+
+  // Whether compacting the local files of the given partition, at the given version, would make them smaller or faster to read
+  public boolean needsLocalCompaction(DataDirectoriesConfigurator configurator,
+                                      int partitionNumber,
+                                      DomainVersion currentVersion) throws IOException;
+
+  // Replace the local files of the given partition, at the given version, by compacted files with the same content
+  public void compactLocally(UpdaterConfigurator configurator,
+                             int partitionNumber,
+                             DomainVersion currentVersion) throws IOException;
+
+  // Whether compacted files are replacing the local files of the given partition. When that is still the case
+  // after a restart, the compaction was interrupted and the local files must not be used.
+  public boolean isLocalCompactionInProgress(DataDirectoriesConfigurator configurator,
+                                             int partitionNumber) throws IOException;
+}
@@ -0,0 +1,35 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.storage;
+
+import java.io.IOException;
+
+import com.liveramp.hank.coordinator.DomainVersion;
+
+/**
+ * Fetches the local files of a version of a partition from a replica of that
+ * partition on another host, instead of fetching (and merging) remote files.
+ */
+public interface PeerPartitionFetcher {
+
+  /**
+   * Fetch all the local files of the given version into the given destination root.
+   *
+   * @return false if no peer could provide the version. Nothing is left in the destination root in that case.
+   * @throws IOException
+   */
+  public boolean fetchVersion(DomainVersion version, String destinationRoot) throws IOException;
+}
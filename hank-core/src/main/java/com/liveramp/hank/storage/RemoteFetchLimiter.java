@@ -0,0 +1,93 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.storage;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Host wide limit on the number of remote streams (whole files or ranges of
+ * files) that are read concurrently when fetching partition data. Partition
+ * updaters fetch versions concurrently, and large files are fetched in ranges
+ * concurrently, but the total number of concurrent remote reads on a host stays
+ * under this limit.
+ */
+public final class RemoteFetchLimiter {
+
+  public static final int DEFAULT_MAX_CONCURRENT_FETCHES = 8;
+
+  private static int maxConcurrentFetches = DEFAULT_MAX_CONCURRENT_FETCHES;
+  private static final ResizableSemaphore semaphore = new ResizableSemaphore(DEFAULT_MAX_CONCURRENT_FETCHES);
+
+  private RemoteFetchLimiter() {
+  }
+
+  // Exposes reducePermits() so that the limit can be lowered in place
+  private static class ResizableSemaphore extends Semaphore {
+
+    private ResizableSemaphore(int permits) {
+      super(permits);
+    }
+
+    @Override
+    protected void reducePermits(int reduction) {
+      super.reducePermits(reduction);
+    }
+  }
+
+  public static class Permit {
+
+    private Permit() {
+    }
+
+    public void release() {
+      semaphore.release();
+    }
+  }
+
+  // The limit is resized in place: when it is lowered, new fetches wait until enough running fetches are done
+  public static synchronized void setMaxConcurrentFetches(int maxConcurrentFetches) {
+    if (maxConcurrentFetches <= 0) {
+      throw new IllegalArgumentException("Max number of concurrent fetches must be positive: " + maxConcurrentFetches);
+    }
+    int delta = maxConcurrentFetches - RemoteFetchLimiter.maxConcurrentFetches;
+    if (delta > 0) {
+      semaphore.release(delta);
+    } else if (delta < 0) {
+      semaphore.reducePermits(-delta);
+    }
+    RemoteFetchLimiter.maxConcurrentFetches = maxConcurrentFetches;
+  }
+
+  public static synchronized int getMaxConcurrentFetches() {
+    return maxConcurrentFetches;
+  }
+
+  // Negative while more fetches are running than the current limit allows
+  static int getNumAvailablePermits() {
+    return semaphore.availablePermits();
+  }
+
+  // Block until a remote read can start. The permit must be released once the read is done.
+  public static Permit acquire() throws IOException {
+    try {
+      semaphore.acquire();
+    } catch (InterruptedException e) {
+      throw new IOException("Interrupted while waiting to fetch remote data", e);
+    }
+    return new Permit();
+  }
+}
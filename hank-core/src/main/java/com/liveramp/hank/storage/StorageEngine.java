@@ -22,6 +22,7 @@ import java.util.Set;
 
 import com.liveramp.hank.config.DataDirectoriesConfigurator;
 import com.liveramp.hank.config.ReaderConfigurator;
+import com.liveramp.hank.config.UpdaterConfigurator;
 import com.liveramp.hank.coordinator.DomainVersion;
 import com.liveramp.hank.coordinator.DomainVersionPropertiesSerialization;
 
@@ -37,7 +38,7 @@ public interface StorageEngine {
                           PartitionRemoteFileOps partitionRemoteFileOps,
                           int partitionNumber) throws IOException;
 
-  public PartitionUpdater getUpdater(DataDirectoriesConfigurator configurator, int partitionNumber) throws IOException;
+  public PartitionUpdater getUpdater(UpdaterConfigurator configurator, int partitionNumber) throws IOException;
 
   public Compactor getCompactor(DataDirectoriesConfigurator configurator,
                                 int partitionNumber) throws IOException;
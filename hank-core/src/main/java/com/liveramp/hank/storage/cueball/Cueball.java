@@ -16,29 +16,38 @@
 
 package com.liveramp.hank.storage.cueball;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.UUID;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.liveramp.hank.compression.cueball.CueballCompressionCodec;
 import com.liveramp.hank.compression.cueball.NoCueballCompressionCodec;
 import com.liveramp.hank.config.DataDirectoriesConfigurator;
 import com.liveramp.hank.config.ReaderConfigurator;
+import com.liveramp.hank.config.UpdaterConfigurator;
 import com.liveramp.hank.coordinator.Domain;
 import com.liveramp.hank.coordinator.DomainVersion;
 import com.liveramp.hank.hasher.Hasher;
 import com.liveramp.hank.hasher.IdentityHasher;
 import com.liveramp.hank.storage.Compactor;
 import com.liveramp.hank.storage.Deleter;
+import com.liveramp.hank.storage.LocalCompaction;
 import com.liveramp.hank.storage.PartitionRemoteFileOps;
 import com.liveramp.hank.storage.PartitionRemoteFileOpsFactory;
 import com.liveramp.hank.storage.PartitionUpdater;
@@ -49,6 +58,7 @@ import com.liveramp.hank.storage.StorageEngine;
 import com.liveramp.hank.storage.StorageEngineFactory;
 import com.liveramp.hank.storage.Writer;
 import com.liveramp.hank.storage.incremental.IncrementalDomainVersionProperties;
+import com.liveramp.hank.storage.incremental.IncrementalPartitionUpdater;
 import com.liveramp.hank.storage.incremental.IncrementalStorageEngine;
 import com.liveramp.hank.storage.incremental.IncrementalUpdatePlanner;
 import com.liveramp.hank.util.FsUtils;
@@ -56,11 +66,14 @@ import com.liveramp.hank.util.FsUtils;
 /**
  * Cueball is a storage engine optimized for small, fixed-size values.
  */
-public class Cueball extends IncrementalStorageEngine implements StorageEngine {
+public class Cueball extends IncrementalStorageEngine implements StorageEngine, LocalCompaction {
+
+  private static final Logger LOG = LoggerFactory.getLogger(Cueball.class);
 
   private static final Pattern BASE_OR_DELTA_PATTERN = Pattern.compile(".*(\\d{5})\\.((base)|(delta))\\.cueball");
   static final String BASE_REGEX = ".*\\d{5}\\.base\\.cueball";
   static final String DELTA_REGEX = ".*\\d{5}\\.delta\\.cueball";
+  static final String BLOOM_FILTER_SUFFIX = ".bloom";
 
   public static class Factory implements StorageEngineFactory {
 
@@ -72,6 +85,8 @@ public class Cueball extends IncrementalStorageEngine implements StorageEngine {
     public static final String HASHER_KEY = "hasher";
     public static final String COMPRESSION_CODEC = "compression_codec";
     public static final String NUM_REMOTE_LEAF_VERSIONS_TO_KEEP = "num_remote_leaf_versions_to_keep";
+    public static final String MAX_NUM_LAYERED_DELTAS_KEY = "max_num_layered_deltas";
+    public static final String STREAM_REMOTE_DELTAS_KEY = "stream_remote_deltas";
 
     private static final Set<String> REQUIRED_KEYS =
         new HashSet<String>(Arrays.asList(REMOTE_DOMAIN_ROOT_KEY,
@@ -116,6 +131,18 @@ public class Cueball extends IncrementalStorageEngine implements StorageEngine {
       // Num remote bases to keep
       Integer numRemoteLeafVersionsToKeep = (Integer)options.get(NUM_REMOTE_LEAF_VERSIONS_TO_KEEP);
 
+      // Max number of deltas layered on top of a base (optional, deltas are merged into a new base by default)
+      Integer maxNumLayeredDeltas = (Integer)options.get(MAX_NUM_LAYERED_DELTAS_KEY);
+      if (maxNumLayeredDeltas == null) {
+        maxNumLayeredDeltas = 0;
+      }
+
+      // Stream deltas from remote storage during updates instead of fetching them to local disk (optional)
+      Boolean streamRemoteDeltas = (Boolean)options.get(STREAM_REMOTE_DELTAS_KEY);
+      if (streamRemoteDeltas == null) {
+        streamRemoteDeltas = false;
+      }
+
       return new Cueball((Integer)options.get(KEY_HASH_SIZE_KEY),
           hasher,
           (Integer)options.get(VALUE_SIZE_KEY),
@@ -124,7 +151,9 @@ public class Cueball extends IncrementalStorageEngine implements StorageEngine {
           fileOpsFactory,
           compressionCodecClass,
           domain,
-          numRemoteLeafVersionsToKeep);
+          numRemoteLeafVersionsToKeep,
+          maxNumLayeredDeltas,
+          streamRemoteDeltas);
     }
 
     @Override
@@ -148,6 +177,8 @@ public class Cueball extends IncrementalStorageEngine implements StorageEngine {
   private final PartitionRemoteFileOpsFactory partitionRemoteFileOpsFactory;
   private final ByteBuffer keyHashBuffer;
   private final int numRemoteLeafVersionsToKeep;
+  private final int maxNumLayeredDeltas;
+  private final boolean streamRemoteDeltas;
 
   private final Class<? extends CueballCompressionCodec> compressionCodecClass;
 
@@ -160,6 +191,52 @@ public class Cueball extends IncrementalStorageEngine implements StorageEngine {
                  Class<? extends CueballCompressionCodec> compressionCodecClass,
                  Domain domain,
                  int numRemoteLeafVersionsToKeep) {
+    this(keyHashSize,
+        hasher,
+        valueSize,
+        hashIndexBits,
+        remoteDomainRoot,
+        partitionRemoteFileOpsFactory,
+        compressionCodecClass,
+        domain,
+        numRemoteLeafVersionsToKeep,
+        0);
+  }
+
+  public Cueball(int keyHashSize,
+                 Hasher hasher,
+                 int valueSize,
+                 int hashIndexBits,
+                 String remoteDomainRoot,
+                 PartitionRemoteFileOpsFactory partitionRemoteFileOpsFactory,
+                 Class<? extends CueballCompressionCodec> compressionCodecClass,
+                 Domain domain,
+                 int numRemoteLeafVersionsToKeep,
+                 int maxNumLayeredDeltas) {
+    this(keyHashSize,
+        hasher,
+        valueSize,
+        hashIndexBits,
+        remoteDomainRoot,
+        partitionRemoteFileOpsFactory,
+        compressionCodecClass,
+        domain,
+        numRemoteLeafVersionsToKeep,
+        maxNumLayeredDeltas,
+        false);
+  }
+
+  public Cueball(int keyHashSize,
+                 Hasher hasher,
+                 int valueSize,
+                 int hashIndexBits,
+                 String remoteDomainRoot,
+                 PartitionRemoteFileOpsFactory partitionRemoteFileOpsFactory,
+                 Class<? extends CueballCompressionCodec> compressionCodecClass,
+                 Domain domain,
+                 int numRemoteLeafVersionsToKeep,
+                 int maxNumLayeredDeltas,
+                 boolean streamRemoteDeltas) {
     this.keyHashSize = keyHashSize;
     this.hasher = hasher;
     this.valueSize = valueSize;
@@ -170,6 +247,8 @@ public class Cueball extends IncrementalStorageEngine implements StorageEngine {
     this.compressionCodecClass = compressionCodecClass;
     this.domain = domain;
     this.numRemoteLeafVersionsToKeep = numRemoteLeafVersionsToKeep;
+    this.maxNumLayeredDeltas = maxNumLayeredDeltas;
+    this.streamRemoteDeltas = streamRemoteDeltas;
     // Sanity check
     if (hashIndexBits > 32) {
       throw new RuntimeException("hashIndexBits is much too large (" + hashIndexBits + ")");
@@ -178,8 +257,21 @@ public class Cueball extends IncrementalStorageEngine implements StorageEngine {
 
   @Override
   public Reader getReader(ReaderConfigurator configurator, int partitionNumber) throws IOException {
+    String partitionRoot = getTargetDirectory(configurator, partitionNumber);
+    // Deltas are found on top of the base when layered updates are (or were) enabled
+    if (getLayers(partitionRoot).size() > 1) {
+      return new LayeredCueballReader(
+          partitionRoot,
+          keyHashSize,
+          hasher,
+          valueSize,
+          hashIndexBits,
+          getCompressionCodec(),
+          configurator.getCacheNumBytesCapacity(),
+          (int)configurator.getCacheNumItemsCapacity());
+    }
     return new CueballReader(
-        getTargetDirectory(configurator, partitionNumber),
+        partitionRoot,
         keyHashSize,
         hasher,
         valueSize,
@@ -227,16 +319,20 @@ public class Cueball extends IncrementalStorageEngine implements StorageEngine {
   }
 
   @Override
-  public PartitionUpdater getUpdater(DataDirectoriesConfigurator configurator, int partitionNumber) throws IOException {
+  public PartitionUpdater getUpdater(UpdaterConfigurator configurator, int partitionNumber) throws IOException {
     String localDir = getTargetDirectory(configurator, partitionNumber);
-    return new CueballPartitionUpdater(domain,
+    CueballPartitionUpdater updater = new CueballPartitionUpdater(domain,
         getPartitionRemoteFileOps(partitionNumber),
-        new CueballMerger(),
+        new CueballMerger(configurator.getNumMergeThreads()),
         keyHashSize,
         valueSize,
         hashIndexBits,
         getCompressionCodec(),
-        localDir);
+        localDir,
+        maxNumLayeredDeltas,
+        streamRemoteDeltas);
+    updater.setPartitionNumber(partitionNumber);
+    return updater;
   }
 
   @Override
@@ -245,6 +341,95 @@ public class Cueball extends IncrementalStorageEngine implements StorageEngine {
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public boolean needsLocalCompaction(DataDirectoriesConfigurator configurator,
+                                      int partitionNumber,
+                                      DomainVersion currentVersion) throws IOException {
+    // Deltas that were layered on top of the base can be merged into it
+    String localDir = getTargetDirectory(configurator, partitionNumber);
+    return new File(localDir).isDirectory() && getLayers(localDir).size() > 1;
+  }
+
+  @Override
+  public void compactLocally(UpdaterConfigurator configurator,
+                             int partitionNumber,
+                             DomainVersion currentVersion) throws IOException {
+    String localDir = getTargetDirectory(configurator, partitionNumber);
+    List<CueballFilePath> layers = getLayers(localDir);
+    if (layers.size() <= 1) {
+      return;
+    }
+    CueballFilePath latestLayer = layers.get(layers.size() - 1);
+    if (latestLayer.getVersion() != currentVersion.getVersionNumber()) {
+      throw new IOException("Local files in " + localDir + " are at version " + latestLayer.getVersion()
+          + ", expected " + currentVersion.getVersionNumber());
+    }
+    String newBaseName = getName(latestLayer.getVersion(), true);
+    File workRoot = createLocalCompactionWorkRoot(localDir);
+    try {
+      new CueballMerger(configurator.getNumMergeThreads()).merge(layers.get(0),
+          new ArrayList<CueballFilePath>(layers.subList(1, layers.size())),
+          workRoot.getAbsolutePath() + "/" + newBaseName,
+          keyHashSize,
+          valueSize,
+          null,
+          hashIndexBits,
+          getCompressionCodec());
+      // The new base hides the layers it was merged from, which can then be deleted
+      createLocalCompactionMarker(localDir);
+      if (!new File(workRoot, newBaseName).renameTo(new File(localDir, newBaseName))) {
+        throw new IOException("Failed to move compacted base " + newBaseName + " to " + localDir);
+      }
+      for (CueballFilePath layer : layers) {
+        File layerFile = new File(layer.getPath());
+        if (!layerFile.getName().equals(newBaseName) && !layerFile.delete()) {
+          LOG.error("Failed to delete compacted layer " + layerFile.getAbsolutePath());
+        }
+        File bloomFilterFile = new File(getBloomFilterPath(layer));
+        if (bloomFilterFile.exists() && !bloomFilterFile.delete()) {
+          LOG.error("Failed to delete Bloom filter of compacted layer " + bloomFilterFile.getAbsolutePath());
+        }
+      }
+      deleteLocalCompactionMarker(localDir);
+    } finally {
+      FileUtils.deleteDirectory(workRoot);
+    }
+  }
+
+  @Override
+  public boolean isLocalCompactionInProgress(DataDirectoriesConfigurator configurator,
+                                             int partitionNumber) throws IOException {
+    return hasLocalCompactionMarker(getTargetDirectory(configurator, partitionNumber));
+  }
+
+  // The marker exists while compacted files replace the local files, which are inconsistent in the meantime.
+  // It is left behind when that fails, so that the local files are discarded by the next update.
+  public static void createLocalCompactionMarker(String localDir) throws IOException {
+    File marker = new File(localDir, IncrementalPartitionUpdater.LOCAL_COMPACTION_MARKER_NAME);
+    if (!marker.createNewFile()) {
+      throw new IOException("Failed to create local compaction marker: " + marker.getAbsolutePath());
+    }
+  }
+
+  public static void deleteLocalCompactionMarker(String localDir) throws IOException {
+    File marker = new File(localDir, IncrementalPartitionUpdater.LOCAL_COMPACTION_MARKER_NAME);
+    if (!marker.delete()) {
+      throw new IOException("Failed to delete local compaction marker: " + marker.getAbsolutePath());
+    }
+  }
+
+  public static boolean hasLocalCompactionMarker(String localDir) {
+    return new File(localDir, IncrementalPartitionUpdater.LOCAL_COMPACTION_MARKER_NAME).exists();
+  }
+
+  public static File createLocalCompactionWorkRoot(String localDir) throws IOException {
+    File workRoot = new File(localDir, IncrementalPartitionUpdater.LOCAL_COMPACTION_WORK_ROOT_PREFIX + UUID.randomUUID().toString());
+    if (!workRoot.mkdir()) {
+      throw new IOException("Failed to create local compaction work root: " + workRoot.getAbsolutePath());
+    }
+    return workRoot;
+  }
+
   @Override
   public Writer getCompactorWriter(DomainVersion domainVersion,
                                    PartitionRemoteFileOps partitionRemoteFileOps,
@@ -305,6 +490,29 @@ public class Cueball extends IncrementalStorageEngine implements StorageEngine {
     return result;
   }
 
+  // Bloom filter of the key hashes of a layered delta, stored next to it
+  public static String getBloomFilterPath(CueballFilePath delta) {
+    return delta.getPath() + BLOOM_FILTER_SUFFIX;
+  }
+
+  // The latest base followed by the deltas that were layered on top of it, oldest first.
+  // Empty if there is no base.
+  public static List<CueballFilePath> getLayers(String partitionRoot) throws IOException {
+    List<CueballFilePath> result = new ArrayList<CueballFilePath>();
+    SortedSet<CueballFilePath> bases = getBases(partitionRoot);
+    if (bases.isEmpty()) {
+      return result;
+    }
+    CueballFilePath latestBase = bases.last();
+    result.add(latestBase);
+    for (CueballFilePath delta : getDeltas(partitionRoot)) {
+      if (delta.getVersion() > latestBase.getVersion()) {
+        result.add(delta);
+      }
+    }
+    return result;
+  }
+
   public static int parseVersionNumber(String name) {
     Matcher matcher = BASE_OR_DELTA_PATTERN.matcher(name);
     if (!matcher.matches()) {
@@ -365,7 +573,21 @@ public class Cueball extends IncrementalStorageEngine implements StorageEngine {
   @Override
   public Set<String> getFiles(DataDirectoriesConfigurator configurator, int domainVersionNumber, int partitionNumber) throws IOException {
     Set<String> result = new HashSet<String>();
-    result.add(getTargetDirectory(configurator, partitionNumber) + "/" + getName(domainVersionNumber, true));
+    String partitionRoot = getTargetDirectory(configurator, partitionNumber);
+    // A layered version is made of its base and the deltas on top of it
+    List<CueballFilePath> layers = new File(partitionRoot).isDirectory() ? getLayers(partitionRoot) : new ArrayList<CueballFilePath>();
+    if (layers.size() > 1 && layers.get(layers.size() - 1).getVersion() == domainVersionNumber) {
+      for (CueballFilePath layer : layers) {
+        result.add(layer.getPath());
+      }
+      for (CueballFilePath delta : layers.subList(1, layers.size())) {
+        if (new File(getBloomFilterPath(delta)).exists()) {
+          result.add(getBloomFilterPath(delta));
+        }
+      }
+    } else {
+      result.add(partitionRoot + "/" + getName(domainVersionNumber, true));
+    }
     return result;
   }
 
@@ -380,6 +602,8 @@ public class Cueball extends IncrementalStorageEngine implements StorageEngine {
         + ", remoteDomainRoot=" + remoteDomainRoot
         + ", valueSize=" + valueSize
         + ", numRemoteLeafVersionsToKeep=" + numRemoteLeafVersionsToKeep
+        + ", maxNumLayeredDeltas=" + maxNumLayeredDeltas
+        + ", streamRemoteDeltas=" + streamRemoteDeltas
         + "]";
   }
 }
@@ -16,24 +16,146 @@
 package com.liveramp.hank.storage.cueball;
 
 import com.liveramp.hank.compression.cueball.CueballCompressionCodec;
+import com.liveramp.hank.storage.BandwidthGovernor;
+import com.liveramp.hank.util.IOStreamUtils;
 
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
-
+/**
+ * Merges a base and deltas into a new base. Blocks never span hash prefixes,
+ * so when more than one merge thread is used, contiguous ranges of hash
+ * prefixes are merged concurrently into separate segments, which are then
+ * stitched together along with their hash indexes.
+ */
 public final class CueballMerger implements ICueballMerger {
 
+  public static final int DEFAULT_NUM_MERGE_THREADS = 1;
+
+  static final String SEGMENT_SUFFIX = ".segment_";
+
+  private final int numMergeThreads;
+
+  public CueballMerger() {
+    this(DEFAULT_NUM_MERGE_THREADS);
+  }
+
+  public CueballMerger(int numMergeThreads) {
+    this.numMergeThreads = Math.max(1, numMergeThreads);
+  }
+
   @Override
   public void merge(final CueballFilePath base,
                     final List<CueballFilePath> deltas,
                     final String newBasePath,
                     final int keyHashSize,
                     final int valueSize,
-                    ValueTransformer transformer,
-                    int hashIndexBits,
-                    CueballCompressionCodec compressionCodec) throws IOException {
+                    final ValueTransformer transformer,
+                    final int hashIndexBits,
+                    final CueballCompressionCodec compressionCodec) throws IOException {
+    int numHashIndexEntries = 1 << hashIndexBits;
+    int numRanges = Math.min(numHashIndexEntries, numMergeThreads);
+    if (numRanges <= 1) {
+      mergeRange(base, deltas, newBasePath, keyHashSize, valueSize, transformer, hashIndexBits, compressionCodec,
+          0, numHashIndexEntries);
+      return;
+    }
+
+    List<String> segmentPaths = new ArrayList<String>();
+    List<Callable<Void>> rangeMerges = new ArrayList<Callable<Void>>();
+    for (int i = 0; i < numRanges; ++i) {
+      final String segmentPath = newBasePath + SEGMENT_SUFFIX + i;
+      final int fromHashIndexIdx = (int)((long)i * numHashIndexEntries / numRanges);
+      final int toHashIndexIdx = (int)((long)(i + 1) * numHashIndexEntries / numRanges);
+      segmentPaths.add(segmentPath);
+      rangeMerges.add(new Callable<Void>() {
+        @Override
+        public Void call() throws IOException {
+          mergeRange(base, deltas, segmentPath, keyHashSize, valueSize, transformer, hashIndexBits, compressionCodec,
+              fromHashIndexIdx, toHashIndexIdx);
+          return null;
+        }
+      });
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(numRanges, new MergeThreadFactory(newBasePath));
+    try {
+      List<Future<Void>> futures = new ArrayList<Future<Void>>();
+      for (Callable<Void> rangeMerge : rangeMerges) {
+        futures.add(executor.submit(rangeMerge));
+      }
+      executor.shutdown();
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+      stitchSegments(segmentPaths, newBasePath, hashIndexBits);
+    } catch (InterruptedException e) {
+      throw new IOException("Interrupted while merging " + newBasePath, e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException)cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException)cause;
+      } else if (cause instanceof Error) {
+        throw (Error)cause;
+      } else {
+        throw new IOException("Failed to merge " + newBasePath, cause);
+      }
+    } finally {
+      executor.shutdownNow();
+      try {
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      for (String segmentPath : segmentPaths) {
+        new File(segmentPath).delete();
+      }
+    }
+  }
+
+  private static class MergeThreadFactory implements ThreadFactory {
+
+    private final String newBasePath;
+    private AtomicInteger threadID = new AtomicInteger(0);
+
+    public MergeThreadFactory(String newBasePath) {
+      this.newBasePath = newBasePath;
+    }
+
+    @Override
+    public Thread newThread(Runnable r) {
+      return new Thread(r, "Merge Thread: " + newBasePath + " #" + threadID.getAndIncrement());
+    }
+  }
+
+  private static void mergeRange(CueballFilePath base,
+                                 List<CueballFilePath> deltas,
+                                 String outputPath,
+                                 int keyHashSize,
+                                 int valueSize,
+                                 ValueTransformer transformer,
+                                 int hashIndexBits,
+                                 CueballCompressionCodec compressionCodec,
+                                 int fromHashIndexIdx,
+                                 int toHashIndexIdx) throws IOException {
 
     CueballStreamBufferMergeSort cueballStreamBufferMergeSort = new CueballStreamBufferMergeSort(base,
         deltas,
@@ -41,10 +163,13 @@ public final class CueballMerger implements ICueballMerger {
         valueSize,
         hashIndexBits,
         compressionCodec,
-        transformer);
+        transformer,
+        fromHashIndexIdx,
+        toHashIndexIdx);
 
     // Output stream for the new base to be written. intentionally unbuffered, the writer below will do that on its own.
-    OutputStream newCueballBaseOutputStream = new FileOutputStream(newBasePath);
+    OutputStream newCueballBaseOutputStream = BandwidthGovernor.throttle(new FileOutputStream(outputPath),
+        BandwidthGovernor.Budget.DISK_WRITE);
 
     // Note that we intentionally omit the hasher here, since it will *not* be used
     CueballWriter newCueballBaseWriter =
@@ -64,4 +189,66 @@ public final class CueballMerger implements ICueballMerger {
     cueballStreamBufferMergeSort.close();
     newCueballBaseWriter.close();
   }
+
+  // Concatenate the blocks of all segments, in order, and write the combined hash index
+  static void stitchSegments(List<String> segmentPaths, String outputPath, int hashIndexBits) throws IOException {
+    long[] hashIndex = new long[1 << hashIndexBits];
+    Arrays.fill(hashIndex, -1);
+    long numBytesWritten = 0;
+    long maxUncompressedBufferSize = 0;
+    long maxCompressedBufferSize = 0;
+    OutputStream outputStream = new BufferedOutputStream(
+        BandwidthGovernor.throttle(new FileOutputStream(outputPath), BandwidthGovernor.Budget.DISK_WRITE),
+        IOStreamUtils.DEFAULT_BUFFER_SIZE);
+    try {
+      for (String segmentPath : segmentPaths) {
+        FileInputStream segmentInputStream = new FileInputStream(segmentPath);
+        try {
+          Footer footer = new Footer(segmentInputStream.getChannel(), hashIndexBits);
+          long[] segmentHashIndex = footer.getHashIndex();
+          // Blocks are contiguous from the first one
+          long firstBlockOffset = -1;
+          for (long offset : segmentHashIndex) {
+            if (offset != -1) {
+              firstBlockOffset = offset;
+              break;
+            }
+          }
+          if (firstBlockOffset == -1) {
+            continue;
+          }
+          for (int i = 0; i < segmentHashIndex.length; ++i) {
+            if (segmentHashIndex[i] != -1) {
+              hashIndex[i] = segmentHashIndex[i] - firstBlockOffset + numBytesWritten;
+            }
+          }
+          long numBytes = footer.getDataLength() - firstBlockOffset;
+          segmentInputStream.getChannel().position(firstBlockOffset);
+          copy(BandwidthGovernor.throttle(segmentInputStream, BandwidthGovernor.Budget.DISK_READ), outputStream, numBytes);
+          numBytesWritten += numBytes;
+          maxUncompressedBufferSize = Math.max(maxUncompressedBufferSize, footer.getMaxUncompressedBufferSize());
+          maxCompressedBufferSize = Math.max(maxCompressedBufferSize, footer.getMaxCompressedBufferSize());
+        } finally {
+          segmentInputStream.close();
+        }
+      }
+      outputStream.write(Footer.encode(hashIndex, maxUncompressedBufferSize, maxCompressedBufferSize));
+      outputStream.flush();
+    } finally {
+      outputStream.close();
+    }
+  }
+
+  private static void copy(InputStream inputStream, OutputStream outputStream, long numBytes) throws IOException {
+    byte[] buffer = new byte[IOStreamUtils.DEFAULT_BUFFER_SIZE];
+    long remaining = numBytes;
+    while (remaining > 0) {
+      int numBytesRead = inputStream.read(buffer, 0, (int)Math.min(buffer.length, remaining));
+      if (numBytesRead < 0) {
+        throw new IOException("Unexpected end of segment with " + remaining + " bytes left to copy");
+      }
+      outputStream.write(buffer, 0, numBytesRead);
+      remaining -= numBytesRead;
+    }
+  }
 }
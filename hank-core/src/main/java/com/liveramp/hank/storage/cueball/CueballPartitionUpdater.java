@@ -21,6 +21,8 @@ import com.liveramp.hank.coordinator.Domain;
 import com.liveramp.hank.coordinator.DomainVersion;
 import com.liveramp.hank.partition_server.PartitionUpdateTaskStatistics;
 import com.liveramp.hank.storage.PartitionRemoteFileOps;
+import com.liveramp.hank.storage.RemoteFetchLimiter;
+import com.liveramp.hank.storage.incremental.IncrementalDomainVersionProperties;
 import com.liveramp.hank.storage.incremental.IncrementalPartitionUpdater;
 import com.liveramp.hank.storage.incremental.IncrementalUpdatePlan;
 import com.liveramp.hank.util.HankTimer;
@@ -30,17 +32,31 @@ import org.slf4j.Logger; import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class CueballPartitionUpdater extends IncrementalPartitionUpdater {
 
   private static final Logger LOG = LoggerFactory.getLogger(CueballPartitionUpdater.class);
 
+  // Remote deltas larger than this are written to local disk when streamed, instead of being held in memory
+  static final long MAX_IN_MEMORY_DELTA_SIZE = 64L << 20;
+  // Directory of the update work root where remote deltas too large to be held in memory are written
+  static final String STREAMED_DELTAS_DIR_NAME = "streamed_deltas";
+
   private final PartitionRemoteFileOps partitionRemoteFileOps;
   private final int keyHashSize;
   private final int valueSize;
   private final ICueballMerger cueballMerger;
   private final CueballCompressionCodec compressionCodec;
   private final int hashIndexBits;
+  private final int maxNumLayeredDeltas;
+  private final boolean streamRemoteDeltas;
 
   public CueballPartitionUpdater(Domain domain,
                                  PartitionRemoteFileOps partitionRemoteFileOps,
@@ -50,6 +66,58 @@ public class CueballPartitionUpdater extends IncrementalPartitionUpdater {
                                  int hashIndexBits,
                                  CueballCompressionCodec compressionCodec,
                                  String localPartitionRoot) throws IOException {
+    this(domain,
+        partitionRemoteFileOps,
+        cueballMerger,
+        keyHashSize,
+        valueSize,
+        hashIndexBits,
+        compressionCodec,
+        localPartitionRoot,
+        0);
+  }
+
+  /**
+   * @param maxNumLayeredDeltas When positive, deltas are layered on top of the base instead of being merged into
+   *                            a new base, until there are more than this number of them.
+   */
+  public CueballPartitionUpdater(Domain domain,
+                                 PartitionRemoteFileOps partitionRemoteFileOps,
+                                 ICueballMerger cueballMerger,
+                                 int keyHashSize,
+                                 int valueSize,
+                                 int hashIndexBits,
+                                 CueballCompressionCodec compressionCodec,
+                                 String localPartitionRoot,
+                                 int maxNumLayeredDeltas) throws IOException {
+    this(domain,
+        partitionRemoteFileOps,
+        cueballMerger,
+        keyHashSize,
+        valueSize,
+        hashIndexBits,
+        compressionCodec,
+        localPartitionRoot,
+        maxNumLayeredDeltas,
+        false);
+  }
+
+  /**
+   * @param streamRemoteDeltas When true, deltas are not fetched to local disk. Deltas that are merged are streamed
+   *                           from remote storage into memory during the update, or to local disk when too large
+   *                           to be held in memory. Deltas that are layered are copied
+   *                           directly to their final location.
+   */
+  public CueballPartitionUpdater(Domain domain,
+                                 PartitionRemoteFileOps partitionRemoteFileOps,
+                                 ICueballMerger cueballMerger,
+                                 int keyHashSize,
+                                 int valueSize,
+                                 int hashIndexBits,
+                                 CueballCompressionCodec compressionCodec,
+                                 String localPartitionRoot,
+                                 int maxNumLayeredDeltas,
+                                 boolean streamRemoteDeltas) throws IOException {
     super(domain, localPartitionRoot, new CueballUpdatePlanner(domain));
     this.partitionRemoteFileOps = partitionRemoteFileOps;
     this.cueballMerger = cueballMerger;
@@ -57,13 +125,16 @@ public class CueballPartitionUpdater extends IncrementalPartitionUpdater {
     this.valueSize = valueSize;
     this.hashIndexBits = hashIndexBits;
     this.compressionCodec = compressionCodec;
+    this.maxNumLayeredDeltas = maxNumLayeredDeltas;
+    this.streamRemoteDeltas = streamRemoteDeltas;
   }
 
   @Override
   protected Integer detectCurrentVersionNumber() throws IOException {
-    SortedSet<CueballFilePath> localBases = Cueball.getBases(localPartitionRoot);
-    if (localBases.size() > 0) {
-      return localBases.last().getVersion();
+    // The current version is the latest base, or the latest delta layered on top of it
+    List<CueballFilePath> localLayers = Cueball.getLayers(localPartitionRoot);
+    if (localLayers.size() > 0) {
+      return localLayers.get(localLayers.size() - 1).getVersion();
     } else {
       return null;
     }
@@ -104,7 +175,14 @@ public class CueballPartitionUpdater extends IncrementalPartitionUpdater {
 
   @Override
   protected void fetchVersion(DomainVersion domainVersion, String fetchRoot) throws IOException {
+    if (streamRemoteDeltas && !IncrementalDomainVersionProperties.isBase(domainVersion)) {
+      LOG.info("Not fetching delta " + domainVersion + " to " + fetchRoot + ", it will be streamed during the update");
+      return;
+    }
     String fileToFetch = Cueball.getName(domainVersion);
+    if (reuseUnchangedFile(domainVersion, fileToFetch, fetchRoot, false)) {
+      return;
+    }
     LOG.info("Fetching from " + partitionRemoteFileOps + " file " + fileToFetch + " to " + fetchRoot);
     partitionRemoteFileOps.copyToLocalRoot(fileToFetch, fetchRoot);
   }
@@ -128,9 +206,76 @@ public class CueballPartitionUpdater extends IncrementalPartitionUpdater {
         hashIndexBits,
         compressionCodec,
         null,
+        maxNumLayeredDeltas,
+        streamRemoteDeltas ? partitionRemoteFileOps : null,
+        statistics);
+  }
+
+  public static void runUpdateCore(DomainVersion currentVersion,
+                                   DomainVersion updatingToVersion,
+                                   IncrementalUpdatePlan updatePlan,
+                                   String updateWorkRoot,
+                                   String localPartitionRoot,
+                                   String localPartitionRootCache,
+                                   ICueballMerger cueballMerger,
+                                   int keyHashSize,
+                                   int valueSize,
+                                   int hashIndexBits,
+                                   CueballCompressionCodec compressionCodec,
+                                   ValueTransformer valueTransformer,
+                                   PartitionUpdateTaskStatistics statistics) throws IOException {
+    runUpdateCore(
+        currentVersion,
+        updatingToVersion,
+        updatePlan,
+        updateWorkRoot,
+        localPartitionRoot,
+        localPartitionRootCache,
+        cueballMerger,
+        keyHashSize,
+        valueSize,
+        hashIndexBits,
+        compressionCodec,
+        valueTransformer,
+        0,
+        statistics);
+  }
+
+  public static void runUpdateCore(DomainVersion currentVersion,
+                                   DomainVersion updatingToVersion,
+                                   IncrementalUpdatePlan updatePlan,
+                                   String updateWorkRoot,
+                                   String localPartitionRoot,
+                                   String localPartitionRootCache,
+                                   ICueballMerger cueballMerger,
+                                   int keyHashSize,
+                                   int valueSize,
+                                   int hashIndexBits,
+                                   CueballCompressionCodec compressionCodec,
+                                   ValueTransformer valueTransformer,
+                                   int maxNumLayeredDeltas,
+                                   PartitionUpdateTaskStatistics statistics) throws IOException {
+    runUpdateCore(
+        currentVersion,
+        updatingToVersion,
+        updatePlan,
+        updateWorkRoot,
+        localPartitionRoot,
+        localPartitionRootCache,
+        cueballMerger,
+        keyHashSize,
+        valueSize,
+        hashIndexBits,
+        compressionCodec,
+        valueTransformer,
+        maxNumLayeredDeltas,
+        null,
         statistics);
   }
 
+  /**
+   * @param remoteDeltasFileOps When not null, deltas that are not available locally are read from there instead
+   */
   public static void runUpdateCore(DomainVersion currentVersion,
                                    DomainVersion updatingToVersion,
                                    IncrementalUpdatePlan updatePlan,
@@ -143,35 +288,84 @@ public class CueballPartitionUpdater extends IncrementalPartitionUpdater {
                                    int hashIndexBits,
                                    CueballCompressionCodec compressionCodec,
                                    ValueTransformer valueTransformer,
+                                   int maxNumLayeredDeltas,
+                                   PartitionRemoteFileOps remoteDeltasFileOps,
                                    PartitionUpdateTaskStatistics statistics) throws IOException {
 
     // Determine new base path
     String newBasePath = updateWorkRoot + "/"
         + Cueball.getName(updatingToVersion.getVersionNumber(), true);
 
-    // Determine files from versions
-    CueballFilePath base = getCueballFilePathForVersion(updatePlan.getBase(), currentVersion,
-        localPartitionRoot, localPartitionRootCache, true);
+    // Determine files from versions. When updating from the current version, start from all its layers
+    // (its base and the deltas that were layered on top of it, if any).
+    CueballFilePath base;
     List<CueballFilePath> deltas = new ArrayList<CueballFilePath>();
+    List<CueballFilePath> currentLayers = getCurrentVersionLayers(updatePlan.getBase(), currentVersion, localPartitionRoot);
+    if (currentLayers != null) {
+      base = currentLayers.get(0);
+      deltas.addAll(currentLayers.subList(1, currentLayers.size()));
+    } else {
+      currentLayers = Collections.emptyList();
+      base = getCueballFilePathForVersion(updatePlan.getBase(), currentVersion,
+          localPartitionRoot, localPartitionRootCache, true);
+    }
+    // Deltas that were not fetched are streamed from remote storage
+    List<CueballFilePath> remoteDeltas = new ArrayList<CueballFilePath>();
     for (DomainVersion delta : updatePlan.getDeltasOrdered()) {
-      deltas.add(getCueballFilePathForVersion(delta, currentVersion,
-          localPartitionRoot, localPartitionRootCache, false));
+      CueballFilePath deltaPath = getCueballFilePathForVersion(delta, currentVersion,
+          localPartitionRoot, localPartitionRootCache, false);
+      if (remoteDeltasFileOps != null && !new File(deltaPath.getPath()).exists()) {
+        remoteDeltas.add(deltaPath);
+      }
+      deltas.add(deltaPath);
     }
 
     // Check that all required files are available
     checkRequiredFileExists(base.getPath());
     for (CueballFilePath delta : deltas) {
-      checkRequiredFileExists(delta.getPath());
+      if (!remoteDeltas.contains(delta)) {
+        checkRequiredFileExists(delta.getPath());
+      }
     }
 
     HankTimer timer = new HankTimer();
     // If there are no deltas, simply move the required base to the target version.
+    // If there are few enough deltas, layer them on top of the base.
     // Otherwise, perform merging.
     if (deltas.size() == 0) {
       if (!new File(base.getPath()).renameTo(new File(newBasePath))) {
         throw new IOException("Failed to rename Cueball base: " + base.getPath() + " to: " + newBasePath);
       }
+    } else if (deltas.size() <= maxNumLayeredDeltas) {
+      List<CueballFilePath> layers = new ArrayList<CueballFilePath>();
+      layers.add(base);
+      layers.addAll(deltas);
+      // Move the layers of the current version last, so that they stay in place if moving any other file fails
+      for (CueballFilePath layer : layers) {
+        if (remoteDeltas.contains(layer)) {
+          remoteDeltasFileOps.copyToLocalRoot(layer.getName(), updateWorkRoot);
+          statistics.addNumBytesFetched(new File(updateWorkRoot, layer.getName()).length());
+        } else if (!currentLayers.contains(layer)) {
+          moveToUpdateWorkRoot(layer, updateWorkRoot);
+        }
+      }
+      for (CueballFilePath layer : currentLayers) {
+        moveToUpdateWorkRoot(layer, updateWorkRoot);
+      }
+      // Store the Bloom filter of each delta next to it, so that readers do not rebuild them when opening
+      for (CueballFilePath delta : deltas) {
+        CueballFilePath layeredDelta = new CueballFilePath(updateWorkRoot + "/" + delta.getName());
+        File bloomFilterFile = new File(Cueball.getBloomFilterPath(layeredDelta));
+        if (!bloomFilterFile.exists()) {
+          LayeredCueballReader.writeBloomFilter(layeredDelta, keyHashSize, valueSize, hashIndexBits, compressionCodec);
+          statistics.addNumBytesWritten(bloomFilterFile.length());
+        }
+      }
     } else {
+      if (!remoteDeltas.isEmpty()) {
+        deltas = streamRemoteDeltas(deltas, remoteDeltas, remoteDeltasFileOps, updateWorkRoot, statistics);
+        statistics.getDurationsMs().put("Cueball delta stream", timer.getDurationMs());
+      }
       cueballMerger.merge(base,
           deltas,
           newBasePath,
@@ -180,10 +374,114 @@ public class CueballPartitionUpdater extends IncrementalPartitionUpdater {
           valueTransformer,
           hashIndexBits,
           compressionCodec);
+      statistics.addNumBytesWritten(new File(newBasePath).length());
     }
     statistics.getDurationsMs().put("Cueball merge", timer.getDurationMs());
   }
 
+  private static class DeltaStreamThreadFactory implements ThreadFactory {
+
+    private final String updateWorkRoot;
+    private AtomicInteger threadID = new AtomicInteger(0);
+
+    public DeltaStreamThreadFactory(String updateWorkRoot) {
+      this.updateWorkRoot = updateWorkRoot;
+    }
+
+    @Override
+    public Thread newThread(Runnable r) {
+      return new Thread(r, "Delta Stream Thread: " + updateWorkRoot + " #" + threadID.getAndIncrement());
+    }
+  }
+
+  // Stream the given remote deltas into memory, concurrently. Deltas too large to be held in memory are written
+  // to a directory of the update work root instead. Return the deltas with the remote ones replaced.
+  private static List<CueballFilePath> streamRemoteDeltas(List<CueballFilePath> deltas,
+                                                          List<CueballFilePath> remoteDeltas,
+                                                          final PartitionRemoteFileOps remoteDeltasFileOps,
+                                                          String updateWorkRoot,
+                                                          PartitionUpdateTaskStatistics statistics) throws IOException {
+    final String streamedDeltasRoot = updateWorkRoot + "/" + STREAMED_DELTAS_DIR_NAME;
+    ExecutorService executor = Executors.newFixedThreadPool(
+        Math.min(remoteDeltas.size(), RemoteFetchLimiter.getMaxConcurrentFetches()),
+        new DeltaStreamThreadFactory(updateWorkRoot));
+    try {
+      Map<CueballFilePath, Future<CueballFilePath>> streams =
+          new HashMap<CueballFilePath, Future<CueballFilePath>>();
+      for (final CueballFilePath remoteDelta : remoteDeltas) {
+        LOG.info("Streaming from " + remoteDeltasFileOps + " file " + remoteDelta.getName() + " into memory");
+        streams.put(remoteDelta, executor.submit(new Callable<CueballFilePath>() {
+          @Override
+          public CueballFilePath call() throws IOException {
+            return InMemoryCueballFilePath.load(remoteDeltasFileOps, remoteDelta.getName(), streamedDeltasRoot,
+                MAX_IN_MEMORY_DELTA_SIZE);
+          }
+        }));
+      }
+      executor.shutdown();
+      List<CueballFilePath> result = new ArrayList<CueballFilePath>();
+      for (CueballFilePath delta : deltas) {
+        Future<CueballFilePath> stream = streams.get(delta);
+        if (stream != null) {
+          CueballFilePath streamedDelta = stream.get();
+          if (streamedDelta instanceof InMemoryCueballFilePath) {
+            statistics.addNumBytesFetched(((InMemoryCueballFilePath)streamedDelta).getData().length);
+          } else {
+            statistics.addNumBytesFetched(new File(streamedDelta.getPath()).length());
+          }
+          result.add(streamedDelta);
+        } else {
+          result.add(delta);
+        }
+      }
+      return result;
+    } catch (InterruptedException e) {
+      throw new IOException("Interrupted while streaming deltas from " + remoteDeltasFileOps, e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException)cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException)cause;
+      } else if (cause instanceof Error) {
+        throw (Error)cause;
+      } else {
+        throw new IOException("Failed to stream deltas from " + remoteDeltasFileOps, cause);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  // Return the layers of the current version if the update starts from it, null otherwise
+  private static List<CueballFilePath> getCurrentVersionLayers(DomainVersion base,
+                                                               DomainVersion currentVersion,
+                                                               String localPartitionRoot) throws IOException {
+    if (currentVersion == null || !currentVersion.equals(base)) {
+      return null;
+    }
+    List<CueballFilePath> layers = Cueball.getLayers(localPartitionRoot);
+    if (layers.isEmpty() || layers.get(layers.size() - 1).getVersion() != currentVersion.getVersionNumber()) {
+      return null;
+    }
+    return layers;
+  }
+
+  private static void moveToUpdateWorkRoot(CueballFilePath file, String updateWorkRoot) throws IOException {
+    File targetFile = new File(updateWorkRoot + "/" + file.getName());
+    if (!new File(file.getPath()).renameTo(targetFile)) {
+      throw new IOException("Failed to move Cueball file: " + file.getPath() + " to: " + targetFile.getPath());
+    }
+    // Bloom filters of layered deltas follow them
+    File bloomFilterFile = new File(Cueball.getBloomFilterPath(file));
+    if (bloomFilterFile.exists()) {
+      File targetBloomFilterFile = new File(targetFile.getPath() + Cueball.BLOOM_FILTER_SUFFIX);
+      if (!bloomFilterFile.renameTo(targetBloomFilterFile)) {
+        throw new IOException("Failed to move Bloom filter: " + bloomFilterFile.getPath() + " to: " + targetBloomFilterFile.getPath());
+      }
+    }
+  }
+
   public static CueballFilePath getCueballFilePathForVersion(DomainVersion version,
                                                              DomainVersion currentVersion,
                                                              String localPartitionRoot,
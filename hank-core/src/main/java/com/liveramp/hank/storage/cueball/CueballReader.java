@@ -56,20 +56,34 @@ public class CueballReader implements Reader {
                        CueballCompressionCodec compressionCodec,
                        long cacheNumBytesCapacity,
                        int cacheNumItemsCapacity) throws IOException {
-    SortedSet<CueballFilePath> bases = Cueball.getBases(partitionRoot);
-    if (bases == null || bases.size() == 0) {
-      throw new IOException("Could not detect any Cueball base in " + partitionRoot);
-    }
-    CueballFilePath latestBase = bases.last();
+    this(getLatestBase(partitionRoot),
+        keyHashSize,
+        hasher,
+        valueSize,
+        hashIndexBits,
+        compressionCodec,
+        cacheNumBytesCapacity,
+        cacheNumItemsCapacity);
+  }
+
+  // Read the given Cueball file, which can be a base or a delta
+  public CueballReader(CueballFilePath file,
+                       int keyHashSize,
+                       Hasher hasher,
+                       int valueSize,
+                       int hashIndexBits,
+                       CueballCompressionCodec compressionCodec,
+                       long cacheNumBytesCapacity,
+                       int cacheNumItemsCapacity) throws IOException {
     this.keyHashSize = keyHashSize;
     this.hasher = hasher;
     this.valueSize = valueSize;
     this.compressionCodec = compressionCodec;
     this.fullRecordSize = valueSize + keyHashSize;
     this.prefixer = new HashPrefixCalculator(hashIndexBits);
-    this.versionNumber = latestBase.getVersion();
+    this.versionNumber = file.getVersion();
 
-    channel = new FileInputStream(latestBase.getPath()).getChannel();
+    channel = new FileInputStream(file.getPath()).getChannel();
     Footer footer = new Footer(channel, hashIndexBits);
     hashIndex = footer.getHashIndex();
     maxUncompressedBufferSize = footer.getMaxUncompressedBufferSize();
@@ -82,10 +96,22 @@ public class CueballReader implements Reader {
         new ByteBufferMemoryUsageEstimator());
   }
 
+  private static CueballFilePath getLatestBase(String partitionRoot) throws IOException {
+    SortedSet<CueballFilePath> bases = Cueball.getBases(partitionRoot);
+    if (bases == null || bases.size() == 0) {
+      throw new IOException("Could not detect any Cueball base in " + partitionRoot);
+    }
+    return bases.last();
+  }
+
   @Override
   public void get(ByteBuffer key, ReaderResult result) throws IOException {
     // Note: keyHash buffer might be larger than keyHashSize
-    byte[] keyHash = computeKeyHash(key);
+    get(computeKeyHash(key), result);
+  }
+
+  // Look up a key hash computed with computeKeyHash()
+  void get(byte[] keyHash, ReaderResult result) throws IOException {
     ByteBuffer keyHashByteBuffer = ByteBuffer.wrap(keyHash);
 
     int hashPrefix = prefixer.getHashPrefix(keyHash, 0);
@@ -194,7 +220,7 @@ public class CueballReader implements Reader {
   }
 
   // Note: result buffer might be larger than keyHashSize
-  private byte[] computeKeyHash(ByteBuffer key) {
+  byte[] computeKeyHash(ByteBuffer key) {
     // Reuse a thread local buffer, but first make sure it is at least of the required size
     byte[] keyHash = keyHashBufferThreadLocal.getAndRequireBufferSize(keyHashSize);
     hasher.hash(key, keyHashSize, keyHash);
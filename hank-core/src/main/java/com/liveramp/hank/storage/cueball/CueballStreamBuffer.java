@@ -20,9 +20,11 @@ package com.liveramp.hank.storage.cueball;
 
 import com.liveramp.commons.util.BytesUtils;
 import com.liveramp.hank.compression.cueball.CueballCompressionCodec;
+import com.liveramp.hank.storage.BandwidthGovernor;
 import com.liveramp.hank.util.IOStreamUtils;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -41,7 +43,8 @@ public final class CueballStreamBuffer {
   private final byte[] uncompressedBuffer;
   private final byte[] compressedBuffer;
 
-  private int currentHashIndexIdx = -1;
+  private int currentHashIndexIdx;
+  private final int endHashIndexIdx;
   private final CueballCompressionCodec compressionCodec;
   private final long dataLength;
 
@@ -52,19 +55,102 @@ public final class CueballStreamBuffer {
                              int hashIndexBits,
                              CueballCompressionCodec compressionCodec)
       throws IOException {
+    this(filePath, relativeIndex, keyHashSize, valueSize, hashIndexBits, compressionCodec, 0, 1 << hashIndexBits);
+  }
+
+  // Only stream the blocks of hash prefixes in [fromHashIndexIdx, toHashIndexIdx)
+  public CueballStreamBuffer(String filePath,
+                             int relativeIndex,
+                             int keyHashSize,
+                             int valueSize,
+                             int hashIndexBits,
+                             CueballCompressionCodec compressionCodec,
+                             int fromHashIndexIdx,
+                             int toHashIndexIdx)
+      throws IOException {
+    this(openFile(filePath, hashIndexBits), relativeIndex, keyHashSize, valueSize, compressionCodec,
+        fromHashIndexIdx, toHashIndexIdx);
+  }
+
+  // Stream the blocks of a whole Cueball file held in memory
+  public CueballStreamBuffer(byte[] data,
+                             int relativeIndex,
+                             int keyHashSize,
+                             int valueSize,
+                             int hashIndexBits,
+                             CueballCompressionCodec compressionCodec,
+                             int fromHashIndexIdx,
+                             int toHashIndexIdx)
+      throws IOException {
+    this(new Source(new ByteArrayInputStream(data), new Footer(data, hashIndexBits)), relativeIndex,
+        keyHashSize, valueSize, compressionCodec, fromHashIndexIdx, toHashIndexIdx);
+  }
+
+  private CueballStreamBuffer(Source source,
+                              int relativeIndex,
+                              int keyHashSize,
+                              int valueSize,
+                              CueballCompressionCodec compressionCodec,
+                              int fromHashIndexIdx,
+                              int toHashIndexIdx)
+      throws IOException {
     this.relativeIndex = relativeIndex;
     this.compressionCodec = compressionCodec;
-    FileInputStream fileInputStream = new FileInputStream(filePath);
-    this.stream = new BufferedInputStream(fileInputStream, IOStreamUtils.DEFAULT_BUFFER_SIZE);
+    this.stream = source.stream;
 
     this.keyHashSize = keyHashSize;
     this.fullRecordSize = valueSize + keyHashSize;
 
-    Footer footer = new Footer(fileInputStream.getChannel(), hashIndexBits);
+    Footer footer = source.footer;
     dataLength = footer.getDataLength();
     hashIndex = footer.getHashIndex();
     uncompressedBuffer = new byte[footer.getMaxUncompressedBufferSize()];
     compressedBuffer = new byte[footer.getMaxCompressedBufferSize()];
+
+    currentHashIndexIdx = fromHashIndexIdx - 1;
+    endHashIndexIdx = Math.min(toHashIndexIdx, hashIndex.length);
+    // Start reading at the first block of the range, blocks are contiguous from there
+    for (int i = fromHashIndexIdx; i < endHashIndexIdx; ++i) {
+      if (hashIndex[i] != -1) {
+        skipFully(stream, hashIndex[i]);
+        break;
+      }
+    }
+  }
+
+  private static final class Source {
+    private final InputStream stream;
+    private final Footer footer;
+
+    private Source(InputStream stream, Footer footer) {
+      this.stream = stream;
+      this.footer = footer;
+    }
+  }
+
+  private static Source openFile(String filePath, int hashIndexBits) throws IOException {
+    FileInputStream fileInputStream = new FileInputStream(filePath);
+    try {
+      Footer footer = new Footer(fileInputStream.getChannel(), hashIndexBits);
+      InputStream stream = new BufferedInputStream(
+          BandwidthGovernor.throttle(fileInputStream, BandwidthGovernor.Budget.DISK_READ),
+          IOStreamUtils.DEFAULT_BUFFER_SIZE);
+      return new Source(stream, footer);
+    } catch (IOException e) {
+      fileInputStream.close();
+      throw e;
+    }
+  }
+
+  private static void skipFully(InputStream stream, long numBytes) throws IOException {
+    long remaining = numBytes;
+    while (remaining > 0) {
+      long skipped = stream.skip(remaining);
+      if (skipped <= 0) {
+        throw new IOException("Unexpected end of Cueball file with " + remaining + " bytes left to skip");
+      }
+      remaining -= skipped;
+    }
   }
 
   public boolean anyRemaining() throws IOException {
@@ -79,14 +165,14 @@ public final class CueballStreamBuffer {
 
     // advance to the next non-empty block
     currentHashIndexIdx++;
-    while (currentHashIndexIdx < hashIndex.length) {
+    while (currentHashIndexIdx < endHashIndexIdx) {
       if (hashIndex[currentHashIndexIdx] != -1) {
         break;
       }
       currentHashIndexIdx++;
     }
 
-    if (currentHashIndexIdx >= hashIndex.length) {
+    if (currentHashIndexIdx >= endHashIndexIdx) {
       // there are no more blocks. we're all done
       complete = true;
       return false;
@@ -70,6 +70,20 @@ public class CueballStreamBufferMergeSort implements IKeyFileStreamBufferMergeSo
                                       int hashIndexBits,
                                       CueballCompressionCodec compressionCodec,
                                       ValueTransformer transformer) throws IOException {
+    this(cueballBase, cueballDeltas, keyHashSize, valueSize, hashIndexBits, compressionCodec, transformer,
+        0, 1 << hashIndexBits);
+  }
+
+  // Only merge the key hashes of hash prefixes in [fromHashIndexIdx, toHashIndexIdx)
+  public CueballStreamBufferMergeSort(CueballFilePath cueballBase,
+                                      List<CueballFilePath> cueballDeltas,
+                                      int keyHashSize,
+                                      int valueSize,
+                                      int hashIndexBits,
+                                      CueballCompressionCodec compressionCodec,
+                                      ValueTransformer transformer,
+                                      int fromHashIndexIdx,
+                                      int toHashIndexIdx) throws IOException {
     this.keyHashSize = keyHashSize;
     this.valueSize = valueSize;
     this.transformer = transformer;
@@ -77,19 +91,37 @@ public class CueballStreamBufferMergeSort implements IKeyFileStreamBufferMergeSo
     cueballStreamBuffers = new CueballStreamBuffer[cueballDeltas.size() + 1];
 
     // Open the base
-    CueballStreamBuffer cueballBaseStreamBuffer = new CueballStreamBuffer(cueballBase.getPath(), 0,
-        keyHashSize, valueSize, hashIndexBits, compressionCodec);
+    CueballStreamBuffer cueballBaseStreamBuffer = openStreamBuffer(cueballBase, 0,
+        keyHashSize, valueSize, hashIndexBits, compressionCodec, fromHashIndexIdx, toHashIndexIdx);
     cueballStreamBuffers[0] = cueballBaseStreamBuffer;
 
     // Open all the deltas
     int i = 1;
     for (CueballFilePath delta : cueballDeltas) {
-      CueballStreamBuffer cueballStreamBuffer =
-          new CueballStreamBuffer(delta.getPath(), i, keyHashSize, valueSize, hashIndexBits, compressionCodec);
+      CueballStreamBuffer cueballStreamBuffer = openStreamBuffer(delta, i, keyHashSize, valueSize,
+          hashIndexBits, compressionCodec, fromHashIndexIdx, toHashIndexIdx);
       cueballStreamBuffers[i++] = cueballStreamBuffer;
     }
   }
 
+  // Files that were streamed from remote storage into memory are read from there
+  private static CueballStreamBuffer openStreamBuffer(CueballFilePath file,
+                                                      int relativeIndex,
+                                                      int keyHashSize,
+                                                      int valueSize,
+                                                      int hashIndexBits,
+                                                      CueballCompressionCodec compressionCodec,
+                                                      int fromHashIndexIdx,
+                                                      int toHashIndexIdx) throws IOException {
+    if (file instanceof InMemoryCueballFilePath) {
+      return new CueballStreamBuffer(((InMemoryCueballFilePath)file).getData(), relativeIndex, keyHashSize, valueSize,
+          hashIndexBits, compressionCodec, fromHashIndexIdx, toHashIndexIdx);
+    } else {
+      return new CueballStreamBuffer(file.getPath(), relativeIndex, keyHashSize, valueSize,
+          hashIndexBits, compressionCodec, fromHashIndexIdx, toHashIndexIdx);
+    }
+  }
+
   // Return null when there is nothing more to use
   @Override
   public KeyHashAndValueAndStreamIndex nextKeyHashAndValueAndStreamIndex() throws IOException {
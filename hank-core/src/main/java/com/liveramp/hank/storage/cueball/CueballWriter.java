@@ -19,7 +19,6 @@ import com.liveramp.commons.util.BytesUtils;
 import com.liveramp.hank.compression.cueball.CueballCompressionCodec;
 import com.liveramp.hank.hasher.Hasher;
 import com.liveramp.hank.storage.Writer;
-import com.liveramp.hank.util.EncodingHelper;
 import com.liveramp.hank.util.IOStreamUtils;
 
 import java.io.BufferedOutputStream;
@@ -207,15 +206,7 @@ public class CueballWriter implements Writer {
     }
 
     // serialize the footer
-    byte[] footer = new byte[8 * hashIndex.length + 4 + 4];
-
-    for (int i = 0; i < hashIndex.length; i++) {
-      EncodingHelper.encodeLittleEndianFixedWidthLong(hashIndex[i], footer, i * 8, 8);
-    }
-
-    // write the buffer size hints
-    EncodingHelper.encodeLittleEndianFixedWidthLong(maxUncompressedBlockSize, footer, footer.length - 8, 4);
-    EncodingHelper.encodeLittleEndianFixedWidthLong(maxCompressedBlockSize, footer, footer.length - 4, 4);
+    byte[] footer = Footer.encode(hashIndex, maxUncompressedBlockSize, maxCompressedBlockSize);
 
     stream.write(footer);
 
@@ -0,0 +1,119 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.storage.cueball;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.liveramp.hank.storage.PartitionRemoteFileOps;
+import com.liveramp.hank.storage.RemoteFetchLimiter;
+import com.liveramp.hank.util.IOStreamUtils;
+
+/**
+ * Cueball file that was streamed from remote storage straight into memory
+ * instead of being copied to local disk. Its path is the remote path of the
+ * file, and it can only be merged, not read from. Files that are too large to
+ * be held in memory are written to local disk while they are streamed.
+ */
+public class InMemoryCueballFilePath extends CueballFilePath {
+
+  private static final Logger LOG = LoggerFactory.getLogger(InMemoryCueballFilePath.class);
+
+  private final byte[] data;
+
+  public InMemoryCueballFilePath(String path, byte[] data) {
+    super(path);
+    this.data = data;
+  }
+
+  public byte[] getData() {
+    return data;
+  }
+
+  // Stream the given remote file into memory. If it turns out to be larger than maxInMemorySize, write it to the
+  // given local root instead and return the path of the local copy.
+  public static CueballFilePath load(PartitionRemoteFileOps partitionRemoteFileOps,
+                                     String remoteRelativePath,
+                                     String localRoot,
+                                     long maxInMemorySize) throws IOException {
+    ByteArrayOutputStream inMemoryStream = new ByteArrayOutputStream();
+    File localFile = null;
+    RemoteFetchLimiter.Permit permit = RemoteFetchLimiter.acquire();
+    try {
+      InputStream inputStream = partitionRemoteFileOps.getInputStream(remoteRelativePath);
+      try {
+        byte[] buffer = new byte[IOStreamUtils.DEFAULT_BUFFER_SIZE];
+        int numBytesRead;
+        while ((numBytesRead = inputStream.read(buffer)) > 0) {
+          if (inMemoryStream.size() + numBytesRead <= maxInMemorySize) {
+            inMemoryStream.write(buffer, 0, numBytesRead);
+          } else {
+            // Too large to be held in memory, write it to local disk instead
+            localFile = new File(localRoot + "/" + new File(remoteRelativePath).getName());
+            LOG.info("Remote file " + remoteRelativePath + " is larger than " + maxInMemorySize
+                + " bytes, writing it to " + localFile.getPath());
+            copyToLocalFile(inMemoryStream, buffer, numBytesRead, inputStream, localFile);
+            break;
+          }
+        }
+      } finally {
+        inputStream.close();
+      }
+    } catch (IOException e) {
+      if (localFile != null) {
+        localFile.delete();
+      }
+      throw e;
+    } finally {
+      permit.release();
+    }
+    if (localFile != null) {
+      return new CueballFilePath(localFile.getPath());
+    } else {
+      return new InMemoryCueballFilePath(partitionRemoteFileOps.getRemoteAbsolutePath(remoteRelativePath),
+          inMemoryStream.toByteArray());
+    }
+  }
+
+  private static void copyToLocalFile(ByteArrayOutputStream inMemoryStream,
+                                      byte[] buffer,
+                                      int numBytesInBuffer,
+                                      InputStream inputStream,
+                                      File localFile) throws IOException {
+    File localRoot = localFile.getParentFile();
+    if (!localRoot.exists() && !localRoot.mkdirs()) {
+      throw new IOException("Failed to create directory: " + localRoot.getPath());
+    }
+    OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(localFile),
+        IOStreamUtils.DEFAULT_BUFFER_SIZE);
+    try {
+      inMemoryStream.writeTo(outputStream);
+      inMemoryStream.reset();
+      outputStream.write(buffer, 0, numBytesInBuffer);
+      IOStreamUtils.copy(inputStream, outputStream);
+    } finally {
+      outputStream.close();
+    }
+  }
+}
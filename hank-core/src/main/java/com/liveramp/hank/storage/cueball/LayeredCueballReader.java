@@ -0,0 +1,202 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.storage.cueball;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.liveramp.hank.compression.cueball.CueballCompressionCodec;
+import com.liveramp.hank.hasher.Hasher;
+import com.liveramp.hank.storage.CacheStatistics;
+import com.liveramp.hank.storage.Reader;
+import com.liveramp.hank.storage.ReaderResult;
+import com.liveramp.hank.util.BloomFilter;
+
+/**
+ * Reader of a partition made of a Cueball base and of the deltas that were
+ * layered on top of it instead of being merged into a new base. A key is looked
+ * up in the newest delta first and in the base last. Each delta comes with a
+ * Bloom filter of its key hashes, so that lookups of keys that a delta does not
+ * contain usually skip it without any I/O. Bloom filters are written next to the
+ * deltas when they are layered, and only rebuilt when missing.
+ */
+public class LayeredCueballReader implements Reader {
+
+  private static final Logger LOG = LoggerFactory.getLogger(LayeredCueballReader.class);
+
+  static final int BLOOM_FILTER_NUM_BITS_PER_KEY = 10;
+
+  private final int keyHashSize;
+  private final CueballReader baseReader;
+  // Newest delta first
+  private final List<CueballReader> deltaReaders = new ArrayList<CueballReader>();
+  private final List<BloomFilter> deltaBloomFilters = new ArrayList<BloomFilter>();
+  private final int versionNumber;
+
+  public LayeredCueballReader(String partitionRoot,
+                              int keyHashSize,
+                              Hasher hasher,
+                              int valueSize,
+                              int hashIndexBits,
+                              CueballCompressionCodec compressionCodec,
+                              long cacheNumBytesCapacity,
+                              int cacheNumItemsCapacity) throws IOException {
+    List<CueballFilePath> layers = Cueball.getLayers(partitionRoot);
+    if (layers.isEmpty()) {
+      throw new IOException("Could not detect any Cueball base in " + partitionRoot);
+    }
+    this.keyHashSize = keyHashSize;
+    this.versionNumber = layers.get(layers.size() - 1).getVersion();
+    // Only the base is cached, deltas are small and recently written
+    this.baseReader = new CueballReader(layers.get(0), keyHashSize, hasher, valueSize, hashIndexBits,
+        compressionCodec, cacheNumBytesCapacity, cacheNumItemsCapacity);
+    try {
+      for (int i = layers.size() - 1; i > 0; --i) {
+        CueballFilePath delta = layers.get(i);
+        deltaBloomFilters.add(loadBloomFilter(delta, keyHashSize, valueSize, hashIndexBits, compressionCodec));
+        deltaReaders.add(new CueballReader(delta, keyHashSize, hasher, valueSize, hashIndexBits,
+            compressionCodec, 0, 0));
+      }
+    } catch (IOException e) {
+      close();
+      throw e;
+    }
+  }
+
+  @Override
+  public void get(ByteBuffer key, ReaderResult result) throws IOException {
+    byte[] keyHash = baseReader.computeKeyHash(key);
+    for (int i = 0; i < deltaReaders.size(); ++i) {
+      if (deltaBloomFilters.get(i).mayContain(keyHash, 0, keyHashSize)) {
+        deltaReaders.get(i).get(keyHash, result);
+        if (result.isFound()) {
+          return;
+        }
+      }
+    }
+    baseReader.get(keyHash, result);
+  }
+
+  @Override
+  public Integer getVersionNumber() {
+    return versionNumber;
+  }
+
+  public int getNumDeltas() {
+    return deltaReaders.size();
+  }
+
+  @Override
+  public CacheStatistics getCacheStatistics() {
+    return baseReader.getCacheStatistics();
+  }
+
+  @Override
+  public void close() throws IOException {
+    baseReader.close();
+    for (CueballReader deltaReader : deltaReaders) {
+      deltaReader.close();
+    }
+  }
+
+  // Read the Bloom filter stored next to the given delta, or build it if there is none
+  static BloomFilter loadBloomFilter(CueballFilePath delta,
+                                     int keyHashSize,
+                                     int valueSize,
+                                     int hashIndexBits,
+                                     CueballCompressionCodec compressionCodec) throws IOException {
+    File bloomFilterFile = new File(Cueball.getBloomFilterPath(delta));
+    if (!bloomFilterFile.exists()) {
+      LOG.info("No Bloom filter stored for " + delta.getPath() + ". Building it.");
+      return buildBloomFilter(delta, keyHashSize, valueSize, hashIndexBits, compressionCodec);
+    }
+    DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(bloomFilterFile)));
+    try {
+      return BloomFilter.read(inputStream);
+    } finally {
+      inputStream.close();
+    }
+  }
+
+  // Build the Bloom filter of the given delta and store it next to it
+  static void writeBloomFilter(CueballFilePath delta,
+                               int keyHashSize,
+                               int valueSize,
+                               int hashIndexBits,
+                               CueballCompressionCodec compressionCodec) throws IOException {
+    BloomFilter bloomFilter = buildBloomFilter(delta, keyHashSize, valueSize, hashIndexBits, compressionCodec);
+    // Write to a temporary file first so that a partially written filter is never read
+    File bloomFilterFile = new File(Cueball.getBloomFilterPath(delta));
+    File tmpBloomFilterFile = new File(bloomFilterFile.getPath() + ".tmp");
+    DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpBloomFilterFile)));
+    try {
+      bloomFilter.write(outputStream);
+    } finally {
+      outputStream.close();
+    }
+    if (!tmpBloomFilterFile.renameTo(bloomFilterFile)) {
+      throw new IOException("Failed to rename " + tmpBloomFilterFile.getPath() + " to " + bloomFilterFile.getPath());
+    }
+  }
+
+  // Stream the key hashes of the given delta into a new Bloom filter
+  static BloomFilter buildBloomFilter(CueballFilePath delta,
+                                      int keyHashSize,
+                                      int valueSize,
+                                      int hashIndexBits,
+                                      CueballCompressionCodec compressionCodec) throws IOException {
+    // Bound the number of keys from the number of non empty blocks so that the delta is only streamed once
+    Footer footer;
+    FileInputStream footerInputStream = new FileInputStream(delta.getPath());
+    try {
+      footer = new Footer(footerInputStream.getChannel(), hashIndexBits);
+    } finally {
+      footerInputStream.close();
+    }
+    long numBlocks = 0;
+    for (long offset : footer.getHashIndex()) {
+      if (offset >= 0) {
+        ++numBlocks;
+      }
+    }
+    long maxNumKeys = numBlocks * footer.getMaxUncompressedBufferSize() / (keyHashSize + valueSize);
+    BloomFilter bloomFilter = new BloomFilter(maxNumKeys, BLOOM_FILTER_NUM_BITS_PER_KEY);
+
+    CueballStreamBuffer streamBuffer = new CueballStreamBuffer(delta.getPath(), 0, keyHashSize, valueSize,
+        hashIndexBits, compressionCodec);
+    try {
+      while (streamBuffer.anyRemaining()) {
+        bloomFilter.add(streamBuffer.getBuffer(), streamBuffer.getCurrentOffset(), keyHashSize);
+        streamBuffer.consume();
+      }
+    } finally {
+      streamBuffer.close();
+    }
+    return bloomFilter;
+  }
+}
@@ -124,10 +124,16 @@ public abstract class AbstractCurlyPartitionUpdater extends IncrementalPartition
 
   protected abstract boolean shouldFetchCurlyVersion(DomainVersion version) throws IOException;
 
+  protected boolean shouldFetchCueballVersion(DomainVersion version) throws IOException {
+    return true;
+  }
+
   @Override
   protected void fetchVersion(DomainVersion version, String fetchRoot) throws IOException {
     // Fetch Cueball version.
-    fetchCueballVersion(version, fetchRoot);
+    if (shouldFetchCueballVersion(version)) {
+      fetchCueballVersion(version, fetchRoot);
+    }
     if (shouldFetchCurlyVersion(version)) {
       fetchCurlyVersion(version, fetchRoot);
     }
@@ -135,12 +141,19 @@ public abstract class AbstractCurlyPartitionUpdater extends IncrementalPartition
 
   private void fetchCueballVersion(DomainVersion version, String fetchRoot) throws IOException {
     String cueballFileToFetch = Cueball.getName(version);
+    if (reuseUnchangedFile(version, cueballFileToFetch, fetchRoot, false)) {
+      return;
+    }
     LOG.info("Fetching from " + partitionRemoteFileOps + " for file " + cueballFileToFetch + " to " + fetchRoot);
     partitionRemoteFileOps.copyToLocalRoot(cueballFileToFetch, fetchRoot);
   }
 
   private void fetchCurlyVersion(DomainVersion version, String fetchRoot) throws IOException {
     String curlyFileToFetch = Curly.getName(version);
+    // Curly bases are appended to in place when merging deltas, so they are copied rather than linked
+    if (reuseUnchangedFile(version, curlyFileToFetch, fetchRoot, true)) {
+      return;
+    }
     LOG.info("Fetching from " + partitionRemoteFileOps + " for file " + curlyFileToFetch + " to " + fetchRoot);
     partitionRemoteFileOps.copyToLocalRoot(curlyFileToFetch, fetchRoot);
   }
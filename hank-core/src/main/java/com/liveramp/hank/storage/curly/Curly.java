@@ -15,10 +15,16 @@
  */
 package com.liveramp.hank.storage.curly;
 
+import java.io.BufferedInputStream;
+import java.io.EOFException;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Map;
@@ -28,17 +34,23 @@ import java.util.TreeSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.apache.commons.io.FileUtils;
+
 import com.liveramp.hank.compression.CompressionCodec;
 import com.liveramp.hank.compression.cueball.CueballCompressionCodec;
 import com.liveramp.hank.compression.cueball.NoCueballCompressionCodec;
 import com.liveramp.hank.config.BaseReaderConfigurator;
 import com.liveramp.hank.config.DataDirectoriesConfigurator;
 import com.liveramp.hank.config.ReaderConfigurator;
+import com.liveramp.hank.config.UpdaterConfigurator;
 import com.liveramp.hank.coordinator.Domain;
 import com.liveramp.hank.coordinator.DomainVersion;
 import com.liveramp.hank.hasher.Hasher;
+import com.liveramp.hank.hasher.IdentityHasher;
+import com.liveramp.hank.storage.BandwidthGovernor;
 import com.liveramp.hank.storage.Compactor;
 import com.liveramp.hank.storage.Deleter;
+import com.liveramp.hank.storage.LocalCompaction;
 import com.liveramp.hank.storage.PartitionRemoteFileOps;
 import com.liveramp.hank.storage.PartitionRemoteFileOpsFactory;
 import com.liveramp.hank.storage.PartitionUpdater;
@@ -49,22 +61,29 @@ import com.liveramp.hank.storage.StorageEngine;
 import com.liveramp.hank.storage.StorageEngineFactory;
 import com.liveramp.hank.storage.Writer;
 import com.liveramp.hank.storage.cueball.Cueball;
+import com.liveramp.hank.storage.cueball.CueballFilePath;
 import com.liveramp.hank.storage.cueball.CueballMerger;
+import com.liveramp.hank.storage.cueball.CueballPartitionUpdater;
+import com.liveramp.hank.storage.cueball.CueballStreamBuffer;
 import com.liveramp.hank.storage.cueball.CueballStreamBufferMergeSort;
+import com.liveramp.hank.storage.cueball.CueballWriter;
 import com.liveramp.hank.storage.incremental.IncrementalDomainVersionProperties;
 import com.liveramp.hank.storage.incremental.IncrementalStorageEngine;
 import com.liveramp.hank.storage.incremental.IncrementalUpdatePlanner;
+import com.liveramp.hank.util.EncodingHelper;
 import com.liveramp.hank.util.FsUtils;
 
 /**
  * Curly is a storage engine designed for larger, variable-sized values. It uses
  * Cueball under the hood.
  */
-public class Curly extends IncrementalStorageEngine implements StorageEngine {
+public class Curly extends IncrementalStorageEngine implements StorageEngine, LocalCompaction {
 
   private static final Pattern BASE_OR_REGEX_PATTERN = Pattern.compile(".*(\\d{5})\\.((base)|(delta))\\.curly");
   static final String BASE_REGEX = ".*\\d{5}\\.base\\.curly";
   static final String DELTA_REGEX = ".*\\d{5}\\.delta\\.curly";
+  // Local files are compacted once records that are no longer pointed to make up this share of the record file
+  static final double LOCAL_COMPACTION_MIN_GARBAGE_RATIO = 0.25;
 
   public static class Factory implements StorageEngineFactory {
 
@@ -81,6 +100,7 @@ public class Curly extends IncrementalStorageEngine implements StorageEngine {
     private static final String BLOCK_COMPRESSION_CODEC = "block_compression_codec";
     private static final String COMPRESSED_BLOCK_SIZE_THRESHOLD = "compressed_block_size_threshold";
     private static final String OFFSET_IN_BLOCK_NUM_BYTES = "offset_in_block_num_bytes";
+    public static final String STREAM_REMOTE_DELTAS_KEY = "stream_remote_deltas";
 
     private static final Set<String> REQUIRED_KEYS = new HashSet<String>(Arrays.asList(REMOTE_DOMAIN_ROOT_KEY,
         RECORD_FILE_READ_BUFFER_BYTES_KEY, HASH_INDEX_BITS_KEY, MAX_ALLOWED_PART_SIZE_KEY, KEY_HASH_SIZE_KEY,
@@ -137,6 +157,10 @@ public class Curly extends IncrementalStorageEngine implements StorageEngine {
       if (offsetInBlockNumBytes == null) {
         offsetInBlockNumBytes = -1;
       }
+      Boolean streamRemoteDeltas = (Boolean)options.get(STREAM_REMOTE_DELTAS_KEY);
+      if (streamRemoteDeltas == null) {
+        streamRemoteDeltas = false;
+      }
 
       return new Curly((Integer)options.get(KEY_HASH_SIZE_KEY),
           hasher,
@@ -151,7 +175,8 @@ public class Curly extends IncrementalStorageEngine implements StorageEngine {
           valueFoldingCacheCapacity,
           blockCompressionCodec,
           compressedBlockSizeThreshold,
-          offsetInBlockNumBytes);
+          offsetInBlockNumBytes,
+          streamRemoteDeltas);
     }
 
     @Override
@@ -182,6 +207,7 @@ public class Curly extends IncrementalStorageEngine implements StorageEngine {
   private final int compressedBlockSizeThreshold;
   private final int offsetInBlockNumBytes;
   private final int cueballValueNumBytes;
+  private final boolean streamRemoteDeltas;
 
   public Curly(int keyHashSize,
                Hasher hasher,
@@ -197,6 +223,38 @@ public class Curly extends IncrementalStorageEngine implements StorageEngine {
                CompressionCodec blockCompressionCodec,
                int compressedBlockSizeThreshold,
                int offsetInBlockNumBytes) {
+    this(keyHashSize,
+        hasher,
+        maxAllowedPartSize,
+        hashIndexBits,
+        recordFileReadBufferBytes,
+        remoteDomainRoot,
+        partitionRemoteFileOpsFactory,
+        keyFileCompressionCodecClass,
+        domain,
+        numRemoteLeafVersionsToKeep,
+        valueFoldingCacheCapacity,
+        blockCompressionCodec,
+        compressedBlockSizeThreshold,
+        offsetInBlockNumBytes,
+        false);
+  }
+
+  public Curly(int keyHashSize,
+               Hasher hasher,
+               long maxAllowedPartSize,
+               int hashIndexBits,
+               int recordFileReadBufferBytes,
+               String remoteDomainRoot,
+               PartitionRemoteFileOpsFactory partitionRemoteFileOpsFactory,
+               Class<? extends CueballCompressionCodec> keyFileCompressionCodecClass,
+               Domain domain,
+               int numRemoteLeafVersionsToKeep,
+               int valueFoldingCacheCapacity,
+               CompressionCodec blockCompressionCodec,
+               int compressedBlockSizeThreshold,
+               int offsetInBlockNumBytes,
+               boolean streamRemoteDeltas) {
     this.keyHashSize = keyHashSize;
     this.hashIndexBits = hashIndexBits;
     this.recordFileReadBufferBytes = recordFileReadBufferBytes;
@@ -209,6 +267,7 @@ public class Curly extends IncrementalStorageEngine implements StorageEngine {
     this.blockCompressionCodec = blockCompressionCodec;
     this.compressedBlockSizeThreshold = compressedBlockSizeThreshold;
     this.offsetInBlockNumBytes = offsetInBlockNumBytes;
+    this.streamRemoteDeltas = streamRemoteDeltas;
 
     this.offsetNumBytes = (int)(Math.ceil(Math.ceil(Math.log(maxAllowedPartSize) / Math.log(2)) / 8.0));
 
@@ -297,12 +356,12 @@ public class Curly extends IncrementalStorageEngine implements StorageEngine {
   }
 
   @Override
-  public PartitionUpdater getUpdater(DataDirectoriesConfigurator configurator, int partitionNumber) throws IOException {
+  public PartitionUpdater getUpdater(UpdaterConfigurator configurator, int partitionNumber) throws IOException {
     File localDir = new File(getTargetDirectory(configurator, partitionNumber));
     if (!localDir.exists() && !localDir.mkdirs()) {
       throw new RuntimeException("Failed to create directory " + localDir.getAbsolutePath());
     }
-    return getFastPartitionUpdater(localDir.getAbsolutePath(), partitionNumber);
+    return getFastPartitionUpdater(localDir.getAbsolutePath(), partitionNumber, configurator.getNumMergeThreads());
   }
 
   @Override
@@ -334,28 +393,165 @@ public class Curly extends IncrementalStorageEngine implements StorageEngine {
         localDir,
         new CurlyCompactingMerger(recordFileReadBufferBytes),
         new CueballStreamBufferMergeSort.Factory(keyHashSize, cueballValueNumBytes, hashIndexBits, getCompressionCodec(), null),
-        new ICurlyReaderFactory() {
-          @Override
-          public ICurlyReader getInstance(CurlyFilePath curlyFilePath) throws IOException {
-            // Note: key file reader is null as it will *not* be used
-            return new CurlyReader(curlyFilePath, recordFileReadBufferBytes,
-                null, 10L << 20, 1 << 10, blockCompressionCodec, offsetNumBytes, offsetInBlockNumBytes, true, 10 << 10);
+        getCompactionRecordFileReaderFactory()
+    );
+  }
+
+  private ICurlyReaderFactory getCompactionRecordFileReaderFactory() {
+    return new ICurlyReaderFactory() {
+      @Override
+      public ICurlyReader getInstance(CurlyFilePath curlyFilePath) throws IOException {
+        // Note: key file reader is null as it will *not* be used
+        return new CurlyReader(curlyFilePath, recordFileReadBufferBytes,
+            null, 10L << 20, 1 << 10, blockCompressionCodec, offsetNumBytes, offsetInBlockNumBytes, true, 10 << 10);
+      }
+    };
+  }
+
+  @Override
+  public boolean needsLocalCompaction(DataDirectoriesConfigurator configurator,
+                                      int partitionNumber,
+                                      DomainVersion currentVersion) throws IOException {
+    // Deltas are appended to the local record file, leaving behind the records of keys they overwrite
+    if (IncrementalDomainVersionProperties.isBase(currentVersion)) {
+      return false;
+    }
+    String localDir = getTargetDirectory(configurator, partitionNumber);
+    File recordFile = new File(localDir, getName(currentVersion.getVersionNumber(), true));
+    File keyFile = new File(localDir, Cueball.getName(currentVersion.getVersionNumber(), true));
+    if (!recordFile.isFile() || !keyFile.isFile() || recordFile.length() == 0) {
+      return false;
+    }
+    long numGarbageBytes = recordFile.length() - getNumLiveRecordFileBytes(recordFile, keyFile);
+    return numGarbageBytes >= LOCAL_COMPACTION_MIN_GARBAGE_RATIO * recordFile.length();
+  }
+
+  // Size of the records (or compressed blocks) of the given record file that the given key file points to
+  long getNumLiveRecordFileBytes(File recordFile, File keyFile) throws IOException {
+    // Collect the record offsets stored in the key file (one long per key) and sort them
+    long[] offsets = new long[1024];
+    int numOffsets = 0;
+    CueballStreamBuffer keyFileStream = new CueballStreamBuffer(keyFile.getAbsolutePath(), 0, keyHashSize,
+        cueballValueNumBytes, hashIndexBits, getCompressionCodec());
+    try {
+      while (keyFileStream.anyRemaining()) {
+        if (numOffsets == offsets.length) {
+          offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        offsets[numOffsets++] = EncodingHelper.decodeLittleEndianFixedWidthLong(keyFileStream.getBuffer(),
+            keyFileStream.getCurrentOffset() + keyHashSize, offsetNumBytes);
+        keyFileStream.consume();
+      }
+    } finally {
+      keyFileStream.close();
+    }
+    Arrays.sort(offsets, 0, numOffsets);
+
+    // Scan the sizes of the records of the record file, and sum the ones that are pointed to
+    long numLiveBytes = 0;
+    long recordOffset = 0;
+    int offsetIdx = 0;
+    byte[] recordSizeBuffer = new byte[EncodingHelper.MAX_VARINT_SIZE];
+    InputStream recordFileStream = new BufferedInputStream(
+        BandwidthGovernor.throttle(new FileInputStream(recordFile), BandwidthGovernor.Budget.DISK_READ));
+    try {
+      while (offsetIdx < numOffsets) {
+        int recordSizeNumBytes = 0;
+        do {
+          int b = recordFileStream.read();
+          if (b < 0) {
+            throw new EOFException("Key file " + keyFile + " points past the end of record file " + recordFile);
           }
+          recordSizeBuffer[recordSizeNumBytes++] = (byte)b;
+        } while ((recordSizeBuffer[recordSizeNumBytes - 1] & 0x80) != 0 && recordSizeNumBytes < recordSizeBuffer.length);
+        int recordSize = EncodingHelper.decodeLittleEndianVarInt(ByteBuffer.wrap(recordSizeBuffer, 0, recordSizeNumBytes));
+        // Folded values are pointed to by several keys
+        boolean isLive = false;
+        while (offsetIdx < numOffsets && offsets[offsetIdx] <= recordOffset) {
+          isLive |= offsets[offsetIdx] == recordOffset;
+          ++offsetIdx;
         }
-    );
+        if (isLive) {
+          numLiveBytes += recordSizeNumBytes + recordSize;
+        }
+        long remaining = recordSize;
+        while (remaining > 0) {
+          long skipped = recordFileStream.skip(remaining);
+          if (skipped <= 0) {
+            throw new EOFException("Unexpected end of record file " + recordFile + " with " + remaining + " bytes left to skip");
+          }
+          remaining -= skipped;
+        }
+        recordOffset += recordSizeNumBytes + recordSize;
+      }
+    } finally {
+      recordFileStream.close();
+    }
+    return numLiveBytes;
   }
 
-  private CurlyFastPartitionUpdater getFastPartitionUpdater(String localDir, int partNum) throws IOException {
-    return new CurlyFastPartitionUpdater(domain,
+  @Override
+  public void compactLocally(UpdaterConfigurator configurator,
+                             int partitionNumber,
+                             DomainVersion currentVersion) throws IOException {
+    String localDir = getTargetDirectory(configurator, partitionNumber);
+    String curlyBaseName = getName(currentVersion.getVersionNumber(), true);
+    String cueballBaseName = Cueball.getName(currentVersion.getVersionNumber(), true);
+    CurlyFilePath curlyBase = new CurlyFilePath(localDir + "/" + curlyBaseName);
+    CueballFilePath cueballBase = new CueballFilePath(localDir + "/" + cueballBaseName);
+    CueballPartitionUpdater.checkRequiredFileExists(curlyBase.getPath());
+    CueballPartitionUpdater.checkRequiredFileExists(cueballBase.getPath());
+    File workRoot = Cueball.createLocalCompactionWorkRoot(localDir);
+    try {
+      // Rewrite the records that the key file still points to, in key hash order
+      // Note: the key file writer directly receives key hashes
+      Writer keyFileWriter = new CueballWriter(
+          BandwidthGovernor.throttle(new FileOutputStream(new File(workRoot, cueballBaseName)), BandwidthGovernor.Budget.DISK_WRITE),
+          keyHashSize, new IdentityHasher(), cueballValueNumBytes, getCompressionCodec(), hashIndexBits);
+      Writer recordFileWriter = new CurlyWriter(
+          BandwidthGovernor.throttle(new FileOutputStream(new File(workRoot, curlyBaseName)), BandwidthGovernor.Budget.DISK_WRITE),
+          keyFileWriter, offsetNumBytes, valueFoldingCacheCapacity, blockCompressionCodec, compressedBlockSizeThreshold,
+          offsetInBlockNumBytes);
+      new CurlyCompactingMerger(recordFileReadBufferBytes).merge(curlyBase,
+          new ArrayList<CurlyFilePath>(),
+          new CueballStreamBufferMergeSort(cueballBase, new ArrayList<CueballFilePath>(), keyHashSize,
+              cueballValueNumBytes, hashIndexBits, getCompressionCodec(), null),
+          getCompactionRecordFileReaderFactory(),
+          recordFileWriter);
+      // Note: the key file and the record file are not replaced atomically together
+      Cueball.createLocalCompactionMarker(localDir);
+      if (!new File(workRoot, curlyBaseName).renameTo(new File(curlyBase.getPath()))
+          || !new File(workRoot, cueballBaseName).renameTo(new File(cueballBase.getPath()))) {
+        throw new IOException("Failed to move compacted files of version " + currentVersion.getVersionNumber() + " to " + localDir);
+      }
+      Cueball.deleteLocalCompactionMarker(localDir);
+    } finally {
+      FileUtils.deleteDirectory(workRoot);
+    }
+  }
+
+  @Override
+  public boolean isLocalCompactionInProgress(DataDirectoriesConfigurator configurator,
+                                             int partitionNumber) throws IOException {
+    return Cueball.hasLocalCompactionMarker(getTargetDirectory(configurator, partitionNumber));
+  }
+
+  private CurlyFastPartitionUpdater getFastPartitionUpdater(String localDir,
+                                                            int partNum,
+                                                            int numMergeThreads) throws IOException {
+    CurlyFastPartitionUpdater updater = new CurlyFastPartitionUpdater(domain,
         getPartitionRemoteFileOps(partNum),
         new CurlyMerger(),
-        new CueballMerger(),
+        new CueballMerger(numMergeThreads),
         keyHashSize,
         offsetNumBytes,
         offsetInBlockNumBytes,
         hashIndexBits,
         getCompressionCodec(),
-        localDir);
+        localDir,
+        streamRemoteDeltas);
+    updater.setPartitionNumber(partNum);
+    return updater;
   }
 
   private CueballCompressionCodec getCompressionCodec() throws IOException {
@@ -473,6 +669,7 @@ public class Curly extends IncrementalStorageEngine implements StorageEngine {
         + ", blockCompressionCodec=" + blockCompressionCodec
         + ", compressedBlockSizeThreshold=" + compressedBlockSizeThreshold
         + ", offsetInBlockNumBytes=" + offsetInBlockNumBytes
+        + ", streamRemoteDeltas=" + streamRemoteDeltas
         + "]";
   }
 }
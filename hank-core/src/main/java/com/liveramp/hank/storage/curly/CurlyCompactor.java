@@ -114,6 +114,7 @@ public class CurlyCompactor extends AbstractCurlyPartitionUpdater implements Com
 
     HankTimer timer = new HankTimer();
     merger.merge(curlyBasePath, curlyDeltas, cueballStreamBufferMergeSort, curlyReaderFactory, writer);
+    statistics.addNumBytesWritten(writer.getNumBytesWritten());
     statistics.getDurationsMs().put("Curly compaction", timer.getDurationMs());
   }
 }
@@ -26,6 +26,7 @@ import com.liveramp.hank.storage.cueball.ICueballMerger;
 import com.liveramp.hank.storage.incremental.IncrementalDomainVersionProperties;
 import com.liveramp.hank.storage.incremental.IncrementalUpdatePlan;
 import com.liveramp.hank.util.FormatUtils;
+import com.liveramp.hank.util.FsUtils;
 import com.liveramp.hank.util.HankTimer;
 import org.slf4j.Logger; import org.slf4j.LoggerFactory;
 
@@ -45,6 +46,7 @@ public class CurlyFastPartitionUpdater extends AbstractCurlyPartitionUpdater {
   private final CueballCompressionCodec compressionCodec;
   private final ICurlyMerger curlyMerger;
   private final ICueballMerger cueballMerger;
+  private final boolean streamRemoteDeltas;
 
   public CurlyFastPartitionUpdater(Domain domain,
                                    PartitionRemoteFileOps partitionRemoteFileOps,
@@ -56,6 +58,34 @@ public class CurlyFastPartitionUpdater extends AbstractCurlyPartitionUpdater {
                                    int hashIndexBits,
                                    CueballCompressionCodec compressionCodec,
                                    String localPartitionRoot) throws IOException {
+    this(domain,
+        partitionRemoteFileOps,
+        curlyMerger,
+        cueballMerger,
+        keyHashSize,
+        offsetNumBytes,
+        offsetInBlockNumBytes,
+        hashIndexBits,
+        compressionCodec,
+        localPartitionRoot,
+        false);
+  }
+
+  /**
+   * @param streamRemoteDeltas When true, Cueball deltas are not fetched to local disk but streamed from remote
+   *                           storage into memory during the update, like Curly deltas always are.
+   */
+  public CurlyFastPartitionUpdater(Domain domain,
+                                   PartitionRemoteFileOps partitionRemoteFileOps,
+                                   ICurlyMerger curlyMerger,
+                                   ICueballMerger cueballMerger,
+                                   int keyHashSize,
+                                   int offsetNumBytes,
+                                   int offsetInBlockNumBytes,
+                                   int hashIndexBits,
+                                   CueballCompressionCodec compressionCodec,
+                                   String localPartitionRoot,
+                                   boolean streamRemoteDeltas) throws IOException {
     super(domain, partitionRemoteFileOps, localPartitionRoot);
     this.keyHashSize = keyHashSize;
     this.offsetNumBytes = offsetNumBytes;
@@ -68,6 +98,13 @@ public class CurlyFastPartitionUpdater extends AbstractCurlyPartitionUpdater {
     this.compressionCodec = compressionCodec;
     this.curlyMerger = curlyMerger;
     this.cueballMerger = cueballMerger;
+    this.streamRemoteDeltas = streamRemoteDeltas;
+  }
+
+  @Override
+  protected boolean shouldFetchCueballVersion(DomainVersion version) throws IOException {
+    // Cueball deltas can be streamed during the update as well
+    return !streamRemoteDeltas || IncrementalDomainVersionProperties.isBase(version);
   }
 
   @Override
@@ -95,14 +132,18 @@ public class CurlyFastPartitionUpdater extends AbstractCurlyPartitionUpdater {
     // Check that base file is available
     CueballPartitionUpdater.checkRequiredFileExists(curlyBase.getPath());
 
-    // Move the Curly base to the final destination, overwriting it
+    // Clone the Curly base to the final destination, overwriting it, so that the deltas are appended to a
+    // copy-on-write clone that shares the base's blocks and the base itself stays intact. Move the base
+    // instead when the file system does not support cloning, since copying it would rewrite it entirely.
     File newCurlyBaseFile = new File(newCurlyBasePath.getPath());
+    long curlyBaseNumBytes = new File(curlyBase.getPath()).length();
     if (newCurlyBaseFile.exists()) {
       if (!newCurlyBaseFile.delete()) {
         throw new IOException("Failed to overwrite Curly base " + newCurlyBaseFile.getAbsolutePath());
       }
     }
-    if (!new File(curlyBase.getPath()).renameTo(newCurlyBaseFile)) {
+    if (!FsUtils.cloneFile(new File(curlyBase.getPath()), newCurlyBaseFile)
+        && !new File(curlyBase.getPath()).renameTo(newCurlyBaseFile)) {
       throw new IOException("Failed to move Curly base " + curlyBase.getPath() + " to " + newCurlyBasePath);
     }
 
@@ -116,6 +157,10 @@ public class CurlyFastPartitionUpdater extends AbstractCurlyPartitionUpdater {
     HankTimer timer = new HankTimer();
     long[] offsetAdjustments = curlyMerger.merge(newCurlyBasePath, curlyDeltaRemoteFiles, partitionRemoteFileOps);
     long curlyTimeMs = timer.getDurationMs();
+    // Curly deltas are read from remote storage and appended to the new base
+    long curlyDeltasNumBytes = Math.max(0, newCurlyBaseFile.length() - curlyBaseNumBytes);
+    statistics.addNumBytesFetched(curlyDeltasNumBytes);
+    statistics.addNumBytesWritten(curlyDeltasNumBytes);
 
     // Run Cueball update
     timer.restart();
@@ -132,6 +177,8 @@ public class CurlyFastPartitionUpdater extends AbstractCurlyPartitionUpdater {
         hashIndexBits,
         compressionCodec,
         new OffsetTransformer(offsetNumBytes, offsetAdjustments),
+        0,
+        streamRemoteDeltas ? partitionRemoteFileOps : null,
         statistics);
     long cueballTimeMs = timer.getDurationMs();
 
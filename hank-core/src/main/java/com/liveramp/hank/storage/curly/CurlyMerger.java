@@ -15,6 +15,7 @@
  */
 package com.liveramp.hank.storage.curly;
 
+import com.liveramp.hank.storage.BandwidthGovernor;
 import com.liveramp.hank.storage.PartitionRemoteFileOps;
 import com.liveramp.hank.util.IOStreamUtils;
 import org.slf4j.Logger; import org.slf4j.LoggerFactory;
@@ -23,6 +24,7 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 
 public class CurlyMerger implements ICurlyMerger {
@@ -38,7 +40,8 @@ public class CurlyMerger implements ICurlyMerger {
 
     // Open the base in append mode
     File baseFile = new File(base.getPath());
-    FileOutputStream baseOutputStream = new FileOutputStream(baseFile, true);
+    OutputStream baseOutputStream = BandwidthGovernor.throttle(new FileOutputStream(baseFile, true),
+        BandwidthGovernor.Budget.DISK_WRITE);
     try {
       // Loop over deltas and append them to the base in order, keeping track of offset adjustments
       long totalOffset = baseFile.length();
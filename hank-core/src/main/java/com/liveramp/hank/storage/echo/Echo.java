@@ -8,6 +8,7 @@ import java.util.Set;
 
 import com.liveramp.hank.config.DataDirectoriesConfigurator;
 import com.liveramp.hank.config.ReaderConfigurator;
+import com.liveramp.hank.config.UpdaterConfigurator;
 import com.liveramp.hank.coordinator.Domain;
 import com.liveramp.hank.coordinator.DomainVersion;
 import com.liveramp.hank.storage.Compactor;
@@ -69,7 +70,7 @@ public class Echo implements StorageEngine {
   }
 
   @Override
-  public PartitionUpdater getUpdater(DataDirectoriesConfigurator configurator, int partitionNumber) throws IOException {
+  public PartitionUpdater getUpdater(UpdaterConfigurator configurator, int partitionNumber) throws IOException {
     return new EchoUpdater();
   }
 
@@ -21,30 +21,53 @@ import com.liveramp.hank.coordinator.Coordinator;
 import com.liveramp.hank.coordinator.Domain;
 import com.liveramp.hank.coordinator.DomainVersion;
 import com.liveramp.hank.partition_server.PartitionUpdateTaskStatistics;
+import com.liveramp.hank.storage.FetchFromPeers;
 import com.liveramp.hank.storage.PartitionUpdater;
+import com.liveramp.hank.storage.PeerPartitionFetcher;
+import com.liveramp.hank.storage.RemoteFetchLimiter;
 import com.liveramp.hank.util.FormatUtils;
+import com.liveramp.hank.util.FsUtils;
 import com.liveramp.hank.util.HankTimer;
 import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger; import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
-public abstract class IncrementalPartitionUpdater implements PartitionUpdater, CloseCoordinatorOpportunistically {
+public abstract class IncrementalPartitionUpdater implements PartitionUpdater, CloseCoordinatorOpportunistically, FetchFromPeers {
 
   private static final Logger LOG = LoggerFactory.getLogger(IncrementalPartitionUpdater.class);
 
   public static final String FETCH_ROOT_PREFIX = "_fetch_";
   public static final String UPDATE_WORK_ROOT_PREFIX = "_update_work_";
   public static final String CACHE_ROOT_NAME = "cache";
+  public static final String LOCAL_COMPACTION_WORK_ROOT_PREFIX = "_local_compaction_work_";
+  public static final String LOCAL_COMPACTION_MARKER_NAME = "_local_compaction_in_progress";
 
   protected final Domain domain;
   protected final String localPartitionRoot;
   protected final String localPartitionRootCache;
   private final IncrementalUpdatePlanner updatePlanner;
   private Coordinator coordinatorToCloseOpportunistically;
+  private PeerPartitionFetcher peerPartitionFetcher;
+  private Integer partitionNumber;
+  // Names of the files of the current fetch root that were reused from the partition root instead of being fetched
+  private final Set<String> reusedFileNames = Collections.synchronizedSet(new HashSet<String>());
 
   public IncrementalPartitionUpdater(Domain domain,
                                      String localPartitionRoot,
@@ -79,6 +102,7 @@ public abstract class IncrementalPartitionUpdater implements PartitionUpdater, C
   public void updateTo(DomainVersion updatingToVersion, PartitionUpdateTaskStatistics statistics) throws IOException {
     ensureLocalPartitionRootExists();
     ensureCacheExists();
+    discardInterruptedLocalCompaction();
     try {
       DomainVersion currentVersion = detectCurrentVersion();
       Set<DomainVersion> cachedBases = detectCachedBases();
@@ -89,11 +113,18 @@ public abstract class IncrementalPartitionUpdater implements PartitionUpdater, C
         return;
       }
       LOG.info("Using update plan " + updatePlan + " to update " + localPartitionRoot);
+      // When a new base would have to be fetched, copy the target version from an up-to-date peer instead
+      if (peerPartitionFetcher != null
+          && !updatePlan.getBase().equals(currentVersion)
+          && !cachedBases.contains(updatePlan.getBase())
+          && runUpdateFromPeer(updatingToVersion, statistics)) {
+        return;
+      }
       // At this point, we can close the Coordinator opportunistically if requested
       closeCoordinatorOpportunistically();
       // Fetch and cache versions needed to update
       HankTimer timer = new HankTimer();
-      cacheVersionsNeededToUpdate(currentVersion, cachedBases, cachedDeltas, updatePlan);
+      cacheVersionsNeededToUpdate(currentVersion, cachedBases, cachedDeltas, updatePlan, statistics);
       long fetchTimeMs = timer.getDurationMs();
       statistics.getDurationsMs().put("Update data fetch", fetchTimeMs);
       // Run update in a workspace
@@ -127,7 +158,9 @@ public abstract class IncrementalPartitionUpdater implements PartitionUpdater, C
   protected void cacheVersionsNeededToUpdate(DomainVersion currentVersion,
                                              Set<DomainVersion> cachedBases,
                                              Set<DomainVersion> cachedDeltas,
-                                             IncrementalUpdatePlan updatePlan) throws IOException {
+                                             IncrementalUpdatePlan updatePlan,
+                                             PartitionUpdateTaskStatistics statistics) throws IOException {
+    reusedFileNames.clear();
     try {
       ensureCacheExists();
       // Clean all previous fetch roots
@@ -135,6 +168,7 @@ public abstract class IncrementalPartitionUpdater implements PartitionUpdater, C
       // Create new fetch root
       File fetchRoot = createFetchRoot();
       // Fetch versions
+      List<DomainVersion> versionsToFetch = new ArrayList<DomainVersion>();
       for (DomainVersion version : updatePlan.getAllVersions()) {
         // Do not fetch current version
         if (currentVersion != null && currentVersion.equals(version)) {
@@ -144,8 +178,10 @@ public abstract class IncrementalPartitionUpdater implements PartitionUpdater, C
         if (cachedBases.contains(version) || cachedDeltas.contains(version)) {
           continue;
         }
-        fetchVersion(version, fetchRoot.getAbsolutePath());
+        versionsToFetch.add(version);
       }
+      fetchVersions(versionsToFetch, fetchRoot.getAbsolutePath());
+      statistics.addNumBytesFetched(getNumBytesFetched(fetchRoot));
       // Commit fetched versions to cache
       commitFiles(fetchRoot, localPartitionRootCache);
     } finally {
@@ -154,6 +190,87 @@ public abstract class IncrementalPartitionUpdater implements PartitionUpdater, C
     }
   }
 
+  // Size of the files of the given fetch root that were not reused from the partition root
+  private long getNumBytesFetched(File fetchRoot) {
+    long numBytes = 0;
+    File[] files = fetchRoot.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        if (file.isFile() && !reusedFileNames.contains(file.getName())) {
+          numBytes += file.length();
+        }
+      }
+    }
+    return numBytes;
+  }
+
+  private static class FetchThreadFactory implements ThreadFactory {
+
+    private final String localPartitionRoot;
+    private AtomicInteger threadID = new AtomicInteger(0);
+
+    public FetchThreadFactory(String localPartitionRoot) {
+      this.localPartitionRoot = localPartitionRoot;
+    }
+
+    @Override
+    public Thread newThread(Runnable r) {
+      return new Thread(r, "Fetch Thread: " + localPartitionRoot + " #" + threadID.getAndIncrement());
+    }
+  }
+
+  // Versions are independent and are fetched concurrently
+  private void fetchVersions(List<DomainVersion> versions, final String fetchRoot) throws IOException {
+    if (versions.size() <= 1) {
+      for (DomainVersion version : versions) {
+        fetchVersion(version, fetchRoot);
+      }
+      return;
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(
+        Math.min(versions.size(), RemoteFetchLimiter.getMaxConcurrentFetches()),
+        new FetchThreadFactory(localPartitionRoot));
+    try {
+      List<Future<Void>> fetches = new ArrayList<Future<Void>>();
+      for (final DomainVersion version : versions) {
+        fetches.add(executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() throws IOException {
+            fetchVersion(version, fetchRoot);
+            return null;
+          }
+        }));
+      }
+      executor.shutdown();
+      for (Future<Void> fetch : fetches) {
+        fetch.get();
+      }
+    } catch (InterruptedException e) {
+      throw new IOException("Interrupted while fetching versions to " + fetchRoot, e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException)cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException)cause;
+      } else if (cause instanceof Error) {
+        throw (Error)cause;
+      } else {
+        throw new IOException("Failed to fetch versions to " + fetchRoot, cause);
+      }
+    } finally {
+      // Stop the remaining fetches and wait for them, so that nothing writes to the fetch root once it is deleted
+      executor.shutdownNow();
+      try {
+        while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+          LOG.info("Waiting for remaining fetches to " + fetchRoot + " to stop");
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
   private void runUpdate(DomainVersion currentVersion,
                          DomainVersion updatingToVersion,
                          IncrementalUpdatePlan updatePlan,
@@ -174,6 +291,39 @@ public abstract class IncrementalPartitionUpdater implements PartitionUpdater, C
     }
   }
 
+  // Return false if no peer could provide the version, in which case the update should proceed from remote files
+  private boolean runUpdateFromPeer(DomainVersion updatingToVersion,
+                                    PartitionUpdateTaskStatistics statistics) throws IOException {
+    // Clean all previous update work roots
+    deleteUpdateWorkRoots();
+    // Create new update work root
+    File updateWorkRoot = createUpdateWorkRoot();
+    try {
+      HankTimer timer = new HankTimer();
+      try {
+        if (!peerPartitionFetcher.fetchVersion(updatingToVersion, updateWorkRoot.getAbsolutePath())) {
+          return false;
+        }
+      } catch (IOException e) {
+        LOG.error("Failed to fetch " + updatingToVersion + " of " + localPartitionRoot
+            + " from peers. Falling back to remote files.", e);
+        return false;
+      }
+      long fetchTimeMs = timer.getDurationMs();
+      statistics.getDurationsMs().put("Update peer fetch", fetchTimeMs);
+      statistics.addNumBytesFetched(FileUtils.sizeOfDirectory(updateWorkRoot));
+      LOG.info("Update in " + localPartitionRoot + " to " + updatingToVersion
+          + ": fetched from peer in " + FormatUtils.formatSecondsDuration(fetchTimeMs / 1000));
+      // Move current version to cache
+      commitFiles(new File(localPartitionRoot), localPartitionRootCache);
+      // Commit fetched files to top level
+      commitFiles(updateWorkRoot, localPartitionRoot);
+      return true;
+    } finally {
+      deleteUpdateWorkRoots();
+    }
+  }
+
   // Move all files in sourceRoot to destinationRoot. Directories are ignored.
   protected void commitFiles(File sourceRoot, String destinationRoot) throws IOException {
     File[] files = sourceRoot.listFiles();
@@ -201,6 +351,25 @@ public abstract class IncrementalPartitionUpdater implements PartitionUpdater, C
     }
   }
 
+  // The top level files of a partition whose local compaction was interrupted may be inconsistent. Delete them
+  // so that the partition is updated from cached or remote versions only.
+  private void discardInterruptedLocalCompaction() throws IOException {
+    File marker = new File(localPartitionRoot, LOCAL_COMPACTION_MARKER_NAME);
+    if (!marker.exists()) {
+      return;
+    }
+    LOG.info("Local compaction of " + localPartitionRoot + " was interrupted. Discarding its top level files.");
+    for (File file : new File(localPartitionRoot).listFiles()) {
+      if (file.isFile() && !file.equals(marker) && !file.delete()) {
+        throw new IOException("Failed to delete file of interrupted local compaction: " + file.getAbsolutePath());
+      }
+    }
+    deleteTmpWorkRoots(LOCAL_COMPACTION_WORK_ROOT_PREFIX);
+    if (!marker.delete()) {
+      throw new IOException("Failed to delete local compaction marker: " + marker.getAbsolutePath());
+    }
+  }
+
   public void ensureLocalPartitionRootExists() throws IOException {
     // Create cache directory if it doesn't exist
     File rootFile = new File(localPartitionRoot);
@@ -230,6 +399,47 @@ public abstract class IncrementalPartitionUpdater implements PartitionUpdater, C
     }
   }
 
+  // When the given file of the given version is identical (according to the checksums recorded when
+  // the versions were built) to a file of the current version that is still in the partition root,
+  // link it (or clone it when it may be modified in place later) into the fetch root instead of fetching it.
+  protected boolean reuseUnchangedFile(DomainVersion version,
+                                       String fileName,
+                                       String fetchRoot,
+                                       boolean mayBeModified) throws IOException {
+    if (partitionNumber == null) {
+      return false;
+    }
+    Map<String, Long> checksums = version.getPartitionFileChecksums(partitionNumber);
+    if (checksums == null || !checksums.containsKey(fileName)) {
+      return false;
+    }
+    DomainVersion currentVersion = detectCurrentVersion();
+    if (currentVersion == null) {
+      return false;
+    }
+    Map<String, Long> currentChecksums = currentVersion.getPartitionFileChecksums(partitionNumber);
+    if (currentChecksums == null) {
+      return false;
+    }
+    Long checksum = checksums.get(fileName);
+    for (Map.Entry<String, Long> entry : currentChecksums.entrySet()) {
+      File currentFile = new File(localPartitionRoot, entry.getKey());
+      if (checksum.equals(entry.getValue()) && currentFile.isFile()) {
+        File destination = new File(fetchRoot, fileName);
+        if (mayBeModified) {
+          FsUtils.cloneOrCopy(currentFile, destination);
+        } else {
+          FsUtils.hardLinkOrCopy(currentFile, destination);
+        }
+        reusedFileNames.add(fileName);
+        LOG.info("Reusing unchanged local file " + currentFile + " as " + fileName + " of " + version
+            + " instead of fetching it");
+        return true;
+      }
+    }
+    return false;
+  }
+
   private File createUpdateWorkRoot() throws IOException {
     return createTmpWorkRoot(UPDATE_WORK_ROOT_PREFIX);
   }
@@ -267,4 +477,14 @@ public abstract class IncrementalPartitionUpdater implements PartitionUpdater, C
   public void closeCoordinatorOpportunistically(Coordinator coordinator) {
     this.coordinatorToCloseOpportunistically = coordinator;
   }
+
+  @Override
+  public void setPeerPartitionFetcher(PeerPartitionFetcher peerPartitionFetcher) {
+    this.peerPartitionFetcher = peerPartitionFetcher;
+  }
+
+  // Needed to look up the checksums of the partition's files, which make it possible to reuse unchanged files
+  public void setPartitionNumber(int partitionNumber) {
+    this.partitionNumber = partitionNumber;
+  }
 }
@@ -35,6 +35,9 @@ public class MockHost extends AbstractHost {
       = new HashSet<WatchedNodeListener<HostState>>();
   private final Set<HostDomain> hostDomains = new HashSet<HostDomain>();
   private Map<String, String> statistics = new HashMap<String, String>();
+  private Map<String, Long> bandwidthLimits = new HashMap<String, Long>();
+  private final Set<WatchedNodeListener<Map<String, Long>>> bandwidthLimitsChangeListeners
+      = new HashSet<WatchedNodeListener<Map<String, Long>>>();
   private final Set<Domain> removedDomains = new HashSet<Domain>();
 
 
@@ -205,4 +208,22 @@ public class MockHost extends AbstractHost {
   public void deleteStatistic(String key) throws IOException {
     statistics.remove(key);
   }
+
+  @Override
+  public Map<String, Long> getBandwidthLimits() throws IOException {
+    return bandwidthLimits;
+  }
+
+  @Override
+  public void setBandwidthLimits(Map<String, Long> bandwidthLimits) throws IOException {
+    this.bandwidthLimits = new HashMap<String, Long>(bandwidthLimits);
+    for (WatchedNodeListener<Map<String, Long>> listener : bandwidthLimitsChangeListeners) {
+      listener.onWatchedNodeChange(this.bandwidthLimits);
+    }
+  }
+
+  @Override
+  public void setBandwidthLimitsChangeListener(WatchedNodeListener<Map<String, Long>> listener) throws IOException {
+    bandwidthLimitsChangeListeners.add(listener);
+  }
 }
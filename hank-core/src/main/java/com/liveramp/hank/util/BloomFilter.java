@@ -0,0 +1,129 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.liveramp.hank.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Bloom filter of byte array keys. The positions probed for a key are derived
+ * from a single 64 bit hash of the key (double hashing). A key that was added
+ * is always reported as possibly contained; a key that was not added is
+ * reported as possibly contained with a probability that decreases with the
+ * number of bits per key (about 1% with 10 bits per key).
+ */
+public class BloomFilter {
+
+  private final long[] bits;
+  private final long numBits;
+  private final int numHashFunctions;
+
+  public BloomFilter(long expectedNumKeys, int numBitsPerKey) {
+    if (numBitsPerKey <= 0) {
+      throw new IllegalArgumentException("Number of bits per key must be positive: " + numBitsPerKey);
+    }
+    long numWords = Math.max(1, (Math.max(0, expectedNumKeys) * numBitsPerKey + 63) / 64);
+    if (numWords > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Bloom filter is too large for " + expectedNumKeys + " keys");
+    }
+    this.bits = new long[(int)numWords];
+    this.numBits = numWords * 64;
+    // The optimal number of hash functions is ln(2) * bits per key
+    this.numHashFunctions = Math.max(1, (int)Math.round(Math.log(2) * numBitsPerKey));
+  }
+
+  private BloomFilter(long[] bits, int numHashFunctions) {
+    this.bits = bits;
+    this.numBits = (long)bits.length * 64;
+    this.numHashFunctions = numHashFunctions;
+  }
+
+  // Read a Bloom filter that was written with write()
+  public static BloomFilter read(DataInput input) throws IOException {
+    int numHashFunctions = input.readInt();
+    int numWords = input.readInt();
+    if (numHashFunctions <= 0 || numWords <= 0) {
+      throw new IOException("Invalid Bloom filter with " + numHashFunctions + " hash functions and " + numWords + " words");
+    }
+    long[] bits = new long[numWords];
+    for (int i = 0; i < numWords; ++i) {
+      bits[i] = input.readLong();
+    }
+    return new BloomFilter(bits, numHashFunctions);
+  }
+
+  public void write(DataOutput output) throws IOException {
+    output.writeInt(numHashFunctions);
+    output.writeInt(bits.length);
+    for (long word : bits) {
+      output.writeLong(word);
+    }
+  }
+
+  public void add(byte[] key, int off, int length) {
+    long hash = hash(key, off, length);
+    int hash1 = (int)hash;
+    int hash2 = (int)(hash >>> 32);
+    for (int i = 0; i < numHashFunctions; ++i) {
+      long position = getPosition(hash1, hash2, i);
+      bits[(int)(position >>> 6)] |= 1L << position;
+    }
+  }
+
+  public boolean mayContain(byte[] key, int off, int length) {
+    long hash = hash(key, off, length);
+    int hash1 = (int)hash;
+    int hash2 = (int)(hash >>> 32);
+    for (int i = 0; i < numHashFunctions; ++i) {
+      long position = getPosition(hash1, hash2, i);
+      if ((bits[(int)(position >>> 6)] & (1L << position)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public long getNumBits() {
+    return numBits;
+  }
+
+  public int getNumHashFunctions() {
+    return numHashFunctions;
+  }
+
+  private long getPosition(int hash1, int hash2, int i) {
+    long combinedHash = (long)hash1 + (long)i * (long)hash2;
+    long position = combinedHash % numBits;
+    return position < 0 ? position + numBits : position;
+  }
+
+  // FNV-1a, followed by a finalization step so that all bits of the result depend on all bits of the key
+  private static long hash(byte[] key, int off, int length) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = off; i < off + length; ++i) {
+      hash ^= key[i] & 0xff;
+      hash *= 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
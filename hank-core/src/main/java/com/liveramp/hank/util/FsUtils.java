@@ -22,7 +22,14 @@ import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 public final class FsUtils {
+
+  private static final Logger LOG = LoggerFactory.getLogger(FsUtils.class);
+
   private FsUtils() {
   }
 
@@ -73,4 +80,63 @@ public final class FsUtils {
     }
     return sb.toString();
   }
+
+  // Hard link destination to source, which must not be modified in place afterwards. Copy it if linking fails.
+  public static void hardLinkOrCopy(File source, File destination) throws IOException {
+    if (destination.exists()) {
+      throw new IOException("Cannot link " + source + " to existing file " + destination);
+    }
+    try {
+      if (run(destination, "ln", source.getAbsolutePath(), destination.getAbsolutePath())) {
+        return;
+      }
+    } catch (IOException e) {
+      LOG.warn("Failed to hard link " + source + " to " + destination, e);
+    } catch (InterruptedException e) {
+      throw new IOException("Interrupted while linking " + source + " to " + destination, e);
+    }
+    LOG.info("Could not hard link " + source + " to " + destination + ", copying it instead");
+    destination.delete();
+    FileUtils.copyFile(source, destination);
+  }
+
+  // Make destination a copy-on-write clone of source (reflink), sharing its blocks until either is modified.
+  // Return false, leaving no destination behind, when the file system does not support it.
+  public static boolean cloneFile(File source, File destination) throws IOException {
+    if (destination.exists()) {
+      throw new IOException("Cannot clone " + source + " to existing file " + destination);
+    }
+    try {
+      if (run(destination, "cp", "--reflink=always", source.getAbsolutePath(), destination.getAbsolutePath())) {
+        return true;
+      }
+    } catch (IOException e) {
+      LOG.warn("Failed to clone " + source + " to " + destination, e);
+    } catch (InterruptedException e) {
+      destination.delete();
+      throw new IOException("Interrupted while cloning " + source + " to " + destination, e);
+    }
+    destination.delete();
+    return false;
+  }
+
+  // Clone destination from source, which can then be modified independently. Copy it if cloning fails.
+  public static void cloneOrCopy(File source, File destination) throws IOException {
+    if (!cloneFile(source, destination)) {
+      LOG.info("Could not clone " + source + " to " + destination + ", copying it instead");
+      FileUtils.copyFile(source, destination);
+    }
+  }
+
+  // Return true when the command succeeded and created the given file
+  private static boolean run(File createdFile, String... command) throws IOException, InterruptedException {
+    Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+    process.getOutputStream().close();
+    process.getInputStream().close();
+    try {
+      return process.waitFor() == 0 && createdFile.exists();
+    } finally {
+      process.destroy();
+    }
+  }
 }
@@ -0,0 +1,76 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.util;
+
+/**
+ * Token bucket rate limiter. Tokens accumulate at the given rate, up to one
+ * second worth of tokens. Acquiring tokens never fails: callers that acquire
+ * more tokens than are available go into debt and sleep until it is paid back,
+ * so that callers are served in order. A rate that is not positive means no
+ * limit.
+ */
+public class TokenBucket {
+
+  private static final long NANOS_PER_SECOND = 1000000000L;
+
+  private long rate;
+  private double numTokens;
+  private long lastRefillNanos;
+
+  public TokenBucket(long rate) {
+    this.rate = rate;
+    this.numTokens = Math.max(0, rate);
+    this.lastRefillNanos = System.nanoTime();
+  }
+
+  public synchronized long getRate() {
+    return rate;
+  }
+
+  public synchronized void setRate(long rate) {
+    refill();
+    this.rate = rate;
+    if (rate <= 0) {
+      numTokens = 0;
+    } else {
+      numTokens = Math.min(numTokens, rate);
+    }
+  }
+
+  public void acquire(long numTokensToAcquire) throws InterruptedException {
+    long sleepNanos;
+    synchronized (this) {
+      if (rate <= 0) {
+        return;
+      }
+      refill();
+      numTokens -= numTokensToAcquire;
+      if (numTokens >= 0) {
+        return;
+      }
+      sleepNanos = (long)(-numTokens * NANOS_PER_SECOND / rate);
+    }
+    Thread.sleep(sleepNanos / 1000000, (int)(sleepNanos % 1000000));
+  }
+
+  private void refill() {
+    long nowNanos = System.nanoTime();
+    if (rate > 0) {
+      numTokens = Math.min(rate, numTokens + (double)(nowNanos - lastRefillNanos) * rate / NANOS_PER_SECOND);
+    }
+    lastRefillNanos = nowNanos;
+  }
+}
@@ -18,6 +18,15 @@ union HankException {
 
   /** There was some internal error in the server. This is pretty bad. */
   6: string internal_error;
+
+  /** The client is already sending as many concurrent requests to the hosts as allowed */
+  7: bool concurrency_limit_exceeded;
+
+  /** The host is overloaded and shed the request without executing it */
+  8: bool overloaded;
+
+  /** The request was not executed before its deadline */
+  9: bool deadline_exceeded;
 }
 
 union HankResponse {
@@ -39,14 +48,50 @@ union HankBulkResponse {
   2: HankException xception;
 }
 
+/* A chunk of responses of a streamed bulk request */
+struct HankBulkChunk {
+  /* Identifier of the stream, used to request the next chunk */
+  1: i64 stream_id;
+
+  /* Indexes (in the request) of the keys the responses correspond to */
+  2: list<i32> key_indexes;
+  3: list<HankResponse> responses;
+
+  /* True when this is the last chunk of the stream */
+  4: bool last;
+
+  /* Error states */
+  5: HankException xception;
+}
+
+/* A key in a given domain */
+struct DomainKey {
+  1: i32 domain_id;
+  2: binary key;
+}
+
 service PartitionServer {
   HankResponse get(1:i32 domain_id, 2:binary key);
   HankBulkResponse getBulk(1:i32 domain_id, 2:list<binary> keys);
+  /* Work that is still pending timeout_ms after the request was received is dropped */
+  HankBulkResponse getBulkWithTimeout(1:i32 domain_id, 2:list<binary> keys, 3:i32 timeout_ms);
+  /* The partition is trusted. Clients must first check that the server agrees on the domain's partitioner (see checkPartitioner) */
+  HankResponse getWithPartition(1:i32 domain_id, 2:binary key, 3:i32 partition);
+  HankBulkResponse getMulti(1:list<DomainKey> domain_keys);
+  HankBulkChunk getBulkStream(1:i32 domain_id, 2:list<binary> keys);
+  HankBulkChunk getBulkStreamNext(1:i64 stream_id);
+
+  /* Given the response compression codecs supported by the client, return the one the server will use, or an empty string */
+  string negotiateResponseCompression(1:list<string> codecs);
+
+  /* Return true when the server partitions the given domain with the given partitioner class and number of partitions */
+  bool checkPartitioner(1:i32 domain_id, 2:string partitioner, 3:i32 num_partitions);
 }
 
 service SmartClient {
   HankResponse get(1:string domain_name, 2:binary key);
   HankBulkResponse getBulk(1:string domain_name, 2:list<binary> keys);
+  HankBulkResponse getMulti(1:list<string> domain_names, 2:list<binary> keys);
 }
 
 struct DomainMetadata {
@@ -62,6 +107,8 @@ struct DomainMetadata {
 struct PartitionMetadata {
   1: required i64 num_bytes;
   2: required i64 num_records;
+  /** Checksums of the partition's files, by file name */
+  3: optional map<string, i64> file_checksums;
 }
 
 struct DomainVersionMetadata {
@@ -98,6 +145,10 @@ struct StatisticsMetadata {
   1: required map<string, string> statistics;
 }
 
+struct BandwidthLimitsMetadata {
+  1: required map<string, i64> limits;
+}
+
 struct ClientMetadata {
   1: required string host;
   2: required i64 connected_at;
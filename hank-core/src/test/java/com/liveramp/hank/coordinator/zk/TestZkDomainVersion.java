@@ -13,6 +13,8 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 
 import static junit.framework.Assert.assertNotNull;
 import static junit.framework.Assert.assertNull;
@@ -101,6 +103,24 @@ public class TestZkDomainVersion extends ZkTestCase {
     PartitionMetadata metadata = dv.getPartitionsMetadata().iterator().next();
     assertEquals(2, metadata.get_num_bytes());
     assertEquals(3, metadata.get_num_records());
+    assertNull(dv.getPartitionFileChecksums(1));
+
+    Map<String, Long> fileChecksums = new HashMap<String, Long>();
+    fileChecksums.put("00001.base.cueball", 42L);
+    dv.addPartitionProperties(4, 5, 6, fileChecksums);
+
+    WaitUntil.orDie(new Condition() {
+      @Override
+      public boolean test() {
+        try {
+          return dv2.getPartitionsMetadata().size() == 2;
+        } catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    });
+
+    assertEquals(fileChecksums, dv2.getPartitionFileChecksums(4));
   }
 
   @Test
@@ -27,12 +27,16 @@ import com.liveramp.hank.coordinator.mock.MockDomain;
 import com.liveramp.hank.test.ZkTestCase;
 import com.liveramp.hank.util.Condition;
 import com.liveramp.hank.util.WaitUntil;
+import com.liveramp.hank.zookeeper.WatchedNodeListener;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static junit.framework.Assert.assertNull;
 import static org.junit.Assert.assertEquals;
@@ -88,6 +92,36 @@ public class TestZkHost extends ZkTestCase {
     assertEquals("B", host.getStatistic("b"));
     assertNull(host.getStatistic("c"));
 
+    assertTrue(host.getBandwidthLimits().isEmpty());
+    final AtomicReference<Map<String, Long>> notifiedBandwidthLimits = new AtomicReference<Map<String, Long>>();
+    host.setBandwidthLimitsChangeListener(new WatchedNodeListener<Map<String, Long>>() {
+      @Override
+      public void onWatchedNodeChange(Map<String, Long> limits) {
+        notifiedBandwidthLimits.set(limits);
+      }
+    });
+    final Map<String, Long> bandwidthLimits = new HashMap<String, Long>();
+    bandwidthLimits.put("network_read", 1000L);
+    host.setBandwidthLimits(bandwidthLimits);
+    WaitUntil.orDie(new Condition() {
+      @Override
+      public boolean test() {
+        try {
+          return !host.getBandwidthLimits().isEmpty();
+        } catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    });
+    assertEquals(bandwidthLimits, host.getBandwidthLimits());
+    // Listeners are notified of the new limits
+    WaitUntil.orDie(new Condition() {
+      @Override
+      public boolean test() {
+        return bandwidthLimits.equals(notifiedBandwidthLimits.get());
+      }
+    });
+
     host.setAddress(OTHER_ADDRESS);
     WaitUntil.orDie(new Condition() {
       @Override
@@ -23,6 +23,7 @@ import java.util.Set;
 
 import com.liveramp.hank.config.DataDirectoriesConfigurator;
 import com.liveramp.hank.config.ReaderConfigurator;
+import com.liveramp.hank.config.UpdaterConfigurator;
 import com.liveramp.hank.coordinator.Domain;
 import com.liveramp.hank.coordinator.DomainVersion;
 import com.liveramp.hank.storage.Compactor;
@@ -65,7 +66,7 @@ public class ConstantStorageEngine implements StorageEngine {
   }
 
   @Override
-  public PartitionUpdater getUpdater(DataDirectoriesConfigurator configurator, int partitionNumber) {
+  public PartitionUpdater getUpdater(UpdaterConfigurator configurator, int partitionNumber) {
     throw new UnsupportedOperationException();
   }
 
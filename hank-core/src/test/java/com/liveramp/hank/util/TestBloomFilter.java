@@ -0,0 +1,94 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+
+import junit.framework.TestCase;
+
+public class TestBloomFilter extends TestCase {
+
+  public void testMayContain() throws Exception {
+    int numKeys = 10000;
+    BloomFilter bloomFilter = new BloomFilter(numKeys, 10);
+    assertEquals(7, bloomFilter.getNumHashFunctions());
+
+    // No false negatives
+    for (int i = 0; i < numKeys; ++i) {
+      byte[] key = getKey(i);
+      bloomFilter.add(key, 0, key.length);
+    }
+    for (int i = 0; i < numKeys; ++i) {
+      byte[] key = getKey(i);
+      assertTrue(bloomFilter.mayContain(key, 0, key.length));
+    }
+
+    // Few false positives
+    int numFalsePositives = 0;
+    for (int i = numKeys; i < 2 * numKeys; ++i) {
+      byte[] key = getKey(i);
+      if (bloomFilter.mayContain(key, 0, key.length)) {
+        ++numFalsePositives;
+      }
+    }
+    assertTrue(numFalsePositives < numKeys / 50);
+  }
+
+  public void testEmpty() throws Exception {
+    BloomFilter bloomFilter = new BloomFilter(0, 10);
+    assertEquals(64, bloomFilter.getNumBits());
+    byte[] key = getKey(1);
+    assertFalse(bloomFilter.mayContain(key, 0, key.length));
+  }
+
+  public void testWriteAndRead() throws Exception {
+    BloomFilter bloomFilter = new BloomFilter(1000, 10);
+    for (int i = 0; i < 1000; ++i) {
+      byte[] key = getKey(i);
+      bloomFilter.add(key, 0, key.length);
+    }
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    bloomFilter.write(new DataOutputStream(outputStream));
+    BloomFilter readBloomFilter = BloomFilter.read(new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray())));
+
+    assertEquals(bloomFilter.getNumBits(), readBloomFilter.getNumBits());
+    assertEquals(bloomFilter.getNumHashFunctions(), readBloomFilter.getNumHashFunctions());
+    for (int i = 0; i < 2000; ++i) {
+      byte[] key = getKey(i);
+      assertEquals(bloomFilter.mayContain(key, 0, key.length), readBloomFilter.mayContain(key, 0, key.length));
+    }
+
+    // Truncated filters are rejected
+    byte[] truncated = new byte[outputStream.size() - 1];
+    System.arraycopy(outputStream.toByteArray(), 0, truncated, 0, truncated.length);
+    try {
+      BloomFilter.read(new DataInputStream(new ByteArrayInputStream(truncated)));
+      fail("Should fail");
+    } catch (EOFException e) {
+      // Expected
+    }
+  }
+
+  private static byte[] getKey(int i) {
+    byte[] key = new byte[4];
+    EncodingHelper.encodeLittleEndianFixedWidthLong(i, key);
+    return key;
+  }
+}
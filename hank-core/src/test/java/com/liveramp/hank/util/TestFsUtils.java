@@ -0,0 +1,98 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.util;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import com.liveramp.hank.test.BaseTestCase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+public class TestFsUtils extends BaseTestCase {
+
+  @Test
+  public void testCloneOrCopy() throws Exception {
+    File source = new File(localTmpDir, "source");
+    File destination = new File(localTmpDir, "destination");
+    FileUtils.writeStringToFile(source, "prefix");
+
+    FsUtils.cloneOrCopy(source, destination);
+    assertEquals("prefix", FileUtils.readFileToString(destination));
+
+    // Appending to the clone does not modify the source
+    FileOutputStream outputStream = new FileOutputStream(destination, true);
+    outputStream.write("suffix".getBytes());
+    outputStream.close();
+    assertEquals("prefixsuffix", FileUtils.readFileToString(destination));
+    assertEquals("prefix", FileUtils.readFileToString(source));
+
+    // Cloning does not overwrite existing files
+    try {
+      FsUtils.cloneFile(source, destination);
+      fail("Should fail");
+    } catch (Exception e) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void testCloneFileLeavesNothingBehindOnFailure() throws Exception {
+    File destination = new File(localTmpDir, "destination");
+    assertFalse(FsUtils.cloneFile(new File(localTmpDir, "missing"), destination));
+    assertFalse(destination.exists());
+  }
+
+  @Test
+  public void testHardLinkOrCopy() throws Exception {
+    File source = new File(localTmpDir, "source");
+    File destination = new File(localTmpDir, "destination");
+    FileUtils.writeStringToFile(source, "content");
+
+    FsUtils.hardLinkOrCopy(source, destination);
+    assertEquals("content", FileUtils.readFileToString(destination));
+
+    // Both names refer to the same data
+    FileUtils.writeStringToFile(destination, "modified");
+    assertEquals("modified", FileUtils.readFileToString(source));
+
+    // Linking does not overwrite existing files
+    try {
+      FsUtils.hardLinkOrCopy(source, destination);
+      fail("Should fail");
+    } catch (IOException e) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void testHardLinkOrCopyMissingSource() throws Exception {
+    File destination = new File(localTmpDir, "destination");
+    try {
+      FsUtils.hardLinkOrCopy(new File(localTmpDir, "missing"), destination);
+      fail("Should fail");
+    } catch (IOException e) {
+      // Expected
+    }
+    assertFalse(destination.exists());
+  }
+}
@@ -0,0 +1,48 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.liveramp.hank.util;
+
+import junit.framework.TestCase;
+
+public class TestTokenBucket extends TestCase {
+
+  public void testUnlimited() throws Exception {
+    TokenBucket tokenBucket = new TokenBucket(0);
+    long startNanos = System.nanoTime();
+    tokenBucket.acquire(Long.MAX_VALUE / 2);
+    tokenBucket.acquire(Long.MAX_VALUE / 2);
+    assertTrue(System.nanoTime() - startNanos < 100000000L);
+  }
+
+  public void testRate() throws Exception {
+    TokenBucket tokenBucket = new TokenBucket(1000);
+    // The bucket starts full
+    long startNanos = System.nanoTime();
+    tokenBucket.acquire(1000);
+    assertTrue(System.nanoTime() - startNanos < 100000000L);
+    // Then tokens are only available at the given rate
+    startNanos = System.nanoTime();
+    tokenBucket.acquire(500);
+    assertTrue(System.nanoTime() - startNanos >= 400000000L);
+
+    // Removing the limit takes effect immediately
+    tokenBucket.setRate(0);
+    startNanos = System.nanoTime();
+    tokenBucket.acquire(1000000);
+    assertTrue(System.nanoTime() - startNanos < 100000000L);
+  }
+}
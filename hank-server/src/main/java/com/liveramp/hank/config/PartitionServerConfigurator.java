@@ -16,7 +16,11 @@
 
 package com.liveramp.hank.config;
 
-public interface PartitionServerConfigurator extends CoordinatorConfigurator, ReaderConfigurator {
+import java.util.List;
+
+import com.liveramp.hank.partition_server.DataServerFactory;
+
+public interface PartitionServerConfigurator extends CoordinatorConfigurator, ReaderConfigurator, UpdaterConfigurator {
 
   public int getServicePort();
 
@@ -26,13 +30,61 @@ public interface PartitionServerConfigurator extends CoordinatorConfigurator, Re
 
   public int getMaxConcurrentUpdatesPerDataDirectory();
 
+  // When true, the number of concurrent updates in each data directory starts at the configured max and is
+  // adjusted (between 1 and the number of concurrent updates) to maximize the number of bytes updated per second
+  public boolean getAdaptiveUpdateConcurrency();
+
+  // When true, updates are executed while serving the current versions, and Readers are swapped once done
+  public boolean getUpdateWhileServing();
+
+  // Host wide max number of remote files (or ranges of files) fetched concurrently by updates
+  public int getMaxConcurrentFetches();
+
+  // Port on which up-to-date partitions are served to peers, or 0 to not serve them
+  public int getPeerTransferPort();
+
+  // Max number of partition transfers served to peers concurrently
+  public int getMaxConcurrentPeerTransfers();
+
+  // When true, partitions are fetched from up-to-date peers when possible, instead of from remote files
+  public boolean getFetchFromPeers();
+
+  // When true, the local files of partitions are compacted in the background while the host is idle
+  public boolean getLocalCompaction();
+
+  // Max number of requests per second served by the host for it to be considered idle
+  public int getLocalCompactionMaxQps();
+
   public int getNumConcurrentQueries();
 
+  // Max number of bytes of partition files read into the page cache before serving, or 0 to not prewarm them
+  public long getPrewarmMaxNumBytes();
+
+  // Max duration of the prewarming of partition files before serving
+  public long getPrewarmMaxDurationMs();
+
+  public DataServerFactory getDataServerFactory();
+
+  // Number of threads doing network I/O in the data server
+  public int getNumDataServerSelectorThreads();
+
+  // Max size of request frames accepted by the Netty data server. Connections sending larger frames are closed.
+  public int getMaxRequestFrameSize();
+
   public int getNumConcurrentGetBulkTasks();
 
   public int getGetBulkTaskSize();
 
+  // When positive, GET BULK requests are rejected as overloaded while this many GET BULK tasks are already queued
+  public int getMaxQueuedGetBulkTasks();
+
   public int getGetTimerAggregatorWindow();
 
+  // Readers are opened in parallel when loading partitions, with at most this many opens per data directory
+  public int getMaxConcurrentReaderOpensPerDataDirectory();
+
+  // Domains that do not belong to any of these query classes belong to a default class of weight 1, with no limit
+  public List<QueryClassConfiguration> getQueryClassConfigurations();
+
   public ReaderConfigurator getReaderConfigurator(int numTotalPartitions);
 }
@@ -0,0 +1,70 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.liveramp.hank.config;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A class of queries served by a partition server: all queries of the given
+ * domains. GET BULK tasks of the different classes share the partition server's
+ * GET BULK threads in proportion of their weights, and the number of
+ * concurrent requests of each class can be limited.
+ */
+public class QueryClassConfiguration {
+
+  private final String name;
+  private final int weight;
+  private final int maxConcurrentRequests;
+  private final Set<String> domainNames;
+
+  // A maximum number of concurrent requests of 0 means no limit
+  public QueryClassConfiguration(String name, int weight, int maxConcurrentRequests, Set<String> domainNames) {
+    if (weight <= 0) {
+      throw new IllegalArgumentException("Weight of query class " + name + " must be positive: " + weight);
+    }
+    this.name = name;
+    this.weight = weight;
+    this.maxConcurrentRequests = maxConcurrentRequests;
+    this.domainNames = Collections.unmodifiableSet(new HashSet<String>(domainNames));
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getWeight() {
+    return weight;
+  }
+
+  public int getMaxConcurrentRequests() {
+    return maxConcurrentRequests;
+  }
+
+  public Set<String> getDomainNames() {
+    return domainNames;
+  }
+
+  @Override
+  public String toString() {
+    return "QueryClassConfiguration [name=" + name
+        + ", weight=" + weight
+        + ", maxConcurrentRequests=" + maxConcurrentRequests
+        + ", domainNames=" + domainNames + "]";
+  }
+}
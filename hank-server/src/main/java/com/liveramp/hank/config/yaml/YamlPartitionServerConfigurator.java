@@ -17,13 +17,21 @@
 package com.liveramp.hank.config.yaml;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import com.liveramp.hank.config.BaseReaderConfigurator;
 import com.liveramp.hank.config.InvalidConfigurationException;
 import com.liveramp.hank.config.PartitionServerConfigurator;
+import com.liveramp.hank.config.QueryClassConfiguration;
+import com.liveramp.hank.partition_server.DataServerFactory;
+import com.liveramp.hank.partition_server.ThriftSelectorDataServer;
 import com.liveramp.hank.config.ReaderConfigurator;
+import com.liveramp.hank.storage.RemoteFetchLimiter;
+import com.liveramp.hank.storage.cueball.CueballMerger;
 
 public class YamlPartitionServerConfigurator extends YamlCoordinatorConfigurator implements PartitionServerConfigurator {
 
@@ -33,15 +41,41 @@ public class YamlPartitionServerConfigurator extends YamlCoordinatorConfigurator
   public static final String RING_GROUP_NAME_KEY = "ring_group_name";
   public static final String PARTITION_SERVER_DAEMON_SECTION_KEY = "partition_server_daemon";
   public static final String NUM_CONCURRENT_QUERIES_KEY = "num_concurrent_queries";
+  public static final String DATA_SERVER_FACTORY_KEY = "data_server_factory";
+  public static final String NUM_SELECTOR_THREADS_KEY = "num_selector_threads";
+  public static final String MAX_REQUEST_FRAME_SIZE_KEY = "max_request_frame_size";
   public static final String UPDATE_DAEMON_SECTION_KEY = "update_daemon";
   public static final String NUM_CONCURRENT_UPDATES_KEY = "num_concurrent_updates";
   public static final String MAX_CONCURRENT_UPDATES_PER_DATA_DIRECTORY_KEY = "max_concurrent_updates_per_data_directory";
+  public static final String ADAPTIVE_UPDATE_CONCURRENCY_KEY = "adaptive_update_concurrency";
+  public static final String UPDATE_WHILE_SERVING_KEY = "update_while_serving";
+  public static final String MAX_CONCURRENT_FETCHES_KEY = "max_concurrent_fetches";
+  public static final String NUM_MERGE_THREADS_KEY = "num_merge_threads";
+  public static final String PEER_TRANSFER_PORT_KEY = "peer_transfer_port";
+  public static final String MAX_CONCURRENT_PEER_TRANSFERS_KEY = "max_concurrent_peer_transfers";
+  public static final String FETCH_FROM_PEERS_KEY = "fetch_from_peers";
+  public static final String LOCAL_COMPACTION_KEY = "local_compaction";
+  public static final String LOCAL_COMPACTION_MAX_QPS_KEY = "local_compaction_max_qps";
   public static final String NUM_CONCURRENT_GET_BULK_TASKS = "num_concurrent_get_bulk_tasks";
   public static final String GET_BULK_TASK_SIZE = "get_bulk_task_size";
+  public static final String MAX_QUEUED_GET_BULK_TASKS = "max_queued_get_bulk_tasks";
   public static final String GET_TIMER_AGGREGATOR_WINDOW_KEY = "get_timer_aggregator_window";
+  public static final String PREWARM_MAX_NUM_BYTES_KEY = "prewarm_max_num_bytes";
+  public static final String PREWARM_MAX_DURATION_MS_KEY = "prewarm_max_duration_ms";
+  public static final String MAX_CONCURRENT_READER_OPENS_PER_DATA_DIRECTORY_KEY = "max_concurrent_reader_opens_per_data_directory";
   public static final String BUFFER_REUSE_MAX_SIZE = "buffer_reuse_max_size";
   public static final String CACHE_NUM_BYTES_CAPACITY = "cache_num_bytes_capacity";
   public static final String CACHE_NUM_ITEMS_CAPACITY = "cache_num_items_capacity";
+  public static final String QUERY_CLASSES_SECTION_KEY = "query_classes";
+  public static final String QUERY_CLASS_WEIGHT_KEY = "weight";
+  public static final String QUERY_CLASS_MAX_CONCURRENT_REQUESTS_KEY = "max_concurrent_requests";
+  public static final String QUERY_CLASS_DOMAINS_KEY = "domains";
+
+  private static final int DEFAULT_NUM_SELECTOR_THREADS = 4;
+  private static final int DEFAULT_MAX_REQUEST_FRAME_SIZE = 64 * 1024 * 1024;
+  private static final int DEFAULT_MAX_CONCURRENT_READER_OPENS_PER_DATA_DIRECTORY = 4;
+  private static final long DEFAULT_PREWARM_MAX_DURATION_MS = 5 * 60 * 1000;
+  private static final int DEFAULT_LOCAL_COMPACTION_MAX_QPS = 10;
 
   public YamlPartitionServerConfigurator(String path) throws IOException,
       InvalidConfigurationException {
@@ -66,12 +100,33 @@ public class YamlPartitionServerConfigurator extends YamlCoordinatorConfigurator
         GET_BULK_TASK_SIZE);
     getRequiredInteger(PARTITION_SERVER_SECTION_KEY, PARTITION_SERVER_DAEMON_SECTION_KEY,
         GET_TIMER_AGGREGATOR_WINDOW_KEY);
+    // The data server factory is optional, but must implement DataServerFactory when set
+    getDataServerFactoryClass();
     getRequiredInteger(PARTITION_SERVER_SECTION_KEY, PARTITION_SERVER_DAEMON_SECTION_KEY,
         BUFFER_REUSE_MAX_SIZE);
     getRequiredLong(PARTITION_SERVER_SECTION_KEY, PARTITION_SERVER_DAEMON_SECTION_KEY,
         CACHE_NUM_BYTES_CAPACITY);
     getRequiredLong(PARTITION_SERVER_SECTION_KEY, PARTITION_SERVER_DAEMON_SECTION_KEY,
         CACHE_NUM_ITEMS_CAPACITY);
+    // Query classes are optional
+    Map<String, Object> queryClasses = getQueryClassesSection();
+    if (queryClasses != null) {
+      for (String queryClassName : queryClasses.keySet()) {
+        getRequiredStringList(PARTITION_SERVER_SECTION_KEY, PARTITION_SERVER_DAEMON_SECTION_KEY,
+            QUERY_CLASSES_SECTION_KEY, queryClassName, QUERY_CLASS_DOMAINS_KEY);
+        Integer weight = getOptionalInteger(PARTITION_SERVER_SECTION_KEY, PARTITION_SERVER_DAEMON_SECTION_KEY,
+            QUERY_CLASSES_SECTION_KEY, queryClassName, QUERY_CLASS_WEIGHT_KEY);
+        if (weight != null && weight <= 0) {
+          throw new InvalidConfigurationException("Weight of query class " + queryClassName + " must be positive: " + weight);
+        }
+        Integer maxConcurrentRequests = getOptionalInteger(PARTITION_SERVER_SECTION_KEY, PARTITION_SERVER_DAEMON_SECTION_KEY,
+            QUERY_CLASSES_SECTION_KEY, queryClassName, QUERY_CLASS_MAX_CONCURRENT_REQUESTS_KEY);
+        if (maxConcurrentRequests != null && maxConcurrentRequests < 0) {
+          throw new InvalidConfigurationException("Maximum number of concurrent requests of query class "
+              + queryClassName + " must not be negative: " + maxConcurrentRequests);
+        }
+      }
+    }
 
     getRequiredSection(PARTITION_SERVER_SECTION_KEY, UPDATE_DAEMON_SECTION_KEY);
     getRequiredInteger(PARTITION_SERVER_SECTION_KEY, UPDATE_DAEMON_SECTION_KEY, NUM_CONCURRENT_UPDATES_KEY);
@@ -100,6 +155,55 @@ public class YamlPartitionServerConfigurator extends YamlCoordinatorConfigurator
         NUM_CONCURRENT_QUERIES_KEY);
   }
 
+  @Override
+  public DataServerFactory getDataServerFactory() {
+    Class<? extends DataServerFactory> factoryClass;
+    try {
+      factoryClass = getDataServerFactoryClass();
+    } catch (InvalidConfigurationException e) {
+      throw new RuntimeException(e);
+    }
+    if (factoryClass == null) {
+      return new ThriftSelectorDataServer.Factory();
+    }
+    try {
+      return factoryClass.newInstance();
+    } catch (Exception e) {
+      throw new RuntimeException("Could not get an instance of " + factoryClass.getName() + "!", e);
+    }
+  }
+
+  // Return the configured data server factory class, or null if none is configured
+  private Class<? extends DataServerFactory> getDataServerFactoryClass() throws InvalidConfigurationException {
+    String factoryClassName = getOptionalString(PARTITION_SERVER_SECTION_KEY, PARTITION_SERVER_DAEMON_SECTION_KEY,
+        DATA_SERVER_FACTORY_KEY);
+    if (factoryClassName == null) {
+      return null;
+    }
+    try {
+      return Class.forName(factoryClassName).asSubclass(DataServerFactory.class);
+    } catch (ClassNotFoundException e) {
+      throw new InvalidConfigurationException("Could not load data server factory class " + factoryClassName + "!");
+    } catch (ClassCastException e) {
+      throw new InvalidConfigurationException("Data server factory class " + factoryClassName
+          + " does not implement " + DataServerFactory.class.getName() + "!");
+    }
+  }
+
+  @Override
+  public int getNumDataServerSelectorThreads() {
+    Integer numSelectorThreads = getOptionalInteger(PARTITION_SERVER_SECTION_KEY, PARTITION_SERVER_DAEMON_SECTION_KEY,
+        NUM_SELECTOR_THREADS_KEY);
+    return numSelectorThreads == null ? DEFAULT_NUM_SELECTOR_THREADS : numSelectorThreads;
+  }
+
+  @Override
+  public int getMaxRequestFrameSize() {
+    Integer maxRequestFrameSize = getOptionalInteger(PARTITION_SERVER_SECTION_KEY, PARTITION_SERVER_DAEMON_SECTION_KEY,
+        MAX_REQUEST_FRAME_SIZE_KEY);
+    return maxRequestFrameSize == null ? DEFAULT_MAX_REQUEST_FRAME_SIZE : maxRequestFrameSize;
+  }
+
   @Override
   public int getNumConcurrentGetBulkTasks() {
     return getInteger(PARTITION_SERVER_SECTION_KEY,
@@ -112,12 +216,70 @@ public class YamlPartitionServerConfigurator extends YamlCoordinatorConfigurator
     return getInteger(PARTITION_SERVER_SECTION_KEY, PARTITION_SERVER_DAEMON_SECTION_KEY, GET_BULK_TASK_SIZE);
   }
 
+  @Override
+  public int getMaxQueuedGetBulkTasks() {
+    Integer maxQueuedGetBulkTasks = getOptionalInteger(PARTITION_SERVER_SECTION_KEY, PARTITION_SERVER_DAEMON_SECTION_KEY,
+        MAX_QUEUED_GET_BULK_TASKS);
+    return maxQueuedGetBulkTasks == null ? 0 : maxQueuedGetBulkTasks;
+  }
+
   @Override
   public int getGetTimerAggregatorWindow() {
     return getInteger(PARTITION_SERVER_SECTION_KEY, PARTITION_SERVER_DAEMON_SECTION_KEY,
         GET_TIMER_AGGREGATOR_WINDOW_KEY);
   }
 
+  @Override
+  public long getPrewarmMaxNumBytes() {
+    Long prewarmMaxNumBytes = getOptionalLong(PARTITION_SERVER_SECTION_KEY, PARTITION_SERVER_DAEMON_SECTION_KEY,
+        PREWARM_MAX_NUM_BYTES_KEY);
+    return prewarmMaxNumBytes == null ? 0 : prewarmMaxNumBytes;
+  }
+
+  @Override
+  public long getPrewarmMaxDurationMs() {
+    Long prewarmMaxDurationMs = getOptionalLong(PARTITION_SERVER_SECTION_KEY, PARTITION_SERVER_DAEMON_SECTION_KEY,
+        PREWARM_MAX_DURATION_MS_KEY);
+    return prewarmMaxDurationMs == null ? DEFAULT_PREWARM_MAX_DURATION_MS : prewarmMaxDurationMs;
+  }
+
+  @Override
+  public int getMaxConcurrentReaderOpensPerDataDirectory() {
+    Integer maxConcurrentReaderOpens = getOptionalInteger(PARTITION_SERVER_SECTION_KEY, PARTITION_SERVER_DAEMON_SECTION_KEY,
+        MAX_CONCURRENT_READER_OPENS_PER_DATA_DIRECTORY_KEY);
+    return maxConcurrentReaderOpens == null ? DEFAULT_MAX_CONCURRENT_READER_OPENS_PER_DATA_DIRECTORY : maxConcurrentReaderOpens;
+  }
+
+  @Override
+  public List<QueryClassConfiguration> getQueryClassConfigurations() {
+    List<QueryClassConfiguration> result = new ArrayList<QueryClassConfiguration>();
+    Map<String, Object> queryClasses = getQueryClassesSection();
+    if (queryClasses != null) {
+      for (String queryClassName : queryClasses.keySet()) {
+        Integer weight = getOptionalInteger(PARTITION_SERVER_SECTION_KEY, PARTITION_SERVER_DAEMON_SECTION_KEY,
+            QUERY_CLASSES_SECTION_KEY, queryClassName, QUERY_CLASS_WEIGHT_KEY);
+        Integer maxConcurrentRequests = getOptionalInteger(PARTITION_SERVER_SECTION_KEY, PARTITION_SERVER_DAEMON_SECTION_KEY,
+            QUERY_CLASSES_SECTION_KEY, queryClassName, QUERY_CLASS_MAX_CONCURRENT_REQUESTS_KEY);
+        List<String> domainNames = getStringList(PARTITION_SERVER_SECTION_KEY, PARTITION_SERVER_DAEMON_SECTION_KEY,
+            QUERY_CLASSES_SECTION_KEY, queryClassName, QUERY_CLASS_DOMAINS_KEY);
+        result.add(new QueryClassConfiguration(queryClassName,
+            weight == null ? 1 : weight,
+            maxConcurrentRequests == null ? 0 : maxConcurrentRequests,
+            new HashSet<String>(domainNames)));
+      }
+    }
+    return result;
+  }
+
+  private Map<String, Object> getQueryClassesSection() {
+    try {
+      return getRequiredSection(PARTITION_SERVER_SECTION_KEY, PARTITION_SERVER_DAEMON_SECTION_KEY,
+          QUERY_CLASSES_SECTION_KEY);
+    } catch (InvalidConfigurationException e) {
+      return null;
+    }
+  }
+
   @Override
   public int getBufferReuseMaxSize() {
     return getInteger(PARTITION_SERVER_SECTION_KEY, PARTITION_SERVER_DAEMON_SECTION_KEY,
@@ -153,4 +315,67 @@ public class YamlPartitionServerConfigurator extends YamlCoordinatorConfigurator
   public int getMaxConcurrentUpdatesPerDataDirectory() {
     return getInteger(PARTITION_SERVER_SECTION_KEY, UPDATE_DAEMON_SECTION_KEY, MAX_CONCURRENT_UPDATES_PER_DATA_DIRECTORY_KEY);
   }
+
+  @Override
+  public boolean getAdaptiveUpdateConcurrency() {
+    Boolean adaptiveUpdateConcurrency = getOptionalBoolean(PARTITION_SERVER_SECTION_KEY, UPDATE_DAEMON_SECTION_KEY,
+        ADAPTIVE_UPDATE_CONCURRENCY_KEY);
+    return adaptiveUpdateConcurrency != null && adaptiveUpdateConcurrency;
+  }
+
+  @Override
+  public boolean getUpdateWhileServing() {
+    Boolean updateWhileServing = getOptionalBoolean(PARTITION_SERVER_SECTION_KEY, UPDATE_DAEMON_SECTION_KEY,
+        UPDATE_WHILE_SERVING_KEY);
+    return updateWhileServing != null && updateWhileServing;
+  }
+
+  @Override
+  public int getMaxConcurrentFetches() {
+    Integer maxConcurrentFetches = getOptionalInteger(PARTITION_SERVER_SECTION_KEY, UPDATE_DAEMON_SECTION_KEY,
+        MAX_CONCURRENT_FETCHES_KEY);
+    return maxConcurrentFetches != null ? maxConcurrentFetches : RemoteFetchLimiter.DEFAULT_MAX_CONCURRENT_FETCHES;
+  }
+
+  @Override
+  public int getNumMergeThreads() {
+    Integer numMergeThreads = getOptionalInteger(PARTITION_SERVER_SECTION_KEY, UPDATE_DAEMON_SECTION_KEY,
+        NUM_MERGE_THREADS_KEY);
+    return numMergeThreads != null ? numMergeThreads : CueballMerger.DEFAULT_NUM_MERGE_THREADS;
+  }
+
+  @Override
+  public int getPeerTransferPort() {
+    Integer peerTransferPort = getOptionalInteger(PARTITION_SERVER_SECTION_KEY, UPDATE_DAEMON_SECTION_KEY,
+        PEER_TRANSFER_PORT_KEY);
+    return peerTransferPort != null ? peerTransferPort : 0;
+  }
+
+  @Override
+  public int getMaxConcurrentPeerTransfers() {
+    Integer maxConcurrentPeerTransfers = getOptionalInteger(PARTITION_SERVER_SECTION_KEY, UPDATE_DAEMON_SECTION_KEY,
+        MAX_CONCURRENT_PEER_TRANSFERS_KEY);
+    return maxConcurrentPeerTransfers != null ? maxConcurrentPeerTransfers : 2;
+  }
+
+  @Override
+  public boolean getFetchFromPeers() {
+    Boolean fetchFromPeers = getOptionalBoolean(PARTITION_SERVER_SECTION_KEY, UPDATE_DAEMON_SECTION_KEY,
+        FETCH_FROM_PEERS_KEY);
+    return fetchFromPeers == null || fetchFromPeers;
+  }
+
+  @Override
+  public boolean getLocalCompaction() {
+    Boolean localCompaction = getOptionalBoolean(PARTITION_SERVER_SECTION_KEY, UPDATE_DAEMON_SECTION_KEY,
+        LOCAL_COMPACTION_KEY);
+    return localCompaction != null && localCompaction;
+  }
+
+  @Override
+  public int getLocalCompactionMaxQps() {
+    Integer localCompactionMaxQps = getOptionalInteger(PARTITION_SERVER_SECTION_KEY, UPDATE_DAEMON_SECTION_KEY,
+        LOCAL_COMPACTION_MAX_QPS_KEY);
+    return localCompactionMaxQps == null ? DEFAULT_LOCAL_COMPACTION_MAX_QPS : localCompactionMaxQps;
+  }
 }
@@ -37,6 +37,7 @@ import com.liveramp.hank.coordinator.Domain;
 import com.liveramp.hank.coordinator.DomainVersion;
 import com.liveramp.hank.coordinator.RunWithCoordinator;
 import com.liveramp.hank.coordinator.RunnableWithCoordinator;
+import com.liveramp.hank.storage.ChecksummingPartitionRemoteFileOps;
 import com.liveramp.hank.storage.PartitionRemoteFileOps;
 import com.liveramp.hank.storage.StorageEngine;
 import com.liveramp.hank.storage.Writer;
@@ -106,6 +107,7 @@ public abstract class DomainBuilderAbstractOutputFormat
     private Writer writer = null;
     private Integer writerPartition = null;
     private Path writerOutputPath = null;
+    private ChecksummingPartitionRemoteFileOps writerFileOps = null;
     private int numRecordsWritten = 0;
     protected final Set<Integer> writtenPartitions = new HashSet<Integer>();
 
@@ -172,9 +174,12 @@ public abstract class DomainBuilderAbstractOutputFormat
       numRecordsWritten = 0;
       writerPartition = partitionNumber;
       writtenPartitions.add(partitionNumber);
+      // Record checksums of the partition's files, so that partition servers can reuse unchanged files
+      writerFileOps = new ChecksummingPartitionRemoteFileOps(
+          storageEngine.getPartitionRemoteFileOpsFactory().getPartitionRemoteFileOps(writerOutputPath.toString(), partitionNumber));
       writer = getWriter(storageEngine,
           domainVersion,
-          storageEngine.getPartitionRemoteFileOpsFactory().getPartitionRemoteFileOps(writerOutputPath.toString(), partitionNumber),
+          writerFileOps,
           partitionNumber);
     }
 
@@ -195,7 +200,8 @@ public abstract class DomainBuilderAbstractOutputFormat
                   domainVersionNumber);
               domainVersion.addPartitionProperties(writerPartition,
                   writer.getNumBytesWritten(),
-                  writer.getNumRecordsWritten());
+                  writer.getNumRecordsWritten(),
+                  writerFileOps.getChecksums());
             }
           });
         } else {
@@ -0,0 +1,33 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.partition_server;
+
+import java.io.IOException;
+
+/**
+ * Server answering partition server requests (the PartitionServer Thrift
+ * service, framed, with the compact protocol) on the service port.
+ * Implementations are created by a DataServerFactory.
+ */
+public interface DataServer {
+
+  // Serve requests until stopped. Resources of the server should be released before returning.
+  public void serve() throws IOException;
+
+  public void stop();
+
+  public boolean isServing();
+}
@@ -0,0 +1,217 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.partition_server;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+
+import org.apache.thrift.TByteArrayOutputStream;
+import org.apache.thrift.TException;
+import org.apache.thrift.TProcessor;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.transport.TFramedTransport;
+import org.apache.thrift.transport.TIOStreamTransport;
+import org.apache.thrift.transport.TTransport;
+import org.apache.thrift.transport.TTransportException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xerial.snappy.Snappy;
+
+/**
+ * Output-only framed transport that writes directly into the response buffer
+ * of the non blocking Thrift server.
+ * <p/>
+ * TFramedTransport accumulates a whole response in its own buffer and then
+ * copies it into the server's response buffer when flushed. For large
+ * responses (bulk requests of large values), that second copy of every value
+ * byte is significant. This transport instead reserves room for the frame
+ * size in the response buffer, lets the protocol write the response right
+ * after it, and fills in the frame size when flushed. Value bytes are thus
+ * copied only once, from the Reader's buffer into the outgoing frame.
+ * <p/>
+ * When the request being answered was read by a FramedInputTransport and
+ * carried a response compression header, the response starts with a
+ * compression header as well, and is compressed with Snappy if it is large
+ * enough (see ResponseCompression). The server creates both transports of a
+ * request separately, so they are linked by DirectFramedTransport.Processor.
+ */
+public class DirectFramedTransport extends TTransport {
+
+  private static final Logger LOG = LoggerFactory.getLogger(DirectFramedTransport.class);
+
+  private static final int FRAME_SIZE_NUM_BYTES = 4;
+  private static final byte[] FRAME_SIZE_PLACEHOLDER = new byte[FRAME_SIZE_NUM_BYTES];
+
+  private final TByteArrayOutputStream response;
+  private int frameStart = -1;
+  private int frameHeaderNumBytes;
+  private int minCompressedResponseSize = -1;
+  private FramedInputTransport requestTransport;
+
+  public DirectFramedTransport(TByteArrayOutputStream response) {
+    this.response = response;
+  }
+
+  // Responses are compressed as requested by the requests read from the given transport
+  void setRequestTransport(FramedInputTransport requestTransport) {
+    this.requestTransport = requestTransport;
+  }
+
+  @Override
+  public boolean isOpen() {
+    return true;
+  }
+
+  @Override
+  public void open() throws TTransportException {
+  }
+
+  @Override
+  public void close() {
+  }
+
+  @Override
+  public int read(byte[] buf, int off, int len) throws TTransportException {
+    throw new TTransportException("DirectFramedTransport is write only");
+  }
+
+  @Override
+  public void write(byte[] buf, int off, int len) throws TTransportException {
+    startFrameIfNeeded();
+    response.write(buf, off, len);
+  }
+
+  @Override
+  public void flush() throws TTransportException {
+    startFrameIfNeeded();
+    if (minCompressedResponseSize >= 0) {
+      compressIfNeeded();
+    }
+    // Get the response buffer only now since it may have been reallocated while writing
+    byte[] buf = response.get();
+    int frameSize = response.len() - frameStart - FRAME_SIZE_NUM_BYTES;
+    buf[frameStart] = (byte)(0xff & (frameSize >> 24));
+    buf[frameStart + 1] = (byte)(0xff & (frameSize >> 16));
+    buf[frameStart + 2] = (byte)(0xff & (frameSize >> 8));
+    buf[frameStart + 3] = (byte)(0xff & (frameSize));
+    frameStart = -1;
+  }
+
+  private void startFrameIfNeeded() {
+    // The server resets the response buffer before each request, which also discards
+    // a frame that was left unfinished (for example when processing failed)
+    if (frameStart < 0 || frameStart + frameHeaderNumBytes > response.len()) {
+      // Reserve room for the frame size
+      frameStart = response.len();
+      response.write(FRAME_SIZE_PLACEHOLDER, 0, FRAME_SIZE_NUM_BYTES);
+      frameHeaderNumBytes = FRAME_SIZE_NUM_BYTES;
+      minCompressedResponseSize = requestTransport == null ? -1 : requestTransport.getMinCompressedResponseSize();
+      if (minCompressedResponseSize >= 0) {
+        // Assume the response will be sent raw, this is updated when compressing it
+        response.write(ResponseCompression.RESPONSE_RAW);
+        frameHeaderNumBytes += ResponseCompression.RESPONSE_HEADER_NUM_BYTES;
+      }
+    }
+  }
+
+  private void compressIfNeeded() {
+    int dataStart = frameStart + frameHeaderNumBytes;
+    int dataLength = response.len() - dataStart;
+    // The response buffer can only be rewritten from its start
+    if (dataLength < minCompressedResponseSize || frameStart != 0) {
+      return;
+    }
+    byte[] compressed = new byte[Snappy.maxCompressedLength(dataLength)];
+    int compressedLength;
+    try {
+      compressedLength = Snappy.compress(response.get(), dataStart, dataLength, compressed, 0);
+    } catch (IOException e) {
+      LOG.warn("Failed to compress response. Sending it raw.", e);
+      return;
+    }
+    if (compressedLength < dataLength) {
+      response.reset();
+      response.write(FRAME_SIZE_PLACEHOLDER, 0, FRAME_SIZE_NUM_BYTES);
+      response.write(ResponseCompression.RESPONSE_SNAPPY);
+      response.write(compressed, 0, compressedLength);
+    }
+  }
+
+  /**
+   * Processor that links the DirectFramedTransport writing each response to
+   * the FramedInputTransport that read the request, before delegating to the
+   * given processor.
+   */
+  public static class Processor implements TProcessor {
+
+    private final TProcessor processor;
+
+    public Processor(TProcessor processor) {
+      this.processor = processor;
+    }
+
+    @Override
+    public boolean process(TProtocol in, TProtocol out) throws TException {
+      TTransport inputTransport = in.getTransport();
+      TTransport outputTransport = out.getTransport();
+      if (inputTransport instanceof FramedInputTransport && outputTransport instanceof DirectFramedTransport) {
+        ((DirectFramedTransport)outputTransport).setRequestTransport((FramedInputTransport)inputTransport);
+      }
+      return processor.process(in, out);
+    }
+  }
+
+  /**
+   * Creates DirectFramedTransports when the underlying transport writes to a
+   * TByteArrayOutputStream (which is what the non blocking servers use for
+   * responses), and regular TFramedTransports otherwise.
+   */
+  public static class Factory extends TFramedTransport.Factory {
+
+    private static final Field OUTPUT_STREAM_FIELD = getOutputStreamField();
+
+    // Compressed responses can only be written by DirectFramedTransports
+    public static boolean supportsResponseCompression() {
+      return OUTPUT_STREAM_FIELD != null;
+    }
+
+    @Override
+    public TTransport getTransport(TTransport base) {
+      if (OUTPUT_STREAM_FIELD != null && base instanceof TIOStreamTransport) {
+        try {
+          Object outputStream = OUTPUT_STREAM_FIELD.get(base);
+          if (outputStream instanceof TByteArrayOutputStream) {
+            return new DirectFramedTransport((TByteArrayOutputStream)outputStream);
+          }
+        } catch (IllegalAccessException e) {
+          LOG.warn("Could not access output stream of transport. Using a regular framed transport.", e);
+        }
+      }
+      return super.getTransport(base);
+    }
+
+    private static Field getOutputStreamField() {
+      try {
+        Field field = TIOStreamTransport.class.getDeclaredField("outputStream_");
+        field.setAccessible(true);
+        return field;
+      } catch (Exception e) {
+        LOG.error("Could not access TIOStreamTransport output stream. Direct framed transports and response compression will not be used.", e);
+        return null;
+      }
+    }
+  }
+}
@@ -28,17 +28,22 @@ import org.slf4j.Logger; import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Class that manages accessing data on behalf of a particular Domain.
+ * PartitionAccessors can be swapped atomically while serving, requests in
+ * progress keep using the previous accessor until they are done.
  */
 public class DomainAccessor {
 
   private static final HankResponse WRONG_HOST = HankResponse.xception(HankException.wrong_host(true));
+  private static final HankResponse WRONG_PARTITION =
+      HankResponse.xception(HankException.internal_error("Invalid partition supplied by client"));
 
   private static final Logger LOG = LoggerFactory.getLogger(DomainAccessor.class);
   private final HostDomain hostDomain;
-  private final PartitionAccessor[] partitionAccessors;
+  private final AtomicReferenceArray<PartitionAccessor> partitionAccessors;
   private final Partitioner partitioner;
   private final HankTimerEventAggregator getRequestsTimerAggregator;
 
@@ -47,7 +52,7 @@ public class DomainAccessor {
                  Partitioner partitioner,
                  int getTimerAggregatorWindow) throws IOException {
     this.hostDomain = hostDomain;
-    this.partitionAccessors = partitionAccessors;
+    this.partitionAccessors = new AtomicReferenceArray<PartitionAccessor>(partitionAccessors);
     this.partitioner = partitioner;
     this.getRequestsTimerAggregator = new HankTimerEventAggregator("GET " + hostDomain.getDomain().getName(),
         getTimerAggregatorWindow);
@@ -56,19 +61,76 @@ public class DomainAccessor {
   public HankResponse get(ByteBuffer key, ReaderResult result) throws IOException {
     HankTimer timer = getRequestsTimerAggregator.getTimer();
     try {
-      int partition = partitioner.partition(key, partitionAccessors.length);
-      PartitionAccessor partitionAccessor = partitionAccessors[partition];
-      if (partitionAccessor == null) {
-        LOG.error("Failed to perform get because of an Exception: wrong host for domain: " + hostDomain.getDomain().getName()
-            + ", partition: " + partition + ", key: " + BytesUtils.bytesToHexString(key) + ", response: " + WRONG_HOST);
-        return WRONG_HOST;
+      int partition = partitioner.partition(key, partitionAccessors.length());
+      return getFromPartition(partition, key, result);
+    } finally {
+      getRequestsTimerAggregator.add(timer);
+    }
+  }
+
+  // Perform a GET for which the client has already computed the partition. The partition is trusted, clients
+  // must have checked that they use the same partitioner first (see checkPartitioner). Only its bounds are verified.
+  public HankResponse get(int partition, ByteBuffer key, ReaderResult result) throws IOException {
+    HankTimer timer = getRequestsTimerAggregator.getTimer();
+    try {
+      if (partition < 0 || partition >= partitionAccessors.length()) {
+        LOG.error("Failed to perform get because of an Exception: invalid partition supplied by client for domain: "
+            + hostDomain.getDomain().getName() + ", partition: " + partition + ", key: " + BytesUtils.bytesToHexString(key)
+            + ", response: " + WRONG_PARTITION);
+        return WRONG_PARTITION;
       }
-      return partitionAccessor.get(key, result);
+      return getFromPartition(partition, key, result);
     } finally {
       getRequestsTimerAggregator.add(timer);
     }
   }
 
+  // Whether keys of this domain are partitioned with the given partitioner class and number of partitions
+  public boolean checkPartitioner(String partitionerClassName, int numPartitions) {
+    return partitioner.getClass().getName().equals(partitionerClassName)
+        && partitionAccessors.length() == numPartitions;
+  }
+
+  private HankResponse getFromPartition(int partition, ByteBuffer key, ReaderResult result) throws IOException {
+    PartitionAccessor partitionAccessor = acquirePartitionAccessor(partition);
+    if (partitionAccessor == null) {
+      LOG.error("Failed to perform get because of an Exception: wrong host for domain: " + hostDomain.getDomain().getName()
+          + ", partition: " + partition + ", key: " + BytesUtils.bytesToHexString(key) + ", response: " + WRONG_HOST);
+      return WRONG_HOST;
+    }
+    try {
+      return partitionAccessor.get(key, result);
+    } finally {
+      partitionAccessor.release();
+    }
+  }
+
+  private PartitionAccessor acquirePartitionAccessor(int partition) {
+    while (true) {
+      PartitionAccessor partitionAccessor = partitionAccessors.get(partition);
+      if (partitionAccessor == null || partitionAccessor.acquire()) {
+        return partitionAccessor;
+      }
+      // The accessor was swapped out and shut down concurrently, use the new one
+    }
+  }
+
+  public PartitionAccessor getPartitionAccessor(int partition) {
+    return partitionAccessors.get(partition);
+  }
+
+  public int getNumPartitions() {
+    return partitionAccessors.length();
+  }
+
+  // Atomically replace the accessor of the given partition (null to stop serving it) and shut down the previous one
+  public void swapPartitionAccessor(int partition, PartitionAccessor partitionAccessor) {
+    PartitionAccessor previousPartitionAccessor = partitionAccessors.getAndSet(partition, partitionAccessor);
+    if (previousPartitionAccessor != null) {
+      previousPartitionAccessor.shutDown();
+    }
+  }
+
   public String getName() {
     return hostDomain.getDomain().getName();
   }
@@ -79,7 +141,8 @@ public class DomainAccessor {
 
   public void shutDown() {
     // Shutdown partition accessors
-    for (PartitionAccessor partitionAccessor : partitionAccessors) {
+    for (int i = 0; i < partitionAccessors.length(); ++i) {
+      PartitionAccessor partitionAccessor = partitionAccessors.get(i);
       if (partitionAccessor != null) {
         partitionAccessor.shutDown();
       }
@@ -88,7 +151,8 @@ public class DomainAccessor {
 
   public RuntimeStatisticsAggregator getRuntimeStatistics() {
     RuntimeStatisticsAggregator runtimeStatisticsAggregator = new RuntimeStatisticsAggregator();
-    for (PartitionAccessor partitionAccessor : partitionAccessors) {
+    for (int i = 0; i < partitionAccessors.length(); ++i) {
+      PartitionAccessor partitionAccessor = partitionAccessors.get(i);
       if (partitionAccessor != null) {
         runtimeStatisticsAggregator.add(partitionAccessor.getRuntimeStatistics());
       }
@@ -0,0 +1,125 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.partition_server;
+
+import org.apache.thrift.transport.TFramedTransport;
+import org.apache.thrift.transport.TMemoryInputTransport;
+import org.apache.thrift.transport.TTransport;
+import org.apache.thrift.transport.TTransportException;
+import org.apache.thrift.transport.TTransportFactory;
+
+/**
+ * Input-only framed transport that understands the request header sent by
+ * clients that negotiated response compression (see ResponseCompression).
+ * <p/>
+ * The header is stripped from the request, and the minimum size of responses
+ * to compress is recorded. The DirectFramedTransport writing the response is
+ * linked to this transport (see DirectFramedTransport.Processor), which is how
+ * it learns whether (and above which size) the response should be compressed.
+ */
+public class FramedInputTransport extends TTransport {
+
+  private static final int FRAME_SIZE_NUM_BYTES = 4;
+
+  private final TTransport transport;
+  private final TMemoryInputTransport readBuffer = new TMemoryInputTransport(new byte[0]);
+  private final byte[] frameSizeBuffer = new byte[FRAME_SIZE_NUM_BYTES];
+  private int minCompressedResponseSize = -1;
+
+  public FramedInputTransport(TTransport transport) {
+    this.transport = transport;
+  }
+
+  // Minimum size of the response to the request last read for it to be compressed,
+  // or -1 if it should not be compressed.
+  int getMinCompressedResponseSize() {
+    return minCompressedResponseSize;
+  }
+
+  @Override
+  public boolean isOpen() {
+    return transport.isOpen();
+  }
+
+  @Override
+  public void open() throws TTransportException {
+    transport.open();
+  }
+
+  @Override
+  public void close() {
+    transport.close();
+  }
+
+  @Override
+  public int read(byte[] buf, int off, int len) throws TTransportException {
+    int got = readBuffer.read(buf, off, len);
+    if (got > 0) {
+      return got;
+    }
+    readFrame();
+    return readBuffer.read(buf, off, len);
+  }
+
+  @Override
+  public byte[] getBuffer() {
+    return readBuffer.getBuffer();
+  }
+
+  @Override
+  public int getBufferPosition() {
+    return readBuffer.getBufferPosition();
+  }
+
+  @Override
+  public int getBytesRemainingInBuffer() {
+    return readBuffer.getBytesRemainingInBuffer();
+  }
+
+  @Override
+  public void consumeBuffer(int len) {
+    readBuffer.consumeBuffer(len);
+  }
+
+  @Override
+  public void write(byte[] buf, int off, int len) throws TTransportException {
+    throw new TTransportException("FramedInputTransport is read only");
+  }
+
+  private void readFrame() throws TTransportException {
+    transport.readAll(frameSizeBuffer, 0, FRAME_SIZE_NUM_BYTES);
+    int size = TFramedTransport.decodeFrameSize(frameSizeBuffer);
+    if (size < 0) {
+      throw new TTransportException("Read a negative frame size (" + size + ")!");
+    }
+    byte[] frame = new byte[size];
+    transport.readAll(frame, 0, size);
+    minCompressedResponseSize = ResponseCompression.decodeRequestHeader(frame, 0, size);
+    if (minCompressedResponseSize >= 0) {
+      readBuffer.reset(frame, ResponseCompression.REQUEST_HEADER_NUM_BYTES, size - ResponseCompression.REQUEST_HEADER_NUM_BYTES);
+    } else {
+      readBuffer.reset(frame);
+    }
+  }
+
+  public static class Factory extends TTransportFactory {
+
+    @Override
+    public TTransport getTransport(TTransport base) {
+      return new FramedInputTransport(base);
+    }
+  }
+}
@@ -0,0 +1,428 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.partition_server;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.apache.thrift.TException;
+import org.apache.thrift.TProcessor;
+import org.apache.thrift.protocol.TCompactProtocol;
+import org.apache.thrift.transport.TTransport;
+import org.apache.thrift.transport.TTransportException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xerial.snappy.Snappy;
+
+import com.liveramp.hank.config.PartitionServerConfigurator;
+
+/**
+ * Data server built on Netty. It speaks the same framed Thrift compact
+ * protocol as ThriftSelectorDataServer, including response compression
+ * headers, so clients can talk to either one.
+ * <p/>
+ * Connections are handled by a configurable number of event loop threads
+ * (using epoll when the native transport is available, and NIO otherwise).
+ * Event loops only read and write frames: requests are processed on a
+ * separate pool of lookup threads, so that slow lookups never delay I/O on
+ * other connections. Responses are written into pooled direct buffers, and
+ * compressed from and into direct buffers, so they are not copied again on
+ * their way to the socket.
+ * <p/>
+ * Requests received on a connection are processed one at a time and in order,
+ * which is what the synchronous Thrift clients expect. Request frames are read
+ * in place from the pooled buffers they were received in. Reading from a
+ * connection is paused while too many of its requests are pending, and
+ * connections sending frames larger than the configured max are closed.
+ */
+public class NettyDataServer implements DataServer {
+
+  private static final Logger LOG = LoggerFactory.getLogger(NettyDataServer.class);
+
+  private static final int FRAME_SIZE_NUM_BYTES = 4;
+  private static final int INITIAL_RESPONSE_CAPACITY = 1024;
+  private static final int MAX_PENDING_REQUESTS_PER_CONNECTION = 16;
+
+  private final int servicePort;
+  private final int numEventLoopThreads;
+  private final int numLookupThreads;
+  private final int maxRequestFrameSize;
+  private final TProcessor processor;
+
+  private volatile Channel serverChannel;
+  private volatile boolean stopRequested = false;
+
+  public NettyDataServer(int servicePort,
+                         int numEventLoopThreads,
+                         int numLookupThreads,
+                         int maxRequestFrameSize,
+                         IfaceWithShutdown handler) {
+    this.servicePort = servicePort;
+    this.numEventLoopThreads = numEventLoopThreads;
+    this.numLookupThreads = numLookupThreads;
+    this.maxRequestFrameSize = maxRequestFrameSize;
+    this.processor = new com.liveramp.hank.generated.PartitionServer.Processor(handler);
+  }
+
+  @Override
+  public void serve() throws IOException {
+    boolean useEpoll = Epoll.isAvailable();
+    EventLoopGroup acceptGroup;
+    EventLoopGroup eventLoopGroup;
+    Class<? extends ServerChannel> channelClass;
+    if (useEpoll) {
+      acceptGroup = new EpollEventLoopGroup(1, new DefaultThreadFactory("netty-data-server-accept"));
+      eventLoopGroup = new EpollEventLoopGroup(numEventLoopThreads, new DefaultThreadFactory("netty-data-server-event-loop"));
+      channelClass = EpollServerSocketChannel.class;
+    } else {
+      acceptGroup = new NioEventLoopGroup(1, new DefaultThreadFactory("netty-data-server-accept"));
+      eventLoopGroup = new NioEventLoopGroup(numEventLoopThreads, new DefaultThreadFactory("netty-data-server-event-loop"));
+      channelClass = NioServerSocketChannel.class;
+    }
+    final ExecutorService lookupExecutor =
+        Executors.newFixedThreadPool(numLookupThreads, new DefaultThreadFactory("netty-data-server-lookup"));
+    try {
+      ServerBootstrap bootstrap = new ServerBootstrap()
+          .group(acceptGroup, eventLoopGroup)
+          .channel(channelClass)
+          .option(ChannelOption.SO_REUSEADDR, true)
+          .childOption(ChannelOption.TCP_NODELAY, true)
+          .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+          .childHandler(new ChannelInitializer<SocketChannel>() {
+            @Override
+            protected void initChannel(SocketChannel channel) {
+              channel.pipeline().addLast(
+                  // Fail as soon as the size of a frame that is too large is read
+                  new LengthFieldBasedFrameDecoder(maxRequestFrameSize, 0, FRAME_SIZE_NUM_BYTES, 0, FRAME_SIZE_NUM_BYTES, true),
+                  new RequestHandler(lookupExecutor));
+            }
+          });
+      ChannelFuture bindFuture = bootstrap.bind(servicePort).await();
+      if (!bindFuture.isSuccess()) {
+        throw new IOException("Failed to bind to port " + servicePort, bindFuture.cause());
+      }
+      serverChannel = bindFuture.channel();
+      // Stop may have been requested before the server channel was available
+      if (stopRequested) {
+        serverChannel.close();
+      }
+      LOG.info("Launched Netty data server on port " + servicePort + " using " + (useEpoll ? "epoll" : "NIO")
+          + " with " + numEventLoopThreads + " event loop threads and " + numLookupThreads + " lookup threads.");
+      serverChannel.closeFuture().await();
+      LOG.info("Netty data server exited.");
+    } catch (InterruptedException e) {
+      throw new IOException("Interrupted while serving", e);
+    } finally {
+      acceptGroup.shutdownGracefully();
+      eventLoopGroup.shutdownGracefully();
+      lookupExecutor.shutdown();
+    }
+  }
+
+  @Override
+  public void stop() {
+    stopRequested = true;
+    Channel channel = serverChannel;
+    if (channel != null) {
+      channel.close();
+    }
+  }
+
+  @Override
+  public boolean isServing() {
+    Channel channel = serverChannel;
+    return channel != null && channel.isActive();
+  }
+
+  // One per connection. Frames are read on the event loop and processed serially on the lookup executor.
+  // Frames are kept (not copied) until processed, and reading is paused while too many of them are pending.
+  private class RequestHandler extends SimpleChannelInboundHandler<ByteBuf> {
+
+    private final ExecutorService lookupExecutor;
+    private final Queue<ByteBuf> pendingRequests = new ArrayDeque<ByteBuf>();
+    private boolean processing = false;
+
+    private RequestHandler(ExecutorService lookupExecutor) {
+      // Frames are released once processed
+      super(false);
+      this.lookupExecutor = lookupExecutor;
+    }
+
+    @Override
+    protected void channelRead0(final ChannelHandlerContext ctx, ByteBuf frame) {
+      synchronized (this) {
+        pendingRequests.add(frame);
+        if (pendingRequests.size() >= MAX_PENDING_REQUESTS_PER_CONNECTION) {
+          ctx.channel().config().setAutoRead(false);
+        }
+        if (processing) {
+          return;
+        }
+        processing = true;
+      }
+      submit(ctx);
+    }
+
+    private void submit(final ChannelHandlerContext ctx) {
+      try {
+        lookupExecutor.execute(new Runnable() {
+          @Override
+          public void run() {
+            processPendingRequests(ctx);
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        // The server is shutting down
+        ctx.close();
+        stopProcessing();
+      }
+    }
+
+    private void processPendingRequests(ChannelHandlerContext ctx) {
+      while (true) {
+        ByteBuf request;
+        synchronized (this) {
+          request = pendingRequests.poll();
+          if (request == null) {
+            processing = false;
+            return;
+          }
+          if (pendingRequests.size() == MAX_PENDING_REQUESTS_PER_CONNECTION - 1) {
+            ctx.channel().config().setAutoRead(true);
+          }
+        }
+        boolean success;
+        try {
+          success = processRequest(ctx, request);
+        } finally {
+          request.release();
+        }
+        if (!success) {
+          ctx.close();
+          stopProcessing();
+          return;
+        }
+      }
+    }
+
+    private synchronized void stopProcessing() {
+      releasePendingRequests();
+      processing = false;
+    }
+
+    private synchronized void releasePendingRequests() {
+      ByteBuf request;
+      while ((request = pendingRequests.poll()) != null) {
+        request.release();
+      }
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+      // Pending requests will not be processed. The one being processed (if any) is released by its lookup thread.
+      releasePendingRequests();
+      super.channelInactive(ctx);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+      if (cause instanceof TooLongFrameException) {
+        LOG.warn("Closing connection " + ctx.channel() + " that sent a request frame larger than "
+            + maxRequestFrameSize + " bytes: " + cause.getMessage());
+      } else {
+        LOG.warn("Closing connection " + ctx.channel() + " after failure", cause);
+      }
+      ctx.close();
+    }
+  }
+
+  // Process the given request payload and write its response frame. Return false if the connection should be closed.
+  private boolean processRequest(ChannelHandlerContext ctx, ByteBuf request) {
+    int minCompressedResponseSize = decodeRequestHeader(request);
+    int responseHeaderNumBytes = FRAME_SIZE_NUM_BYTES;
+    if (minCompressedResponseSize >= 0) {
+      request.skipBytes(ResponseCompression.REQUEST_HEADER_NUM_BYTES);
+      responseHeaderNumBytes += ResponseCompression.RESPONSE_HEADER_NUM_BYTES;
+    }
+    ByteBuf response = ctx.alloc().directBuffer(INITIAL_RESPONSE_CAPACITY);
+    try {
+      // Reserve room for the frame size and compression header
+      response.writerIndex(responseHeaderNumBytes);
+      processor.process(
+          new TCompactProtocol(new ByteBufInputTransport(request)),
+          new TCompactProtocol(new ByteBufOutputTransport(response)));
+      if (minCompressedResponseSize >= 0) {
+        response.setByte(FRAME_SIZE_NUM_BYTES, ResponseCompression.RESPONSE_RAW);
+        if (response.readableBytes() - responseHeaderNumBytes >= minCompressedResponseSize) {
+          response = compressIfSmaller(ctx, response, responseHeaderNumBytes);
+        }
+      }
+      response.setInt(0, response.readableBytes() - FRAME_SIZE_NUM_BYTES);
+    } catch (TException e) {
+      LOG.error("Failed to process request", e);
+      response.release();
+      return false;
+    } catch (RuntimeException e) {
+      LOG.error("Unexpected failure while processing request", e);
+      response.release();
+      return false;
+    }
+    ctx.writeAndFlush(response);
+    return true;
+  }
+
+  // Same as ResponseCompression.decodeRequestHeader, without copying the request out of its buffer
+  private static int decodeRequestHeader(ByteBuf request) {
+    if (request.readableBytes() < ResponseCompression.REQUEST_HEADER_NUM_BYTES
+        || request.getByte(request.readerIndex()) != ResponseCompression.REQUEST_ACCEPT_SNAPPY) {
+      return -1;
+    }
+    return Math.max(0, request.getInt(request.readerIndex() + 1));
+  }
+
+  // Return a compressed copy of the given response if it is smaller, releasing the original
+  private static ByteBuf compressIfSmaller(ChannelHandlerContext ctx, ByteBuf response, int headerNumBytes) {
+    int dataLength = response.readableBytes() - headerNumBytes;
+    int maxCompressedLength = Snappy.maxCompressedLength(dataLength);
+    ByteBuf compressed = ctx.alloc().directBuffer(headerNumBytes + maxCompressedLength);
+    try {
+      int compressedLength = Snappy.compress(response.nioBuffer(headerNumBytes, dataLength),
+          compressed.nioBuffer(headerNumBytes, maxCompressedLength));
+      if (compressedLength < dataLength) {
+        compressed.writerIndex(headerNumBytes + compressedLength);
+        compressed.setByte(FRAME_SIZE_NUM_BYTES, ResponseCompression.RESPONSE_SNAPPY);
+        response.release();
+        return compressed;
+      }
+    } catch (IOException e) {
+      LOG.warn("Failed to compress response. Sending it raw.", e);
+    }
+    compressed.release();
+    return response;
+  }
+
+  // Read-only transport consuming a buffer
+  private static class ByteBufInputTransport extends TTransport {
+
+    private final ByteBuf buffer;
+
+    private ByteBufInputTransport(ByteBuf buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public void open() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public int read(byte[] buf, int off, int len) {
+      int numBytes = Math.min(len, buffer.readableBytes());
+      buffer.readBytes(buf, off, numBytes);
+      return numBytes;
+    }
+
+    @Override
+    public void write(byte[] buf, int off, int len) throws TTransportException {
+      throw new TTransportException("ByteBufInputTransport is read only");
+    }
+  }
+
+  // Write-only transport appending to a buffer
+  private static class ByteBufOutputTransport extends TTransport {
+
+    private final ByteBuf buffer;
+
+    private ByteBufOutputTransport(ByteBuf buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public void open() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public int read(byte[] buf, int off, int len) throws TTransportException {
+      throw new TTransportException("ByteBufOutputTransport is write only");
+    }
+
+    @Override
+    public void write(byte[] buf, int off, int len) {
+      buffer.writeBytes(buf, off, len);
+    }
+
+    @Override
+    public void flush() {
+    }
+  }
+
+  /**
+   * Uses the data server selector threads setting as the number of event loop
+   * threads, and the number of concurrent queries as the number of lookup threads.
+   */
+  public static class Factory implements DataServerFactory {
+
+    @Override
+    public DataServer getDataServer(PartitionServerConfigurator configurator, IfaceWithShutdown handler) {
+      return new NettyDataServer(configurator.getServicePort(),
+          configurator.getNumDataServerSelectorThreads(),
+          configurator.getNumConcurrentQueries(),
+          configurator.getMaxRequestFrameSize(),
+          handler);
+    }
+  }
+}
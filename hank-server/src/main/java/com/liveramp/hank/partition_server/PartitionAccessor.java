@@ -18,6 +18,9 @@ package com.liveramp.hank.partition_server;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger; import org.slf4j.LoggerFactory;
 
@@ -32,6 +35,10 @@ import com.liveramp.hank.util.HankTimer;
  * Wrapper class that stores: 1. HostDomainPartition 2. Reader: The Reader
  * associated with the HostDomainPartition 3. AtomicLongCollection: counters
  * for number of requests and hits in a given time window
+ *
+ * Accessors are reference counted so that they can be swapped while serving:
+ * the Reader is only closed once the accessor has been shut down and all the
+ * requests that acquired it have released it.
  */
 public class PartitionAccessor {
 
@@ -40,6 +47,10 @@ public class PartitionAccessor {
 
   private final HostDomainPartition partition;
   private final Reader reader;
+  private final Integer versionNumber;
+  // One reference is held by the owner of the accessor, and one by each request in progress
+  private final AtomicInteger numReferences = new AtomicInteger(1);
+  private final AtomicBoolean isShutDown = new AtomicBoolean(false);
   private final HankTimer windowTimer = new HankTimer();
   //0: num requests
   //1: num hits
@@ -47,13 +58,21 @@ public class PartitionAccessor {
   //3: num L1 cache hits
   //4: num L2 cache hits
   private final AtomicLongCollection countersWindow;
+  // Number of requests of previous windows
+  private final AtomicLong numRequestsBeforeWindow = new AtomicLong(0);
 
   public PartitionAccessor(HostDomainPartition partition, Reader reader) {
+    this(partition, reader, reader == null ? null : reader.getVersionNumber());
+  }
+
+  // The version number is the version of the partition the Reader was loaded for
+  public PartitionAccessor(HostDomainPartition partition, Reader reader, Integer versionNumber) {
     if (reader == null) {
       throw new IllegalArgumentException("Reader may not be null!");
     }
     this.partition = partition;
     this.reader = reader;
+    this.versionNumber = versionNumber;
     windowTimer.restart();
     countersWindow = new AtomicLongCollection(5, new long[]{0, 0, 0, 0, 0});
   }
@@ -62,6 +81,29 @@ public class PartitionAccessor {
     return partition;
   }
 
+  public Integer getVersionNumber() {
+    return versionNumber;
+  }
+
+  // Return false when the accessor was shut down and its Reader closed. Acquired accessors must be released.
+  public boolean acquire() {
+    while (true) {
+      int current = numReferences.get();
+      if (current <= 0) {
+        return false;
+      }
+      if (numReferences.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  public void release() {
+    if (numReferences.decrementAndGet() == 0) {
+      closeReader();
+    }
+  }
+
   public HankResponse get(ByteBuffer key, ReaderResult result) throws IOException {
     // Increment requests counter
     LOG.trace("Partition GET");
@@ -84,6 +126,7 @@ public class PartitionAccessor {
     // Get atomic counters
     long[] counters = countersWindow.getAsArrayAndSet(0, 0, 0, 0, 0);
     long numRequestsInWindow = counters[0];
+    numRequestsBeforeWindow.addAndGet(numRequestsInWindow);
     long numHitsInWindow = counters[1];
     long responsesNumBytesInWindow = counters[2];
     long numL1CacheHitsInWindow = counters[3];
@@ -104,7 +147,19 @@ public class PartitionAccessor {
         reader.getCacheStatistics());
   }
 
+  // Total number of requests served by this accessor
+  public long getNumRequests() {
+    return numRequestsBeforeWindow.get() + countersWindow.get(0);
+  }
+
+  // Release the owner's reference. The Reader is closed once requests in progress are done with it.
   public void shutDown() {
+    if (isShutDown.compareAndSet(false, true)) {
+      release();
+    }
+  }
+
+  private void closeReader() {
     if (reader != null) {
       try {
         reader.close();
@@ -0,0 +1,196 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.partition_server;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.liveramp.hank.config.PartitionServerConfigurator;
+import com.liveramp.hank.coordinator.Domain;
+import com.liveramp.hank.coordinator.Host;
+import com.liveramp.hank.coordinator.HostDomain;
+import com.liveramp.hank.coordinator.HostDomainPartition;
+import com.liveramp.hank.storage.StorageEngine;
+import com.liveramp.hank.util.FormatUtils;
+import com.liveramp.hank.util.HankTimer;
+
+/**
+ * Reads the files of the partitions served by a host so that they are in the
+ * page cache before the host starts serving them, or before the Readers of
+ * updated partitions are swapped in while serving. The most requested
+ * partitions (according to the number of requests they served before) are
+ * read first, and within a partition Cueball files (which index the other
+ * files) are read first. Reading stops once the given number of bytes has
+ * been read or the given duration has elapsed.
+ */
+public class PartitionPrewarmer {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PartitionPrewarmer.class);
+
+  private static final int BUFFER_SIZE = 1 << 20;
+  private static final String CUEBALL_FILE_SUFFIX = ".cueball";
+
+  private final PartitionServerConfigurator configurator;
+  private final Host host;
+  private final long maxNumBytes;
+  private final long maxDurationMs;
+
+  public PartitionPrewarmer(PartitionServerConfigurator configurator,
+                            Host host,
+                            long maxNumBytes,
+                            long maxDurationMs) {
+    this.configurator = configurator;
+    this.host = host;
+    this.maxNumBytes = maxNumBytes;
+    this.maxDurationMs = maxDurationMs;
+  }
+
+  public static class PartitionToPrewarm {
+
+    private final Domain domain;
+    private final int partitionNumber;
+    private final int versionNumber;
+    private final long numRequests;
+
+    public PartitionToPrewarm(Domain domain, int partitionNumber, int versionNumber, long numRequests) {
+      this.domain = domain;
+      this.partitionNumber = partitionNumber;
+      this.versionNumber = versionNumber;
+      this.numRequests = numRequests;
+    }
+  }
+
+  /**
+   * @param partitionNumRequests number of requests served by each partition by domain name and partition
+   *                             number, or null when unknown
+   * @return number of bytes read
+   */
+  public long prewarm(Map<String, Map<Integer, Long>> partitionNumRequests) throws IOException {
+    if (maxNumBytes <= 0) {
+      return 0;
+    }
+    return prewarm(getPartitionsToPrewarm(partitionNumRequests));
+  }
+
+  /**
+   * Prewarm the given partitions, most requested first.
+   *
+   * @return number of bytes read
+   */
+  public long prewarm(List<PartitionToPrewarm> partitions) throws IOException {
+    if (maxNumBytes <= 0 || partitions.isEmpty()) {
+      return 0;
+    }
+    HankTimer timer = new HankTimer();
+    partitions = new ArrayList<PartitionToPrewarm>(partitions);
+    Collections.sort(partitions, new MostRequestedFirstComparator());
+    LOG.info("Prewarming up to " + FormatUtils.formatNumBytes(maxNumBytes) + " of " + partitions.size()
+        + " partitions in " + FormatUtils.formatSecondsDuration(maxDurationMs / 1000));
+    byte[] buffer = new byte[BUFFER_SIZE];
+    long numBytes = 0;
+    int numPartitions = 0;
+    for (PartitionToPrewarm partition : partitions) {
+      if (numBytes >= maxNumBytes || timer.getDurationMs() >= maxDurationMs) {
+        break;
+      }
+      StorageEngine storageEngine = partition.domain.getStorageEngine();
+      List<String> files = new ArrayList<String>(
+          storageEngine.getFiles(configurator, partition.versionNumber, partition.partitionNumber));
+      Collections.sort(files, new CueballFilesFirstComparator());
+      for (String file : files) {
+        numBytes += read(file, buffer, maxNumBytes - numBytes, timer);
+        if (numBytes >= maxNumBytes || timer.getDurationMs() >= maxDurationMs) {
+          break;
+        }
+      }
+      ++numPartitions;
+    }
+    LOG.info("Prewarmed " + FormatUtils.formatNumBytes(numBytes) + " of " + numPartitions + " partitions in "
+        + timer.getDurationMs() + " ms");
+    return numBytes;
+  }
+
+  private List<PartitionToPrewarm> getPartitionsToPrewarm(Map<String, Map<Integer, Long>> partitionNumRequests) throws IOException {
+    List<PartitionToPrewarm> result = new ArrayList<PartitionToPrewarm>();
+    for (HostDomain hostDomain : host.getAssignedDomains()) {
+      Domain domain = hostDomain.getDomain();
+      Map<Integer, Long> domainPartitionNumRequests = partitionNumRequests == null ? null : partitionNumRequests.get(domain.getName());
+      for (HostDomainPartition partition : hostDomain.getPartitions()) {
+        Integer versionNumber = partition.getCurrentDomainVersion();
+        if (versionNumber != null && !partition.isDeletable()) {
+          Long numRequests = domainPartitionNumRequests == null ? null : domainPartitionNumRequests.get(partition.getPartitionNumber());
+          result.add(new PartitionToPrewarm(domain, partition.getPartitionNumber(), versionNumber,
+              numRequests == null ? 0 : numRequests));
+        }
+      }
+    }
+    return result;
+  }
+
+  // Read the given file, up to the given number of bytes, and return the number of bytes read
+  protected long read(String file, byte[] buffer, long maxNumBytes, HankTimer timer) throws IOException {
+    if (!new File(file).isFile()) {
+      return 0;
+    }
+    long numBytes = 0;
+    FileInputStream inputStream = new FileInputStream(file);
+    try {
+      while (numBytes < maxNumBytes && timer.getDurationMs() < maxDurationMs) {
+        int numBytesRead = inputStream.read(buffer, 0, (int)Math.min(buffer.length, maxNumBytes - numBytes));
+        if (numBytesRead < 0) {
+          break;
+        }
+        numBytes += numBytesRead;
+      }
+    } finally {
+      inputStream.close();
+    }
+    return numBytes;
+  }
+
+  private static class MostRequestedFirstComparator implements Comparator<PartitionToPrewarm> {
+
+    @Override
+    public int compare(PartitionToPrewarm a, PartitionToPrewarm b) {
+      if (a.numRequests != b.numRequests) {
+        return a.numRequests > b.numRequests ? -1 : 1;
+      }
+      return a.partitionNumber < b.partitionNumber ? -1 : (a.partitionNumber == b.partitionNumber ? 0 : 1);
+    }
+  }
+
+  private static class CueballFilesFirstComparator implements Comparator<String> {
+
+    @Override
+    public int compare(String a, String b) {
+      boolean aIsCueball = a.endsWith(CUEBALL_FILE_SUFFIX);
+      boolean bIsCueball = b.endsWith(CUEBALL_FILE_SUFFIX);
+      if (aIsCueball != bIsCueball) {
+        return aIsCueball ? -1 : 1;
+      }
+      return a.compareTo(b);
+    }
+  }
+}
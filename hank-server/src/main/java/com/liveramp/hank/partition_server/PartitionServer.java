@@ -17,11 +17,10 @@ package com.liveramp.hank.partition_server;
 
 import java.io.File;
 import java.io.IOException;
-import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
-import java.nio.channels.Selector;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -33,9 +32,7 @@ import org.apache.log4j.PropertyConfigurator;
 import org.apache.thrift.TException;
 import org.apache.thrift.protocol.TCompactProtocol;
 import org.apache.thrift.protocol.TProtocol;
-import org.apache.thrift.server.TThreadedSelectorServer;
 import org.apache.thrift.transport.TFramedTransport;
-import org.apache.thrift.transport.TNonblockingServerSocket;
 import org.apache.thrift.transport.TSocket;
 import org.apache.thrift.transport.TTransportException;
 
@@ -43,15 +40,22 @@ import com.liveramp.hank.config.InvalidConfigurationException;
 import com.liveramp.hank.config.PartitionServerConfigurator;
 import com.liveramp.hank.config.yaml.YamlPartitionServerConfigurator;
 import com.liveramp.hank.coordinator.Coordinator;
+import com.liveramp.hank.coordinator.Domain;
+import com.liveramp.hank.coordinator.DomainVersion;
 import com.liveramp.hank.coordinator.Host;
 import com.liveramp.hank.coordinator.HostCommand;
 import com.liveramp.hank.coordinator.HostCommandQueueChangeListener;
+import com.liveramp.hank.coordinator.HostDomain;
+import com.liveramp.hank.coordinator.HostDomainPartition;
 import com.liveramp.hank.coordinator.HostState;
 import com.liveramp.hank.coordinator.Hosts;
 import com.liveramp.hank.coordinator.PartitionServerAddress;
 import com.liveramp.hank.coordinator.Ring;
 import com.liveramp.hank.coordinator.RingGroup;
+import com.liveramp.hank.storage.BandwidthGovernor;
+import com.liveramp.hank.storage.LocalCompaction;
 import com.liveramp.hank.util.CommandLineChecker;
+import com.liveramp.hank.util.FormatUtils;
 import com.liveramp.hank.util.HankTimer;
 import com.liveramp.hank.util.UpdateStatisticsRunnable;
 import com.liveramp.hank.zookeeper.WatchedNodeListener;
@@ -63,6 +67,7 @@ public class PartitionServer implements HostCommandQueueChangeListener, WatchedN
   private static final Logger LOG = LoggerFactory.getLogger(PartitionServer.class);
   private static final long MAIN_THREAD_STEP_SLEEP_MS = 1000;
   private static final int UPDATE_FILESYSTEM_STATISTICS_THREAD_SLEEP_TIME_MS_DEFAULT = 2 * 60 * 1000;
+  private static final long LOCAL_COMPACTION_CHECK_PERIOD_MS = 60 * 1000;
 
   private static final int NUM_WARMUP_QUERIES_PER_THREAD = 100;
 
@@ -79,7 +84,11 @@ public class PartitionServer implements HostCommandQueueChangeListener, WatchedN
   private Thread updateThread;
   private Thread offlineWatcherThread;
 
-  private TThreadedSelectorServer dataServer;
+  private DataServer dataServer;
+  // Handler of the running data server, if any
+  private volatile IfaceWithShutdown handler;
+  // Number of requests served by each partition by the previous data server, used to prewarm the most requested first
+  private volatile Map<String, Map<Integer, Long>> previousPartitionNumRequests;
   private Thread dataServerThread;
   private boolean waitForDataServer;
 
@@ -88,6 +97,10 @@ public class PartitionServer implements HostCommandQueueChangeListener, WatchedN
   private Thread shutdownHook;
   private UpdateFilesystemStatisticsRunnable updateFilesystemStatisticsRunnable;
   private Thread updateFilesystemStatisticsThread;
+  private PartitionTransferServer partitionTransferServer;
+  private Thread partitionTransferServerThread;
+  private LocalCompactionRunnable localCompactionRunnable;
+  private Thread localCompactionThread;
 
   public PartitionServer(PartitionServerConfigurator configurator, String hostName) throws IOException {
     this.configurator = configurator;
@@ -114,6 +127,9 @@ public class PartitionServer implements HostCommandQueueChangeListener, WatchedN
     }
     host.setCommandQueueChangeListener(this);
     host.setCurrentCommandChangeListener(this);
+    // Bandwidth limits apply to updates, peer transfers and local compactions, and are adjusted as soon as they change
+    host.setBandwidthLimitsChangeListener(new BandwidthLimitsChangeListener());
+    BandwidthGovernor.setLimits(host.getBandwidthLimits());
 
     // Start the update filesystem statistics thread
     updateFilesystemStatisticsRunnable = new UpdateFilesystemStatisticsRunnable();
@@ -127,6 +143,10 @@ public class PartitionServer implements HostCommandQueueChangeListener, WatchedN
     addShutdownHook();
     // Initialize and process commands
     setStateSynchronized(HostState.IDLE); // In case of exception, server will stop and state will be coherent.
+    Hosts.setUpdateWhileServing(host, configurator.getUpdateWhileServing());
+    startPartitionTransferServer();
+    resetInterruptedLocalCompactions();
+    startLocalCompactions();
     // Wait for state to propagate
 
     addServerOfflineWatcher();
@@ -154,10 +174,14 @@ public class PartitionServer implements HostCommandQueueChangeListener, WatchedN
     }
     // Shuting down
     LOG.info("Partition server main thread is stopping.");
+    // Let the running local compaction finish
+    stopLocalCompactions();
     // Stop serving data
     stopServingData();
     // Stop updating if necessary
     stopUpdating();
+    // Stop serving partitions to peers
+    stopPartitionTransferServer();
     // Signal OFFLINE
     setStateSynchronized(HostState.OFFLINE); // In case of exception, server will stop and state will be coherent.
     // Remove shutdown hook. We don't need it anymore as we just set the host state to OFFLINE
@@ -348,9 +372,18 @@ public class PartitionServer implements HostCommandQueueChangeListener, WatchedN
     switch (state) {
       case IDLE:
         host.setState(HostState.UPDATING); // In case of exception, server will stop and state will be coherent.
-        executeUpdate();
+        executeUpdate(false);
         // Next command is set by the updater thread
         break;
+      case SERVING:
+        if (configurator.getUpdateWhileServing()) {
+          // Keep serving current versions while updating. The host does not count as fully serving meanwhile.
+          Hosts.setUpdatingWhileServing(host, true); // In case of exception, server will stop and state will be coherent.
+          executeUpdate(true);
+          // Next command is set by the updater thread
+          break;
+        }
+        // Otherwise, the command is incompatible with the state
       default:
         LOG.info(ignoreIncompatibleCommandMessage(HostCommand.EXECUTE_UPDATE, state));
         host.nextCommand(); // In case of exception, server will stop and state will be coherent.
@@ -360,7 +393,13 @@ public class PartitionServer implements HostCommandQueueChangeListener, WatchedN
   private void processServeData(HostState state) throws IOException {
     switch (state) {
       case IDLE:
-        serveData();
+        // Readers must not be loaded while local files are being compacted
+        pauseLocalCompactions();
+        try {
+          serveData();
+        } finally {
+          resumeLocalCompactions();
+        }
         host.setState(HostState.SERVING);  // In case of exception, server will stop and state will be coherent.
         host.nextCommand(); // In case of exception, server will stop and state will be coherent.
         break;
@@ -370,7 +409,7 @@ public class PartitionServer implements HostCommandQueueChangeListener, WatchedN
     }
   }
 
-  private void executeUpdate() {
+  private void executeUpdate(final boolean whileServing) {
     if (updateThread != null) {
       LOG.error("Update got called while one is already running!");
       return;
@@ -378,6 +417,8 @@ public class PartitionServer implements HostCommandQueueChangeListener, WatchedN
     Runnable updateRunnable = new Runnable() {
       @Override
       public void run() {
+        // Local files must not be compacted while they are being updated
+        pauseLocalCompactions();
         try {
           IUpdateManager updateManager = getUpdateManager();
           updateManager.update();
@@ -385,11 +426,25 @@ public class PartitionServer implements HostCommandQueueChangeListener, WatchedN
         } catch (Throwable e) {
           LOG.error("Update failed. Updater encountered a fatal error:", e);
         }
-        // Go back to IDLE even in case of failure
-        try {
-          setStateSynchronized(HostState.IDLE); // In case of exception, server will stop and state will be coherent.
-        } catch (IOException e) {
-          LOG.error("Failed to record state change.", e);
+        if (whileServing) {
+          // Swap in Readers of updated partitions even in case of failure, others keep serving their previous version
+          try {
+            reloadServingData();
+          } catch (Throwable e) {
+            LOG.error("Failed to swap Readers of updated partitions.", e);
+          }
+          try {
+            Hosts.setUpdatingWhileServing(host, false);
+          } catch (IOException e) {
+            LOG.error("Failed to record end of update.", e);
+          }
+        } else {
+          // Go back to IDLE even in case of failure
+          try {
+            setStateSynchronized(HostState.IDLE); // In case of exception, server will stop and state will be coherent.
+          } catch (IOException e) {
+            LOG.error("Failed to record state change.", e);
+          }
         }
         // Move on to next command
         try {
@@ -397,6 +452,7 @@ public class PartitionServer implements HostCommandQueueChangeListener, WatchedN
         } catch (IOException e) {
           LOG.error("Failed to move on to next command.", e);
         }
+        resumeLocalCompactions();
         // Signal that update thread is done.
         updateThread = null;
       }
@@ -405,6 +461,102 @@ public class PartitionServer implements HostCommandQueueChangeListener, WatchedN
     updateThread.start();
   }
 
+  private void startPartitionTransferServer() throws IOException {
+    int peerTransferPort = configurator.getPeerTransferPort();
+    if (peerTransferPort <= 0) {
+      return;
+    }
+    partitionTransferServer = new PartitionTransferServer(configurator, coordinator, host,
+        peerTransferPort, configurator.getMaxConcurrentPeerTransfers());
+    partitionTransferServerThread = new Thread(partitionTransferServer, "Partition Transfer Server");
+    partitionTransferServerThread.setDaemon(true);
+    partitionTransferServerThread.start();
+    Hosts.setPeerTransferPort(host, partitionTransferServer.getPort());
+  }
+
+  private void stopPartitionTransferServer() throws InterruptedException {
+    if (partitionTransferServer == null) {
+      return;
+    }
+    LOG.info("Stopping partition transfer server.");
+    try {
+      Hosts.deletePeerTransferPort(host);
+    } catch (IOException e) {
+      LOG.error("Failed to delete peer transfer port statistic.", e);
+    }
+    partitionTransferServer.stop();
+    partitionTransferServerThread.join();
+    partitionTransferServer = null;
+    partitionTransferServerThread = null;
+  }
+
+  // The local files of partitions whose local compaction was interrupted may be inconsistent. Unset their
+  // current version so that they are not served, and are updated again.
+  private void resetInterruptedLocalCompactions() throws IOException {
+    for (HostDomain hostDomain : host.getAssignedDomains()) {
+      Domain domain = hostDomain.getDomain();
+      if (!(domain.getStorageEngine() instanceof LocalCompaction)) {
+        continue;
+      }
+      LocalCompaction localCompaction = (LocalCompaction)domain.getStorageEngine();
+      for (HostDomainPartition partition : hostDomain.getPartitions()) {
+        if (partition.getCurrentDomainVersion() != null
+            && localCompaction.isLocalCompactionInProgress(configurator, partition.getPartitionNumber())) {
+          LOG.info(String.format("Local compaction of domain %s partition %d was interrupted. It will be updated again.",
+              domain.getName(), partition.getPartitionNumber()));
+          partition.setCurrentDomainVersion(null);
+        }
+      }
+    }
+  }
+
+  private void startLocalCompactions() {
+    if (!configurator.getLocalCompaction()) {
+      return;
+    }
+    localCompactionRunnable = new LocalCompactionRunnable(configurator.getLocalCompactionMaxQps());
+    localCompactionThread = new Thread(localCompactionRunnable, "Local compaction thread");
+    localCompactionThread.setDaemon(true);
+    localCompactionThread.start();
+  }
+
+  protected long getLocalCompactionCheckPeriodMs() {
+    return LOCAL_COMPACTION_CHECK_PERIOD_MS;
+  }
+
+  private void stopLocalCompactions() throws InterruptedException {
+    if (localCompactionRunnable == null) {
+      return;
+    }
+    LOG.info("Stopping local compactions.");
+    localCompactionRunnable.pause();
+    localCompactionRunnable.cancel();
+    localCompactionThread.interrupt();
+    localCompactionThread.join();
+    localCompactionRunnable = null;
+    localCompactionThread = null;
+  }
+
+  // Wait for the running local compaction, if any, and do not start new ones until resumed
+  private void pauseLocalCompactions() {
+    LocalCompactionRunnable runnable = localCompactionRunnable;
+    if (runnable != null) {
+      try {
+        runnable.pause();
+      } catch (InterruptedException e) {
+        LOG.error("Interrupted while waiting for local compaction to finish.", e);
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void resumeLocalCompactions() {
+    LocalCompactionRunnable runnable = localCompactionRunnable;
+    if (runnable != null) {
+      runnable.resume();
+    }
+  }
+
   private void stopUpdating() throws InterruptedException {
     if (updateThread != null) {
       LOG.info("Update thread is still running. Interrupting and waiting for it to finish...");
@@ -418,25 +570,15 @@ public class PartitionServer implements HostCommandQueueChangeListener, WatchedN
     try {
       // Set up the service handler
       handler = getHandler();
-      // Launch the thrift server
-      TNonblockingServerSocket serverSocket = new TNonblockingServerSocket(configurator.getServicePort());
-      TThreadedSelectorServer.Args options = new TThreadedSelectorServer.Args(serverSocket);
-      options.processor(new com.liveramp.hank.generated.PartitionServer.Processor(handler));
-      options.workerThreads(configurator.getNumConcurrentQueries());
-      options.selectorThreads(4);
-      options.protocolFactory(new TCompactProtocol.Factory());
-      dataServer = new TThreadedSelectorServer(options);
-      LOG.info("Launching Thrift server.");
+      this.handler = handler;
+      // Launch the data server
+      dataServer = configurator.getDataServerFactory().getDataServer(configurator, handler);
       dataServer.serve();
-      LOG.info("Thrift server exited.");
-      // The Thrift server does not clean up selectors after stopping, which leads to a file descriptor leak.
-      // See https://issues.apache.org/jira/browse/THRIFT-2274
-      // TODO: when the bug is fixed in Thrift, remove this ugly hack which takes care of the issue
-      List<Selector> selectors = getServerSelectors(dataServer);
-      closeServerSelectors(selectors);
-      // Close the socket
-      serverSocket.close();
     } finally {
+      this.handler = null;
+      if (handler instanceof PartitionServerHandler) {
+        previousPartitionNumRequests = ((PartitionServerHandler)handler).getPartitionNumRequests();
+      }
       // Always shut down the handler
       if (handler != null) {
         LOG.debug("Shutting down Partition Server handler.");
@@ -445,6 +587,18 @@ public class PartitionServer implements HostCommandQueueChangeListener, WatchedN
     }
   }
 
+  // Swap the Readers of the data server's handler for Readers of the partitions that were updated
+  protected void reloadServingData() throws IOException {
+    IfaceWithShutdown handler = this.handler;
+    if (handler == null) {
+      LOG.info("Data server stopped while updating. Updated partitions will be loaded when serving data again.");
+    } else if (handler instanceof PartitionServerHandler) {
+      ((PartitionServerHandler)handler).reloadPartitionAccessors();
+    } else {
+      LOG.info("Data server handler does not support swapping Readers. Updated partitions will be served after a restart.");
+    }
+  }
+
   private void serveData() throws IOException {
     waitForDataServer = true;
     if (dataServer != null) {
@@ -484,6 +638,7 @@ public class PartitionServer implements HostCommandQueueChangeListener, WatchedN
     if (dataServer == null || !dataServer.isServing()) {
       throw new IOException("Failed to start data server");
     } else {
+      prewarm();
       warmUp();
       LOG.info("Data server online and serving.");
     }
@@ -545,6 +700,17 @@ public class PartitionServer implements HostCommandQueueChangeListener, WatchedN
     */
   }
 
+  // Read the files of the served partitions into the page cache, within the configured budget
+  private void prewarm() {
+    try {
+      new PartitionPrewarmer(configurator, host,
+          configurator.getPrewarmMaxNumBytes(),
+          configurator.getPrewarmMaxDurationMs()).prewarm(previousPartitionNumRequests);
+    } catch (IOException e) {
+      LOG.error("Failed to prewarm partitions. Continuing.", e);
+    }
+  }
+
   private void warmUp() throws IOException {
     LOG.info("Warming up data server...");
     List<Thread> threads = new ArrayList<Thread>();
@@ -567,6 +733,166 @@ public class PartitionServer implements HostCommandQueueChangeListener, WatchedN
     LOG.info("Warming up data server took " + warmupDurationMs + " ms");
   }
 
+  private class BandwidthLimitsChangeListener implements WatchedNodeListener<Map<String, Long>> {
+
+    @Override
+    public void onWatchedNodeChange(Map<String, Long> bandwidthLimits) {
+      LOG.info("Bandwidth limits of host " + host.getAddress() + " changed to " + bandwidthLimits);
+      BandwidthGovernor.setLimits(bandwidthLimits);
+    }
+  }
+
+  /**
+   * This thread compacts the local files of partitions, one partition at a time, while the host is idle:
+   * not updating, and serving few requests. The previous files keep being served until the partition's
+   * Reader is swapped for one reading the compacted files. I/O is limited by the host's disk bandwidth limits.
+   */
+  private class LocalCompactionRunnable implements Runnable {
+
+    private final int maxQps;
+    private final Object lock = new Object();
+    private boolean paused = false;
+    private boolean compacting = false;
+    private volatile boolean cancelled = false;
+    private long previousNumRequests = 0;
+    private final HankTimer periodTimer = new HankTimer();
+    // Partitions that were compacted or did not need to be, by domain name, partition number and version number
+    private final Set<String> compactedPartitions = new HashSet<String>();
+
+    public LocalCompactionRunnable(int maxQps) {
+      this.maxQps = maxQps;
+    }
+
+    public void pause() throws InterruptedException {
+      synchronized (lock) {
+        paused = true;
+        while (compacting) {
+          lock.wait();
+        }
+      }
+    }
+
+    public void resume() {
+      synchronized (lock) {
+        paused = false;
+      }
+    }
+
+    public void cancel() {
+      cancelled = true;
+    }
+
+    @Override
+    public void run() {
+      while (!cancelled) {
+        try {
+          Thread.sleep(getLocalCompactionCheckPeriodMs());
+        } catch (InterruptedException e) {
+          break;
+        }
+        try {
+          while (!cancelled && isIdle() && compactNextPartition()) {
+            // Keep compacting while idle
+          }
+        } catch (IOException e) {
+          LOG.error("Failed to compact local partition files.", e);
+        }
+      }
+    }
+
+    private boolean isIdle() throws IOException {
+      long numRequests = 0;
+      IfaceWithShutdown currentHandler = handler;
+      if (currentHandler instanceof PartitionServerHandler) {
+        for (Map<Integer, Long> partitionNumRequests : ((PartitionServerHandler)currentHandler).getPartitionNumRequests().values()) {
+          for (Long partitionNumRequest : partitionNumRequests.values()) {
+            numRequests += partitionNumRequest;
+          }
+        }
+      }
+      long numRequestsInPeriod = numRequests - previousNumRequests;
+      long periodDurationMs = periodTimer.getDurationMs();
+      previousNumRequests = numRequests;
+      periodTimer.restart();
+      HostState state = host.getState();
+      if (updateThread != null || (state != HostState.IDLE && state != HostState.SERVING)) {
+        return false;
+      }
+      // Request counts start over with each data server
+      if (numRequestsInPeriod < 0) {
+        return false;
+      }
+      return numRequestsInPeriod * 1000 <= (long)maxQps * periodDurationMs;
+    }
+
+    // Return false when there was no partition to compact
+    private boolean compactNextPartition() throws IOException {
+      for (HostDomain hostDomain : host.getAssignedDomains()) {
+        Domain domain = hostDomain.getDomain();
+        if (!(domain.getStorageEngine() instanceof LocalCompaction)) {
+          continue;
+        }
+        LocalCompaction localCompaction = (LocalCompaction)domain.getStorageEngine();
+        for (HostDomainPartition partition : hostDomain.getPartitions()) {
+          Integer versionNumber = partition.getCurrentDomainVersion();
+          if (versionNumber == null || partition.isDeletable()) {
+            continue;
+          }
+          String key = domain.getName() + "/" + partition.getPartitionNumber() + "/" + versionNumber;
+          if (compactedPartitions.contains(key)) {
+            continue;
+          }
+          compactedPartitions.add(key);
+          DomainVersion version = domain.getVersion(versionNumber);
+          if (version == null || !localCompaction.needsLocalCompaction(configurator, partition.getPartitionNumber(), version)) {
+            continue;
+          }
+          synchronized (lock) {
+            if (paused) {
+              return false;
+            }
+            compacting = true;
+          }
+          try {
+            compact(domain, localCompaction, partition, version);
+          } finally {
+            synchronized (lock) {
+              compacting = false;
+              lock.notifyAll();
+            }
+          }
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private void compact(Domain domain,
+                         LocalCompaction localCompaction,
+                         HostDomainPartition partition,
+                         DomainVersion version) throws IOException {
+      LOG.info(String.format("Compacting local files of domain %s partition %d at version %d.",
+          domain.getName(), partition.getPartitionNumber(), version.getVersionNumber()));
+      HankTimer timer = new HankTimer();
+      try {
+        localCompaction.compactLocally(configurator, partition.getPartitionNumber(), version);
+      } catch (IOException e) {
+        // Local files that were left inconsistent are discarded by the next update
+        if (localCompaction.isLocalCompactionInProgress(configurator, partition.getPartitionNumber())) {
+          partition.setCurrentDomainVersion(null);
+        }
+        throw e;
+      }
+      IfaceWithShutdown currentHandler = handler;
+      if (currentHandler instanceof PartitionServerHandler) {
+        ((PartitionServerHandler)currentHandler).reloadPartitionAccessor(domain, partition.getPartitionNumber());
+      }
+      LOG.info(String.format("Compacted local files of domain %s partition %d at version %d in %s.",
+          domain.getName(), partition.getPartitionNumber(), version.getVersionNumber(),
+          FormatUtils.formatSecondsDuration(timer.getDurationMs() / 1000)));
+    }
+  }
+
   /**
    * This thread periodically updates statistics of the Host
    */
@@ -617,45 +943,6 @@ public class PartitionServer implements HostCommandQueueChangeListener, WatchedN
     }
   }
 
-  static List<Selector> getServerSelectors(TThreadedSelectorServer server) {
-    List<Selector> result = new ArrayList<Selector>();
-    try {
-      // Get accept thread selector
-      Field acceptThreadField = server.getClass().getDeclaredField("acceptThread");
-      acceptThreadField.setAccessible(true);
-      Thread acceptThread = (Thread)acceptThreadField.get(server);
-      Field acceptSelectorField = acceptThread.getClass().getDeclaredField("acceptSelector");
-      acceptSelectorField.setAccessible(true);
-      Selector acceptSelector = (Selector)acceptSelectorField.get(acceptThread);
-      result.add(acceptSelector);
-      // Get the other selectors
-      Field selectorThreadField = server.getClass().getDeclaredField("selectorThreads");
-      selectorThreadField.setAccessible(true);
-      Set selectorThreads = (Set)selectorThreadField.get(server);
-      for (Object selectorThread : selectorThreads) {
-        Field selectorThreadSelectorField = selectorThread.getClass().getSuperclass().getDeclaredField("selector");
-        selectorThreadSelectorField.setAccessible(true);
-        Selector selector = (Selector)selectorThreadSelectorField.get(selectorThread);
-        result.add(selector);
-      }
-    } catch (NoSuchFieldException e) {
-      throw new RuntimeException(e);
-    } catch (IllegalAccessException e) {
-      throw new RuntimeException(e);
-    }
-    return result;
-  }
-
-  static void closeServerSelectors(List<Selector> selectors) {
-    for (Selector selector : selectors) {
-      try {
-        selector.close();
-      } catch (IOException e) {
-        throw new RuntimeException(e);
-      }
-    }
-  }
-
   public static void main(String[] args) throws IOException, InvalidConfigurationException, InterruptedException {
     CommandLineChecker.check(args, new String[]{"configuration_file_path", "log4j_properties_file_path"},
         PartitionServer.class);
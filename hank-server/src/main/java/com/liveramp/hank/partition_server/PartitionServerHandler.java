@@ -18,22 +18,33 @@ package com.liveramp.hank.partition_server;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.liveramp.commons.util.BytesUtils;
 import com.liveramp.hank.config.PartitionServerConfigurator;
+import com.liveramp.hank.config.QueryClassConfiguration;
 import com.liveramp.hank.coordinator.Coordinator;
 import com.liveramp.hank.coordinator.Domain;
 import com.liveramp.hank.coordinator.DomainAndVersion;
@@ -44,12 +55,16 @@ import com.liveramp.hank.coordinator.HostDomainPartition;
 import com.liveramp.hank.coordinator.Hosts;
 import com.liveramp.hank.coordinator.PartitionServerAddress;
 import com.liveramp.hank.coordinator.Ring;
+import com.liveramp.hank.coordinator.RingGroup;
+import com.liveramp.hank.generated.DomainKey;
+import com.liveramp.hank.generated.HankBulkChunk;
 import com.liveramp.hank.generated.HankBulkResponse;
 import com.liveramp.hank.generated.HankException;
 import com.liveramp.hank.generated.HankResponse;
 import com.liveramp.hank.storage.Reader;
 import com.liveramp.hank.storage.ReaderResult;
-import com.liveramp.hank.storage.StorageEngine;
+import com.liveramp.hank.util.FormatUtils;
+import com.liveramp.hank.util.HankTimer;
 import com.liveramp.hank.util.UpdateStatisticsRunnable;
 
 /**
@@ -60,40 +75,74 @@ public class PartitionServerHandler implements IfaceWithShutdown {
   private final static Logger LOG = LoggerFactory.getLogger(PartitionServerHandler.class);
 
   private final Host host;
+  private final RingGroup ringGroup;
+  private final PartitionServerConfigurator configurator;
   private static final HankResponse NO_SUCH_DOMAIN = HankResponse.xception(HankException.no_such_domain(true));
+  private static final HankResponse OVERLOADED = HankResponse.xception(HankException.overloaded(true));
   private static final HankBulkResponse NO_SUCH_DOMAIN_BULK = HankBulkResponse.xception(HankException.no_such_domain(true));
+  private static final HankBulkResponse OVERLOADED_BULK = HankBulkResponse.xception(HankException.overloaded(true));
+  private static final HankBulkResponse DEADLINE_EXCEEDED_BULK = HankBulkResponse.xception(HankException.deadline_exceeded(true));
   private final int getBulkTaskSize;
+  private final int maxQueuedGetBulkTasks;
   private final int bufferReuseMaxSize;
   private static final long GET_BULK_TASK_EXECUTOR_KEEP_ALIVE_VALUE = 1;
   private static final TimeUnit GET_BULK_TASK_EXECUTOR_KEEP_ALIVE_UNIT = TimeUnit.DAYS;
 
   private static final ReaderResultThreadLocal readerResultThreadLocal = new ReaderResultThreadLocal();
-  private final DomainAccessor[] domainAccessors;
+  // Replaced as a whole when domains are added or removed while serving
+  private volatile DomainAccessor[] domainAccessors;
+  private final WeightedFairQueue getBulkTaskQueue;
   private final ThreadPoolExecutor getBulkTaskExecutor;
   private static final long GET_BULK_TASK_EXECUTOR_AWAIT_TERMINATION_VALUE = 1;
   private static final TimeUnit GET_BULK_TASK_EXECUTOR_AWAIT_TERMINATION_UNIT = TimeUnit.SECONDS;
   private static final double USED_SIZE_THRESHOLD_FOR_VALUE_BUFFER_DEEP_COPY = 0.75;
 
+  // Maximum number of GET BULK tasks of a stream that can be executing or waiting to be sent.
+  // This bounds the memory used by a stream regardless of the number of keys.
+  private static final int GET_BULK_STREAM_MAX_PENDING_TASKS = 4;
+  // Streams that have not been polled for this long are considered abandoned
+  private static final long GET_BULK_STREAM_EXPIRATION_MS = 60 * 1000;
+  private static final long GET_BULK_STREAM_REAPER_PERIOD_MS = 10 * 1000;
+  private static final HankBulkChunk NO_SUCH_DOMAIN_BULK_CHUNK = new HankBulkChunk().set_xception(HankException.no_such_domain(true));
+  private static final HankBulkChunk OVERLOADED_BULK_CHUNK = new HankBulkChunk().set_xception(HankException.overloaded(true));
+  private final ConcurrentMap<Long, GetBulkStream> getBulkStreams = new ConcurrentHashMap<Long, GetBulkStream>();
+  private final AtomicLong nextGetBulkStreamId = new AtomicLong(0);
+  private final ScheduledExecutorService getBulkStreamReaperExecutor;
+
+  // Number of GET BULK requests that were shed, or that were dropped because their deadline had passed
+  private final AtomicLong numOverloadedGetBulkRequests = new AtomicLong(0);
+  private final AtomicLong numDeadlineExceededGetBulkRequests = new AtomicLong(0);
+
+  // Query classes, and the query class of each domain (indexed by domain id)
+  private final List<QueryClass> queryClasses = new ArrayList<QueryClass>();
+  private final QueryClass defaultQueryClass;
+  private final Map<String, QueryClass> domainNameToQueryClass = new HashMap<String, QueryClass>();
+  private volatile QueryClass[] domainQueryClasses;
+
   private final UpdateStatisticsRunnable updateRuntimeStatisticsRunnable;
   private final Thread updateRuntimeStatisticsThread;
   private static final int UPDATE_RUNTIME_STATISTICS_THREAD_SLEEP_TIME_MS_DEFAULT = 30000;
+  private static final long READER_LOADING_PROGRESS_INTERVAL_MS = 5000;
 
   // The coordinator is supplied and not created from the configurator to allow caching
   public PartitionServerHandler(PartitionServerAddress address,
                                 PartitionServerConfigurator configurator,
                                 Coordinator coordinator) throws IOException {
 
-    // Create the GET executor
+    // Create the GET executor. Tasks of the different query classes are scheduled by weighted fair queuing.
+    getBulkTaskQueue = new WeightedFairQueue();
     getBulkTaskExecutor = new ThreadPoolExecutor(
         configurator.getNumConcurrentGetBulkTasks(),
         configurator.getNumConcurrentGetBulkTasks(),
         GET_BULK_TASK_EXECUTOR_KEEP_ALIVE_VALUE,
         GET_BULK_TASK_EXECUTOR_KEEP_ALIVE_UNIT,
-        new LinkedBlockingQueue<Runnable>(),
+        getBulkTaskQueue,
         new GetBulkThreadFactory());
 
     getBulkTaskSize = configurator.getGetBulkTaskSize();
+    maxQueuedGetBulkTasks = configurator.getMaxQueuedGetBulkTasks();
     bufferReuseMaxSize = configurator.getBufferReuseMaxSize();
+    this.configurator = configurator;
 
     // Prestart core threads
     getBulkTaskExecutor.prestartAllCoreThreads();
@@ -103,12 +152,10 @@ public class PartitionServerHandler implements IfaceWithShutdown {
     if (ring == null) {
       throw new IOException(String.format("Could not get Ring of PartitionServerAddress %s", address));
     }
+    ringGroup = ring.getRingGroup();
 
     // Get the domain group for the ring
-    DomainGroup domainGroup = ring.getRingGroup().getDomainGroup();
-    if (domainGroup == null) {
-      throw new IOException(String.format("Could not get DomainGroup of Ring %s", ring));
-    }
+    DomainGroup domainGroup = getDomainGroup();
 
     // Get the corresponding Host
     host = ring.getHostByAddress(address);
@@ -117,6 +164,223 @@ public class PartitionServerHandler implements IfaceWithShutdown {
     }
 
     // Compute the total number of partitions that are going to be loaded
+    int numTotalPartitions = getNumLoadablePartitions(domainGroup);
+    LOG.info("Detected " + numTotalPartitions + " loadable partitions for " + host);
+
+    // Determine the max domain id so we can bound the arrays
+    int maxDomainId = getMaxDomainId(domainGroup);
+    DomainAccessor[] newDomainAccessors = new DomainAccessor[maxDomainId + 1];
+
+    // Set up query classes
+    defaultQueryClass = new QueryClass(QueryClass.DEFAULT_NAME, 1, 0);
+    queryClasses.add(defaultQueryClass);
+    for (QueryClassConfiguration queryClassConfiguration : configurator.getQueryClassConfigurations()) {
+      QueryClass queryClass = new QueryClass(queryClassConfiguration);
+      queryClasses.add(queryClass);
+      for (String domainName : queryClassConfiguration.getDomainNames()) {
+        domainNameToQueryClass.put(domainName, queryClass);
+      }
+      LOG.info("Using " + queryClassConfiguration);
+    }
+    QueryClass[] newDomainQueryClasses = new QueryClass[maxDomainId + 1];
+    for (DomainAndVersion dgvdv : domainGroup.getDomainVersions()) {
+      newDomainQueryClasses[dgvdv.getDomain().getId()] = getQueryClass(dgvdv.getDomain());
+    }
+    domainQueryClasses = newDomainQueryClasses;
+
+    // Loop over the domains and get set up
+    List<Exception> exceptions = Collections.synchronizedList(new ArrayList<Exception>());
+    List<Domain> domains = new ArrayList<Domain>();
+    for (DomainAndVersion dgvdv : domainGroup.getDomainVersions()) {
+      domains.add(dgvdv.getDomain());
+    }
+    for (Map.Entry<Integer, DomainAccessor> entry : loadDomainAccessors(domains, numTotalPartitions, exceptions).entrySet()) {
+      newDomainAccessors[entry.getKey()] = entry.getValue();
+    }
+    domainAccessors = newDomainAccessors;
+    // If there was a failure, abort and skip current command.
+    if (!exceptions.isEmpty()) {
+      host.nextCommand();
+      throw new IOException("Failed to load Readers. Encountered " + exceptions.size() + " exceptions.");
+    }
+    // Start the update runtime statistics thread
+    updateRuntimeStatisticsRunnable = new UpdateRuntimeStatisticsRunnable();
+    updateRuntimeStatisticsThread = new Thread(updateRuntimeStatisticsRunnable, "Update Runtime Statistics");
+    updateRuntimeStatisticsThread.start();
+    // Periodically remove abandoned GET BULK streams
+    getBulkStreamReaperExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+      @Override
+      public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "GET BULK Stream Reaper");
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+    getBulkStreamReaperExecutor.scheduleWithFixedDelay(new Runnable() {
+      @Override
+      public void run() {
+        removeExpiredGetBulkStreams();
+      }
+    }, GET_BULK_STREAM_REAPER_PERIOD_MS, GET_BULK_STREAM_REAPER_PERIOD_MS, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Load Readers for the partitions that were updated or assigned since they were
+   * loaded, prewarm their files and swap them in while serving. Partitions that are not assigned
+   * anymore stop being served, and so do domains that left the domain group.
+   * Previous Readers are closed once the requests using them are done.
+   * Partitions whose update failed keep being served at their previous version.
+   */
+  public synchronized void reloadPartitionAccessors() throws IOException {
+    DomainGroup domainGroup = getDomainGroup();
+    int numTotalPartitions = getNumLoadablePartitions(domainGroup);
+    int numDomainAccessors = Math.max(domainAccessors.length, getMaxDomainId(domainGroup) + 1);
+    DomainAccessor[] newDomainAccessors = Arrays.copyOf(domainAccessors, numDomainAccessors);
+    QueryClass[] newDomainQueryClasses = Arrays.copyOf(domainQueryClasses, numDomainAccessors);
+    List<DomainAccessor> removedDomainAccessors = new ArrayList<DomainAccessor>();
+    List<Exception> exceptions = Collections.synchronizedList(new ArrayList<Exception>());
+    List<Domain> addedDomains = new ArrayList<Domain>();
+    List<LoadPartitionAccessorTask> loadPartitionAccessorTasks = new ArrayList<LoadPartitionAccessorTask>();
+
+    Set<Integer> domainIds = new HashSet<Integer>();
+    for (DomainAndVersion dgvdv : domainGroup.getDomainVersions()) {
+      Domain domain = dgvdv.getDomain();
+      int domainId = domain.getId();
+      domainIds.add(domainId);
+      newDomainQueryClasses[domainId] = getQueryClass(domain);
+      DomainAccessor domainAccessor = newDomainAccessors[domainId];
+      if (domainAccessor == null) {
+        LOG.info("Domain " + domain.getName() + " was added to the domain group. Loading it.");
+        addedDomains.add(domain);
+        continue;
+      }
+      HostDomain hostDomain = host.getHostDomain(domain);
+      for (int partitionNumber = 0; partitionNumber < domainAccessor.getNumPartitions(); ++partitionNumber) {
+        HostDomainPartition partition = hostDomain == null ? null : hostDomain.getPartitionByNumber(partitionNumber);
+        PartitionAccessor currentPartitionAccessor = domainAccessor.getPartitionAccessor(partitionNumber);
+        if (partition == null) {
+          if (currentPartitionAccessor != null) {
+            LOG.info(String.format("Partition #%d of domain %s is not assigned anymore. Stop serving it.",
+                partitionNumber, domain.getName()));
+            domainAccessor.swapPartitionAccessor(partitionNumber, null);
+          }
+          continue;
+        }
+        Integer versionNumber = partition.getCurrentDomainVersion();
+        if (versionNumber == null
+            || (currentPartitionAccessor != null && versionNumber.equals(currentPartitionAccessor.getVersionNumber()))) {
+          continue;
+        }
+        loadPartitionAccessorTasks.add(new LoadPartitionAccessorTask(domain, partition, numTotalPartitions, exceptions));
+      }
+    }
+    // Load added domains and updated partitions
+    for (Map.Entry<Integer, DomainAccessor> entry : loadDomainAccessors(addedDomains, numTotalPartitions, exceptions).entrySet()) {
+      newDomainAccessors[entry.getKey()] = entry.getValue();
+    }
+    executeLoadPartitionAccessorTasks(loadPartitionAccessorTasks);
+    // Prewarm updated partitions before swapping them in, most requested at their previous version first
+    List<PartitionPrewarmer.PartitionToPrewarm> partitionsToPrewarm = new ArrayList<PartitionPrewarmer.PartitionToPrewarm>();
+    for (LoadPartitionAccessorTask task : loadPartitionAccessorTasks) {
+      Integer versionNumber = task.getPartitionAccessor() == null ? null : task.getPartitionAccessor().getVersionNumber();
+      if (versionNumber != null) {
+        PartitionAccessor currentPartitionAccessor = newDomainAccessors[task.getDomain().getId()]
+            .getPartitionAccessor(task.getPartition().getPartitionNumber());
+        partitionsToPrewarm.add(new PartitionPrewarmer.PartitionToPrewarm(task.getDomain(),
+            task.getPartition().getPartitionNumber(), versionNumber,
+            currentPartitionAccessor == null ? 0 : currentPartitionAccessor.getNumRequests()));
+      }
+    }
+    prewarm(partitionsToPrewarm);
+    int numSwappedPartitions = 0;
+    for (LoadPartitionAccessorTask task : loadPartitionAccessorTasks) {
+      if (task.getPartitionAccessor() != null) {
+        newDomainAccessors[task.getDomain().getId()].swapPartitionAccessor(task.getPartition().getPartitionNumber(),
+            task.getPartitionAccessor());
+        ++numSwappedPartitions;
+      }
+    }
+    // Stop serving domains that are not in the domain group anymore
+    for (int domainId = 0; domainId < newDomainAccessors.length; ++domainId) {
+      if (newDomainAccessors[domainId] != null && !domainIds.contains(domainId)) {
+        LOG.info("Domain " + newDomainAccessors[domainId].getName() + " was removed from the domain group. Stop serving it.");
+        removedDomainAccessors.add(newDomainAccessors[domainId]);
+        newDomainAccessors[domainId] = null;
+      }
+    }
+    // Publish query classes first so that requests to added domains find their class
+    domainQueryClasses = newDomainQueryClasses;
+    domainAccessors = newDomainAccessors;
+    for (DomainAccessor domainAccessor : removedDomainAccessors) {
+      domainAccessor.shutDown();
+    }
+    LOG.info("Swapped Readers of " + numSwappedPartitions + " updated partitions.");
+    if (!exceptions.isEmpty()) {
+      throw new IOException("Failed to reload Readers. Encountered " + exceptions.size() + " exceptions.");
+    }
+  }
+
+  // Load a new Reader for the given partition and swap it in, for instance after its local files were compacted
+  public synchronized void reloadPartitionAccessor(Domain domain, int partitionNumber) throws IOException {
+    DomainAccessor[] currentDomainAccessors = domainAccessors;
+    DomainAccessor domainAccessor = domain.getId() < currentDomainAccessors.length ? currentDomainAccessors[domain.getId()] : null;
+    HostDomain hostDomain = host.getHostDomain(domain);
+    HostDomainPartition partition = hostDomain == null ? null : hostDomain.getPartitionByNumber(partitionNumber);
+    if (domainAccessor == null || partition == null || domainAccessor.getPartitionAccessor(partitionNumber) == null) {
+      return;
+    }
+    List<Exception> exceptions = new ArrayList<Exception>();
+    PartitionAccessor partitionAccessor = loadPartitionAccessor(domain, partition,
+        getNumLoadablePartitions(getDomainGroup()), exceptions);
+    if (partitionAccessor == null) {
+      throw new IOException(String.format("Failed to reload Reader of partition #%d of domain %s.",
+          partitionNumber, domain.getName()));
+    }
+    if (partitionAccessor.getVersionNumber() != null) {
+      prewarm(Collections.singletonList(new PartitionPrewarmer.PartitionToPrewarm(domain, partitionNumber,
+          partitionAccessor.getVersionNumber(), domainAccessor.getPartitionAccessor(partitionNumber).getNumRequests())));
+    }
+    domainAccessor.swapPartitionAccessor(partitionNumber, partitionAccessor);
+  }
+
+  // Read the files of partitions about to be swapped in, within the configured prewarming budget
+  private void prewarm(List<PartitionPrewarmer.PartitionToPrewarm> partitions) {
+    try {
+      new PartitionPrewarmer(configurator, host,
+          configurator.getPrewarmMaxNumBytes(),
+          configurator.getPrewarmMaxDurationMs()).prewarm(partitions);
+    } catch (IOException e) {
+      LOG.error("Failed to prewarm partitions before swapping their Readers. Continuing.", e);
+    }
+  }
+
+  // Number of requests served by each partition, by domain name and partition number
+  public Map<String, Map<Integer, Long>> getPartitionNumRequests() {
+    Map<String, Map<Integer, Long>> result = new HashMap<String, Map<Integer, Long>>();
+    for (DomainAccessor domainAccessor : domainAccessors) {
+      if (domainAccessor != null) {
+        Map<Integer, Long> partitionNumRequests = new HashMap<Integer, Long>();
+        for (int partition = 0; partition < domainAccessor.getNumPartitions(); ++partition) {
+          PartitionAccessor partitionAccessor = domainAccessor.getPartitionAccessor(partition);
+          if (partitionAccessor != null) {
+            partitionNumRequests.put(partition, partitionAccessor.getNumRequests());
+          }
+        }
+        result.put(domainAccessor.getName(), partitionNumRequests);
+      }
+    }
+    return result;
+  }
+
+  private DomainGroup getDomainGroup() throws IOException {
+    DomainGroup domainGroup = ringGroup.getDomainGroup();
+    if (domainGroup == null) {
+      throw new IOException(String.format("Could not get DomainGroup of RingGroup %s", ringGroup));
+    }
+    return domainGroup;
+  }
+
+  private int getNumLoadablePartitions(DomainGroup domainGroup) throws IOException {
     int numTotalPartitions = 0;
     for (DomainAndVersion dgdv : domainGroup.getDomainVersions()) {
       HostDomain hostDomain = host.getHostDomain(dgdv.getDomain());
@@ -131,9 +395,10 @@ public class PartitionServerHandler implements IfaceWithShutdown {
         }
       }
     }
-    LOG.info("Detected " + numTotalPartitions + " loadable partitions for " + host);
+    return numTotalPartitions;
+  }
 
-    // Determine the max domain id so we can bound the arrays
+  private static int getMaxDomainId(DomainGroup domainGroup) throws IOException {
     int maxDomainId = 0;
     for (DomainAndVersion dgvdv : domainGroup.getDomainVersions()) {
       int domainId = dgvdv.getDomain().getId();
@@ -141,15 +406,21 @@ public class PartitionServerHandler implements IfaceWithShutdown {
         maxDomainId = domainId;
       }
     }
-    domainAccessors = new DomainAccessor[maxDomainId + 1];
+    return maxDomainId;
+  }
 
-    // Loop over the domains and get set up
-    List<Exception> exceptions = new ArrayList<Exception>();
-    for (DomainAndVersion dgvdv : domainGroup.getDomainVersions()) {
-      Domain domain = dgvdv.getDomain();
-      StorageEngine engine = domain.getStorageEngine();
+  private QueryClass getQueryClass(Domain domain) {
+    QueryClass queryClass = domainNameToQueryClass.get(domain.getName());
+    return queryClass == null ? defaultQueryClass : queryClass;
+  }
 
-      int domainId = dgvdv.getDomain().getId();
+  // Load DomainAccessors (indexed by domain id) of the given domains that are assigned to this host
+  private Map<Integer, DomainAccessor> loadDomainAccessors(List<Domain> domains,
+                                                           int numTotalPartitions,
+                                                           List<Exception> exceptions) throws IOException {
+    Map<Integer, HostDomain> domainIdToHostDomain = new HashMap<Integer, HostDomain>();
+    List<LoadPartitionAccessorTask> tasks = new ArrayList<LoadPartitionAccessorTask>();
+    for (Domain domain : domains) {
       HostDomain hostDomain = host.getHostDomain(domain);
       if (hostDomain == null) {
         LOG.error(String.format("Could not get HostDomain of Domain %s on Host %s. Skipping.", domain, host));
@@ -164,62 +435,139 @@ public class PartitionServerHandler implements IfaceWithShutdown {
       LOG.info(String.format("Loading %d/%d partitions of domain %s",
           partitions.size(), domain.getNumParts(), domain.getName()));
 
-      // Instantiate the PartitionAccessor array
-      PartitionAccessor[] partitionAccessors =
-          new PartitionAccessor[domain.getNumParts()];
+      domainIdToHostDomain.put(domain.getId(), hostDomain);
       for (HostDomainPartition partition : partitions) {
-        if (partition.getCurrentDomainVersion() == null) {
-          LOG.error(String.format(
-              "Could not load Reader for partition #%d of Domain %s because the partition's current version is null.",
-              partition.getPartitionNumber(), domain.getName()));
-          continue;
-        }
+        tasks.add(new LoadPartitionAccessorTask(domain, partition, numTotalPartitions, exceptions));
+      }
+    }
 
-        Reader reader;
-        try {
-          reader = engine.getReader(configurator.getReaderConfigurator(numTotalPartitions), partition.getPartitionNumber());
-        } catch (IOException e) {
-          // Something went wrong when loading this partition's Reader. Set it deletable and signal failure.
-          if (!partition.isDeletable()) {
-            partition.setDeletable(true);
-          }
-          final String msg = String.format("Could not load Reader for partition #%d of domain %s because of an exception.",
-              partition.getPartitionNumber(), domain.getName());
-          LOG.error(msg, e);
-          exceptions.add(new IOException(msg, e));
-          continue;
-        }
-        // Check that Reader's version number and current domain group version number match
-        if (reader.getVersionNumber() != null && !reader.getVersionNumber().equals(partition.getCurrentDomainVersion())) {
-          // Something went wrong when loading this partition's Reader. Set it deletable and signal failure.
-          partition.setDeletable(true);
-          final String msg = String.format("Could not load Reader for partition #%d of domain %s because version numbers reported by the Reader (%d) and by metadata (%d) differ.",
-              partition.getPartitionNumber(), domain.getName(), reader.getVersionNumber(), partition.getCurrentDomainVersion());
-          LOG.error(msg);
-          exceptions.add(new IOException(msg));
-          continue;
-        }
-        LOG.info(String.format("Loaded Reader for domain %s, partition #%d",
-            domain.getName(), partition.getPartitionNumber()));
-        partitionAccessors[partition.getPartitionNumber()] = new PartitionAccessor(partition, reader);
-        // Loading succeeded, if the partition was deletable, it should not be
-        if (partition.isDeletable()) {
-          partition.setDeletable(false);
+    executeLoadPartitionAccessorTasks(tasks);
+
+    // Instantiate the PartitionAccessor arrays
+    Map<Integer, PartitionAccessor[]> domainIdToPartitionAccessors = new HashMap<Integer, PartitionAccessor[]>();
+    for (HostDomain hostDomain : domainIdToHostDomain.values()) {
+      Domain domain = hostDomain.getDomain();
+      domainIdToPartitionAccessors.put(domain.getId(), new PartitionAccessor[domain.getNumParts()]);
+    }
+    for (LoadPartitionAccessorTask task : tasks) {
+      domainIdToPartitionAccessors.get(task.getDomain().getId())[task.getPartition().getPartitionNumber()] =
+          task.getPartitionAccessor();
+    }
+    // configure and store the DomainAccessors
+    Map<Integer, DomainAccessor> result = new HashMap<Integer, DomainAccessor>();
+    for (HostDomain hostDomain : domainIdToHostDomain.values()) {
+      Domain domain = hostDomain.getDomain();
+      result.put(domain.getId(), new DomainAccessor(hostDomain, domainIdToPartitionAccessors.get(domain.getId()),
+          domain.getPartitioner(), configurator.getGetTimerAggregatorWindow()));
+    }
+    return result;
+  }
+
+  // Open Readers in parallel, with a bounded number of concurrent opens per data directory,
+  // and report loading progress to the coordinator
+  private void executeLoadPartitionAccessorTasks(List<LoadPartitionAccessorTask> tasks) throws IOException {
+    if (tasks.isEmpty()) {
+      return;
+    }
+    HankTimer timer = new HankTimer();
+    Map<String, ExecutorService> dataDirectoryToExecutorService = new HashMap<String, ExecutorService>();
+    for (LoadPartitionAccessorTask task : tasks) {
+      ExecutorService executorService = dataDirectoryToExecutorService.get(task.getDataDirectory());
+      if (executorService == null) {
+        executorService = Executors.newFixedThreadPool(configurator.getMaxConcurrentReaderOpensPerDataDirectory(),
+            new LoadPartitionAccessorThreadFactory(task.getDataDirectory()));
+        dataDirectoryToExecutorService.put(task.getDataDirectory(), executorService);
+      }
+      executorService.execute(task);
+    }
+    for (ExecutorService executorService : dataDirectoryToExecutorService.values()) {
+      executorService.shutdown();
+    }
+    reportReaderLoadingProgress(tasks);
+    try {
+      for (ExecutorService executorService : dataDirectoryToExecutorService.values()) {
+        while (!executorService.awaitTermination(READER_LOADING_PROGRESS_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+          reportReaderLoadingProgress(tasks);
         }
       }
-      // configure and store the DomainAccessors
-      domainAccessors[domainId] = new DomainAccessor(hostDomain, partitionAccessors, domain.getPartitioner(),
-          configurator.getGetTimerAggregatorWindow());
+    } catch (InterruptedException e) {
+      for (ExecutorService executorService : dataDirectoryToExecutorService.values()) {
+        executorService.shutdownNow();
+      }
+      throw new IOException("Interrupted while loading Readers", e);
+    } finally {
+      // Do not mask a failure to load Readers with a failure to clean up
+      try {
+        Hosts.deleteReaderLoadingProgress(host);
+      } catch (IOException e) {
+        LOG.error("Failed to delete Reader loading progress.", e);
+      }
     }
-    // If there was a failure, abort and skip current command.
-    if (!exceptions.isEmpty()) {
-      host.nextCommand();
-      throw new IOException("Failed to load Readers. Encountered " + exceptions.size() + " exceptions.");
+    LOG.info("Finished loading " + tasks.size() + " Readers in " + FormatUtils.formatSecondsDuration(timer.getDurationMs() / 1000)
+        + " using " + dataDirectoryToExecutorService.size() + " data directories.");
+  }
+
+  // Progress reporting is best effort, it must not interrupt loading
+  private void reportReaderLoadingProgress(List<LoadPartitionAccessorTask> tasks) {
+    int numLoaded = 0;
+    for (LoadPartitionAccessorTask task : tasks) {
+      if (task.isDone()) {
+        ++numLoaded;
+      }
     }
-    // Start the update runtime statistics thread
-    updateRuntimeStatisticsRunnable = new UpdateRuntimeStatisticsRunnable();
-    updateRuntimeStatisticsThread = new Thread(updateRuntimeStatisticsRunnable, "Update Runtime Statistics");
-    updateRuntimeStatisticsThread.start();
+    LOG.info("Loaded " + numLoaded + "/" + tasks.size() + " Readers.");
+    try {
+      Hosts.setReaderLoadingProgress(host, numLoaded, tasks.size());
+    } catch (IOException e) {
+      LOG.error("Failed to report Reader loading progress.", e);
+    }
+  }
+
+  // Return null and record the failure (if any) if the partition could not be loaded
+  private PartitionAccessor loadPartitionAccessor(Domain domain,
+                                                  HostDomainPartition partition,
+                                                  int numTotalPartitions,
+                                                  List<Exception> exceptions) throws IOException {
+    Integer versionNumber = partition.getCurrentDomainVersion();
+    if (versionNumber == null) {
+      LOG.error(String.format(
+          "Could not load Reader for partition #%d of Domain %s because the partition's current version is null.",
+          partition.getPartitionNumber(), domain.getName()));
+      return null;
+    }
+
+    Reader reader;
+    try {
+      reader = domain.getStorageEngine().getReader(configurator.getReaderConfigurator(numTotalPartitions), partition.getPartitionNumber());
+    } catch (IOException e) {
+      // Something went wrong when loading this partition's Reader. Set it deletable and signal failure.
+      if (!partition.isDeletable()) {
+        partition.setDeletable(true);
+      }
+      final String msg = String.format("Could not load Reader for partition #%d of domain %s because of an exception.",
+          partition.getPartitionNumber(), domain.getName());
+      LOG.error(msg, e);
+      exceptions.add(new IOException(msg, e));
+      return null;
+    }
+    // Check that Reader's version number and current domain group version number match
+    if (reader.getVersionNumber() != null && !reader.getVersionNumber().equals(versionNumber)) {
+      // Something went wrong when loading this partition's Reader. Set it deletable and signal failure.
+      partition.setDeletable(true);
+      final String msg = String.format("Could not load Reader for partition #%d of domain %s because version numbers reported by the Reader (%d) and by metadata (%d) differ.",
+          partition.getPartitionNumber(), domain.getName(), reader.getVersionNumber(), versionNumber);
+      LOG.error(msg);
+      exceptions.add(new IOException(msg));
+      reader.close();
+      return null;
+    }
+    LOG.info(String.format("Loaded Reader for domain %s, partition #%d",
+        domain.getName(), partition.getPartitionNumber()));
+    // Loading succeeded, if the partition was deletable, it should not be
+    if (partition.isDeletable()) {
+      partition.setDeletable(false);
+    }
+    return new PartitionAccessor(partition, reader, versionNumber);
   }
 
   @Override
@@ -231,22 +579,79 @@ public class PartitionServerHandler implements IfaceWithShutdown {
       result = readerResultThreadLocal.get();
     }
     result.clear();
-    return _get(this, domainId, key, result);
+    QueryClass queryClass = getQueryClass(domainId);
+    if (!queryClass.tryStartRequest()) {
+      return OVERLOADED;
+    }
+    try {
+      return _get(this, domainId, key, null, result);
+    } finally {
+      queryClass.releaseRequest();
+    }
+  }
+
+  @Override
+  public HankResponse getWithPartition(int domainId, ByteBuffer key, int partition) {
+    ReaderResult result = readerResultThreadLocal.get();
+    // If buffer exceeds limit, reset it
+    if (result.getBuffer() != null && result.getBuffer().capacity() > bufferReuseMaxSize) {
+      readerResultThreadLocal.remove();
+      result = readerResultThreadLocal.get();
+    }
+    result.clear();
+    QueryClass queryClass = getQueryClass(domainId);
+    if (!queryClass.tryStartRequest()) {
+      return OVERLOADED;
+    }
+    try {
+      return _get(this, domainId, key, partition, result);
+    } finally {
+      queryClass.releaseRequest();
+    }
   }
 
   @Override
   public HankBulkResponse getBulk(int domainId, List<ByteBuffer> keys) {
+    return _getBulk(domainId, keys, 0);
+  }
+
+  // The deadline is computed from the time the request is received, so that it does not depend on clocks being
+  // synchronized. Tasks that have not started by then are dropped since the client has already given up on them.
+  @Override
+  public HankBulkResponse getBulkWithTimeout(int domainId, List<ByteBuffer> keys, int timeoutMs) {
+    return _getBulk(domainId, keys, timeoutMs > 0 ? System.currentTimeMillis() + timeoutMs : 0);
+  }
+
+  // A deadline of 0 means no deadline
+  private HankBulkResponse _getBulk(int domainId, List<ByteBuffer> keys, long deadline) {
+    QueryClass queryClass = getQueryClass(domainId);
+    if (!queryClass.tryStartRequest()) {
+      return OVERLOADED_BULK;
+    }
+    try {
+      return executeGetBulk(domainId, keys, deadline);
+    } finally {
+      queryClass.releaseRequest();
+    }
+  }
+
+  private HankBulkResponse executeGetBulk(int domainId, List<ByteBuffer> keys, long deadline) {
     try {
       DomainAccessor domainAccessor = getDomainAccessor(domainId);
       if (domainAccessor == null) {
         return NO_SUCH_DOMAIN_BULK;
       }
+      // Fail fast when the host is already falling behind, so that the client can try another replica
+      if (isGetBulkTaskQueueFull()) {
+        numOverloadedGetBulkRequests.incrementAndGet();
+        return OVERLOADED_BULK;
+      }
       // Build and execute all get bulk tasks
       HankBulkResponse bulkResponse = HankBulkResponse.responses(new ArrayList<HankResponse>(keys.size()));
       GetBulkTask[] tasks = new GetBulkTask[(keys.size() / getBulkTaskSize) + 1];
       int maxTaskIndex = 0;
       for (int i = 0; i < keys.size(); i += getBulkTaskSize) {
-        GetBulkTask task = new GetBulkTask(new GetBulkRunnable(domainId, keys, i));
+        GetBulkTask task = new GetBulkTask(new GetBulkRunnable(domainId, keys, i, deadline));
         // No need to synchronize since ThreadPoolExecutor's execute() is thread-safe
         getBulkTaskExecutor.execute(task);
         tasks[maxTaskIndex++] = task;
@@ -254,6 +659,11 @@ public class PartitionServerHandler implements IfaceWithShutdown {
       // Wait for all get tasks and retrieve responses
       for (int taskIndex = 0; taskIndex < maxTaskIndex; ++taskIndex) {
         HankResponse[] responses = tasks[taskIndex].getResponses();
+        if (responses == null) {
+          // The task was dropped since its deadline had passed
+          numDeadlineExceededGetBulkRequests.incrementAndGet();
+          return DEADLINE_EXCEEDED_BULK;
+        }
         for (HankResponse response : responses) {
           // Check if we have retrieved all responses
           if (bulkResponse.get_responses().size() == keys.size()) {
@@ -272,13 +682,167 @@ public class PartitionServerHandler implements IfaceWithShutdown {
     }
   }
 
-  private HankResponse _get(PartitionServerHandler partitionServerHandler, int domainId, ByteBuffer key, ReaderResult result) {
+  // Start a streamed GET BULK and return its first chunk. Keys are processed by GET BULK tasks, and responses are
+  // returned in chunks, in the order tasks complete. Only a bounded number of tasks is executed ahead of the chunks
+  // that have been requested. Chunks are returned without waiting for tasks to complete, so they can be empty: the
+  // client is expected to back off before requesting the next chunk.
+  @Override
+  public HankBulkChunk getBulkStream(int domainId, List<ByteBuffer> keys) {
+    GetBulkStream stream = null;
+    try {
+      DomainAccessor domainAccessor = getDomainAccessor(domainId);
+      if (domainAccessor == null) {
+        return NO_SUCH_DOMAIN_BULK_CHUNK;
+      }
+      if (isGetBulkTaskQueueFull()) {
+        numOverloadedGetBulkRequests.incrementAndGet();
+        return OVERLOADED_BULK_CHUNK;
+      }
+      // A stream counts as one request of its query class until it is removed
+      QueryClass queryClass = getQueryClass(domainId);
+      if (!queryClass.tryStartRequest()) {
+        return OVERLOADED_BULK_CHUNK;
+      }
+      stream = new GetBulkStream(nextGetBulkStreamId.getAndIncrement(), domainId, keys, queryClass);
+      getBulkStreams.put(stream.getId(), stream);
+      return getNextChunk(stream);
+    } catch (Throwable t) {
+      String errMsg = "Throwable during GET BULK STREAM";
+      LOG.error(errMsg, t);
+      if (stream != null) {
+        removeGetBulkStream(stream.getId());
+      }
+      return new HankBulkChunk().set_xception(
+          HankException.internal_error(errMsg + " " + (t.getMessage() != null ? t.getMessage() : "")));
+    }
+  }
+
+  @Override
+  public HankBulkChunk getBulkStreamNext(long streamId) {
+    try {
+      GetBulkStream stream = getBulkStreams.get(streamId);
+      if (stream == null) {
+        return new HankBulkChunk().set_stream_id(streamId).set_xception(
+            HankException.internal_error("No such GET BULK stream: " + streamId));
+      }
+      return getNextChunk(stream);
+    } catch (Throwable t) {
+      String errMsg = "Throwable during GET BULK STREAM";
+      LOG.error(errMsg, t);
+      removeGetBulkStream(streamId);
+      return new HankBulkChunk().set_xception(
+          HankException.internal_error(errMsg + " " + (t.getMessage() != null ? t.getMessage() : "")));
+    }
+  }
+
+  @Override
+  public String negotiateResponseCompression(List<String> codecs) {
+    if (codecs != null
+        && codecs.contains(ResponseCompression.SNAPPY)
+        && DirectFramedTransport.Factory.supportsResponseCompression()) {
+      return ResponseCompression.SNAPPY;
+    } else {
+      return "";
+    }
+  }
+
+  @Override
+  public boolean checkPartitioner(int domainId, String partitioner, int numPartitions) {
+    DomainAccessor domainAccessor = getDomainAccessor(domainId);
+    return domainAccessor != null && domainAccessor.checkPartitioner(partitioner, numPartitions);
+  }
+
+  private boolean isGetBulkTaskQueueFull() {
+    if (maxQueuedGetBulkTasks <= 0 || getBulkTaskQueue.size() < maxQueuedGetBulkTasks) {
+      return false;
+    }
+    // Tasks whose deadline has passed should not take room in the queue
+    removeExpiredGetBulkTasks();
+    return getBulkTaskQueue.size() >= maxQueuedGetBulkTasks;
+  }
+
+  private void removeExpiredGetBulkTasks() {
+    for (WeightedFairQueue.Task task : getBulkTaskQueue.removeExpiredTasks(System.currentTimeMillis())) {
+      // Running an expired task performs no request and only completes it, so that its GET BULK returns
+      task.run();
+    }
+  }
+
+  int getNumQueuedGetBulkTasks() {
+    return getBulkTaskQueue.size();
+  }
+
+  private HankBulkChunk getNextChunk(GetBulkStream stream) throws ExecutionException, InterruptedException {
+    HankBulkChunk chunk = stream.getNextChunk();
+    if (chunk.is_last()) {
+      removeGetBulkStream(stream.getId());
+    }
+    return chunk;
+  }
+
+  // Remove the stream and end its query class request. Streams are removed only once.
+  private void removeGetBulkStream(long streamId) {
+    GetBulkStream stream = getBulkStreams.remove(streamId);
+    if (stream != null) {
+      stream.queryClass.releaseRequest();
+    }
+  }
+
+  private void removeExpiredGetBulkStreams() {
+    long now = System.currentTimeMillis();
+    for (GetBulkStream stream : getBulkStreams.values()) {
+      if (now - stream.getLastAccessTime() > GET_BULK_STREAM_EXPIRATION_MS) {
+        LOG.warn("Removing abandoned GET BULK stream " + stream.getId());
+        removeGetBulkStream(stream.getId());
+      }
+    }
+  }
+
+  // Perform GET requests for keys of any domain, in the calling thread. Responses are returned in order.
+  // Since a request can span domains of different query classes, it is not limited by query classes.
+  @Override
+  public HankBulkResponse getMulti(List<DomainKey> domainKeys) {
+    try {
+      List<HankResponse> responses = new ArrayList<HankResponse>(domainKeys.size());
+      ReaderResult result = readerResultThreadLocal.get();
+      // If buffer exceeds limit, reset it
+      if (result.getBuffer() != null && result.getBuffer().capacity() > bufferReuseMaxSize) {
+        readerResultThreadLocal.remove();
+        result = readerResultThreadLocal.get();
+      }
+      result.clear();
+      for (DomainKey domainKey : domainKeys) {
+        HankResponse response = _get(this, domainKey.get_domain_id(), domainKey.buffer_for_key(), null, result);
+        result = detachValue(response, result);
+        responses.add(response);
+      }
+      // Update the thread local result buffer to point to the latest one used (which is valid for reuse)
+      readerResultThreadLocal.set(result);
+      return HankBulkResponse.responses(responses);
+    } catch (Throwable t) {
+      String errMsg = "Throwable during GET MULTI";
+      LOG.error(errMsg, t);
+      return HankBulkResponse.xception(
+          HankException.internal_error(errMsg + " " + (t.getMessage() != null ? t.getMessage() : "")));
+    }
+  }
+
+  // When partition is null, it is computed from the key
+  private HankResponse _get(PartitionServerHandler partitionServerHandler,
+                            int domainId,
+                            ByteBuffer key,
+                            Integer partition,
+                            ReaderResult result) {
     DomainAccessor domainAccessor = partitionServerHandler.getDomainAccessor(domainId);
     if (domainAccessor == null) {
       return NO_SUCH_DOMAIN;
     }
     try {
-      return domainAccessor.get(key, result);
+      if (partition == null) {
+        return domainAccessor.get(key, result);
+      } else {
+        return domainAccessor.get(partition, key, result);
+      }
     } catch (IOException e) {
       String errMsg = String.format(
           "Exception during GET. Domain: %s (domain #%d) Key: %s",
@@ -294,6 +858,32 @@ public class PartitionServerHandler implements IfaceWithShutdown {
     }
   }
 
+  // When a response has to be kept while other keys are read, make sure the value it holds does not point to the
+  // ReaderResult's buffer any more, and return the ReaderResult to use for the next key.
+  // If a value was found, we have the choice to keep the buffer that was used to read the value, or do a deep
+  // copy into the response. This decision is based on a size difference threshold.
+  // This allows us to do bulk requests that are large even when the read buffer ends up being much larger
+  // than the stored value (since in that case we will just do a deep copy of the value
+  // in an appropriately-sized buffer). Values that fill most of the buffer are not copied: they are serialized
+  // straight from it into the outgoing frame.
+  private static ReaderResult detachValue(HankResponse response, ReaderResult result) {
+    if (response.is_set_value()) {
+      ByteBuffer valueBuffer = response.buffer_for_value();
+      // If buffer used space is less than a threshold times its capacity, do a deep copy.
+      if (((double)valueBuffer.limit())
+          < (USED_SIZE_THRESHOLD_FOR_VALUE_BUFFER_DEEP_COPY * valueBuffer.capacity())) {
+        // Deep copy the value. Hence we can reuse the result buffer.
+        response.set_value(BytesUtils.byteBufferDeepCopy(valueBuffer));
+        result.clear();
+      } else {
+        // Keep the ReaderResult's buffer in the response. Hence we need to create a new result buffer.
+        // Initialize it with the same capacity we had.
+        result = new ReaderResult(valueBuffer.capacity());
+      }
+    }
+    return result;
+  }
+
   private static class ReaderResultThreadLocal extends ThreadLocal<ReaderResult> {
 
     @Override
@@ -309,6 +899,78 @@ public class PartitionServerHandler implements IfaceWithShutdown {
     }
   }
 
+  private class LoadPartitionAccessorTask implements Runnable {
+
+    private final Domain domain;
+    private final HostDomainPartition partition;
+    private final String dataDirectory;
+    private final int numTotalPartitions;
+    private final List<Exception> exceptions;
+    private volatile PartitionAccessor partitionAccessor;
+    private volatile boolean done = false;
+
+    public LoadPartitionAccessorTask(Domain domain,
+                                     HostDomainPartition partition,
+                                     int numTotalPartitions,
+                                     List<Exception> exceptions) {
+      this.domain = domain;
+      this.partition = partition;
+      this.dataDirectory = domain.getStorageEngine().getDataDirectory(configurator, partition.getPartitionNumber());
+      this.numTotalPartitions = numTotalPartitions;
+      this.exceptions = exceptions;
+    }
+
+    @Override
+    public void run() {
+      try {
+        partitionAccessor = loadPartitionAccessor(domain, partition, numTotalPartitions, exceptions);
+      } catch (Exception e) {
+        final String msg = String.format("Failed to load Reader for partition #%d of domain %s.",
+            partition.getPartitionNumber(), domain.getName());
+        LOG.error(msg, e);
+        exceptions.add(new IOException(msg, e));
+      } finally {
+        done = true;
+      }
+    }
+
+    public Domain getDomain() {
+      return domain;
+    }
+
+    public HostDomainPartition getPartition() {
+      return partition;
+    }
+
+    public String getDataDirectory() {
+      return dataDirectory;
+    }
+
+    // Null if the Reader could not be loaded
+    public PartitionAccessor getPartitionAccessor() {
+      return partitionAccessor;
+    }
+
+    public boolean isDone() {
+      return done;
+    }
+  }
+
+  private static class LoadPartitionAccessorThreadFactory implements ThreadFactory {
+
+    private final String dataDirectory;
+    private int threadId = 0;
+
+    public LoadPartitionAccessorThreadFactory(String dataDirectory) {
+      this.dataDirectory = dataDirectory;
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      return new Thread(runnable, "Reader Loader Thread: " + dataDirectory + " #" + threadId++);
+    }
+  }
+
   private static class GetBulkThreadFactory implements ThreadFactory {
 
     private int threadId = 0;
@@ -324,17 +986,24 @@ public class PartitionServerHandler implements IfaceWithShutdown {
     private final int domainId;
     private final List<ByteBuffer> keys;
     private final int firstKeyIndex;
+    private final long deadline;
     private HankResponse[] responses;
 
-    // Perform GET requests for keys starting at firstKeyIndex and in a window of size GET_BULK_TASK_SIZE
-    public GetBulkRunnable(int domainId, List<ByteBuffer> keys, int firstKeyIndex) {
+    // Perform GET requests for keys starting at firstKeyIndex and in a window of size GET_BULK_TASK_SIZE.
+    // When the deadline is not 0 and has passed by the time the task runs, no request is performed
+    // and responses are null.
+    public GetBulkRunnable(int domainId, List<ByteBuffer> keys, int firstKeyIndex, long deadline) {
       this.domainId = domainId;
       this.keys = keys;
       this.firstKeyIndex = firstKeyIndex;
+      this.deadline = deadline;
     }
 
     @Override
     public void run() {
+      if (deadline != 0 && System.currentTimeMillis() > deadline) {
+        return;
+      }
       ReaderResult result = readerResultThreadLocal.get();
       result.clear();
       responses = new HankResponse[getBulkTaskSize];
@@ -342,26 +1011,8 @@ public class PartitionServerHandler implements IfaceWithShutdown {
       for (int keyOffset = 0; keyOffset < getBulkTaskSize
           && (firstKeyIndex + keyOffset) < keys.size(); keyOffset++) {
         HankResponse response =
-            _get(PartitionServerHandler.this, domainId, keys.get(firstKeyIndex + keyOffset), result);
-        // If a value was found, we have the choice to keep the buffer that was used to read the value, or do a deep
-        // copy into the response. This decision is based on a size difference threshold.
-        // This allows us to do bulk requests that are large even when the read buffer ends up being much larger
-        // than the stored value (since in that case we will just do a deep copy of the value
-        // in an appropriately-sized buffer).
-        if (response.is_set_value()) {
-          ByteBuffer valueBuffer = response.buffer_for_value();
-          // If buffer used space is less than a threshold times its capacity, do a deep copy.
-          if (((double)valueBuffer.limit())
-              < (USED_SIZE_THRESHOLD_FOR_VALUE_BUFFER_DEEP_COPY * valueBuffer.capacity())) {
-            // Deep copy the value. Hence we can reuse the result buffer.
-            response.set_value(BytesUtils.byteBufferDeepCopy(valueBuffer));
-            result.clear();
-          } else {
-            // Keep the ReaderResult's buffer in the response. Hence we need to create a new result buffer.
-            // Initialize it with the same capacity we had.
-            result = new ReaderResult(valueBuffer.capacity());
-          }
-        }
+            _get(PartitionServerHandler.this, domainId, keys.get(firstKeyIndex + keyOffset), null, result);
+        result = detachValue(response, result);
         // Store response
         responses[keyOffset] = response;
       }
@@ -374,13 +1025,32 @@ public class PartitionServerHandler implements IfaceWithShutdown {
     }
   }
 
-  private class GetBulkTask extends FutureTask<Object> {
+  private class GetBulkTask extends FutureTask<Object> implements WeightedFairQueue.Task {
 
     private final GetBulkRunnable runnable;
+    private final double virtualFinishTime;
+    private final long sequenceNumber;
 
     public GetBulkTask(GetBulkRunnable runnable) {
       super(runnable, new Object());
       this.runnable = runnable;
+      this.virtualFinishTime = getQueryClass(runnable.domainId).getNextVirtualFinishTime(getBulkTaskQueue.getVirtualTime());
+      this.sequenceNumber = getBulkTaskQueue.getNextSequenceNumber();
+    }
+
+    @Override
+    public double getVirtualFinishTime() {
+      return virtualFinishTime;
+    }
+
+    @Override
+    public long getSequenceNumber() {
+      return sequenceNumber;
+    }
+
+    @Override
+    public long getDeadline() {
+      return runnable.deadline;
     }
 
     // Wait for termination and return response
@@ -390,7 +1060,95 @@ public class PartitionServerHandler implements IfaceWithShutdown {
     }
   }
 
+  private class GetBulkStreamTask extends GetBulkTask {
+
+    private final GetBulkStream stream;
+    private final int firstKeyIndex;
+
+    public GetBulkStreamTask(GetBulkStream stream, int firstKeyIndex) {
+      super(new GetBulkRunnable(stream.domainId, stream.keys, firstKeyIndex, 0));
+      this.stream = stream;
+      this.firstKeyIndex = firstKeyIndex;
+    }
+
+    @Override
+    protected void done() {
+      stream.completedTasks.add(this);
+    }
+  }
+
+  private class GetBulkStream {
+
+    private final long id;
+    private final int domainId;
+    private final List<ByteBuffer> keys;
+    private final QueryClass queryClass;
+    private final BlockingQueue<GetBulkStreamTask> completedTasks = new LinkedBlockingQueue<GetBulkStreamTask>();
+    private int nextKeyIndex = 0;
+    private int numPendingTasks = 0;
+    private volatile long lastAccessTime;
+
+    private GetBulkStream(long id, int domainId, List<ByteBuffer> keys, QueryClass queryClass) {
+      this.id = id;
+      this.domainId = domainId;
+      this.keys = keys;
+      this.queryClass = queryClass;
+      this.lastAccessTime = System.currentTimeMillis();
+    }
+
+    private long getId() {
+      return id;
+    }
+
+    private long getLastAccessTime() {
+      return lastAccessTime;
+    }
+
+    private void executeTasks() {
+      while (numPendingTasks < GET_BULK_STREAM_MAX_PENDING_TASKS && nextKeyIndex < keys.size()) {
+        getBulkTaskExecutor.execute(new GetBulkStreamTask(this, nextKeyIndex));
+        nextKeyIndex += getBulkTaskSize;
+        ++numPendingTasks;
+      }
+    }
+
+    // Return the responses of all completed tasks, without waiting for pending tasks so that the calling
+    // Thrift thread is never blocked
+    private synchronized HankBulkChunk getNextChunk() throws ExecutionException, InterruptedException {
+      lastAccessTime = System.currentTimeMillis();
+      executeTasks();
+      List<Integer> keyIndexes = new ArrayList<Integer>();
+      List<HankResponse> responses = new ArrayList<HankResponse>();
+      GetBulkStreamTask task = completedTasks.poll();
+      while (task != null) {
+        --numPendingTasks;
+        HankResponse[] taskResponses = task.getResponses();
+        for (int keyOffset = 0; keyOffset < taskResponses.length
+            && (task.firstKeyIndex + keyOffset) < keys.size(); ++keyOffset) {
+          keyIndexes.add(task.firstKeyIndex + keyOffset);
+          responses.add(taskResponses[keyOffset]);
+        }
+        task = completedTasks.poll();
+      }
+      // Keep tasks running while the chunk is being sent
+      executeTasks();
+      boolean last = nextKeyIndex >= keys.size() && numPendingTasks == 0;
+      lastAccessTime = System.currentTimeMillis();
+      return new HankBulkChunk(id, keyIndexes, responses, last, null);
+    }
+  }
+
+  private QueryClass getQueryClass(int domainId) {
+    QueryClass[] domainQueryClasses = this.domainQueryClasses;
+    if (domainId >= 0 && domainId < domainQueryClasses.length && domainQueryClasses[domainId] != null) {
+      return domainQueryClasses[domainId];
+    } else {
+      return defaultQueryClass;
+    }
+  }
+
   private DomainAccessor getDomainAccessor(int domainId) {
+    DomainAccessor[] domainAccessors = this.domainAccessors;
     if (domainId < domainAccessors.length) {
       return domainAccessors[domainId];
     } else {
@@ -420,6 +1178,22 @@ public class PartitionServerHandler implements IfaceWithShutdown {
       }
       // Set statistics
       Hosts.setRuntimeStatistics(host, runtimeStatisticsAggregators);
+      // Report shed requests
+      long numOverloaded = numOverloadedGetBulkRequests.getAndSet(0);
+      long numDeadlineExceeded = numDeadlineExceededGetBulkRequests.getAndSet(0);
+      if (numOverloaded > 0 || numDeadlineExceeded > 0) {
+        LOG.warn("Shed " + numOverloaded + " GET BULK requests because the host was overloaded, and dropped "
+            + numDeadlineExceeded + " GET BULK requests because their deadline had passed.");
+      }
+      // Report query class statistics
+      for (QueryClass queryClass : queryClasses) {
+        long numRequests = queryClass.getAndResetNumRequests();
+        long numRejectedRequests = queryClass.getAndResetNumRejectedRequests();
+        if (numRequests > 0) {
+          LOG.info("Query class " + queryClass.getName() + ": " + numRequests + " requests, "
+              + numRejectedRequests + " rejected because of its concurrency limit.");
+        }
+      }
     }
 
     @Override
@@ -435,6 +1209,8 @@ public class PartitionServerHandler implements IfaceWithShutdown {
 
   @Override
   public void shutDown() {
+    // Stop removing abandoned GET BULK streams
+    getBulkStreamReaperExecutor.shutdownNow();
     // Stop update runtime statistics
     updateRuntimeStatisticsRunnable.cancel();
     updateRuntimeStatisticsThread.interrupt();
@@ -0,0 +1,269 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.partition_server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.liveramp.hank.config.PartitionServerConfigurator;
+import com.liveramp.hank.coordinator.Coordinator;
+import com.liveramp.hank.coordinator.Domain;
+import com.liveramp.hank.coordinator.Host;
+import com.liveramp.hank.coordinator.HostDomain;
+import com.liveramp.hank.coordinator.HostDomainPartition;
+import com.liveramp.hank.storage.BandwidthGovernor;
+import com.liveramp.hank.storage.LocalCompaction;
+import com.liveramp.hank.storage.StorageEngine;
+import com.liveramp.hank.util.IOStreamUtils;
+
+/**
+ * Serves the local files of up-to-date partitions to peers, so that replicas
+ * of a partition on other hosts can be updated without fetching and merging
+ * remote files. A request is made of a domain name, a partition number and a
+ * version number. It is only served when this host's current version of the
+ * partition is the requested version, in which case the response is made of
+ * the name, length and content of each file of that version, followed by a
+ * flag telling whether the partition was still at that version once the files
+ * were sent.
+ */
+public class PartitionTransferServer implements Runnable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PartitionTransferServer.class);
+
+  static final int SOCKET_TIMEOUT_MS = 60000;
+
+  static final byte STATUS_OK = 0;
+  static final byte STATUS_UNAVAILABLE = 1;
+  static final byte STATUS_BUSY = 2;
+
+  private final PartitionServerConfigurator configurator;
+  private final Coordinator coordinator;
+  private final Host host;
+  private final ServerSocket serverSocket;
+  private final ThreadPoolExecutor executor;
+  private volatile boolean stopping = false;
+
+  public PartitionTransferServer(PartitionServerConfigurator configurator,
+                                 Coordinator coordinator,
+                                 Host host,
+                                 int port,
+                                 int maxConcurrentTransfers) throws IOException {
+    this.configurator = configurator;
+    this.coordinator = coordinator;
+    this.host = host;
+    this.serverSocket = new ServerSocket();
+    this.serverSocket.setReuseAddress(true);
+    this.serverSocket.bind(new InetSocketAddress(port));
+    // Transfers beyond the limit are refused right away so that peers can try another replica
+    this.executor = new ThreadPoolExecutor(maxConcurrentTransfers, maxConcurrentTransfers,
+        0L, TimeUnit.MILLISECONDS,
+        new SynchronousQueue<Runnable>(),
+        new TransferThreadFactory());
+  }
+
+  public int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  @Override
+  public void run() {
+    LOG.info("Serving partitions to peers on port " + getPort());
+    while (!stopping) {
+      Socket socket;
+      try {
+        socket = serverSocket.accept();
+      } catch (IOException e) {
+        if (!stopping) {
+          LOG.error("Failed to accept peer transfer connection", e);
+        }
+        continue;
+      }
+      try {
+        executor.execute(new TransferTask(socket));
+      } catch (RejectedExecutionException e) {
+        refuse(socket);
+      }
+    }
+    LOG.info("Stopped serving partitions to peers");
+  }
+
+  public void stop() {
+    stopping = true;
+    try {
+      serverSocket.close();
+    } catch (IOException e) {
+      LOG.error("Failed to close peer transfer server socket", e);
+    }
+    executor.shutdownNow();
+  }
+
+  private static class TransferThreadFactory implements ThreadFactory {
+
+    private AtomicInteger threadID = new AtomicInteger(0);
+
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread thread = new Thread(r, "Peer Transfer Thread #" + threadID.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+
+  private static void refuse(Socket socket) {
+    try {
+      socket.getOutputStream().write(STATUS_BUSY);
+    } catch (IOException e) {
+      // Peer is gone, nothing to do
+    } finally {
+      closeQuietly(socket);
+    }
+  }
+
+  private class TransferTask implements Runnable {
+
+    private final Socket socket;
+
+    public TransferTask(Socket socket) {
+      this.socket = socket;
+    }
+
+    @Override
+    public void run() {
+      String request = "unknown request from " + socket.getRemoteSocketAddress();
+      try {
+        socket.setSoTimeout(SOCKET_TIMEOUT_MS);
+        DataInputStream inputStream = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        String domainName = inputStream.readUTF();
+        int partitionNumber = inputStream.readInt();
+        int versionNumber = inputStream.readInt();
+        request = "domain " + domainName + " partition " + partitionNumber + " version " + versionNumber
+            + " to " + socket.getRemoteSocketAddress();
+        DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(
+            BandwidthGovernor.throttle(socket.getOutputStream(), BandwidthGovernor.Budget.NETWORK_WRITE),
+            IOStreamUtils.DEFAULT_BUFFER_SIZE));
+        Domain domain = coordinator.getDomain(domainName);
+        List<File> files = domain == null ? null : getFiles(domain, partitionNumber, versionNumber);
+        if (files == null) {
+          LOG.info("Not transferring " + request + ": partition is not up-to-date");
+          outputStream.writeByte(STATUS_UNAVAILABLE);
+          outputStream.flush();
+          return;
+        }
+        LOG.info("Transferring " + request);
+        outputStream.writeByte(STATUS_OK);
+        outputStream.writeInt(files.size());
+        for (File file : files) {
+          long length = file.length();
+          outputStream.writeUTF(file.getName());
+          outputStream.writeLong(length);
+          InputStream fileInputStream = BandwidthGovernor.throttle(new FileInputStream(file),
+              BandwidthGovernor.Budget.DISK_READ);
+          try {
+            copy(fileInputStream, outputStream, length);
+          } finally {
+            fileInputStream.close();
+          }
+        }
+        // The partition could have started updating while its files were sent
+        outputStream.writeBoolean(isUpToDate(domain, partitionNumber, versionNumber));
+        outputStream.flush();
+        LOG.info("Transferred " + request);
+      } catch (Exception e) {
+        LOG.error("Failed to transfer " + request, e);
+      } finally {
+        closeQuietly(socket);
+      }
+    }
+  }
+
+  // Null if the partition is not at the given version on this host
+  private List<File> getFiles(Domain domain, int partitionNumber, int versionNumber) throws IOException {
+    if (!isUpToDate(domain, partitionNumber, versionNumber)) {
+      return null;
+    }
+    List<File> result = new ArrayList<File>();
+    for (String path : domain.getStorageEngine().getFiles(configurator, versionNumber, partitionNumber)) {
+      File file = new File(path);
+      if (!file.isFile()) {
+        return null;
+      }
+      result.add(file);
+    }
+    return result;
+  }
+
+  private boolean isUpToDate(Domain domain, int partitionNumber, int versionNumber) throws IOException {
+    HostDomain hostDomain = host.getHostDomain(domain);
+    if (hostDomain == null) {
+      return false;
+    }
+    HostDomainPartition partition = hostDomain.getPartitionByNumber(partitionNumber);
+    if (partition == null
+        || partition.isDeletable()
+        || partition.getCurrentDomainVersion() == null
+        || partition.getCurrentDomainVersion() != versionNumber) {
+      return false;
+    }
+    // Files being replaced by a local compaction are inconsistent
+    StorageEngine storageEngine = domain.getStorageEngine();
+    return !(storageEngine instanceof LocalCompaction)
+        || !((LocalCompaction)storageEngine).isLocalCompactionInProgress(configurator, partitionNumber);
+  }
+
+  // Copy exactly the given number of bytes
+  static void copy(InputStream inputStream, OutputStream outputStream, long length) throws IOException {
+    byte[] buffer = new byte[IOStreamUtils.DEFAULT_BUFFER_SIZE];
+    long remaining = length;
+    while (remaining > 0) {
+      int numBytesRead = inputStream.read(buffer, 0, (int)Math.min(buffer.length, remaining));
+      if (numBytesRead < 0) {
+        throw new EOFException("Reached end of stream with " + remaining + " bytes left to copy");
+      }
+      outputStream.write(buffer, 0, numBytesRead);
+      remaining -= numBytesRead;
+    }
+  }
+
+  static void closeQuietly(Socket socket) {
+    try {
+      socket.close();
+    } catch (IOException e) {
+      // Ignore
+    }
+  }
+}
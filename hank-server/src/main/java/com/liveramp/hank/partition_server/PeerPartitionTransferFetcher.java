@@ -0,0 +1,166 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.partition_server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.liveramp.hank.coordinator.Domain;
+import com.liveramp.hank.coordinator.DomainVersion;
+import com.liveramp.hank.coordinator.Host;
+import com.liveramp.hank.coordinator.HostDomain;
+import com.liveramp.hank.coordinator.HostDomainPartition;
+import com.liveramp.hank.coordinator.Hosts;
+import com.liveramp.hank.coordinator.Ring;
+import com.liveramp.hank.coordinator.RingGroup;
+import com.liveramp.hank.storage.BandwidthGovernor;
+import com.liveramp.hank.storage.PeerPartitionFetcher;
+import com.liveramp.hank.storage.RemoteFetchLimiter;
+import com.liveramp.hank.util.IOStreamUtils;
+
+/**
+ * Fetches a partition version from the PartitionTransferServer of another
+ * host of the ring group whose replica of the partition is already at that
+ * version. Peers are tried in random order to spread the load.
+ */
+public class PeerPartitionTransferFetcher implements PeerPartitionFetcher {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PeerPartitionTransferFetcher.class);
+
+  private static final int CONNECT_TIMEOUT_MS = 10000;
+  private static final int MAX_NUM_PEERS_TRIED = 3;
+
+  private final Host host;
+  private final RingGroup ringGroup;
+  private final Domain domain;
+  private final int partitionNumber;
+
+  public PeerPartitionTransferFetcher(Host host, RingGroup ringGroup, Domain domain, int partitionNumber) {
+    this.host = host;
+    this.ringGroup = ringGroup;
+    this.domain = domain;
+    this.partitionNumber = partitionNumber;
+  }
+
+  @Override
+  public boolean fetchVersion(DomainVersion version, String destinationRoot) throws IOException {
+    List<InetSocketAddress> peers = getPeers(version.getVersionNumber());
+    Collections.shuffle(peers);
+    for (InetSocketAddress peer : peers.subList(0, Math.min(peers.size(), MAX_NUM_PEERS_TRIED))) {
+      try {
+        if (fetchVersion(peer, version.getVersionNumber(), destinationRoot)) {
+          return true;
+        }
+      } catch (IOException e) {
+        LOG.error("Failed to fetch domain " + domain.getName() + " partition " + partitionNumber
+            + " version " + version.getVersionNumber() + " from peer " + peer, e);
+      }
+      FileUtils.cleanDirectory(new File(destinationRoot));
+    }
+    return false;
+  }
+
+  // Peers whose replica of the partition is at the given version, and that serve it
+  private List<InetSocketAddress> getPeers(int versionNumber) throws IOException {
+    List<InetSocketAddress> result = new ArrayList<InetSocketAddress>();
+    for (Ring ring : ringGroup.getRings()) {
+      for (Host peer : ring.getHosts()) {
+        if (peer.getAddress().equals(host.getAddress()) || !Hosts.isOnline(peer)) {
+          continue;
+        }
+        Integer peerTransferPort = Hosts.getPeerTransferPort(peer);
+        HostDomain peerHostDomain = peer.getHostDomain(domain);
+        if (peerTransferPort == null || peerHostDomain == null) {
+          continue;
+        }
+        HostDomainPartition peerPartition = peerHostDomain.getPartitionByNumber(partitionNumber);
+        if (peerPartition != null
+            && !peerPartition.isDeletable()
+            && peerPartition.getCurrentDomainVersion() != null
+            && peerPartition.getCurrentDomainVersion() == versionNumber) {
+          result.add(new InetSocketAddress(peer.getAddress().getHostName(), peerTransferPort));
+        }
+      }
+    }
+    return result;
+  }
+
+  // Return false if the peer cannot serve the version
+  private boolean fetchVersion(InetSocketAddress peer, int versionNumber, String destinationRoot) throws IOException {
+    RemoteFetchLimiter.Permit permit = RemoteFetchLimiter.acquire();
+    Socket socket = new Socket();
+    try {
+      socket.connect(peer, CONNECT_TIMEOUT_MS);
+      socket.setSoTimeout(PartitionTransferServer.SOCKET_TIMEOUT_MS);
+      DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+      outputStream.writeUTF(domain.getName());
+      outputStream.writeInt(partitionNumber);
+      outputStream.writeInt(versionNumber);
+      outputStream.flush();
+      DataInputStream inputStream = new DataInputStream(new BufferedInputStream(
+          BandwidthGovernor.throttle(socket.getInputStream(), BandwidthGovernor.Budget.NETWORK_READ),
+          IOStreamUtils.DEFAULT_BUFFER_SIZE));
+      byte status = inputStream.readByte();
+      if (status != PartitionTransferServer.STATUS_OK) {
+        LOG.info("Peer " + peer + " cannot serve domain " + domain.getName() + " partition " + partitionNumber
+            + " version " + versionNumber + (status == PartitionTransferServer.STATUS_BUSY ? " (busy)" : ""));
+        return false;
+      }
+      LOG.info("Fetching domain " + domain.getName() + " partition " + partitionNumber
+          + " version " + versionNumber + " from peer " + peer + " to " + destinationRoot);
+      int numFiles = inputStream.readInt();
+      for (int i = 0; i < numFiles; ++i) {
+        String fileName = inputStream.readUTF();
+        long length = inputStream.readLong();
+        // Only plain file names are accepted
+        if (fileName.isEmpty() || !fileName.equals(new File(fileName).getName()) || fileName.startsWith(".")) {
+          throw new IOException("Invalid file name received from peer " + peer + ": " + fileName);
+        }
+        OutputStream fileOutputStream = BandwidthGovernor.throttle(
+            new FileOutputStream(destinationRoot + "/" + fileName),
+            BandwidthGovernor.Budget.DISK_WRITE);
+        try {
+          PartitionTransferServer.copy(inputStream, fileOutputStream, length);
+        } finally {
+          fileOutputStream.close();
+        }
+      }
+      if (!inputStream.readBoolean()) {
+        throw new IOException("Peer " + peer + " started updating while sending domain " + domain.getName()
+            + " partition " + partitionNumber + " version " + versionNumber);
+      }
+      return true;
+    } finally {
+      PartitionTransferServer.closeQuietly(socket);
+      permit.release();
+    }
+  }
+}
@@ -0,0 +1,90 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.partition_server;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.liveramp.hank.config.QueryClassConfiguration;
+
+/**
+ * Runtime state of a query class: the number of concurrent requests it is
+ * executing, the virtual finish time of its latest GET BULK task (used by
+ * WeightedFairQueue), and request counters.
+ */
+class QueryClass {
+
+  static final String DEFAULT_NAME = "default";
+
+  private final String name;
+  private final int weight;
+  // Null when the number of concurrent requests is not limited
+  private final Semaphore concurrentRequests;
+  private double lastVirtualFinishTime = 0;
+  private final AtomicLong numRequests = new AtomicLong(0);
+  private final AtomicLong numRejectedRequests = new AtomicLong(0);
+
+  QueryClass(String name, int weight, int maxConcurrentRequests) {
+    this.name = name;
+    this.weight = weight;
+    if (maxConcurrentRequests > 0) {
+      this.concurrentRequests = new Semaphore(maxConcurrentRequests);
+    } else {
+      this.concurrentRequests = null;
+    }
+  }
+
+  QueryClass(QueryClassConfiguration configuration) {
+    this(configuration.getName(), configuration.getWeight(), configuration.getMaxConcurrentRequests());
+  }
+
+  String getName() {
+    return name;
+  }
+
+  // Return false when the class is already executing as many requests as allowed.
+  // Requests that were started must be released.
+  boolean tryStartRequest() {
+    numRequests.incrementAndGet();
+    if (concurrentRequests == null || concurrentRequests.tryAcquire()) {
+      return true;
+    } else {
+      numRejectedRequests.incrementAndGet();
+      return false;
+    }
+  }
+
+  void releaseRequest() {
+    if (concurrentRequests != null) {
+      concurrentRequests.release();
+    }
+  }
+
+  // A task of this class enqueued at the given virtual time finishes after the previous task of the class
+  // (or after the virtual time if the class was idle), and takes longer when the class weight is lower.
+  synchronized double getNextVirtualFinishTime(double virtualTime) {
+    lastVirtualFinishTime = Math.max(virtualTime, lastVirtualFinishTime) + 1.0 / weight;
+    return lastVirtualFinishTime;
+  }
+
+  long getAndResetNumRequests() {
+    return numRequests.getAndSet(0);
+  }
+
+  long getAndResetNumRejectedRequests() {
+    return numRejectedRequests.getAndSet(0);
+  }
+}
@@ -0,0 +1,139 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.partition_server;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.thrift.protocol.TCompactProtocol;
+import org.apache.thrift.server.TThreadedSelectorServer;
+import org.apache.thrift.transport.TNonblockingServerSocket;
+import org.apache.thrift.transport.TTransportException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.liveramp.hank.config.PartitionServerConfigurator;
+
+/**
+ * Data server based on Thrift's TThreadedSelectorServer: an accept thread,
+ * a configurable number of selector threads doing network I/O, and worker
+ * threads (as many as the number of concurrent queries) executing requests.
+ */
+public class ThriftSelectorDataServer implements DataServer {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ThriftSelectorDataServer.class);
+
+  private final TNonblockingServerSocket serverSocket;
+  private final TThreadedSelectorServer server;
+
+  public ThriftSelectorDataServer(int servicePort,
+                                  int numWorkerThreads,
+                                  int numSelectorThreads,
+                                  IfaceWithShutdown handler) throws IOException {
+    try {
+      serverSocket = new TNonblockingServerSocket(servicePort);
+    } catch (TTransportException e) {
+      throw new IOException("Failed to open server socket on port " + servicePort, e);
+    }
+    TThreadedSelectorServer.Args options = new TThreadedSelectorServer.Args(serverSocket);
+    options.processor(new DirectFramedTransport.Processor(new com.liveramp.hank.generated.PartitionServer.Processor(handler)));
+    options.workerThreads(numWorkerThreads);
+    options.selectorThreads(numSelectorThreads);
+    options.protocolFactory(new TCompactProtocol.Factory());
+    // Read request compression headers, and write (possibly compressed) responses directly into the server's response buffers
+    options.inputTransportFactory(new FramedInputTransport.Factory());
+    options.outputTransportFactory(new DirectFramedTransport.Factory());
+    server = new TThreadedSelectorServer(options);
+  }
+
+  @Override
+  public void serve() throws IOException {
+    LOG.info("Launching Thrift server.");
+    server.serve();
+    LOG.info("Thrift server exited.");
+    // The Thrift server does not clean up selectors after stopping, which leads to a file descriptor leak.
+    // See https://issues.apache.org/jira/browse/THRIFT-2274
+    // TODO: when the bug is fixed in Thrift, remove this ugly hack which takes care of the issue
+    List<Selector> selectors = getServerSelectors(server);
+    closeServerSelectors(selectors);
+    // Close the socket
+    serverSocket.close();
+  }
+
+  @Override
+  public void stop() {
+    server.stop();
+  }
+
+  @Override
+  public boolean isServing() {
+    return server.isServing();
+  }
+
+  static List<Selector> getServerSelectors(TThreadedSelectorServer server) {
+    List<Selector> result = new ArrayList<Selector>();
+    try {
+      // Get accept thread selector
+      Field acceptThreadField = server.getClass().getDeclaredField("acceptThread");
+      acceptThreadField.setAccessible(true);
+      Thread acceptThread = (Thread)acceptThreadField.get(server);
+      Field acceptSelectorField = acceptThread.getClass().getDeclaredField("acceptSelector");
+      acceptSelectorField.setAccessible(true);
+      Selector acceptSelector = (Selector)acceptSelectorField.get(acceptThread);
+      result.add(acceptSelector);
+      // Get the other selectors
+      Field selectorThreadField = server.getClass().getDeclaredField("selectorThreads");
+      selectorThreadField.setAccessible(true);
+      Set selectorThreads = (Set)selectorThreadField.get(server);
+      for (Object selectorThread : selectorThreads) {
+        Field selectorThreadSelectorField = selectorThread.getClass().getSuperclass().getDeclaredField("selector");
+        selectorThreadSelectorField.setAccessible(true);
+        Selector selector = (Selector)selectorThreadSelectorField.get(selectorThread);
+        result.add(selector);
+      }
+    } catch (NoSuchFieldException e) {
+      throw new RuntimeException(e);
+    } catch (IllegalAccessException e) {
+      throw new RuntimeException(e);
+    }
+    return result;
+  }
+
+  static void closeServerSelectors(List<Selector> selectors) {
+    for (Selector selector : selectors) {
+      try {
+        selector.close();
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }
+  }
+
+  public static class Factory implements DataServerFactory {
+
+    @Override
+    public DataServer getDataServer(PartitionServerConfigurator configurator, IfaceWithShutdown handler) throws IOException {
+      return new ThriftSelectorDataServer(configurator.getServicePort(),
+          configurator.getNumConcurrentQueries(),
+          configurator.getNumDataServerSelectorThreads(),
+          handler);
+    }
+  }
+}
@@ -0,0 +1,102 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.partition_server;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.liveramp.hank.util.FormatUtils;
+
+/**
+ * Adjusts the number of partitions updated concurrently in a data directory
+ * to maximize the number of bytes updated per second. Completed partition
+ * updates are grouped in windows; at the end of each window, the concurrency
+ * keeps moving in the same direction if the throughput improved, and moves in
+ * the opposite direction otherwise (hill climbing).
+ */
+public class UpdateConcurrencyController {
+
+  private static final Logger LOG = LoggerFactory.getLogger(UpdateConcurrencyController.class);
+
+  // Throughput has to improve by this ratio to be considered an improvement
+  static final double MIN_THROUGHPUT_IMPROVEMENT_RATIO = 0.05;
+  static final int MIN_NUM_UPDATES_PER_WINDOW = 2;
+
+  private final String dataDirectory;
+  private final int minConcurrency;
+  private final int maxConcurrency;
+  private int concurrency;
+  private int direction = 1;
+  private long windowStartTimeMs = -1;
+  private long windowNumBytes = 0;
+  private int windowNumUpdates = 0;
+  private double previousThroughput = -1;
+
+  public UpdateConcurrencyController(String dataDirectory,
+                                     int initialConcurrency,
+                                     int minConcurrency,
+                                     int maxConcurrency) {
+    if (minConcurrency < 1 || maxConcurrency < minConcurrency) {
+      throw new IllegalArgumentException("Invalid update concurrency bounds: [" + minConcurrency + ", " + maxConcurrency + "]");
+    }
+    this.dataDirectory = dataDirectory;
+    this.minConcurrency = minConcurrency;
+    this.maxConcurrency = maxConcurrency;
+    this.concurrency = Math.max(minConcurrency, Math.min(maxConcurrency, initialConcurrency));
+  }
+
+  public synchronized int getConcurrency() {
+    return concurrency;
+  }
+
+  /**
+   * Record a completed partition update and return the concurrency to use from now on.
+   * Updates that did not transfer any data (skipped or deleted partitions) are ignored.
+   */
+  public synchronized int record(PartitionUpdateTaskStatistics statistics) {
+    if (windowStartTimeMs < 0) {
+      windowStartTimeMs = statistics.getStartTimeMs();
+    }
+    if (statistics.getNumBytes() <= 0) {
+      return concurrency;
+    }
+    windowNumBytes += statistics.getNumBytes();
+    ++windowNumUpdates;
+    long windowDurationMs = statistics.getEndTimeMs() - windowStartTimeMs;
+    // Wait for about one update per concurrent slot before measuring
+    if (windowNumUpdates < Math.max(MIN_NUM_UPDATES_PER_WINDOW, concurrency) || windowDurationMs <= 0) {
+      return concurrency;
+    }
+    double throughput = (double)windowNumBytes / ((double)windowDurationMs / 1000.0d);
+    if (previousThroughput >= 0 && throughput < previousThroughput * (1.0d + MIN_THROUGHPUT_IMPROVEMENT_RATIO)) {
+      direction = -direction;
+    }
+    // At a bound, probe the other direction
+    if (concurrency + direction > maxConcurrency || concurrency + direction < minConcurrency) {
+      direction = -direction;
+    }
+    int previousConcurrency = concurrency;
+    concurrency = Math.max(minConcurrency, Math.min(maxConcurrency, concurrency + direction));
+    LOG.info("Updated " + FormatUtils.formatNumBytes(windowNumBytes) + " in " + dataDirectory
+        + " at " + FormatUtils.formatDataThroughput(throughput) + " with " + previousConcurrency
+        + " concurrent updates. Now using " + concurrency + " concurrent updates.");
+    previousThroughput = throughput;
+    windowStartTimeMs = statistics.getEndTimeMs();
+    windowNumBytes = 0;
+    windowNumUpdates = 0;
+    return concurrency;
+  }
+}
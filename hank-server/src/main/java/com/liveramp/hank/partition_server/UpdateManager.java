@@ -49,6 +49,9 @@ import com.liveramp.hank.coordinator.HostDomainPartition;
 import com.liveramp.hank.coordinator.Hosts;
 import com.liveramp.hank.coordinator.RingGroup;
 import com.liveramp.hank.storage.Deleter;
+import com.liveramp.hank.storage.FetchFromPeers;
+import com.liveramp.hank.storage.PartitionUpdater;
+import com.liveramp.hank.storage.RemoteFetchLimiter;
 import com.liveramp.hank.storage.StorageEngine;
 import com.liveramp.hank.util.DurationAggregator;
 import com.liveramp.hank.util.FormatUtils;
@@ -175,6 +178,7 @@ public class UpdateManager implements IUpdateManager {
     private final String dataDirectory;
     private final PartitionUpdateTaskStatisticsAggregator partitionUpdateTaskStatisticsAggregator;
     private final List<Throwable> encounteredThrowables;
+    private final PartitionUpdateTaskStatistics statistics = new PartitionUpdateTaskStatistics();
 
     public PartitionUpdateTask(HostDomain hostDomain,
                                HostDomainPartition partition,
@@ -198,9 +202,12 @@ public class UpdateManager implements IUpdateManager {
       return dataDirectory;
     }
 
+    public PartitionUpdateTaskStatistics getStatistics() {
+      return statistics;
+    }
+
     @Override
     public void run() {
-      PartitionUpdateTaskStatistics statistics = new PartitionUpdateTaskStatistics();
       statistics.setStartTimeMs(System.currentTimeMillis());
       try {
         // Determine target version
@@ -234,7 +241,12 @@ public class UpdateManager implements IUpdateManager {
           LOG.info(String.format(
               "Starting partition update of domain %s partition %d to version %d in %s.",
               domain.getName(), partition.getPartitionNumber(), targetDomainVersion.getVersionNumber(), getDataDirectory()));
-          storageEngine.getUpdater(configurator, partition.getPartitionNumber()).updateTo(targetDomainVersion, statistics);
+          PartitionUpdater updater = storageEngine.getUpdater(configurator, partition.getPartitionNumber());
+          if (configurator.getFetchFromPeers() && updater instanceof FetchFromPeers) {
+            ((FetchFromPeers)updater).setPeerPartitionFetcher(
+                new PeerPartitionTransferFetcher(host, ringGroup, domain, partition.getPartitionNumber()));
+          }
+          updater.updateTo(targetDomainVersion, statistics);
 
           // Record update success
           partition.setCurrentDomainVersion(targetDomainVersion.getVersionNumber());
@@ -282,10 +294,12 @@ public class UpdateManager implements IUpdateManager {
   private static class UpdateThreadPoolExecutor extends ThreadPoolExecutor {
 
     private final Semaphore semaphore;
+    private final UpdateConcurrencyController concurrencyController;
 
     public UpdateThreadPoolExecutor(int numThreads,
                                     ThreadFactory threadFactory,
-                                    Semaphore semaphore) {
+                                    Semaphore semaphore,
+                                    UpdateConcurrencyController concurrencyController) {
       // Essentially a fixed thread pool
       super(
           numThreads,
@@ -295,6 +309,7 @@ public class UpdateManager implements IUpdateManager {
           new LinkedBlockingQueue<Runnable>(),
           threadFactory);
       this.semaphore = semaphore;
+      this.concurrencyController = concurrencyController;
     }
 
     @Override
@@ -310,6 +325,20 @@ public class UpdateManager implements IUpdateManager {
     @Override
     protected void afterExecute(Runnable runnable, Throwable throwable) {
       semaphore.release();
+      if (concurrencyController != null && runnable instanceof PartitionUpdateTask) {
+        setNumThreads(concurrencyController.record(((PartitionUpdateTask)runnable).getStatistics()));
+      }
+    }
+
+    private synchronized void setNumThreads(int numThreads) {
+      // The core pool size can never exceed the maximum pool size
+      if (numThreads > getMaximumPoolSize()) {
+        setMaximumPoolSize(numThreads);
+        setCorePoolSize(numThreads);
+      } else if (numThreads < getMaximumPoolSize()) {
+        setCorePoolSize(numThreads);
+        setMaximumPoolSize(numThreads);
+      }
     }
   }
 
@@ -321,6 +350,7 @@ public class UpdateManager implements IUpdateManager {
     this.configurator = configurator;
     this.host = host;
     this.ringGroup = ringGroup;
+    RemoteFetchLimiter.setMaxConcurrentFetches(configurator.getMaxConcurrentFetches());
   }
 
   @Override
@@ -355,11 +385,20 @@ public class UpdateManager implements IUpdateManager {
       // Build executor services
       Map<String, ExecutorService> dataDirectoryToExecutorService = new HashMap<String, ExecutorService>();
       for (String dataDirectory : dataDirectoryToUpdateTasks.keySet()) {
+        UpdateConcurrencyController concurrencyController = null;
+        if (configurator.getAdaptiveUpdateConcurrency()) {
+          // More concurrent updates than the host wide limit would only wait on the semaphore
+          concurrencyController = new UpdateConcurrencyController(dataDirectory,
+              configurator.getMaxConcurrentUpdatesPerDataDirectory(),
+              1,
+              Math.max(1, configurator.getNumConcurrentUpdates()));
+        }
         dataDirectoryToExecutorService.put(dataDirectory,
             new UpdateThreadPoolExecutor(
-                configurator.getMaxConcurrentUpdatesPerDataDirectory(),
+                concurrencyController != null ? concurrencyController.getConcurrency() : configurator.getMaxConcurrentUpdatesPerDataDirectory(),
                 new UpdaterThreadFactory(dataDirectory),
-                concurrentUpdatesSemaphore));
+                concurrentUpdatesSemaphore,
+                concurrencyController));
       }
 
       // Execute tasks. We execute one task for each data directory and loop around so that the tasks
@@ -0,0 +1,112 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.partition_server;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Work queue of the GET BULK task executor. Tasks are dequeued in the order of
+ * their virtual finish times, which are computed by their QueryClass, so that
+ * classes that have tasks waiting get executor threads in proportion of their
+ * weights. A class that was idle does not accumulate credit since its tasks
+ * start from the current virtual time, which is the virtual finish time of the
+ * latest task dequeued. Within a class, tasks are executed in FIFO order.
+ */
+class WeightedFairQueue extends PriorityBlockingQueue<Runnable> {
+
+  interface Task extends Runnable {
+
+    double getVirtualFinishTime();
+
+    long getSequenceNumber();
+
+    // Time after which the task does not need to run anymore, or 0 if it has no deadline
+    long getDeadline();
+  }
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private static final Comparator<Runnable> COMPARATOR = new Comparator<Runnable>() {
+    @Override
+    public int compare(Runnable a, Runnable b) {
+      Task taskA = (Task)a;
+      Task taskB = (Task)b;
+      int result = Double.compare(taskA.getVirtualFinishTime(), taskB.getVirtualFinishTime());
+      if (result != 0) {
+        return result;
+      }
+      return taskA.getSequenceNumber() < taskB.getSequenceNumber() ? -1
+          : (taskA.getSequenceNumber() == taskB.getSequenceNumber() ? 0 : 1);
+    }
+  };
+
+  private volatile double virtualTime = 0;
+  private final AtomicLong nextSequenceNumber = new AtomicLong(0);
+
+  WeightedFairQueue() {
+    super(INITIAL_CAPACITY, COMPARATOR);
+  }
+
+  double getVirtualTime() {
+    return virtualTime;
+  }
+
+  long getNextSequenceNumber() {
+    return nextSequenceNumber.getAndIncrement();
+  }
+
+  @Override
+  public Runnable take() throws InterruptedException {
+    return dequeued(super.take());
+  }
+
+  @Override
+  public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+    return dequeued(super.poll(timeout, unit));
+  }
+
+  @Override
+  public Runnable poll() {
+    return dequeued(super.poll());
+  }
+
+  // Remove and return the tasks whose deadline has passed
+  List<Task> removeExpiredTasks(long now) {
+    List<Task> result = new ArrayList<Task>();
+    for (Runnable runnable : this) {
+      Task task = (Task)runnable;
+      if (task.getDeadline() != 0 && now > task.getDeadline() && remove(task)) {
+        result.add(task);
+      }
+    }
+    return result;
+  }
+
+  private Runnable dequeued(Runnable runnable) {
+    if (runnable != null) {
+      double virtualFinishTime = ((Task)runnable).getVirtualFinishTime();
+      if (virtualFinishTime > virtualTime) {
+        virtualTime = virtualFinishTime;
+      }
+    }
+    return runnable;
+  }
+}
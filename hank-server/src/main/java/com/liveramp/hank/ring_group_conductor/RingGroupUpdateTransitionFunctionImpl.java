@@ -54,12 +54,14 @@ public class RingGroupUpdateTransitionFunctionImpl implements RingGroupUpdateTra
   private static boolean isServingAndAboutToServe(Host host) throws IOException {
     return host.getState().equals(HostState.SERVING)
         && host.getCurrentCommand() == null
-        && host.getCommandQueue().size() == 0;
+        && host.getCommandQueue().size() == 0
+        && !Hosts.isUpdatingWhileServing(host);
   }
 
   /**
    * Return true iff host is serving and is not about to
-   * stop serving (i.e. there is no current or pending command). And we have observed
+   * stop serving (i.e. there is no current or pending command, and it is
+   * not updating while serving). And we have observed
    * that enough times in a row.
    *
    * @param host
@@ -161,6 +163,16 @@ public class RingGroupUpdateTransitionFunctionImpl implements RingGroupUpdateTra
       return;
     }
 
+    if (isFullyServing && isAssigned && !isUpToDate && numReplicasFullyServing > minNumReplicasFullyServing
+        && Hosts.isUpdateWhileServing(host)) {
+      // Host is serving, assigned, not up-to-date, there are more than enough replicas serving,
+      // and it keeps serving while updating. Update.
+      LOG.info("Host " + host.getAddress() + " is serving, assigned, not up-to-date, there are more than enough replicas serving, and it can update while serving. Update.");
+      Hosts.enqueueCommandIfNotPresent(host, HostCommand.EXECUTE_UPDATE);
+      removeFromReplicasFullyServing(domainToPartitionToHostsFullyServing, host);
+      return;
+    }
+
     if (isFullyServing && isAssigned && !isUpToDate && numReplicasFullyServing > minNumReplicasFullyServing) {
       // Host is serving, assigned, not up-to-date and there are more than enough replicas serving. Go idle.
       LOG.info("Host " + host.getAddress() + " is serving, assigned, not up-to-date, and there are more than enough replicas serving. Go idle.");
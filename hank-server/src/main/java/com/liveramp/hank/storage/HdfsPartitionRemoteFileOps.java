@@ -21,10 +21,24 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.slf4j.Logger; import org.slf4j.LoggerFactory;
@@ -35,6 +49,10 @@ import com.liveramp.hank.util.IOStreamUtils;
 public class HdfsPartitionRemoteFileOps implements PartitionRemoteFileOps {
 
   private static Logger LOG = LoggerFactory.getLogger(HdfsPartitionRemoteFileOps.class);
+
+  // Uncompressed files at least this large are fetched in ranges, concurrently
+  static final long RANGED_COPY_MIN_FILE_SIZE = 256L << 20;
+  static final long RANGED_COPY_RANGE_SIZE = 64L << 20;
   private final boolean useTrash;
 
   public static enum CompressionCodec {
@@ -68,6 +86,8 @@ public class HdfsPartitionRemoteFileOps implements PartitionRemoteFileOps {
   private final String partitionRoot;
   private final FileSystem fs;
   private final CompressionCodec compressionCodec;
+  private long rangedCopyMinFileSize = RANGED_COPY_MIN_FILE_SIZE;
+  private long rangedCopyRangeSize = RANGED_COPY_RANGE_SIZE;
 
   public HdfsPartitionRemoteFileOps(String remoteDomainRoot,
                                     int partitionNumber) throws IOException {
@@ -105,7 +125,9 @@ public class HdfsPartitionRemoteFileOps implements PartitionRemoteFileOps {
 
   @Override
   public InputStream getInputStream(String remoteRelativePath) throws IOException {
-    InputStream inputStream = fs.open(new Path(getRemoteAbsolutePath(remoteRelativePath)));
+    // Throttle the bytes actually transferred, before decompression
+    InputStream inputStream = BandwidthGovernor.throttle(fs.open(new Path(getRemoteAbsolutePath(remoteRelativePath))),
+        BandwidthGovernor.Budget.NETWORK_READ);
     if (compressionCodec == null) {
       return inputStream;
     } else {
@@ -142,15 +164,132 @@ public class HdfsPartitionRemoteFileOps implements PartitionRemoteFileOps {
   public void copyToLocalRoot(String remoteSourceRelativePath, String localDestinationRoot) throws IOException {
     Path source = new Path(getRemoteAbsolutePath(remoteSourceRelativePath));
     File destination = new File(localDestinationRoot + "/" + new Path(remoteSourceRelativePath).getName());
+    // Compressed files can only be read sequentially
+    if (compressionCodec == null) {
+      long length = fs.getFileStatus(source).getLen();
+      if (length >= rangedCopyMinFileSize) {
+        copyRangesToLocalFile(source, length, destination);
+        return;
+      }
+    }
     LOG.info("Copying remote file " + source + " to local file " + destination);
-    InputStream inputStream = getInputStream(remoteSourceRelativePath);
-    FileOutputStream fileOutputStream = new FileOutputStream(destination);
+    RemoteFetchLimiter.Permit permit = RemoteFetchLimiter.acquire();
     try {
-      IOStreamUtils.copy(inputStream, fileOutputStream);
-      fileOutputStream.flush();
+      InputStream inputStream = getInputStream(remoteSourceRelativePath);
+      OutputStream fileOutputStream = BandwidthGovernor.throttle(new FileOutputStream(destination),
+          BandwidthGovernor.Budget.DISK_WRITE);
+      try {
+        IOStreamUtils.copy(inputStream, fileOutputStream);
+        fileOutputStream.flush();
+      } finally {
+        inputStream.close();
+        fileOutputStream.close();
+      }
+    } finally {
+      permit.release();
+    }
+  }
+
+  private static class RangedCopyThreadFactory implements ThreadFactory {
+
+    private final String destination;
+    private AtomicInteger threadID = new AtomicInteger(0);
+
+    public RangedCopyThreadFactory(String destination) {
+      this.destination = destination;
+    }
+
+    @Override
+    public Thread newThread(Runnable r) {
+      return new Thread(r, "Ranged Copy Thread: " + destination + " #" + threadID.getAndIncrement());
+    }
+  }
+
+  void setRangedCopySizes(long rangedCopyMinFileSize, long rangedCopyRangeSize) {
+    this.rangedCopyMinFileSize = rangedCopyMinFileSize;
+    this.rangedCopyRangeSize = rangedCopyRangeSize;
+  }
+
+  // Preallocate the local file, and copy ranges of the remote file into it concurrently
+  private void copyRangesToLocalFile(final Path source, long length, File destination) throws IOException {
+    int numRanges = (int)((length + rangedCopyRangeSize - 1) / rangedCopyRangeSize);
+    LOG.info("Copying remote file " + source + " to local file " + destination + " in " + numRanges + " ranges");
+    RandomAccessFile file = new RandomAccessFile(destination, "rw");
+    try {
+      file.setLength(length);
+      final FileChannel channel = file.getChannel();
+      ExecutorService executor = Executors.newFixedThreadPool(
+          Math.min(numRanges, RemoteFetchLimiter.getMaxConcurrentFetches()),
+          new RangedCopyThreadFactory(destination.getPath()));
+      try {
+        List<Future<Void>> rangeCopies = new ArrayList<Future<Void>>();
+        for (long offset = 0; offset < length; offset += rangedCopyRangeSize) {
+          final long rangeOffset = offset;
+          final long rangeLength = Math.min(rangedCopyRangeSize, length - offset);
+          rangeCopies.add(executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws IOException {
+              copyRange(source, rangeOffset, rangeLength, channel);
+              return null;
+            }
+          }));
+        }
+        executor.shutdown();
+        for (Future<Void> rangeCopy : rangeCopies) {
+          rangeCopy.get();
+        }
+      } catch (InterruptedException e) {
+        throw new IOException("Interrupted while copying remote file " + source, e);
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof IOException) {
+          throw (IOException)e.getCause();
+        } else {
+          throw new IOException("Failed to copy remote file " + source, e.getCause());
+        }
+      } finally {
+        // Stop the remaining range copies and wait for them before closing the local file
+        executor.shutdownNow();
+        try {
+          while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+            LOG.info("Waiting for remaining range copies of " + source + " to stop");
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    } finally {
+      file.close();
+    }
+  }
+
+  private void copyRange(Path source, long offset, long length, FileChannel destination) throws IOException {
+    RemoteFetchLimiter.Permit permit = RemoteFetchLimiter.acquire();
+    try {
+      FSDataInputStream inputStream = fs.open(source);
+      try {
+        inputStream.seek(offset);
+        byte[] buffer = new byte[IOStreamUtils.DEFAULT_BUFFER_SIZE];
+        long position = offset;
+        long end = offset + length;
+        while (position < end) {
+          if (Thread.currentThread().isInterrupted()) {
+            throw new IOException("Interrupted while copying range of remote file " + source);
+          }
+          int numBytes = (int)Math.min(buffer.length, end - position);
+          BandwidthGovernor.consume(BandwidthGovernor.Budget.NETWORK_READ, numBytes);
+          inputStream.readFully(buffer, 0, numBytes);
+          BandwidthGovernor.consume(BandwidthGovernor.Budget.DISK_WRITE, numBytes);
+          ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, numBytes);
+          while (byteBuffer.hasRemaining()) {
+            destination.write(byteBuffer, position + byteBuffer.position());
+          }
+          position += numBytes;
+        }
+      } finally {
+        inputStream.close();
+      }
     } finally {
-      inputStream.close();
-      fileOutputStream.close();
+      permit.release();
     }
   }
 
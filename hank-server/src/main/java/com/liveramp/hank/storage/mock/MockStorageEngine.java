@@ -22,6 +22,7 @@ import java.util.Set;
 
 import com.liveramp.hank.config.DataDirectoriesConfigurator;
 import com.liveramp.hank.config.ReaderConfigurator;
+import com.liveramp.hank.config.UpdaterConfigurator;
 import com.liveramp.hank.coordinator.DomainVersion;
 import com.liveramp.hank.storage.Compactor;
 import com.liveramp.hank.storage.Deleter;
@@ -54,7 +55,7 @@ public class MockStorageEngine implements StorageEngine {
   }
 
   @Override
-  public PartitionUpdater getUpdater(DataDirectoriesConfigurator configurator, int partitionNumber) {
+  public PartitionUpdater getUpdater(UpdaterConfigurator configurator, int partitionNumber) {
     return null;
   }
 
@@ -17,14 +17,24 @@ package com.liveramp.hank.config.yaml;
 
 import java.io.FileWriter;
 import java.io.PrintWriter;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 
 import org.junit.Test;
 
+import com.liveramp.hank.config.InvalidConfigurationException;
+import com.liveramp.hank.config.QueryClassConfiguration;
 import com.liveramp.hank.coordinator.mock.MockCoordinator;
+import com.liveramp.hank.partition_server.NettyDataServer;
+import com.liveramp.hank.partition_server.ThriftSelectorDataServer;
 import com.liveramp.hank.test.BaseTestCase;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class TestYamlPartitionServerConfigurator extends BaseTestCase {
   private final String configPath = localTmpDir + "/config.yml";
@@ -39,15 +49,36 @@ public class TestYamlPartitionServerConfigurator extends BaseTestCase {
     pw.println("  ring_group_name: rg1");
     pw.println("  partition_server_daemon:");
     pw.println("    num_concurrent_queries: 5");
+    pw.println("    num_selector_threads: 2");
+    pw.println("    max_request_frame_size: 1048576");
     pw.println("    num_concurrent_get_bulk_tasks: 1");
     pw.println("    get_bulk_task_size: 2");
     pw.println("    get_timer_aggregator_window: 1000");
+    pw.println("    max_concurrent_reader_opens_per_data_directory: 3");
     pw.println("    buffer_reuse_max_size: 1024");
     pw.println("    cache_num_bytes_capacity: 1000000");
+    pw.println("    prewarm_max_num_bytes: 3000000");
     pw.println("    cache_num_items_capacity: 2000");
+    pw.println("    query_classes:");
+    pw.println("      online:");
+    pw.println("        weight: 8");
+    pw.println("        domains:");
+    pw.println("          - d1");
+    pw.println("          - d2");
+    pw.println("      batch:");
+    pw.println("        max_concurrent_requests: 4");
+    pw.println("        domains:");
+    pw.println("          - d3");
     pw.println("  update_daemon:");
     pw.println("    num_concurrent_updates: 5");
     pw.println("    max_concurrent_updates_per_data_directory: 2");
+    pw.println("    adaptive_update_concurrency: true");
+    pw.println("    update_while_serving: true");
+    pw.println("    max_concurrent_fetches: 6");
+    pw.println("    num_merge_threads: 3");
+    pw.println("    peer_transfer_port: 12346");
+    pw.println("    fetch_from_peers: false");
+    pw.println("    local_compaction: true");
     pw.println("coordinator:");
     pw.println("  factory: " + MockCoordinator.Factory.class.getName());
     pw.println("  options:");
@@ -60,9 +91,104 @@ public class TestYamlPartitionServerConfigurator extends BaseTestCase {
     assertEquals("rg1", conf.getRingGroupName());
     assertEquals(5, conf.getNumConcurrentUpdates());
     assertEquals(2, conf.getMaxConcurrentUpdatesPerDataDirectory());
+    assertTrue(conf.getAdaptiveUpdateConcurrency());
+    assertTrue(conf.getUpdateWhileServing());
+    assertEquals(6, conf.getMaxConcurrentFetches());
+    assertEquals(3, conf.getNumMergeThreads());
+    assertEquals(12346, conf.getPeerTransferPort());
+    assertEquals(2, conf.getMaxConcurrentPeerTransfers());
+    assertFalse(conf.getFetchFromPeers());
+    assertTrue(conf.getLocalCompaction());
+    assertEquals(10, conf.getLocalCompactionMaxQps());
     assertEquals(5, conf.getNumConcurrentQueries());
+    assertEquals(2, conf.getNumDataServerSelectorThreads());
+    assertEquals(1048576, conf.getMaxRequestFrameSize());
+    assertTrue(conf.getDataServerFactory() instanceof ThriftSelectorDataServer.Factory);
     assertEquals(1024, conf.getBufferReuseMaxSize());
     assertEquals(1000000, conf.getCacheNumBytesCapacity());
+    assertEquals(3000000, conf.getPrewarmMaxNumBytes());
+    assertEquals(5 * 60 * 1000, conf.getPrewarmMaxDurationMs());
     assertEquals(2000, conf.getCacheNumItemsCapacity());
+    assertEquals(0, conf.getMaxQueuedGetBulkTasks());
+    assertEquals(3, conf.getMaxConcurrentReaderOpensPerDataDirectory());
+
+    List<QueryClassConfiguration> queryClasses = conf.getQueryClassConfigurations();
+    assertEquals(2, queryClasses.size());
+    assertEquals("online", queryClasses.get(0).getName());
+    assertEquals(8, queryClasses.get(0).getWeight());
+    assertEquals(0, queryClasses.get(0).getMaxConcurrentRequests());
+    assertEquals(new HashSet<String>(Arrays.asList("d1", "d2")), queryClasses.get(0).getDomainNames());
+    assertEquals("batch", queryClasses.get(1).getName());
+    assertEquals(1, queryClasses.get(1).getWeight());
+    assertEquals(4, queryClasses.get(1).getMaxConcurrentRequests());
+    assertEquals(Collections.singleton("d3"), queryClasses.get(1).getDomainNames());
+  }
+
+  @Test
+  public void testInvalidQueryClassWeight() throws Exception {
+    writeMinimalConfiguration(
+        "    query_classes:",
+        "      batch:",
+        "        weight: 0",
+        "        domains:",
+        "          - d1");
+    try {
+      new YamlPartitionServerConfigurator(configPath);
+      fail("Should fail");
+    } catch (InvalidConfigurationException e) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void testDataServerFactory() throws Exception {
+    writeMinimalConfiguration("    data_server_factory: " + NettyDataServer.Factory.class.getName());
+    assertTrue(new YamlPartitionServerConfigurator(configPath).getDataServerFactory() instanceof NettyDataServer.Factory);
+
+    // Classes that are not data server factories are rejected when loading the configuration
+    writeMinimalConfiguration("    data_server_factory: java.lang.String");
+    try {
+      new YamlPartitionServerConfigurator(configPath);
+      fail("Should fail");
+    } catch (InvalidConfigurationException e) {
+      // Expected
+    }
+
+    writeMinimalConfiguration("    data_server_factory: com.liveramp.hank.partition_server.MissingDataServerFactory");
+    try {
+      new YamlPartitionServerConfigurator(configPath);
+      fail("Should fail");
+    } catch (InvalidConfigurationException e) {
+      // Expected
+    }
+  }
+
+  // Write a configuration with only the required options, and the given partition server daemon options
+  private void writeMinimalConfiguration(String... partitionServerDaemonLines) throws Exception {
+    PrintWriter pw = new PrintWriter(new FileWriter(configPath));
+    pw.println("partition_server:");
+    pw.println("  local_data_dirs: ");
+    pw.println("    - /path/to/some/data ");
+    pw.println("  service_port: 1");
+    pw.println("  ring_group_name: rg1");
+    pw.println("  partition_server_daemon:");
+    pw.println("    num_concurrent_queries: 5");
+    pw.println("    num_concurrent_get_bulk_tasks: 1");
+    pw.println("    get_bulk_task_size: 2");
+    pw.println("    get_timer_aggregator_window: 1000");
+    pw.println("    buffer_reuse_max_size: 1024");
+    pw.println("    cache_num_bytes_capacity: 1000000");
+    pw.println("    cache_num_items_capacity: 2000");
+    for (String line : partitionServerDaemonLines) {
+      pw.println(line);
+    }
+    pw.println("  update_daemon:");
+    pw.println("    num_concurrent_updates: 5");
+    pw.println("    max_concurrent_updates_per_data_directory: 2");
+    pw.println("coordinator:");
+    pw.println("  factory: " + MockCoordinator.Factory.class.getName());
+    pw.println("  options:");
+    pw.println("    blah: blah");
+    pw.close();
   }
 }
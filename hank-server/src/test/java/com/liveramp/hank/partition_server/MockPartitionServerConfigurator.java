@@ -16,9 +16,11 @@
 package com.liveramp.hank.partition_server;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 import com.liveramp.hank.config.PartitionServerConfigurator;
+import com.liveramp.hank.config.QueryClassConfiguration;
 import com.liveramp.hank.config.ReaderConfigurator;
 import com.liveramp.hank.coordinator.Coordinator;
 
@@ -65,6 +67,21 @@ public class MockPartitionServerConfigurator implements PartitionServerConfigura
     return 1;
   }
 
+  @Override
+  public DataServerFactory getDataServerFactory() {
+    return new ThriftSelectorDataServer.Factory();
+  }
+
+  @Override
+  public int getNumDataServerSelectorThreads() {
+    return 1;
+  }
+
+  @Override
+  public int getMaxRequestFrameSize() {
+    return 1 << 20;
+  }
+
   @Override
   public int getNumConcurrentGetBulkTasks() {
     return 1;
@@ -75,11 +92,26 @@ public class MockPartitionServerConfigurator implements PartitionServerConfigura
     return 1;
   }
 
+  @Override
+  public int getMaxQueuedGetBulkTasks() {
+    return 0;
+  }
+
   @Override
   public int getGetTimerAggregatorWindow() {
     return 10;
   }
 
+  @Override
+  public int getMaxConcurrentReaderOpensPerDataDirectory() {
+    return 2;
+  }
+
+  @Override
+  public List<QueryClassConfiguration> getQueryClassConfigurations() {
+    return Collections.emptyList();
+  }
+
   @Override
   public int getBufferReuseMaxSize() {
     return 0;
@@ -109,4 +141,59 @@ public class MockPartitionServerConfigurator implements PartitionServerConfigura
   public int getMaxConcurrentUpdatesPerDataDirectory() {
     return 10;
   }
+
+  @Override
+  public long getPrewarmMaxNumBytes() {
+    return 0;
+  }
+
+  @Override
+  public long getPrewarmMaxDurationMs() {
+    return 0;
+  }
+
+  @Override
+  public boolean getAdaptiveUpdateConcurrency() {
+    return false;
+  }
+
+  @Override
+  public boolean getUpdateWhileServing() {
+    return false;
+  }
+
+  @Override
+  public int getMaxConcurrentFetches() {
+    return 4;
+  }
+
+  @Override
+  public int getNumMergeThreads() {
+    return 1;
+  }
+
+  @Override
+  public int getPeerTransferPort() {
+    return 0;
+  }
+
+  @Override
+  public int getMaxConcurrentPeerTransfers() {
+    return 2;
+  }
+
+  @Override
+  public boolean getFetchFromPeers() {
+    return false;
+  }
+
+  @Override
+  public boolean getLocalCompaction() {
+    return false;
+  }
+
+  @Override
+  public int getLocalCompactionMaxQps() {
+    return 0;
+  }
 }
@@ -0,0 +1,136 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.partition_server;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.apache.thrift.TByteArrayOutputStream;
+import org.apache.thrift.protocol.TCompactProtocol;
+import org.apache.thrift.transport.TFramedTransport;
+import org.apache.thrift.transport.TIOStreamTransport;
+import org.apache.thrift.transport.TMemoryInputTransport;
+import org.apache.thrift.transport.TTransport;
+import org.junit.Test;
+import org.xerial.snappy.Snappy;
+
+import com.liveramp.hank.generated.HankBulkResponse;
+import com.liveramp.hank.generated.HankResponse;
+import com.liveramp.hank.test.BaseTestCase;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestDirectFramedTransport extends BaseTestCase {
+
+  @Test
+  public void testFactoryCreatesDirectTransports() throws Exception {
+    // Fails when the Thrift version in use does not let the factory reach the server's response buffers
+    assertTrue(DirectFramedTransport.Factory.supportsResponseCompression());
+    DirectFramedTransport.Factory factory = new DirectFramedTransport.Factory();
+    assertTrue(factory.getTransport(new TIOStreamTransport(new TByteArrayOutputStream())) instanceof DirectFramedTransport);
+    // Other transports are framed regularly
+    assertTrue(factory.getTransport(new TIOStreamTransport(new ByteArrayOutputStream())) instanceof TFramedTransport);
+  }
+
+  @Test
+  public void testSameFramesAsFramedTransport() throws Exception {
+    HankBulkResponse response = HankBulkResponse.responses(Arrays.asList(
+        HankResponse.value(ByteBuffer.wrap(new byte[100000])),
+        HankResponse.not_found(true)));
+
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    TFramedTransport framedTransport = new TFramedTransport(new TIOStreamTransport(expected));
+    response.write(new TCompactProtocol(framedTransport));
+    framedTransport.flush();
+
+    // Responses are written to the server's buffer, which is reset before each request
+    TByteArrayOutputStream responseBuffer = new TByteArrayOutputStream();
+    TTransport directTransport = new DirectFramedTransport(responseBuffer);
+    for (int i = 0; i < 2; ++i) {
+      responseBuffer.reset();
+      response.write(new TCompactProtocol(directTransport));
+      directTransport.flush();
+      assertArrayEquals(expected.toByteArray(), Arrays.copyOf(responseBuffer.get(), responseBuffer.len()));
+    }
+  }
+
+  @Test
+  public void testCompressedResponses() throws Exception {
+    HankBulkResponse response = HankBulkResponse.responses(Arrays.asList(
+        HankResponse.value(ByteBuffer.wrap(new byte[100000])),
+        HankResponse.not_found(true)));
+
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    TFramedTransport framedTransport = new TFramedTransport(new TIOStreamTransport(expected));
+    response.write(new TCompactProtocol(framedTransport));
+    framedTransport.flush();
+    byte[] expectedPayload = Arrays.copyOfRange(expected.toByteArray(), 4, expected.size());
+
+    TByteArrayOutputStream responseBuffer = new TByteArrayOutputStream();
+    DirectFramedTransport directTransport = new DirectFramedTransport(responseBuffer);
+
+    // Large enough response is compressed
+    directTransport.setRequestTransport(readRequest(1000));
+    responseBuffer.reset();
+    response.write(new TCompactProtocol(directTransport));
+    directTransport.flush();
+    byte[] frame = Arrays.copyOf(responseBuffer.get(), responseBuffer.len());
+    assertEquals(frame.length - 4, TFramedTransport.decodeFrameSize(frame));
+    assertEquals(ResponseCompression.RESPONSE_SNAPPY, frame[4]);
+    assertTrue(frame.length < expectedPayload.length);
+    byte[] uncompressed = new byte[Snappy.uncompressedLength(frame, 5, frame.length - 5)];
+    Snappy.uncompress(frame, 5, frame.length - 5, uncompressed, 0);
+    assertArrayEquals(expectedPayload, uncompressed);
+
+    // Smaller response is sent raw
+    directTransport.setRequestTransport(readRequest(1000000));
+    responseBuffer.reset();
+    response.write(new TCompactProtocol(directTransport));
+    directTransport.flush();
+    frame = Arrays.copyOf(responseBuffer.get(), responseBuffer.len());
+    assertEquals(frame.length - 4, TFramedTransport.decodeFrameSize(frame));
+    assertEquals(ResponseCompression.RESPONSE_RAW, frame[4]);
+    assertArrayEquals(expectedPayload, Arrays.copyOfRange(frame, 5, frame.length));
+
+    // Requests without header do not get compressed responses
+    FramedInputTransport inputTransport = new FramedInputTransport(new TMemoryInputTransport(new byte[]{0, 0, 0, 1, 42}));
+    inputTransport.readAll(new byte[1], 0, 1);
+    assertEquals(-1, inputTransport.getMinCompressedResponseSize());
+    directTransport.setRequestTransport(inputTransport);
+    responseBuffer.reset();
+    response.write(new TCompactProtocol(directTransport));
+    directTransport.flush();
+    assertArrayEquals(expected.toByteArray(), Arrays.copyOf(responseBuffer.get(), responseBuffer.len()));
+  }
+
+  private FramedInputTransport readRequest(int minCompressedResponseSize) throws Exception {
+    byte[] request = new byte[]{1, 2, 3};
+    byte[] frame = new byte[4 + ResponseCompression.REQUEST_HEADER_NUM_BYTES + request.length];
+    TFramedTransport.encodeFrameSize(frame.length - 4, frame);
+    ResponseCompression.encodeRequestHeader(minCompressedResponseSize, frame, 4);
+    System.arraycopy(request, 0, frame, 4 + ResponseCompression.REQUEST_HEADER_NUM_BYTES, request.length);
+    FramedInputTransport inputTransport = new FramedInputTransport(new TMemoryInputTransport(frame));
+    byte[] read = new byte[request.length];
+    inputTransport.readAll(read, 0, read.length);
+    // The request header is stripped
+    assertArrayEquals(request, read);
+    assertEquals(minCompressedResponseSize, inputTransport.getMinCompressedResponseSize());
+    return inputTransport;
+  }
+}
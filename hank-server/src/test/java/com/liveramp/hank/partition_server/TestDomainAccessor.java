@@ -10,6 +10,11 @@ import com.liveramp.hank.storage.mock.MockReader;
 import org.junit.Test;
 
 import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class TestDomainAccessor extends BaseTestCase {
   @Test
@@ -29,4 +34,34 @@ public class TestDomainAccessor extends BaseTestCase {
     drs.get(key, new ReaderResult());
     drs.get(nullKey, new ReaderResult());
   }
+
+  @Test
+  public void testSwapPartitionAccessor() throws Exception {
+    ByteBuffer key = ByteBuffer.wrap("key".getBytes());
+    final AtomicBoolean closed = new AtomicBoolean(false);
+
+    PartitionAccessor partitionAccessors[] = new PartitionAccessor[1];
+    partitionAccessors[0] = new PartitionAccessor(new MockHostDomainPartition(0, 1),
+        new MockReader(null, 0, "v1".getBytes(), 1) {
+          @Override
+          public void close() {
+            closed.set(true);
+          }
+        });
+    DomainAccessor drs = new DomainAccessor(new MockHostDomain(new MockDomain("domain")), partitionAccessors,
+        new MapPartitioner(key, 0), 0);
+
+    // A request in progress holds the previous accessor
+    PartitionAccessor previous = drs.getPartitionAccessor(0);
+    assertTrue(previous.acquire());
+    drs.swapPartitionAccessor(0, new PartitionAccessor(new MockHostDomainPartition(0, 2),
+        new MockReader(null, 0, "v2".getBytes(), 2)));
+    assertEquals(ByteBuffer.wrap("v2".getBytes()), drs.get(key, new ReaderResult()).buffer_for_value());
+
+    // The previous Reader is closed once the request is done
+    assertFalse(closed.get());
+    previous.release();
+    assertTrue(closed.get());
+    assertFalse(previous.acquire());
+  }
 }
@@ -0,0 +1,62 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.partition_server;
+
+import java.nio.ByteBuffer;
+
+import org.apache.thrift.protocol.TCompactProtocol;
+import org.apache.thrift.transport.TFramedTransport;
+import org.apache.thrift.transport.TSocket;
+import org.apache.thrift.transport.TTransportException;
+import org.junit.Test;
+
+import com.liveramp.hank.generated.HankResponse;
+import com.liveramp.hank.generated.PartitionServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+// Runs the data server tests against the Netty data server, which must be interchangeable with the Thrift one
+public class TestNettyDataServer extends TestThriftSelectorDataServer {
+
+  private static final int MAX_REQUEST_FRAME_SIZE = 64 * 1024;
+
+  @Override
+  protected DataServer createDataServer(int port, IfaceWithShutdown handler) {
+    return new NettyDataServer(port, 2, 2, MAX_REQUEST_FRAME_SIZE, handler);
+  }
+
+  @Test
+  public void testRequestFrameTooLarge() throws Exception {
+    TSocket socket = new TSocket("localhost", PORT);
+    socket.open();
+    PartitionServer.Client client = new PartitionServer.Client(new TCompactProtocol(new TFramedTransport(socket)));
+    try {
+      client.get(0, ByteBuffer.wrap(new byte[2 * MAX_REQUEST_FRAME_SIZE]));
+      fail("Should fail");
+    } catch (TTransportException e) {
+      // The connection was closed
+    }
+    socket.close();
+
+    // Other connections are still served
+    socket = new TSocket("localhost", PORT);
+    socket.open();
+    client = new PartitionServer.Client(new TCompactProtocol(new TFramedTransport(socket)));
+    assertEquals(HankResponse.value(SMALL_VALUE), client.get(0, ByteBuffer.wrap(new byte[0])));
+    socket.close();
+  }
+}
@@ -0,0 +1,162 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.partition_server;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.liveramp.hank.config.DataDirectoriesConfigurator;
+import com.liveramp.hank.coordinator.Domain;
+import com.liveramp.hank.coordinator.PartitionServerAddress;
+import com.liveramp.hank.coordinator.mock.MockDomain;
+import com.liveramp.hank.storage.mock.MockStorageEngine;
+import com.liveramp.hank.test.BaseTestCase;
+import com.liveramp.hank.test.coordinator.MockHost;
+import com.liveramp.hank.util.HankTimer;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestPartitionPrewarmer extends BaseTestCase {
+
+  private Domain domain;
+  private MockHost host;
+
+  @Before
+  public void setUp() throws Exception {
+    // Each partition has a 100 bytes Curly file and a 10 bytes Cueball file
+    for (int partitionNumber = 0; partitionNumber < 3; ++partitionNumber) {
+      FileUtils.writeByteArrayToFile(new File(getFile(partitionNumber, "00001.base.curly")), new byte[100]);
+      FileUtils.writeByteArrayToFile(new File(getFile(partitionNumber, "00001.base.cueball")), new byte[10]);
+    }
+    domain = new MockDomain("domain", 0, 3, null, new MockStorageEngine() {
+      @Override
+      public Set<String> getFiles(DataDirectoriesConfigurator configurator, int versionNumber, int partitionNumber) {
+        return new HashSet<String>(Arrays.asList(
+            getFile(partitionNumber, "00001.base.curly"),
+            getFile(partitionNumber, "00001.base.cueball")));
+      }
+    }, null, null);
+    host = new MockHost(new PartitionServerAddress("localhost", 12345));
+    host.addMockDomain(domain, 0, 1, 1, 1, 2, 1);
+  }
+
+  @Test
+  public void testOrder() throws IOException {
+    RecordingPartitionPrewarmer prewarmer = new RecordingPartitionPrewarmer(1 << 20, 60000);
+    assertEquals(330, prewarmer.prewarm(getPartitionNumRequests()));
+    // Most requested partitions first, and Cueball files first within a partition
+    assertEquals(Arrays.asList(
+        getFile(1, "00001.base.cueball"),
+        getFile(1, "00001.base.curly"),
+        getFile(0, "00001.base.cueball"),
+        getFile(0, "00001.base.curly"),
+        getFile(2, "00001.base.cueball"),
+        getFile(2, "00001.base.curly")),
+        prewarmer.readFiles);
+  }
+
+  @Test
+  public void testByteBudget() throws IOException {
+    RecordingPartitionPrewarmer prewarmer = new RecordingPartitionPrewarmer(115, 60000);
+    assertEquals(115, prewarmer.prewarm(getPartitionNumRequests()));
+    assertEquals(Arrays.asList(
+        getFile(1, "00001.base.cueball"),
+        getFile(1, "00001.base.curly"),
+        getFile(0, "00001.base.cueball")),
+        prewarmer.readFiles);
+
+    // Nothing is read without a budget
+    prewarmer = new RecordingPartitionPrewarmer(0, 60000);
+    assertEquals(0, prewarmer.prewarm(getPartitionNumRequests()));
+    assertEquals(Collections.<String>emptyList(), prewarmer.readFiles);
+  }
+
+  @Test
+  public void testTimeBudget() throws IOException {
+    // Reading stops once the duration has elapsed
+    RecordingPartitionPrewarmer prewarmer = new RecordingPartitionPrewarmer(1 << 20, 50) {
+      @Override
+      protected long read(String file, byte[] buffer, long maxNumBytes, HankTimer timer) throws IOException {
+        long numBytes = super.read(file, buffer, maxNumBytes, timer);
+        try {
+          Thread.sleep(100);
+        } catch (InterruptedException e) {
+          throw new IOException(e);
+        }
+        return numBytes;
+      }
+    };
+    assertEquals(10, prewarmer.prewarm(getPartitionNumRequests()));
+    assertEquals(Arrays.asList(getFile(1, "00001.base.cueball")), prewarmer.readFiles);
+
+    // Nothing is read when there is no time
+    prewarmer = new RecordingPartitionPrewarmer(1 << 20, 0);
+    assertEquals(0, prewarmer.prewarm(getPartitionNumRequests()));
+    assertEquals(Collections.<String>emptyList(), prewarmer.readFiles);
+  }
+
+  @Test
+  public void testPrewarmGivenPartitions() throws IOException {
+    RecordingPartitionPrewarmer prewarmer = new RecordingPartitionPrewarmer(1 << 20, 60000);
+    assertEquals(220, prewarmer.prewarm(Arrays.asList(
+        new PartitionPrewarmer.PartitionToPrewarm(domain, 2, 1, 0),
+        new PartitionPrewarmer.PartitionToPrewarm(domain, 0, 1, 1))));
+    assertEquals(Arrays.asList(
+        getFile(0, "00001.base.cueball"),
+        getFile(0, "00001.base.curly"),
+        getFile(2, "00001.base.cueball"),
+        getFile(2, "00001.base.curly")),
+        prewarmer.readFiles);
+  }
+
+  private Map<String, Map<Integer, Long>> getPartitionNumRequests() {
+    Map<Integer, Long> partitionNumRequests = new HashMap<Integer, Long>();
+    partitionNumRequests.put(0, 5L);
+    partitionNumRequests.put(1, 50L);
+    return Collections.singletonMap("domain", partitionNumRequests);
+  }
+
+  private String getFile(int partitionNumber, String name) {
+    return localTmpDir + "/" + partitionNumber + "/" + name;
+  }
+
+  private class RecordingPartitionPrewarmer extends PartitionPrewarmer {
+
+    private final List<String> readFiles = new ArrayList<String>();
+
+    public RecordingPartitionPrewarmer(long maxNumBytes, long maxDurationMs) {
+      super(null, host, maxNumBytes, maxDurationMs);
+    }
+
+    @Override
+    protected long read(String file, byte[] buffer, long maxNumBytes, HankTimer timer) throws IOException {
+      readFiles.add(file);
+      return super.read(file, buffer, maxNumBytes, timer);
+    }
+  }
+}
@@ -15,16 +15,28 @@
  */
 package com.liveramp.hank.partition_server;
 
+import com.liveramp.hank.config.DataDirectoriesConfigurator;
 import com.liveramp.hank.config.PartitionServerConfigurator;
+import com.liveramp.hank.config.UpdaterConfigurator;
+import com.liveramp.hank.coordinator.Domain;
+import com.liveramp.hank.coordinator.DomainVersion;
 import com.liveramp.hank.coordinator.Host;
 import com.liveramp.hank.coordinator.HostCommand;
+import com.liveramp.hank.coordinator.HostDomain;
 import com.liveramp.hank.coordinator.HostState;
+import com.liveramp.hank.coordinator.Hosts;
 import com.liveramp.hank.coordinator.PartitionServerAddress;
 import com.liveramp.hank.coordinator.Ring;
 import com.liveramp.hank.coordinator.RingGroup;
 import com.liveramp.hank.coordinator.mock.MockCoordinator;
+import com.liveramp.hank.coordinator.mock.MockDomain;
+import com.liveramp.hank.coordinator.mock.MockDomainVersion;
+import com.liveramp.hank.generated.DomainKey;
+import com.liveramp.hank.generated.HankBulkChunk;
 import com.liveramp.hank.generated.HankBulkResponse;
 import com.liveramp.hank.generated.HankResponse;
+import com.liveramp.hank.storage.LocalCompaction;
+import com.liveramp.hank.storage.mock.MockStorageEngine;
 import com.liveramp.hank.test.BaseTestCase;
 import com.liveramp.hank.test.coordinator.MockHost;
 import com.liveramp.hank.test.coordinator.MockRing;
@@ -40,8 +52,13 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -138,6 +155,41 @@ public class TestPartitionServer extends BaseTestCase {
           return HankBulkResponse.responses(Collections.singletonList(HankResponse.not_found(true)));
         }
 
+        @Override
+        public HankResponse getWithPartition(int domainId, ByteBuffer key, int partition) throws TException {
+          return HankResponse.not_found(true);
+        }
+
+        @Override
+        public HankBulkResponse getMulti(List<DomainKey> domainKeys) throws TException {
+          return HankBulkResponse.responses(Collections.singletonList(HankResponse.not_found(true)));
+        }
+
+        @Override
+        public HankBulkChunk getBulkStream(int domain_id, List<ByteBuffer> keys) throws TException {
+          return null;
+        }
+
+        @Override
+        public HankBulkChunk getBulkStreamNext(long stream_id) throws TException {
+          return null;
+        }
+
+        @Override
+        public String negotiateResponseCompression(List<String> codecs) throws TException {
+          return "";
+        }
+
+        @Override
+        public boolean checkPartitioner(int domainId, String partitioner, int numPartitions) throws TException {
+          return true;
+        }
+
+        @Override
+        public HankBulkResponse getBulkWithTimeout(int domain_id, List<ByteBuffer> keys, int timeout_ms) throws TException {
+          return null;
+        }
+
         @Override
         public void shutDown() throws InterruptedException {
         }
@@ -179,6 +231,41 @@ public class TestPartitionServer extends BaseTestCase {
     }
   }
 
+  private static final class MockLocalCompactionStorageEngine extends MockStorageEngine implements LocalCompaction {
+    final CountDownLatch compactionStarted = new CountDownLatch(1);
+    final CountDownLatch compactionAllowedToFinish = new CountDownLatch(1);
+    final AtomicInteger numCompactions = new AtomicInteger(0);
+    volatile boolean compacting = false;
+    volatile boolean localCompactionInProgress = false;
+
+    @Override
+    public boolean needsLocalCompaction(DataDirectoriesConfigurator configurator,
+                                        int partitionNumber,
+                                        DomainVersion currentVersion) {
+      return true;
+    }
+
+    @Override
+    public void compactLocally(UpdaterConfigurator configurator,
+                               int partitionNumber,
+                               DomainVersion currentVersion) throws IOException {
+      compacting = true;
+      compactionStarted.countDown();
+      try {
+        compactionAllowedToFinish.await();
+      } catch (InterruptedException e) {
+        throw new IOException(e);
+      }
+      numCompactions.incrementAndGet();
+      compacting = false;
+    }
+
+    @Override
+    public boolean isLocalCompactionInProgress(DataDirectoriesConfigurator configurator, int partitionNumber) {
+      return localCompactionInProgress;
+    }
+  }
+
   @Test
   public void testColdStartAndShutDown() throws Exception {
     final SleepingUpdateManager updateManager = new SleepingUpdateManager();
@@ -263,6 +350,181 @@ public class TestPartitionServer extends BaseTestCase {
     assertEquals(HostState.OFFLINE, fixtures.host.getState());
   }
 
+  @Test
+  public void testUpdateWhileServing() throws Exception {
+    final CountDownLatch updateStarted = new CountDownLatch(1);
+    final CountDownLatch updateAllowedToFinish = new CountDownLatch(1);
+    final AtomicInteger numReloads = new AtomicInteger(0);
+    MockPartitionServerConfigurator configurator = new MockPartitionServerConfigurator(Fixtures.PORT_1,
+        fixtures.mockCoord, "myRingGroup", null) {
+      @Override
+      public boolean getUpdateWhileServing() {
+        return true;
+      }
+    };
+    final PartitionServer partitionServer = new MockPartitionServer(configurator, "localhost") {
+      @Override
+      protected IUpdateManager getUpdateManager() {
+        return new MockUpdateManager() {
+          @Override
+          public void update() throws IOException {
+            updateStarted.countDown();
+            try {
+              updateAllowedToFinish.await();
+            } catch (InterruptedException e) {
+              throw new IOException(e);
+            }
+          }
+        };
+      }
+
+      @Override
+      protected void reloadServingData() throws IOException {
+        numReloads.incrementAndGet();
+      }
+    };
+
+    Thread thread = createPartitionServerThread(partitionServer);
+    thread.start();
+    waitUntilHost(HostState.IDLE, fixtures.host);
+    assertTrue(Hosts.isUpdateWhileServing(fixtures.host));
+
+    fixtures.host.enqueueCommand(HostCommand.SERVE_DATA);
+    waitUntilHost(HostState.SERVING, fixtures.host);
+
+    // The host keeps serving while it updates, but is flagged as updating
+    fixtures.host.enqueueCommand(HostCommand.EXECUTE_UPDATE);
+    updateStarted.await();
+    assertEquals(HostState.SERVING, fixtures.host.getState());
+    assertEquals(HostCommand.EXECUTE_UPDATE, fixtures.host.getCurrentCommand());
+    assertTrue(Hosts.isUpdatingWhileServing(fixtures.host));
+    assertEquals(0, numReloads.get());
+
+    // Once the update is done, updated partitions are swapped in and the flag is cleared
+    updateAllowedToFinish.countDown();
+    WaitUntil.orDie(new Condition() {
+      @Override
+      public boolean test() {
+        try {
+          return fixtures.host.getCurrentCommand() == null;
+        } catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    });
+    assertEquals(1, numReloads.get());
+    assertFalse(Hosts.isUpdatingWhileServing(fixtures.host));
+    assertEquals(HostState.SERVING, fixtures.host.getState());
+
+    partitionServer.stopSynchronized();
+    thread.join();
+    assertEquals(HostState.OFFLINE, fixtures.host.getState());
+  }
+
+  @Test
+  public void testLocalCompactionPausedDuringUpdate() throws Exception {
+    final MockLocalCompactionStorageEngine storageEngine = new MockLocalCompactionStorageEngine();
+    Domain domain = new MockDomain("domain", 0, 2, null, storageEngine, null, new MockDomainVersion(1, 0L));
+    final HostDomain hostDomain = fixtures.host.addMockDomain(domain, 0, 1, 1, 1);
+    final CountDownLatch updateStarted = new CountDownLatch(1);
+    final CountDownLatch updateAllowedToFinish = new CountDownLatch(1);
+    final AtomicBoolean compactingDuringUpdate = new AtomicBoolean(false);
+    MockPartitionServerConfigurator configurator = new MockPartitionServerConfigurator(Fixtures.PORT_1,
+        fixtures.mockCoord, "myRingGroup", null) {
+      @Override
+      public boolean getLocalCompaction() {
+        return true;
+      }
+    };
+    final PartitionServer partitionServer = new MockPartitionServer(configurator, "localhost") {
+      @Override
+      protected IUpdateManager getUpdateManager() {
+        return new MockUpdateManager() {
+          @Override
+          public void update() throws IOException {
+            compactingDuringUpdate.set(storageEngine.compacting);
+            updateStarted.countDown();
+            try {
+              updateAllowedToFinish.await();
+            } catch (InterruptedException e) {
+              throw new IOException(e);
+            }
+          }
+        };
+      }
+
+      @Override
+      protected long getLocalCompactionCheckPeriodMs() {
+        return 10;
+      }
+    };
+
+    Thread thread = createPartitionServerThread(partitionServer);
+    thread.start();
+    waitUntilHost(HostState.IDLE, fixtures.host);
+
+    // Partitions keep their current version while they are compacted
+    storageEngine.compactionStarted.await();
+    assertEquals(Integer.valueOf(1), hostDomain.getPartitionByNumber(0).getCurrentDomainVersion());
+    assertEquals(Integer.valueOf(1), hostDomain.getPartitionByNumber(1).getCurrentDomainVersion());
+
+    // The update waits for the running compaction to finish
+    fixtures.host.enqueueCommand(HostCommand.EXECUTE_UPDATE);
+    assertFalse(updateStarted.await(500, TimeUnit.MILLISECONDS));
+    storageEngine.compactionAllowedToFinish.countDown();
+    updateStarted.await();
+    assertFalse(compactingDuringUpdate.get());
+    assertEquals(1, storageEngine.numCompactions.get());
+
+    // No compaction starts during the update
+    Thread.sleep(200);
+    assertEquals(1, storageEngine.numCompactions.get());
+
+    // Compactions resume once the update is done
+    updateAllowedToFinish.countDown();
+    WaitUntil.orDie(new Condition() {
+      @Override
+      public boolean test() {
+        return storageEngine.numCompactions.get() == 2;
+      }
+    });
+    assertEquals(Integer.valueOf(1), hostDomain.getPartitionByNumber(0).getCurrentDomainVersion());
+    assertEquals(Integer.valueOf(1), hostDomain.getPartitionByNumber(1).getCurrentDomainVersion());
+
+    partitionServer.stopSynchronized();
+    thread.join();
+    assertEquals(HostState.OFFLINE, fixtures.host.getState());
+  }
+
+  @Test
+  public void testResetInterruptedLocalCompactions() throws Exception {
+    MockLocalCompactionStorageEngine storageEngine = new MockLocalCompactionStorageEngine();
+    storageEngine.localCompactionInProgress = true;
+    Domain domain = new MockDomain("domain", 0, 1, null, storageEngine, null, new MockDomainVersion(1, 0L));
+    final HostDomain hostDomain = fixtures.host.addMockDomain(domain, 0, 1);
+    final PartitionServer partitionServer = new MockPartitionServer(fixtures.CONFIGURATOR1, "localhost");
+
+    Thread thread = createPartitionServerThread(partitionServer);
+    thread.start();
+    waitUntilHost(HostState.IDLE, fixtures.host);
+
+    // The partition will be updated again
+    WaitUntil.orDie(new Condition() {
+      @Override
+      public boolean test() {
+        try {
+          return hostDomain.getPartitionByNumber(0).getCurrentDomainVersion() == null;
+        } catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    });
+
+    partitionServer.stopSynchronized();
+    thread.join();
+    assertEquals(HostState.OFFLINE, fixtures.host.getState());
+  }
+
   @Test
   public void testUpdateFailure() throws Exception {
     final FailingUpdateManager updateManager = new FailingUpdateManager();
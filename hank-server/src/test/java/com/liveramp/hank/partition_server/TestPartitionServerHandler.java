@@ -19,14 +19,20 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.thrift.TException;
 import org.junit.Test;
 
 import com.liveramp.hank.config.PartitionServerConfigurator;
+import com.liveramp.hank.config.QueryClassConfiguration;
 import com.liveramp.hank.config.ReaderConfigurator;
 import com.liveramp.hank.coordinator.Coordinator;
 import com.liveramp.hank.coordinator.Domain;
@@ -34,17 +40,22 @@ import com.liveramp.hank.coordinator.DomainAndVersion;
 import com.liveramp.hank.coordinator.Host;
 import com.liveramp.hank.coordinator.HostDomain;
 import com.liveramp.hank.coordinator.HostDomainPartition;
+import com.liveramp.hank.coordinator.Hosts;
 import com.liveramp.hank.coordinator.PartitionServerAddress;
 import com.liveramp.hank.coordinator.Ring;
 import com.liveramp.hank.coordinator.RingGroup;
 import com.liveramp.hank.coordinator.mock.MockCoordinator;
 import com.liveramp.hank.coordinator.mock.MockDomain;
 import com.liveramp.hank.coordinator.mock.MockDomainGroup;
+import com.liveramp.hank.generated.DomainKey;
+import com.liveramp.hank.generated.HankBulkChunk;
 import com.liveramp.hank.generated.HankBulkResponse;
 import com.liveramp.hank.generated.HankException;
 import com.liveramp.hank.generated.HankResponse;
+import com.liveramp.hank.partitioner.Murmur64Partitioner;
 import com.liveramp.hank.partitioner.Partitioner;
 import com.liveramp.hank.storage.Reader;
+import com.liveramp.hank.storage.ReaderResult;
 import com.liveramp.hank.storage.mock.MockReader;
 import com.liveramp.hank.storage.mock.MockStorageEngine;
 import com.liveramp.hank.test.BaseTestCase;
@@ -54,8 +65,12 @@ import com.liveramp.hank.test.coordinator.MockHostDomainPartition;
 import com.liveramp.hank.test.coordinator.MockRing;
 import com.liveramp.hank.test.coordinator.MockRingGroup;
 import com.liveramp.hank.test.partitioner.MapPartitioner;
+import com.liveramp.hank.util.Condition;
+import com.liveramp.hank.util.WaitUntil;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class TestPartitionServerHandler extends BaseTestCase {
@@ -66,7 +81,21 @@ public class TestPartitionServerHandler extends BaseTestCase {
   private static final ByteBuffer K4 = bb(4);
   private static final ByteBuffer K5 = bb(5);
   private static final byte[] V1 = new byte[]{9};
-  private static final Host mockHostConfig = new MockHost(
+  private static final byte[] V2 = new byte[]{10};
+  private static final HankBulkResponse DEADLINE_EXCEEDED_BULK = HankBulkResponse.xception(HankException.deadline_exceeded(true));
+  private static final HankBulkResponse OVERLOADED_BULK = HankBulkResponse.xception(HankException.overloaded(true));
+
+  // Lookups performed by readers. When the latch is set, lookups wait for it.
+  private final AtomicInteger numLookups = new AtomicInteger(0);
+  private volatile CountDownLatch lookupLatch = null;
+  // When set, the host's partitions are at this version, and new readers serve V2 at this version
+  private volatile Integer updatedVersionNumber = null;
+  private final AtomicInteger numClosedReaders = new AtomicInteger(0);
+  // Reader opens attempted by the storage engine. When the latch is set, opens wait for it.
+  private final AtomicInteger numReaderOpens = new AtomicInteger(0);
+  private volatile CountDownLatch readerOpenLatch = null;
+  private volatile Set<Integer> failingReaderPartitions = Collections.emptySet();
+  private final Host mockHostConfig = new MockHost(
       new PartitionServerAddress("localhost", 12345)) {
 
     @Override
@@ -80,9 +109,10 @@ public class TestPartitionServerHandler extends BaseTestCase {
 
         @Override
         public Set<HostDomainPartition> getPartitions() throws IOException {
+          int versionNumber = updatedVersionNumber == null ? 0 : updatedVersionNumber;
           return new HashSet<HostDomainPartition>(Arrays.asList(
-              new MockHostDomainPartition(0, 0),
-              new MockHostDomainPartition(4, 0)));
+              new MockHostDomainPartition(0, versionNumber),
+              new MockHostDomainPartition(4, versionNumber)));
         }
       };
     }
@@ -112,6 +142,47 @@ public class TestPartitionServerHandler extends BaseTestCase {
         handler.get(0, K4));
   }
 
+  @Test
+  public void testServeWithPartition() throws Exception {
+    PartitionServerHandler handler = createHandler(0);
+
+    assertEquals(HankResponse.value(V1), handler.getWithPartition(0, K1, 0));
+    assertEquals(HankResponse.value(V1), handler.getWithPartition(0, K5, 4));
+    assertEquals(HankResponse.xception(HankException.wrong_host(true)),
+        handler.getWithPartition(0, K2, 1));
+    // Invalid partition
+    assertTrue(handler.getWithPartition(0, K1, 5).is_set_xception());
+    assertTrue(handler.getWithPartition(0, K1, -1).is_set_xception());
+  }
+
+  @Test
+  public void testCheckPartitioner() throws Exception {
+    PartitionServerHandler handler = createHandler(0);
+
+    assertTrue(handler.checkPartitioner(0, MapPartitioner.class.getName(), 5));
+    // Different partitioner or number of partitions
+    assertFalse(handler.checkPartitioner(0, Murmur64Partitioner.class.getName(), 5));
+    assertFalse(handler.checkPartitioner(0, MapPartitioner.class.getName(), 4));
+    // Unknown domain
+    assertFalse(handler.checkPartitioner(1, MapPartitioner.class.getName(), 5));
+  }
+
+  @Test
+  public void testServeMulti() throws Exception {
+    PartitionServerHandler handler = createHandler(0);
+
+    HankBulkResponse response = handler.getMulti(Arrays.asList(
+        new DomainKey(0, K1),
+        new DomainKey(1, K1),
+        new DomainKey(0, K2),
+        new DomainKey(0, K5)));
+    assertEquals(4, response.get_responses().size());
+    assertEquals(HankResponse.value(V1), response.get_responses().get(0));
+    assertEquals(HankResponse.xception(HankException.no_such_domain(true)), response.get_responses().get(1));
+    assertEquals(HankResponse.xception(HankException.wrong_host(true)), response.get_responses().get(2));
+    assertEquals(HankResponse.value(V1), response.get_responses().get(3));
+  }
+
   @Test
   public void testSetUpAndServeBulk() throws Exception {
     PartitionServerHandler handler = createHandler(0);
@@ -139,17 +210,360 @@ public class TestPartitionServerHandler extends BaseTestCase {
     assertEquals(HankBulkResponse.responses(responses2), handler.getBulk(0, keys2));
   }
 
+  @Test
+  public void testServeBulkWithTimeout() throws Exception {
+    PartitionServerHandler handler = createHandler(0);
+
+    assertEquals(HankException.no_such_domain(true),
+        handler.getBulkWithTimeout(1, Arrays.asList(K1), 1000).get_xception());
+
+    List<ByteBuffer> keys = new ArrayList<ByteBuffer>();
+    for (int i = 0; i < 1000; ++i) {
+      keys.add(i % 2 == 0 ? K1 : K2);
+    }
+    // Requests that complete before their deadline are served normally
+    assertEquals(handler.getBulk(0, keys), handler.getBulkWithTimeout(0, keys, 60000));
+    // A timeout of 0 means no deadline
+    assertEquals(handler.getBulk(0, keys), handler.getBulkWithTimeout(0, keys, 0));
+  }
+
+  @Test
+  public void testServeBulkStream() throws Exception {
+    PartitionServerHandler handler = createHandler(0);
+
+    assertEquals(HankException.no_such_domain(true),
+        handler.getBulkStream(1, Arrays.asList(K1)).get_xception());
+
+    // Large streamed request, responses are received in chunks
+    List<ByteBuffer> keys = new ArrayList<ByteBuffer>();
+    for (int i = 0; i < 10000; ++i) {
+      keys.add(i % 2 == 0 ? K1 : K2);
+    }
+    HankResponse[] responses = new HankResponse[keys.size()];
+    int numResponses = 0;
+    HankBulkChunk chunk = handler.getBulkStream(0, keys);
+    while (true) {
+      assertFalse(chunk.is_set_xception());
+      for (int i = 0; i < chunk.get_key_indexes().size(); ++i) {
+        responses[chunk.get_key_indexes().get(i)] = chunk.get_responses().get(i);
+        ++numResponses;
+      }
+      if (chunk.is_last()) {
+        break;
+      }
+      chunk = handler.getBulkStreamNext(chunk.get_stream_id());
+    }
+    assertEquals(keys.size(), numResponses);
+    for (int i = 0; i < keys.size(); ++i) {
+      if (i % 2 == 0) {
+        assertEquals(HankResponse.value(V1), responses[i]);
+      } else {
+        assertEquals(HankResponse.xception(HankException.wrong_host(true)), responses[i]);
+      }
+    }
+    // Stream is done
+    assertTrue(handler.getBulkStreamNext(chunk.get_stream_id()).is_set_xception());
+  }
+
+  @Test
+  public void testDropExpiredBulkRequests() throws Exception {
+    final PartitionServerHandler handler = createHandler(0, 2, Collections.<QueryClassConfiguration>emptyList());
+    lookupLatch = new CountDownLatch(1);
+    numLookups.set(0);
+
+    // Keep the only GET BULK thread busy
+    GetBulkThread busy = new GetBulkThread(handler, Arrays.asList(K1), 0);
+    busy.start();
+    waitForNumLookups(1);
+
+    // Tasks that time out while queued are dropped as soon as room is needed in the queue
+    GetBulkThread expired = new GetBulkThread(handler, Arrays.asList(K1, K5), 1);
+    expired.start();
+    waitForNumQueuedTasks(handler, 2);
+    Thread.sleep(10);
+    GetBulkThread accepted = new GetBulkThread(handler, Arrays.asList(K1), 0);
+    accepted.start();
+    expired.join();
+    assertEquals(DEADLINE_EXCEEDED_BULK, expired.response);
+    waitForNumQueuedTasks(handler, 1);
+
+    lookupLatch.countDown();
+    busy.join();
+    accepted.join();
+    assertEquals(HankBulkResponse.responses(Arrays.asList(HankResponse.value(V1))), busy.response);
+    assertEquals(HankBulkResponse.responses(Arrays.asList(HankResponse.value(V1))), accepted.response);
+    // Expired requests did not perform any lookup
+    assertEquals(2, numLookups.get());
+
+    // Requests that are already past their deadline when their tasks start perform no lookup
+    lookupLatch = new CountDownLatch(1);
+    busy = new GetBulkThread(handler, Arrays.asList(K1), 0);
+    busy.start();
+    waitForNumLookups(3);
+    expired = new GetBulkThread(handler, Arrays.asList(K1, K5), 1);
+    expired.start();
+    waitForNumQueuedTasks(handler, 2);
+    Thread.sleep(10);
+    lookupLatch.countDown();
+    busy.join();
+    expired.join();
+    assertEquals(DEADLINE_EXCEEDED_BULK, expired.response);
+    assertEquals(3, numLookups.get());
+    lookupLatch = null;
+  }
+
+  @Test
+  public void testShedBulkRequestsWhenQueueIsFull() throws Exception {
+    final PartitionServerHandler handler = createHandler(0, 2, Collections.<QueryClassConfiguration>emptyList());
+    lookupLatch = new CountDownLatch(1);
+    numLookups.set(0);
+
+    GetBulkThread busy = new GetBulkThread(handler, Arrays.asList(K1), 0);
+    busy.start();
+    waitForNumLookups(1);
+    GetBulkThread queued = new GetBulkThread(handler, Arrays.asList(K1, K5), 0);
+    queued.start();
+    waitForNumQueuedTasks(handler, 2);
+
+    // The queue is full
+    assertEquals(OVERLOADED_BULK, handler.getBulk(0, Arrays.asList(K1)));
+    assertEquals(OVERLOADED_BULK, handler.getBulkWithTimeout(0, Arrays.asList(K1), 60000));
+    assertEquals(HankException.overloaded(true), handler.getBulkStream(0, Arrays.asList(K1)).get_xception());
+
+    lookupLatch.countDown();
+    busy.join();
+    queued.join();
+    assertEquals(HankBulkResponse.responses(Arrays.asList(HankResponse.value(V1), HankResponse.value(V1))),
+        queued.response);
+    assertEquals(3, numLookups.get());
+    lookupLatch = null;
+  }
+
+  @Test
+  public void testQueryClassConcurrencyLimit() throws Exception {
+    PartitionServerHandler handler = createHandler(0, 0, Collections.singletonList(
+        new QueryClassConfiguration("batch", 1, 1, Collections.singleton("myDomain"))));
+    List<ByteBuffer> keys = new ArrayList<ByteBuffer>();
+    for (int i = 0; i < 100; ++i) {
+      keys.add(K1);
+    }
+
+    // A stream counts as a request of its query class until it is done
+    HankBulkChunk chunk = handler.getBulkStream(0, keys);
+    assertFalse(chunk.is_set_xception());
+    assertFalse(chunk.is_last());
+    assertEquals(OVERLOADED_BULK, handler.getBulk(0, Arrays.asList(K1)));
+    assertEquals(HankException.overloaded(true), handler.getBulkStream(0, Arrays.asList(K1)).get_xception());
+
+    while (!chunk.is_last()) {
+      chunk = handler.getBulkStreamNext(chunk.get_stream_id());
+      assertFalse(chunk.is_set_xception());
+    }
+    assertEquals(HankBulkResponse.responses(Arrays.asList(HankResponse.value(V1))),
+        handler.getBulk(0, Arrays.asList(K1)));
+  }
+
+  @Test
+  public void testLoadReadersInParallel() throws Exception {
+    readerOpenLatch = new CountDownLatch(1);
+    final AtomicReference<PartitionServerHandler> handler = new AtomicReference<PartitionServerHandler>();
+    Thread loadingThread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          handler.set(createHandler(0));
+        } catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    });
+    loadingThread.start();
+
+    // Both partitions are opened at the same time, and progress is reported while they load
+    WaitUntil.orDie(new Condition() {
+      @Override
+      public boolean test() {
+        return numReaderOpens.get() == 2 && Hosts.computeReaderLoadingProgress(mockHostConfig) == 0;
+      }
+    });
+
+    readerOpenLatch.countDown();
+    loadingThread.join();
+    assertEquals(HankResponse.value(V1), handler.get().get(0, K1));
+    assertEquals(HankResponse.value(V1), handler.get().get(0, K5));
+    // Progress is cleared once loading is done
+    assertTrue(Hosts.computeReaderLoadingProgress(mockHostConfig) < 0);
+  }
+
+  @Test
+  public void testReaderLoadingFailures() throws Exception {
+    failingReaderPartitions = new HashSet<Integer>(Arrays.asList(0, 4));
+    try {
+      createHandler(0);
+      fail("Should fail");
+    } catch (IOException e) {
+      // All failures are reported together, once every Reader was attempted
+      assertTrue(e.getMessage().contains("Encountered 2 exceptions"));
+    }
+    assertEquals(2, numReaderOpens.get());
+    assertTrue(Hosts.computeReaderLoadingProgress(mockHostConfig) < 0);
+
+    // A single failure does not prevent other Readers from loading
+    numReaderOpens.set(0);
+    failingReaderPartitions = Collections.singleton(0);
+    try {
+      createHandler(0);
+      fail("Should fail");
+    } catch (IOException e) {
+      assertTrue(e.getMessage().contains("Encountered 1 exceptions"));
+    }
+    assertEquals(2, numReaderOpens.get());
+  }
+
+  @Test
+  public void testSwapReadersUnderConcurrentGets() throws Exception {
+    final PartitionServerHandler handler = createHandler(0);
+    final AtomicBoolean stopped = new AtomicBoolean(false);
+    final AtomicInteger numUnexpectedResponses = new AtomicInteger(0);
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int i = 0; i < 4; ++i) {
+      Thread thread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          while (!stopped.get()) {
+            HankResponse response = handler.get(0, K1);
+            if (!response.equals(HankResponse.value(V1)) && !response.equals(HankResponse.value(V2))) {
+              numUnexpectedResponses.incrementAndGet();
+            }
+          }
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    WaitUntil.orDie(new Condition() {
+      @Override
+      public boolean test() {
+        return numLookups.get() > 1000;
+      }
+    });
+
+    // Partitions were updated
+    updatedVersionNumber = 1;
+    handler.reloadPartitionAccessors();
+
+    // Gets started after the swap read the new version
+    assertEquals(HankResponse.value(V2), handler.get(0, K1));
+    assertEquals(HankResponse.value(V2), handler.get(0, K5));
+
+    stopped.set(true);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    // In-flight gets completed against the previous readers, which were closed only after being released
+    assertEquals(0, numUnexpectedResponses.get());
+    assertEquals(2, numClosedReaders.get());
+
+    // Reloading without new versions does not swap anything
+    handler.reloadPartitionAccessors();
+    assertEquals(2, numClosedReaders.get());
+    assertEquals(HankResponse.value(V2), handler.get(0, K1));
+  }
+
+  private static class GetBulkThread extends Thread {
+
+    private final PartitionServerHandler handler;
+    private final List<ByteBuffer> keys;
+    private final int timeoutMs;
+    private volatile HankBulkResponse response;
+
+    private GetBulkThread(PartitionServerHandler handler, List<ByteBuffer> keys, int timeoutMs) {
+      this.handler = handler;
+      this.keys = keys;
+      this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    public void run() {
+      response = handler.getBulkWithTimeout(0, keys, timeoutMs);
+    }
+  }
+
+  private void waitForNumLookups(final int expected) throws InterruptedException {
+    WaitUntil.orDie(new Condition() {
+      @Override
+      public boolean test() {
+        return numLookups.get() == expected;
+      }
+    });
+  }
+
+  private static void waitForNumQueuedTasks(final PartitionServerHandler handler, final int expected) throws InterruptedException {
+    WaitUntil.orDie(new Condition() {
+      @Override
+      public boolean test() {
+        return handler.getNumQueuedGetBulkTasks() == expected;
+      }
+    });
+  }
+
   private PartitionServerHandler createHandler(final int readerVersionNumber) throws IOException {
+    return createHandler(readerVersionNumber, 0, Collections.<QueryClassConfiguration>emptyList());
+  }
+
+  private PartitionServerHandler createHandler(final int readerVersionNumber,
+                                               final int maxQueuedGetBulkTasks,
+                                               final List<QueryClassConfiguration> queryClassConfigurations) throws IOException {
     Partitioner partitioner = new MapPartitioner(K1, 0, K2, 1, K3, 2, K4, 3,
         K5, 4);
     MockStorageEngine storageEngine = new MockStorageEngine() {
       @Override
       public Reader getReader(ReaderConfigurator configurator, int partitionNumber)
           throws IOException {
-        return new MockReader(configurator, partitionNumber, V1, readerVersionNumber) {
+        numReaderOpens.incrementAndGet();
+        CountDownLatch latch = readerOpenLatch;
+        if (latch != null) {
+          try {
+            latch.await();
+          } catch (InterruptedException e) {
+            throw new IOException(e);
+          }
+        }
+        if (failingReaderPartitions.contains(partitionNumber)) {
+          throw new IOException("Failed to open Reader of partition " + partitionNumber);
+        }
+        Integer updatedVersion = updatedVersionNumber;
+        final int versionNumber = updatedVersion == null ? readerVersionNumber : updatedVersion;
+        return new MockReader(configurator, partitionNumber, updatedVersion == null ? V1 : V2, versionNumber) {
+
+          private volatile boolean closed = false;
+
           @Override
           public Integer getVersionNumber() {
-            return readerVersionNumber;
+            return versionNumber;
+          }
+
+          @Override
+          public void close() {
+            closed = true;
+            numClosedReaders.incrementAndGet();
+          }
+
+          @Override
+          public void get(ByteBuffer key, ReaderResult result) throws IOException {
+            if (closed) {
+              throw new IOException("Reader is closed");
+            }
+            numLookups.incrementAndGet();
+            CountDownLatch latch = lookupLatch;
+            if (latch != null) {
+              try {
+                latch.await();
+              } catch (InterruptedException e) {
+                throw new IOException(e);
+              }
+            }
+            super.get(key, result);
           }
         };
       }
@@ -186,7 +600,17 @@ public class TestPartitionServerHandler extends BaseTestCase {
       }
     };
     PartitionServerConfigurator config = new MockPartitionServerConfigurator(12345,
-        mockCoordinator, "myRingGroupName", "/tmp/local/data/dir");
+        mockCoordinator, "myRingGroupName", "/tmp/local/data/dir") {
+      @Override
+      public int getMaxQueuedGetBulkTasks() {
+        return maxQueuedGetBulkTasks;
+      }
+
+      @Override
+      public List<QueryClassConfiguration> getQueryClassConfigurations() {
+        return queryClassConfigurations;
+      }
+    };
     PartitionServerHandler handler = new PartitionServerHandler(new PartitionServerAddress(
         "localhost", 12345), config, mockCoordinator);
     return handler;
@@ -0,0 +1,105 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.partition_server;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import com.liveramp.hank.config.DataDirectoriesConfigurator;
+import com.liveramp.hank.coordinator.Domain;
+import com.liveramp.hank.coordinator.Host;
+import com.liveramp.hank.coordinator.HostState;
+import com.liveramp.hank.coordinator.Hosts;
+import com.liveramp.hank.coordinator.PartitionServerAddress;
+import com.liveramp.hank.coordinator.Ring;
+import com.liveramp.hank.coordinator.mock.MockCoordinator;
+import com.liveramp.hank.coordinator.mock.MockDomain;
+import com.liveramp.hank.coordinator.mock.MockDomainVersion;
+import com.liveramp.hank.storage.mock.MockStorageEngine;
+import com.liveramp.hank.test.BaseTestCase;
+import com.liveramp.hank.test.coordinator.MockHost;
+import com.liveramp.hank.test.coordinator.MockRing;
+import com.liveramp.hank.test.coordinator.MockRingGroup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestPartitionTransferServer extends BaseTestCase {
+
+  @Test
+  public void testTransfer() throws Exception {
+    final String peerRoot = localTmpDir + "/peer";
+    final String destinationRoot = localTmpDir + "/destination";
+    new File(peerRoot).mkdirs();
+    new File(destinationRoot).mkdirs();
+    FileUtils.writeStringToFile(new File(peerRoot + "/00002.base.cueball"), "cueball");
+    FileUtils.writeStringToFile(new File(peerRoot + "/00002.base.curly"), "curly");
+
+    final Domain domain = new MockDomain("domain", 0, 1, null, new MockStorageEngine() {
+      @Override
+      public Set<String> getFiles(DataDirectoriesConfigurator configurator, int versionNumber, int partitionNumber) {
+        Set<String> result = new HashSet<String>();
+        result.add(peerRoot + "/0000" + versionNumber + ".base.cueball");
+        result.add(peerRoot + "/0000" + versionNumber + ".base.curly");
+        return result;
+      }
+    }, null, null);
+
+    MockHost peer = new MockHost(new PartitionServerAddress("localhost", 1));
+    peer.setState(HostState.SERVING);
+    peer.addMockDomain(domain, 0, 2);
+    MockHost host = new MockHost(new PartitionServerAddress("localhost", 2));
+    MockRing ring = new MockRing(new HashSet<Host>(), null, 0);
+    ring.getHosts().add(peer);
+    ring.getHosts().add(host);
+    MockRingGroup ringGroup = new MockRingGroup(null, "rg", Collections.<Ring>singleton(ring));
+
+    PartitionTransferServer server = new PartitionTransferServer(new MockPartitionServerConfigurator(12345, null, "rg", localTmpDir),
+        new MockCoordinator() {
+          @Override
+          public Domain getDomain(String domainName) {
+            return domain.getName().equals(domainName) ? domain : null;
+          }
+        }, peer, 0, 1);
+    Thread serverThread = new Thread(server);
+    serverThread.start();
+    try {
+      PeerPartitionTransferFetcher fetcher = new PeerPartitionTransferFetcher(host, ringGroup, domain, 0);
+
+      // The peer does not advertise a transfer port yet
+      assertFalse(fetcher.fetchVersion(new MockDomainVersion(2, 0L), destinationRoot));
+
+      Hosts.setPeerTransferPort(peer, server.getPort());
+      // The peer is not at the requested version
+      assertFalse(fetcher.fetchVersion(new MockDomainVersion(3, 0L), destinationRoot));
+      assertEquals(0, new File(destinationRoot).list().length);
+
+      assertTrue(fetcher.fetchVersion(new MockDomainVersion(2, 0L), destinationRoot));
+      assertEquals("cueball", FileUtils.readFileToString(new File(destinationRoot + "/00002.base.cueball")));
+      assertEquals("curly", FileUtils.readFileToString(new File(destinationRoot + "/00002.base.curly")));
+    } finally {
+      server.stop();
+      serverThread.join();
+    }
+  }
+}
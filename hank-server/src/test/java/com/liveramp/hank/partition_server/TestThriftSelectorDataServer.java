@@ -0,0 +1,213 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.partition_server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.thrift.TException;
+import org.apache.thrift.protocol.TCompactProtocol;
+import org.apache.thrift.transport.TFramedTransport;
+import org.apache.thrift.transport.TSocket;
+import org.apache.thrift.transport.TTransport;
+import org.apache.thrift.transport.TTransportException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.liveramp.hank.client.CompressedResponseFramedTransport;
+import com.liveramp.hank.generated.DomainKey;
+import com.liveramp.hank.generated.HankBulkChunk;
+import com.liveramp.hank.generated.HankBulkResponse;
+import com.liveramp.hank.generated.HankResponse;
+import com.liveramp.hank.generated.PartitionServer;
+import com.liveramp.hank.test.BaseTestCase;
+import com.liveramp.hank.util.Condition;
+import com.liveramp.hank.util.WaitUntil;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestThriftSelectorDataServer extends BaseTestCase {
+
+  protected static final int PORT = 50012;
+  protected static final ByteBuffer SMALL_VALUE = ByteBuffer.wrap(new byte[]{1, 2, 3});
+  private static final ByteBuffer LARGE_VALUE = ByteBuffer.wrap(new byte[100000]);
+
+  private DataServer dataServer;
+  private Thread dataServerThread;
+
+  // Return a large value for non empty keys, and a small one otherwise
+  private static class Handler implements IfaceWithShutdown {
+
+    @Override
+    public HankResponse get(int domainId, ByteBuffer key) throws TException {
+      return HankResponse.value(key.remaining() > 0 ? LARGE_VALUE : SMALL_VALUE);
+    }
+
+    @Override
+    public HankResponse getWithPartition(int domainId, ByteBuffer key, int partition) throws TException {
+      return get(domainId, key);
+    }
+
+    @Override
+    public HankBulkResponse getBulk(int domainId, List<ByteBuffer> keys) throws TException {
+      return null;
+    }
+
+    @Override
+    public HankBulkResponse getBulkWithTimeout(int domainId, List<ByteBuffer> keys, int timeoutMs) throws TException {
+      return null;
+    }
+
+    @Override
+    public HankBulkResponse getMulti(List<DomainKey> domainKeys) throws TException {
+      return null;
+    }
+
+    @Override
+    public HankBulkChunk getBulkStream(int domainId, List<ByteBuffer> keys) throws TException {
+      return null;
+    }
+
+    @Override
+    public HankBulkChunk getBulkStreamNext(long streamId) throws TException {
+      return null;
+    }
+
+    @Override
+    public String negotiateResponseCompression(List<String> codecs) throws TException {
+      return codecs.contains(ResponseCompression.SNAPPY) ? ResponseCompression.SNAPPY : "";
+    }
+
+    @Override
+    public boolean checkPartitioner(int domainId, String partitioner, int numPartitions) throws TException {
+      return true;
+    }
+
+    @Override
+    public void shutDown() throws InterruptedException {
+    }
+  }
+
+  // Count the bytes read from the given transport
+  private static class CountingTransport extends TTransport {
+
+    private final TTransport transport;
+    private long numBytesRead = 0;
+
+    private CountingTransport(TTransport transport) {
+      this.transport = transport;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return transport.isOpen();
+    }
+
+    @Override
+    public void open() throws TTransportException {
+      transport.open();
+    }
+
+    @Override
+    public void close() {
+      transport.close();
+    }
+
+    @Override
+    public int read(byte[] buf, int off, int len) throws TTransportException {
+      int numBytes = transport.read(buf, off, len);
+      numBytesRead += numBytes;
+      return numBytes;
+    }
+
+    @Override
+    public void write(byte[] buf, int off, int len) throws TTransportException {
+      transport.write(buf, off, len);
+    }
+
+    @Override
+    public void flush() throws TTransportException {
+      transport.flush();
+    }
+  }
+
+  protected DataServer createDataServer(int port, IfaceWithShutdown handler) throws IOException {
+    return new ThriftSelectorDataServer(port, 2, 1, handler);
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    dataServer = createDataServer(PORT, new Handler());
+    dataServerThread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          dataServer.serve();
+        } catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    });
+    dataServerThread.start();
+    WaitUntil.orDie(new Condition() {
+      @Override
+      public boolean test() {
+        return dataServer.isServing();
+      }
+    });
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    dataServer.stop();
+    dataServerThread.join();
+  }
+
+  @Test
+  public void testNegotiatedResponseCompression() throws Exception {
+    CountingTransport socket = new CountingTransport(new TSocket("localhost", PORT));
+    socket.open();
+    PartitionServer.Client client = new PartitionServer.Client(new TCompactProtocol(new TFramedTransport(socket)));
+    assertEquals(ResponseCompression.SNAPPY,
+        client.negotiateResponseCompression(Collections.singletonList(ResponseCompression.SNAPPY)));
+    client = new PartitionServer.Client(new TCompactProtocol(new CompressedResponseFramedTransport(socket, 1000)));
+
+    // Large response is compressed
+    long numBytesRead = socket.numBytesRead;
+    assertEquals(HankResponse.value(LARGE_VALUE), client.get(0, ByteBuffer.wrap(new byte[]{1})));
+    assertTrue(socket.numBytesRead - numBytesRead < LARGE_VALUE.capacity() / 10);
+
+    // Small response is sent raw
+    assertEquals(HankResponse.value(SMALL_VALUE), client.get(0, ByteBuffer.wrap(new byte[0])));
+    socket.close();
+  }
+
+  @Test
+  public void testNoResponseCompression() throws Exception {
+    // Connections that do not negotiate response compression get regular responses
+    CountingTransport socket = new CountingTransport(new TSocket("localhost", PORT));
+    socket.open();
+    PartitionServer.Client client = new PartitionServer.Client(new TCompactProtocol(new TFramedTransport(socket)));
+    assertEquals(HankResponse.value(LARGE_VALUE), client.get(0, ByteBuffer.wrap(new byte[]{1})));
+    assertTrue(socket.numBytesRead > LARGE_VALUE.capacity());
+    assertEquals(HankResponse.value(SMALL_VALUE), client.get(0, ByteBuffer.wrap(new byte[0])));
+    socket.close();
+  }
+}
@@ -0,0 +1,64 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.partition_server;
+
+import org.junit.Test;
+
+import com.liveramp.hank.test.BaseTestCase;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestUpdateConcurrencyController extends BaseTestCase {
+
+  @Test
+  public void testHillClimbing() {
+    UpdateConcurrencyController controller = new UpdateConcurrencyController("/data", 1, 1, 4);
+    assertEquals(1, controller.getConcurrency());
+
+    // First window: 100 B/s, probe a higher concurrency
+    assertEquals(1, record(controller, 0, 1000, 100));
+    assertEquals(2, record(controller, 1000, 2000, 100));
+
+    // Skipped partitions are ignored
+    assertEquals(2, record(controller, 2000, 2001, 0));
+
+    // 400 B/s, keep going up
+    assertEquals(2, record(controller, 2000, 3000, 200));
+    assertEquals(3, record(controller, 2000, 3000, 200));
+
+    // 300 B/s, go back down
+    assertEquals(3, record(controller, 3000, 4000, 100));
+    assertEquals(3, record(controller, 3000, 4000, 100));
+    assertEquals(2, record(controller, 3000, 4000, 100));
+  }
+
+  @Test
+  public void testBounds() {
+    UpdateConcurrencyController controller = new UpdateConcurrencyController("/data", 10, 1, 2);
+    assertEquals(2, controller.getConcurrency());
+    // At the upper bound, the lower concurrency is probed
+    assertEquals(2, record(controller, 0, 1000, 100));
+    assertEquals(1, record(controller, 0, 1000, 100));
+  }
+
+  private static int record(UpdateConcurrencyController controller, long startTimeMs, long endTimeMs, long numBytes) {
+    PartitionUpdateTaskStatistics statistics = new PartitionUpdateTaskStatistics();
+    statistics.setStartTimeMs(startTimeMs);
+    statistics.setEndTimeMs(endTimeMs);
+    statistics.addNumBytesFetched(numBytes);
+    return controller.record(statistics);
+  }
+}
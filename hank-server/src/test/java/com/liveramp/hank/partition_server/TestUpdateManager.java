@@ -17,6 +17,7 @@
 package com.liveramp.hank.partition_server;
 
 import com.liveramp.hank.config.DataDirectoriesConfigurator;
+import com.liveramp.hank.config.UpdaterConfigurator;
 import com.liveramp.hank.coordinator.Domain;
 import com.liveramp.hank.coordinator.DomainAndVersion;
 import com.liveramp.hank.coordinator.DomainGroup;
@@ -111,7 +112,7 @@ public class TestUpdateManager extends BaseTestCase {
       }
 
       @Override
-      public PartitionUpdater getUpdater(DataDirectoriesConfigurator configurator, int partitionNumber) {
+      public PartitionUpdater getUpdater(UpdaterConfigurator configurator, int partitionNumber) {
         return updater;
       }
 
@@ -0,0 +1,131 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.partition_server;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+import com.liveramp.hank.test.BaseTestCase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestWeightedFairQueue extends BaseTestCase {
+
+  private static class MockTask implements WeightedFairQueue.Task {
+
+    private final QueryClass queryClass;
+    private final double virtualFinishTime;
+    private final long sequenceNumber;
+    private final long deadline;
+
+    private MockTask(WeightedFairQueue queue, QueryClass queryClass) {
+      this(queue, queryClass, 0);
+    }
+
+    private MockTask(WeightedFairQueue queue, QueryClass queryClass, long deadline) {
+      this.queryClass = queryClass;
+      this.virtualFinishTime = queryClass.getNextVirtualFinishTime(queue.getVirtualTime());
+      this.sequenceNumber = queue.getNextSequenceNumber();
+      this.deadline = deadline;
+    }
+
+    @Override
+    public double getVirtualFinishTime() {
+      return virtualFinishTime;
+    }
+
+    @Override
+    public long getSequenceNumber() {
+      return sequenceNumber;
+    }
+
+    @Override
+    public long getDeadline() {
+      return deadline;
+    }
+
+    @Override
+    public void run() {
+    }
+  }
+
+  @Test
+  public void testWeights() throws Exception {
+    WeightedFairQueue queue = new WeightedFairQueue();
+    QueryClass online = new QueryClass("online", 3, 0);
+    QueryClass batch = new QueryClass("batch", 1, 0);
+
+    // Batch tasks are queued first
+    for (int i = 0; i < 8; ++i) {
+      queue.add(new MockTask(queue, batch));
+    }
+    for (int i = 0; i < 8; ++i) {
+      queue.add(new MockTask(queue, online));
+    }
+    // Online tasks get three times as many turns
+    int numOnline = 0;
+    for (int i = 0; i < 8; ++i) {
+      if (((MockTask)queue.take()).queryClass == online) {
+        ++numOnline;
+      }
+    }
+    assertEquals(6, numOnline);
+
+    // A class that becomes active again is served before the backlog of other classes
+    while (queue.poll() != null) {
+    }
+    assertNull(queue.poll());
+    for (int i = 0; i < 4; ++i) {
+      queue.add(new MockTask(queue, batch));
+    }
+    queue.add(new MockTask(queue, online));
+    assertTrue(((MockTask)queue.take()).queryClass == online);
+    assertTrue(((MockTask)queue.take()).queryClass == batch);
+  }
+
+  @Test
+  public void testRemoveExpiredTasks() throws Exception {
+    WeightedFairQueue queue = new WeightedFairQueue();
+    QueryClass queryClass = new QueryClass("batch", 1, 0);
+    MockTask noDeadline = new MockTask(queue, queryClass);
+    MockTask expired = new MockTask(queue, queryClass, 1000);
+    MockTask notExpired = new MockTask(queue, queryClass, 3000);
+    queue.add(noDeadline);
+    queue.add(expired);
+    queue.add(notExpired);
+
+    assertEquals(Collections.<WeightedFairQueue.Task>singletonList(expired), queue.removeExpiredTasks(2000));
+    assertEquals(2, queue.size());
+    assertTrue(queue.take() == noDeadline);
+    assertTrue(queue.take() == notExpired);
+  }
+
+  @Test
+  public void testConcurrencyLimit() {
+    QueryClass queryClass = new QueryClass("batch", 1, 2);
+    assertTrue(queryClass.tryStartRequest());
+    assertTrue(queryClass.tryStartRequest());
+    assertFalse(queryClass.tryStartRequest());
+    queryClass.releaseRequest();
+    assertTrue(queryClass.tryStartRequest());
+    assertEquals(4, queryClass.getAndResetNumRequests());
+    assertEquals(1, queryClass.getAndResetNumRejectedRequests());
+  }
+}
@@ -34,6 +34,7 @@ import com.liveramp.hank.coordinator.HostCommand;
 import com.liveramp.hank.coordinator.HostDomain;
 import com.liveramp.hank.coordinator.HostDomainPartition;
 import com.liveramp.hank.coordinator.HostState;
+import com.liveramp.hank.coordinator.Hosts;
 import com.liveramp.hank.coordinator.PartitionServerAddress;
 import com.liveramp.hank.coordinator.Ring;
 import com.liveramp.hank.coordinator.mock.MockDomain;
@@ -210,6 +211,11 @@ public class TestRingGroupUpdateTransitionFunctionImpl extends BaseTestCase {
     r0h0.setCurrentCommand(HostCommand.GO_TO_IDLE);
     r0h0.clearCommandQueue();
     assertFalse(transitionFunction.isFullyServing(r0h0, true));
+
+    // Hosts updating while serving are not fully serving
+    r0h1.setCurrentCommand(null);
+    Hosts.setUpdatingWhileServing(r0h1, true);
+    assertFalse(transitionFunction.isFullyServing(r0h1, true));
   }
 
   @Test
@@ -360,6 +366,63 @@ public class TestRingGroupUpdateTransitionFunctionImpl extends BaseTestCase {
     assertNull(r2h1.getAndClearLastEnqueuedCommand());
   }
 
+  @Test
+  public void testUpdateWhileServing() throws IOException {
+    domainGroup.setDomainVersions(versionsMap2);
+
+    setUpRing(r0, v1, v2, HostState.SERVING);
+    setUpRing(r1, v1, v2, HostState.SERVING);
+    setUpRing(r2, v1, v2, HostState.SERVING);
+    for (Host host : Arrays.<Host>asList(r0h0, r0h1, r1h0, r1h1, r2h0, r2h1)) {
+      Hosts.setUpdateWhileServing(host, true);
+    }
+
+    testTransitionFunction.manageTransitions(rg);
+
+    // Serving hosts in r0 should update without going idle
+    assertEquals(HostCommand.EXECUTE_UPDATE, r0h0.getAndClearLastEnqueuedCommand());
+    assertEquals(HostCommand.EXECUTE_UPDATE, r0h1.getAndClearLastEnqueuedCommand());
+
+    // No commands should have been issued to other rings
+    assertNull(r1h0.getAndClearLastEnqueuedCommand());
+    assertNull(r1h1.getAndClearLastEnqueuedCommand());
+    assertNull(r2h0.getAndClearLastEnqueuedCommand());
+    assertNull(r2h1.getAndClearLastEnqueuedCommand());
+
+    // r0 is updating while serving
+    for (MockHostLocal host : Arrays.asList(r0h0, r0h1)) {
+      host.nextCommand();
+      Hosts.setUpdatingWhileServing(host, true);
+    }
+
+    testTransitionFunction.manageTransitions(rg);
+
+    // r0 does not count as fully serving, so other rings should keep serving
+    assertNull(r0h0.getAndClearLastEnqueuedCommand());
+    assertNull(r0h1.getAndClearLastEnqueuedCommand());
+    assertNull(r1h0.getAndClearLastEnqueuedCommand());
+    assertNull(r1h1.getAndClearLastEnqueuedCommand());
+    assertNull(r2h0.getAndClearLastEnqueuedCommand());
+    assertNull(r2h1.getAndClearLastEnqueuedCommand());
+
+    // r0 is done updating
+    for (MockHostLocal host : Arrays.asList(r0h0, r0h1)) {
+      host.setCurrentVersion(v2);
+      Hosts.setUpdatingWhileServing(host, false);
+      host.nextCommand();
+    }
+
+    testTransitionFunction.manageTransitions(rg);
+
+    // r0 is up-to-date and should do nothing, r1 should update next
+    assertNull(r0h0.getAndClearLastEnqueuedCommand());
+    assertNull(r0h1.getAndClearLastEnqueuedCommand());
+    assertEquals(HostCommand.EXECUTE_UPDATE, r1h0.getAndClearLastEnqueuedCommand());
+    assertEquals(HostCommand.EXECUTE_UPDATE, r1h1.getAndClearLastEnqueuedCommand());
+    assertNull(r2h0.getAndClearLastEnqueuedCommand());
+    assertNull(r2h1.getAndClearLastEnqueuedCommand());
+  }
+
   @Test
   public void testAssignWhenOneHostIsServing() throws IOException {
     domainGroup.setDomainVersions(versionsMap3);
@@ -0,0 +1,81 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.storage;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import com.liveramp.hank.test.BaseTestCase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestChecksummingPartitionRemoteFileOps extends BaseTestCase {
+
+  @Test
+  public void testChecksumsMatchFetchedFiles() throws Exception {
+    ChecksummingPartitionRemoteFileOps fileOps =
+        new ChecksummingPartitionRemoteFileOps(new LocalPartitionRemoteFileOps(localTmpDir + "/remote", 0));
+
+    writeFile(fileOps, "00000.base.cueball", new byte[]{1, 2, 3});
+    // A file written byte by byte gets the same checksum as the same data written at once
+    OutputStream outputStream = fileOps.getOutputStream("00001.base.cueball");
+    outputStream.write(1);
+    outputStream.write(2);
+    outputStream.write(3);
+    // Files that are not closed yet have no checksum
+    assertFalse(fileOps.getChecksums().containsKey("00001.base.cueball"));
+    outputStream.close();
+    writeFile(fileOps, "00002.base.cueball", new byte[]{4, 5, 6});
+
+    Map<String, Long> checksums = fileOps.getChecksums();
+    assertEquals(3, checksums.size());
+    assertEquals(checksums.get("00000.base.cueball"), checksums.get("00001.base.cueball"));
+    assertFalse(checksums.get("00000.base.cueball").equals(checksums.get("00002.base.cueball")));
+
+    // Checksums match the files once they are fetched
+    String localRoot = localTmpDir + "/local";
+    new File(localRoot).mkdirs();
+    for (Map.Entry<String, Long> entry : checksums.entrySet()) {
+      fileOps.copyToLocalRoot(entry.getKey(), localRoot);
+      File localFile = new File(localRoot, entry.getKey());
+      assertTrue(localFile.exists());
+      assertEquals(entry.getValue(), Long.valueOf(getChecksum(FileUtils.readFileToByteArray(localFile))));
+    }
+  }
+
+  private static void writeFile(PartitionRemoteFileOps fileOps, String name, byte[] data) throws Exception {
+    OutputStream outputStream = fileOps.getOutputStream(name);
+    outputStream.write(data);
+    outputStream.close();
+  }
+
+  // The first 8 bytes of the MD5 digest of the data
+  private static long getChecksum(byte[] data) throws Exception {
+    byte[] digest = MessageDigest.getInstance("MD5").digest(data);
+    long checksum = 0;
+    for (int i = 0; i < 8; ++i) {
+      checksum = (checksum << 8) | (digest[i] & 0xff);
+    }
+    return checksum;
+  }
+}
@@ -17,6 +17,8 @@
 package com.liveramp.hank.storage;
 
 import com.liveramp.hank.hadoop.HadoopTestCase;
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.Path;
 import org.junit.Before;
 import org.junit.Test;
@@ -24,6 +26,7 @@ import org.junit.Test;
 import java.io.File;
 import java.io.IOException;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -64,6 +67,21 @@ public class TestHdfsPartitionRemoteFileOps extends HadoopTestCase {
     assertTrue(new File(localTmpDir + "/file1.txt").exists());
   }
 
+  @Test
+  public void testRangedCopyToLocal() throws Exception {
+    byte[] data = new byte[1000];
+    for (int i = 0; i < data.length; ++i) {
+      data[i] = (byte)i;
+    }
+    FSDataOutputStream outputStream = fs.create(new Path(ROOT, "0/file3.txt"));
+    outputStream.write(data);
+    outputStream.close();
+    // Copy in 16 ranges, the last one being shorter
+    hdfsFileOps.setRangedCopySizes(100, 64);
+    hdfsFileOps.copyToLocalRoot("file3.txt", localTmpDir);
+    assertArrayEquals(data, FileUtils.readFileToByteArray(new File(localTmpDir + "/file3.txt")));
+  }
+
   @Test
   public void testAttemptDelete() throws Exception {
     assertTrue(fs.exists(new Path(ROOT, "0/file1.txt")));
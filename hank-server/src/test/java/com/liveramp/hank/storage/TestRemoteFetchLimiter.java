@@ -0,0 +1,55 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.storage;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.liveramp.hank.test.BaseTestCase;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestRemoteFetchLimiter extends BaseTestCase {
+
+  @After
+  public void tearDown() {
+    RemoteFetchLimiter.setMaxConcurrentFetches(RemoteFetchLimiter.DEFAULT_MAX_CONCURRENT_FETCHES);
+  }
+
+  @Test
+  public void testResizeKeepsRunningFetchesUnderLimit() throws Exception {
+    RemoteFetchLimiter.setMaxConcurrentFetches(2);
+    assertEquals(2, RemoteFetchLimiter.getNumAvailablePermits());
+    RemoteFetchLimiter.Permit permit1 = RemoteFetchLimiter.acquire();
+    RemoteFetchLimiter.Permit permit2 = RemoteFetchLimiter.acquire();
+
+    // Lowering the limit while fetches are running does not let new fetches start
+    RemoteFetchLimiter.setMaxConcurrentFetches(1);
+    assertEquals(1, RemoteFetchLimiter.getMaxConcurrentFetches());
+    assertEquals(-1, RemoteFetchLimiter.getNumAvailablePermits());
+    permit1.release();
+    assertEquals(0, RemoteFetchLimiter.getNumAvailablePermits());
+    permit2.release();
+    assertEquals(1, RemoteFetchLimiter.getNumAvailablePermits());
+
+    // Raising the limit lets more fetches start right away
+    RemoteFetchLimiter.Permit permit3 = RemoteFetchLimiter.acquire();
+    RemoteFetchLimiter.setMaxConcurrentFetches(3);
+    assertEquals(2, RemoteFetchLimiter.getNumAvailablePermits());
+    permit3.release();
+    assertEquals(3, RemoteFetchLimiter.getNumAvailablePermits());
+  }
+}
@@ -0,0 +1,144 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.storage.cueball;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.liveramp.hank.compression.cueball.NoCueballCompressionCodec;
+import com.liveramp.hank.config.BaseReaderConfigurator;
+import com.liveramp.hank.config.UpdaterConfigurator;
+import com.liveramp.hank.coordinator.DomainVersion;
+import com.liveramp.hank.coordinator.mock.MockDomain;
+import com.liveramp.hank.coordinator.mock.MockDomainVersion;
+import com.liveramp.hank.storage.LocalPartitionRemoteFileOps;
+import com.liveramp.hank.storage.Reader;
+import com.liveramp.hank.storage.ReaderResult;
+import com.liveramp.hank.storage.Writer;
+import com.liveramp.hank.storage.incremental.IncrementalDomainVersionProperties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestCueballLocalCompaction extends AbstractCueballTest {
+
+  private final String localPartitionRoot = localTmpDir + "/domain/0";
+  private final UpdaterConfigurator configurator = new UpdaterConfigurator() {
+    @Override
+    public Set<String> getDataDirectories() {
+      return Collections.singleton(localTmpDir);
+    }
+
+    @Override
+    public int getNumMergeThreads() {
+      return 2;
+    }
+  };
+  private final Cueball storageEngine = new Cueball(10, HASHER, 5, 1, localTmpDir + "/remote",
+      new LocalPartitionRemoteFileOps.Factory(), NoCueballCompressionCodec.class, new MockDomain("domain"), 0);
+
+  private final DomainVersion v0 = new MockDomainVersion(0, 0L, new IncrementalDomainVersionProperties.Base());
+  private final DomainVersion v1 = new MockDomainVersion(1, 0L, new IncrementalDomainVersionProperties.Delta(0));
+  private final DomainVersion v2 = new MockDomainVersion(2, 0L, new IncrementalDomainVersionProperties.Delta(1));
+
+  @Test
+  public void testCompactLocally() throws Exception {
+    Writer writer = getWriter(v0);
+    writer.write(ByteBuffer.wrap(KEY1), ByteBuffer.wrap(new byte[]{1, 1, 1, 1, 1}));
+    writer.write(ByteBuffer.wrap(KEY2), ByteBuffer.wrap(new byte[]{2, 2, 2, 2, 2}));
+    writer.close();
+    // First delta adds a key and overwrites a key
+    writer = getWriter(v1);
+    writer.write(ByteBuffer.wrap(KEY4), ByteBuffer.wrap(new byte[]{4, 4, 4, 4, 4}));
+    writer.write(ByteBuffer.wrap(KEY2), ByteBuffer.wrap(new byte[]{2, 2, 2, 2, 1}));
+    writer.close();
+    // Second delta overwrites a key
+    writer = getWriter(v2);
+    writer.write(ByteBuffer.wrap(KEY1), ByteBuffer.wrap(new byte[]{1, 1, 1, 1, 2}));
+    writer.close();
+
+    assertTrue(storageEngine.needsLocalCompaction(configurator, 0, v2));
+    assertValues();
+
+    storageEngine.compactLocally(configurator, 0, v2);
+
+    // The layers were merged into a new base
+    assertTrue(new File(localPartitionRoot + "/00002.base.cueball").exists());
+    assertFalse(new File(localPartitionRoot + "/00000.base.cueball").exists());
+    assertFalse(new File(localPartitionRoot + "/00001.delta.cueball").exists());
+    assertFalse(new File(localPartitionRoot + "/00002.delta.cueball").exists());
+    assertFalse(storageEngine.isLocalCompactionInProgress(configurator, 0));
+    assertFalse(storageEngine.needsLocalCompaction(configurator, 0, v2));
+    assertValues();
+  }
+
+  @Test
+  public void testCompactLocallyAtWrongVersion() throws Exception {
+    getWriter(v0).close();
+    getWriter(v1).close();
+
+    try {
+      storageEngine.compactLocally(configurator, 0, v2);
+      fail("Should fail");
+    } catch (IOException e) {
+      // Expected
+    }
+    // Local files are untouched
+    assertTrue(new File(localPartitionRoot + "/00000.base.cueball").exists());
+    assertTrue(new File(localPartitionRoot + "/00001.delta.cueball").exists());
+    assertFalse(storageEngine.isLocalCompactionInProgress(configurator, 0));
+  }
+
+  @Test
+  public void testLocalCompactionMarker() throws Exception {
+    new File(localPartitionRoot).mkdirs();
+    assertFalse(storageEngine.isLocalCompactionInProgress(configurator, 0));
+    Cueball.createLocalCompactionMarker(localPartitionRoot);
+    assertTrue(storageEngine.isLocalCompactionInProgress(configurator, 0));
+    Cueball.deleteLocalCompactionMarker(localPartitionRoot);
+    assertFalse(storageEngine.isLocalCompactionInProgress(configurator, 0));
+  }
+
+  private void assertValues() throws IOException {
+    Reader reader = storageEngine.getReader(new BaseReaderConfigurator(configurator, 1 << 20, 1, 1024, 1), 0);
+    assertEquals(Integer.valueOf(2), reader.getVersionNumber());
+    assertValue(reader, KEY1, new byte[]{1, 1, 1, 1, 2});
+    assertValue(reader, KEY2, new byte[]{2, 2, 2, 2, 1});
+    assertValue(reader, KEY4, new byte[]{4, 4, 4, 4, 4});
+    ReaderResult result = new ReaderResult();
+    reader.get(ByteBuffer.wrap(KEY3), result);
+    assertFalse(result.isFound());
+    reader.close();
+  }
+
+  private void assertValue(Reader reader, byte[] key, byte[] expectedValue) throws IOException {
+    ReaderResult result = new ReaderResult();
+    reader.get(ByteBuffer.wrap(key), result);
+    assertTrue(result.isFound());
+    assertEquals(ByteBuffer.wrap(expectedValue), result.getBuffer());
+  }
+
+  private Writer getWriter(DomainVersion version) throws IOException {
+    return storageEngine.getWriter(version, new LocalPartitionRemoteFileOps(localTmpDir + "/domain", 0), 0);
+  }
+}
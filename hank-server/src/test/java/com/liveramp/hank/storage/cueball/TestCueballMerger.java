@@ -23,6 +23,7 @@ import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 public class TestCueballMerger extends AbstractCueballTest {
   private final String LOCAL_ROOT = localTmpDir;
@@ -155,6 +156,59 @@ public class TestCueballMerger extends AbstractCueballTest {
 
   @Test
   public void testMerge() throws Exception {
+    writeFiles();
+
+    new CueballMerger().merge(BASE,
+        Arrays.asList(DELTA_1, DELTA_2),
+        NEW_BASE_PATH,
+        1,
+        1,
+        null,
+        1,
+        new NoCueballCompressionCodec());
+
+    assertEquals(ByteBuffer.wrap(EXPECTED_MERGED_DATA), ByteBuffer.wrap(readNewBase()));
+  }
+
+  @Test
+  public void testRangeParallelMerge() throws Exception {
+    writeFiles();
+
+    // Each hash prefix is merged in its own segment
+    new CueballMerger(2).merge(BASE,
+        Arrays.asList(DELTA_1, DELTA_2),
+        NEW_BASE_PATH,
+        1,
+        1,
+        null,
+        1,
+        new NoCueballCompressionCodec());
+
+    assertEquals(ByteBuffer.wrap(EXPECTED_MERGED_DATA), ByteBuffer.wrap(readNewBase()));
+    assertFalse(new File(NEW_BASE_PATH + CueballMerger.SEGMENT_SUFFIX + "0").exists());
+    assertFalse(new File(NEW_BASE_PATH + CueballMerger.SEGMENT_SUFFIX + "1").exists());
+  }
+
+  @Test
+  public void testMergeInMemoryDeltas() throws Exception {
+    writeFiles();
+
+    // Deltas streamed from remote storage are merged from memory, including ranges that start past their first block
+    new CueballMerger(2).merge(BASE,
+        Arrays.<CueballFilePath>asList(
+            new InMemoryCueballFilePath(DELTA_1.getPath(), DELTA_1_DATA),
+            new InMemoryCueballFilePath(DELTA_2.getPath(), DELTA_2_DATA)),
+        NEW_BASE_PATH,
+        1,
+        1,
+        null,
+        1,
+        new NoCueballCompressionCodec());
+
+    assertEquals(ByteBuffer.wrap(EXPECTED_MERGED_DATA), ByteBuffer.wrap(readNewBase()));
+  }
+
+  private void writeFiles() throws IOException {
     new File(LOCAL_ROOT).mkdirs();
     OutputStream s = new FileOutputStream(BASE.getPath());
     s.write(BASE_DATA);
@@ -170,21 +224,14 @@ public class TestCueballMerger extends AbstractCueballTest {
     s.write(DELTA_2_DATA);
     s.flush();
     s.close();
+  }
 
-    new CueballMerger().merge(BASE,
-        Arrays.asList(DELTA_1, DELTA_2),
-        NEW_BASE_PATH,
-        1,
-        1,
-        null,
-        1,
-        new NoCueballCompressionCodec());
-
+  private byte[] readNewBase() throws IOException {
     DataInputStream in = new DataInputStream(new FileInputStream(NEW_BASE_PATH));
     int length = (int) new File(NEW_BASE_PATH).length();
     byte[] actualMergedData = new byte[length];
     in.readFully(actualMergedData);
-
-    assertEquals(ByteBuffer.wrap(EXPECTED_MERGED_DATA), ByteBuffer.wrap(actualMergedData));
+    in.close();
+    return actualMergedData;
   }
 }
@@ -17,13 +17,16 @@
 package com.liveramp.hank.storage.cueball;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.apache.commons.io.FileUtils;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -33,9 +36,11 @@ import com.liveramp.hank.coordinator.Domain;
 import com.liveramp.hank.coordinator.DomainVersion;
 import com.liveramp.hank.coordinator.mock.MockDomain;
 import com.liveramp.hank.coordinator.mock.MockDomainVersion;
+import com.liveramp.hank.hasher.Murmur64Hasher;
 import com.liveramp.hank.partition_server.PartitionUpdateTaskStatistics;
 import com.liveramp.hank.storage.LocalPartitionRemoteFileOps;
 import com.liveramp.hank.storage.incremental.IncrementalDomainVersionProperties;
+import com.liveramp.hank.storage.incremental.IncrementalPartitionUpdater;
 import com.liveramp.hank.storage.incremental.IncrementalPartitionUpdaterTestCase;
 import com.liveramp.hank.storage.incremental.IncrementalUpdatePlan;
 
@@ -119,6 +124,15 @@ public class TestCueballPartitionUpdater extends IncrementalPartitionUpdaterTest
     assertEquals(Integer.valueOf(2), updater.detectCurrentVersionNumber());
     deleteLocalFile("00001.base.cueball");
     deleteLocalFile("00002.base.cueball");
+
+    // Most recent delta layered on top of the base
+    makeLocalFile("00000.delta.cueball");
+    makeLocalFile("00001.base.cueball");
+    makeLocalFile("00002.delta.cueball");
+    assertEquals(Integer.valueOf(2), updater.detectCurrentVersionNumber());
+    deleteLocalFile("00000.delta.cueball");
+    deleteLocalFile("00001.base.cueball");
+    deleteLocalFile("00002.delta.cueball");
   }
 
   @Test
@@ -174,6 +188,39 @@ public class TestCueballPartitionUpdater extends IncrementalPartitionUpdaterTest
     assertTrue(existsLocalFile(fetchRootName + "/00000.base.cueball"));
   }
 
+  @Test
+  public void testReuseUnchangedFile() throws IOException {
+    String fetchRoot = localPartitionRoot + "/_fetch";
+    new File(fetchRoot).mkdir();
+    updater.setPartitionNumber(0);
+    FileUtils.writeStringToFile(new File(localPartitionRoot + "/00001.base.cueball"), "local");
+    FileUtils.writeStringToFile(new File(remotePartitionRoot + "/0/00002.delta.cueball"), "remote");
+
+    // Without checksums, the file is fetched
+    updater.fetchVersion(v2, fetchRoot);
+    assertEquals("remote", FileUtils.readFileToString(new File(fetchRoot + "/00002.delta.cueball")));
+    FileUtils.cleanDirectory(new File(fetchRoot));
+
+    // Without checksums for the current version, the file is fetched
+    ((MockDomainVersion)v2).addPartitionProperties(0, 0, 0, Collections.singletonMap("00002.delta.cueball", 42L));
+    updater.fetchVersion(v2, fetchRoot);
+    assertEquals("remote", FileUtils.readFileToString(new File(fetchRoot + "/00002.delta.cueball")));
+    FileUtils.cleanDirectory(new File(fetchRoot));
+
+    // When checksums differ, the file is fetched
+    ((MockDomainVersion)v1).addPartitionProperties(0, 0, 0, Collections.singletonMap("00001.base.cueball", 43L));
+    updater.fetchVersion(v2, fetchRoot);
+    assertEquals("remote", FileUtils.readFileToString(new File(fetchRoot + "/00002.delta.cueball")));
+    FileUtils.cleanDirectory(new File(fetchRoot));
+
+    // When checksums match, the local file is linked instead of being fetched
+    ((MockDomainVersion)v1).addPartitionProperties(0, 0, 0, Collections.singletonMap("00001.base.cueball", 42L));
+    updater.fetchVersion(v2, fetchRoot);
+    assertEquals("local", FileUtils.readFileToString(new File(fetchRoot + "/00002.delta.cueball")));
+    FileUtils.writeStringToFile(new File(fetchRoot + "/00002.delta.cueball"), "linked");
+    assertEquals("linked", FileUtils.readFileToString(new File(localPartitionRoot + "/00001.base.cueball")));
+  }
+
   @Test
   public void testUpdateNoDelta() throws IOException {
     // Updating from null to v0
@@ -226,6 +273,133 @@ public class TestCueballPartitionUpdater extends IncrementalPartitionUpdaterTest
     assertTrue(existsLocalFile("00000.base.cueball"));
   }
 
+  @Test
+  public void testLayeredUpdate() throws IOException {
+    CueballPartitionUpdater layeredUpdater = new CueballPartitionUpdater(domain,
+        new LocalPartitionRemoteFileOps(remotePartitionRoot, 0),
+        new MockCueballMerger(),
+        12,
+        5,
+        1,
+        new NoCueballCompressionCodec(),
+        localPartitionRoot,
+        1);
+
+    // Updating from v1 to v2 layers the delta on top of the current base
+    makeLocalFile("00001.base.cueball");
+    // The delta is read to build its Bloom filter, so it has to be a valid Cueball file
+    makeLocalCacheFile("00002.delta.cueball");
+    CueballWriter writer = new CueballWriter(
+        new FileOutputStream(localPartitionRoot + "/" + IncrementalPartitionUpdater.CACHE_ROOT_NAME + "/00002.delta.cueball"),
+        12, new Murmur64Hasher(), 5, new NoCueballCompressionCodec(), 1);
+    writer.write(ByteBuffer.wrap(new byte[]{1, 2, 3}), ByteBuffer.wrap(new byte[]{1, 1, 1, 1, 1}));
+    writer.close();
+    layeredUpdater.runUpdateCore(v1, v2, new IncrementalUpdatePlan(v1, v2), updateWorkRoot, new PartitionUpdateTaskStatistics());
+    assertTrue(existsUpdateWorkFile("00001.base.cueball"));
+    assertTrue(existsUpdateWorkFile("00002.delta.cueball"));
+    // The Bloom filter of the delta is stored next to it
+    assertTrue(existsUpdateWorkFile("00002.delta.cueball" + Cueball.BLOOM_FILTER_SUFFIX));
+    assertFalse(existsUpdateWorkFile("00002.delta.cueball" + Cueball.BLOOM_FILTER_SUFFIX + ".tmp"));
+    assertFalse(existsUpdateWorkFile("00002.base.cueball"));
+    assertFalse(existsLocalFile("00001.base.cueball"));
+    assertFalse(existsCacheFile("00002.delta.cueball"));
+  }
+
+  @Test
+  public void testDiscardInterruptedLocalCompaction() throws IOException {
+    // The local base is up to date but a local compaction was interrupted while replacing it
+    makeLocalFile("00001.base.cueball");
+    makeLocalFile(IncrementalPartitionUpdater.LOCAL_COMPACTION_MARKER_NAME);
+    makeLocalDir(IncrementalPartitionUpdater.LOCAL_COMPACTION_WORK_ROOT_PREFIX + "0");
+    writeRemoteFile("0/00001.base.cueball", new byte[]{1, 2, 3});
+
+    updater.updateTo(v1, new PartitionUpdateTaskStatistics());
+
+    // The base was fetched again
+    assertEquals(3, new File(localPartitionRoot + "/00001.base.cueball").length());
+    assertFalse(existsLocalFile(IncrementalPartitionUpdater.LOCAL_COMPACTION_MARKER_NAME));
+    assertFalse(existsLocalFile(IncrementalPartitionUpdater.LOCAL_COMPACTION_WORK_ROOT_PREFIX + "0"));
+  }
+
+  @Test
+  public void testStreamRemoteDeltasWhenMerging() throws IOException {
+    MockCueballMerger cueballMerger = new MockCueballMerger();
+    CueballPartitionUpdater streamingUpdater = new CueballPartitionUpdater(domain,
+        new LocalPartitionRemoteFileOps(remotePartitionRoot, 0),
+        cueballMerger,
+        12,
+        5,
+        1,
+        new NoCueballCompressionCodec(),
+        localPartitionRoot,
+        0,
+        true);
+
+    // Deltas are not fetched
+    String fetchRoot = localPartitionRoot + "/_fetch";
+    new File(fetchRoot).mkdir();
+    writeRemoteFile("0/00001.delta.cueball", new byte[]{1, 1});
+    writeRemoteFile("0/00002.delta.cueball", new byte[]{2, 2, 2});
+    streamingUpdater.fetchVersion(v2, fetchRoot);
+    assertFalse(existsLocalFile("_fetch/00002.delta.cueball"));
+
+    // Updating from v0 to v2 merges the deltas from memory
+    List<DomainVersion> deltas = new ArrayList<DomainVersion>();
+    deltas.add(v1);
+    deltas.add(v2);
+    makeLocalFile("00000.base.cueball");
+    PartitionUpdateTaskStatistics statistics = new PartitionUpdateTaskStatistics();
+    streamingUpdater.runUpdateCore(v0, v2, new IncrementalUpdatePlan(v0, deltas), updateWorkRoot, statistics);
+    assertEquals(5, statistics.getNumBytesFetched());
+    assertTrue(cueballMerger.called);
+    assertEquals(2, cueballMerger.deltas.size());
+    assertTrue(cueballMerger.deltas.get(0) instanceof InMemoryCueballFilePath);
+    assertEquals(ByteBuffer.wrap(new byte[]{1, 1}),
+        ByteBuffer.wrap(((InMemoryCueballFilePath)cueballMerger.deltas.get(0)).getData()));
+    assertTrue(cueballMerger.deltas.get(1) instanceof InMemoryCueballFilePath);
+    assertEquals(ByteBuffer.wrap(new byte[]{2, 2, 2}),
+        ByteBuffer.wrap(((InMemoryCueballFilePath)cueballMerger.deltas.get(1)).getData()));
+    assertTrue(existsUpdateWorkFile("00002.base.cueball"));
+    // No delta was written to local disk
+    assertFalse(existsCacheFile("00001.delta.cueball"));
+    assertFalse(existsCacheFile("00002.delta.cueball"));
+    assertFalse(existsUpdateWorkFile(CueballPartitionUpdater.STREAMED_DELTAS_DIR_NAME));
+  }
+
+  @Test
+  public void testStreamRemoteDeltasWhenLayering() throws IOException {
+    MockCueballMerger cueballMerger = new MockCueballMerger();
+    CueballPartitionUpdater streamingUpdater = new CueballPartitionUpdater(domain,
+        new LocalPartitionRemoteFileOps(remotePartitionRoot, 0),
+        cueballMerger,
+        12,
+        5,
+        1,
+        new NoCueballCompressionCodec(),
+        localPartitionRoot,
+        1,
+        true);
+
+    // Updating from v1 to v2 copies the remote delta directly to the update work root
+    makeLocalFile("00001.base.cueball");
+    new File(remotePartitionRoot + "/0").mkdirs();
+    CueballWriter writer = new CueballWriter(new FileOutputStream(remotePartitionRoot + "/0/00002.delta.cueball"),
+        12, new Murmur64Hasher(), 5, new NoCueballCompressionCodec(), 1);
+    writer.write(ByteBuffer.wrap(new byte[]{1, 2, 3}), ByteBuffer.wrap(new byte[]{1, 1, 1, 1, 1}));
+    writer.close();
+    PartitionUpdateTaskStatistics statistics = new PartitionUpdateTaskStatistics();
+    streamingUpdater.runUpdateCore(v1, v2, new IncrementalUpdatePlan(v1, v2), updateWorkRoot, statistics);
+    assertFalse(cueballMerger.called);
+    // The delta was fetched and its Bloom filter written
+    assertEquals(new File(remotePartitionRoot + "/0/00002.delta.cueball").length(), statistics.getNumBytesFetched());
+    assertEquals(new File(updateWorkRoot + "/00002.delta.cueball" + Cueball.BLOOM_FILTER_SUFFIX).length(),
+        statistics.getNumBytesWritten());
+    assertTrue(existsUpdateWorkFile("00001.base.cueball"));
+    assertTrue(existsUpdateWorkFile("00002.delta.cueball"));
+    assertTrue(existsUpdateWorkFile("00002.delta.cueball" + Cueball.BLOOM_FILTER_SUFFIX));
+    assertFalse(existsCacheFile("00002.delta.cueball"));
+  }
+
   @Test
   public void testGetRemotePartitionFilePaths() throws IOException {
     CueballUpdatePlanner updatePlanner = new CueballUpdatePlanner(domain);
@@ -238,4 +412,12 @@ public class TestCueballPartitionUpdater extends IncrementalPartitionUpdaterTest
     Collections.sort(expectedPaths);
     assertEquals(expectedPaths, paths);
   }
+
+  private void writeRemoteFile(String name, byte[] data) throws IOException {
+    File file = new File(remotePartitionRoot + "/" + name);
+    file.getParentFile().mkdirs();
+    FileOutputStream outputStream = new FileOutputStream(file);
+    outputStream.write(data);
+    outputStream.close();
+  }
 }
@@ -0,0 +1,68 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.storage.cueball;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.liveramp.hank.storage.LocalPartitionRemoteFileOps;
+import com.liveramp.hank.test.BaseTestCase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestInMemoryCueballFilePath extends BaseTestCase {
+
+  private static final byte[] DATA = new byte[]{1, 2, 3, 4, 5, 6, 7, 8};
+
+  private final String remotePartitionRoot = localTmpDir + "/remote_partition_root";
+  private final String localRoot = localTmpDir + "/local_root";
+
+  @Before
+  public void setUp() throws Exception {
+    new File(remotePartitionRoot + "/0").mkdirs();
+    FileOutputStream outputStream = new FileOutputStream(remotePartitionRoot + "/0/00001.delta.cueball");
+    outputStream.write(DATA);
+    outputStream.close();
+  }
+
+  @Test
+  public void testLoadInMemory() throws Exception {
+    LocalPartitionRemoteFileOps fileOps = new LocalPartitionRemoteFileOps(remotePartitionRoot, 0);
+    CueballFilePath path = InMemoryCueballFilePath.load(fileOps, "00001.delta.cueball", localRoot, DATA.length);
+    assertTrue(path instanceof InMemoryCueballFilePath);
+    assertEquals(ByteBuffer.wrap(DATA), ByteBuffer.wrap(((InMemoryCueballFilePath)path).getData()));
+    assertEquals(1, path.getVersion());
+    // Nothing was written locally
+    assertFalse(new File(localRoot).exists());
+  }
+
+  @Test
+  public void testLoadLargeFileToDisk() throws Exception {
+    LocalPartitionRemoteFileOps fileOps = new LocalPartitionRemoteFileOps(remotePartitionRoot, 0);
+    CueballFilePath path = InMemoryCueballFilePath.load(fileOps, "00001.delta.cueball", localRoot, DATA.length - 1);
+    assertFalse(path instanceof InMemoryCueballFilePath);
+    assertEquals(localRoot + "/00001.delta.cueball", path.getPath());
+    assertEquals(1, path.getVersion());
+    assertEquals(ByteBuffer.wrap(DATA), ByteBuffer.wrap(FileUtils.readFileToByteArray(new File(path.getPath()))));
+  }
+}
@@ -0,0 +1,143 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.storage.cueball;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import com.liveramp.hank.compression.cueball.NoCueballCompressionCodec;
+import com.liveramp.hank.storage.ReaderResult;
+import com.liveramp.hank.util.BloomFilter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestLayeredCueballReader extends AbstractCueballTest {
+
+  @Test
+  public void testRead() throws Exception {
+    String root = localTmpDir + "/1";
+    new File(root).mkdir();
+
+    // Base
+    CueballWriter writer = getWriter(root + "/00000.base.cueball");
+    writer.write(ByteBuffer.wrap(KEY1), ByteBuffer.wrap(new byte[]{1, 1, 1, 1, 1}));
+    writer.write(ByteBuffer.wrap(KEY2), ByteBuffer.wrap(new byte[]{2, 2, 2, 2, 2}));
+    writer.write(ByteBuffer.wrap(KEY3), ByteBuffer.wrap(new byte[]{3, 3, 3, 3, 3}));
+    writer.close();
+    // First delta adds a key and overwrites a key
+    writer = getWriter(root + "/00001.delta.cueball");
+    writer.write(ByteBuffer.wrap(KEY4), ByteBuffer.wrap(new byte[]{4, 4, 4, 4, 4}));
+    writer.write(ByteBuffer.wrap(KEY2), ByteBuffer.wrap(new byte[]{2, 2, 2, 2, 1}));
+    writer.close();
+    // Second delta overwrites a key
+    writer = getWriter(root + "/00002.delta.cueball");
+    writer.write(ByteBuffer.wrap(KEY1), ByteBuffer.wrap(new byte[]{1, 1, 1, 1, 2}));
+    writer.close();
+
+    LayeredCueballReader reader = new LayeredCueballReader(root, 10, HASHER, 5, 1,
+        new NoCueballCompressionCodec(), 1 << 20, 1);
+
+    assertEquals(Integer.valueOf(2), reader.getVersionNumber());
+    assertEquals(2, reader.getNumDeltas());
+
+    // Newest value wins
+    assertValue(reader, KEY1, new byte[]{1, 1, 1, 1, 2});
+    assertValue(reader, KEY2, new byte[]{2, 2, 2, 2, 1});
+    assertValue(reader, KEY3, new byte[]{3, 3, 3, 3, 3});
+    assertValue(reader, KEY4, new byte[]{4, 4, 4, 4, 4});
+
+    ReaderResult result = new ReaderResult();
+    reader.get(ByteBuffer.wrap(KEY10), result);
+    assertFalse(result.isFound());
+
+    reader.close();
+  }
+
+  @Test
+  public void testStoredBloomFilter() throws Exception {
+    String root = localTmpDir + "/1";
+    new File(root).mkdir();
+
+    CueballWriter writer = getWriter(root + "/00000.base.cueball");
+    writer.write(ByteBuffer.wrap(KEY1), ByteBuffer.wrap(new byte[]{1, 1, 1, 1, 1}));
+    writer.close();
+    writer = getWriter(root + "/00001.delta.cueball");
+    writer.write(ByteBuffer.wrap(KEY1), ByteBuffer.wrap(new byte[]{1, 1, 1, 1, 2}));
+    writer.close();
+
+    // Store an empty filter for the delta: if it is used instead of being rebuilt, the delta is skipped
+    DataOutputStream outputStream = new DataOutputStream(
+        new FileOutputStream(Cueball.getBloomFilterPath(new CueballFilePath(root + "/00001.delta.cueball"))));
+    new BloomFilter(1, LayeredCueballReader.BLOOM_FILTER_NUM_BITS_PER_KEY).write(outputStream);
+    outputStream.close();
+
+    LayeredCueballReader reader = new LayeredCueballReader(root, 10, HASHER, 5, 1,
+        new NoCueballCompressionCodec(), 1 << 20, 1);
+    assertValue(reader, KEY1, new byte[]{1, 1, 1, 1, 1});
+    reader.close();
+
+    // Without a stored filter, the filter is built from the delta
+    new File(Cueball.getBloomFilterPath(new CueballFilePath(root + "/00001.delta.cueball"))).delete();
+    reader = new LayeredCueballReader(root, 10, HASHER, 5, 1,
+        new NoCueballCompressionCodec(), 1 << 20, 1);
+    assertValue(reader, KEY1, new byte[]{1, 1, 1, 1, 2});
+    reader.close();
+  }
+
+  @Test
+  public void testWriteBloomFilter() throws Exception {
+    String root = localTmpDir + "/1";
+    new File(root).mkdir();
+
+    CueballWriter writer = getWriter(root + "/00001.delta.cueball");
+    writer.write(ByteBuffer.wrap(KEY1), ByteBuffer.wrap(new byte[]{1, 1, 1, 1, 1}));
+    writer.write(ByteBuffer.wrap(KEY2), ByteBuffer.wrap(new byte[]{2, 2, 2, 2, 2}));
+    writer.close();
+
+    CueballFilePath delta = new CueballFilePath(root + "/00001.delta.cueball");
+    LayeredCueballReader.writeBloomFilter(delta, 10, 5, 1, new NoCueballCompressionCodec());
+    assertTrue(new File(Cueball.getBloomFilterPath(delta)).exists());
+
+    // The stored filter is the one that would have been built
+    BloomFilter stored = LayeredCueballReader.loadBloomFilter(delta, 10, 5, 1, new NoCueballCompressionCodec());
+    BloomFilter built = LayeredCueballReader.buildBloomFilter(delta, 10, 5, 1, new NoCueballCompressionCodec());
+    assertEquals(built.getNumBits(), stored.getNumBits());
+    assertEquals(built.getNumHashFunctions(), stored.getNumHashFunctions());
+    byte[] keyHash = new byte[10];
+    HASHER.hash(ByteBuffer.wrap(KEY1), 10, keyHash);
+    assertTrue(stored.mayContain(keyHash, 0, 10));
+    HASHER.hash(ByteBuffer.wrap(KEY2), 10, keyHash);
+    assertTrue(stored.mayContain(keyHash, 0, 10));
+  }
+
+  private void assertValue(LayeredCueballReader reader, byte[] key, byte[] expectedValue) throws IOException {
+    ReaderResult result = new ReaderResult();
+    reader.get(ByteBuffer.wrap(key), result);
+    assertTrue(result.isFound());
+    assertEquals(ByteBuffer.wrap(expectedValue), result.getBuffer());
+  }
+
+  private CueballWriter getWriter(String path) throws IOException {
+    return new CueballWriter(new FileOutputStream(path), 10, HASHER, 5, new NoCueballCompressionCodec(), 1);
+  }
+}
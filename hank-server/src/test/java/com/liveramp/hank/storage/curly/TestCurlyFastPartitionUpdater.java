@@ -28,14 +28,19 @@ import com.liveramp.hank.storage.cueball.MockCueballMerger;
 import com.liveramp.hank.storage.incremental.IncrementalDomainVersionProperties;
 import com.liveramp.hank.storage.incremental.IncrementalPartitionUpdaterTestCase;
 import com.liveramp.hank.storage.incremental.IncrementalUpdatePlan;
+import org.apache.commons.io.FileUtils;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -128,4 +133,34 @@ public class TestCurlyFastPartitionUpdater extends IncrementalPartitionUpdaterTe
     // Old Curly base has disappeared
     assertFalse(existsLocalFile("00000.base.curly"));
   }
+
+  @Test
+  public void testReuseUnchangedFiles() throws IOException {
+    String fetchRoot = localPartitionRoot + "/_fetch";
+    new File(fetchRoot).mkdir();
+    updater.setPartitionNumber(0);
+    FileUtils.writeStringToFile(new File(localPartitionRoot + "/00000.base.cueball"), "local cueball");
+    FileUtils.writeStringToFile(new File(localPartitionRoot + "/00000.base.curly"), "local curly");
+    FileUtils.writeStringToFile(new File(remotePartitionRoot + "/0/00000.base.cueball"), "remote cueball");
+    FileUtils.writeStringToFile(new File(remotePartitionRoot + "/0/00000.base.curly"), "remote curly");
+
+    // Fetching the base of the current version again reuses its local files
+    Map<String, Long> checksums = new HashMap<String, Long>();
+    checksums.put("00000.base.cueball", 1L);
+    checksums.put("00000.base.curly", 2L);
+    ((MockDomainVersion)v0).addPartitionProperties(0, 0, 0, checksums);
+    updater.fetchVersion(v0, fetchRoot);
+    assertEquals("local cueball", FileUtils.readFileToString(new File(fetchRoot + "/00000.base.cueball")));
+    assertEquals("local curly", FileUtils.readFileToString(new File(fetchRoot + "/00000.base.curly")));
+
+    // The Cueball base is linked
+    FileUtils.writeStringToFile(new File(fetchRoot + "/00000.base.cueball"), "modified");
+    assertEquals("modified", FileUtils.readFileToString(new File(localPartitionRoot + "/00000.base.cueball")));
+    // The Curly base is appended to in place when merging, so it is not linked
+    FileOutputStream outputStream = new FileOutputStream(fetchRoot + "/00000.base.curly", true);
+    outputStream.write(" appended".getBytes());
+    outputStream.close();
+    assertEquals("local curly appended", FileUtils.readFileToString(new File(fetchRoot + "/00000.base.curly")));
+    assertEquals("local curly", FileUtils.readFileToString(new File(localPartitionRoot + "/00000.base.curly")));
+  }
 }
@@ -0,0 +1,157 @@
+/**
+ *  Copyright 2011 LiveRamp
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.liveramp.hank.storage.curly;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.liveramp.hank.compression.cueball.NoCueballCompressionCodec;
+import com.liveramp.hank.config.BaseReaderConfigurator;
+import com.liveramp.hank.config.UpdaterConfigurator;
+import com.liveramp.hank.coordinator.DomainVersion;
+import com.liveramp.hank.coordinator.mock.MockDomain;
+import com.liveramp.hank.coordinator.mock.MockDomainVersion;
+import com.liveramp.hank.hasher.IdentityHasher;
+import com.liveramp.hank.storage.LocalPartitionRemoteFileOps;
+import com.liveramp.hank.storage.Reader;
+import com.liveramp.hank.storage.ReaderResult;
+import com.liveramp.hank.storage.cueball.Cueball;
+import com.liveramp.hank.storage.cueball.CueballWriter;
+import com.liveramp.hank.storage.incremental.IncrementalDomainVersionProperties;
+import com.liveramp.hank.test.BaseTestCase;
+import com.liveramp.hank.util.EncodingHelper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestCurlyLocalCompaction extends BaseTestCase {
+
+  private static final byte[] KEY1 = new byte[]{1, 1, 1, 1};
+  private static final byte[] KEY2 = new byte[]{2, 2, 2, 2};
+  private static final byte[] KEY3 = new byte[]{3, 3, 3, 3};
+
+  private final String localPartitionRoot = localTmpDir + "/domain/0";
+  private final UpdaterConfigurator configurator = new UpdaterConfigurator() {
+    @Override
+    public Set<String> getDataDirectories() {
+      return Collections.singleton(localTmpDir);
+    }
+
+    @Override
+    public int getNumMergeThreads() {
+      return 1;
+    }
+  };
+  // Offsets are stored on 3 bytes
+  private final Curly storageEngine = new Curly(4, new IdentityHasher(), 100000, 1, 1024, localTmpDir + "/remote",
+      new LocalPartitionRemoteFileOps.Factory(), NoCueballCompressionCodec.class, new MockDomain("domain"),
+      0, -1, null, -1, -1);
+
+  private final DomainVersion v0 = new MockDomainVersion(0, 0L, new IncrementalDomainVersionProperties.Base());
+  private final DomainVersion v1 = new MockDomainVersion(1, 0L, new IncrementalDomainVersionProperties.Delta(0));
+
+  @Test
+  public void testNeedsLocalCompaction() throws Exception {
+    // A delta was appended to the record file: the first record of KEY1 is garbage
+    writeRecordFile(1, "aaaa", "bbbbbbbbbb", "AAAA");
+    writeKeyFile(1, KEY1, 16, KEY2, 5);
+    // 5 bytes out of 21 are garbage
+    assertEquals(16, storageEngine.getNumLiveRecordFileBytes(
+        new File(localPartitionRoot + "/00001.base.curly"), new File(localPartitionRoot + "/00001.base.cueball")));
+    assertFalse(storageEngine.needsLocalCompaction(configurator, 0, v1));
+
+    // A larger share of the record file is garbage
+    writeRecordFile(1, "aaaaaaaaaa", "bbbb", "AAAA");
+    writeKeyFile(1, KEY1, 16, KEY2, 11);
+    assertEquals(10, storageEngine.getNumLiveRecordFileBytes(
+        new File(localPartitionRoot + "/00001.base.curly"), new File(localPartitionRoot + "/00001.base.cueball")));
+    assertTrue(storageEngine.needsLocalCompaction(configurator, 0, v1));
+
+    // Folded values are counted once
+    writeKeyFile(1, KEY1, 16, KEY2, 11, KEY3, 11);
+    assertEquals(10, storageEngine.getNumLiveRecordFileBytes(
+        new File(localPartitionRoot + "/00001.base.curly"), new File(localPartitionRoot + "/00001.base.cueball")));
+
+    // Bases are never compacted locally
+    assertFalse(storageEngine.needsLocalCompaction(configurator, 0, v0));
+  }
+
+  @Test
+  public void testCompactLocally() throws Exception {
+    writeRecordFile(1, "aaaa", "bbbb", "cccc", "AAAA", "CCCC");
+    writeKeyFile(1, KEY1, 15, KEY2, 5, KEY3, 20);
+    assertTrue(storageEngine.needsLocalCompaction(configurator, 0, v1));
+    assertValues();
+
+    storageEngine.compactLocally(configurator, 0, v1);
+
+    // Only the records that are pointed to were kept
+    assertEquals(15, new File(localPartitionRoot + "/00001.base.curly").length());
+    assertFalse(storageEngine.isLocalCompactionInProgress(configurator, 0));
+    assertFalse(storageEngine.needsLocalCompaction(configurator, 0, v1));
+    assertValues();
+  }
+
+  private void assertValues() throws IOException {
+    Reader reader = storageEngine.getReader(new BaseReaderConfigurator(configurator, 1 << 20, 1, 1024, 1), 0);
+    assertEquals(Integer.valueOf(1), reader.getVersionNumber());
+    assertValue(reader, KEY1, "AAAA");
+    assertValue(reader, KEY2, "bbbb");
+    assertValue(reader, KEY3, "CCCC");
+    reader.close();
+  }
+
+  private void assertValue(Reader reader, byte[] key, String expectedValue) throws IOException {
+    ReaderResult result = new ReaderResult();
+    reader.get(ByteBuffer.wrap(key), result);
+    assertTrue(result.isFound());
+    assertEquals(ByteBuffer.wrap(expectedValue.getBytes()), result.getBuffer());
+  }
+
+  private void writeRecordFile(int versionNumber, String... values) throws IOException {
+    new File(localPartitionRoot).mkdirs();
+    OutputStream outputStream = new FileOutputStream(localPartitionRoot + "/" + Curly.getName(versionNumber, true));
+    byte[] lengthBuffer = new byte[EncodingHelper.MAX_VARINT_SIZE];
+    for (String value : values) {
+      int lengthNumBytes = EncodingHelper.encodeLittleEndianVarInt(value.length(), lengthBuffer);
+      outputStream.write(lengthBuffer, 0, lengthNumBytes);
+      outputStream.write(value.getBytes());
+    }
+    outputStream.close();
+  }
+
+  // Keys, in order, each followed by the offset of its record
+  private void writeKeyFile(int versionNumber, Object... keysAndOffsets) throws IOException {
+    new File(localPartitionRoot).mkdirs();
+    CueballWriter writer = new CueballWriter(
+        new FileOutputStream(localPartitionRoot + "/" + Cueball.getName(versionNumber, true)),
+        4, new IdentityHasher(), 3, new NoCueballCompressionCodec(), 1);
+    for (int i = 0; i < keysAndOffsets.length; i += 2) {
+      byte[] offset = new byte[3];
+      EncodingHelper.encodeLittleEndianFixedWidthLong((Integer)keysAndOffsets[i + 1], offset, 0, 3);
+      writer.write(ByteBuffer.wrap((byte[])keysAndOffsets[i]), ByteBuffer.wrap(offset));
+    }
+    writer.close();
+  }
+}
@@ -20,6 +20,7 @@ import com.liveramp.hank.coordinator.Domain;
 import com.liveramp.hank.coordinator.DomainVersion;
 import com.liveramp.hank.coordinator.mock.MockDomain;
 import com.liveramp.hank.coordinator.mock.MockDomainVersion;
+import com.liveramp.hank.partition_server.PartitionUpdateTaskStatistics;
 import org.apache.commons.io.FileUtils;
 import org.junit.Before;
 import org.junit.Test;
@@ -214,7 +215,8 @@ public class TestIncrementalPartitionUpdater extends IncrementalPartitionUpdater
     updater.cacheVersionsNeededToUpdate(null,
         Collections.<DomainVersion>emptySet(),
         Collections.<DomainVersion>emptySet(),
-        new IncrementalUpdatePlan(v0));
+        new IncrementalUpdatePlan(v0),
+        new PartitionUpdateTaskStatistics());
     assertTrue(existsCacheFile("0.data"));
 
     // Clean cache
@@ -226,7 +228,8 @@ public class TestIncrementalPartitionUpdater extends IncrementalPartitionUpdater
     updater.cacheVersionsNeededToUpdate(null,
         Collections.<DomainVersion>emptySet(),
         Collections.<DomainVersion>emptySet(),
-        new IncrementalUpdatePlan(v0, v1));
+        new IncrementalUpdatePlan(v0, v1),
+        new PartitionUpdateTaskStatistics());
     assertTrue(existsCacheFile("0.data"));
     assertTrue(existsCacheFile("1.data"));
 
@@ -239,7 +242,8 @@ public class TestIncrementalPartitionUpdater extends IncrementalPartitionUpdater
     updater.cacheVersionsNeededToUpdate(v0,
         Collections.<DomainVersion>emptySet(),
         Collections.<DomainVersion>emptySet(),
-        new IncrementalUpdatePlan(v0, v1));
+        new IncrementalUpdatePlan(v0, v1),
+        new PartitionUpdateTaskStatistics());
     assertFalse(existsCacheFile("0.data"));
     assertTrue(existsCacheFile("1.data"));
 
@@ -252,7 +256,8 @@ public class TestIncrementalPartitionUpdater extends IncrementalPartitionUpdater
     updater.cacheVersionsNeededToUpdate(null,
         Collections.<DomainVersion>singleton(v0),
         Collections.<DomainVersion>emptySet(),
-        new IncrementalUpdatePlan(v0, v1));
+        new IncrementalUpdatePlan(v0, v1),
+        new PartitionUpdateTaskStatistics());
     assertFalse(existsCacheFile("0.data"));
     assertTrue(existsCacheFile("1.data"));
 
@@ -262,6 +267,61 @@ public class TestIncrementalPartitionUpdater extends IncrementalPartitionUpdater
     assertFalse(new File(updater.localPartitionRootCache).exists());
   }
 
+  @Test
+  public void testNumBytesFetched() throws IOException {
+    final MockDomainVersion v0 = new MockDomainVersion(0, 0l);
+    final MockDomainVersion v1 = new MockDomainVersion(1, 0l);
+    final MockDomainVersion v2 = new MockDomainVersion(2, 0l);
+    v0.addPartitionProperties(0, 0, 0, Collections.singletonMap("0.data", 1L));
+    v1.addPartitionProperties(0, 0, 0, Collections.singletonMap("1.data", 1L));
+    v2.addPartitionProperties(0, 0, 0, Collections.singletonMap("2.data", 2L));
+
+    Domain domain = new MockDomain("domain") {
+      @Override
+      public DomainVersion getVersion(int domainVersion) {
+        switch (domainVersion) {
+          case 0:
+            return v0;
+          case 1:
+            return v1;
+          case 2:
+            return v2;
+          default:
+            throw new RuntimeException("Unknown version: " + domainVersion);
+        }
+      }
+    };
+    IncrementalPartitionUpdater updater =
+        new MockIncrementalPartitionUpdater(localPartitionRoot, domain, 0) {
+          @Override
+          protected void fetchVersion(DomainVersion version, String fetchRoot) {
+            try {
+              String fileName = version.getVersionNumber() + ".data";
+              if (!reuseUnchangedFile(version, fileName, fetchRoot, false)) {
+                FileUtils.writeByteArrayToFile(new File(fetchRoot + "/" + fileName), new byte[10]);
+              }
+            } catch (IOException e) {
+              throw new RuntimeException(e.getMessage(), e);
+            }
+          }
+        };
+    updater.setPartitionNumber(0);
+    FileUtils.writeByteArrayToFile(new File(localPartitionRoot + "/0.data"), new byte[5]);
+
+    // Version 1 is identical to the current version and is reused, only version 2 is fetched
+    PartitionUpdateTaskStatistics statistics = new PartitionUpdateTaskStatistics();
+    updater.cacheVersionsNeededToUpdate(v0,
+        Collections.<DomainVersion>emptySet(),
+        Collections.<DomainVersion>emptySet(),
+        new IncrementalUpdatePlan(v0, v1, v2),
+        statistics);
+    assertTrue(existsCacheFile("1.data"));
+    assertTrue(existsCacheFile("2.data"));
+    assertEquals(10, statistics.getNumBytesFetched());
+    assertEquals(0, statistics.getNumBytesWritten());
+    assertEquals(10, statistics.getNumBytes());
+  }
+
   @Test
   public void testFailingFetcher() throws IOException {
     final DomainVersion v0 = new MockDomainVersion(0, 0l);
@@ -308,7 +368,8 @@ public class TestIncrementalPartitionUpdater extends IncrementalPartitionUpdater
     updater.cacheVersionsNeededToUpdate(null,
         Collections.<DomainVersion>emptySet(),
         Collections.<DomainVersion>emptySet(),
-        new IncrementalUpdatePlan(v0));
+        new IncrementalUpdatePlan(v0),
+        new PartitionUpdateTaskStatistics());
     assertTrue(existsCacheFile("0.data"));
 
     // Clean cache
@@ -321,7 +382,8 @@ public class TestIncrementalPartitionUpdater extends IncrementalPartitionUpdater
       updater.cacheVersionsNeededToUpdate(null,
           Collections.<DomainVersion>emptySet(),
           Collections.<DomainVersion>emptySet(),
-          new IncrementalUpdatePlan(v0, v1));
+          new IncrementalUpdatePlan(v0, v1),
+          new PartitionUpdateTaskStatistics());
       fail("Should fail");
     } catch (Error e) {
       // Good
@@ -198,6 +198,16 @@ public class UiUtils {
     }
   }
 
+  // Progress is the fraction of Readers loaded, negative if the host is not loading Readers
+  public static String formatReaderLoadingProgress(double progress) {
+    if (progress < 0) {
+      return "";
+    }
+    return FormatUtils.formatDouble(progress * 100) + "% Readers loaded"
+        + "<div class=\'progress-bar\'><div class=\'progress-bar-filler\' style=\'width: "
+        + Math.round(progress * 100) + "%\'></div></div>";
+  }
+
   public static String formatUpdateProgress(UpdateProgressAggregator updateProgressAggregator) {
     return formatUpdateProgress(updateProgressAggregator, -1);
   }
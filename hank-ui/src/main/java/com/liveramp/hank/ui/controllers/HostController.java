@@ -3,6 +3,8 @@ package com.liveramp.hank.ui.controllers;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 
 import com.liveramp.hank.coordinator.Coordinator;
 import com.liveramp.hank.coordinator.Host;
@@ -13,6 +15,7 @@ import com.liveramp.hank.coordinator.Hosts;
 import com.liveramp.hank.coordinator.PartitionServerAddress;
 import com.liveramp.hank.coordinator.Ring;
 import com.liveramp.hank.coordinator.RingGroup;
+import com.liveramp.hank.storage.BandwidthGovernor;
 import com.liveramp.hank.ui.URLEnc;
 
 public class HostController extends Controller {
@@ -57,6 +60,12 @@ public class HostController extends Controller {
         doUpdate(req, resp);
       }
     });
+    actions.put("set_bandwidth_limits", new Action() {
+      @Override
+      protected void action(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        doSetBandwidthLimits(req, resp);
+      }
+    });
   }
 
   protected void doDiscardCurrentCommand(HttpServletRequest req, HttpServletResponse resp) throws IOException {
@@ -116,6 +125,22 @@ public class HostController extends Controller {
     }
   }
 
+  private void doSetBandwidthLimits(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+    RingGroup rg = coordinator.getRingGroup(req.getParameter("g"));
+    Ring r = rg.getRing(Integer.parseInt(req.getParameter("n")));
+    Host h = r.getHostByAddress(PartitionServerAddress.parse(URLEnc.decode(req.getParameter("h"))));
+    Map<String, Long> bandwidthLimits = new HashMap<String, Long>();
+    for (BandwidthGovernor.Budget budget : BandwidthGovernor.Budget.values()) {
+      String limit = req.getParameter(budget.getName());
+      if (limit != null && !limit.trim().isEmpty()) {
+        bandwidthLimits.put(budget.getName(), Long.parseLong(limit.trim()));
+      }
+    }
+    h.setBandwidthLimits(bandwidthLimits);
+
+    redirectBack(resp, rg, r, h);
+  }
+
   public static String getHostUrl(RingGroup ringGroup, Ring ring, Host host) {
     return "host.jsp?g=" + URLEnc.encode(ringGroup.getName())
         + "&r=" + ring.getRingNumber()
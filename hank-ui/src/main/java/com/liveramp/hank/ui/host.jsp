@@ -3,6 +3,7 @@
 
     <%@page import="com.liveramp.hank.coordinator.*" %>
     <%@page import="com.liveramp.hank.partition_server.*" %>
+    <%@page import="com.liveramp.hank.storage.BandwidthGovernor" %>
     <%@page import="com.liveramp.hank.ui.*" %>
     <%@page import="com.liveramp.hank.util.*" %>
     <%@page import="java.util.*" %>
@@ -257,6 +258,28 @@
     <input type="submit" value="Enqueue Command"/>
     </form>
 
+    <h2>Update Bandwidth Limits</h2>
+
+    <form action="/host/set_bandwidth_limits" method="post">
+    <input type="hidden" name="g" value="<%= ringGroup.getName() %>"/>
+    <input type="hidden" name="n" value="<%= ring.getRingNumber() %>"/>
+    <input type="hidden" name="h" value="<%= host.getAddress() %>"/>
+
+    <table class='table-blue-compact'>
+      <%
+    Map<String, Long> bandwidthLimits = host.getBandwidthLimits();
+    for (BandwidthGovernor.Budget budget : BandwidthGovernor.Budget.values()) {
+      Long limit = bandwidthLimits.get(budget.getName());
+  %>
+    <tr>
+    <td><%= budget.getName() %> (bytes/s):</td>
+    <td><input type="text" name="<%= budget.getName() %>" value="<%= limit == null ? "" : limit %>"/></td>
+    </tr>
+      <% } %>
+    </table>
+    <input type="submit" value="Set Bandwidth Limits"/> (empty means no limit)
+    </form>
+
     </div>
 
 
@@ -229,7 +229,8 @@ Ring ring = ringGroup.getRing(Integer.parseInt(request.getParameter("n")));
       }
       %>
 
-    <td><%= UiUtils.formatUpdateProgress(progress, hostUpdateETA) %></td>
+    <td><%= UiUtils.formatUpdateProgress(progress, hostUpdateETA) %>
+      <%= UiUtils.formatReaderLoadingProgress(Hosts.computeReaderLoadingProgress(host)) %></td>
 
     <td class='centered'><%= host.getCurrentCommand() %></td>
     <td><%= host.getCommandQueue() %></td>
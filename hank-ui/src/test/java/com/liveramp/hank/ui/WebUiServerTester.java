@@ -90,6 +90,11 @@ public class WebUiServerTester extends ZkMockCoordinatorTestCase {
       public HankBulkResponse getBulk(String domainName, List<ByteBuffer> keys) throws TException {
         return null;
       }
+
+      @Override
+      public HankBulkResponse getMulti(List<String> domainNames, List<ByteBuffer> keys) throws TException {
+        return null;
+      }
     };
     IClientCache clientCache = new IClientCache() {
       @Override